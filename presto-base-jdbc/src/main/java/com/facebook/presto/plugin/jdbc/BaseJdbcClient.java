@@ -13,25 +13,36 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.FixedSplitSource;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.TableNotFoundException;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.predicate.ValueSet;
 import com.facebook.presto.spi.type.Type;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
+import org.joda.time.chrono.ISOChronology;
 
 import javax.annotation.Nullable;
 
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.Date;
 import java.sql.Driver;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -42,9 +53,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static com.facebook.presto.plugin.jdbc.JdbcErrorCode.JDBC_ERROR;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_FOUND;
@@ -63,9 +77,12 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Maps.fromProperties;
+import static java.lang.String.format;
 import static java.util.Collections.nCopies;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toSet;
+import static org.joda.time.DateTimeZone.UTC;
 
 public class BaseJdbcClient
         implements JdbcClient
@@ -90,6 +107,8 @@ public class BaseJdbcClient
     protected final String connectionUrl;
     protected final Properties connectionProperties;
     protected final String identifierQuote;
+    protected final int splitCount;
+    protected final Map<SchemaTableName, String> splitColumns;
 
     public BaseJdbcClient(JdbcConnectorId connectorId, BaseJdbcConfig config, String identifierQuote, Driver driver)
     {
@@ -107,6 +126,15 @@ public class BaseJdbcClient
         if (config.getConnectionPassword() != null) {
             connectionProperties.setProperty("password", config.getConnectionPassword());
         }
+
+        splitCount = config.getSplitCount();
+        ImmutableMap.Builder<SchemaTableName, String> splitColumns = ImmutableMap.builder();
+        for (String splitColumn : config.getSplitColumns()) {
+            List<String> parts = Splitter.on('.').splitToList(splitColumn);
+            checkArgument(parts.size() == 3, "Split column is not of the form schema.table.column: %s", splitColumn);
+            splitColumns.put(new SchemaTableName(parts.get(0), parts.get(1)), parts.get(2));
+        }
+        this.splitColumns = splitColumns.build();
     }
 
     @Override
@@ -220,15 +248,254 @@ public class BaseJdbcClient
     public ConnectorSplitSource getSplits(JdbcTableLayoutHandle layoutHandle)
     {
         JdbcTableHandle tableHandle = layoutHandle.getTable();
-        JdbcSplit jdbcSplit = new JdbcSplit(
-                connectorId,
-                tableHandle.getCatalogName(),
-                tableHandle.getSchemaName(),
-                tableHandle.getTableName(),
-                connectionUrl,
-                fromProperties(connectionProperties),
-                layoutHandle.getTupleDomain());
-        return new FixedSplitSource(connectorId, ImmutableList.of(jdbcSplit));
+        TupleDomain<ColumnHandle> tupleDomain = layoutHandle.getTupleDomain();
+
+        // each group of a pushed down aggregation must be computed by a single query
+        List<TupleDomain<ColumnHandle>> splitDomains = ImmutableList.of(tupleDomain);
+        if (splitCount > 1 && !tupleDomain.isNone() && !layoutHandle.getGroupingColumns().isPresent()) {
+            splitDomains = getSplitDomains(tableHandle, tupleDomain);
+        }
+
+        ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
+        for (TupleDomain<ColumnHandle> splitDomain : splitDomains) {
+            splits.add(new JdbcSplit(
+                    connectorId,
+                    tableHandle.getCatalogName(),
+                    tableHandle.getSchemaName(),
+                    tableHandle.getTableName(),
+                    connectionUrl,
+                    fromProperties(connectionProperties),
+                    splitDomain,
+                    layoutHandle.getGroupingColumns(),
+                    layoutHandle.getAggregations(),
+                    layoutHandle.getSortOrder(),
+                    layoutHandle.getLimit()));
+        }
+        return new FixedSplitSource(connectorId, splits.build());
+    }
+
+    @Override
+    public Optional<JdbcTableLayoutHandle> pushDownAggregation(JdbcTableLayoutHandle layoutHandle, List<JdbcColumnHandle> groupingColumns, List<JdbcAggregation> aggregations)
+    {
+        if (layoutHandle.getGroupingColumns().isPresent() || layoutHandle.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+        for (JdbcColumnHandle column : groupingColumns) {
+            if (!isGroupingSupported(column.getColumnType())) {
+                return Optional.empty();
+            }
+        }
+        for (JdbcAggregation aggregation : aggregations) {
+            if (!isAggregationSupported(aggregation)) {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.of(new JdbcTableLayoutHandle(
+                layoutHandle.getTable(),
+                layoutHandle.getTupleDomain(),
+                Optional.of(groupingColumns),
+                aggregations,
+                ImmutableList.of(),
+                OptionalLong.empty()));
+    }
+
+    @Override
+    public Optional<JdbcTableLayoutHandle> pushDownLimit(JdbcTableLayoutHandle layoutHandle, List<JdbcSortItem> sortOrder, long limit)
+    {
+        if (layoutHandle.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+        Set<JdbcColumnHandle> aggregationColumns = layoutHandle.getAggregations().stream()
+                .map(JdbcAggregation::getOutputColumn)
+                .collect(toSet());
+        for (JdbcSortItem sortItem : sortOrder) {
+            if (aggregationColumns.contains(sortItem.getColumn()) || !isOrderingSupported(sortItem.getColumn().getColumnType())) {
+                return Optional.empty();
+            }
+        }
+
+        return Optional.of(new JdbcTableLayoutHandle(
+                layoutHandle.getTable(),
+                layoutHandle.getTupleDomain(),
+                layoutHandle.getGroupingColumns(),
+                layoutHandle.getAggregations(),
+                sortOrder,
+                OptionalLong.of(limit)));
+    }
+
+    /**
+     * Returns whether the database groups the values of the type by the same
+     * equality as Presto.
+     */
+    protected boolean isGroupingSupported(Type type)
+    {
+        return type.equals(BIGINT) || type.equals(DOUBLE) || type.equals(BOOLEAN) || type.equals(DATE) || type.equals(VARCHAR);
+    }
+
+    /**
+     * Returns whether the database orders the values of the type the same way
+     * as Presto.
+     */
+    protected boolean isOrderingSupported(Type type)
+    {
+        return type.equals(BIGINT) || type.equals(DOUBLE) || type.equals(DATE);
+    }
+
+    protected boolean isAggregationSupported(JdbcAggregation aggregation)
+    {
+        Optional<Type> argumentType = aggregation.getArgument().map(JdbcColumnHandle::getColumnType);
+        switch (aggregation.getFunctionName()) {
+            case "count":
+                return true;
+            case "sum":
+                return argumentType.isPresent() && (argumentType.get().equals(BIGINT) || argumentType.get().equals(DOUBLE));
+            case "min":
+            case "max":
+                return argumentType.isPresent() && isOrderingSupported(argumentType.get());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Divides the range of values of the split column into one domain per split,
+     * each intersected with the domain of the layout. Rows with a null split
+     * column value are read by the first split.
+     */
+    private List<TupleDomain<ColumnHandle>> getSplitDomains(JdbcTableHandle tableHandle, TupleDomain<ColumnHandle> tupleDomain)
+    {
+        Optional<JdbcColumnHandle> splitColumn = getSplitColumn(tableHandle);
+        if (!splitColumn.isPresent()) {
+            return ImmutableList.of(tupleDomain);
+        }
+        JdbcColumnHandle column = splitColumn.get();
+
+        String sql = new StringBuilder()
+                .append("SELECT min(").append(quoted(column.getColumnName())).append("), ")
+                .append("max(").append(quoted(column.getColumnName())).append(") FROM ")
+                .append(quoted(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName()))
+                .toString();
+
+        long min;
+        long max;
+        try (Connection connection = driver.connect(connectionUrl, connectionProperties);
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+            if (!resultSet.next()) {
+                return ImmutableList.of(tupleDomain);
+            }
+            if (column.getColumnType().equals(DATE)) {
+                Date minDate = resultSet.getDate(1);
+                Date maxDate = resultSet.getDate(2);
+                if (minDate == null || maxDate == null) {
+                    return ImmutableList.of(tupleDomain);
+                }
+                min = toDays(minDate);
+                max = toDays(maxDate);
+            }
+            else {
+                min = resultSet.getLong(1);
+                max = resultSet.getLong(2);
+                if (resultSet.wasNull()) {
+                    return ImmutableList.of(tupleDomain);
+                }
+            }
+        }
+        catch (SQLException e) {
+            throw new PrestoException(JDBC_ERROR, e);
+        }
+
+        ImmutableList.Builder<TupleDomain<ColumnHandle>> splitDomains = ImmutableList.builder();
+        for (Domain range : getSplitRanges(column.getColumnType(), min, max, splitCount)) {
+            TupleDomain<ColumnHandle> splitDomain = tupleDomain.intersect(TupleDomain.withColumnDomains(ImmutableMap.<ColumnHandle, Domain>of(column, range)));
+            if (!splitDomain.isNone()) {
+                splitDomains.add(splitDomain);
+            }
+        }
+        List<TupleDomain<ColumnHandle>> result = splitDomains.build();
+        return result.isEmpty() ? ImmutableList.of(tupleDomain) : result;
+    }
+
+    /**
+     * Returns the column configured for the table, or else the primary key if it
+     * consists of a single column that can be split.
+     */
+    private Optional<JdbcColumnHandle> getSplitColumn(JdbcTableHandle tableHandle)
+    {
+        String columnName = splitColumns.get(tableHandle.getSchemaTableName());
+        if (columnName != null) {
+            for (JdbcColumnHandle column : getColumns(tableHandle)) {
+                if (column.getColumnName().equalsIgnoreCase(columnName)) {
+                    if (!isSplittableType(column.getColumnType())) {
+                        throw new PrestoException(NOT_SUPPORTED, format("Split column %s of table %s must be of type bigint or date", columnName, tableHandle.getSchemaTableName()));
+                    }
+                    return Optional.of(column);
+                }
+            }
+            throw new PrestoException(NOT_FOUND, format("Split column %s not found in table %s", columnName, tableHandle.getSchemaTableName()));
+        }
+
+        List<String> primaryKey = new ArrayList<>();
+        try (Connection connection = driver.connect(connectionUrl, connectionProperties);
+                ResultSet resultSet = connection.getMetaData().getPrimaryKeys(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName())) {
+            while (resultSet.next()) {
+                primaryKey.add(resultSet.getString("COLUMN_NAME"));
+            }
+        }
+        catch (SQLException e) {
+            throw new PrestoException(JDBC_ERROR, e);
+        }
+        if (primaryKey.size() != 1) {
+            return Optional.empty();
+        }
+        return getColumns(tableHandle).stream()
+                .filter(column -> column.getColumnName().equals(primaryKey.get(0)))
+                .filter(column -> isSplittableType(column.getColumnType()))
+                .findFirst();
+    }
+
+    private static boolean isSplittableType(Type type)
+    {
+        return type.equals(BIGINT) || type.equals(DATE);
+    }
+
+    private static long toDays(Date date)
+    {
+        // JDBC returns a date using a timestamp at midnight in the JVM timezone
+        long utcMillis = ISOChronology.getInstance().getZone().getMillisKeepLocal(UTC, date.getTime());
+        return TimeUnit.MILLISECONDS.toDays(utcMillis);
+    }
+
+    /**
+     * Divides {@code [min, max]} into at most {@code splitCount} ranges of equal width.
+     * The first and the last range are unbounded, so that they cover values
+     * outside of the range, and the first range also includes null.
+     */
+    @VisibleForTesting
+    static List<Domain> getSplitRanges(Type type, long min, long max, int splitCount)
+    {
+        checkArgument(min <= max, "min is greater than max");
+        BigInteger width = BigInteger.valueOf(max).subtract(BigInteger.valueOf(min)).add(BigInteger.ONE);
+        int count = width.min(BigInteger.valueOf(splitCount)).intValue();
+        if (count <= 1) {
+            return ImmutableList.of(Domain.all(type));
+        }
+
+        long[] boundaries = new long[count - 1];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaries[i] = BigInteger.valueOf(min)
+                    .add(width.multiply(BigInteger.valueOf(i + 1)).divide(BigInteger.valueOf(count)))
+                    .longValue();
+        }
+
+        ImmutableList.Builder<Domain> ranges = ImmutableList.builder();
+        ranges.add(Domain.create(ValueSet.ofRanges(Range.lessThan(type, boundaries[0])), true));
+        for (int i = 1; i < boundaries.length; i++) {
+            ranges.add(Domain.create(ValueSet.ofRanges(Range.range(type, boundaries[i - 1], true, boundaries[i], false)), false));
+        }
+        ranges.add(Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(type, boundaries[boundaries.length - 1])), false));
+        return ranges.build();
     }
 
     @Override
@@ -256,7 +523,11 @@ public class BaseJdbcClient
                 split.getSchemaName(),
                 split.getTableName(),
                 columnHandles,
-                split.getTupleDomain());
+                split.getTupleDomain(),
+                split.getGroupingColumns(),
+                split.getAggregations(),
+                split.getSortOrder(),
+                split.getLimit());
     }
 
     @Override
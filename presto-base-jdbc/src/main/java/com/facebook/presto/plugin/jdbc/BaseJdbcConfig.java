@@ -13,15 +13,25 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
+import java.util.List;
+
 public class BaseJdbcConfig
 {
+    private static final Splitter SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
     private String connectionUrl;
     private String connectionUser;
     private String connectionPassword;
+    private int splitCount = 1;
+    private List<String> splitColumns = ImmutableList.of();
 
     @NotNull
     public String getConnectionUrl()
@@ -59,4 +69,38 @@ public class BaseJdbcConfig
         this.connectionPassword = connectionPassword;
         return this;
     }
+
+    @Min(1)
+    public int getSplitCount()
+    {
+        return splitCount;
+    }
+
+    @Config("split-count")
+    @ConfigDescription("Number of splits a table scan is divided into, and thus the maximum number of concurrent connections one scan opens to the database")
+    public BaseJdbcConfig setSplitCount(int splitCount)
+    {
+        this.splitCount = splitCount;
+        return this;
+    }
+
+    @NotNull
+    public List<String> getSplitColumns()
+    {
+        return splitColumns;
+    }
+
+    @Config("split-columns")
+    @ConfigDescription("Comma separated list of schema.table.column entries naming the column used to split a table")
+    public BaseJdbcConfig setSplitColumns(String commaSeparatedList)
+    {
+        this.splitColumns = SPLITTER.splitToList(commaSeparatedList);
+        return this;
+    }
+
+    public BaseJdbcConfig setSplitColumns(String... splitColumns)
+    {
+        this.splitColumns = ImmutableList.copyOf(splitColumns);
+        return this;
+    }
 }
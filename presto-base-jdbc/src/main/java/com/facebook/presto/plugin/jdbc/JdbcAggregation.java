@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.jdbc;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An aggregation computed by the remote database, which produces the output column.
+ */
+public final class JdbcAggregation
+{
+    private final JdbcColumnHandle outputColumn;
+    private final String functionName;
+    private final Optional<JdbcColumnHandle> argument;
+
+    @JsonCreator
+    public JdbcAggregation(
+            @JsonProperty("outputColumn") JdbcColumnHandle outputColumn,
+            @JsonProperty("functionName") String functionName,
+            @JsonProperty("argument") Optional<JdbcColumnHandle> argument)
+    {
+        this.outputColumn = requireNonNull(outputColumn, "outputColumn is null");
+        this.functionName = requireNonNull(functionName, "functionName is null");
+        this.argument = requireNonNull(argument, "argument is null");
+    }
+
+    @JsonProperty
+    public JdbcColumnHandle getOutputColumn()
+    {
+        return outputColumn;
+    }
+
+    @JsonProperty
+    public String getFunctionName()
+    {
+        return functionName;
+    }
+
+    @JsonProperty
+    public Optional<JdbcColumnHandle> getArgument()
+    {
+        return argument;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JdbcAggregation that = (JdbcAggregation) o;
+        return Objects.equals(outputColumn, that.outputColumn) &&
+                Objects.equals(functionName, that.functionName) &&
+                Objects.equals(argument, that.argument);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(outputColumn, functionName, argument);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("outputColumn", outputColumn)
+                .add("functionName", functionName)
+                .add("argument", argument)
+                .toString();
+    }
+}
@@ -26,6 +26,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface JdbcClient
@@ -41,6 +42,10 @@ public interface JdbcClient
 
     ConnectorSplitSource getSplits(JdbcTableLayoutHandle layoutHandle);
 
+    Optional<JdbcTableLayoutHandle> pushDownAggregation(JdbcTableLayoutHandle layoutHandle, List<JdbcColumnHandle> groupingColumns, List<JdbcAggregation> aggregations);
+
+    Optional<JdbcTableLayoutHandle> pushDownLimit(JdbcTableLayoutHandle layoutHandle, List<JdbcSortItem> sortOrder, long limit);
+
     Connection getConnection(JdbcSplit split)
             throws SQLException;
 
@@ -15,8 +15,10 @@ package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregation;
 import com.facebook.presto.spi.ConnectorMetadata;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
+import com.facebook.presto.spi.ConnectorResolvedAggregation;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.ConnectorTableLayout;
@@ -27,7 +29,9 @@ import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableNotFoundException;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
@@ -40,19 +44,24 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.facebook.presto.plugin.jdbc.QueryBuilder.isAcceptedType;
 import static com.facebook.presto.plugin.jdbc.Types.checkType;
 import static com.facebook.presto.spi.StandardErrorCode.PERMISSION_DENIED;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
 
 public class JdbcMetadata
         implements ConnectorMetadata
 {
+    private final String connectorId;
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
 
     @Inject
     public JdbcMetadata(JdbcConnectorId connectorId, JdbcClient jdbcClient, JdbcMetadataConfig config)
     {
+        this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
         this.jdbcClient = requireNonNull(jdbcClient, "client is null");
 
         requireNonNull(config, "config is null");
@@ -76,7 +85,10 @@ public class JdbcMetadata
     {
         JdbcTableHandle tableHandle = checkType(table, JdbcTableHandle.class, "table");
         ConnectorTableLayout layout = new ConnectorTableLayout(new JdbcTableLayoutHandle(tableHandle, constraint.getSummary()));
-        return ImmutableList.of(new ConnectorTableLayoutResult(layout, constraint.getSummary()));
+        // the query sent to the database only filters columns of the types it can bind
+        TupleDomain<ColumnHandle> unenforcedConstraint = constraint.getSummary()
+                .transform(column -> isAcceptedType(checkType(column, JdbcColumnHandle.class, "column").getColumnType()) ? null : column);
+        return ImmutableList.of(new ConnectorTableLayoutResult(layout, unenforcedConstraint));
     }
 
     @Override
@@ -85,6 +97,51 @@ public class JdbcMetadata
         return new ConnectorTableLayout(handle);
     }
 
+    @Override
+    public boolean supportsPushDown(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return true;
+    }
+
+    @Override
+    public Optional<ConnectorResolvedAggregation> pushDownAggregation(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<ConnectorAggregation> aggregations)
+    {
+        JdbcTableLayoutHandle layoutHandle = checkType(tableLayoutHandle, JdbcTableLayoutHandle.class, "tableLayoutHandle");
+
+        ImmutableList.Builder<JdbcAggregation> jdbcAggregations = ImmutableList.builder();
+        for (int i = 0; i < aggregations.size(); i++) {
+            ConnectorAggregation aggregation = aggregations.get(i);
+            Optional<JdbcColumnHandle> argument = aggregation.getArgument().map(column -> checkType(column, JdbcColumnHandle.class, "column"));
+            // the output column is not a column of the table, so give it a name that is unlikely to be one
+            String columnName = format("%s(%s)#%s", aggregation.getFunctionName(), argument.map(JdbcColumnHandle::getColumnName).orElse("*"), i);
+            JdbcColumnHandle outputColumn = new JdbcColumnHandle(connectorId, columnName, aggregation.getOutputType());
+            jdbcAggregations.add(new JdbcAggregation(outputColumn, aggregation.getFunctionName(), argument));
+        }
+        List<JdbcAggregation> resolvedAggregations = jdbcAggregations.build();
+
+        List<JdbcColumnHandle> jdbcGroupingColumns = groupingColumns.stream()
+                .map(column -> checkType(column, JdbcColumnHandle.class, "column"))
+                .collect(toList());
+
+        return jdbcClient.pushDownAggregation(layoutHandle, jdbcGroupingColumns, resolvedAggregations)
+                .map(layout -> new ConnectorResolvedAggregation(layout, resolvedAggregations.stream()
+                        .map(JdbcAggregation::getOutputColumn)
+                        .collect(toList())));
+    }
+
+    @Override
+    public Optional<ConnectorTableLayoutHandle> pushDownLimit(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<SortingProperty<ColumnHandle>> sortOrder, long limit)
+    {
+        JdbcTableLayoutHandle layoutHandle = checkType(tableLayoutHandle, JdbcTableLayoutHandle.class, "tableLayoutHandle");
+
+        List<JdbcSortItem> sortItems = sortOrder.stream()
+                .map(property -> new JdbcSortItem(checkType(property.getColumn(), JdbcColumnHandle.class, "column"), property.getOrder()))
+                .collect(toList());
+
+        return jdbcClient.pushDownLimit(layoutHandle, sortItems, limit)
+                .map(ConnectorTableLayoutHandle.class::cast);
+    }
+
     @Override
     public ConnectorTableMetadata getTableMetadata(ConnectorSession session, ConnectorTableHandle table)
     {
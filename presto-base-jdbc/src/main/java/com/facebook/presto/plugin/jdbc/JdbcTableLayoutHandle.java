@@ -18,8 +18,12 @@ import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -28,14 +32,31 @@ public class JdbcTableLayoutHandle
 {
     private final JdbcTableHandle table;
     private final TupleDomain<ColumnHandle> tupleDomain;
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    private final List<JdbcAggregation> aggregations;
+    private final List<JdbcSortItem> sortOrder;
+    private final OptionalLong limit;
+
+    public JdbcTableLayoutHandle(JdbcTableHandle table, TupleDomain<ColumnHandle> domain)
+    {
+        this(table, domain, Optional.empty(), ImmutableList.of(), ImmutableList.of(), OptionalLong.empty());
+    }
 
     @JsonCreator
     public JdbcTableLayoutHandle(
             @JsonProperty("table") JdbcTableHandle table,
-            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> domain)
+            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> domain,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("aggregations") List<JdbcAggregation> aggregations,
+            @JsonProperty("sortOrder") List<JdbcSortItem> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         this.table = requireNonNull(table, "table is null");
         this.tupleDomain = requireNonNull(domain, "tupleDomain is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null").map(ImmutableList::copyOf);
+        this.aggregations = ImmutableList.copyOf(requireNonNull(aggregations, "aggregations is null"));
+        this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -50,6 +71,33 @@ public class JdbcTableLayoutHandle
         return tupleDomain;
     }
 
+    /**
+     * @return the columns the rows are grouped by, if the remote database computes an aggregation
+     */
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public List<JdbcAggregation> getAggregations()
+    {
+        return aggregations;
+    }
+
+    @JsonProperty
+    public List<JdbcSortItem> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -61,13 +109,17 @@ public class JdbcTableLayoutHandle
         }
         JdbcTableLayoutHandle that = (JdbcTableLayoutHandle) o;
         return Objects.equals(table, that.table) &&
-                Objects.equals(tupleDomain, that.tupleDomain);
+                Objects.equals(tupleDomain, that.tupleDomain) &&
+                Objects.equals(groupingColumns, that.groupingColumns) &&
+                Objects.equals(aggregations, that.aggregations) &&
+                Objects.equals(sortOrder, that.sortOrder) &&
+                Objects.equals(limit, that.limit);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(table, tupleDomain);
+        return Objects.hash(table, tupleDomain, groupingColumns, aggregations, sortOrder, limit);
     }
 
     @Override
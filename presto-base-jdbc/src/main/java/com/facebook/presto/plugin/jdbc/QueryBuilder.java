@@ -14,28 +14,40 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.BigintType;
 import com.facebook.presto.spi.type.BooleanType;
+import com.facebook.presto.spi.type.DateType;
 import com.facebook.presto.spi.type.DoubleType;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
 
+import static com.facebook.presto.plugin.jdbc.Types.checkType;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterables.transform;
 import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 
 public class QueryBuilder
 {
@@ -70,11 +82,30 @@ public class QueryBuilder
 
     public PreparedStatement buildSql(Connection connection, String catalog, String schema, String table, List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain)
             throws SQLException
+    {
+        return buildSql(connection, catalog, schema, table, columns, tupleDomain, Optional.empty(), ImmutableList.of(), ImmutableList.of(), OptionalLong.empty());
+    }
+
+    public PreparedStatement buildSql(
+            Connection connection,
+            String catalog,
+            String schema,
+            String table,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<List<JdbcColumnHandle>> groupingColumns,
+            List<JdbcAggregation> aggregations,
+            List<JdbcSortItem> sortOrder,
+            OptionalLong limit)
+            throws SQLException
     {
         StringBuilder sql = new StringBuilder();
 
+        Map<JdbcColumnHandle, JdbcAggregation> aggregationsByColumn = aggregations.stream()
+                .collect(toMap(JdbcAggregation::getOutputColumn, identity()));
+
         sql.append("SELECT ");
-        Joiner.on(", ").appendTo(sql, transform(columns, column -> quote(column.getColumnName())));
+        Joiner.on(", ").appendTo(sql, transform(columns, column -> toSelectExpression(column, aggregationsByColumn)));
         if (columns.isEmpty()) {
             sql.append("null");
         }
@@ -90,12 +121,26 @@ public class QueryBuilder
 
         List<TypeAndValue> accumulator = new ArrayList<>();
 
-        List<String> clauses = toConjuncts(columns, tupleDomain, accumulator);
+        List<String> clauses = toConjuncts(tupleDomain, accumulator);
         if (!clauses.isEmpty()) {
             sql.append(" WHERE ")
                     .append(Joiner.on(" AND ").join(clauses));
         }
 
+        if (groupingColumns.isPresent() && !groupingColumns.get().isEmpty()) {
+            sql.append(" GROUP BY ");
+            Joiner.on(", ").appendTo(sql, transform(groupingColumns.get(), column -> quote(column.getColumnName())));
+        }
+
+        if (!sortOrder.isEmpty()) {
+            sql.append(" ORDER BY ");
+            Joiner.on(", ").appendTo(sql, transform(sortOrder, this::toOrderByExpression));
+        }
+
+        if (limit.isPresent()) {
+            sql.append(" LIMIT ").append(limit.getAsLong());
+        }
+
         PreparedStatement statement = connection.prepareStatement(sql.toString());
 
         for (int i = 0; i < accumulator.size(); i++) {
@@ -109,6 +154,12 @@ public class QueryBuilder
             else if (typeAndValue.getType().equals(BooleanType.BOOLEAN)) {
                 statement.setBoolean(i + 1, (Boolean) typeAndValue.getValue());
             }
+            else if (typeAndValue.getType().equals(DateType.DATE)) {
+                // convert to midnight in default time zone
+                long utcMillis = TimeUnit.DAYS.toMillis((Long) typeAndValue.getValue());
+                long localMillis = ISOChronology.getInstanceUTC().getZone().getMillisKeepLocal(DateTimeZone.getDefault(), utcMillis);
+                statement.setDate(i + 1, new Date(localMillis));
+            }
             else {
                 throw new UnsupportedOperationException("Can't handle type: " + typeAndValue.getType());
             }
@@ -117,22 +168,44 @@ public class QueryBuilder
         return statement;
     }
 
-    private static boolean isAcceptedType(Type type)
+    private String toSelectExpression(JdbcColumnHandle column, Map<JdbcColumnHandle, JdbcAggregation> aggregationsByColumn)
+    {
+        JdbcAggregation aggregation = aggregationsByColumn.get(column);
+        if (aggregation == null) {
+            return quote(column.getColumnName());
+        }
+        String argument = aggregation.getArgument()
+                .map(argumentColumn -> quote(argumentColumn.getColumnName()))
+                .orElse("*");
+        return aggregation.getFunctionName() + "(" + argument + ")";
+    }
+
+    private String toOrderByExpression(JdbcSortItem sortItem)
+    {
+        // not all databases support NULLS FIRST and NULLS LAST, and they differ in where they sort nulls by default
+        String column = quote(sortItem.getColumn().getColumnName());
+        SortOrder sortOrder = sortItem.getSortOrder();
+        return column + " IS NULL " + (sortOrder.isNullsFirst() ? "DESC" : "ASC") + ", " + column + (sortOrder.isAscending() ? " ASC" : " DESC");
+    }
+
+    static boolean isAcceptedType(Type type)
     {
         Type validType = requireNonNull(type, "type is null");
-        return validType.equals(BigintType.BIGINT) || validType.equals(DoubleType.DOUBLE) || validType.equals(BooleanType.BOOLEAN);
+        return validType.equals(BigintType.BIGINT) || validType.equals(DoubleType.DOUBLE) || validType.equals(BooleanType.BOOLEAN) || validType.equals(DateType.DATE);
     }
 
-    private List<String> toConjuncts(List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain, List<TypeAndValue> accumulator)
+    private List<String> toConjuncts(TupleDomain<ColumnHandle> tupleDomain, List<TypeAndValue> accumulator)
     {
+        if (tupleDomain.isNone()) {
+            return ImmutableList.of("FALSE");
+        }
         ImmutableList.Builder<String> builder = ImmutableList.builder();
-        for (JdbcColumnHandle column : columns) {
+        // the domain can constrain columns that are not selected, such as the column the split ranges over
+        for (Map.Entry<ColumnHandle, Domain> entry : tupleDomain.getDomains().get().entrySet()) {
+            JdbcColumnHandle column = checkType(entry.getKey(), JdbcColumnHandle.class, "column");
             Type type = column.getColumnType();
             if (isAcceptedType(type)) {
-                Domain domain = tupleDomain.getDomains().get().get(column);
-                if (domain != null) {
-                    builder.add(toPredicate(column.getColumnName(), domain, type, accumulator));
-                }
+                builder.add(toPredicate(column.getColumnName(), entry.getValue(), type, accumulator));
             }
         }
         return builder.build();
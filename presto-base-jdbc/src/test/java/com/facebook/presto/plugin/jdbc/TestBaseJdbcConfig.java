@@ -27,7 +27,9 @@ public class TestBaseJdbcConfig
         ConfigAssertions.assertRecordedDefaults(ConfigAssertions.recordDefaults(BaseJdbcConfig.class)
                 .setConnectionUrl(null)
                 .setConnectionUser(null)
-                .setConnectionPassword(null));
+                .setConnectionPassword(null)
+                .setSplitCount(1)
+                .setSplitColumns(""));
     }
 
     @Test
@@ -37,12 +39,16 @@ public class TestBaseJdbcConfig
                 .put("connection-url", "jdbc:h2:mem:config")
                 .put("connection-user", "user")
                 .put("connection-password", "password")
+                .put("split-count", "8")
+                .put("split-columns", "example.numbers.value, tpch.orders.orderkey")
                 .build();
 
         BaseJdbcConfig expected = new BaseJdbcConfig()
                 .setConnectionUrl("jdbc:h2:mem:config")
                 .setConnectionUser("user")
-                .setConnectionPassword("password");
+                .setConnectionPassword("password")
+                .setSplitCount(8)
+                .setSplitColumns("example.numbers.value", "tpch.orders.orderkey");
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -14,6 +14,9 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.ValueSet;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.testng.annotations.AfterClass;
@@ -87,4 +90,24 @@ public class TestJdbcClient
                 new JdbcColumnHandle(CONNECTOR_ID, "TE_T", VARCHAR),
                 new JdbcColumnHandle(CONNECTOR_ID, "VA%UE", BIGINT)));
     }
+
+    @Test
+    public void testSplitRanges()
+    {
+        assertEquals(BaseJdbcClient.getSplitRanges(BIGINT, 1, 12, 3), ImmutableList.of(
+                Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 5L)), true),
+                Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 5L, true, 9L, false)), false),
+                Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 9L)), false)));
+
+        // fewer distinct values than splits
+        assertEquals(BaseJdbcClient.getSplitRanges(BIGINT, 7, 8, 3), ImmutableList.of(
+                Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 8L)), true),
+                Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 8L)), false)));
+        assertEquals(BaseJdbcClient.getSplitRanges(BIGINT, 7, 7, 3), ImmutableList.of(Domain.all(BIGINT)));
+
+        // the width of the range does not fit in a long
+        assertEquals(BaseJdbcClient.getSplitRanges(BIGINT, Long.MIN_VALUE, Long.MAX_VALUE, 2), ImmutableList.of(
+                Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 0L)), true),
+                Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 0L)), false)));
+    }
 }
@@ -14,9 +14,13 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.tests.AbstractTestIntegrationSmokeTest;
+import org.testng.annotations.Test;
 
 import static com.facebook.presto.plugin.jdbc.JdbcQueryRunner.createJdbcQueryRunner;
+import static com.facebook.presto.sql.tree.ExplainType.Type.LOGICAL;
 import static io.airlift.tpch.TpchTable.ORDERS;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestJdbcIntegrationSmokeTest
         extends AbstractTestIntegrationSmokeTest
@@ -27,6 +31,44 @@ public class TestJdbcIntegrationSmokeTest
         super(createJdbcQueryRunner(ORDERS));
     }
 
+    @Test
+    public void testPushDown()
+            throws Exception
+    {
+        assertQuery("SELECT orderstatus, count(*), count(clerk), sum(orderkey), min(orderdate), max(totalprice) FROM orders WHERE orderkey < 1000 GROUP BY orderstatus");
+        assertQuery("SELECT count(*), max(custkey) FROM orders WHERE orderstatus = 'P'");
+        assertQuery("SELECT count(*) FROM orders WHERE orderkey < 0");
+        assertQueryOrdered(
+                "SELECT orderkey, custkey FROM orders ORDER BY custkey DESC, orderkey LIMIT 5",
+                "SELECT orderkey, custkey FROM orders ORDER BY custkey DESC, orderkey LIMIT 5");
+        assertQuery("SELECT count(*) FROM (SELECT orderkey FROM orders LIMIT 10)", "SELECT 10");
+    }
+
+    @Test
+    public void testPushDownPlan()
+            throws Exception
+    {
+        // the aggregation replaces the filter and the project computing the hash of the grouping columns
+        String plan = getExplainPlan("SELECT orderstatus, count(*), sum(orderkey) FROM orders WHERE orderkey < 1000 GROUP BY orderstatus", LOGICAL);
+        assertFalse(plan.contains("Aggregate"), plan);
+        assertFalse(plan.contains("filterPredicate"), plan);
+        assertFalse(plan.contains("$hashvalue"), plan);
+
+        // the limit is still applied above the table scan, but the filter enforced by the layout is removed
+        plan = getExplainPlan("SELECT orderkey FROM orders WHERE orderkey < 1000 LIMIT 5", LOGICAL);
+        assertTrue(plan.contains("Limit"), plan);
+        assertFalse(plan.contains("filterPredicate"), plan);
+
+        // varchar domains are not enforced by the layout, so the aggregation must stay in the engine
+        plan = getExplainPlan("SELECT count(*), max(custkey) FROM orders WHERE orderstatus = 'P'", LOGICAL);
+        assertTrue(plan.contains("Aggregate"), plan);
+        assertTrue(plan.contains("filterPredicate"), plan);
+
+        // so must an aggregation over a filter that is not a domain of the columns
+        plan = getExplainPlan("SELECT count(*) FROM orders WHERE orderkey % 2 = 0", LOGICAL);
+        assertTrue(plan.contains("Aggregate"), plan);
+    }
+
     @Override
     public void testViewAccessControl()
     {
@@ -14,6 +14,7 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.SortedRangeSet;
@@ -37,6 +38,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.testng.Assert.assertEquals;
 
@@ -137,4 +140,66 @@ public class TestJdbcQueryBuilder
         ResultSet res = preparedStatement.executeQuery();
         assertEquals(res.next(), false);
     }
+
+    @Test
+    public void testAggregationBuildSql()
+            throws SQLException
+    {
+        TupleDomain<ColumnHandle> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(
+                cols.get(0), Domain.create(SortedRangeSet.copyOf(BigintType.BIGINT, ImmutableList.of(Range.lessThan(BigintType.BIGINT, 100L))), false)));
+        JdbcAggregation count = new JdbcAggregation(new JdbcColumnHandle("test_id", "count(*)#0", BigintType.BIGINT), "count", Optional.empty());
+        JdbcAggregation sum = new JdbcAggregation(new JdbcColumnHandle("test_id", "sum(col_0)#1", BigintType.BIGINT), "sum", Optional.of(cols.get(0)));
+        JdbcAggregation max = new JdbcAggregation(new JdbcColumnHandle("test_id", "max(col_1)#2", DoubleType.DOUBLE), "max", Optional.of(cols.get(1)));
+        List<JdbcColumnHandle> columns = ImmutableList.of(cols.get(2), count.getOutputColumn(), sum.getOutputColumn(), max.getOutputColumn());
+        Connection connection = dummyHandle.getConnection();
+
+        PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(
+                connection,
+                "",
+                "",
+                "test_table",
+                columns,
+                tupleDomain,
+                Optional.of(ImmutableList.of(cols.get(2))),
+                ImmutableList.of(count, sum, max),
+                ImmutableList.of(),
+                OptionalLong.empty());
+
+        ResultSet res = preparedStatement.executeQuery();
+
+        ImmutableMap.Builder<Boolean, List<Object>> builder = ImmutableMap.builder();
+        while (res.next()) {
+            builder.put(res.getBoolean(1), ImmutableList.of(res.getLong(2), res.getLong(3), res.getDouble(4)));
+        }
+        assertEquals(builder.build(), ImmutableMap.of(
+                true, ImmutableList.of(50L, 2450L, 200049.0),
+                false, ImmutableList.of(50L, 2500L, 200049.5)));
+    }
+
+    @Test
+    public void testTopNBuildSql()
+            throws SQLException
+    {
+        Connection connection = dummyHandle.getConnection();
+
+        PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(
+                connection,
+                "",
+                "",
+                "test_table",
+                cols,
+                TupleDomain.all(),
+                Optional.empty(),
+                ImmutableList.of(),
+                ImmutableList.of(new JdbcSortItem(cols.get(1), SortOrder.DESC_NULLS_LAST)),
+                OptionalLong.of(3));
+
+        ResultSet res = preparedStatement.executeQuery();
+
+        ImmutableList.Builder<Long> builder = ImmutableList.builder();
+        while (res.next()) {
+            builder.add((Long) res.getObject("col_0"));
+        }
+        assertEquals(builder.build(), ImmutableList.of(999L, 998L, 997L));
+    }
 }
@@ -14,6 +14,7 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.RecordSet;
@@ -24,10 +25,12 @@ import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.predicate.ValueSet;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -179,6 +182,35 @@ public class TestJdbcRecordSetProvider
         ));
     }
 
+    @Test
+    public void testRangeSplits()
+            throws Exception
+    {
+        JdbcTableLayoutHandle layoutHandle = new JdbcTableLayoutHandle(table, TupleDomain.all());
+
+        // the primary key of the table is a varchar, so it is not split without a configured column
+        JdbcClient primaryKeyClient = database.createJdbcClient(new BaseJdbcConfig().setSplitCount(3));
+        assertEquals(getFutureValue(primaryKeyClient.getSplits(layoutHandle).getNextBatch(1000)).size(), 1);
+
+        JdbcClient splittingClient = database.createJdbcClient(new BaseJdbcConfig()
+                .setSplitCount(3)
+                .setSplitColumns("example.numbers.value"));
+        List<ConnectorSplit> splits = getFutureValue(splittingClient.getSplits(layoutHandle).getNextBatch(1000));
+        assertEquals(splits.size(), 3);
+
+        // the split column is not selected, but each row is still read by exactly one split
+        JdbcRecordSetProvider recordSetProvider = new JdbcRecordSetProvider(splittingClient);
+        List<String> texts = new ArrayList<>();
+        for (ConnectorSplit split : splits) {
+            try (RecordCursor cursor = recordSetProvider.getRecordSet(SESSION, split, ImmutableList.of(textColumn)).cursor()) {
+                while (cursor.advanceNextPosition()) {
+                    texts.add(cursor.getSlice(0).toStringUtf8());
+                }
+            }
+        }
+        assertEquals(ImmutableMultiset.copyOf(texts), ImmutableMultiset.of("one", "two", "three", "ten", "eleven", "twelve"));
+    }
+
     private RecordCursor getCursor(JdbcTableHandle jdbcTableHandle, List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> domain)
             throws InterruptedException
     {
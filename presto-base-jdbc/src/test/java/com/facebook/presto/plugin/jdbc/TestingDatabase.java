@@ -35,18 +35,15 @@ final class TestingDatabase
 {
     public static final String CONNECTOR_ID = "test";
 
+    private final String connectionUrl;
     private final Connection connection;
     private final JdbcClient jdbcClient;
 
     public TestingDatabase()
             throws SQLException
     {
-        String connectionUrl = "jdbc:h2:mem:test" + System.nanoTime();
-        jdbcClient = new BaseJdbcClient(
-                new JdbcConnectorId(CONNECTOR_ID),
-                new BaseJdbcConfig().setConnectionUrl(connectionUrl),
-                "\"",
-                new Driver());
+        connectionUrl = "jdbc:h2:mem:test" + System.nanoTime();
+        jdbcClient = createJdbcClient(new BaseJdbcConfig());
 
         connection = DriverManager.getConnection(connectionUrl);
         connection.createStatement().execute("CREATE SCHEMA example");
@@ -89,6 +86,15 @@ final class TestingDatabase
         return jdbcClient;
     }
 
+    public JdbcClient createJdbcClient(BaseJdbcConfig config)
+    {
+        return new BaseJdbcClient(
+                new JdbcConnectorId(CONNECTOR_ID),
+                config.setConnectionUrl(connectionUrl),
+                "\"",
+                new Driver());
+    }
+
     public JdbcSplit getSplit(String schemaName, String tableName)
             throws InterruptedException
     {
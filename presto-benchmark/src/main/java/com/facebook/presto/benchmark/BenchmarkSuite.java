@@ -81,6 +81,11 @@ public class BenchmarkSuite
                 new StatisticsBenchmark.DoubleStdDevBenchmark(localQueryRunner),
                 new StatisticsBenchmark.DoubleStdDevPopBenchmark(localQueryRunner),
 
+                // moving window benchmarks
+                new MovingWindowBenchmark.MovingSumBenchmark(localQueryRunner),
+                new MovingWindowBenchmark.MovingCountBenchmark(localQueryRunner),
+                new MovingWindowBenchmark.MovingMaxBenchmark(localQueryRunner),
+
                 // array comparison benchmarks
                 new ArrayComparisonBenchmark.ArrayEqualsBenchmark(localQueryRunner),
                 new ArrayComparisonBenchmark.ArrayLessThanBenchmark(localQueryRunner),
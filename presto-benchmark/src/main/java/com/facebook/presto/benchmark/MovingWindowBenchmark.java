@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.benchmark;
+
+import com.facebook.presto.testing.LocalQueryRunner;
+
+import static com.facebook.presto.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+
+public abstract class MovingWindowBenchmark
+{
+    public static void main(String... args)
+    {
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        new MovingSumBenchmark(localQueryRunner).runBenchmark(new AverageBenchmarkResults());
+        new MovingCountBenchmark(localQueryRunner).runBenchmark(new AverageBenchmarkResults());
+        new MovingMaxBenchmark(localQueryRunner).runBenchmark(new AverageBenchmarkResults());
+    }
+
+    public static class MovingSumBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public MovingSumBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_moving_sum", 10, 50, "" +
+                    "select max(s) from (" +
+                    "  select sum(totalprice) over (partition by orderstatus order by orderkey rows between 1000 preceding and current row) s" +
+                    "  from orders)");
+        }
+    }
+
+    public static class MovingCountBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public MovingCountBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_moving_count", 10, 50, "" +
+                    "select max(c) from (" +
+                    "  select count(clerk) over (partition by orderstatus order by orderkey rows between 1000 preceding and current row) c" +
+                    "  from orders)");
+        }
+    }
+
+    public static class MovingMaxBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public MovingMaxBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_moving_max", 10, 50, "" +
+                    "select max(m) from (" +
+                    "  select max(totalprice) over (partition by orderstatus order by orderkey rows between 1000 preceding and current row) m" +
+                    "  from orders)");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockEncoding;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.net.MediaType;
+import io.airlift.json.JsonCodec;
+import io.airlift.slice.SliceInput;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// layout is:
+//   - length of the header (int)
+//   - the query results without the result pages, as JSON
+//   - number of pages (int)
+//   - sequence of:
+//       - position count (int)
+//       - number of blocks (int), one per column
+//       - sequence of:
+//           - block encoding
+//           - block
+//
+// Columns of the types accepted by ResultPage.isNativeType are sent in their native
+// block representation. All other columns are sent as varchar blocks holding the JSON
+// text of each value. Results without pages may carry their rows in the JSON header.
+public final class BinaryQueryResults
+{
+    public static final String PRESTO_QUERY_RESULTS = "application/x-presto-query-results";
+    public static final MediaType PRESTO_QUERY_RESULTS_TYPE = MediaType.create("application", "x-presto-query-results");
+
+    private BinaryQueryResults() {}
+
+    public static QueryResults readQueryResults(JsonCodec<QueryResults> queryResultsCodec, SliceInput input)
+    {
+        int headerLength = input.readInt();
+        QueryResults header = queryResultsCodec.fromJson(input.readSlice(headerLength).toStringUtf8());
+
+        int pageCount = input.readInt();
+        if (pageCount == 0) {
+            return header;
+        }
+        checkArgument(header.getColumns() != null, "Query results with pages have no columns");
+
+        ImmutableList.Builder<ResultPage> pages = ImmutableList.builder();
+        for (int page = 0; page < pageCount; page++) {
+            pages.add(readPage(header.getColumns(), input));
+        }
+
+        return new QueryResults(
+                header.getId(),
+                header.getInfoUri(),
+                header.getPartialCancelUri(),
+                header.getNextUri(),
+                header.getColumns(),
+                Iterables.concat(pages.build()),
+                header.getStats(),
+                header.getError(),
+                header.getUpdateType(),
+                header.getUpdateCount());
+    }
+
+    private static ResultPage readPage(List<Column> columns, SliceInput input)
+    {
+        int positionCount = input.readInt();
+        int blockCount = input.readInt();
+        Block[] blocks = new Block[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            BlockEncoding encoding = ClientBlockEncodingSerde.INSTANCE.readBlockEncoding(input);
+            blocks[i] = encoding.readBlock(input);
+        }
+        return new ResultPage(columns, positionCount, blocks);
+    }
+}
@@ -219,7 +219,7 @@ public class QueryResults
     /**
      * Force values coming from Jackson to have the expected object type.
      */
-    private static Object fixValue(String type, Object value)
+    static Object fixValue(String type, Object value)
     {
         if (value == null) {
             return null;
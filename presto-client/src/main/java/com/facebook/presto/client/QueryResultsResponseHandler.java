@@ -0,0 +1,166 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.ResponseHandler;
+import io.airlift.json.JsonCodec;
+import io.airlift.slice.Slices;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.facebook.presto.client.BinaryQueryResults.PRESTO_QUERY_RESULTS_TYPE;
+import static com.facebook.presto.client.BinaryQueryResults.readQueryResults;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static io.airlift.http.client.ResponseHandlerUtils.propagate;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decodes query results sent either as JSON or in the binary format of {@link BinaryQueryResults},
+ * depending on the content type chosen by the server.
+ */
+public class QueryResultsResponseHandler
+        implements ResponseHandler<QueryResultsResponseHandler.QueryResultsResponse, RuntimeException>
+{
+    private static final MediaType JSON_TYPE = MediaType.create("application", "json");
+
+    private final JsonCodec<QueryResults> queryResultsCodec;
+
+    public QueryResultsResponseHandler(JsonCodec<QueryResults> queryResultsCodec)
+    {
+        this.queryResultsCodec = requireNonNull(queryResultsCodec, "queryResultsCodec is null");
+    }
+
+    @Override
+    public QueryResultsResponse handleException(Request request, Exception exception)
+    {
+        throw propagate(request, exception);
+    }
+
+    @Override
+    public QueryResultsResponse handle(Request request, Response response)
+    {
+        byte[] bytes;
+        try {
+            bytes = ByteStreams.toByteArray(response.getInputStream());
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error reading response from server", e);
+        }
+
+        String contentType = response.getHeader(CONTENT_TYPE);
+        if (contentType == null) {
+            return new QueryResultsResponse(response, null, null, bytes);
+        }
+
+        MediaType mediaType = MediaType.parse(contentType);
+        try {
+            if (mediaType.is(PRESTO_QUERY_RESULTS_TYPE)) {
+                return new QueryResultsResponse(response, readQueryResults(queryResultsCodec, Slices.wrappedBuffer(bytes).getInput()), null, bytes);
+            }
+            if (mediaType.is(JSON_TYPE)) {
+                return new QueryResultsResponse(response, queryResultsCodec.fromJson(new String(bytes, UTF_8)), null, bytes);
+            }
+        }
+        catch (RuntimeException e) {
+            return new QueryResultsResponse(response, null, e, bytes);
+        }
+        return new QueryResultsResponse(response, null, null, bytes);
+    }
+
+    public static class QueryResultsResponse
+    {
+        private final int statusCode;
+        private final String statusMessage;
+        private final ListMultimap<String, String> headers;
+        private final QueryResults value;
+        private final RuntimeException exception;
+        private final byte[] responseBytes;
+
+        private QueryResultsResponse(Response response, QueryResults value, RuntimeException exception, byte[] responseBytes)
+        {
+            this.statusCode = response.getStatusCode();
+            this.statusMessage = response.getStatusMessage();
+            this.headers = ImmutableListMultimap.copyOf(response.getHeaders());
+            this.value = value;
+            this.exception = exception;
+            this.responseBytes = requireNonNull(responseBytes, "responseBytes is null");
+        }
+
+        public int getStatusCode()
+        {
+            return statusCode;
+        }
+
+        public String getStatusMessage()
+        {
+            return statusMessage;
+        }
+
+        public String getHeader(String name)
+        {
+            List<String> values = headers.get(name);
+            if (values.isEmpty()) {
+                return null;
+            }
+            return values.get(0);
+        }
+
+        public ListMultimap<String, String> getHeaders()
+        {
+            return headers;
+        }
+
+        public boolean hasValue()
+        {
+            return value != null;
+        }
+
+        public QueryResults getValue()
+        {
+            checkState(hasValue(), "Response does not contain query results");
+            return value;
+        }
+
+        public RuntimeException getException()
+        {
+            return exception;
+        }
+
+        public String getResponseBody()
+        {
+            return new String(responseBytes, UTF_8);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("statusCode", statusCode)
+                    .add("statusMessage", statusMessage)
+                    .add("headers", headers)
+                    .add("hasValue", hasValue())
+                    .toString();
+        }
+    }
+}
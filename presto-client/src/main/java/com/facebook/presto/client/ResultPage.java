@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.StandardTypes;
+import com.facebook.presto.spi.type.Type;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.json.ObjectMapperProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A batch of result rows in columnar form, as sent by the binary results protocol.
+ * Values are decoded on access into the same objects the JSON protocol produces.
+ */
+public class ResultPage
+        implements Iterable<List<Object>>
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapperProvider().get();
+
+    private static final Map<String, Type> NATIVE_TYPES = ImmutableMap.<String, Type>builder()
+            .put(StandardTypes.BIGINT, BIGINT)
+            .put(StandardTypes.INTEGER, INTEGER)
+            .put(StandardTypes.SMALLINT, SMALLINT)
+            .put(StandardTypes.TINYINT, TINYINT)
+            .put(StandardTypes.DOUBLE, DOUBLE)
+            .put(StandardTypes.BOOLEAN, BOOLEAN)
+            .put(StandardTypes.VARCHAR, VARCHAR)
+            .put(StandardTypes.VARBINARY, VARBINARY)
+            .build();
+
+    private final List<Column> columns;
+    private final Type[] nativeTypes;
+    private final Block[] blocks;
+    private final int positionCount;
+
+    public ResultPage(List<Column> columns, int positionCount, Block[] blocks)
+    {
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        requireNonNull(blocks, "blocks is null");
+        checkArgument(columns.size() == blocks.length, "Expected %s blocks, but got %s", columns.size(), blocks.length);
+        this.blocks = blocks.clone();
+        this.positionCount = positionCount;
+
+        this.nativeTypes = new Type[columns.size()];
+        for (int channel = 0; channel < nativeTypes.length; channel++) {
+            nativeTypes[channel] = NATIVE_TYPES.get(parseTypeSignature(columns.get(channel).getType()).getBase());
+        }
+    }
+
+    public int getPositionCount()
+    {
+        return positionCount;
+    }
+
+    public int getChannelCount()
+    {
+        return blocks.length;
+    }
+
+    public Object getValue(int channel, int position)
+    {
+        Block block = blocks[channel];
+        if (block.isNull(position)) {
+            return null;
+        }
+
+        Type type = nativeTypes[channel];
+        if (type == null) {
+            return readJsonValue(columns.get(channel).getType(), VARCHAR.getSlice(block, position).toStringUtf8());
+        }
+        if (type == BIGINT) {
+            return type.getLong(block, position);
+        }
+        if (type.getJavaType() == long.class) {
+            // the JSON protocol returns the narrow integer types as integers
+            return (int) type.getLong(block, position);
+        }
+        if (type.getJavaType() == double.class) {
+            return type.getDouble(block, position);
+        }
+        if (type.getJavaType() == boolean.class) {
+            return type.getBoolean(block, position);
+        }
+        if (type == VARCHAR) {
+            return type.getSlice(block, position).toStringUtf8();
+        }
+        return type.getSlice(block, position).getBytes();
+    }
+
+    @Override
+    public Iterator<List<Object>> iterator()
+    {
+        return new AbstractIterator<List<Object>>()
+        {
+            private int position;
+
+            @Override
+            protected List<Object> computeNext()
+            {
+                if (position >= positionCount) {
+                    return endOfData();
+                }
+                Object[] values = new Object[blocks.length];
+                for (int channel = 0; channel < values.length; channel++) {
+                    values[channel] = getValue(channel, position);
+                }
+                position++;
+                return unmodifiableList(Arrays.asList(values)); // allow nulls in list
+            }
+        };
+    }
+
+    /**
+     * Returns true if values of the type are sent in their native block representation.
+     * Values of all other types are sent as the JSON text of the value.
+     */
+    public static boolean isNativeType(String type)
+    {
+        return NATIVE_TYPES.containsKey(parseTypeSignature(type).getBase());
+    }
+
+    private static Object readJsonValue(String type, String json)
+    {
+        try {
+            return QueryResults.fixValue(type, OBJECT_MAPPER.readValue(json, Object.class));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
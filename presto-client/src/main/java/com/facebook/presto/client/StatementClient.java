@@ -13,12 +13,12 @@
  */
 package com.facebook.presto.client;
 
+import com.facebook.presto.client.QueryResultsResponseHandler.QueryResultsResponse;
 import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
-import io.airlift.http.client.FullJsonResponseHandler;
 import io.airlift.http.client.HttpClient;
 import io.airlift.http.client.HttpClient.HttpResponseFuture;
 import io.airlift.http.client.HttpStatus;
@@ -40,6 +40,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.facebook.presto.client.BinaryQueryResults.PRESTO_QUERY_RESULTS;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_ADDED_PREPARE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CLEAR_SESSION;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CLEAR_TRANSACTION_ID;
@@ -48,9 +49,8 @@ import static com.facebook.presto.client.PrestoHeaders.PRESTO_SET_SESSION;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_STARTED_TRANSACTION_ID;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.net.HttpHeaders.ACCEPT;
 import static com.google.common.net.HttpHeaders.USER_AGENT;
-import static io.airlift.http.client.FullJsonResponseHandler.JsonResponse;
-import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonResponseHandler;
 import static io.airlift.http.client.HttpStatus.Family;
 import static io.airlift.http.client.HttpStatus.familyForStatusCode;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
@@ -75,8 +75,11 @@ public class StatementClient
             "/" +
             firstNonNull(StatementClient.class.getPackage().getImplementationVersion(), "unknown");
 
+    // prefer the binary results format, but accept JSON from servers that do not support it
+    private static final String ACCEPT_VALUE = PRESTO_QUERY_RESULTS + ", application/json;q=0.5";
+
     private final HttpClient httpClient;
-    private final FullJsonResponseHandler<QueryResults> responseHandler;
+    private final QueryResultsResponseHandler responseHandler;
     private final boolean debug;
     private final String query;
     private final AtomicReference<QueryResults> currentResults = new AtomicReference<>();
@@ -100,14 +103,14 @@ public class StatementClient
         requireNonNull(query, "query is null");
 
         this.httpClient = httpClient;
-        this.responseHandler = createFullJsonResponseHandler(queryResultsCodec);
+        this.responseHandler = new QueryResultsResponseHandler(queryResultsCodec);
         this.debug = session.isDebug();
         this.timeZoneId = session.getTimeZoneId();
         this.query = query;
         this.requestTimeoutNanos = session.getClientRequestTimeout().roundTo(NANOSECONDS);
 
         Request request = buildQueryRequest(session, query);
-        JsonResponse<QueryResults> response = httpClient.execute(request, responseHandler);
+        QueryResultsResponse response = httpClient.execute(request, responseHandler);
 
         if (response.getStatusCode() != HttpStatus.OK.code() || !response.hasValue()) {
             throw requestFailedException("starting query", request, response);
@@ -137,6 +140,7 @@ public class StatementClient
         builder.setHeader(PrestoHeaders.PRESTO_TIME_ZONE, session.getTimeZoneId());
         builder.setHeader(PrestoHeaders.PRESTO_LANGUAGE, session.getLocale().toLanguageTag());
         builder.setHeader(USER_AGENT, USER_AGENT_VALUE);
+        builder.setHeader(ACCEPT, ACCEPT_VALUE);
 
         Map<String, String> property = session.getProperties();
         for (Entry<String, String> entry : property.entrySet()) {
@@ -245,6 +249,7 @@ public class StatementClient
 
         Request request = prepareGet()
                 .setHeader(USER_AGENT, USER_AGENT_VALUE)
+                .setHeader(ACCEPT, ACCEPT_VALUE)
                 .setUri(nextUri)
                 .build();
 
@@ -270,7 +275,7 @@ public class StatementClient
             }
             attempts++;
 
-            JsonResponse<QueryResults> response;
+            QueryResultsResponse response;
             try {
                 response = httpClient.execute(request, responseHandler);
             }
@@ -294,7 +299,7 @@ public class StatementClient
         throw new RuntimeException("Error fetching next", cause);
     }
 
-    private void processResponse(JsonResponse<QueryResults> response)
+    private void processResponse(QueryResultsResponse response)
     {
         for (String setSession : response.getHeaders().get(PRESTO_SET_SESSION)) {
             List<String> keyValue = SESSION_HEADER_SPLITTER.splitToList(setSession);
@@ -329,7 +334,7 @@ public class StatementClient
         currentResults.set(response.getValue());
     }
 
-    private RuntimeException requestFailedException(String task, Request request, JsonResponse<QueryResults> response)
+    private RuntimeException requestFailedException(String task, Request request, QueryResultsResponse response)
     {
         gone.set(true);
         if (!response.hasValue()) {
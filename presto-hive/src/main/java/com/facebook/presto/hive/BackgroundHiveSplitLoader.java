@@ -13,11 +13,13 @@
  */
 package com.facebook.presto.hive;
 
+import com.facebook.presto.hive.cache.HiveSplitAffinity;
 import com.facebook.presto.hive.util.HiveFileIterator;
 import com.facebook.presto.hive.util.ResumableTask;
 import com.facebook.presto.hive.util.ResumableTasks;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
@@ -44,11 +46,13 @@ import java.io.IOException;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
@@ -59,6 +63,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import static com.facebook.presto.hadoop.HadoopFileStatus.isDirectory;
 import static com.facebook.presto.hadoop.HadoopFileStatus.isFile;
 import static com.facebook.presto.hive.HiveBucketing.HiveBucket;
+import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_BUCKET_FILES;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_PARTITION_VALUE;
 import static com.facebook.presto.hive.HiveUtil.checkCondition;
@@ -66,6 +71,7 @@ import static com.facebook.presto.hive.HiveUtil.getInputFormat;
 import static com.facebook.presto.hive.HiveUtil.isSplittable;
 import static com.facebook.presto.hive.UnpartitionedPartition.isUnpartitioned;
 import static com.google.common.base.Preconditions.checkState;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
 public class BackgroundHiveSplitLoader
@@ -76,6 +82,7 @@ public class BackgroundHiveSplitLoader
     private final String connectorId;
     private final Table table;
     private final Optional<HiveBucket> bucket;
+    private final Optional<HiveBucketHandle> bucketHandle;
     private final HdfsEnvironment hdfsEnvironment;
     private final NamenodeStats namenodeStats;
     private final DirectoryLister directoryLister;
@@ -83,6 +90,7 @@ public class BackgroundHiveSplitLoader
     private final int maxPartitionBatchSize;
     private final DataSize maxInitialSplitSize;
     private final boolean recursiveDirWalkerEnabled;
+    private final Optional<HiveSplitAffinity> splitAffinity;
     private final Executor executor;
     private final ConnectorSession session;
     private final ConcurrentLazyQueue<HivePartitionMetadata> partitions;
@@ -110,6 +118,7 @@ public class BackgroundHiveSplitLoader
             Table table,
             Iterable<HivePartitionMetadata> partitions,
             Optional<HiveBucket> bucket,
+            Optional<HiveBucketHandle> bucketHandle,
             DataSize maxSplitSize,
             ConnectorSession session,
             HdfsEnvironment hdfsEnvironment,
@@ -119,11 +128,13 @@ public class BackgroundHiveSplitLoader
             int maxPartitionBatchSize,
             DataSize maxInitialSplitSize,
             int maxInitialSplits,
-            boolean recursiveDirWalkerEnabled)
+            boolean recursiveDirWalkerEnabled,
+            Optional<HiveSplitAffinity> splitAffinity)
     {
         this.connectorId = connectorId;
         this.table = table;
         this.bucket = bucket;
+        this.bucketHandle = requireNonNull(bucketHandle, "bucketHandle is null");
         this.maxSplitSize = maxSplitSize;
         this.maxPartitionBatchSize = maxPartitionBatchSize;
         this.session = session;
@@ -133,6 +144,7 @@ public class BackgroundHiveSplitLoader
         this.maxInitialSplitSize = maxInitialSplitSize;
         this.remainingInitialSplits = new AtomicInteger(maxInitialSplits);
         this.recursiveDirWalkerEnabled = recursiveDirWalkerEnabled;
+        this.splitAffinity = requireNonNull(splitAffinity, "splitAffinity is null");
         this.executor = executor;
         this.partitions = new ConcurrentLazyQueue<>(partitions);
     }
@@ -263,7 +275,8 @@ public class BackgroundHiveSplitLoader
                         files.getPartitionKeys(),
                         splittable,
                         session,
-                        files.getEffectivePredicate()));
+                        files.getEffectivePredicate(),
+                        OptionalInt.empty()));
                 if (!future.isDone()) {
                     fileIterators.addFirst(files);
                     return future;
@@ -288,6 +301,9 @@ public class BackgroundHiveSplitLoader
         InputFormat<?, ?> inputFormat = getInputFormat(configuration, schema, false);
 
         if (inputFormat instanceof SymlinkTextInputFormat) {
+            if (bucketHandle.isPresent()) {
+                throw new PrestoException(HIVE_INVALID_BUCKET_FILES, format("Bucketed partition %s of %s.%s uses symlinks, disable bucket_execution_enabled to read it", partitionName, table.getDbName(), table.getTableName()));
+            }
             JobConf jobConf = new JobConf(configuration);
             FileInputFormat.setInputPaths(jobConf, path);
             InputSplit[] splits = inputFormat.getSplits(jobConf, 0);
@@ -309,7 +325,8 @@ public class BackgroundHiveSplitLoader
                         partitionKeys,
                         false,
                         session,
-                        effectivePredicate));
+                        effectivePredicate,
+                        OptionalInt.empty()));
                 if (stopped) {
                     return;
                 }
@@ -318,6 +335,36 @@ public class BackgroundHiveSplitLoader
         }
 
         FileSystem fs = hdfsEnvironment.getFileSystem(path);
+        if (bucketHandle.isPresent()) {
+            // every split is tagged with its bucket, so that all splits of a bucket are read by the same node
+            List<FileStatus> bucketFiles = getBucketFiles(bucketHandle.get().getBucketCount(), fs, path, partitionName);
+            for (int bucketNumber = 0; bucketNumber < bucketFiles.size(); bucketNumber++) {
+                if (bucket.isPresent() && bucket.get().getBucketNumber() != bucketNumber) {
+                    continue;
+                }
+                FileStatus file = bucketFiles.get(bucketNumber);
+                BlockLocation[] blockLocations = fs.getFileBlockLocations(file, 0, file.getLen());
+                boolean splittable = isSplittable(inputFormat, fs, file.getPath());
+
+                hiveSplitSource.addToQueue(createHiveSplits(
+                        partitionName,
+                        file.getPath().toString(),
+                        blockLocations,
+                        0,
+                        file.getLen(),
+                        schema,
+                        partitionKeys,
+                        splittable,
+                        session,
+                        effectivePredicate,
+                        OptionalInt.of(bucketNumber)));
+                if (stopped) {
+                    return;
+                }
+            }
+            return;
+        }
+
         if (bucket.isPresent()) {
             Optional<FileStatus> bucketFile = getBucketFile(bucket.get(), fs, path);
             if (bucketFile.isPresent()) {
@@ -335,7 +382,8 @@ public class BackgroundHiveSplitLoader
                         partitionKeys,
                         splittable,
                         session,
-                        effectivePredicate));
+                        effectivePredicate,
+                        OptionalInt.empty()));
                 return;
             }
         }
@@ -370,6 +418,32 @@ public class BackgroundHiveSplitLoader
         return Optional.of(map.get(pathString));
     }
 
+    private List<FileStatus> getBucketFiles(int bucketCount, FileSystem fs, Path path, String partitionName)
+    {
+        FileStatus[] statuses = listStatus(fs, path);
+
+        if (statuses.length != bucketCount) {
+            throw new PrestoException(HIVE_INVALID_BUCKET_FILES, format("Partition %s of %s.%s has %s files but the table has %s buckets, disable bucket_execution_enabled to read it",
+                    partitionName,
+                    table.getDbName(),
+                    table.getTableName(),
+                    statuses.length,
+                    bucketCount));
+        }
+
+        List<FileStatus> files = new ArrayList<>();
+        for (FileStatus status : statuses) {
+            if (!isFile(status)) {
+                throw new PrestoException(HIVE_INVALID_BUCKET_FILES, format("Partition %s of %s.%s is bucketed but contains directory %s", partitionName, table.getDbName(), table.getTableName(), status.getPath()));
+            }
+            files.add(status);
+        }
+
+        // Hive sorts the paths as strings lexicographically
+        files.sort(Comparator.comparing(status -> status.getPath().toString()));
+        return files;
+    }
+
     private static FileStatus[] listStatus(FileSystem fs, Path path)
     {
         try {
@@ -390,7 +464,8 @@ public class BackgroundHiveSplitLoader
             List<HivePartitionKey> partitionKeys,
             boolean splittable,
             ConnectorSession session,
-            TupleDomain<HiveColumnHandle> effectivePredicate)
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            OptionalInt bucketNumber)
             throws IOException
     {
         ImmutableList.Builder<HiveSplit> builder = ImmutableList.builder();
@@ -428,9 +503,7 @@ public class BackgroundHiveSplitLoader
                     // adjust the actual chunk size to account for the overrun when chunks are slightly bigger than necessary (see above)
                     long chunkLength = Math.min(targetChunkSize, blockLocation.getLength() - chunkOffset);
 
-                    builder.add(new HiveSplit(connectorId,
-                            table.getDbName(),
-                            table.getTableName(),
+                    builder.add(createHiveSplit(
                             partitionName,
                             path,
                             blockLocation.getOffset() + chunkOffset,
@@ -439,7 +512,8 @@ public class BackgroundHiveSplitLoader
                             partitionKeys,
                             addresses,
                             forceLocalScheduling,
-                            effectivePredicate));
+                            effectivePredicate,
+                            bucketNumber));
 
                     chunkOffset += chunkLength;
                 }
@@ -453,9 +527,7 @@ public class BackgroundHiveSplitLoader
                 addresses = toHostAddress(blockLocations[0].getHosts());
             }
 
-            builder.add(new HiveSplit(connectorId,
-                    table.getDbName(),
-                    table.getTableName(),
+            builder.add(createHiveSplit(
                     partitionName,
                     path,
                     start,
@@ -464,11 +536,48 @@ public class BackgroundHiveSplitLoader
                     partitionKeys,
                     addresses,
                     forceLocalScheduling,
-                    effectivePredicate));
+                    effectivePredicate,
+                    bucketNumber));
         }
         return builder.build();
     }
 
+    private HiveSplit createHiveSplit(
+            String partitionName,
+            String path,
+            long start,
+            long length,
+            Properties schema,
+            List<HivePartitionKey> partitionKeys,
+            List<HostAddress> addresses,
+            boolean forceLocalScheduling,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            OptionalInt bucketNumber)
+    {
+        List<HostAddress> splitAddresses = addresses;
+        if (splitAffinity.isPresent()) {
+            // prefer the worker that has cached this part of the file, but let the scheduler choose another one when it is busy
+            List<HostAddress> affinityAddresses = splitAffinity.get().getAddresses(path, start);
+            if (!affinityAddresses.isEmpty()) {
+                splitAddresses = affinityAddresses;
+            }
+        }
+
+        return new HiveSplit(connectorId,
+                table.getDbName(),
+                table.getTableName(),
+                partitionName,
+                path,
+                start,
+                length,
+                schema,
+                partitionKeys,
+                splitAddresses,
+                forceLocalScheduling,
+                effectivePredicate,
+                bucketNumber);
+    }
+
     private static List<HostAddress> toHostAddress(String[] hosts)
     {
         ImmutableList.Builder<HostAddress> builder = ImmutableList.builder();
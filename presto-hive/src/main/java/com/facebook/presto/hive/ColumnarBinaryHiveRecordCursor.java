@@ -58,12 +58,16 @@ import static com.facebook.presto.hive.HiveUtil.booleanPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.datePartitionKey;
 import static com.facebook.presto.hive.HiveUtil.doublePartitionKey;
 import static com.facebook.presto.hive.HiveUtil.getTableObjectInspector;
+import static com.facebook.presto.hive.HiveUtil.integerPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.isCharType;
 import static com.facebook.presto.hive.HiveUtil.isStructuralType;
 import static com.facebook.presto.hive.HiveUtil.isVarcharType;
 import static com.facebook.presto.hive.HiveUtil.longDecimalPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.realPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.shortDecimalPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.smallintPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.timestampPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.tinyintPartitionKey;
 import static com.facebook.presto.hive.util.DecimalUtils.getLongDecimalValue;
 import static com.facebook.presto.hive.util.DecimalUtils.getShortDecimalValue;
 import static com.facebook.presto.hive.util.SerDeUtils.getBlockObject;
@@ -72,8 +76,12 @@ import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.StandardTypes.DECIMAL;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -205,6 +213,18 @@ class ColumnarBinaryHiveRecordCursor<K>
                 else if (BIGINT.equals(type)) {
                     longs[columnIndex] = bigintPartitionKey(partitionKey.getValue(), name);
                 }
+                else if (INTEGER.equals(type)) {
+                    longs[columnIndex] = integerPartitionKey(partitionKey.getValue(), name);
+                }
+                else if (SMALLINT.equals(type)) {
+                    longs[columnIndex] = smallintPartitionKey(partitionKey.getValue(), name);
+                }
+                else if (TINYINT.equals(type)) {
+                    longs[columnIndex] = tinyintPartitionKey(partitionKey.getValue(), name);
+                }
+                else if (REAL.equals(type)) {
+                    doubles[columnIndex] = realPartitionKey(partitionKey.getValue(), name);
+                }
                 else if (DOUBLE.equals(type)) {
                     doubles[columnIndex] = doublePartitionKey(partitionKey.getValue(), name);
                 }
@@ -340,7 +360,7 @@ class ColumnarBinaryHiveRecordCursor<K>
     {
         checkState(!closed, "Cursor is closed");
 
-        if (!types[fieldId].equals(BIGINT) && !types[fieldId].equals(DATE) && !types[fieldId].equals(TIMESTAMP) && !(types[fieldId] instanceof ShortDecimalType)) {
+        if (!types[fieldId].equals(BIGINT) && !types[fieldId].equals(INTEGER) && !types[fieldId].equals(SMALLINT) && !types[fieldId].equals(TINYINT) && !types[fieldId].equals(DATE) && !types[fieldId].equals(TIMESTAMP) && !(types[fieldId] instanceof ShortDecimalType)) {
             // we don't use Preconditions.checkArgument because it requires boxing fieldId, which affects inner loop performance
             throw new IllegalArgumentException(format("Expected field to be %s, %s, %s or %s , actual %s (field %s)", BIGINT, DATE, TIMESTAMP, DECIMAL, types[fieldId], fieldId));
         }
@@ -445,7 +465,10 @@ class ColumnarBinaryHiveRecordCursor<K>
     {
         checkState(!closed, "Cursor is closed");
 
-        validateType(fieldId, DOUBLE);
+        if (!types[fieldId].equals(DOUBLE) && !types[fieldId].equals(REAL)) {
+            // we don't use Preconditions.checkArgument because it requires boxing fieldId, which affects inner loop performance
+            throw new IllegalArgumentException(format("Expected field to be %s or %s, actual %s (field %s)", DOUBLE, REAL, types[fieldId], fieldId));
+        }
         if (!loaded[fieldId]) {
             parseDoubleColumn(fieldId);
         }
@@ -707,10 +730,10 @@ class ColumnarBinaryHiveRecordCursor<K>
         if (BOOLEAN.equals(type)) {
             parseBooleanColumn(column);
         }
-        else if (BIGINT.equals(type)) {
+        else if (BIGINT.equals(type) || INTEGER.equals(type) || SMALLINT.equals(type) || TINYINT.equals(type)) {
             parseLongColumn(column);
         }
-        else if (DOUBLE.equals(type)) {
+        else if (DOUBLE.equals(type) || REAL.equals(type)) {
             parseDoubleColumn(column);
         }
         else if (VARCHAR.equals(type) || VARBINARY.equals(type)) {
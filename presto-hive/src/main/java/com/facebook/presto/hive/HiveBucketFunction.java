@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.spi.BucketFunction;
+import com.facebook.presto.spi.Page;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.facebook.presto.hive.HiveBucketing.getHiveBucket;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Assigns rows to buckets with the same hash Hive uses to write bucketed tables.
+ */
+public class HiveBucketFunction
+        implements BucketFunction
+{
+    private final int bucketCount;
+    private final List<TypeInfo> typeInfos;
+
+    public HiveBucketFunction(int bucketCount, List<HiveType> hiveTypes)
+    {
+        checkArgument(bucketCount > 0, "bucketCount must be greater than zero");
+        this.bucketCount = bucketCount;
+        this.typeInfos = ImmutableList.copyOf(Lists.transform(requireNonNull(hiveTypes, "hiveTypes is null"), HiveType::getTypeInfo));
+    }
+
+    @Override
+    public int getBucket(Page page, int position)
+    {
+        return getHiveBucket(typeInfos, Arrays.asList(page.getBlocks()), position, bucketCount);
+    }
+}
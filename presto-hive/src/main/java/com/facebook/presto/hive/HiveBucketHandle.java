@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The bucketing of a bucketed table: rows are hashed on the bucket columns
+ * into one of {@code bucketCount} files per partition.
+ */
+public class HiveBucketHandle
+{
+    private final List<HiveColumnHandle> columns;
+    private final int bucketCount;
+
+    @JsonCreator
+    public HiveBucketHandle(
+            @JsonProperty("columns") List<HiveColumnHandle> columns,
+            @JsonProperty("bucketCount") int bucketCount)
+    {
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        checkArgument(!columns.isEmpty(), "columns is empty");
+        checkArgument(bucketCount > 0, "bucketCount must be greater than zero");
+        this.bucketCount = bucketCount;
+    }
+
+    @JsonProperty
+    public List<HiveColumnHandle> getColumns()
+    {
+        return columns;
+    }
+
+    @JsonProperty
+    public int getBucketCount()
+    {
+        return bucketCount;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HiveBucketHandle that = (HiveBucketHandle) o;
+        return bucketCount == that.bucketCount &&
+                Objects.equals(columns, that.columns);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(columns, bucketCount);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("columns", columns)
+                .add("bucketCount", bucketCount)
+                .toString();
+    }
+}
@@ -41,12 +41,17 @@ import java.util.Optional;
 import java.util.Set;
 
 import static com.facebook.presto.hive.HiveUtil.getTableStructFields;
+import static com.facebook.presto.hive.HiveUtil.hiveColumnHandles;
 import static com.facebook.presto.hive.util.Types.checkType;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -112,14 +117,16 @@ final class HiveBucketing
                     case BOOLEAN:
                         return BOOLEAN.getBoolean(block, position) ? 1 : 0;
                     case BYTE:
+                        return (int) TINYINT.getLong(block, position);
                     case SHORT:
+                        return (int) SMALLINT.getLong(block, position);
                     case INT:
-                        return Ints.checkedCast(BIGINT.getLong(block, position));
+                        return (int) INTEGER.getLong(block, position);
                     case LONG:
                         long bigintValue = BIGINT.getLong(block, position);
                         return (int) ((bigintValue >>> 32) ^ bigintValue);
                     case FLOAT:
-                        return Float.floatToIntBits((float) DOUBLE.getDouble(block, position));
+                        return Float.floatToIntBits((float) REAL.getDouble(block, position));
                     case DOUBLE:
                         long doubleValue = doubleToLongBits(DOUBLE.getDouble(block, position));
                         return (int) ((doubleValue >>> 32) ^ doubleValue);
@@ -172,6 +179,34 @@ final class HiveBucketing
         return result;
     }
 
+    public static Optional<HiveBucketHandle> getHiveBucketHandle(String connectorId, Table table)
+    {
+        if (!table.getSd().isSetBucketCols() || table.getSd().getBucketCols().isEmpty() ||
+                !table.getSd().isSetNumBuckets() || (table.getSd().getNumBuckets() <= 0)) {
+            return Optional.empty();
+        }
+
+        Map<String, HiveColumnHandle> columns = new HashMap<>();
+        for (HiveColumnHandle column : hiveColumnHandles(connectorId, table)) {
+            columns.put(column.getName(), column);
+        }
+
+        // only regular columns of the types that can be hashed like Hive does are supported
+        ImmutableList.Builder<HiveColumnHandle> bucketColumns = ImmutableList.builder();
+        for (String name : table.getSd().getBucketCols()) {
+            HiveColumnHandle column = columns.get(name);
+            if ((column == null) || column.isPartitionKey() || (column.getHiveType().getCategory() != Category.PRIMITIVE)) {
+                return Optional.empty();
+            }
+            if (!SUPPORTED_TYPES.contains(((PrimitiveTypeInfo) column.getHiveType().getTypeInfo()).getPrimitiveCategory())) {
+                return Optional.empty();
+            }
+            bucketColumns.add(column);
+        }
+
+        return Optional.of(new HiveBucketHandle(bucketColumns.build(), table.getSd().getNumBuckets()));
+    }
+
     public static Optional<HiveBucket> getHiveBucket(Table table, Map<ColumnHandle, NullableValue> bindings)
     {
         if (!table.getSd().isSetBucketCols() || table.getSd().getBucketCols().isEmpty() ||
@@ -23,6 +23,7 @@ import io.airlift.configuration.DefunctConfig;
 import io.airlift.configuration.LegacyConfig;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.airlift.units.MaxDataSize;
 import io.airlift.units.MinDataSize;
 import io.airlift.units.MinDuration;
 import org.joda.time.DateTimeZone;
@@ -35,6 +36,7 @@ import java.util.List;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 @DefunctConfig({
@@ -115,6 +117,19 @@ public class HiveClientConfig
     private DataSize orcMaxMergeDistance = new DataSize(1, MEGABYTE);
     private DataSize orcMaxBufferSize = new DataSize(8, MEGABYTE);
     private DataSize orcStreamBufferSize = new DataSize(8, MEGABYTE);
+    private DataSize orcMetadataCacheSize = new DataSize(64, MEGABYTE);
+    private boolean orcStripePrefetchEnabled;
+    private int orcStripePrefetchThreads = 16;
+    private boolean orcOptimizedWriterEnabled;
+
+    private boolean textOptimizedReaderEnabled;
+
+    private boolean bucketExecutionEnabled = true;
+
+    private boolean fileCacheEnabled;
+    private File fileCacheDirectory = new File(StandardSystemProperty.JAVA_IO_TMPDIR.value(), "presto-hive-file-cache");
+    private DataSize fileCacheMaxSize = new DataSize(10, GIGABYTE);
+    private DataSize fileCacheBlockSize = new DataSize(1, MEGABYTE);
 
     private HiveMetastoreAuthenticationType hiveMetastoreAuthenticationType = HiveMetastoreAuthenticationType.SIMPLE;
     private String hiveMetastorePrincipal;
@@ -861,6 +876,143 @@ public class HiveClientConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getOrcMetadataCacheSize()
+    {
+        return orcMetadataCacheSize;
+    }
+
+    @Config("hive.orc.metadata-cache-size")
+    @ConfigDescription("Maximum on-disk size of the ORC file tails, stripe footers and row indexes cached on each worker, or 0 to disable the cache")
+    public HiveClientConfig setOrcMetadataCacheSize(DataSize orcMetadataCacheSize)
+    {
+        this.orcMetadataCacheSize = orcMetadataCacheSize;
+        return this;
+    }
+
+    public boolean isOrcStripePrefetchEnabled()
+    {
+        return orcStripePrefetchEnabled;
+    }
+
+    @Config("hive.orc.stripe-prefetch.enabled")
+    @ConfigDescription("Read the next ORC stripe in the background while the current stripe is decoded")
+    public HiveClientConfig setOrcStripePrefetchEnabled(boolean orcStripePrefetchEnabled)
+    {
+        this.orcStripePrefetchEnabled = orcStripePrefetchEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getOrcStripePrefetchThreads()
+    {
+        return orcStripePrefetchThreads;
+    }
+
+    @Config("hive.orc.stripe-prefetch.threads")
+    @ConfigDescription("Number of threads on each worker reading ORC stripes in the background")
+    public HiveClientConfig setOrcStripePrefetchThreads(int orcStripePrefetchThreads)
+    {
+        this.orcStripePrefetchThreads = orcStripePrefetchThreads;
+        return this;
+    }
+
+    public boolean isOrcOptimizedWriterEnabled()
+    {
+        return orcOptimizedWriterEnabled;
+    }
+
+    @Config("hive.orc.optimized-writer.enabled")
+    @ConfigDescription("Write ORC files of tables with only primitive columns using the native writer")
+    public HiveClientConfig setOrcOptimizedWriterEnabled(boolean orcOptimizedWriterEnabled)
+    {
+        this.orcOptimizedWriterEnabled = orcOptimizedWriterEnabled;
+        return this;
+    }
+
+    public boolean isTextOptimizedReaderEnabled()
+    {
+        return textOptimizedReaderEnabled;
+    }
+
+    @Config("hive.text.optimized-reader.enabled")
+    @ConfigDescription("Read delimited text files of tables with only primitive columns using the native page reader")
+    public HiveClientConfig setTextOptimizedReaderEnabled(boolean textOptimizedReaderEnabled)
+    {
+        this.textOptimizedReaderEnabled = textOptimizedReaderEnabled;
+        return this;
+    }
+
+    public boolean isBucketExecutionEnabled()
+    {
+        return bucketExecutionEnabled;
+    }
+
+    @Config("hive.bucket-execution-enabled")
+    @ConfigDescription("Expose the bucketing of bucketed tables to the engine, so that joins and aggregations on the bucket columns do not repartition them")
+    public HiveClientConfig setBucketExecutionEnabled(boolean bucketExecutionEnabled)
+    {
+        this.bucketExecutionEnabled = bucketExecutionEnabled;
+        return this;
+    }
+
+    public boolean isFileCacheEnabled()
+    {
+        return fileCacheEnabled;
+    }
+
+    @Config("hive.file-cache.enabled")
+    @ConfigDescription("Cache blocks of the files read by ORC, DWRF, Parquet and RCFile readers on local disk, and schedule splits of the same file range on the same worker")
+    public HiveClientConfig setFileCacheEnabled(boolean fileCacheEnabled)
+    {
+        this.fileCacheEnabled = fileCacheEnabled;
+        return this;
+    }
+
+    @NotNull
+    public File getFileCacheDirectory()
+    {
+        return fileCacheDirectory;
+    }
+
+    @Config("hive.file-cache.directory")
+    @ConfigDescription("Local directory for the file cache. Its contents are deleted on startup")
+    public HiveClientConfig setFileCacheDirectory(File fileCacheDirectory)
+    {
+        this.fileCacheDirectory = fileCacheDirectory;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getFileCacheMaxSize()
+    {
+        return fileCacheMaxSize;
+    }
+
+    @Config("hive.file-cache.max-size")
+    @ConfigDescription("Maximum disk space used by the file cache")
+    public HiveClientConfig setFileCacheMaxSize(DataSize fileCacheMaxSize)
+    {
+        this.fileCacheMaxSize = fileCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("64MB")
+    public DataSize getFileCacheBlockSize()
+    {
+        return fileCacheBlockSize;
+    }
+
+    @Config("hive.file-cache.block-size")
+    @ConfigDescription("Size of the file blocks stored in the file cache")
+    public HiveClientConfig setFileCacheBlockSize(DataSize fileCacheBlockSize)
+    {
+        this.fileCacheBlockSize = fileCacheBlockSize;
+        return this;
+    }
+
     public boolean isAssumeCanonicalPartitionKeys()
     {
         return assumeCanonicalPartitionKeys;
@@ -13,15 +13,21 @@
  */
 package com.facebook.presto.hive;
 
+import com.facebook.presto.hive.cache.HiveFileCache;
 import com.facebook.presto.hive.metastore.CachingHiveMetastore;
 import com.facebook.presto.hive.metastore.HiveMetastore;
 import com.facebook.presto.hive.orc.DwrfPageSourceFactory;
 import com.facebook.presto.hive.orc.OrcPageSourceFactory;
+import com.facebook.presto.hive.orc.OrcPageSourceStats;
 import com.facebook.presto.hive.parquet.ParquetPageSourceFactory;
 import com.facebook.presto.hive.parquet.ParquetRecordCursorProvider;
 import com.facebook.presto.hive.rcfile.RcFilePageSourceFactory;
+import com.facebook.presto.hive.text.TextPageSourceFactory;
+import com.facebook.presto.orc.OrcMetadataCache;
 import com.facebook.presto.spi.ConnectorHandleResolver;
+import com.facebook.presto.spi.NodeManager;
 import com.facebook.presto.spi.PageIndexerFactory;
+import com.facebook.presto.spi.connector.ConnectorNodePartitioningProvider;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.inject.Binder;
 import com.google.inject.Module;
@@ -38,6 +44,7 @@ import static io.airlift.configuration.ConfigBinder.configBinder;
 import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.weakref.jmx.ObjectNames.generatedNameOf;
 import static org.weakref.jmx.guice.ExportBinder.newExporter;
 
@@ -48,13 +55,15 @@ public class HiveClientModule
     private final HiveMetastore metastore;
     private final TypeManager typeManager;
     private final PageIndexerFactory pageIndexerFactory;
+    private final NodeManager nodeManager;
 
-    public HiveClientModule(String connectorId, HiveMetastore metastore, TypeManager typeManager, PageIndexerFactory pageIndexerFactory)
+    public HiveClientModule(String connectorId, HiveMetastore metastore, TypeManager typeManager, PageIndexerFactory pageIndexerFactory, NodeManager nodeManager)
     {
         this.connectorId = connectorId;
         this.metastore = metastore;
         this.typeManager = typeManager;
         this.pageIndexerFactory = pageIndexerFactory;
+        this.nodeManager = nodeManager;
     }
 
     @Override
@@ -89,6 +98,7 @@ public class HiveClientModule
 
         binder.bind(TypeManager.class).toInstance(typeManager);
         binder.bind(PageIndexerFactory.class).toInstance(pageIndexerFactory);
+        binder.bind(NodeManager.class).toInstance(nodeManager);
 
         Multibinder<HiveRecordCursorProvider> recordCursorProviderBinder = Multibinder.newSetBinder(binder, HiveRecordCursorProvider.class);
         recordCursorProviderBinder.addBinding().to(ParquetRecordCursorProvider.class).in(Scopes.SINGLETON);
@@ -100,6 +110,7 @@ public class HiveClientModule
         binder.bind(LocationService.class).to(HiveLocationService.class).in(Scopes.SINGLETON);
         binder.bind(TableParameterCodec.class).in(Scopes.SINGLETON);
         binder.bind(ConnectorHandleResolver.class).to(HiveHandleResolver.class).in(Scopes.SINGLETON);
+        binder.bind(ConnectorNodePartitioningProvider.class).to(HiveNodePartitioningProvider.class).in(Scopes.SINGLETON);
 
         jsonCodecBinder(binder).bindJsonCodec(PartitionUpdate.class);
 
@@ -108,6 +119,13 @@ public class HiveClientModule
         pageSourceFactoryBinder.addBinding().to(OrcPageSourceFactory.class).in(Scopes.SINGLETON);
         pageSourceFactoryBinder.addBinding().to(DwrfPageSourceFactory.class).in(Scopes.SINGLETON);
         pageSourceFactoryBinder.addBinding().to(ParquetPageSourceFactory.class).in(Scopes.SINGLETON);
+        pageSourceFactoryBinder.addBinding().to(TextPageSourceFactory.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(OrcMetadataCache.class).as(generatedNameOf(OrcMetadataCache.class, connectorId));
+        binder.bind(OrcPageSourceStats.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(OrcPageSourceStats.class).as(generatedNameOf(OrcPageSourceStats.class, connectorId));
+
+        binder.bind(HiveFileCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(HiveFileCache.class).as(generatedNameOf(HiveFileCache.class, connectorId));
 
         binder.bind(PrestoS3FileSystemStats.class).toInstance(PrestoS3FileSystem.getFileSystemStats());
         newExporter(binder).export(PrestoS3FileSystemStats.class).as(generatedNameOf(PrestoS3FileSystem.class, connectorId));
@@ -121,6 +139,31 @@ public class HiveClientModule
         return newCachedThreadPool(daemonThreadsNamed("hive-" + hiveClientId + "-%s"));
     }
 
+    @ForOrcStripePrefetch
+    @Singleton
+    @Provides
+    public ExecutorService createOrcStripePrefetchExecutor(HiveConnectorId hiveClientId, HiveClientConfig hiveClientConfig)
+    {
+        return newFixedThreadPool(
+                hiveClientConfig.getOrcStripePrefetchThreads(),
+                daemonThreadsNamed("hive-orc-prefetch-" + hiveClientId + "-%s"));
+    }
+
+    @ForHiveFileCache
+    @Singleton
+    @Provides
+    public ExecutorService createHiveFileCacheExecutor(HiveConnectorId hiveClientId)
+    {
+        return newSingleThreadExecutor(daemonThreadsNamed("hive-file-cache-" + hiveClientId + "-%s"));
+    }
+
+    @Singleton
+    @Provides
+    public OrcMetadataCache createOrcMetadataCache(HiveClientConfig hiveClientConfig)
+    {
+        return new OrcMetadataCache(hiveClientConfig.getOrcMetadataCacheSize());
+    }
+
     @ForHiveMetastore
     @Singleton
     @Provides
@@ -47,7 +47,8 @@ public enum HiveErrorCode
     HIVE_FILE_MISSING_COLUMN_NAMES(0x0000_0018),
     HIVE_WRITER_OPEN_ERROR(0x0100_0019),
     HIVE_WRITER_CLOSE_ERROR(0x0100_001A),
-    HIVE_WRITER_DATA_ERROR(0x0100_001B);
+    HIVE_WRITER_DATA_ERROR(0x0100_001B),
+    HIVE_INVALID_BUCKET_FILES(0x0100_001C);
 
     private final ErrorCode errorCode;
 
@@ -20,6 +20,7 @@ import com.facebook.presto.spi.ConnectorOutputTableHandle;
 import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.ConnectorTableLayoutHandle;
+import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
 
 public class HiveHandleResolver
         implements ConnectorHandleResolver
@@ -59,4 +60,10 @@ public class HiveHandleResolver
     {
         return HiveInsertTableHandle.class;
     }
+
+    @Override
+    public Class<? extends ConnectorPartitioningHandle> getPartitioningHandleClass()
+    {
+        return HivePartitioningHandle.class;
+    }
 }
@@ -19,6 +19,7 @@ import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.ConnectorMetadata;
+import com.facebook.presto.spi.ConnectorNodePartitioning;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorTableHandle;
@@ -37,6 +38,7 @@ import com.facebook.presto.spi.ViewNotFoundException;
 import com.facebook.presto.spi.predicate.NullableValue;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
@@ -62,6 +64,7 @@ import org.apache.hadoop.hive.metastore.api.PrivilegeGrantInfo;
 import org.apache.hadoop.hive.metastore.api.SerDeInfo;
 import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
 import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.hive.ql.io.SymlinkTextInputFormat;
 import org.joda.time.DateTimeZone;
 
 import javax.inject.Inject;
@@ -81,6 +84,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import static com.facebook.presto.hive.HiveBucketing.getHiveBucketHandle;
 import static com.facebook.presto.hive.HiveColumnHandle.SAMPLE_WEIGHT_COLUMN_NAME;
 import static com.facebook.presto.hive.HiveColumnHandle.updateRowIdHandle;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_COLUMN_ORDER_MISMATCH;
@@ -90,6 +94,7 @@ import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_PATH_ALREADY_EXISTS;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_TIMEZONE_MISMATCH;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
+import static com.facebook.presto.hive.HiveSessionProperties.isBucketExecutionEnabled;
 import static com.facebook.presto.hive.HiveTableProperties.PARTITIONED_BY_PROPERTY;
 import static com.facebook.presto.hive.HiveTableProperties.STORAGE_FORMAT_PROPERTY;
 import static com.facebook.presto.hive.HiveTableProperties.getHiveStorageFormat;
@@ -145,6 +150,7 @@ public class HiveMetadata
     private final TableParameterCodec tableParameterCodec;
     private final JsonCodec<PartitionUpdate> partitionUpdateCodec;
     private final BoundedExecutor renameExecution;
+    private final MetastoreHiveStatisticsProvider statisticsProvider;
 
     @Inject
     @SuppressWarnings("deprecation")
@@ -212,6 +218,7 @@ public class HiveMetadata
         this.locationService = requireNonNull(locationService, "locationService is null");
         this.tableParameterCodec = requireNonNull(tableParameterCodec, "tableParameterCodec is null");
         this.partitionUpdateCodec = requireNonNull(partitionUpdateCodec, "partitionUpdateCodec is null");
+        this.statisticsProvider = new MetastoreHiveStatisticsProvider(typeManager, metastore);
 
         if (!allowCorruptWritesForTesting && !timeZone.equals(DateTimeZone.getDefault())) {
             log.warn("Hive writes are disabled. " +
@@ -1244,12 +1251,24 @@ public class HiveMetadata
 
         HivePartitionResult hivePartitionResult = partitionManager.getPartitions(session, metastore, tableHandle, constraint.getSummary());
 
+        Optional<HiveBucketHandle> bucketHandle = Optional.empty();
+        if (isBucketExecutionEnabled(session)) {
+            Optional<Table> table = metastore.getTable(handle.getSchemaName(), handle.getTableName());
+            if (!table.isPresent()) {
+                throw new TableNotFoundException(handle.getSchemaTableName());
+            }
+            if (!SymlinkTextInputFormat.class.getName().equals(table.get().getSd().getInputFormat())) {
+                bucketHandle = getHiveBucketHandle(connectorId, table.get());
+            }
+        }
+
         return ImmutableList.of(new ConnectorTableLayoutResult(
                 getTableLayout(session, new HiveTableLayoutHandle(
                         handle.getClientId(),
                         ImmutableList.copyOf(hivePartitionResult.getPartitionColumns()),
                         hivePartitionResult.getPartitions(),
-                        hivePartitionResult.getEnforcedConstraint())),
+                        hivePartitionResult.getEnforcedConstraint(),
+                        bucketHandle)),
                 hivePartitionResult.getUnenforcedConstraint()));
     }
 
@@ -1272,16 +1291,37 @@ public class HiveMetadata
             discretePredicates = Optional.of(new DiscretePredicates(partitionColumns, partitionDomains));
         }
 
+        // each bucket is read by a single node, but a bucket spans many splits, so there is no stream partitioning
+        Optional<ConnectorNodePartitioning> nodePartitioning = hiveLayoutHandle.getBucketHandle().map(bucketHandle -> new ConnectorNodePartitioning(
+                new HivePartitioningHandle(
+                        connectorId,
+                        bucketHandle.getBucketCount(),
+                        bucketHandle.getColumns().stream()
+                                .map(HiveColumnHandle::getHiveType)
+                                .collect(toList())),
+                ImmutableList.<ColumnHandle>copyOf(bucketHandle.getColumns())));
+
         return new ConnectorTableLayout(
                 hiveLayoutHandle,
                 Optional.empty(),
                 predicate,
-                Optional.empty(),
+                nodePartitioning,
                 Optional.empty(),
                 discretePredicates,
                 ImmutableList.of());
     }
 
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, ConnectorTableLayoutHandle layoutHandle)
+    {
+        HiveTableLayoutHandle hiveLayoutHandle = checkType(layoutHandle, HiveTableLayoutHandle.class, "layoutHandle");
+        if (!hiveLayoutHandle.getPartitions().isPresent()) {
+            return TableStatistics.EMPTY_STATISTICS;
+        }
+        Map<String, ColumnHandle> columns = getColumnHandles(session, tableHandle);
+        return statisticsProvider.getTableStatistics(schemaTableName(tableHandle), hiveLayoutHandle.getPartitions().get(), columns.values());
+    }
+
     @Override
     public void grantTablePrivileges(ConnectorSession session, SchemaTableName schemaTableName, Set<Privilege> privileges, String grantee, boolean grantOption)
     {
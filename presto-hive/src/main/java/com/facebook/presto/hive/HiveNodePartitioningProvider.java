@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.spi.BucketFunction;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.ConnectorSplit;
+import com.facebook.presto.spi.Node;
+import com.facebook.presto.spi.NodeManager;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.connector.ConnectorNodePartitioningProvider;
+import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
+import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableMap;
+
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static com.facebook.presto.hive.util.Types.checkType;
+import static com.facebook.presto.spi.StandardErrorCode.NO_NODES_AVAILABLE;
+import static java.util.Comparator.comparing;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+public class HiveNodePartitioningProvider
+        implements ConnectorNodePartitioningProvider
+{
+    private final NodeManager nodeManager;
+    private final String connectorId;
+
+    @Inject
+    public HiveNodePartitioningProvider(NodeManager nodeManager, HiveConnectorId connectorId)
+    {
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+        this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
+    }
+
+    @Override
+    public Map<Integer, Node> getBucketToNode(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorPartitioningHandle partitioning)
+    {
+        HivePartitioningHandle handle = checkType(partitioning, HivePartitioningHandle.class, "partitioningHandle");
+
+        // Hive data is not stored on the workers, so spread the buckets over them in a stable order
+        List<Node> nodes = nodeManager.getActiveDatasourceNodes(connectorId).stream()
+                .sorted(comparing(Node::getNodeIdentifier))
+                .collect(toList());
+        if (nodes.isEmpty()) {
+            throw new PrestoException(NO_NODES_AVAILABLE, "No worker nodes available");
+        }
+
+        ImmutableMap.Builder<Integer, Node> bucketToNode = ImmutableMap.builder();
+        for (int bucket = 0; bucket < handle.getBucketCount(); bucket++) {
+            bucketToNode.put(bucket, nodes.get(bucket % nodes.size()));
+        }
+        return bucketToNode.build();
+    }
+
+    @Override
+    public ToIntFunction<ConnectorSplit> getSplitBucketFunction(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorPartitioningHandle partitioning)
+    {
+        return value -> checkType(value, HiveSplit.class, "value").getBucketNumber().getAsInt();
+    }
+
+    @Override
+    public BucketFunction getBucketFunction(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorPartitioningHandle partitioning, List<Type> partitionChannelTypes, int bucketCount)
+    {
+        HivePartitioningHandle handle = checkType(partitioning, HivePartitioningHandle.class, "partitioningHandle");
+        return new HiveBucketFunction(bucketCount, handle.getHiveTypes());
+    }
+}
@@ -15,8 +15,12 @@ package com.facebook.presto.hive;
 
 import com.facebook.presto.hive.HiveWriteUtils.FieldSetter;
 import com.facebook.presto.hive.metastore.HiveMetastore;
+import com.facebook.presto.orc.OrcWriter;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.writer.ColumnWriters;
 import com.facebook.presto.spi.ConnectorPageSink;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.PageIndexer;
 import com.facebook.presto.spi.PageIndexerFactory;
 import com.facebook.presto.spi.PrestoException;
@@ -26,11 +30,13 @@ import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Ints;
 import io.airlift.json.JsonCodec;
 import io.airlift.slice.Slice;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.common.FileUtils;
 import org.apache.hadoop.hive.conf.HiveConf;
@@ -40,6 +46,7 @@ import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
 import org.apache.hadoop.hive.metastore.api.Table;
 import org.apache.hadoop.hive.ql.exec.FileSinkOperator.RecordWriter;
 import org.apache.hadoop.hive.ql.io.HiveIgnoreKeyTextOutputFormat;
+import org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat;
 import org.apache.hadoop.hive.serde2.SerDeException;
 import org.apache.hadoop.hive.serde2.Serializer;
 import org.apache.hadoop.hive.serde2.columnar.OptimizedLazyBinaryColumnarSerde;
@@ -49,6 +56,7 @@ import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.DefaultCodec;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hive.common.util.ReflectionUtil;
+import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -70,7 +78,15 @@ import static com.facebook.presto.hive.HiveErrorCode.HIVE_TOO_MANY_OPEN_PARTITIO
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITER_CLOSE_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITER_DATA_ERROR;
+import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
 import static com.facebook.presto.hive.HivePartitionKey.HIVE_DEFAULT_DYNAMIC_PARTITION;
+import static com.facebook.presto.hive.HiveType.HIVE_BINARY;
+import static com.facebook.presto.hive.HiveType.HIVE_BOOLEAN;
+import static com.facebook.presto.hive.HiveType.HIVE_DATE;
+import static com.facebook.presto.hive.HiveType.HIVE_DOUBLE;
+import static com.facebook.presto.hive.HiveType.HIVE_LONG;
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static com.facebook.presto.hive.HiveType.HIVE_TIMESTAMP;
 import static com.facebook.presto.hive.HiveType.toHiveTypes;
 import static com.facebook.presto.hive.HiveWriteUtils.createFieldSetter;
 import static com.facebook.presto.hive.HiveWriteUtils.getField;
@@ -80,6 +96,7 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.airlift.slice.Slices.wrappedBuffer;
 import static java.lang.String.format;
+import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 import static java.util.UUID.randomUUID;
 import static java.util.function.Function.identity;
@@ -94,6 +111,9 @@ import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFacto
 public class HivePageSink
         implements ConnectorPageSink
 {
+    private static final String ORC_COMPRESSION = "orc.compress";
+    private static final Set<HiveType> ORC_WRITER_HIVE_TYPES = ImmutableSet.of(HIVE_BOOLEAN, HIVE_LONG, HIVE_DOUBLE, HIVE_STRING, HIVE_BINARY, HIVE_DATE, HIVE_TIMESTAMP);
+
     private final String schemaName;
     private final String tableName;
 
@@ -123,6 +143,8 @@ public class HivePageSink
     private final Table table;
     private final boolean immutablePartitions;
     private final boolean respectTableFormat;
+    private final boolean orcOptimizedWriterEnabled;
+    private final DateTimeZone hiveStorageTimeZone;
 
     private HiveRecordWriter[] writers = new HiveRecordWriter[0];
 
@@ -142,6 +164,8 @@ public class HivePageSink
             boolean respectTableFormat,
             int maxOpenPartitions,
             boolean immutablePartitions,
+            boolean orcOptimizedWriterEnabled,
+            DateTimeZone hiveStorageTimeZone,
             JsonCodec<PartitionUpdate> partitionUpdateCodec)
     {
         this.schemaName = requireNonNull(schemaName, "schemaName is null");
@@ -164,6 +188,8 @@ public class HivePageSink
         this.respectTableFormat = respectTableFormat;
         this.maxOpenPartitions = maxOpenPartitions;
         this.immutablePartitions = immutablePartitions;
+        this.orcOptimizedWriterEnabled = orcOptimizedWriterEnabled;
+        this.hiveStorageTimeZone = requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
         this.partitionUpdateCodec = requireNonNull(partitionUpdateCodec, "partitionUpdateCodec is null");
 
         // divide input columns into partition and data columns
@@ -402,6 +428,8 @@ public class HivePageSink
                 write.toString(),
                 target.toString(),
                 typeManager,
+                orcOptimizedWriterEnabled,
+                hiveStorageTimeZone,
                 conf);
     }
 
@@ -469,6 +497,13 @@ public class HivePageSink
         private final Object row;
         private final FieldSetter[] setters;
 
+        private final Path path;
+
+        // only set when the file is written with the native ORC writer
+        private final OrcWriter orcWriter;
+        private final PageBuilder pageBuilder;
+        private final FileSystem fileSystem;
+
         public HiveRecordWriter(
                 String schemaName,
                 String tableName,
@@ -482,6 +517,8 @@ public class HivePageSink
                 String writePath,
                 String targetPath,
                 TypeManager typeManager,
+                boolean orcOptimizedWriterEnabled,
+                DateTimeZone hiveStorageTimeZone,
                 JobConf conf)
         {
             this.partitionName = partitionName;
@@ -532,12 +569,42 @@ public class HivePageSink
             }
 
             fieldCount = fileColumnNames.size();
+            path = new Path(writePath, fileName);
+
+            Optional<CompressionKind> orcCompression = getOrcCompression(schema);
+            if (orcOptimizedWriterEnabled && OrcOutputFormat.class.getName().equals(outputFormat) && orcCompression.isPresent() && isOrcWriterSupported(fileColumnNames, fileColumnHiveTypes, inputColumns)) {
+                List<String> columnNames = inputColumns.stream()
+                        .map(DataColumn::getName)
+                        .collect(toList());
+                List<Type> columnTypes = inputColumns.stream()
+                        .map(DataColumn::getType)
+                        .collect(toList());
+                try {
+                    fileSystem = path.getFileSystem(conf);
+                    orcWriter = new OrcWriter(fileSystem.create(path, false), columnNames, columnTypes, orcCompression.get(), hiveStorageTimeZone);
+                }
+                catch (IOException e) {
+                    throw new PrestoException(HIVE_WRITER_OPEN_ERROR, "Error creating ORC file: " + path, e);
+                }
+                pageBuilder = new PageBuilder(columnTypes);
+
+                serializer = null;
+                recordWriter = null;
+                tableInspector = null;
+                structFields = null;
+                row = null;
+                setters = null;
+                return;
+            }
+            orcWriter = null;
+            pageBuilder = null;
+            fileSystem = null;
 
             if (serDe.equals(org.apache.hadoop.hive.serde2.columnar.LazyBinaryColumnarSerDe.class.getName())) {
                 serDe = OptimizedLazyBinaryColumnarSerde.class.getName();
             }
             serializer = initializeSerializer(conf, schema, serDe);
-            recordWriter = HiveWriteUtils.createRecordWriter(new Path(writePath, fileName), conf, schema, outputFormat);
+            recordWriter = HiveWriteUtils.createRecordWriter(path, conf, schema, outputFormat);
 
             List<Type> fileColumnTypes = fileColumnHiveTypes.stream()
                     .map(hiveType -> hiveType.getType(typeManager))
@@ -560,6 +627,17 @@ public class HivePageSink
 
         public void addRow(Block[] columns, int position)
         {
+            if (orcWriter != null) {
+                pageBuilder.declarePosition();
+                for (int field = 0; field < fieldCount; field++) {
+                    pageBuilder.getType(field).appendTo(columns[field], position, pageBuilder.getBlockBuilder(field));
+                }
+                if (pageBuilder.isFull()) {
+                    flushPageBuilder();
+                }
+                return;
+            }
+
             for (int field = 0; field < fieldCount; field++) {
                 if (columns[field].isNull(position)) {
                     tableInspector.setStructFieldData(row, structFields.get(field), null);
@@ -580,6 +658,11 @@ public class HivePageSink
         public void commit()
         {
             try {
+                if (orcWriter != null) {
+                    flushPageBuilder();
+                    orcWriter.close();
+                    return;
+                }
                 recordWriter.close(false);
             }
             catch (IOException e) {
@@ -590,6 +673,15 @@ public class HivePageSink
         public void rollback()
         {
             try {
+                if (orcWriter != null) {
+                    try {
+                        orcWriter.close();
+                    }
+                    finally {
+                        fileSystem.delete(path, false);
+                    }
+                    return;
+                }
                 recordWriter.close(true);
             }
             catch (IOException e) {
@@ -607,6 +699,51 @@ public class HivePageSink
                     ImmutableList.of(fileName));
         }
 
+        private void flushPageBuilder()
+        {
+            if (pageBuilder.isEmpty()) {
+                return;
+            }
+            try {
+                orcWriter.write(pageBuilder.build());
+            }
+            catch (IOException e) {
+                throw new PrestoException(HIVE_WRITER_DATA_ERROR, e);
+            }
+            pageBuilder.reset();
+        }
+
+        private static Optional<CompressionKind> getOrcCompression(Properties schema)
+        {
+            switch (schema.getProperty(ORC_COMPRESSION, "ZLIB").toUpperCase(ENGLISH)) {
+                case "NONE":
+                    return Optional.of(CompressionKind.UNCOMPRESSED);
+                case "ZLIB":
+                    return Optional.of(CompressionKind.ZLIB);
+                case "SNAPPY":
+                    return Optional.of(CompressionKind.SNAPPY);
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        private static boolean isOrcWriterSupported(List<String> fileColumnNames, List<HiveType> fileColumnHiveTypes, List<DataColumn> inputColumns)
+        {
+            // the native writer writes the input columns as they are, so they must be exactly the file columns
+            if (inputColumns.size() != fileColumnNames.size()) {
+                return false;
+            }
+            for (int i = 0; i < inputColumns.size(); i++) {
+                DataColumn column = inputColumns.get(i);
+                if (!column.getName().equals(fileColumnNames.get(i)) ||
+                        !ORC_WRITER_HIVE_TYPES.contains(fileColumnHiveTypes.get(i)) ||
+                        !ColumnWriters.isSupportedType(column.getType())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         @SuppressWarnings("deprecation")
         private static Serializer initializeSerializer(Configuration conf, Properties properties, String serializerName)
         {
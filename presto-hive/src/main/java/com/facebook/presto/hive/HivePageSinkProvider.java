@@ -22,6 +22,7 @@ import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.PageIndexerFactory;
 import com.facebook.presto.spi.type.TypeManager;
 import io.airlift.json.JsonCodec;
+import org.joda.time.DateTimeZone;
 
 import javax.inject.Inject;
 
@@ -38,6 +39,8 @@ public class HivePageSinkProvider
     private final boolean respectTableFormat;
     private final int maxOpenPartitions;
     private final boolean immutablePartitions;
+    private final boolean orcOptimizedWriterEnabled;
+    private final DateTimeZone hiveStorageTimeZone;
     private final LocationService locationService;
     private final JsonCodec<PartitionUpdate> partitionUpdateCodec;
 
@@ -58,6 +61,8 @@ public class HivePageSinkProvider
         this.respectTableFormat = config.isRespectTableFormat();
         this.maxOpenPartitions = config.getMaxPartitionsPerWriter();
         this.immutablePartitions = config.isImmutablePartitions();
+        this.orcOptimizedWriterEnabled = config.isOrcOptimizedWriterEnabled();
+        this.hiveStorageTimeZone = config.getDateTimeZone();
         this.locationService = requireNonNull(locationService, "locationService is null");
         this.partitionUpdateCodec = requireNonNull(partitionUpdateCodec, "partitionUpdateCodec is null");
     }
@@ -94,6 +99,8 @@ public class HivePageSinkProvider
                 respectTableFormat,
                 maxOpenPartitions,
                 immutablePartitions,
+                orcOptimizedWriterEnabled,
+                hiveStorageTimeZone,
                 partitionUpdateCodec);
     }
 }
@@ -19,10 +19,14 @@ import com.facebook.presto.spi.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.DefaultRecordPageSource;
+import com.facebook.presto.spi.FixedPageSource;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.NullableValue;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -31,10 +35,12 @@ import org.joda.time.DateTimeZone;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 
+import static com.facebook.presto.hive.HiveUtil.parsePartitionValue;
 import static com.facebook.presto.hive.util.Types.checkType;
 import static com.google.common.collect.Iterables.transform;
 import static java.util.Objects.requireNonNull;
@@ -67,6 +73,12 @@ public class HivePageSourceProvider
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns)
+    {
+        return createPageSource(session, split, columns, TupleDomain.all());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
     {
         HiveSplit hiveSplit = checkType(split, HiveSplit.class, "split");
 
@@ -78,11 +90,16 @@ public class HivePageSourceProvider
 
         Configuration configuration = hdfsEnvironment.getConfiguration(path);
 
-        TupleDomain<HiveColumnHandle> effectivePredicate = hiveSplit.getEffectivePredicate();
+        // the dynamic filter is pushed into the readers together with the predicate of the split
+        TupleDomain<HiveColumnHandle> effectivePredicate = hiveSplit.getEffectivePredicate()
+                .intersect(dynamicFilter.transform(HiveColumnHandle::toHiveColumnHandle));
 
         Properties schema = hiveSplit.getSchema();
 
         List<HivePartitionKey> partitionKeys = hiveSplit.getPartitionKeys();
+        if (effectivePredicate.isNone() || !partitionMatches(hiveSplit.getPartitionName(), partitionKeys, effectivePredicate)) {
+            return new FixedPageSource(ImmutableList.of());
+        }
         List<HiveColumnHandle> hiveColumns = ImmutableList.copyOf(transform(columns, HiveColumnHandle::toHiveColumnHandle));
 
         for (HivePageSourceFactory pageSourceFactory : pageSourceFactories) {
@@ -112,6 +129,23 @@ public class HivePageSourceProvider
         throw new RuntimeException("Could not find a file reader for split " + hiveSplit);
     }
 
+    private boolean partitionMatches(String partitionName, List<HivePartitionKey> partitionKeys, TupleDomain<HiveColumnHandle> effectivePredicate)
+    {
+        Map<HiveColumnHandle, Domain> domains = effectivePredicate.getDomains().get();
+        ImmutableMap.Builder<HiveColumnHandle, NullableValue> partitionValues = ImmutableMap.builder();
+        for (HiveColumnHandle column : domains.keySet()) {
+            if (!column.isPartitionKey()) {
+                continue;
+            }
+            for (HivePartitionKey partitionKey : partitionKeys) {
+                if (partitionKey.getName().equals(column.getName())) {
+                    partitionValues.put(column, parsePartitionValue(partitionName, partitionKey.getValue(), partitionKey.getHiveType(), hiveStorageTimeZone));
+                }
+            }
+        }
+        return effectivePredicate.overlaps(TupleDomain.fromFixedValues(partitionValues.build()));
+    }
+
     protected HiveRecordCursor getHiveRecordCursor(
             String clientId,
             ConnectorSession session,
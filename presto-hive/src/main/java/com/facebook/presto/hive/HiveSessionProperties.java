@@ -32,6 +32,9 @@ public final class HiveSessionProperties
     private static final String ORC_MAX_MERGE_DISTANCE = "orc_max_merge_distance";
     private static final String ORC_MAX_BUFFER_SIZE = "orc_max_buffer_size";
     private static final String ORC_STREAM_BUFFER_SIZE = "orc_stream_buffer_size";
+    private static final String ORC_STRIPE_PREFETCH_ENABLED = "orc_stripe_prefetch_enabled";
+    private static final String TEXT_OPTIMIZED_READER_ENABLED = "text_optimized_reader_enabled";
+    private static final String BUCKET_EXECUTION_ENABLED = "bucket_execution_enabled";
     private static final String PARQUET_PREDICATE_PUSHDOWN_ENABLED = "parquet_predicate_pushdown_enabled";
     private static final String PARQUET_OPTIMIZED_READER_ENABLED = "parquet_optimized_reader_enabled";
 
@@ -66,6 +69,21 @@ public final class HiveSessionProperties
                         "ORC: Size of buffer for streaming reads",
                         config.getOrcMaxBufferSize(),
                         false),
+                booleanSessionProperty(
+                        ORC_STRIPE_PREFETCH_ENABLED,
+                        "ORC: Read the next stripe in the background while the current stripe is decoded",
+                        config.isOrcStripePrefetchEnabled(),
+                        false),
+                booleanSessionProperty(
+                        TEXT_OPTIMIZED_READER_ENABLED,
+                        "Text: Read delimited text files using the native page reader",
+                        config.isTextOptimizedReaderEnabled(),
+                        false),
+                booleanSessionProperty(
+                        BUCKET_EXECUTION_ENABLED,
+                        "Use the bucketing of bucketed tables to avoid repartitioning them",
+                        config.isBucketExecutionEnabled(),
+                        false),
                 booleanSessionProperty(
                         PARQUET_OPTIMIZED_READER_ENABLED,
                         "Experimental: Parquet: Enable optimized reader",
@@ -113,6 +131,21 @@ public final class HiveSessionProperties
         return session.getProperty(ORC_STREAM_BUFFER_SIZE, DataSize.class);
     }
 
+    public static boolean isOrcStripePrefetchEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ORC_STRIPE_PREFETCH_ENABLED, Boolean.class);
+    }
+
+    public static boolean isTextOptimizedReaderEnabled(ConnectorSession session)
+    {
+        return session.getProperty(TEXT_OPTIMIZED_READER_ENABLED, Boolean.class);
+    }
+
+    public static boolean isBucketExecutionEnabled(ConnectorSession session)
+    {
+        return session.getProperty(BUCKET_EXECUTION_ENABLED, Boolean.class);
+    }
+
     public static boolean isParquetPredicatePushdownEnabled(ConnectorSession session)
     {
         return session.getProperty(PARQUET_PREDICATE_PUSHDOWN_ENABLED, Boolean.class);
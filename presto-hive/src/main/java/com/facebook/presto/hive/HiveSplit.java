@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import java.util.List;
+import java.util.OptionalInt;
 import java.util.Properties;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -43,6 +44,7 @@ public class HiveSplit
     private final String partitionName;
     private final TupleDomain<HiveColumnHandle> effectivePredicate;
     private final boolean forceLocalScheduling;
+    private final OptionalInt bucketNumber;
 
     @JsonCreator
     public HiveSplit(
@@ -57,7 +59,8 @@ public class HiveSplit
             @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
             @JsonProperty("addresses") List<HostAddress> addresses,
             @JsonProperty("forceLocalScheduling") boolean forceLocalScheduling,
-            @JsonProperty("effectivePredicate") TupleDomain<HiveColumnHandle> effectivePredicate)
+            @JsonProperty("effectivePredicate") TupleDomain<HiveColumnHandle> effectivePredicate,
+            @JsonProperty("bucketNumber") OptionalInt bucketNumber)
     {
         requireNonNull(clientId, "clientId is null");
         checkArgument(start >= 0, "start must be positive");
@@ -70,6 +73,7 @@ public class HiveSplit
         requireNonNull(partitionKeys, "partitionKeys is null");
         requireNonNull(addresses, "addresses is null");
         requireNonNull(effectivePredicate, "tupleDomain is null");
+        requireNonNull(bucketNumber, "bucketNumber is null");
 
         this.clientId = clientId;
         this.database = database;
@@ -83,6 +87,7 @@ public class HiveSplit
         this.addresses = ImmutableList.copyOf(addresses);
         this.forceLocalScheduling = forceLocalScheduling;
         this.effectivePredicate = effectivePredicate;
+        this.bucketNumber = bucketNumber;
     }
 
     @JsonProperty
@@ -158,6 +163,12 @@ public class HiveSplit
         return forceLocalScheduling;
     }
 
+    @JsonProperty
+    public OptionalInt getBucketNumber()
+    {
+        return bucketNumber;
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {
@@ -177,6 +188,7 @@ public class HiveSplit
                 .put("forceLocalScheduling", forceLocalScheduling)
                 .put("partitionName", partitionName)
                 .put("effectivePredicate", effectivePredicate)
+                .put("bucketNumber", bucketNumber.isPresent() ? bucketNumber.getAsInt() : "none")
                 .build();
     }
 
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive;
 
+import com.facebook.presto.hive.cache.HiveSplitAffinity;
 import com.facebook.presto.hive.metastore.HiveMetastore;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
@@ -20,6 +21,7 @@ import com.facebook.presto.spi.ConnectorSplitManager;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.FixedSplitSource;
+import com.facebook.presto.spi.NodeManager;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.TableNotFoundException;
@@ -82,6 +84,7 @@ public class HiveSplitManager
     private final DataSize maxInitialSplitSize;
     private final int maxInitialSplits;
     private final boolean recursiveDfsWalkerEnabled;
+    private final Optional<HiveSplitAffinity> splitAffinity;
 
     @Inject
     public HiveSplitManager(
@@ -91,6 +94,7 @@ public class HiveSplitManager
             NamenodeStats namenodeStats,
             HdfsEnvironment hdfsEnvironment,
             DirectoryLister directoryLister,
+            NodeManager nodeManager,
             @ForHiveClient ExecutorService executorService)
     {
         this(connectorId,
@@ -105,7 +109,8 @@ public class HiveSplitManager
                 hiveClientConfig.getMaxSplitSize(),
                 hiveClientConfig.getMaxInitialSplitSize(),
                 hiveClientConfig.getMaxInitialSplits(),
-                hiveClientConfig.getRecursiveDirWalkerEnabled()
+                hiveClientConfig.getRecursiveDirWalkerEnabled(),
+                hiveClientConfig.isFileCacheEnabled() ? Optional.of(new HiveSplitAffinity(connectorId.toString(), nodeManager, hiveClientConfig.getMaxSplitSize())) : Optional.empty()
         );
     }
 
@@ -122,7 +127,8 @@ public class HiveSplitManager
             DataSize maxSplitSize,
             DataSize maxInitialSplitSize,
             int maxInitialSplits,
-            boolean recursiveDfsWalkerEnabled)
+            boolean recursiveDfsWalkerEnabled,
+            Optional<HiveSplitAffinity> splitAffinity)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
         this.metastore = requireNonNull(metastore, "metastore is null");
@@ -138,6 +144,7 @@ public class HiveSplitManager
         this.maxInitialSplitSize = requireNonNull(maxInitialSplitSize, "maxInitialSplitSize is null");
         this.maxInitialSplits = maxInitialSplits;
         this.recursiveDfsWalkerEnabled = recursiveDfsWalkerEnabled;
+        this.splitAffinity = requireNonNull(splitAffinity, "splitAffinity is null");
     }
 
     @Override
@@ -168,6 +175,7 @@ public class HiveSplitManager
                 table.get(),
                 hivePartitions,
                 bucket,
+                layout.getBucketHandle(),
                 maxSplitSize,
                 session,
                 hdfsEnvironment,
@@ -177,7 +185,8 @@ public class HiveSplitManager
                 maxPartitionBatchSize,
                 maxInitialSplitSize,
                 maxInitialSplits,
-                recursiveDfsWalkerEnabled);
+                recursiveDfsWalkerEnabled,
+                splitAffinity);
 
         HiveSplitSource splitSource = new HiveSplitSource(connectorId, maxOutstandingSplits, hiveSplitLoader, executor);
         hiveSplitLoader.start(splitSource);
@@ -34,17 +34,20 @@ public final class HiveTableLayoutHandle
     private final List<ColumnHandle> partitionColumns;
     private final List<HivePartition> partitions;
     private final TupleDomain<ColumnHandle> promisedPredicate;
+    private final Optional<HiveBucketHandle> bucketHandle;
 
     @JsonCreator
     public HiveTableLayoutHandle(
             @JsonProperty("clientId") String clientId,
             @JsonProperty("partitionColumns") List<ColumnHandle> partitionColumns,
-            @JsonProperty("promisedPredicate") TupleDomain<ColumnHandle> promisedPredicate)
+            @JsonProperty("promisedPredicate") TupleDomain<ColumnHandle> promisedPredicate,
+            @JsonProperty("bucketHandle") Optional<HiveBucketHandle> bucketHandle)
     {
         this.clientId = requireNonNull(clientId, "clientId is null");
         this.partitionColumns = ImmutableList.copyOf(requireNonNull(partitionColumns, "partitionColumns is null"));
         this.partitions = null;
         this.promisedPredicate = requireNonNull(promisedPredicate, "promisedPredicate is null");
+        this.bucketHandle = requireNonNull(bucketHandle, "bucketHandle is null");
     }
 
     public HiveTableLayoutHandle(
@@ -52,11 +55,22 @@ public final class HiveTableLayoutHandle
             List<ColumnHandle> partitionColumns,
             List<HivePartition> partitions,
             TupleDomain<ColumnHandle> promisedPredicate)
+    {
+        this(clientId, partitionColumns, partitions, promisedPredicate, Optional.empty());
+    }
+
+    public HiveTableLayoutHandle(
+            String clientId,
+            List<ColumnHandle> partitionColumns,
+            List<HivePartition> partitions,
+            TupleDomain<ColumnHandle> promisedPredicate,
+            Optional<HiveBucketHandle> bucketHandle)
     {
         this.clientId = requireNonNull(clientId, "clientId is null");
         this.partitionColumns = ImmutableList.copyOf(requireNonNull(partitionColumns, "partitionColumns is null"));
         this.partitions = requireNonNull(partitions, "partitions is null");
         this.promisedPredicate = requireNonNull(promisedPredicate, "promisedPredicate is null");
+        this.bucketHandle = requireNonNull(bucketHandle, "bucketHandle is null");
     }
 
     @JsonProperty
@@ -88,6 +102,15 @@ public final class HiveTableLayoutHandle
         return promisedPredicate;
     }
 
+    /**
+     * The bucketing the table is read with, if the splits are assigned to buckets.
+     */
+    @JsonProperty
+    public Optional<HiveBucketHandle> getBucketHandle()
+    {
+        return bucketHandle;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -100,13 +123,14 @@ public final class HiveTableLayoutHandle
         HiveTableLayoutHandle that = (HiveTableLayoutHandle) o;
         return Objects.equals(clientId, that.clientId) &&
                 Objects.equals(partitionColumns, that.partitionColumns) &&
-                Objects.equals(partitions, that.partitions);
+                Objects.equals(partitions, that.partitions) &&
+                Objects.equals(bucketHandle, that.bucketHandle);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(clientId, partitionColumns, partitions);
+        return Objects.hash(clientId, partitionColumns, partitions, bucketHandle);
     }
 
     @Override
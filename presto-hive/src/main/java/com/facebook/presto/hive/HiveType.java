@@ -47,7 +47,11 @@ import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DecimalType.createDecimalType;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static java.lang.String.format;
@@ -214,9 +218,21 @@ public final class HiveType
         if (BIGINT.equals(type)) {
             return HIVE_LONG.typeInfo;
         }
+        if (INTEGER.equals(type)) {
+            return HIVE_INT.typeInfo;
+        }
+        if (SMALLINT.equals(type)) {
+            return HIVE_SHORT.typeInfo;
+        }
+        if (TINYINT.equals(type)) {
+            return HIVE_BYTE.typeInfo;
+        }
         if (DOUBLE.equals(type)) {
             return HIVE_DOUBLE.typeInfo;
         }
+        if (REAL.equals(type)) {
+            return HIVE_FLOAT.typeInfo;
+        }
         if (type instanceof VarcharType) {
             return HIVE_STRING.typeInfo;
         }
@@ -301,15 +317,15 @@ public static Type getPrimitiveType(PrimitiveTypeInfo typeInfo)
             case BOOLEAN:
                 return BOOLEAN;
             case BYTE:
-                return BIGINT;
+                return TINYINT;
             case SHORT:
-                return BIGINT;
+                return SMALLINT;
             case INT:
-                return BIGINT;
+                return INTEGER;
             case LONG:
                 return BIGINT;
             case FLOAT:
-                return DOUBLE;
+                return REAL;
             case DOUBLE:
                 return DOUBLE;
             case STRING:
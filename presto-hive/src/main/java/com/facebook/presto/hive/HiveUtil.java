@@ -96,7 +96,11 @@ import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DecimalType.createDecimalType;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Predicates.not;
@@ -106,9 +110,12 @@ import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Lists.transform;
 import static io.airlift.slice.Slices.utf8Slice;
 import static java.lang.Boolean.parseBoolean;
+import static java.lang.Byte.parseByte;
 import static java.lang.Double.parseDouble;
+import static java.lang.Float.parseFloat;
 import static java.lang.Integer.parseInt;
 import static java.lang.Long.parseLong;
+import static java.lang.Short.parseShort;
 import static java.lang.String.format;
 import static java.math.BigDecimal.ROUND_UNNECESSARY;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -405,7 +412,37 @@ public final class HiveUtil
                 return NullableValue.of(BOOLEAN, parseBoolean(value));
             }
 
-            if (HIVE_BYTE.equals(hiveType) || HIVE_SHORT.equals(hiveType) || HIVE_INT.equals(hiveType) || HIVE_LONG.equals(hiveType)) {
+            if (HIVE_BYTE.equals(hiveType)) {
+                if (isNull) {
+                    return NullableValue.asNull(TINYINT);
+                }
+                if (value.isEmpty()) {
+                    return NullableValue.of(TINYINT, 0L);
+                }
+                return NullableValue.of(TINYINT, (long) parseByte(value));
+            }
+
+            if (HIVE_SHORT.equals(hiveType)) {
+                if (isNull) {
+                    return NullableValue.asNull(SMALLINT);
+                }
+                if (value.isEmpty()) {
+                    return NullableValue.of(SMALLINT, 0L);
+                }
+                return NullableValue.of(SMALLINT, (long) parseShort(value));
+            }
+
+            if (HIVE_INT.equals(hiveType)) {
+                if (isNull) {
+                    return NullableValue.asNull(INTEGER);
+                }
+                if (value.isEmpty()) {
+                    return NullableValue.of(INTEGER, 0L);
+                }
+                return NullableValue.of(INTEGER, (long) parseInt(value));
+            }
+
+            if (HIVE_LONG.equals(hiveType)) {
                 if (isNull) {
                     return NullableValue.asNull(BIGINT);
                 }
@@ -429,7 +466,17 @@ public final class HiveUtil
                 return NullableValue.of(TIMESTAMP, parseHiveTimestamp(value, timeZone));
             }
 
-            if (HIVE_FLOAT.equals(hiveType) || HIVE_DOUBLE.equals(hiveType)) {
+            if (HIVE_FLOAT.equals(hiveType)) {
+                if (isNull) {
+                    return NullableValue.asNull(REAL);
+                }
+                if (value.isEmpty()) {
+                    return NullableValue.of(REAL, 0.0);
+                }
+                return NullableValue.of(REAL, (double) parseFloat(value));
+            }
+
+            if (HIVE_DOUBLE.equals(hiveType)) {
                 if (isNull) {
                     return NullableValue.asNull(DOUBLE);
                 }
@@ -548,6 +595,46 @@ public final class HiveUtil
         }
     }
 
+    public static long integerPartitionKey(String value, String name)
+    {
+        try {
+            return parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            throw new PrestoException(HIVE_INVALID_PARTITION_VALUE, format("Invalid partition value '%s' for INTEGER partition key: %s", value, name));
+        }
+    }
+
+    public static long smallintPartitionKey(String value, String name)
+    {
+        try {
+            return parseShort(value);
+        }
+        catch (NumberFormatException e) {
+            throw new PrestoException(HIVE_INVALID_PARTITION_VALUE, format("Invalid partition value '%s' for SMALLINT partition key: %s", value, name));
+        }
+    }
+
+    public static long tinyintPartitionKey(String value, String name)
+    {
+        try {
+            return parseByte(value);
+        }
+        catch (NumberFormatException e) {
+            throw new PrestoException(HIVE_INVALID_PARTITION_VALUE, format("Invalid partition value '%s' for TINYINT partition key: %s", value, name));
+        }
+    }
+
+    public static double realPartitionKey(String value, String name)
+    {
+        try {
+            return parseFloat(value);
+        }
+        catch (NumberFormatException e) {
+            throw new PrestoException(HIVE_INVALID_PARTITION_VALUE, format("Invalid partition value '%s' for REAL partition key: %s", value, name));
+        }
+    }
+
     public static double doublePartitionKey(String value, String name)
     {
         try {
@@ -24,7 +24,11 @@ import com.facebook.presto.spi.type.BooleanType;
 import com.facebook.presto.spi.type.DateType;
 import com.facebook.presto.spi.type.DecimalType;
 import com.facebook.presto.spi.type.DoubleType;
+import com.facebook.presto.spi.type.IntegerType;
+import com.facebook.presto.spi.type.RealType;
+import com.facebook.presto.spi.type.SmallintType;
 import com.facebook.presto.spi.type.TimestampType;
+import com.facebook.presto.spi.type.TinyintType;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.VarbinaryType;
 import com.facebook.presto.spi.type.VarcharType;
@@ -43,9 +47,11 @@ import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
 import org.apache.hadoop.hive.metastore.api.Table;
 import org.apache.hadoop.hive.ql.exec.FileSinkOperator.RecordWriter;
 import org.apache.hadoop.hive.ql.io.HiveOutputFormat;
+import org.apache.hadoop.hive.serde2.io.ByteWritable;
 import org.apache.hadoop.hive.serde2.io.DateWritable;
 import org.apache.hadoop.hive.serde2.io.DoubleWritable;
 import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
+import org.apache.hadoop.hive.serde2.io.ShortWritable;
 import org.apache.hadoop.hive.serde2.io.TimestampWritable;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
@@ -60,6 +66,8 @@ import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 import org.apache.hadoop.io.BooleanWritable;
 import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.FloatWritable;
+import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapred.JobConf;
@@ -102,15 +110,23 @@ import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveO
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.getPrimitiveWritableObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaBooleanObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaByteArrayObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaByteObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaDateObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaDoubleObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaFloatObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaIntObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaShortObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaTimestampObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableBinaryObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableBooleanObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableByteObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableDateObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableDoubleObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableFloatObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableIntObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableLongObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableShortObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableStringObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.writableTimestampObjectInspector;
 import static org.joda.time.DateTimeZone.UTC;
@@ -144,9 +160,21 @@ public final class HiveWriteUtils
         else if (type.equals(BigintType.BIGINT)) {
             return javaLongObjectInspector;
         }
+        else if (type.equals(IntegerType.INTEGER)) {
+            return javaIntObjectInspector;
+        }
+        else if (type.equals(SmallintType.SMALLINT)) {
+            return javaShortObjectInspector;
+        }
+        else if (type.equals(TinyintType.TINYINT)) {
+            return javaByteObjectInspector;
+        }
         else if (type.equals(DoubleType.DOUBLE)) {
             return javaDoubleObjectInspector;
         }
+        else if (type.equals(RealType.REAL)) {
+            return javaFloatObjectInspector;
+        }
         else if (type instanceof VarcharType) {
             return writableStringObjectInspector;
         }
@@ -194,9 +222,21 @@ public final class HiveWriteUtils
         if (BigintType.BIGINT.equals(type)) {
             return type.getLong(block, position);
         }
+        if (IntegerType.INTEGER.equals(type)) {
+            return (int) type.getLong(block, position);
+        }
+        if (SmallintType.SMALLINT.equals(type)) {
+            return (short) type.getLong(block, position);
+        }
+        if (TinyintType.TINYINT.equals(type)) {
+            return (byte) type.getLong(block, position);
+        }
         if (DoubleType.DOUBLE.equals(type)) {
             return type.getDouble(block, position);
         }
+        if (RealType.REAL.equals(type)) {
+            return (float) type.getDouble(block, position);
+        }
         if (type instanceof VarcharType) {
             return new Text(type.getSlice(block, position).getBytes());
         }
@@ -443,6 +483,10 @@ public final class HiveWriteUtils
         switch (primitiveCategory) {
             case BOOLEAN:
             case LONG:
+            case INT:
+            case SHORT:
+            case BYTE:
+            case FLOAT:
             case DOUBLE:
             case STRING:
             case DATE:
@@ -471,10 +515,26 @@ public final class HiveWriteUtils
             return writableLongObjectInspector;
         }
 
+        if (type.equals(IntegerType.INTEGER)) {
+            return writableIntObjectInspector;
+        }
+
+        if (type.equals(SmallintType.SMALLINT)) {
+            return writableShortObjectInspector;
+        }
+
+        if (type.equals(TinyintType.TINYINT)) {
+            return writableByteObjectInspector;
+        }
+
         if (type.equals(DoubleType.DOUBLE)) {
             return writableDoubleObjectInspector;
         }
 
+        if (type.equals(RealType.REAL)) {
+            return writableFloatObjectInspector;
+        }
+
         if (type.equals(VarcharType.VARCHAR)) {
             return writableStringObjectInspector;
         }
@@ -513,10 +573,26 @@ public final class HiveWriteUtils
             return new BigintFieldBuilder(rowInspector, row, field);
         }
 
+        if (type.equals(IntegerType.INTEGER)) {
+            return new IntFieldSetter(rowInspector, row, field);
+        }
+
+        if (type.equals(SmallintType.SMALLINT)) {
+            return new SmallintFieldSetter(rowInspector, row, field);
+        }
+
+        if (type.equals(TinyintType.TINYINT)) {
+            return new TinyintFieldSetter(rowInspector, row, field);
+        }
+
         if (type.equals(DoubleType.DOUBLE)) {
             return new DoubleFieldSetter(rowInspector, row, field);
         }
 
+        if (type.equals(RealType.REAL)) {
+            return new FloatFieldSetter(rowInspector, row, field);
+        }
+
         if (type instanceof VarcharType) {
             return new VarcharFieldSetter(rowInspector, row, field);
         }
@@ -605,6 +681,60 @@ public final class HiveWriteUtils
         }
     }
 
+    private static class IntFieldSetter
+            extends FieldSetter
+    {
+        private final IntWritable value = new IntWritable();
+
+        public IntFieldSetter(SettableStructObjectInspector rowInspector, Object row, StructField field)
+        {
+            super(rowInspector, row, field);
+        }
+
+        @Override
+        public void setField(Block block, int position)
+        {
+            value.set((int) IntegerType.INTEGER.getLong(block, position));
+            rowInspector.setStructFieldData(row, field, value);
+        }
+    }
+
+    private static class SmallintFieldSetter
+            extends FieldSetter
+    {
+        private final ShortWritable value = new ShortWritable();
+
+        public SmallintFieldSetter(SettableStructObjectInspector rowInspector, Object row, StructField field)
+        {
+            super(rowInspector, row, field);
+        }
+
+        @Override
+        public void setField(Block block, int position)
+        {
+            value.set((short) SmallintType.SMALLINT.getLong(block, position));
+            rowInspector.setStructFieldData(row, field, value);
+        }
+    }
+
+    private static class TinyintFieldSetter
+            extends FieldSetter
+    {
+        private final ByteWritable value = new ByteWritable();
+
+        public TinyintFieldSetter(SettableStructObjectInspector rowInspector, Object row, StructField field)
+        {
+            super(rowInspector, row, field);
+        }
+
+        @Override
+        public void setField(Block block, int position)
+        {
+            value.set((byte) TinyintType.TINYINT.getLong(block, position));
+            rowInspector.setStructFieldData(row, field, value);
+        }
+    }
+
     private static class DoubleFieldSetter
             extends FieldSetter
     {
@@ -623,6 +753,24 @@ public final class HiveWriteUtils
         }
     }
 
+    private static class FloatFieldSetter
+            extends FieldSetter
+    {
+        private final FloatWritable value = new FloatWritable();
+
+        public FloatFieldSetter(SettableStructObjectInspector rowInspector, Object row, StructField field)
+        {
+            super(rowInspector, row, field);
+        }
+
+        @Override
+        public void setField(Block block, int position)
+        {
+            value.set((float) RealType.REAL.getDouble(block, position));
+            rowInspector.setStructFieldData(row, field, value);
+        }
+    }
+
     private static class VarcharFieldSetter
             extends FieldSetter
     {
@@ -0,0 +1,324 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.HiveMetastore;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.predicate.NullableValue;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.TypeManager;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Longs;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsData;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsObj;
+import org.apache.hadoop.hive.metastore.api.DoubleColumnStatsData;
+import org.apache.hadoop.hive.metastore.api.LongColumnStatsData;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.facebook.presto.hive.HivePartition.UNPARTITIONED_ID;
+import static com.facebook.presto.hive.util.Types.checkType;
+import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
+import static com.facebook.presto.spi.statistics.Estimate.zeroValue;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import static org.apache.hadoop.hive.common.StatsSetupConst.ROW_COUNT;
+
+/**
+ * Computes table statistics from the basic statistics stored in the table and partition
+ * parameters and the column statistics stored in the metastore. Statistics of the selected
+ * partitions are combined, and partitions without statistics are assumed to look like the
+ * average partition that has them.
+ */
+public class MetastoreHiveStatisticsProvider
+{
+    private final TypeManager typeManager;
+    private final HiveMetastore metastore;
+
+    public MetastoreHiveStatisticsProvider(TypeManager typeManager, HiveMetastore metastore)
+    {
+        this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.metastore = requireNonNull(metastore, "metastore is null");
+    }
+
+    public TableStatistics getTableStatistics(SchemaTableName tableName, List<HivePartition> partitions, Collection<ColumnHandle> columns)
+    {
+        if (partitions.isEmpty()) {
+            return TableStatistics.builder()
+                    .setRowCount(zeroValue())
+                    .build();
+        }
+
+        Map<String, OptionalLong> partitionRowCounts = getPartitionRowCounts(tableName, partitions);
+        Estimate rowCount = getRowCount(partitionRowCounts);
+
+        Set<String> dataColumnNames = new HashSet<>();
+        for (ColumnHandle column : columns) {
+            HiveColumnHandle hiveColumn = checkType(column, HiveColumnHandle.class, "column");
+            if (!hiveColumn.isPartitionKey()) {
+                dataColumnNames.add(hiveColumn.getName());
+            }
+        }
+        Map<String, Map<String, ColumnStatisticsObj>> partitionColumnStatistics = getPartitionColumnStatistics(tableName, partitionRowCounts.keySet(), dataColumnNames);
+
+        TableStatistics.Builder tableStatistics = TableStatistics.builder()
+                .setRowCount(rowCount);
+        for (ColumnHandle column : columns) {
+            HiveColumnHandle hiveColumn = (HiveColumnHandle) column;
+            if (hiveColumn.isPartitionKey()) {
+                tableStatistics.setColumnStatistics(column, getPartitionKeyStatistics(column, partitions));
+            }
+            else {
+                Type type = typeManager.getType(hiveColumn.getTypeSignature());
+                tableStatistics.setColumnStatistics(column, getDataColumnStatistics(hiveColumn.getName(), type, partitionRowCounts, partitionColumnStatistics));
+            }
+        }
+        return tableStatistics.build();
+    }
+
+    private Map<String, OptionalLong> getPartitionRowCounts(SchemaTableName tableName, List<HivePartition> partitions)
+    {
+        ImmutableMap.Builder<String, OptionalLong> rowCounts = ImmutableMap.builder();
+        if (isUnpartitioned(partitions)) {
+            Optional<Table> table = metastore.getTable(tableName.getSchemaName(), tableName.getTableName());
+            rowCounts.put(UNPARTITIONED_ID, table.map(value -> getRowCount(value.getParameters())).orElse(OptionalLong.empty()));
+            return rowCounts.build();
+        }
+
+        List<String> partitionNames = partitions.stream()
+                .map(HivePartition::getPartitionId)
+                .collect(toList());
+        Map<String, Partition> metastorePartitions = metastore.getPartitionsByNames(tableName.getSchemaName(), tableName.getTableName(), partitionNames)
+                .orElse(ImmutableMap.of());
+        for (String partitionName : partitionNames) {
+            Partition partition = metastorePartitions.get(partitionName);
+            rowCounts.put(partitionName, partition == null ? OptionalLong.empty() : getRowCount(partition.getParameters()));
+        }
+        return rowCounts.build();
+    }
+
+    private Map<String, Map<String, ColumnStatisticsObj>> getPartitionColumnStatistics(SchemaTableName tableName, Set<String> partitionNames, Set<String> columnNames)
+    {
+        if (columnNames.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        if (partitionNames.equals(ImmutableSet.of(UNPARTITIONED_ID))) {
+            return metastore.getTableColumnStatistics(tableName.getSchemaName(), tableName.getTableName(), columnNames)
+                    .map(statistics -> ImmutableMap.of(UNPARTITIONED_ID, statistics))
+                    .orElse(ImmutableMap.of());
+        }
+        return metastore.getPartitionColumnStatistics(tableName.getSchemaName(), tableName.getTableName(), partitionNames, columnNames)
+                .orElse(ImmutableMap.of());
+    }
+
+    private static Estimate getRowCount(Map<String, OptionalLong> partitionRowCounts)
+    {
+        long knownRowCount = 0;
+        int knownPartitions = 0;
+        for (OptionalLong rowCount : partitionRowCounts.values()) {
+            if (rowCount.isPresent()) {
+                knownRowCount += rowCount.getAsLong();
+                knownPartitions++;
+            }
+        }
+        if (knownPartitions == 0) {
+            return unknownValue();
+        }
+        return new Estimate(((double) knownRowCount) * partitionRowCounts.size() / knownPartitions);
+    }
+
+    private static ColumnStatistics getPartitionKeyStatistics(ColumnHandle column, List<HivePartition> partitions)
+    {
+        Set<Object> distinctValues = new HashSet<>();
+        int nullPartitions = 0;
+        Comparable<Object> lowValue = null;
+        Comparable<Object> highValue = null;
+        for (HivePartition partition : partitions) {
+            NullableValue value = partition.getKeys().get(column);
+            if (value == null || value.isNull()) {
+                nullPartitions++;
+                continue;
+            }
+            distinctValues.add(value.getValue());
+            if (value.getValue() instanceof Long || value.getValue() instanceof Double) {
+                @SuppressWarnings("unchecked")
+                Comparable<Object> comparable = (Comparable<Object>) value.getValue();
+                if (lowValue == null || comparable.compareTo(lowValue) < 0) {
+                    lowValue = comparable;
+                }
+                if (highValue == null || comparable.compareTo(highValue) > 0) {
+                    highValue = comparable;
+                }
+            }
+        }
+        return ColumnStatistics.builder()
+                .setDistinctValuesCount(new Estimate(distinctValues.size()))
+                .setNullsFraction(new Estimate(((double) nullPartitions) / partitions.size()))
+                .setLowValue(Optional.ofNullable(lowValue))
+                .setHighValue(Optional.ofNullable(highValue))
+                .build();
+    }
+
+    private static ColumnStatistics getDataColumnStatistics(
+            String columnName,
+            Type type,
+            Map<String, OptionalLong> partitionRowCounts,
+            Map<String, Map<String, ColumnStatisticsObj>> partitionColumnStatistics)
+    {
+        long distinctValues = -1;
+        long nulls = 0;
+        long rowsWithNullCounts = 0;
+        boolean nullCountsKnown = true;
+        Object lowValue = null;
+        Object highValue = null;
+        boolean anyStatistics = false;
+
+        for (Map.Entry<String, OptionalLong> partition : partitionRowCounts.entrySet()) {
+            ColumnStatisticsObj statistics = partitionColumnStatistics.getOrDefault(partition.getKey(), ImmutableMap.of()).get(columnName);
+            if (statistics == null) {
+                continue;
+            }
+            anyStatistics = true;
+            ColumnStatisticsData data = statistics.getStatsData();
+
+            // the distinct values of a column over several partitions are at least the largest per partition count
+            OptionalLong partitionDistinctValues = getDistinctValuesCount(data);
+            if (partitionDistinctValues.isPresent()) {
+                distinctValues = Math.max(distinctValues, partitionDistinctValues.getAsLong());
+            }
+
+            OptionalLong partitionNulls = getNullsCount(data);
+            if (partitionNulls.isPresent() && partition.getValue().isPresent()) {
+                nulls += partitionNulls.getAsLong();
+                rowsWithNullCounts += partition.getValue().getAsLong();
+            }
+            else {
+                nullCountsKnown = false;
+            }
+
+            if (type.getJavaType() == long.class && data.isSetLongStats()) {
+                LongColumnStatsData longStats = data.getLongStats();
+                if (longStats.isSetLowValue()) {
+                    lowValue = lowValue == null ? longStats.getLowValue() : Math.min((long) lowValue, longStats.getLowValue());
+                }
+                if (longStats.isSetHighValue()) {
+                    highValue = highValue == null ? longStats.getHighValue() : Math.max((long) highValue, longStats.getHighValue());
+                }
+            }
+            else if (type.getJavaType() == double.class && data.isSetDoubleStats()) {
+                DoubleColumnStatsData doubleStats = data.getDoubleStats();
+                if (doubleStats.isSetLowValue()) {
+                    lowValue = lowValue == null ? doubleStats.getLowValue() : Math.min((double) lowValue, doubleStats.getLowValue());
+                }
+                if (doubleStats.isSetHighValue()) {
+                    highValue = highValue == null ? doubleStats.getHighValue() : Math.max((double) highValue, doubleStats.getHighValue());
+                }
+            }
+        }
+
+        if (!anyStatistics) {
+            return ColumnStatistics.empty();
+        }
+
+        ColumnStatistics.Builder columnStatistics = ColumnStatistics.builder()
+                .setLowValue(Optional.ofNullable(lowValue))
+                .setHighValue(Optional.ofNullable(highValue));
+        if (distinctValues >= 0) {
+            columnStatistics.setDistinctValuesCount(new Estimate(distinctValues));
+        }
+        if (nullCountsKnown && rowsWithNullCounts > 0) {
+            columnStatistics.setNullsFraction(new Estimate(Math.min(1.0, ((double) nulls) / rowsWithNullCounts)));
+        }
+        return columnStatistics.build();
+    }
+
+    private static OptionalLong getDistinctValuesCount(ColumnStatisticsData data)
+    {
+        if (data.isSetLongStats()) {
+            return OptionalLong.of(data.getLongStats().getNumDVs());
+        }
+        if (data.isSetDoubleStats()) {
+            return OptionalLong.of(data.getDoubleStats().getNumDVs());
+        }
+        if (data.isSetStringStats()) {
+            return OptionalLong.of(data.getStringStats().getNumDVs());
+        }
+        if (data.isSetBooleanStats()) {
+            long values = 0;
+            if (data.getBooleanStats().getNumTrues() > 0) {
+                values++;
+            }
+            if (data.getBooleanStats().getNumFalses() > 0) {
+                values++;
+            }
+            return OptionalLong.of(values);
+        }
+        return OptionalLong.empty();
+    }
+
+    private static OptionalLong getNullsCount(ColumnStatisticsData data)
+    {
+        if (data.isSetLongStats()) {
+            return OptionalLong.of(data.getLongStats().getNumNulls());
+        }
+        if (data.isSetDoubleStats()) {
+            return OptionalLong.of(data.getDoubleStats().getNumNulls());
+        }
+        if (data.isSetStringStats()) {
+            return OptionalLong.of(data.getStringStats().getNumNulls());
+        }
+        if (data.isSetBooleanStats()) {
+            return OptionalLong.of(data.getBooleanStats().getNumNulls());
+        }
+        if (data.isSetBinaryStats()) {
+            return OptionalLong.of(data.getBinaryStats().getNumNulls());
+        }
+        return OptionalLong.empty();
+    }
+
+    private static OptionalLong getRowCount(Map<String, String> parameters)
+    {
+        if (parameters == null) {
+            return OptionalLong.empty();
+        }
+        String rowCount = parameters.get(ROW_COUNT);
+        if (rowCount == null) {
+            return OptionalLong.empty();
+        }
+        Long value = Longs.tryParse(rowCount);
+        // Hive stores -1 when the statistics have not been computed
+        if (value == null || value < 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(value);
+    }
+
+    private static boolean isUnpartitioned(List<HivePartition> partitions)
+    {
+        return partitions.size() == 1 && UNPARTITIONED_ID.equals(partitions.get(0).getPartitionId());
+    }
+}
@@ -30,6 +30,7 @@ import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.google.inject.Inject;
 import io.airlift.slice.Slice;
 
@@ -83,6 +84,12 @@ public class HdfsAuthenticatingMetadata
         return authentication.doAs(session.getUser(), () -> targetMetadata.getTableLayout(session, handle));
     }
 
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, ConnectorTableLayoutHandle layoutHandle)
+    {
+        return authentication.doAs(session.getUser(), () -> targetMetadata.getTableStatistics(session, tableHandle, layoutHandle));
+    }
+
     @Override
     public ConnectorTableMetadata getTableMetadata(ConnectorSession session, ConnectorTableHandle table)
     {
@@ -19,6 +19,7 @@ import com.facebook.presto.spi.Page;
 import com.google.common.base.Throwables;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class HdfsAuthenticatingPageSource
         implements ConnectorPageSource
@@ -70,6 +71,12 @@ public class HdfsAuthenticatingPageSource
         return authentication.doAs(connectorSession.getUser(), targetPageSource::getSystemMemoryUsage);
     }
 
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        return authentication.doAs(connectorSession.getUser(), targetPageSource::isBlocked);
+    }
+
     @Override
     public void close()
             throws IOException
@@ -21,6 +21,7 @@ import com.facebook.presto.spi.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.RecordPageSource;
+import com.facebook.presto.spi.predicate.TupleDomain;
 
 import javax.inject.Inject;
 
@@ -41,9 +42,15 @@ public class HdfsAuthenticatingPageSourceProvider
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns)
+    {
+        return createPageSource(session, split, columns, TupleDomain.all());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
     {
         return authentication.doAs(session.getUser(), () -> {
-            ConnectorPageSource targetPageSource = targetConnectorPageSourceProvider.createPageSource(session, split, columns);
+            ConnectorPageSource targetPageSource = targetConnectorPageSourceProvider.createPageSource(session, split, columns, dynamicFilter);
             if (targetPageSource instanceof RecordPageSource) {
                 return new HdfsAuthenticatingRecordPageSource(session, authentication, (RecordPageSource) targetPageSource);
             }
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.cache;
+
+import org.apache.hadoop.fs.BufferedFSInputStream;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.hadoop.fs.CommonConfigurationKeysPublic.IO_FILE_BUFFER_SIZE_DEFAULT;
+import static org.apache.hadoop.fs.CommonConfigurationKeysPublic.IO_FILE_BUFFER_SIZE_KEY;
+
+/**
+ * File system that reads file data through a {@link HiveFileCache}. All other
+ * operations go directly to the underlying file system.
+ */
+class CachingFileSystem
+        extends FilterFileSystem
+{
+    private final HiveFileCache fileCache;
+
+    public CachingFileSystem(FileSystem fileSystem, HiveFileCache fileCache)
+    {
+        super(requireNonNull(fileSystem, "fileSystem is null"));
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+    }
+
+    @Override
+    public FSDataInputStream open(Path path, int bufferSize)
+            throws IOException
+    {
+        return open(getFileStatus(path), bufferSize);
+    }
+
+    /**
+     * Opens the file described by the status without looking the status up again.
+     */
+    public FSDataInputStream open(FileStatus fileStatus)
+            throws IOException
+    {
+        return open(fileStatus, getConf().getInt(IO_FILE_BUFFER_SIZE_KEY, IO_FILE_BUFFER_SIZE_DEFAULT));
+    }
+
+    private FSDataInputStream open(FileStatus fileStatus, int bufferSize)
+            throws IOException
+    {
+        FSDataInputStream inputStream = super.open(fileStatus.getPath(), bufferSize);
+        return new FSDataInputStream(new BufferedFSInputStream(new CachingInputStream(fileCache, fileStatus, inputStream), bufferSize));
+    }
+
+    @Override
+    public void close()
+    {
+        // the underlying file system is shared, so it must not be closed
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.cache;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.FileStatus;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stream over a remote file that reads whole blocks of the file through a
+ * {@link HiveFileCache}.
+ */
+class CachingInputStream
+        extends FSInputStream
+{
+    private final HiveFileCache fileCache;
+    private final String filePrefix;
+    private final long fileLength;
+    private final int blockSize;
+    private final FSDataInputStream inputStream;
+
+    private long position;
+
+    public CachingInputStream(HiveFileCache fileCache, FileStatus fileStatus, FSDataInputStream inputStream)
+    {
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+        this.filePrefix = HiveFileCache.getFilePrefix(requireNonNull(fileStatus, "fileStatus is null"));
+        this.fileLength = fileStatus.getLen();
+        this.blockSize = fileCache.getBlockSize();
+        this.inputStream = requireNonNull(inputStream, "inputStream is null");
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        checkPositionIndexes(offset, offset + length, buffer.length);
+        if (position < 0) {
+            throw new EOFException("Negative position: " + position);
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= fileLength) {
+            return -1;
+        }
+
+        length = (int) min(length, fileLength - position);
+        int totalRead = 0;
+        while (totalRead < length) {
+            long filePosition = position + totalRead;
+            long block = filePosition / blockSize;
+            int blockOffset = (int) (filePosition % blockSize);
+            int chunkLength = min(length - totalRead, blockSize - blockOffset);
+            fileCache.readBlock(filePrefix, block, blockOffset, buffer, offset + totalRead, chunkLength, this::loadBlock);
+            totalRead += chunkLength;
+        }
+        return totalRead;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        int bytesRead = read(position, buffer, offset, length);
+        if (bytesRead > 0) {
+            position += bytesRead;
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        byte[] buffer = new byte[1];
+        int bytesRead = read(buffer, 0, 1);
+        if (bytesRead <= 0) {
+            return -1;
+        }
+        return buffer[0] & 0xFF;
+    }
+
+    @Override
+    public void seek(long position)
+            throws IOException
+    {
+        if (position < 0 || position > fileLength) {
+            throw new EOFException("Cannot seek to " + position + " in file of length " + fileLength);
+        }
+        this.position = position;
+    }
+
+    @Override
+    public long getPos()
+    {
+        return position;
+    }
+
+    @Override
+    public boolean seekToNewSource(long targetPosition)
+    {
+        return false;
+    }
+
+    @Override
+    public int available()
+    {
+        return (int) min(Integer.MAX_VALUE, fileLength - position);
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        inputStream.close();
+    }
+
+    private byte[] loadBlock(long block)
+            throws IOException
+    {
+        long start = block * blockSize;
+        byte[] data = new byte[(int) min(blockSize, fileLength - start)];
+        inputStream.readFully(start, data);
+        return data;
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.cache;
+
+import com.facebook.presto.hive.HiveClientConfig;
+import com.facebook.presto.hive.HiveConnectorId;
+import com.facebook.presto.hive.ForHiveFileCache;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.propagateIfInstanceOf;
+import static com.google.common.hash.Hashing.sha256;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Read-through cache of remote file data on local disk.
+ * <p>
+ * Files are cached in fixed size blocks, so readers of different parts of a
+ * file share the blocks they have in common. Each block is stored in its own
+ * local file, named after the path, length and modification time of the remote
+ * file, so a file that is rewritten is never served stale data. When the cache
+ * exceeds its maximum size the least recently used blocks are deleted.
+ * <p>
+ * A block that is missing is loaded only once, however many readers need it at
+ * the same time. The loaded block is written to local disk in the background, and
+ * is served from memory until the write completes.
+ * <p>
+ * The index of the cached blocks is kept in memory, so the cache directory is
+ * cleared when the cache is created.
+ */
+@ThreadSafe
+public class HiveFileCache
+{
+    private static final Logger log = Logger.get(HiveFileCache.class);
+
+    public static final HiveFileCache DISABLED = new HiveFileCache(Optional.empty(), 0, 1, newDirectExecutorService());
+
+    // blocks waiting to be written are held in memory, so only a few may be pending at a time
+    private static final int MAX_PENDING_WRITES = 16;
+
+    private final Optional<File> directory;
+    private final long maxSize;
+    private final int blockSize;
+    private final ExecutorService writeExecutor;
+
+    @GuardedBy("this")
+    private final LinkedHashMap<String, Long> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("this")
+    private long cachedBytes;
+    // blocks that are being loaded or written, which are not in the index yet
+    @GuardedBy("this")
+    private final Map<String, SettableFuture<byte[]>> pendingBlocks = new HashMap<>();
+    @GuardedBy("this")
+    private int pendingWrites;
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat cacheReadBytes = new CounterStat();
+    private final CounterStat remoteReadBytes = new CounterStat();
+    private final CounterStat evictions = new CounterStat();
+    private final CounterStat writeFailures = new CounterStat();
+    private final CounterStat skippedWrites = new CounterStat();
+
+    @Inject
+    public HiveFileCache(HiveConnectorId connectorId, HiveClientConfig config, @ForHiveFileCache ExecutorService writeExecutor)
+    {
+        this(config.isFileCacheEnabled() ? Optional.of(new File(config.getFileCacheDirectory(), connectorId.toString())) : Optional.empty(),
+                config.getFileCacheMaxSize().toBytes(),
+                Ints.checkedCast(config.getFileCacheBlockSize().toBytes()),
+                writeExecutor);
+    }
+
+    @VisibleForTesting
+    public HiveFileCache(File directory, DataSize maxSize, DataSize blockSize, ExecutorService writeExecutor)
+    {
+        this(Optional.of(directory), maxSize.toBytes(), Ints.checkedCast(blockSize.toBytes()), writeExecutor);
+    }
+
+    private HiveFileCache(Optional<File> directory, long maxSize, int blockSize, ExecutorService writeExecutor)
+    {
+        checkArgument(maxSize >= 0, "maxSize is negative");
+        checkArgument(blockSize > 0, "blockSize must be positive");
+        this.directory = requireNonNull(directory, "directory is null");
+        this.maxSize = maxSize;
+        this.blockSize = blockSize;
+        this.writeExecutor = requireNonNull(writeExecutor, "writeExecutor is null");
+
+        if (directory.isPresent()) {
+            clearDirectory(directory.get());
+        }
+    }
+
+    /**
+     * Returns the file system for the path, reading through this cache when it is enabled.
+     */
+    public FileSystem getFileSystem(Path path, Configuration configuration)
+            throws IOException
+    {
+        FileSystem fileSystem = path.getFileSystem(configuration);
+        if (!directory.isPresent()) {
+            return fileSystem;
+        }
+        return new CachingFileSystem(fileSystem, this);
+    }
+
+    /**
+     * Opens the file described by the status. Callers that already have the status should
+     * use this instead of {@link FileSystem#open(Path)}, which makes a caching file system
+     * fetch the status from the underlying file system again.
+     */
+    public static FSDataInputStream open(FileSystem fileSystem, FileStatus fileStatus)
+            throws IOException
+    {
+        if (fileSystem instanceof CachingFileSystem) {
+            return ((CachingFileSystem) fileSystem).open(fileStatus);
+        }
+        return fileSystem.open(fileStatus.getPath());
+    }
+
+    @Managed
+    public boolean isEnabled()
+    {
+        return directory.isPresent();
+    }
+
+    @Managed
+    public synchronized long getCachedBytes()
+    {
+        return cachedBytes;
+    }
+
+    @Managed
+    public synchronized long getCachedBlocks()
+    {
+        return blocks.size();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        long hitCount = hits.getTotalCount();
+        long requestCount = hitCount + misses.getTotalCount();
+        if (requestCount == 0) {
+            return 0;
+        }
+        return (double) hitCount / requestCount;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Bytes served from local disk, or from blocks that are being written to it, instead of the remote file system
+     */
+    @Managed
+    @Nested
+    public CounterStat getCacheReadBytes()
+    {
+        return cacheReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRemoteReadBytes()
+    {
+        return remoteReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getEvictions()
+    {
+        return evictions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getWriteFailures()
+    {
+        return writeFailures;
+    }
+
+    /**
+     * Loaded blocks that were not cached, because too many blocks were waiting to be written
+     */
+    @Managed
+    @Nested
+    public CounterStat getSkippedWrites()
+    {
+        return skippedWrites;
+    }
+
+    int getBlockSize()
+    {
+        return blockSize;
+    }
+
+    static String getFilePrefix(FileStatus fileStatus)
+    {
+        return sha256().newHasher()
+                .putString(fileStatus.getPath().toString(), UTF_8)
+                .putLong(fileStatus.getLen())
+                .putLong(fileStatus.getModificationTime())
+                .hash()
+                .toString();
+    }
+
+    /**
+     * Copies part of a block of a file into the buffer. If the block is not cached,
+     * it is loaded from the remote file system and added to the cache. Concurrent
+     * readers of a block that is being loaded wait for that load.
+     */
+    void readBlock(String filePrefix, long block, int blockOffset, byte[] buffer, int offset, int length, BlockLoader loader)
+            throws IOException
+    {
+        String blockName = filePrefix + "_" + block;
+
+        boolean cached;
+        SettableFuture<byte[]> pendingBlock;
+        boolean loading = false;
+        synchronized (this) {
+            // also marks the block as recently used
+            cached = blocks.get(blockName) != null;
+            pendingBlock = pendingBlocks.get(blockName);
+            if (!cached && pendingBlock == null) {
+                pendingBlock = SettableFuture.create();
+                pendingBlocks.put(blockName, pendingBlock);
+                loading = true;
+            }
+        }
+
+        if (cached) {
+            try (RandomAccessFile file = new RandomAccessFile(new File(directory.get(), blockName), "r")) {
+                file.seek(blockOffset);
+                file.readFully(buffer, offset, length);
+            }
+            catch (IOException e) {
+                // the block was evicted after it was looked up
+                invalidate(blockName);
+                readBlock(filePrefix, block, blockOffset, buffer, offset, length, loader);
+                return;
+            }
+            hits.update(1);
+            cacheReadBytes.update(length);
+            return;
+        }
+
+        if (!loading) {
+            System.arraycopy(getBlockData(pendingBlock), blockOffset, buffer, offset, length);
+            hits.update(1);
+            cacheReadBytes.update(length);
+            return;
+        }
+
+        misses.update(1);
+        byte[] data;
+        try {
+            data = loader.load(block);
+        }
+        catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                pendingBlocks.remove(blockName);
+            }
+            pendingBlock.setException(e);
+            throw e;
+        }
+        remoteReadBytes.update(data.length);
+        pendingBlock.set(data);
+        System.arraycopy(data, blockOffset, buffer, offset, length);
+
+        writeBlockAsync(blockName, data);
+    }
+
+    private static byte[] getBlockData(Future<byte[]> pendingBlock)
+            throws IOException
+    {
+        try {
+            return pendingBlock.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        catch (ExecutionException e) {
+            propagateIfInstanceOf(e.getCause(), IOException.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private void writeBlockAsync(String blockName, byte[] data)
+    {
+        synchronized (this) {
+            if (pendingWrites >= MAX_PENDING_WRITES) {
+                pendingBlocks.remove(blockName);
+                skippedWrites.update(1);
+                return;
+            }
+            pendingWrites++;
+        }
+
+        try {
+            writeExecutor.execute(() -> writeBlock(blockName, data));
+        }
+        catch (RejectedExecutionException e) {
+            // the cache is shutting down
+            finishWrite(blockName, OptionalLong.empty());
+        }
+    }
+
+    private void writeBlock(String blockName, byte[] data)
+    {
+        File directory = this.directory.get();
+        File tempFile = new File(directory, blockName + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tempFile.toPath(), data);
+            Files.move(tempFile.toPath(), new File(directory, blockName).toPath(), ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            writeFailures.update(1);
+            log.warn(e, "Failed to write block %s to file cache", blockName);
+            tempFile.delete();
+            finishWrite(blockName, OptionalLong.empty());
+            return;
+        }
+        finishWrite(blockName, OptionalLong.of(data.length));
+    }
+
+    private synchronized void invalidate(String blockName)
+    {
+        Long size = blocks.remove(blockName);
+        if (size != null) {
+            cachedBytes -= size;
+        }
+    }
+
+    /**
+     * Adds the block to the index once it is written, so that readers switch from the
+     * pending block in memory to the local file without a gap.
+     */
+    private void finishWrite(String blockName, OptionalLong writtenSize)
+    {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            pendingWrites--;
+            pendingBlocks.remove(blockName);
+            if (!writtenSize.isPresent()) {
+                return;
+            }
+
+            Long previousSize = blocks.put(blockName, writtenSize.getAsLong());
+            if (previousSize != null) {
+                cachedBytes -= previousSize;
+            }
+            cachedBytes += writtenSize.getAsLong();
+
+            Iterator<Entry<String, Long>> iterator = blocks.entrySet().iterator();
+            while (cachedBytes > maxSize && iterator.hasNext()) {
+                Entry<String, Long> entry = iterator.next();
+                iterator.remove();
+                cachedBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+            }
+        }
+
+        File directory = this.directory.get();
+        for (String evictedBlockName : evicted) {
+            evictions.update(1);
+            new File(directory, evictedBlockName).delete();
+        }
+    }
+
+    private static void clearDirectory(File directory)
+    {
+        try {
+            Files.createDirectories(directory.toPath());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to create file cache directory: " + directory, e);
+        }
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new UncheckedIOException(new IOException("Failed to list file cache directory: " + directory));
+        }
+        for (File file : files) {
+            if (file.isFile() && !file.delete()) {
+                log.warn("Failed to delete cached file: %s", file);
+            }
+        }
+    }
+
+    interface BlockLoader
+    {
+        byte[] load(long block)
+                throws IOException;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.cache;
+
+import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.Node;
+import com.facebook.presto.spi.NodeManager;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.hash.Hashing.murmur3_128;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Assigns splits to workers so that repeated reads of the same part of a file
+ * go to the same worker, and can be served from its {@link HiveFileCache}.
+ * <p>
+ * Files are divided into ranges of a fixed size, and each range is assigned
+ * to a worker with rendezvous hashing. Adding or removing a worker only moves
+ * the ranges assigned to that worker.
+ */
+public class HiveSplitAffinity
+{
+    private final String connectorId;
+    private final NodeManager nodeManager;
+    private final long rangeSize;
+
+    public HiveSplitAffinity(String connectorId, NodeManager nodeManager, DataSize rangeSize)
+    {
+        this.connectorId = requireNonNull(connectorId, "connectorId is null");
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+        this.rangeSize = requireNonNull(rangeSize, "rangeSize is null").toBytes();
+        checkArgument(this.rangeSize > 0, "rangeSize must be greater than zero");
+    }
+
+    /**
+     * Returns the address of the worker for the split of the file starting at the
+     * given offset, or an empty list when there are no workers for this connector.
+     */
+    public List<HostAddress> getAddresses(String path, long start)
+    {
+        Set<Node> coordinators = nodeManager.getCoordinators();
+        long range = start / rangeSize;
+
+        Node selected = null;
+        long selectedWeight = 0;
+        for (Node node : nodeManager.getActiveDatasourceNodes(connectorId)) {
+            if (coordinators.contains(node)) {
+                continue;
+            }
+            long weight = murmur3_128().newHasher()
+                    .putString(node.getNodeIdentifier(), UTF_8)
+                    .putString(path, UTF_8)
+                    .putLong(range)
+                    .hash()
+                    .asLong();
+            if (selected == null || weight > selectedWeight) {
+                selected = node;
+                selectedWeight = weight;
+            }
+        }
+
+        if (selected == null) {
+            return ImmutableList.of();
+        }
+        return ImmutableList.of(selected.getHostAndPort());
+    }
+}
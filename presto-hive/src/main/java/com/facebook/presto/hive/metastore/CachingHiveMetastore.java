@@ -38,6 +38,7 @@ import org.apache.hadoop.hive.common.FileUtils;
 import org.apache.hadoop.hive.metastore.TableType;
 import org.apache.hadoop.hive.metastore.Warehouse;
 import org.apache.hadoop.hive.metastore.api.AlreadyExistsException;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsObj;
 import org.apache.hadoop.hive.metastore.api.Database;
 import org.apache.hadoop.hive.metastore.api.HiveObjectPrivilege;
 import org.apache.hadoop.hive.metastore.api.HiveObjectRef;
@@ -765,6 +766,75 @@ public class CachingHiveMetastore
         return Optional.of(partitionsByName.build());
     }
 
+    @Override
+    public Optional<Map<String, ColumnStatisticsObj>> getTableColumnStatistics(String databaseName, String tableName, Set<String> columnNames)
+    {
+        try {
+            return retry()
+                    .stopOn(NoSuchObjectException.class)
+                    .stopOnIllegalExceptions()
+                    .run("getTableColumnStatistics", stats.getGetTableColumnStatistics().wrap(() -> {
+                        try (HiveMetastoreClient client = clientProvider.createMetastoreClient()) {
+                            return Optional.of(toColumnStatisticsMap(client.getTableColumnStatistics(databaseName, tableName, ImmutableList.copyOf(columnNames))));
+                        }
+                    }));
+        }
+        catch (NoSuchObjectException e) {
+            return Optional.empty();
+        }
+        catch (TException e) {
+            throw new PrestoException(HIVE_METASTORE_ERROR, e);
+        }
+        catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw Throwables.propagate(e);
+        }
+    }
+
+    @Override
+    public Optional<Map<String, Map<String, ColumnStatisticsObj>>> getPartitionColumnStatistics(String databaseName, String tableName, Set<String> partitionNames, Set<String> columnNames)
+    {
+        try {
+            return retry()
+                    .stopOn(NoSuchObjectException.class)
+                    .stopOnIllegalExceptions()
+                    .run("getPartitionColumnStatistics", stats.getGetPartitionColumnStatistics().wrap(() -> {
+                        try (HiveMetastoreClient client = clientProvider.createMetastoreClient()) {
+                            Map<String, List<ColumnStatisticsObj>> partitionStatistics = client.getPartitionColumnStatistics(
+                                    databaseName,
+                                    tableName,
+                                    ImmutableList.copyOf(partitionNames),
+                                    ImmutableList.copyOf(columnNames));
+                            ImmutableMap.Builder<String, Map<String, ColumnStatisticsObj>> result = ImmutableMap.builder();
+                            for (Entry<String, List<ColumnStatisticsObj>> entry : partitionStatistics.entrySet()) {
+                                result.put(entry.getKey(), toColumnStatisticsMap(entry.getValue()));
+                            }
+                            return Optional.of(result.build());
+                        }
+                    }));
+        }
+        catch (NoSuchObjectException e) {
+            return Optional.empty();
+        }
+        catch (TException e) {
+            throw new PrestoException(HIVE_METASTORE_ERROR, e);
+        }
+        catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw Throwables.propagate(e);
+        }
+    }
+
+    private static Map<String, ColumnStatisticsObj> toColumnStatisticsMap(List<ColumnStatisticsObj> columnStatistics)
+    {
+        return columnStatistics.stream()
+                .collect(toMap(ColumnStatisticsObj::getColName, identity()));
+    }
+
     @Override
     public Optional<Partition> getPartition(String databaseName, String tableName, String partitionName)
     {
@@ -27,6 +27,8 @@ public class CachingHiveMetastoreStats
     private final HiveMetastoreApiStats getPartitionNamesPs = new HiveMetastoreApiStats();
     private final HiveMetastoreApiStats getPartitionByName = new HiveMetastoreApiStats();
     private final HiveMetastoreApiStats getPartitionsByNames = new HiveMetastoreApiStats();
+    private final HiveMetastoreApiStats getTableColumnStatistics = new HiveMetastoreApiStats();
+    private final HiveMetastoreApiStats getPartitionColumnStatistics = new HiveMetastoreApiStats();
     private final HiveMetastoreApiStats createTable = new HiveMetastoreApiStats();
     private final HiveMetastoreApiStats dropTable = new HiveMetastoreApiStats();
     private final HiveMetastoreApiStats alterTable = new HiveMetastoreApiStats();
@@ -98,6 +100,20 @@ public class CachingHiveMetastoreStats
         return getPartitionsByNames;
     }
 
+    @Managed
+    @Nested
+    public HiveMetastoreApiStats getGetTableColumnStatistics()
+    {
+        return getTableColumnStatistics;
+    }
+
+    @Managed
+    @Nested
+    public HiveMetastoreApiStats getGetPartitionColumnStatistics()
+    {
+        return getPartitionColumnStatistics;
+    }
+
     @Managed
     @Nested
     public HiveMetastoreApiStats getCreateTable()
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.metastore;
 
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsObj;
 import org.apache.hadoop.hive.metastore.api.Database;
 import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.PrivilegeGrantInfo;
@@ -69,6 +70,18 @@ public interface HiveMetastore
 
     Optional<Table> getTable(String databaseName, String tableName);
 
+    /**
+     * Returns the column statistics of an unpartitioned table by column name.
+     * Columns without statistics are not present in the result.
+     */
+    Optional<Map<String, ColumnStatisticsObj>> getTableColumnStatistics(String databaseName, String tableName, Set<String> columnNames);
+
+    /**
+     * Returns the column statistics of the partitions by partition name and column name.
+     * Partitions and columns without statistics are not present in the result.
+     */
+    Optional<Map<String, Map<String, ColumnStatisticsObj>>> getPartitionColumnStatistics(String databaseName, String tableName, Set<String> partitionNames, Set<String> columnNames);
+
     Set<String> getRoles(String user);
 
     Set<HivePrivilege> getDatabasePrivileges(String user, String databaseName);
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.metastore;
 
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsObj;
 import org.apache.hadoop.hive.metastore.api.Database;
 import org.apache.hadoop.hive.metastore.api.HiveObjectRef;
 import org.apache.hadoop.hive.metastore.api.Partition;
@@ -25,6 +26,7 @@ import org.apache.thrift.TException;
 
 import java.io.Closeable;
 import java.util.List;
+import java.util.Map;
 
 public interface HiveMetastoreClient
         extends Closeable
@@ -77,6 +79,12 @@ public interface HiveMetastoreClient
     List<Partition> getPartitionsByNames(String databaseName, String tableName, List<String> partitionNames)
             throws TException;
 
+    List<ColumnStatisticsObj> getTableColumnStatistics(String databaseName, String tableName, List<String> columnNames)
+            throws TException;
+
+    Map<String, List<ColumnStatisticsObj>> getPartitionColumnStatistics(String databaseName, String tableName, List<String> partitionNames, List<String> columnNames)
+            throws TException;
+
     List<Role> listRoles(String principalName, PrincipalType principalType)
             throws TException;
 
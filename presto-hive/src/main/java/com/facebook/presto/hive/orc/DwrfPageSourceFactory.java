@@ -14,9 +14,12 @@
 package com.facebook.presto.hive.orc;
 
 import com.facebook.hive.orc.OrcSerde;
+import com.facebook.presto.hive.ForOrcStripePrefetch;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.HivePartitionKey;
+import com.facebook.presto.hive.cache.HiveFileCache;
+import com.facebook.presto.orc.OrcMetadataCache;
 import com.facebook.presto.orc.metadata.DwrfMetadataReader;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
@@ -31,11 +34,14 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxMergeDistance;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.isOptimizedReaderEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isOrcStripePrefetchEnabled;
 import static com.facebook.presto.hive.HiveUtil.isDeserializerClass;
 import static com.facebook.presto.hive.orc.OrcPageSourceFactory.createOrcPageSource;
 import static java.util.Objects.requireNonNull;
@@ -44,11 +50,29 @@ public class DwrfPageSourceFactory
         implements HivePageSourceFactory
 {
     private final TypeManager typeManager;
+    private final OrcMetadataCache metadataCache;
+    private final HiveFileCache fileCache;
+    private final Optional<Executor> prefetchExecutor;
+    private final OrcPageSourceStats stats;
 
     @Inject
-    public DwrfPageSourceFactory(TypeManager typeManager)
+    public DwrfPageSourceFactory(TypeManager typeManager, OrcMetadataCache metadataCache, HiveFileCache fileCache, @ForOrcStripePrefetch ExecutorService prefetchExecutor, OrcPageSourceStats stats)
+    {
+        this(typeManager, metadataCache, fileCache, Optional.of(prefetchExecutor), stats);
+    }
+
+    public DwrfPageSourceFactory(TypeManager typeManager, OrcMetadataCache metadataCache, HiveFileCache fileCache)
+    {
+        this(typeManager, metadataCache, fileCache, Optional.empty(), new OrcPageSourceStats());
+    }
+
+    private DwrfPageSourceFactory(TypeManager typeManager, OrcMetadataCache metadataCache, HiveFileCache fileCache, Optional<Executor> prefetchExecutor, OrcPageSourceStats stats)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.metadataCache = requireNonNull(metadataCache, "metadataCache is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+        this.prefetchExecutor = requireNonNull(prefetchExecutor, "prefetchExecutor is null");
+        this.stats = requireNonNull(stats, "stats is null");
     }
 
     @Override
@@ -73,6 +97,9 @@ public class DwrfPageSourceFactory
 
         return Optional.of(createOrcPageSource(
                 new DwrfMetadataReader(),
+                metadataCache,
+                fileCache,
+                isOrcStripePrefetchEnabled(session) ? prefetchExecutor : Optional.empty(),
                 configuration,
                 path,
                 start,
@@ -85,6 +112,7 @@ public class DwrfPageSourceFactory
                 typeManager,
                 getOrcMaxMergeDistance(session),
                 getOrcMaxBufferSize(session),
-                getOrcStreamBufferSize(session)));
+                getOrcStreamBufferSize(session),
+                stats));
     }
 }
@@ -66,17 +66,25 @@ import static com.facebook.presto.hive.HiveUtil.booleanPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.datePartitionKey;
 import static com.facebook.presto.hive.HiveUtil.doublePartitionKey;
 import static com.facebook.presto.hive.HiveUtil.getTableObjectInspector;
+import static com.facebook.presto.hive.HiveUtil.integerPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.isCharType;
 import static com.facebook.presto.hive.HiveUtil.isStructuralType;
 import static com.facebook.presto.hive.HiveUtil.isVarcharType;
+import static com.facebook.presto.hive.HiveUtil.realPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.smallintPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.timestampPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.tinyintPartitionKey;
 import static com.facebook.presto.hive.util.SerDeUtils.getBlockObject;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -205,6 +213,18 @@ public class OrcHiveRecordCursor
                 else if (type.equals(BIGINT)) {
                     longs[columnIndex] = bigintPartitionKey(partitionKey.getValue(), name);
                 }
+                else if (type.equals(INTEGER)) {
+                    longs[columnIndex] = integerPartitionKey(partitionKey.getValue(), name);
+                }
+                else if (type.equals(SMALLINT)) {
+                    longs[columnIndex] = smallintPartitionKey(partitionKey.getValue(), name);
+                }
+                else if (type.equals(TINYINT)) {
+                    longs[columnIndex] = tinyintPartitionKey(partitionKey.getValue(), name);
+                }
+                else if (type.equals(REAL)) {
+                    doubles[columnIndex] = realPartitionKey(partitionKey.getValue(), name);
+                }
                 else if (type.equals(DOUBLE)) {
                     doubles[columnIndex] = doublePartitionKey(partitionKey.getValue(), name);
                 }
@@ -494,10 +514,10 @@ public class OrcHiveRecordCursor
         if (types[column].equals(BOOLEAN)) {
             parseBooleanColumn(column);
         }
-        else if (types[column].equals(BIGINT)) {
+        else if (types[column].equals(BIGINT) || types[column].equals(INTEGER) || types[column].equals(SMALLINT) || types[column].equals(TINYINT)) {
             parseLongColumn(column);
         }
-        else if (types[column].equals(DOUBLE)) {
+        else if (types[column].equals(DOUBLE) || types[column].equals(REAL)) {
             parseDoubleColumn(column);
         }
         else if (types[column].equals(VARCHAR) || types[column].equals(VARBINARY)) {
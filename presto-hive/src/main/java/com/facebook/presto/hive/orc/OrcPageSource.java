@@ -27,7 +27,7 @@ import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.LazyBlock;
-import com.facebook.presto.spi.block.LazyBlockLoader;
+import com.facebook.presto.spi.block.SelectiveLazyBlockLoader;
 import com.facebook.presto.spi.type.DecimalType;
 import com.facebook.presto.spi.type.FixedWidthType;
 import com.facebook.presto.spi.type.LongDecimalType;
@@ -43,6 +43,7 @@ import org.joda.time.DateTimeZone;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_BAD_DATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CURSOR_ERROR;
@@ -50,16 +51,24 @@ import static com.facebook.presto.hive.HiveUtil.bigintPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.booleanPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.datePartitionKey;
 import static com.facebook.presto.hive.HiveUtil.doublePartitionKey;
+import static com.facebook.presto.hive.HiveUtil.integerPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.longDecimalPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.realPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.shortDecimalPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.smallintPartitionKey;
 import static com.facebook.presto.hive.HiveUtil.timestampPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.tinyintPartitionKey;
 import static com.facebook.presto.orc.OrcReader.MAX_BATCH_SIZE;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -90,6 +99,7 @@ public class OrcPageSource
     private boolean closed;
 
     private final AggregatedMemoryContext systemMemoryContext;
+    private final OrcPageSourceStats stats;
 
     public OrcPageSource(
             OrcRecordReader recordReader,
@@ -98,7 +108,8 @@ public class OrcPageSource
             List<HiveColumnHandle> columns,
             DateTimeZone hiveStorageTimeZone,
             TypeManager typeManager,
-            AggregatedMemoryContext systemMemoryContext)
+            AggregatedMemoryContext systemMemoryContext,
+            OrcPageSourceStats stats)
     {
         this.recordReader = requireNonNull(recordReader, "recordReader is null");
         this.orcDataSource = requireNonNull(orcDataSource, "orcDataSource is null");
@@ -154,6 +165,30 @@ public class OrcPageSource
                         BIGINT.writeLong(blockBuilder, value);
                     }
                 }
+                else if (type.equals(INTEGER)) {
+                    long value = integerPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                        INTEGER.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(SMALLINT)) {
+                    long value = smallintPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                        SMALLINT.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(TINYINT)) {
+                    long value = tinyintPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                        TINYINT.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(REAL)) {
+                    double value = realPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+                        REAL.writeDouble(blockBuilder, value);
+                    }
+                }
                 else if (type.equals(DOUBLE)) {
                     double value = doublePartitionKey(partitionKey.getValue(), name);
                     for (int i = 0; i < MAX_BATCH_SIZE; i++) {
@@ -208,6 +243,7 @@ public class OrcPageSource
         columnNames = namesBuilder.build();
 
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
+        this.stats = requireNonNull(stats, "stats is null");
     }
 
     @Override
@@ -281,6 +317,7 @@ public class OrcPageSource
         }
         closed = true;
 
+        stats.addSkipped(recordReader.getSkippedRowGroups(), recordReader.getSkippedRows());
         try {
             recordReader.close();
         }
@@ -298,6 +335,15 @@ public class OrcPageSource
                 .toString();
     }
 
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        if (closed) {
+            return NOT_BLOCKED;
+        }
+        return recordReader.isBlocked();
+    }
+
     @Override
     public long getSystemMemoryUsage()
     {
@@ -316,7 +362,7 @@ public class OrcPageSource
     }
 
     private final class OrcBlockLoader
-            implements LazyBlockLoader<LazyBlock>
+            implements SelectiveLazyBlockLoader<LazyBlock>
     {
         private final int expectedBatchId = batchId;
         private final int columnIndex;
@@ -351,5 +397,28 @@ public class OrcPageSource
 
             loaded = true;
         }
+
+        @Override
+        public final void load(LazyBlock lazyBlock, int[] positions, int positionCount)
+        {
+            if (loaded) {
+                return;
+            }
+
+            checkState(batchId == expectedBatchId);
+
+            try {
+                Block block = recordReader.readBlock(type, columnIndex, positions, positionCount);
+                lazyBlock.setBlock(block);
+            }
+            catch (IOException e) {
+                if (e instanceof OrcCorruptionException) {
+                    throw new PrestoException(HIVE_BAD_DATA, e);
+                }
+                throw new PrestoException(HIVE_CURSOR_ERROR, e);
+            }
+
+            loaded = true;
+        }
     }
 }
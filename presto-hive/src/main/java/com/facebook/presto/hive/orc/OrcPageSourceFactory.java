@@ -13,11 +13,15 @@
  */
 package com.facebook.presto.hive.orc;
 
+import com.facebook.presto.hive.ForOrcStripePrefetch;
 import com.facebook.presto.hive.HiveClientConfig;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.HivePartitionKey;
+import com.facebook.presto.hive.cache.HiveFileCache;
 import com.facebook.presto.orc.OrcDataSource;
+import com.facebook.presto.orc.OrcFileId;
+import com.facebook.presto.orc.OrcMetadataCache;
 import com.facebook.presto.orc.OrcPredicate;
 import com.facebook.presto.orc.OrcReader;
 import com.facebook.presto.orc.OrcRecordReader;
@@ -37,6 +41,7 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
@@ -50,6 +55,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Pattern;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
@@ -58,6 +65,7 @@ import static com.facebook.presto.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxMergeDistance;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcStreamBufferSize;
+import static com.facebook.presto.hive.HiveSessionProperties.isOrcStripePrefetchEnabled;
 import static com.facebook.presto.hive.HiveUtil.isDeserializerClass;
 import static com.google.common.base.Strings.nullToEmpty;
 import static java.lang.String.format;
@@ -69,17 +77,36 @@ public class OrcPageSourceFactory
     private static final Pattern DEFAULT_HIVE_COLUMN_NAME_PATTERN = Pattern.compile("_col\\d+");
     private final TypeManager typeManager;
     private final boolean useOrcColumnNames;
+    private final OrcMetadataCache metadataCache;
+    private final HiveFileCache fileCache;
+    private final Optional<Executor> prefetchExecutor;
+    private final OrcPageSourceStats stats;
 
     @Inject
-    public OrcPageSourceFactory(TypeManager typeManager, HiveClientConfig config)
+    public OrcPageSourceFactory(
+            TypeManager typeManager,
+            HiveClientConfig config,
+            OrcMetadataCache metadataCache,
+            HiveFileCache fileCache,
+            @ForOrcStripePrefetch ExecutorService prefetchExecutor,
+            OrcPageSourceStats stats)
+    {
+        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseOrcColumnNames(), metadataCache, fileCache, Optional.of(prefetchExecutor), stats);
+    }
+
+    public OrcPageSourceFactory(TypeManager typeManager, boolean useOrcColumnNames, OrcMetadataCache metadataCache, HiveFileCache fileCache)
     {
-        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseOrcColumnNames());
+        this(typeManager, useOrcColumnNames, metadataCache, fileCache, Optional.empty(), new OrcPageSourceStats());
     }
 
-    public OrcPageSourceFactory(TypeManager typeManager, boolean useOrcColumnNames)
+    private OrcPageSourceFactory(TypeManager typeManager, boolean useOrcColumnNames, OrcMetadataCache metadataCache, HiveFileCache fileCache, Optional<Executor> prefetchExecutor, OrcPageSourceStats stats)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.useOrcColumnNames = useOrcColumnNames;
+        this.metadataCache = requireNonNull(metadataCache, "metadataCache is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+        this.prefetchExecutor = requireNonNull(prefetchExecutor, "prefetchExecutor is null");
+        this.stats = requireNonNull(stats, "stats is null");
     }
 
     @Override
@@ -101,6 +128,9 @@ public class OrcPageSourceFactory
 
         return Optional.of(createOrcPageSource(
                 new OrcMetadataReader(),
+                metadataCache,
+                fileCache,
+                isOrcStripePrefetchEnabled(session) ? prefetchExecutor : Optional.empty(),
                 configuration,
                 path,
                 start,
@@ -113,10 +143,14 @@ public class OrcPageSourceFactory
                 typeManager,
                 getOrcMaxMergeDistance(session),
                 getOrcMaxBufferSize(session),
-                getOrcStreamBufferSize(session)));
+                getOrcStreamBufferSize(session),
+                stats));
     }
 
     public static OrcPageSource createOrcPageSource(MetadataReader metadataReader,
+            OrcMetadataCache metadataCache,
+            HiveFileCache fileCache,
+            Optional<Executor> prefetchExecutor,
             Configuration configuration,
             Path path,
             long start,
@@ -129,13 +163,17 @@ public class OrcPageSourceFactory
             TypeManager typeManager,
             DataSize maxMergeDistance,
             DataSize maxBufferSize,
-            DataSize streamBufferSize)
+            DataSize streamBufferSize,
+            OrcPageSourceStats stats)
     {
         OrcDataSource orcDataSource;
+        OrcFileId fileId;
         try {
-            FileSystem fileSystem = path.getFileSystem(configuration);
-            long size = fileSystem.getFileStatus(path).getLen();
-            FSDataInputStream inputStream = fileSystem.open(path);
+            FileSystem fileSystem = fileCache.getFileSystem(path, configuration);
+            FileStatus fileStatus = fileSystem.getFileStatus(path);
+            long size = fileStatus.getLen();
+            fileId = new OrcFileId(path.toString(), size, fileStatus.getModificationTime());
+            FSDataInputStream inputStream = HiveFileCache.open(fileSystem, fileStatus);
             orcDataSource = new HdfsOrcDataSource(path.toString(), size, maxMergeDistance, maxBufferSize, streamBufferSize, inputStream);
         }
         catch (Exception e) {
@@ -148,7 +186,7 @@ public class OrcPageSourceFactory
 
         AggregatedMemoryContext systemMemoryUsage = new AggregatedMemoryContext();
         try {
-            OrcReader reader = new OrcReader(orcDataSource, metadataReader, maxMergeDistance, maxBufferSize);
+            OrcReader reader = new OrcReader(orcDataSource, metadataReader, maxMergeDistance, maxBufferSize, metadataCache, fileId);
 
             List<HiveColumnHandle> physicalColumns = getPhysicalHiveColumnHandles(columns, useOrcColumnNames, reader, path);
             ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
@@ -169,7 +207,8 @@ public class OrcPageSourceFactory
                     start,
                     length,
                     hiveStorageTimeZone,
-                    systemMemoryUsage);
+                    systemMemoryUsage,
+                    prefetchExecutor);
 
             return new OrcPageSource(
                     recordReader,
@@ -178,7 +217,8 @@ public class OrcPageSourceFactory
                     physicalColumns,
                     hiveStorageTimeZone,
                     typeManager,
-                    systemMemoryUsage);
+                    systemMemoryUsage,
+                    stats);
         }
         catch (Exception e) {
             try {
@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.orc;
+
+import io.airlift.stats.CounterStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+/**
+ * Counts the row groups and rows the ORC and DWRF page sources skipped using
+ * file, stripe and row group statistics and row group bloom filters.
+ */
+public class OrcPageSourceStats
+{
+    private final CounterStat skippedRowGroups = new CounterStat();
+    private final CounterStat skippedRows = new CounterStat();
+
+    public void addSkipped(long rowGroups, long rows)
+    {
+        skippedRowGroups.update(rowGroups);
+        skippedRows.update(rows);
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSkippedRowGroups()
+    {
+        return skippedRowGroups;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSkippedRows()
+    {
+        return skippedRows;
+    }
+}
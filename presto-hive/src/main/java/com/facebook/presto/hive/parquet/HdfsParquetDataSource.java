@@ -13,9 +13,11 @@
  */
 package com.facebook.presto.hive.parquet;
 
+import com.facebook.presto.hive.cache.HiveFileCache;
 import com.facebook.presto.spi.PrestoException;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
@@ -84,12 +86,17 @@ public class HdfsParquetDataSource
     }
 
     public static HdfsParquetDataSource buildHdfsParquetDataSource(Path path, Configuration configuration, long start, long length)
+    {
+        return buildHdfsParquetDataSource(HiveFileCache.DISABLED, path, configuration, start, length);
+    }
+
+    public static HdfsParquetDataSource buildHdfsParquetDataSource(HiveFileCache fileCache, Path path, Configuration configuration, long start, long length)
     {
         try {
-            FileSystem fileSystem = path.getFileSystem(configuration);
-            long size = fileSystem.getFileStatus(path).getLen();
-            FSDataInputStream inputStream = fileSystem.open(path);
-            return new HdfsParquetDataSource(path, size, inputStream);
+            FileSystem fileSystem = fileCache.getFileSystem(path, configuration);
+            FileStatus fileStatus = fileSystem.getFileStatus(path);
+            FSDataInputStream inputStream = HiveFileCache.open(fileSystem, fileStatus);
+            return new HdfsParquetDataSource(path, fileStatus.getLen(), inputStream);
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
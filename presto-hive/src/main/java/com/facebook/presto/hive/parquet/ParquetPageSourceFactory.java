@@ -17,6 +17,7 @@ import com.facebook.presto.hive.HiveClientConfig;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.HivePartitionKey;
+import com.facebook.presto.hive.cache.HiveFileCache;
 import com.facebook.presto.hive.parquet.predicate.ParquetPredicate;
 import com.facebook.presto.hive.parquet.reader.ParquetMetadataReader;
 import com.facebook.presto.hive.parquet.reader.ParquetReader;
@@ -59,7 +60,11 @@ import static com.facebook.presto.spi.type.StandardTypes.BOOLEAN;
 import static com.facebook.presto.spi.type.StandardTypes.DATE;
 import static com.facebook.presto.spi.type.StandardTypes.DECIMAL;
 import static com.facebook.presto.spi.type.StandardTypes.DOUBLE;
+import static com.facebook.presto.spi.type.StandardTypes.INTEGER;
+import static com.facebook.presto.spi.type.StandardTypes.REAL;
+import static com.facebook.presto.spi.type.StandardTypes.SMALLINT;
 import static com.facebook.presto.spi.type.StandardTypes.TIMESTAMP;
+import static com.facebook.presto.spi.type.StandardTypes.TINYINT;
 import static com.facebook.presto.spi.type.StandardTypes.VARBINARY;
 import static com.facebook.presto.spi.type.StandardTypes.VARCHAR;
 import static java.lang.String.format;
@@ -76,17 +81,19 @@ public class ParquetPageSourceFactory
 
     private final TypeManager typeManager;
     private final boolean useParquetColumnNames;
+    private final HiveFileCache fileCache;
 
     @Inject
-    public ParquetPageSourceFactory(TypeManager typeManager, HiveClientConfig config)
+    public ParquetPageSourceFactory(TypeManager typeManager, HiveClientConfig config, HiveFileCache fileCache)
     {
-        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseParquetColumnNames());
+        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseParquetColumnNames(), fileCache);
     }
 
-    public ParquetPageSourceFactory(TypeManager typeManager, boolean useParquetColumnNames)
+    public ParquetPageSourceFactory(TypeManager typeManager, boolean useParquetColumnNames, HiveFileCache fileCache)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.useParquetColumnNames = useParquetColumnNames;
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
     }
 
     @Override
@@ -115,6 +122,7 @@ public class ParquetPageSourceFactory
         }
 
         return Optional.of(createParquetPageSource(
+                fileCache,
                 configuration,
                 path,
                 start,
@@ -130,6 +138,7 @@ public class ParquetPageSourceFactory
     }
 
     public static ParquetPageSource createParquetPageSource(
+            HiveFileCache fileCache,
             Configuration configuration,
             Path path,
             long start,
@@ -143,9 +152,9 @@ public class ParquetPageSourceFactory
             boolean predicatePushdownEnabled,
             TupleDomain<HiveColumnHandle> effectivePredicate)
     {
-        ParquetDataSource dataSource = buildHdfsParquetDataSource(path, configuration, start, length);
+        ParquetDataSource dataSource = buildHdfsParquetDataSource(fileCache, path, configuration, start, length);
         try {
-            ParquetMetadata parquetMetadata = ParquetMetadataReader.readFooter(configuration, path);
+            ParquetMetadata parquetMetadata = ParquetMetadataReader.readFooter(dataSource, path);
             FileMetaData fileMetaData = parquetMetadata.getFileMetaData();
             MessageType fileSchema = fileMetaData.getSchema();
 
@@ -217,6 +226,6 @@ public class ParquetPageSourceFactory
         return columns.stream()
                 .map(HiveColumnHandle::getTypeSignature)
                 .map(TypeSignature::getBase)
-                .allMatch(base -> BIGINT.equals(base) || BOOLEAN.equals(base) || DOUBLE.equals(base) || TIMESTAMP.equals(base) || VARCHAR.equals(base) || VARBINARY.equals(base) || DATE.equals(base) || DECIMAL.equals(base));
+                .allMatch(base -> BIGINT.equals(base) || INTEGER.equals(base) || SMALLINT.equals(base) || TINYINT.equals(base) || BOOLEAN.equals(base) || DOUBLE.equals(base) || REAL.equals(base) || TIMESTAMP.equals(base) || VARCHAR.equals(base) || VARBINARY.equals(base) || DATE.equals(base) || DECIMAL.equals(base));
     }
 }
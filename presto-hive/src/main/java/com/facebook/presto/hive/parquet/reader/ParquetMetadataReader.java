@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.parquet.reader;
 
+import com.facebook.presto.hive.parquet.ParquetDataSource;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileStatus;
@@ -39,6 +40,7 @@ import parquet.schema.PrimitiveType.PrimitiveTypeName;
 import parquet.schema.Type.Repetition;
 import parquet.schema.Types;
 
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -53,6 +55,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static com.facebook.presto.hive.parquet.ParquetValidationUtils.validateParquet;
+import static java.lang.Math.toIntExact;
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static parquet.format.Util.readFileMetaData;
 
@@ -66,85 +69,105 @@ public final class ParquetMetadataReader
     public static ParquetMetadata readFooter(Configuration configuration, Path file)
             throws IOException
     {
-        FileSystem fileSystem = file.getFileSystem(configuration);
+        return readFooter(file.getFileSystem(configuration), file);
+    }
+
+    public static ParquetMetadata readFooter(FileSystem fileSystem, Path file)
+            throws IOException
+    {
         FileStatus fileStatus = fileSystem.getFileStatus(file);
         try (FSDataInputStream inputStream = fileSystem.open(file)) {
-            // Parquet File Layout:
-            //
-            // MAGIC
-            // variable: Data
-            // variable: Metadata
-            // 4 bytes: MetadataLength
-            // MAGIC
+            return readFooter(file, fileStatus.getLen(), inputStream::readFully);
+        }
+    }
+
+    /**
+     * Reads the footer through an already open data source, so the file is not opened a second time.
+     */
+    public static ParquetMetadata readFooter(ParquetDataSource dataSource, Path file)
+            throws IOException
+    {
+        return readFooter(file, dataSource.getSize(), dataSource::readFully);
+    }
 
-            long length = fileStatus.getLen();
-            validateParquet(length >= MAGIC.length + PARQUET_METADATA_LENGTH + MAGIC.length, "%s is not a valid Parquet File", file);
-            long metadataLengthIndex = length - PARQUET_METADATA_LENGTH - MAGIC.length;
+    private static ParquetMetadata readFooter(Path file, long length, PositionedReader reader)
+            throws IOException
+    {
+        // Parquet File Layout:
+        //
+        // MAGIC
+        // variable: Data
+        // variable: Metadata
+        // 4 bytes: MetadataLength
+        // MAGIC
 
-            inputStream.seek(metadataLengthIndex);
-            int metadataLength = readIntLittleEndian(inputStream);
+        validateParquet(length >= MAGIC.length + PARQUET_METADATA_LENGTH + MAGIC.length, "%s is not a valid Parquet File", file);
+        long metadataLengthIndex = length - PARQUET_METADATA_LENGTH - MAGIC.length;
 
-            byte[] magic = new byte[MAGIC.length];
-            inputStream.readFully(magic);
-            validateParquet(Arrays.equals(MAGIC, magic), "Not valid Parquet file: %s expected magic number: %s got: %s", file, Arrays.toString(MAGIC), Arrays.toString(magic));
+        byte[] tail = new byte[PARQUET_METADATA_LENGTH + MAGIC.length];
+        reader.readFully(metadataLengthIndex, tail);
+        int metadataLength = readIntLittleEndian(new ByteArrayInputStream(tail));
 
-            long metadataIndex = metadataLengthIndex - metadataLength;
-            validateParquet(
-                    metadataIndex >= MAGIC.length && metadataIndex < metadataLengthIndex,
-                    "Corrupted Parquet file: %s metadata index: %s out of range",
-                    file,
-                    metadataIndex);
-            inputStream.seek(metadataIndex);
-            FileMetaData fileMetaData = readFileMetaData(inputStream);
-            List<SchemaElement> schema = fileMetaData.getSchema();
-            validateParquet(!schema.isEmpty(), "Empty Parquet schema in file: %s", file);
+        byte[] magic = Arrays.copyOfRange(tail, PARQUET_METADATA_LENGTH, tail.length);
+        validateParquet(Arrays.equals(MAGIC, magic), "Not valid Parquet file: %s expected magic number: %s got: %s", file, Arrays.toString(MAGIC), Arrays.toString(magic));
 
-            MessageType messageType = readParquetSchema(schema);
-            List<BlockMetaData> blocks = new ArrayList<>();
-            List<RowGroup> rowGroups = fileMetaData.getRow_groups();
-            if (rowGroups != null) {
-                for (RowGroup rowGroup : rowGroups) {
-                    BlockMetaData blockMetaData = new BlockMetaData();
-                    blockMetaData.setRowCount(rowGroup.getNum_rows());
-                    blockMetaData.setTotalByteSize(rowGroup.getTotal_byte_size());
-                    List<ColumnChunk> columns = rowGroup.getColumns();
-                    validateParquet(!columns.isEmpty(), "No columns in row group: %s", rowGroup);
-                    String filePath = columns.get(0).getFile_path();
-                    for (ColumnChunk columnChunk : columns) {
-                        validateParquet(
-                                (filePath == null && columnChunk.getFile_path() == null)
-                                        || (filePath != null && filePath.equals(columnChunk.getFile_path())),
-                                "all column chunks of the same row group must be in the same file");
-                        ColumnMetaData metaData = columnChunk.meta_data;
-                        String[] path = metaData.path_in_schema.toArray(new String[metaData.path_in_schema.size()]);
-                        ColumnPath columnPath = ColumnPath.get(path);
-                        ColumnChunkMetaData column = ColumnChunkMetaData.get(
-                                columnPath,
-                                messageType.getType(columnPath.toArray()).asPrimitiveType().getPrimitiveTypeName(),
-                                CompressionCodecName.fromParquet(metaData.codec),
-                                readEncodings(metaData.encodings),
-                                readStats(metaData.statistics, messageType.getType(columnPath.toArray()).asPrimitiveType().getPrimitiveTypeName()),
-                                metaData.data_page_offset,
-                                metaData.dictionary_page_offset,
-                                metaData.num_values,
-                                metaData.total_compressed_size,
-                                metaData.total_uncompressed_size);
-                        blockMetaData.addColumn(column);
-                    }
-                    blockMetaData.setPath(filePath);
-                    blocks.add(blockMetaData);
+        long metadataIndex = metadataLengthIndex - metadataLength;
+        validateParquet(
+                metadataIndex >= MAGIC.length && metadataIndex < metadataLengthIndex,
+                "Corrupted Parquet file: %s metadata index: %s out of range",
+                file,
+                metadataIndex);
+        byte[] metadata = new byte[toIntExact(metadataLengthIndex - metadataIndex)];
+        reader.readFully(metadataIndex, metadata);
+        FileMetaData fileMetaData = readFileMetaData(new ByteArrayInputStream(metadata));
+        List<SchemaElement> schema = fileMetaData.getSchema();
+        validateParquet(!schema.isEmpty(), "Empty Parquet schema in file: %s", file);
+
+        MessageType messageType = readParquetSchema(schema);
+        List<BlockMetaData> blocks = new ArrayList<>();
+        List<RowGroup> rowGroups = fileMetaData.getRow_groups();
+        if (rowGroups != null) {
+            for (RowGroup rowGroup : rowGroups) {
+                BlockMetaData blockMetaData = new BlockMetaData();
+                blockMetaData.setRowCount(rowGroup.getNum_rows());
+                blockMetaData.setTotalByteSize(rowGroup.getTotal_byte_size());
+                List<ColumnChunk> columns = rowGroup.getColumns();
+                validateParquet(!columns.isEmpty(), "No columns in row group: %s", rowGroup);
+                String filePath = columns.get(0).getFile_path();
+                for (ColumnChunk columnChunk : columns) {
+                    validateParquet(
+                            (filePath == null && columnChunk.getFile_path() == null)
+                                    || (filePath != null && filePath.equals(columnChunk.getFile_path())),
+                            "all column chunks of the same row group must be in the same file");
+                    ColumnMetaData metaData = columnChunk.meta_data;
+                    String[] path = metaData.path_in_schema.toArray(new String[metaData.path_in_schema.size()]);
+                    ColumnPath columnPath = ColumnPath.get(path);
+                    ColumnChunkMetaData column = ColumnChunkMetaData.get(
+                            columnPath,
+                            messageType.getType(columnPath.toArray()).asPrimitiveType().getPrimitiveTypeName(),
+                            CompressionCodecName.fromParquet(metaData.codec),
+                            readEncodings(metaData.encodings),
+                            readStats(metaData.statistics, messageType.getType(columnPath.toArray()).asPrimitiveType().getPrimitiveTypeName()),
+                            metaData.data_page_offset,
+                            metaData.dictionary_page_offset,
+                            metaData.num_values,
+                            metaData.total_compressed_size,
+                            metaData.total_uncompressed_size);
+                    blockMetaData.addColumn(column);
                 }
+                blockMetaData.setPath(filePath);
+                blocks.add(blockMetaData);
             }
+        }
 
-            Map<String, String> keyValueMetaData = new HashMap<>();
-            List<KeyValue> keyValueList = fileMetaData.getKey_value_metadata();
-            if (keyValueList != null) {
-                for (KeyValue keyValue : keyValueList) {
-                    keyValueMetaData.put(keyValue.key, keyValue.value);
-                }
+        Map<String, String> keyValueMetaData = new HashMap<>();
+        List<KeyValue> keyValueList = fileMetaData.getKey_value_metadata();
+        if (keyValueList != null) {
+            for (KeyValue keyValue : keyValueList) {
+                keyValueMetaData.put(keyValue.key, keyValue.value);
             }
-            return new ParquetMetadata(new parquet.hadoop.metadata.FileMetaData(messageType, keyValueMetaData, fileMetaData.getCreated_by()), blocks);
         }
+        return new ParquetMetadata(new parquet.hadoop.metadata.FileMetaData(messageType, keyValueMetaData, fileMetaData.getCreated_by()), blocks);
     }
 
     private static MessageType readParquetSchema(List<SchemaElement> schema)
@@ -282,6 +305,12 @@ public final class ParquetMetadataReader
         }
     }
 
+    private interface PositionedReader
+    {
+        void readFully(long position, byte[] buffer)
+                throws IOException;
+    }
+
     private static int readIntLittleEndian(InputStream in)
             throws IOException
     {
@@ -57,8 +57,12 @@ import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static io.airlift.slice.SizeOf.SIZE_OF_SHORT;
 import static io.airlift.slice.Slices.wrappedBooleanArray;
+import static io.airlift.slice.Slices.wrappedBuffer;
 import static io.airlift.slice.Slices.wrappedDoubleArray;
+import static io.airlift.slice.Slices.wrappedFloatArray;
+import static io.airlift.slice.Slices.wrappedIntArray;
 import static io.airlift.slice.Slices.wrappedLongArray;
+import static io.airlift.slice.Slices.wrappedShortArray;
 
 public class RcBinaryBlockLoader
         implements RcFileBlockLoader
@@ -193,7 +197,7 @@ public class RcBinaryBlockLoader
 
                 int batchSize = block.getPositionCount();
                 boolean[] isNull = new boolean[batchSize];
-                long[] vector = new long[batchSize];
+                byte[] vector = new byte[batchSize];
 
                 for (int i = 0; i < batchSize; i++) {
                     BytesRefWritable writable = columnBatch.unCheckedGet(i + positionInBatch);
@@ -210,7 +214,7 @@ public class RcBinaryBlockLoader
                 }
 
                 block.setNullVector(isNull);
-                block.setRawSlice(wrappedLongArray(vector));
+                block.setRawSlice(wrappedBuffer(vector));
 
                 loaded = true;
             }
@@ -246,7 +250,7 @@ public class RcBinaryBlockLoader
 
                 int batchSize = block.getPositionCount();
                 boolean[] isNull = new boolean[batchSize];
-                long[] vector = new long[batchSize];
+                short[] vector = new short[batchSize];
 
                 for (int i = 0; i < batchSize; i++) {
                     BytesRefWritable writable = columnBatch.unCheckedGet(i + positionInBatch);
@@ -258,7 +262,7 @@ public class RcBinaryBlockLoader
                         // the file format uses big endian
                         byte[] bytes = writable.getData();
                         int start = writable.getStart();
-                        vector[i] = (long) Short.reverseBytes(ByteArrays.getShort(bytes, start));
+                        vector[i] = Short.reverseBytes(ByteArrays.getShort(bytes, start));
                     }
                     else {
                         isNull[i] = true;
@@ -266,7 +270,7 @@ public class RcBinaryBlockLoader
                 }
 
                 block.setNullVector(isNull);
-                block.setRawSlice(wrappedLongArray(vector));
+                block.setRawSlice(wrappedShortArray(vector));
 
                 loaded = true;
             }
@@ -302,7 +306,7 @@ public class RcBinaryBlockLoader
 
                 int batchSize = block.getPositionCount();
                 boolean[] isNull = new boolean[batchSize];
-                long[] vector = new long[batchSize];
+                int[] vector = new int[batchSize];
 
                 for (int i = 0; i < batchSize; i++) {
                     BytesRefWritable writable = columnBatch.unCheckedGet(i + positionInBatch);
@@ -317,12 +321,12 @@ public class RcBinaryBlockLoader
                         vector[i] = bytes[start];
                     }
                     else {
-                        vector[i] = readVInt(bytes, start, length);
+                        vector[i] = (int) readVInt(bytes, start, length);
                     }
                 }
 
                 block.setNullVector(isNull);
-                block.setRawSlice(wrappedLongArray(vector));
+                block.setRawSlice(wrappedIntArray(vector));
 
                 loaded = true;
             }
@@ -524,7 +528,7 @@ public class RcBinaryBlockLoader
 
                 int batchSize = block.getPositionCount();
                 boolean[] isNull = new boolean[batchSize];
-                double[] vector = new double[batchSize];
+                float[] vector = new float[batchSize];
 
                 for (int i = 0; i < batchSize; i++) {
                     BytesRefWritable writable = columnBatch.unCheckedGet(i + positionInBatch);
@@ -538,7 +542,7 @@ public class RcBinaryBlockLoader
                         int intBits = ByteArrays.getInt(bytes, start);
 
                         // the file format uses big endian
-                        vector[i] = (double) Float.intBitsToFloat(Integer.reverseBytes(intBits));
+                        vector[i] = Float.intBitsToFloat(Integer.reverseBytes(intBits));
                     }
                     else {
                         isNull[i] = true;
@@ -546,7 +550,7 @@ public class RcBinaryBlockLoader
                 }
 
                 block.setNullVector(isNull);
-                block.setRawSlice(wrappedDoubleArray(vector));
+                block.setRawSlice(wrappedFloatArray(vector));
 
                 loaded = true;
             }
@@ -16,6 +16,7 @@ package com.facebook.presto.hive.rcfile;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.HivePartitionKey;
+import com.facebook.presto.hive.cache.HiveFileCache;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.predicate.TupleDomain;
@@ -48,11 +49,13 @@ public class RcFilePageSourceFactory
         implements HivePageSourceFactory
 {
     private final TypeManager typeManager;
+    private final HiveFileCache fileCache;
 
     @Inject
-    public RcFilePageSourceFactory(TypeManager typeManager)
+    public RcFilePageSourceFactory(TypeManager typeManager, HiveFileCache fileCache)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
     }
 
     @Override
@@ -102,7 +105,7 @@ public class RcFilePageSourceFactory
 
         RCFile.Reader recordReader;
         try {
-            FileSystem fileSystem = path.getFileSystem(configuration);
+            FileSystem fileSystem = fileCache.getFileSystem(path, configuration);
             recordReader = new RCFile.Reader(fileSystem, path, configuration);
         }
         catch (Exception e) {
@@ -57,6 +57,12 @@ import static com.facebook.presto.hive.NumberParser.parseDouble;
 import static com.facebook.presto.hive.NumberParser.parseLong;
 import static com.facebook.presto.hive.util.SerDeUtils.serializeObject;
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
+import static io.airlift.slice.SizeOf.SIZE_OF_DOUBLE;
+import static io.airlift.slice.SizeOf.SIZE_OF_FLOAT;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.airlift.slice.SizeOf.SIZE_OF_SHORT;
 import static io.airlift.slice.Slices.wrappedBooleanArray;
 import static io.airlift.slice.Slices.wrappedDoubleArray;
 import static io.airlift.slice.Slices.wrappedLongArray;
@@ -77,8 +83,17 @@ public class RcTextBlockLoader
         if (HIVE_BOOLEAN.equals(hiveType)) {
             return new LazyBooleanBlockLoader(batch, fieldId);
         }
-        if (HIVE_BYTE.equals(hiveType) || HIVE_SHORT.equals(hiveType) || HIVE_INT.equals(hiveType) || HIVE_LONG.equals(hiveType)) {
-            return new LazyLongBlockLoader(batch, fieldId);
+        if (HIVE_BYTE.equals(hiveType)) {
+            return new LazyLongBlockLoader(batch, fieldId, SIZE_OF_BYTE);
+        }
+        if (HIVE_SHORT.equals(hiveType)) {
+            return new LazyLongBlockLoader(batch, fieldId, SIZE_OF_SHORT);
+        }
+        if (HIVE_INT.equals(hiveType)) {
+            return new LazyLongBlockLoader(batch, fieldId, SIZE_OF_INT);
+        }
+        if (HIVE_LONG.equals(hiveType)) {
+            return new LazyLongBlockLoader(batch, fieldId, SIZE_OF_LONG);
         }
         if (HIVE_DATE.equals(hiveType)) {
             return new LazyDateBlockLoader(batch, fieldId);
@@ -86,8 +101,11 @@ public class RcTextBlockLoader
         if (HIVE_TIMESTAMP.equals(hiveType)) {
             return new LazyTimestampBlockLoader(batch, fieldId, hiveStorageTimeZone);
         }
-        if (HIVE_FLOAT.equals(hiveType) || HIVE_DOUBLE.equals(hiveType)) {
-            return new LazyDoubleBlockLoader(batch, fieldId);
+        if (HIVE_FLOAT.equals(hiveType)) {
+            return new LazyDoubleBlockLoader(batch, fieldId, SIZE_OF_FLOAT);
+        }
+        if (HIVE_DOUBLE.equals(hiveType)) {
+            return new LazyDoubleBlockLoader(batch, fieldId, SIZE_OF_DOUBLE);
         }
         throw new UnsupportedOperationException("Unsupported column type: " + hiveType);
     }
@@ -111,6 +129,43 @@ public class RcTextBlockLoader
         return new LazyStructuralBlockLoader(type, batch, fieldId, fieldInspector);
     }
 
+    private static Slice toFixedWidthSlice(long[] vector, int fixedSize)
+    {
+        if (fixedSize == SIZE_OF_LONG) {
+            return wrappedLongArray(vector);
+        }
+        Slice slice = Slices.allocate(vector.length * fixedSize);
+        for (int i = 0; i < vector.length; i++) {
+            switch (fixedSize) {
+                case SIZE_OF_INT:
+                    slice.setInt(i * SIZE_OF_INT, (int) vector[i]);
+                    break;
+                case SIZE_OF_SHORT:
+                    slice.setShort(i * SIZE_OF_SHORT, (short) vector[i]);
+                    break;
+                case SIZE_OF_BYTE:
+                    slice.setByte(i, (byte) vector[i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported fixed size: " + fixedSize);
+            }
+        }
+        return slice;
+    }
+
+    private static Slice toFixedWidthSlice(double[] vector, int fixedSize)
+    {
+        if (fixedSize == SIZE_OF_DOUBLE) {
+            return wrappedDoubleArray(vector);
+        }
+        checkArgument(fixedSize == SIZE_OF_FLOAT, "Unsupported fixed size: %s", fixedSize);
+        Slice slice = Slices.allocate(vector.length * SIZE_OF_FLOAT);
+        for (int i = 0; i < vector.length; i++) {
+            slice.setFloat(i * SIZE_OF_FLOAT, (float) vector[i]);
+        }
+        return slice;
+    }
+
     private static boolean isNull(byte[] bytes, int start, int length)
     {
         return length == "\\N".length() && bytes[start] == '\\' && bytes[start + 1] == 'N';
@@ -177,12 +232,14 @@ public class RcTextBlockLoader
     {
         private final RcFileColumnsBatch batch;
         private final int fieldId;
+        private final int fixedSize;
         private boolean loaded;
 
-        private LazyLongBlockLoader(RcFileColumnsBatch batch, int fieldId)
+        private LazyLongBlockLoader(RcFileColumnsBatch batch, int fieldId, int fixedSize)
         {
             this.batch = batch;
             this.fieldId = fieldId;
+            this.fixedSize = fixedSize;
         }
 
         @Override
@@ -215,7 +272,7 @@ public class RcTextBlockLoader
                 }
 
                 block.setNullVector(isNull);
-                block.setRawSlice(wrappedLongArray(vector));
+                block.setRawSlice(toFixedWidthSlice(vector, fixedSize));
 
                 loaded = true;
             }
@@ -340,12 +397,14 @@ public class RcTextBlockLoader
     {
         private final RcFileColumnsBatch batch;
         private final int fieldId;
+        private final int fixedSize;
         private boolean loaded;
 
-        private LazyDoubleBlockLoader(RcFileColumnsBatch batch, int fieldId)
+        private LazyDoubleBlockLoader(RcFileColumnsBatch batch, int fieldId, int fixedSize)
         {
             this.batch = batch;
             this.fieldId = fieldId;
+            this.fixedSize = fixedSize;
         }
 
         @Override
@@ -378,7 +437,7 @@ public class RcTextBlockLoader
                 }
 
                 block.setNullVector(isNull);
-                block.setRawSlice(wrappedDoubleArray(vector));
+                block.setRawSlice(toFixedWidthSlice(vector, fixedSize));
 
                 loaded = true;
             }
@@ -0,0 +1,292 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.text;
+
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import org.joda.time.DateTimeZone;
+
+import static com.facebook.presto.hive.HiveBooleanParser.parseHiveBoolean;
+import static com.facebook.presto.hive.HiveUtil.parseHiveDate;
+import static com.facebook.presto.hive.HiveUtil.parseHiveTimestamp;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decodes the fields of a column with the same semantics as the Hive
+ * LazySimpleSerDe: values equal to the null sequence and values that
+ * cannot be parsed are null.
+ */
+class TextFieldDecoder
+{
+    private final byte[] nullSequence;
+    private final boolean escaped;
+    private final byte escapeByte;
+    private final boolean escapeCrLf;
+    private final DateTimeZone timeZone;
+
+    public TextFieldDecoder(byte[] nullSequence, boolean escaped, byte escapeByte, boolean escapeCrLf, DateTimeZone timeZone)
+    {
+        this.nullSequence = requireNonNull(nullSequence, "nullSequence is null").clone();
+        this.escaped = escaped;
+        this.escapeByte = escapeByte;
+        this.escapeCrLf = escapeCrLf;
+        this.timeZone = requireNonNull(timeZone, "timeZone is null");
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BOOLEAN) ||
+                type.equals(TINYINT) ||
+                type.equals(SMALLINT) ||
+                type.equals(INTEGER) ||
+                type.equals(BIGINT) ||
+                type.equals(REAL) ||
+                type.equals(DOUBLE) ||
+                type.equals(VARCHAR) ||
+                type.equals(DATE) ||
+                type.equals(TIMESTAMP);
+    }
+
+    /**
+     * Appends one value per position to the block builder. A negative field
+     * start denotes a field that is missing from the line.
+     */
+    public void decodeColumn(Type type, BlockBuilder blockBuilder, byte[] buffer, int[] fieldStarts, int[] fieldLengths, int positionCount)
+    {
+        if (type.equals(BOOLEAN)) {
+            for (int position = 0; position < positionCount; position++) {
+                int start = fieldStarts[position];
+                int length = fieldLengths[position];
+                Boolean value = isNull(buffer, start, length) ? null : parseHiveBoolean(buffer, start, length);
+                if (value == null) {
+                    blockBuilder.appendNull();
+                }
+                else {
+                    BOOLEAN.writeBoolean(blockBuilder, value);
+                }
+            }
+        }
+        else if (type.equals(TINYINT)) {
+            decodeIntegers(type, blockBuilder, buffer, fieldStarts, fieldLengths, positionCount, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        else if (type.equals(SMALLINT)) {
+            decodeIntegers(type, blockBuilder, buffer, fieldStarts, fieldLengths, positionCount, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        else if (type.equals(INTEGER)) {
+            decodeIntegers(type, blockBuilder, buffer, fieldStarts, fieldLengths, positionCount, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        else if (type.equals(BIGINT)) {
+            decodeIntegers(type, blockBuilder, buffer, fieldStarts, fieldLengths, positionCount, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        else if (type.equals(REAL) || type.equals(DOUBLE)) {
+            for (int position = 0; position < positionCount; position++) {
+                int start = fieldStarts[position];
+                int length = fieldLengths[position];
+                if (isNull(buffer, start, length)) {
+                    blockBuilder.appendNull();
+                    continue;
+                }
+                try {
+                    // REAL.writeDouble narrows the value to a float
+                    type.writeDouble(blockBuilder, Double.parseDouble(new String(buffer, start, length, UTF_8)));
+                }
+                catch (NumberFormatException e) {
+                    blockBuilder.appendNull();
+                }
+            }
+        }
+        else if (type.equals(VARCHAR)) {
+            Slice slice = Slices.wrappedBuffer(buffer);
+            for (int position = 0; position < positionCount; position++) {
+                int start = fieldStarts[position];
+                int length = fieldLengths[position];
+                if (isNull(buffer, start, length)) {
+                    blockBuilder.appendNull();
+                }
+                else if (escaped && indexOf(buffer, start, length, escapeByte) >= 0) {
+                    VARCHAR.writeSlice(blockBuilder, unescape(buffer, start, length));
+                }
+                else {
+                    VARCHAR.writeSlice(blockBuilder, slice, start, length);
+                }
+            }
+        }
+        else if (type.equals(DATE) || type.equals(TIMESTAMP)) {
+            boolean date = type.equals(DATE);
+            for (int position = 0; position < positionCount; position++) {
+                int start = fieldStarts[position];
+                int length = fieldLengths[position];
+                if (isNull(buffer, start, length)) {
+                    blockBuilder.appendNull();
+                    continue;
+                }
+                String value = new String(buffer, start, length, UTF_8);
+                long parsed;
+                try {
+                    parsed = date ? parseHiveDate(value) : parseHiveTimestamp(value, timeZone);
+                }
+                catch (IllegalArgumentException e) {
+                    blockBuilder.appendNull();
+                    continue;
+                }
+                type.writeLong(blockBuilder, parsed);
+            }
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    private void decodeIntegers(Type type, BlockBuilder blockBuilder, byte[] buffer, int[] fieldStarts, int[] fieldLengths, int positionCount, long minValue, long maxValue)
+    {
+        for (int position = 0; position < positionCount; position++) {
+            int start = fieldStarts[position];
+            int length = fieldLengths[position];
+            if (isNull(buffer, start, length)) {
+                blockBuilder.appendNull();
+                continue;
+            }
+            long value;
+            try {
+                value = parseLong(buffer, start, length);
+            }
+            catch (NumberFormatException e) {
+                blockBuilder.appendNull();
+                continue;
+            }
+            if (value < minValue || value > maxValue) {
+                blockBuilder.appendNull();
+            }
+            else {
+                type.writeLong(blockBuilder, value);
+            }
+        }
+    }
+
+    private boolean isNull(byte[] buffer, int start, int length)
+    {
+        if (start < 0) {
+            return true;
+        }
+        if (length != nullSequence.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != nullSequence[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Slice unescape(byte[] buffer, int start, int length)
+    {
+        byte[] unescaped = new byte[length];
+        int outputLength = 0;
+        int end = start + length;
+        for (int position = start; position < end; position++) {
+            byte value = buffer[position];
+            if (value == escapeByte && position + 1 < end) {
+                position++;
+                value = buffer[position];
+                if (escapeCrLf && value == 'r') {
+                    value = '\r';
+                }
+                else if (escapeCrLf && value == 'n') {
+                    value = '\n';
+                }
+            }
+            unescaped[outputLength] = value;
+            outputLength++;
+        }
+        return Slices.wrappedBuffer(unescaped, 0, outputLength);
+    }
+
+    /**
+     * Parses a decimal integer like Hive's LazyLong: an optional sign, at least
+     * one digit, and an optional fraction of digits that is truncated.
+     */
+    static long parseLong(byte[] bytes, int start, int length)
+    {
+        int end = start + length;
+        int position = start;
+        if (position == end) {
+            throw new NumberFormatException();
+        }
+
+        boolean negative = bytes[position] == '-';
+        if (negative || bytes[position] == '+') {
+            position++;
+            if (position == end) {
+                throw new NumberFormatException();
+            }
+        }
+
+        // accumulate negatively to be able to represent Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; position < end; position++) {
+            byte value = bytes[position];
+            if (value == '.') {
+                break;
+            }
+            int digit = value - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw new NumberFormatException();
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException();
+            }
+            result -= digit;
+        }
+
+        if (position < end) {
+            // skip the fraction, which must contain only digits
+            if (bytes[position - 1] < '0' || bytes[position - 1] > '9') {
+                throw new NumberFormatException();
+            }
+            for (position++; position < end; position++) {
+                if (bytes[position] < '0' || bytes[position] > '9') {
+                    throw new NumberFormatException();
+                }
+            }
+        }
+        return negative ? result : -result;
+    }
+
+    private static int indexOf(byte[] buffer, int start, int length, byte value)
+    {
+        for (int position = start; position < start + length; position++) {
+            if (buffer[position] == value) {
+                return position;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.text;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Splits a stream into lines terminated by LF, CR or CRLF, the same way
+ * Hadoop's LineRecordReader does. Lines are returned in batches as offsets
+ * into the internal buffer, which stay valid until the next call to
+ * {@link #readLines}.
+ */
+class TextLineReader
+        implements Closeable
+{
+    private final InputStream input;
+    private final int[] lineStarts;
+    private final int[] lineLengths;
+
+    private byte[] buffer;
+    private int bufferStart;
+    private int bufferEnd;
+    // stream position of the first byte in the buffer
+    private long bufferPosition;
+    private boolean eof;
+
+    private int lineEnd;
+    private int nextLineStart;
+
+    public TextLineReader(InputStream input, long position, int bufferSize, int maxBatchSize)
+    {
+        this.input = requireNonNull(input, "input is null");
+        checkArgument(bufferSize > 0, "bufferSize must be positive");
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+        this.bufferPosition = position;
+        this.buffer = new byte[bufferSize];
+        this.lineStarts = new int[maxBatchSize];
+        this.lineLengths = new int[maxBatchSize];
+    }
+
+    /**
+     * Discards the input up to and including the next line terminator.
+     */
+    public void skipLine()
+            throws IOException
+    {
+        while (!findLine()) {
+            if (!fillBuffer()) {
+                return;
+            }
+        }
+        bufferStart = nextLineStart;
+    }
+
+    /**
+     * Reads the next batch of lines that start at or before {@code endPosition}.
+     *
+     * @return the number of lines in the batch, or zero when there are no more lines
+     */
+    public int readLines(long endPosition)
+            throws IOException
+    {
+        int lineCount = 0;
+        while (true) {
+            while (lineCount < lineStarts.length && bufferPosition + bufferStart <= endPosition && findLine()) {
+                lineStarts[lineCount] = bufferStart;
+                lineLengths[lineCount] = lineEnd - bufferStart;
+                lineCount++;
+                bufferStart = nextLineStart;
+            }
+            // lines in a batch must all be in the buffer, so stop before refilling it
+            if (lineCount > 0 || bufferPosition + bufferStart > endPosition || !fillBuffer()) {
+                return lineCount;
+            }
+        }
+    }
+
+    public byte[] getBuffer()
+    {
+        return buffer;
+    }
+
+    public int getLineStart(int line)
+    {
+        return lineStarts[line];
+    }
+
+    public int getLineLength(int line)
+    {
+        return lineLengths[line];
+    }
+
+    public long getRetainedSize()
+    {
+        return buffer.length;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        input.close();
+    }
+
+    private boolean findLine()
+    {
+        for (int position = bufferStart; position < bufferEnd; position++) {
+            byte value = buffer[position];
+            if (value == '\n') {
+                lineEnd = position;
+                nextLineStart = position + 1;
+                return true;
+            }
+            if (value == '\r') {
+                if (position + 1 < bufferEnd) {
+                    lineEnd = position;
+                    nextLineStart = (buffer[position + 1] == '\n') ? position + 2 : position + 1;
+                    return true;
+                }
+                if (eof) {
+                    lineEnd = position;
+                    nextLineStart = position + 1;
+                    return true;
+                }
+                // a LF may follow in the next read
+                return false;
+            }
+        }
+        if (eof && bufferStart < bufferEnd) {
+            // last line without a terminator
+            lineEnd = bufferEnd;
+            nextLineStart = bufferEnd;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean fillBuffer()
+            throws IOException
+    {
+        if (eof) {
+            return false;
+        }
+
+        // move the unconsumed data to the front of the buffer, growing it if a single line does not fit
+        int remaining = bufferEnd - bufferStart;
+        if (bufferStart > 0) {
+            System.arraycopy(buffer, bufferStart, buffer, 0, remaining);
+            bufferPosition += bufferStart;
+            bufferStart = 0;
+            bufferEnd = remaining;
+        }
+        else if (bufferEnd == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int bytesRead = input.read(buffer, bufferEnd, buffer.length - bufferEnd);
+        if (bytesRead < 0) {
+            eof = true;
+        }
+        else {
+            bufferEnd += bytesRead;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.text;
+
+import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.HivePartitionKey;
+import com.facebook.presto.hive.HiveUtil;
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.TypeManager;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import org.apache.hadoop.fs.Seekable;
+import org.joda.time.DateTimeZone;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.hive.HiveErrorCode.HIVE_CURSOR_ERROR;
+import static com.facebook.presto.hive.HiveUtil.bigintPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.booleanPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.datePartitionKey;
+import static com.facebook.presto.hive.HiveUtil.doublePartitionKey;
+import static com.facebook.presto.hive.HiveUtil.integerPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.realPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.smallintPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.timestampPartitionKey;
+import static com.facebook.presto.hive.HiveUtil.tinyintPartitionKey;
+import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Maps.uniqueIndex;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads delimited text files written with the Hive LazySimpleSerDe. Each
+ * batch of lines is first split into fields, and then every projected
+ * column is decoded on its own into a block.
+ */
+public class TextPageSource
+        implements ConnectorPageSource
+{
+    static final int MAX_PAGE_SIZE = 1024;
+    private static final int MAX_FIXED_WIDTH_SIZE = 8;
+
+    private final TextLineReader lineReader;
+    private final Seekable fileInput;
+    private final long start;
+    private final long length;
+    private final long endPosition;
+    private final byte fieldDelimiter;
+    private final boolean escaped;
+    private final byte escapeByte;
+    private final TextFieldDecoder fieldDecoder;
+
+    private final List<String> columnNames;
+    private final List<Type> types;
+
+    private final Block[] constantBlocks;
+    // index into the field arrays for each column, or -1 for partition keys
+    private final int[] columnFields;
+    // index into the field arrays for each hive column, or -1 if the column is not read
+    private final int[] fieldsByHiveColumnIndex;
+    private final int[][] fieldStarts;
+    private final int[][] fieldLengths;
+
+    private long readTimeNanos;
+    private boolean closed;
+
+    public TextPageSource(
+            TextLineReader lineReader,
+            Seekable fileInput,
+            long start,
+            long length,
+            long endPosition,
+            byte fieldDelimiter,
+            boolean escaped,
+            byte escapeByte,
+            TextFieldDecoder fieldDecoder,
+            List<HivePartitionKey> partitionKeys,
+            List<HiveColumnHandle> columns,
+            DateTimeZone hiveStorageTimeZone,
+            TypeManager typeManager)
+    {
+        this.lineReader = requireNonNull(lineReader, "lineReader is null");
+        this.fileInput = requireNonNull(fileInput, "fileInput is null");
+        this.start = start;
+        this.length = length;
+        this.endPosition = endPosition;
+        this.fieldDelimiter = fieldDelimiter;
+        this.escaped = escaped;
+        this.escapeByte = escapeByte;
+        this.fieldDecoder = requireNonNull(fieldDecoder, "fieldDecoder is null");
+        requireNonNull(partitionKeys, "partitionKeys is null");
+        requireNonNull(columns, "columns is null");
+        requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
+        requireNonNull(typeManager, "typeManager is null");
+
+        Map<String, HivePartitionKey> partitionKeysByName = uniqueIndex(partitionKeys, HivePartitionKey::getName);
+
+        int size = columns.size();
+        this.constantBlocks = new Block[size];
+        this.columnFields = new int[size];
+
+        int maxHiveColumnIndex = -1;
+        for (HiveColumnHandle column : columns) {
+            if (!column.isPartitionKey()) {
+                maxHiveColumnIndex = Math.max(maxHiveColumnIndex, column.getHiveColumnIndex());
+            }
+        }
+        this.fieldsByHiveColumnIndex = new int[maxHiveColumnIndex + 1];
+        Arrays.fill(fieldsByHiveColumnIndex, -1);
+        int fieldCount = 0;
+
+        ImmutableList.Builder<String> namesBuilder = ImmutableList.builder();
+        ImmutableList.Builder<Type> typesBuilder = ImmutableList.builder();
+        for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
+            HiveColumnHandle column = columns.get(columnIndex);
+
+            String name = column.getName();
+            Type type = typeManager.getType(column.getTypeSignature());
+
+            namesBuilder.add(name);
+            typesBuilder.add(type);
+
+            if (column.isPartitionKey()) {
+                columnFields[columnIndex] = -1;
+
+                HivePartitionKey partitionKey = partitionKeysByName.get(name);
+                checkArgument(partitionKey != null, "No value provided for partition key %s", name);
+
+                byte[] bytes = partitionKey.getValue().getBytes(UTF_8);
+
+                BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), MAX_PAGE_SIZE, Math.max(MAX_FIXED_WIDTH_SIZE, bytes.length));
+
+                if (HiveUtil.isHiveNull(bytes)) {
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        blockBuilder.appendNull();
+                    }
+                }
+                else if (type.equals(BOOLEAN)) {
+                    boolean value = booleanPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        BOOLEAN.writeBoolean(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(BIGINT)) {
+                    long value = bigintPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        BIGINT.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(INTEGER)) {
+                    long value = integerPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        INTEGER.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(SMALLINT)) {
+                    long value = smallintPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        SMALLINT.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(TINYINT)) {
+                    long value = tinyintPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        TINYINT.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(REAL)) {
+                    double value = realPartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        REAL.writeDouble(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(DOUBLE)) {
+                    double value = doublePartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        DOUBLE.writeDouble(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(VARCHAR)) {
+                    Slice value = Slices.wrappedBuffer(bytes);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        VARCHAR.writeSlice(blockBuilder, value);
+                    }
+                }
+                else if (type.equals(DATE)) {
+                    long value = datePartitionKey(partitionKey.getValue(), name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        DATE.writeLong(blockBuilder, value);
+                    }
+                }
+                else if (TIMESTAMP.equals(type)) {
+                    long value = timestampPartitionKey(partitionKey.getValue(), hiveStorageTimeZone, name);
+                    for (int i = 0; i < MAX_PAGE_SIZE; i++) {
+                        TIMESTAMP.writeLong(blockBuilder, value);
+                    }
+                }
+                else {
+                    throw new PrestoException(NOT_SUPPORTED, format("Unsupported column type %s for partition key: %s", type.getDisplayName(), name));
+                }
+
+                constantBlocks[columnIndex] = blockBuilder.build();
+            }
+            else {
+                int hiveColumnIndex = column.getHiveColumnIndex();
+                if (fieldsByHiveColumnIndex[hiveColumnIndex] < 0) {
+                    fieldsByHiveColumnIndex[hiveColumnIndex] = fieldCount;
+                    fieldCount++;
+                }
+                columnFields[columnIndex] = fieldsByHiveColumnIndex[hiveColumnIndex];
+            }
+        }
+        types = typesBuilder.build();
+        columnNames = namesBuilder.build();
+
+        fieldStarts = new int[fieldCount][MAX_PAGE_SIZE];
+        fieldLengths = new int[fieldCount][MAX_PAGE_SIZE];
+    }
+
+    @Override
+    public long getTotalBytes()
+    {
+        return length;
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        if (closed) {
+            return length;
+        }
+        try {
+            return Math.max(0, Math.min(length, fileInput.getPos() - start));
+        }
+        catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return closed;
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        try {
+            long readStart = System.nanoTime();
+            int lineCount = lineReader.readLines(endPosition);
+            readTimeNanos += System.nanoTime() - readStart;
+
+            if (lineCount == 0) {
+                close();
+                return null;
+            }
+
+            splitFields(lineCount);
+
+            byte[] buffer = lineReader.getBuffer();
+            Block[] blocks = new Block[types.size()];
+            for (int columnIndex = 0; columnIndex < blocks.length; columnIndex++) {
+                if (constantBlocks[columnIndex] != null) {
+                    blocks[columnIndex] = constantBlocks[columnIndex].getRegion(0, lineCount);
+                }
+                else {
+                    Type type = types.get(columnIndex);
+                    int field = columnFields[columnIndex];
+                    BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), lineCount);
+                    fieldDecoder.decodeColumn(type, blockBuilder, buffer, fieldStarts[field], fieldLengths[field], lineCount);
+                    blocks[columnIndex] = blockBuilder.build();
+                }
+            }
+            return new Page(lineCount, blocks);
+        }
+        catch (IOException | RuntimeException e) {
+            closeWithSuppression(e);
+            throw new PrestoException(HIVE_CURSOR_ERROR, e);
+        }
+    }
+
+    private void splitFields(int lineCount)
+    {
+        byte[] buffer = lineReader.getBuffer();
+        int maxHiveColumnIndex = fieldsByHiveColumnIndex.length - 1;
+        for (int line = 0; line < lineCount; line++) {
+            // lines with fewer fields than the schema have nulls for the missing ones
+            for (int[] starts : fieldStarts) {
+                starts[line] = -1;
+            }
+
+            int position = lineReader.getLineStart(line);
+            int end = position + lineReader.getLineLength(line);
+            int fieldStart = position;
+            int hiveColumnIndex = 0;
+            while (hiveColumnIndex <= maxHiveColumnIndex) {
+                if (position == end || buffer[position] == fieldDelimiter) {
+                    int field = fieldsByHiveColumnIndex[hiveColumnIndex];
+                    if (field >= 0) {
+                        fieldStarts[field][line] = fieldStart;
+                        fieldLengths[field][line] = position - fieldStart;
+                    }
+                    if (position == end) {
+                        break;
+                    }
+                    hiveColumnIndex++;
+                    position++;
+                    fieldStart = position;
+                }
+                else if (escaped && buffer[position] == escapeByte && position + 1 < end) {
+                    // the escaped byte can be a delimiter
+                    position += 2;
+                }
+                else {
+                    position++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            lineReader.close();
+        }
+        catch (IOException e) {
+            throw new PrestoException(HIVE_CURSOR_ERROR, e);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("columnNames", columnNames)
+                .add("types", types)
+                .toString();
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return lineReader.getRetainedSize() + 2L * fieldStarts.length * MAX_PAGE_SIZE * Integer.BYTES;
+    }
+
+    private void closeWithSuppression(Throwable throwable)
+    {
+        requireNonNull(throwable, "throwable is null");
+        try {
+            close();
+        }
+        catch (RuntimeException e) {
+            throwable.addSuppressed(e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.text;
+
+import com.facebook.presto.hive.HiveColumnHandle;
+import com.facebook.presto.hive.HivePageSourceFactory;
+import com.facebook.presto.hive.HivePartitionKey;
+import com.facebook.presto.hive.cache.HiveFileCache;
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.type.TypeManager;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.io.compress.SplittableCompressionCodec;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.joda.time.DateTimeZone;
+
+import javax.inject.Inject;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import static com.facebook.presto.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
+import static com.facebook.presto.hive.HiveSessionProperties.isTextOptimizedReaderEnabled;
+import static com.facebook.presto.hive.HiveUtil.isDeserializerClass;
+import static com.google.common.base.Strings.nullToEmpty;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.FILE_INPUT_FORMAT;
+import static org.apache.hadoop.hive.serde.serdeConstants.ESCAPE_CHAR;
+import static org.apache.hadoop.hive.serde.serdeConstants.FIELD_DELIM;
+import static org.apache.hadoop.hive.serde.serdeConstants.SERIALIZATION_FORMAT;
+import static org.apache.hadoop.hive.serde.serdeConstants.SERIALIZATION_NULL_FORMAT;
+
+public class TextPageSourceFactory
+        implements HivePageSourceFactory
+{
+    private static final String SERIALIZATION_ENCODING = "serialization.encoding";
+    private static final String SERIALIZATION_ESCAPE_CRLF = "serialization.escape.crlf";
+    private static final String SERIALIZATION_LAST_COLUMN_TAKES_REST = "serialization.last.column.takes.rest";
+    private static final String RECORD_DELIMITER = "textinputformat.record.delimiter";
+
+    private static final byte DEFAULT_FIELD_DELIMITER = 1;
+    private static final String DEFAULT_NULL_SEQUENCE = "\\N";
+    private static final int BUFFER_SIZE = (int) new DataSize(1, DataSize.Unit.MEGABYTE).toBytes();
+
+    private final TypeManager typeManager;
+    private final HiveFileCache fileCache;
+
+    @Inject
+    public TextPageSourceFactory(TypeManager typeManager, HiveFileCache fileCache)
+    {
+        this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+    }
+
+    @Override
+    public Optional<? extends ConnectorPageSource> createPageSource(
+            Configuration configuration,
+            ConnectorSession session,
+            Path path,
+            long start,
+            long length,
+            Properties schema,
+            List<HiveColumnHandle> columns,
+            List<HivePartitionKey> partitionKeys,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            DateTimeZone hiveStorageTimeZone)
+    {
+        if (!isTextOptimizedReaderEnabled(session)) {
+            return Optional.empty();
+        }
+
+        if (!isDeserializerClass(schema, LazySimpleSerDe.class) || !TextInputFormat.class.getName().equals(schema.getProperty(FILE_INPUT_FORMAT))) {
+            return Optional.empty();
+        }
+
+        // leave custom encodings, record delimiters and structural or parameterized types to the record cursor
+        String encoding = schema.getProperty(SERIALIZATION_ENCODING);
+        if ((encoding != null && !encoding.equalsIgnoreCase(UTF_8.name())) ||
+                Boolean.parseBoolean(schema.getProperty(SERIALIZATION_LAST_COLUMN_TAKES_REST)) ||
+                schema.getProperty(RECORD_DELIMITER) != null ||
+                configuration.get(RECORD_DELIMITER) != null) {
+            return Optional.empty();
+        }
+        for (HiveColumnHandle column : columns) {
+            if (!TextFieldDecoder.isSupportedType(typeManager.getType(column.getTypeSignature()))) {
+                return Optional.empty();
+            }
+        }
+
+        byte fieldDelimiter = getByte(schema.getProperty(FIELD_DELIM, schema.getProperty(SERIALIZATION_FORMAT)), DEFAULT_FIELD_DELIMITER);
+        String escapeProperty = schema.getProperty(ESCAPE_CHAR);
+        boolean escaped = escapeProperty != null;
+        byte escapeByte = getByte(escapeProperty, (byte) '\\');
+        boolean escapeCrLf = Boolean.parseBoolean(schema.getProperty(SERIALIZATION_ESCAPE_CRLF));
+        byte[] nullSequence = schema.getProperty(SERIALIZATION_NULL_FORMAT, DEFAULT_NULL_SEQUENCE).getBytes(UTF_8);
+
+        FSDataInputStream fileInput;
+        InputStream input;
+        long endPosition;
+        Decompressor decompressor = null;
+        try {
+            FileSystem fileSystem = fileCache.getFileSystem(path, configuration);
+            CompressionCodec codec = new CompressionCodecFactory(configuration).getCodec(path);
+            if (codec != null) {
+                // compressed files are only read as a whole, splittable codecs have to go through the input format
+                if (start != 0 || (codec instanceof SplittableCompressionCodec && fileSystem.getFileStatus(path).getLen() != length)) {
+                    return Optional.empty();
+                }
+                fileInput = fileSystem.open(path);
+                decompressor = CodecPool.getDecompressor(codec);
+                input = new DecompressorReleasingInputStream(codec.createInputStream(fileInput, decompressor), decompressor);
+                endPosition = Long.MAX_VALUE;
+            }
+            else {
+                fileInput = fileSystem.open(path);
+                fileInput.seek(start);
+                input = fileInput;
+                endPosition = start + length;
+            }
+        }
+        catch (Exception e) {
+            if (decompressor != null) {
+                CodecPool.returnDecompressor(decompressor);
+            }
+            if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
+                    e instanceof FileNotFoundException) {
+                throw new PrestoException(HIVE_CANNOT_OPEN_SPLIT, e);
+            }
+            throw new PrestoException(HIVE_CANNOT_OPEN_SPLIT, splitError(e, path, start, length), e);
+        }
+
+        TextLineReader lineReader = new TextLineReader(input, start, BUFFER_SIZE, TextPageSource.MAX_PAGE_SIZE);
+        try {
+            if (start != 0) {
+                // the partial first line belongs to the previous split
+                lineReader.skipLine();
+            }
+
+            return Optional.of(new TextPageSource(
+                    lineReader,
+                    fileInput,
+                    start,
+                    length,
+                    endPosition,
+                    fieldDelimiter,
+                    escaped,
+                    escapeByte,
+                    new TextFieldDecoder(nullSequence, escaped, escapeByte, escapeCrLf, hiveStorageTimeZone),
+                    partitionKeys,
+                    columns,
+                    hiveStorageTimeZone,
+                    typeManager));
+        }
+        catch (Exception e) {
+            try {
+                lineReader.close();
+            }
+            catch (Exception ignored) {
+            }
+            throw new PrestoException(HIVE_CANNOT_OPEN_SPLIT, splitError(e, path, start, length), e);
+        }
+    }
+
+    /**
+     * Parses a delimiter property the same way as the LazySimpleSerDe: either a
+     * decimal byte value or the first character of the value.
+     */
+    private static byte getByte(String value, byte defaultValue)
+    {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Byte.parseByte(value);
+        }
+        catch (NumberFormatException e) {
+            return (byte) value.charAt(0);
+        }
+    }
+
+    private static String splitError(Throwable t, Path path, long start, long length)
+    {
+        return format("Error opening Hive split %s (offset=%s, length=%s): %s", path, start, length, t.getMessage());
+    }
+
+    private static class DecompressorReleasingInputStream
+            extends FilterInputStream
+    {
+        private Decompressor decompressor;
+
+        public DecompressorReleasingInputStream(InputStream input, Decompressor decompressor)
+        {
+            super(requireNonNull(input, "input is null"));
+            // codecs without a pooled decompressor return null
+            this.decompressor = decompressor;
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            try {
+                super.close();
+            }
+            finally {
+                if (decompressor != null) {
+                    CodecPool.returnDecompressor(decompressor);
+                    decompressor = null;
+                }
+            }
+        }
+    }
+}
@@ -22,7 +22,11 @@ import com.facebook.presto.spi.type.BooleanType;
 import com.facebook.presto.spi.type.DateType;
 import com.facebook.presto.spi.type.DecimalType;
 import com.facebook.presto.spi.type.DoubleType;
+import com.facebook.presto.spi.type.IntegerType;
+import com.facebook.presto.spi.type.RealType;
+import com.facebook.presto.spi.type.SmallintType;
 import com.facebook.presto.spi.type.TimestampType;
+import com.facebook.presto.spi.type.TinyintType;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.VarcharType;
 import io.airlift.slice.Slices;
@@ -101,19 +105,19 @@ public final class SerDeUtils
                 BooleanType.BOOLEAN.writeBoolean(builder, ((BooleanObjectInspector) inspector).get(object));
                 return;
             case BYTE:
-                BigintType.BIGINT.writeLong(builder, ((ByteObjectInspector) inspector).get(object));
+                TinyintType.TINYINT.writeLong(builder, ((ByteObjectInspector) inspector).get(object));
                 return;
             case SHORT:
-                BigintType.BIGINT.writeLong(builder, ((ShortObjectInspector) inspector).get(object));
+                SmallintType.SMALLINT.writeLong(builder, ((ShortObjectInspector) inspector).get(object));
                 return;
             case INT:
-                BigintType.BIGINT.writeLong(builder, ((IntObjectInspector) inspector).get(object));
+                IntegerType.INTEGER.writeLong(builder, ((IntObjectInspector) inspector).get(object));
                 return;
             case LONG:
                 BigintType.BIGINT.writeLong(builder, ((LongObjectInspector) inspector).get(object));
                 return;
             case FLOAT:
-                DoubleType.DOUBLE.writeDouble(builder, ((FloatObjectInspector) inspector).get(object));
+                RealType.REAL.writeDouble(builder, ((FloatObjectInspector) inspector).get(object));
                 return;
             case DOUBLE:
                 DoubleType.DOUBLE.writeDouble(builder, ((DoubleObjectInspector) inspector).get(object));
@@ -141,11 +141,15 @@ import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DecimalType.createDecimalType;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.HyperLogLogType.HYPER_LOG_LOG;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.StandardTypes.ARRAY;
 import static com.facebook.presto.spi.type.StandardTypes.MAP;
 import static com.facebook.presto.spi.type.StandardTypes.ROW;
 import static com.facebook.presto.spi.type.TimeZoneKey.UTC_KEY;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
@@ -342,8 +346,8 @@ public abstract class AbstractTestHiveClient
 
         dsColumn = new HiveColumnHandle(connectorId, "ds", HIVE_STRING, parseTypeSignature(StandardTypes.VARCHAR), -1, true);
         fileFormatColumn = new HiveColumnHandle(connectorId, "file_format", HIVE_STRING, parseTypeSignature(StandardTypes.VARCHAR), -1, true);
-        dummyColumn = new HiveColumnHandle(connectorId, "dummy", HIVE_INT, parseTypeSignature(StandardTypes.BIGINT), -1, true);
-        intColumn = new HiveColumnHandle(connectorId, "t_int", HIVE_INT, parseTypeSignature(StandardTypes.BIGINT), -1, true);
+        dummyColumn = new HiveColumnHandle(connectorId, "dummy", HIVE_INT, parseTypeSignature(StandardTypes.INTEGER), -1, true);
+        intColumn = new HiveColumnHandle(connectorId, "t_int", HIVE_INT, parseTypeSignature(StandardTypes.INTEGER), -1, true);
         invalidColumnHandle = new HiveColumnHandle(connectorId, INVALID_COLUMN, HIVE_STRING, parseTypeSignature(StandardTypes.VARCHAR), 0, false);
 
         insertTableDestination = new SchemaTableName(database, "presto_insert_destination");
@@ -502,7 +506,8 @@ public abstract class AbstractTestHiveClient
                 hiveClientConfig.getMaxSplitSize(),
                 hiveClientConfig.getMaxInitialSplitSize(),
                 hiveClientConfig.getMaxInitialSplits(),
-                false
+                false,
+                Optional.empty()
         );
         pageSinkProvider = new HivePageSinkProvider(hdfsEnvironment, metastoreClient, new GroupByHashPageIndexerFactory(), typeManager, new HiveClientConfig(), locationService, partitionUpdateCodec);
         pageSourceProvider = new HivePageSourceProvider(hiveClientConfig, hdfsEnvironment, getDefaultHiveRecordCursorProvider(hiveClientConfig), getDefaultHiveDataStreamFactories(hiveClientConfig), TYPE_MANAGER);
@@ -672,11 +677,11 @@ public abstract class AbstractTestHiveClient
 
         assertPrimitiveField(map, "t_string", VARCHAR, false);
         assertPrimitiveField(map, "t_varchar", VARCHAR, false);
-        assertPrimitiveField(map, "t_tinyint", BIGINT, false);
-        assertPrimitiveField(map, "t_smallint", BIGINT, false);
-        assertPrimitiveField(map, "t_int", BIGINT, false);
+        assertPrimitiveField(map, "t_tinyint", TINYINT, false);
+        assertPrimitiveField(map, "t_smallint", SMALLINT, false);
+        assertPrimitiveField(map, "t_int", INTEGER, false);
         assertPrimitiveField(map, "t_bigint", BIGINT, false);
-        assertPrimitiveField(map, "t_float", DOUBLE, false);
+        assertPrimitiveField(map, "t_float", REAL, false);
         assertPrimitiveField(map, "t_double", DOUBLE, false);
         assertPrimitiveField(map, "t_boolean", BOOLEAN, false);
         assertPrimitiveField(map, "ds", VARCHAR, true);
@@ -693,7 +698,7 @@ public abstract class AbstractTestHiveClient
         Map<String, ColumnMetadata> map = uniqueIndex(tableMetadata.getColumns(), ColumnMetadata::getName);
 
         assertPrimitiveField(map, "t_string", VARCHAR, false);
-        assertPrimitiveField(map, "t_tinyint", BIGINT, false);
+        assertPrimitiveField(map, "t_tinyint", TINYINT, false);
     }
 
     @Test
@@ -824,9 +829,9 @@ public abstract class AbstractTestHiveClient
 
         // Reverse the order of bindings as compared to bucketing order
         ImmutableMap<ColumnHandle, NullableValue> bindings = ImmutableMap.<ColumnHandle, NullableValue>builder()
-                .put(columnHandles.get(columnIndex.get("t_int")), NullableValue.of(BIGINT, testInt))
+                .put(columnHandles.get(columnIndex.get("t_int")), NullableValue.of(INTEGER, testInt))
                 .put(columnHandles.get(columnIndex.get("t_string")), NullableValue.of(VARCHAR, utf8Slice(testString)))
-                .put(columnHandles.get(columnIndex.get("t_smallint")), NullableValue.of(BIGINT, testSmallint))
+                .put(columnHandles.get(columnIndex.get("t_smallint")), NullableValue.of(SMALLINT, testSmallint))
                 .build();
 
         MaterializedResult result = readTable(tableHandle, columnHandles, session, TupleDomain.fromFixedValues(bindings), OptionalInt.of(1), Optional.empty());
@@ -834,8 +839,8 @@ public abstract class AbstractTestHiveClient
         boolean rowFound = false;
         for (MaterializedRow row : result) {
             if (testString.equals(row.getField(columnIndex.get("t_string"))) &&
-                    testInt.equals(row.getField(columnIndex.get("t_int"))) &&
-                    testSmallint.equals(row.getField(columnIndex.get("t_smallint")))) {
+                    testInt.equals(((Number) row.getField(columnIndex.get("t_int"))).longValue()) &&
+                    testSmallint.equals(((Number) row.getField(columnIndex.get("t_smallint"))).longValue())) {
                 rowFound = true;
             }
         }
@@ -892,7 +897,7 @@ public abstract class AbstractTestHiveClient
         assertTableIsBucketed(tableHandle);
 
         ImmutableMap<ColumnHandle, NullableValue> bindings = ImmutableMap.<ColumnHandle, NullableValue>builder()
-                .put(columnHandles.get(columnIndex.get("t_float")), NullableValue.of(DOUBLE, 87.1))
+                .put(columnHandles.get(columnIndex.get("t_float")), NullableValue.of(REAL, 87.1))
                 .put(columnHandles.get(columnIndex.get("t_double")), NullableValue.of(DOUBLE, 88.2))
                 .build();
 
@@ -983,9 +988,9 @@ public abstract class AbstractTestHiveClient
                         assertEquals(value, "test varchar");
                     }
 
-                    assertEquals(row.getField(columnIndex.get("t_tinyint")), 1 + rowNumber);
-                    assertEquals(row.getField(columnIndex.get("t_smallint")), 2 + rowNumber);
-                    assertEquals(row.getField(columnIndex.get("t_int")), 3 + rowNumber);
+                    assertEquals(row.getField(columnIndex.get("t_tinyint")), (byte) (1 + rowNumber));
+                    assertEquals(row.getField(columnIndex.get("t_smallint")), (short) (2 + rowNumber));
+                    assertEquals(row.getField(columnIndex.get("t_int")), (int) (3 + rowNumber));
 
                     if (rowNumber % 13 == 0) {
                         assertNull(row.getField(columnIndex.get("t_bigint")));
@@ -994,7 +999,7 @@ public abstract class AbstractTestHiveClient
                         assertEquals(row.getField(columnIndex.get("t_bigint")), 4 + rowNumber);
                     }
 
-                    assertEquals((Double) row.getField(columnIndex.get("t_float")), 5.1 + rowNumber, 0.001);
+                    assertEquals((Float) row.getField(columnIndex.get("t_float")), 5.1 + rowNumber, 0.001);
                     assertEquals(row.getField(columnIndex.get("t_double")), 6.2 + rowNumber);
 
                     if (rowNumber % 3 == 2) {
@@ -1095,7 +1100,7 @@ public abstract class AbstractTestHiveClient
                         assertEquals(row.getField(columnIndex.get("t_string")), "unpartitioned");
                     }
 
-                    assertEquals(row.getField(columnIndex.get("t_tinyint")), 1 + rowNumber);
+                    assertEquals(row.getField(columnIndex.get("t_tinyint")), (byte) (1 + rowNumber));
                 }
             }
             assertEquals(rowNumber, 100);
@@ -2137,9 +2142,9 @@ public abstract class AbstractTestHiveClient
                 }
 
                 // NUMBERS
-                assertEquals(row.getField(columnIndex.get("t_tinyint")), 1 + rowNumber);
-                assertEquals(row.getField(columnIndex.get("t_smallint")), 2 + rowNumber);
-                assertEquals(row.getField(columnIndex.get("t_int")), 3 + rowNumber);
+                assertEquals(row.getField(columnIndex.get("t_tinyint")), (byte) (1 + rowNumber));
+                assertEquals(row.getField(columnIndex.get("t_smallint")), (short) (2 + rowNumber));
+                assertEquals(row.getField(columnIndex.get("t_int")), (int) (3 + rowNumber));
 
                 index = columnIndex.get("t_bigint");
                 if ((rowNumber % 13) == 0) {
@@ -2149,7 +2154,7 @@ public abstract class AbstractTestHiveClient
                     assertEquals(row.getField(index), 4 + rowNumber);
                 }
 
-                assertEquals((Double) row.getField(columnIndex.get("t_float")), 5.1 + rowNumber, 0.001);
+                assertEquals((Float) row.getField(columnIndex.get("t_float")), 5.1 + rowNumber, 0.001);
                 assertEquals(row.getField(columnIndex.get("t_double")), 6.2 + rowNumber);
 
                 // DECIMAL
@@ -69,10 +69,13 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.OptionalInt;
 import java.util.Properties;
 
+import static com.facebook.presto.hive.HiveTestUtils.NO_ORC_METADATA_CACHE;
 import static com.facebook.presto.hive.HiveTestUtils.SESSION;
 import static com.facebook.presto.hive.HiveUtil.setReadColumns;
+import static com.facebook.presto.hive.cache.HiveFileCache.DISABLED;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
@@ -180,7 +183,7 @@ public final class BenchmarkHiveFileFormats
                                 .add(new ColumnarBinaryHiveRecordCursorProvider())
                                 .build(),
                         ImmutableList.<HivePageSourceFactory>builder()
-                                .add(new RcFilePageSourceFactory(TYPE_MANAGER))
+                                .add(new RcFilePageSourceFactory(TYPE_MANAGER, DISABLED))
                                 .build()))
 
                 .add(new BenchmarkFile(
@@ -192,7 +195,7 @@ public final class BenchmarkHiveFileFormats
                                 .add(new ColumnarTextHiveRecordCursorProvider())
                                 .build(),
                         ImmutableList.<HivePageSourceFactory>builder()
-                                .add(new RcFilePageSourceFactory(TYPE_MANAGER))
+                                .add(new RcFilePageSourceFactory(TYPE_MANAGER, DISABLED))
                                 .build()))
 
                 .add(new BenchmarkFile(
@@ -213,7 +216,7 @@ public final class BenchmarkHiveFileFormats
                         new com.facebook.hive.orc.OrcSerde(),
                         ImmutableList.of(),
                         ImmutableList.<HivePageSourceFactory>builder()
-                                .add(new DwrfPageSourceFactory(TYPE_MANAGER))
+                                .add(new DwrfPageSourceFactory(TYPE_MANAGER, NO_ORC_METADATA_CACHE, DISABLED))
                                 .build()))
 
                 .add(new BenchmarkFile(
@@ -223,7 +226,7 @@ public final class BenchmarkHiveFileFormats
                         new org.apache.hadoop.hive.ql.io.orc.OrcSerde(),
                         ImmutableList.of(),
                         ImmutableList.<HivePageSourceFactory>builder()
-                                .add(new OrcPageSourceFactory(TYPE_MANAGER, false))
+                                .add(new OrcPageSourceFactory(TYPE_MANAGER, false, NO_ORC_METADATA_CACHE, DISABLED))
                                 .build()))
                 .build();
 
@@ -1669,7 +1672,8 @@ public final class BenchmarkHiveFileFormats
                 ImmutableList.<HivePartitionKey>of(),
                 ImmutableList.<HostAddress>of(),
                 false,
-                TupleDomain.<HiveColumnHandle>all());
+                TupleDomain.<HiveColumnHandle>all(),
+                OptionalInt.empty());
     }
 
     private static List<HiveColumnHandle> getHiveColumnHandles(TpchColumn<?>... tpchColumns)
@@ -15,8 +15,11 @@ package com.facebook.presto.hive;
 
 import com.facebook.presto.hive.orc.DwrfPageSourceFactory;
 import com.facebook.presto.hive.orc.OrcPageSourceFactory;
+import com.facebook.presto.hive.orc.OrcPageSourceStats;
 import com.facebook.presto.hive.parquet.ParquetRecordCursorProvider;
 import com.facebook.presto.hive.rcfile.RcFilePageSourceFactory;
+import com.facebook.presto.hive.text.TextPageSourceFactory;
+import com.facebook.presto.orc.OrcMetadataCache;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.type.Type;
@@ -24,10 +27,15 @@ import com.facebook.presto.testing.TestingConnectorSession;
 import com.facebook.presto.type.TypeRegistry;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
 
 import java.util.List;
 import java.util.Set;
 
+import static com.facebook.presto.hive.cache.HiveFileCache.DISABLED;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.units.DataSize.Unit.BYTE;
+
 public final class HiveTestUtils
 {
     private HiveTestUtils()
@@ -39,12 +47,16 @@ public final class HiveTestUtils
 
     public static final TypeRegistry TYPE_MANAGER = new TypeRegistry();
 
+    public static final OrcMetadataCache NO_ORC_METADATA_CACHE = new OrcMetadataCache(new DataSize(0, BYTE));
+
     public static Set<HivePageSourceFactory> getDefaultHiveDataStreamFactories(HiveClientConfig hiveClientConfig)
     {
+        OrcMetadataCache orcMetadataCache = new OrcMetadataCache(hiveClientConfig.getOrcMetadataCacheSize());
         return ImmutableSet.<HivePageSourceFactory>builder()
-                .add(new RcFilePageSourceFactory(TYPE_MANAGER))
-                .add(new OrcPageSourceFactory(TYPE_MANAGER, hiveClientConfig))
-                .add(new DwrfPageSourceFactory(TYPE_MANAGER))
+                .add(new RcFilePageSourceFactory(TYPE_MANAGER, DISABLED))
+                .add(new OrcPageSourceFactory(TYPE_MANAGER, hiveClientConfig, orcMetadataCache, DISABLED, newDirectExecutorService(), new OrcPageSourceStats()))
+                .add(new DwrfPageSourceFactory(TYPE_MANAGER, orcMetadataCache, DISABLED, newDirectExecutorService(), new OrcPageSourceStats()))
+                .add(new TextPageSourceFactory(TYPE_MANAGER, DISABLED))
                 .build();
     }
 
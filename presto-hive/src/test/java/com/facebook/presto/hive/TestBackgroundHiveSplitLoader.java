@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.spi.ConnectorSplit;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.type.StandardTypes;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hadoop.hive.metastore.api.SerDeInfo;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.hive.ql.io.HiveIgnoreKeyTextOutputFormat;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.mapred.TextInputFormat;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static com.facebook.presto.hive.HiveBucketing.HiveBucket;
+import static com.facebook.presto.hive.HiveErrorCode.HIVE_INVALID_BUCKET_FILES;
+import static com.facebook.presto.hive.HiveTestUtils.SESSION;
+import static com.facebook.presto.hive.HiveType.HIVE_LONG;
+import static com.facebook.presto.hive.UnpartitionedPartition.UNPARTITIONED_PARTITION;
+import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestBackgroundHiveSplitLoader
+{
+    private static final String CLIENT_ID = "test";
+    private static final SchemaTableName TABLE_NAME = new SchemaTableName("test_schema", "test_table");
+    private static final HiveColumnHandle BUCKET_COLUMN = new HiveColumnHandle(CLIENT_ID, "key", HIVE_LONG, parseTypeSignature(StandardTypes.BIGINT), 0, false);
+
+    private File temporary;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        temporary = Files.createTempDir();
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        deleteRecursively(temporary);
+    }
+
+    @Test
+    public void testBucketNumbersFollowSortedFileNames()
+            throws Exception
+    {
+        // the files are created out of order, the bucket number is the position of the file in the sorted listing
+        writeFiles("000002_0", "000000_0", "000001_0");
+
+        Map<String, Integer> bucketNumbers = getBucketNumbers(loadSplits(3, Optional.empty()));
+        assertEquals(bucketNumbers, ImmutableMap.of("000000_0", 0, "000001_0", 1, "000002_0", 2));
+    }
+
+    @Test
+    public void testBucketPruning()
+            throws Exception
+    {
+        writeFiles("000002_0", "000000_0", "000001_0");
+
+        Map<String, Integer> bucketNumbers = getBucketNumbers(loadSplits(3, Optional.of(new HiveBucket(1, 3))));
+        assertEquals(bucketNumbers, ImmutableMap.of("000001_0", 1));
+    }
+
+    @Test
+    public void testBucketFileCountMismatch()
+            throws IOException
+    {
+        writeFiles("000000_0", "000001_0");
+
+        try {
+            loadSplits(3, Optional.empty());
+            fail("expected exception");
+        }
+        catch (PrestoException e) {
+            assertEquals(e.getErrorCode(), HIVE_INVALID_BUCKET_FILES.toErrorCode());
+        }
+    }
+
+    private void writeFiles(String... names)
+            throws IOException
+    {
+        for (String name : names) {
+            Files.write(name + "\n", new File(temporary, name), UTF_8);
+        }
+    }
+
+    private List<ConnectorSplit> loadSplits(int bucketCount, Optional<HiveBucket> bucket)
+    {
+        HiveClientConfig hiveClientConfig = new HiveClientConfig();
+        HdfsEnvironment hdfsEnvironment = new HdfsEnvironment(new HiveHdfsConfiguration(new HdfsConfigurationUpdater(hiveClientConfig)), hiveClientConfig);
+        HivePartitionMetadata partition = new HivePartitionMetadata(new HivePartition(TABLE_NAME, TupleDomain.all()), UNPARTITIONED_PARTITION);
+
+        BackgroundHiveSplitLoader splitLoader = new BackgroundHiveSplitLoader(
+                CLIENT_ID,
+                createTable(bucketCount),
+                ImmutableList.of(partition),
+                bucket,
+                Optional.of(new HiveBucketHandle(ImmutableList.of(BUCKET_COLUMN), bucketCount)),
+                new DataSize(1, GIGABYTE),
+                SESSION,
+                hdfsEnvironment,
+                new NamenodeStats(),
+                new HadoopDirectoryLister(),
+                directExecutor(),
+                1,
+                new DataSize(1, GIGABYTE),
+                0,
+                false,
+                Optional.empty());
+
+        // the direct executor loads all splits before start returns
+        HiveSplitSource splitSource = new HiveSplitSource(CLIENT_ID, 1000, splitLoader, directExecutor());
+        splitLoader.start(splitSource);
+
+        List<ConnectorSplit> splits = getFutureValue(splitSource.getNextBatch(1000));
+        assertTrue(splitSource.isFinished());
+        return splits;
+    }
+
+    private Table createTable(int bucketCount)
+    {
+        StorageDescriptor storageDescriptor = new StorageDescriptor();
+        storageDescriptor.setCols(ImmutableList.of(new FieldSchema(BUCKET_COLUMN.getName(), HIVE_LONG.getHiveTypeName(), null)));
+        storageDescriptor.setLocation(temporary.toURI().toString());
+        storageDescriptor.setInputFormat(TextInputFormat.class.getName());
+        storageDescriptor.setOutputFormat(HiveIgnoreKeyTextOutputFormat.class.getName());
+        storageDescriptor.setSerdeInfo(new SerDeInfo(null, LazySimpleSerDe.class.getName(), ImmutableMap.of()));
+        storageDescriptor.setBucketCols(ImmutableList.of(BUCKET_COLUMN.getName()));
+        storageDescriptor.setNumBuckets(bucketCount);
+
+        Table table = new Table();
+        table.setDbName(TABLE_NAME.getSchemaName());
+        table.setTableName(TABLE_NAME.getTableName());
+        table.setSd(storageDescriptor);
+        table.setPartitionKeys(ImmutableList.of());
+        table.setParameters(ImmutableMap.of());
+        return table;
+    }
+
+    private static Map<String, Integer> getBucketNumbers(List<ConnectorSplit> splits)
+    {
+        Map<String, Integer> bucketNumbers = new HashMap<>();
+        for (ConnectorSplit split : splits) {
+            HiveSplit hiveSplit = (HiveSplit) split;
+            OptionalInt bucketNumber = hiveSplit.getBucketNumber();
+            assertTrue(bucketNumber.isPresent());
+            String fileName = hiveSplit.getPath().substring(hiveSplit.getPath().lastIndexOf('/') + 1);
+            bucketNumbers.put(fileName, bucketNumber.getAsInt());
+        }
+        return bucketNumbers;
+    }
+}
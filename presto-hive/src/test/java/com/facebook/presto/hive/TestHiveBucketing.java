@@ -15,6 +15,7 @@ package com.facebook.presto.hive;
 
 import com.facebook.presto.hadoop.shaded.com.google.common.collect.Maps;
 import com.facebook.presto.hadoop.shaded.com.google.common.primitives.Ints;
+import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
@@ -42,12 +43,14 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static com.facebook.presto.hive.HiveBucketing.HiveBucket;
 import static com.facebook.presto.hive.util.Types.checkType;
+import static com.facebook.presto.spi.type.TypeUtils.writeNativeValue;
 import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
 import static com.google.common.collect.Maps.immutableEntry;
 import static io.airlift.slice.Slices.utf8Slice;
@@ -167,6 +170,63 @@ public class TestHiveBucketing
         );
     }
 
+    @Test
+    public void testBucketFunctionMatchesBucketPruning()
+    {
+        // the bucket function must place rows in the same bucket that split pruning reads for a bound value
+        assertBucketFunctionEquals(HiveType.HIVE_BOOLEAN, true, false);
+        assertBucketFunctionEquals(HiveType.HIVE_BYTE, 5L, (long) Byte.MIN_VALUE, (long) Byte.MAX_VALUE);
+        assertBucketFunctionEquals(HiveType.HIVE_SHORT, 300L, (long) Short.MIN_VALUE, (long) Short.MAX_VALUE);
+        assertBucketFunctionEquals(HiveType.HIVE_INT, 300_000L, (long) Integer.MIN_VALUE, (long) Integer.MAX_VALUE);
+        assertBucketFunctionEquals(HiveType.HIVE_LONG, 300_000_000_000L, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertBucketFunctionEquals(HiveType.HIVE_STRING, utf8Slice(""), utf8Slice("test string"), utf8Slice("\u5f3a\u5927\u7684Presto\u5f15\u64ce"));
+
+        // multiple bucketing columns
+        List<HiveType> hiveTypes = ImmutableList.of(HiveType.HIVE_LONG, HiveType.HIVE_STRING, HiveType.HIVE_BOOLEAN);
+        List<List<Object>> rows = ImmutableList.of(
+                ImmutableList.of(123L, utf8Slice("abc"), true),
+                ImmutableList.of(-5L, utf8Slice(""), false),
+                ImmutableList.of(Long.MAX_VALUE, utf8Slice("\u5f3a\u5927"), true));
+        assertBucketFunctionEquals(hiveTypes, rows);
+    }
+
+    private static void assertBucketFunctionEquals(HiveType hiveType, Object... values)
+    {
+        assertBucketFunctionEquals(
+                ImmutableList.of(hiveType),
+                Arrays.stream(values)
+                        .map(ImmutableList::of)
+                        .collect(toImmutableList()));
+    }
+
+    private static void assertBucketFunctionEquals(List<HiveType> hiveTypes, List<List<Object>> rows)
+    {
+        Block[] blocks = new Block[hiveTypes.size()];
+        for (int channel = 0; channel < hiveTypes.size(); channel++) {
+            Type type = hiveTypes.get(channel).getType(typeRegistry);
+            BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), rows.size());
+            for (List<Object> row : rows) {
+                writeNativeValue(type, blockBuilder, row.get(channel));
+            }
+            blocks[channel] = blockBuilder.build();
+        }
+        Page page = new Page(blocks);
+
+        for (int bucketCount : new int[] {1, 2, 500, 997}) {
+            HiveBucketFunction bucketFunction = new HiveBucketFunction(bucketCount, hiveTypes);
+            for (int position = 0; position < rows.size(); position++) {
+                ImmutableList.Builder<Entry<ObjectInspector, Object>> bindings = ImmutableList.builder();
+                for (int channel = 0; channel < hiveTypes.size(); channel++) {
+                    ObjectInspector inspector = TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(hiveTypes.get(channel).getTypeInfo());
+                    bindings.add(entry(inspector, rows.get(position).get(channel)));
+                }
+                Optional<HiveBucket> expected = HiveBucketing.getHiveBucket(bindings.build(), bucketCount);
+                assertTrue(expected.isPresent());
+                assertEquals(bucketFunction.getBucket(page, position), expected.get().getBucketNumber());
+            }
+        }
+    }
+
     private static void assertBucketEquals(String hiveTypeStrings, Object javaValues)
             throws HiveException
     {
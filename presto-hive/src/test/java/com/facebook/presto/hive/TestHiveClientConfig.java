@@ -93,6 +93,16 @@ public class TestHiveClientConfig
                 .setOrcMaxMergeDistance(new DataSize(1, Unit.MEGABYTE))
                 .setOrcMaxBufferSize(new DataSize(8, Unit.MEGABYTE))
                 .setOrcStreamBufferSize(new DataSize(8, Unit.MEGABYTE))
+                .setOrcMetadataCacheSize(new DataSize(64, Unit.MEGABYTE))
+                .setOrcStripePrefetchEnabled(false)
+                .setOrcStripePrefetchThreads(16)
+                .setOrcOptimizedWriterEnabled(false)
+                .setTextOptimizedReaderEnabled(false)
+                .setBucketExecutionEnabled(true)
+                .setFileCacheEnabled(false)
+                .setFileCacheDirectory(new File(StandardSystemProperty.JAVA_IO_TMPDIR.value(), "presto-hive-file-cache"))
+                .setFileCacheMaxSize(new DataSize(10, Unit.GIGABYTE))
+                .setFileCacheBlockSize(new DataSize(1, Unit.MEGABYTE))
                 .setHiveMetastoreAuthenticationType(HiveClientConfig.HiveMetastoreAuthenticationType.SIMPLE)
                 .setHiveMetastorePrincipal(null)
                 .setHiveMetastorePrestoPrincipal(null)
@@ -164,6 +174,16 @@ public class TestHiveClientConfig
                 .put("hive.orc.max-merge-distance", "22kB")
                 .put("hive.orc.max-buffer-size", "44kB")
                 .put("hive.orc.stream-buffer-size", "55kB")
+                .put("hive.orc.metadata-cache-size", "16MB")
+                .put("hive.orc.stripe-prefetch.enabled", "true")
+                .put("hive.orc.stripe-prefetch.threads", "4")
+                .put("hive.orc.optimized-writer.enabled", "true")
+                .put("hive.text.optimized-reader.enabled", "true")
+                .put("hive.bucket-execution-enabled", "false")
+                .put("hive.file-cache.enabled", "true")
+                .put("hive.file-cache.directory", "/ssd/cache")
+                .put("hive.file-cache.max-size", "100GB")
+                .put("hive.file-cache.block-size", "4MB")
                 .put("hive.metastore.authentication.type", "SASL")
                 .put("hive.metastore.principal", "hive/_HOST@EXAMPLE.COM")
                 .put("hive.metastore.presto.principal", "metastore@EXAMPLE.COM")
@@ -232,6 +252,16 @@ public class TestHiveClientConfig
                 .setOrcMaxMergeDistance(new DataSize(22, Unit.KILOBYTE))
                 .setOrcMaxBufferSize(new DataSize(44, Unit.KILOBYTE))
                 .setOrcStreamBufferSize(new DataSize(55, Unit.KILOBYTE))
+                .setOrcMetadataCacheSize(new DataSize(16, Unit.MEGABYTE))
+                .setOrcStripePrefetchEnabled(true)
+                .setOrcStripePrefetchThreads(4)
+                .setOrcOptimizedWriterEnabled(true)
+                .setTextOptimizedReaderEnabled(true)
+                .setBucketExecutionEnabled(false)
+                .setFileCacheEnabled(true)
+                .setFileCacheDirectory(new File("/ssd/cache"))
+                .setFileCacheMaxSize(new DataSize(100, Unit.GIGABYTE))
+                .setFileCacheBlockSize(new DataSize(4, Unit.MEGABYTE))
                 .setHiveMetastoreAuthenticationType(HiveClientConfig.HiveMetastoreAuthenticationType.SASL)
                 .setHiveMetastorePrincipal("hive/_HOST@EXAMPLE.COM")
                 .setHiveMetastorePrestoPrincipal("metastore@EXAMPLE.COM")
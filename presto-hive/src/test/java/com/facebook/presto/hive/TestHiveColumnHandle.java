@@ -27,7 +27,7 @@ public class TestHiveColumnHandle
     @Test
     public void testRoundTrip()
     {
-        HiveColumnHandle expected = new HiveColumnHandle("client", "name", HiveType.HIVE_FLOAT, parseTypeSignature(StandardTypes.DOUBLE), 88, true);
+        HiveColumnHandle expected = new HiveColumnHandle("client", "name", HiveType.HIVE_FLOAT, parseTypeSignature(StandardTypes.REAL), 88, true);
 
         String json = codec.toJson(expected);
         HiveColumnHandle actual = codec.fromJson(json);
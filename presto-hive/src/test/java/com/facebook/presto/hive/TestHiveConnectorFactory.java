@@ -14,6 +14,7 @@
 package com.facebook.presto.hive;
 
 import com.facebook.presto.GroupByHashPageIndexerFactory;
+import com.facebook.presto.metadata.InMemoryNodeManager;
 import com.facebook.presto.spi.Connector;
 import com.facebook.presto.spi.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.classloader.ClassLoaderSafeConnectorMetadata;
@@ -53,7 +54,8 @@ public class TestHiveConnectorFactory
                 HiveConnector.class.getClassLoader(),
                 null,
                 new TypeRegistry(),
-                new GroupByHashPageIndexerFactory());
+                new GroupByHashPageIndexerFactory(),
+                new InMemoryNodeManager());
 
         Connector connector = connectorFactory.create("hive-test", ImmutableMap.<String, String>of());
         assertInstanceOf(connector.getMetadata(), ClassLoaderSafeConnectorMetadata.class);
@@ -19,17 +19,22 @@ import com.facebook.presto.hive.orc.OrcPageSourceFactory;
 import com.facebook.presto.hive.parquet.ParquetPageSourceFactory;
 import com.facebook.presto.hive.parquet.ParquetRecordCursorProvider;
 import com.facebook.presto.hive.rcfile.RcFilePageSourceFactory;
+import com.facebook.presto.hive.text.TextPageSourceFactory;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.testing.MaterializedResult;
+import com.facebook.presto.testing.MaterializedRow;
 import com.facebook.presto.testing.TestingConnectorSession;
 import com.facebook.presto.type.ArrayType;
 import com.facebook.presto.type.RowType;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.HiveIgnoreKeyTextOutputFormat;
 import org.apache.hadoop.hive.ql.io.HiveOutputFormat;
 import org.apache.hadoop.hive.ql.io.RCFileInputFormat;
 import org.apache.hadoop.hive.ql.io.RCFileOutputFormat;
@@ -39,6 +44,7 @@ import org.apache.hadoop.hive.ql.io.parquet.serde.ParquetHiveSerDe;
 import org.apache.hadoop.hive.serde2.SerDe;
 import org.apache.hadoop.hive.serde2.columnar.ColumnarSerDe;
 import org.apache.hadoop.hive.serde2.columnar.LazyBinaryColumnarSerDe;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
 import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.MapObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
@@ -47,40 +53,58 @@ import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+import org.apache.hadoop.io.compress.BZip2Codec;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputFormat;
+import org.apache.hadoop.mapred.TextInputFormat;
 import org.joda.time.DateTimeZone;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
+import static com.facebook.presto.hive.HiveTestUtils.NO_ORC_METADATA_CACHE;
 import static com.facebook.presto.hive.HiveTestUtils.SESSION;
 import static com.facebook.presto.hive.HiveTestUtils.TYPE_MANAGER;
 import static com.facebook.presto.hive.HiveTestUtils.getTypes;
+import static com.facebook.presto.hive.cache.HiveFileCache.DISABLED;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.testing.MaterializedResult.DEFAULT_PRECISION;
+import static com.facebook.presto.testing.MaterializedResult.materializeSourceDataStream;
 import static com.facebook.presto.tests.StructuralTestUtil.arrayBlockOf;
 import static com.facebook.presto.tests.StructuralTestUtil.rowBlockOf;
 import static com.google.common.base.Predicates.not;
 import static com.google.common.collect.Iterables.all;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.transform;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
 import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.FILE_INPUT_FORMAT;
+import static org.apache.hadoop.hive.serde.serdeConstants.ESCAPE_CHAR;
+import static org.apache.hadoop.hive.serde.serdeConstants.FIELD_DELIM;
 import static org.apache.hadoop.hive.serde.serdeConstants.SERIALIZATION_LIB;
+import static org.apache.hadoop.hive.serde.serdeConstants.SERIALIZATION_NULL_FORMAT;
 import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardListObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardStructObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaIntObjectInspector;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaStringObjectInspector;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 public class TestHiveFileFormats
@@ -133,7 +157,7 @@ public class TestHiveFileFormats
         file.delete();
         try {
             FileSplit split = createTestFile(file.getAbsolutePath(), outputFormat, serde, null, TEST_COLUMNS, NUM_ROWS);
-            testPageSourceFactory(new RcFilePageSourceFactory(TYPE_MANAGER), split, inputFormat, serde, TEST_COLUMNS);
+            testPageSourceFactory(new RcFilePageSourceFactory(TYPE_MANAGER, DISABLED), split, inputFormat, serde, TEST_COLUMNS);
         }
         finally {
             //noinspection ResultOfMethodCallIgnored
@@ -141,6 +165,230 @@ public class TestHiveFileFormats
         }
     }
 
+    @Test
+    public void testTextFilePageSource()
+            throws Exception
+    {
+        Set<PrimitiveCategory> supportedCategories = ImmutableSet.of(
+                PrimitiveCategory.BOOLEAN,
+                PrimitiveCategory.BYTE,
+                PrimitiveCategory.SHORT,
+                PrimitiveCategory.INT,
+                PrimitiveCategory.LONG,
+                PrimitiveCategory.FLOAT,
+                PrimitiveCategory.DOUBLE,
+                PrimitiveCategory.STRING,
+                PrimitiveCategory.DATE,
+                PrimitiveCategory.TIMESTAMP);
+        List<TestColumn> testColumns = TEST_COLUMNS.stream()
+                .filter(column -> column.getObjectInspector().getCategory() == Category.PRIMITIVE)
+                .filter(column -> supportedCategories.contains(((PrimitiveObjectInspector) column.getObjectInspector()).getPrimitiveCategory()))
+                .collect(toList());
+
+        HiveOutputFormat<?, ?> outputFormat = new HiveIgnoreKeyTextOutputFormat<>();
+        InputFormat<?, ?> inputFormat = new TextInputFormat();
+        @SuppressWarnings("deprecation")
+        SerDe serde = new LazySimpleSerDe();
+        File file = File.createTempFile("presto_test", "text");
+        file.delete();
+        try {
+            FileSplit split = createTestFile(file.getAbsolutePath(), outputFormat, serde, null, testColumns, NUM_ROWS);
+            TestingConnectorSession session = new TestingConnectorSession(
+                    new HiveSessionProperties(new HiveClientConfig().setTextOptimizedReaderEnabled(true)).getSessionProperties());
+            testPageSourceFactory(new TextPageSourceFactory(TYPE_MANAGER, DISABLED), split, inputFormat, serde, testColumns, session);
+        }
+        finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTextFileSplits()
+            throws Exception
+    {
+        StringBuilder data = new StringBuilder();
+        List<MaterializedRow> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            data.append(i).append(",value_").append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+            expected.add(new MaterializedRow(DEFAULT_PRECISION, (long) i, "value_" + i));
+        }
+
+        File file = File.createTempFile("presto_test", "text");
+        try {
+            Files.write(data.toString(), file, UTF_8);
+            Properties schema = createTextSchema();
+            // every line is read by exactly one split, whatever the split boundaries are
+            for (long splitSize : new long[] {7, 100, 1024, file.length()}) {
+                List<MaterializedRow> rows = new ArrayList<>();
+                for (long start = 0; start < file.length(); start += splitSize) {
+                    rows.addAll(readTextFile(file, start, Math.min(splitSize, file.length() - start), schema).getMaterializedRows());
+                }
+                assertEquals(rows, expected, "split size " + splitSize);
+            }
+        }
+        finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTextFileEscapes()
+            throws Exception
+    {
+        String data = "" +
+                "1,a\\,b\n" +
+                "2,c\\\\d\n" +
+                "3,\\N\n" +
+                "4,line\\nbreak\n" +
+                "5\\,6,x\n";
+
+        File file = File.createTempFile("presto_test", "text");
+        try {
+            Files.write(data, file, UTF_8);
+
+            Properties schema = createTextSchema();
+            schema.setProperty(ESCAPE_CHAR, "\\");
+            assertEquals(readTextFile(file, 0, file.length(), schema).getMaterializedRows(), ImmutableList.of(
+                    new MaterializedRow(DEFAULT_PRECISION, 1L, "a,b"),
+                    new MaterializedRow(DEFAULT_PRECISION, 2L, "c\\d"),
+                    new MaterializedRow(DEFAULT_PRECISION, 3L, null),
+                    new MaterializedRow(DEFAULT_PRECISION, 4L, "linenbreak"),
+                    // an escaped delimiter does not end the field
+                    new MaterializedRow(DEFAULT_PRECISION, null, "x")));
+
+            // escaped CR and LF are decoded as line breaks
+            schema.setProperty("serialization.escape.crlf", "true");
+            assertEquals(readTextFile(file, 0, file.length(), schema).getMaterializedRows().get(3), new MaterializedRow(DEFAULT_PRECISION, 4L, "line\nbreak"));
+
+            // without an escape character the backslash is data
+            schema = createTextSchema();
+            assertEquals(readTextFile(file, 0, file.length(), schema).getMaterializedRows(), ImmutableList.of(
+                    new MaterializedRow(DEFAULT_PRECISION, 1L, "a\\"),
+                    new MaterializedRow(DEFAULT_PRECISION, 2L, "c\\\\d"),
+                    new MaterializedRow(DEFAULT_PRECISION, 3L, null),
+                    new MaterializedRow(DEFAULT_PRECISION, 4L, "line\\nbreak"),
+                    new MaterializedRow(DEFAULT_PRECISION, null, "6")));
+        }
+        finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTextFileNullFormat()
+            throws Exception
+    {
+        File file = File.createTempFile("presto_test", "text");
+        try {
+            Files.write("1,NULL\nNULL,x\n2,\\N\n,\n3\n", file, UTF_8);
+
+            Properties schema = createTextSchema();
+            schema.setProperty(SERIALIZATION_NULL_FORMAT, "NULL");
+            assertEquals(readTextFile(file, 0, file.length(), schema).getMaterializedRows(), ImmutableList.of(
+                    new MaterializedRow(DEFAULT_PRECISION, 1L, null),
+                    new MaterializedRow(DEFAULT_PRECISION, null, "x"),
+                    new MaterializedRow(DEFAULT_PRECISION, 2L, "\\N"),
+                    // an empty field is an empty string, but not a number
+                    new MaterializedRow(DEFAULT_PRECISION, null, ""),
+                    // missing fields are null
+                    new MaterializedRow(DEFAULT_PRECISION, 3L, null)));
+        }
+        finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTextFileGzip()
+            throws Exception
+    {
+        File file = File.createTempFile("presto_test", ".gz");
+        try {
+            try (OutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+                output.write("1,a\n2,b\n".getBytes(UTF_8));
+            }
+
+            assertEquals(readTextFile(file, 0, file.length(), createTextSchema()).getMaterializedRows(), ImmutableList.of(
+                    new MaterializedRow(DEFAULT_PRECISION, 1L, "a"),
+                    new MaterializedRow(DEFAULT_PRECISION, 2L, "b")));
+
+            // a compressed file is only read as a whole
+            assertFalse(createTextPageSource(file, 1, file.length() - 1, createTextSchema()).isPresent());
+        }
+        finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTextFileBzip2()
+            throws Exception
+    {
+        File file = File.createTempFile("presto_test", ".bz2");
+        try {
+            CompressionCodec codec = new CompressionCodecFactory(new Configuration()).getCodecByClassName(BZip2Codec.class.getName());
+            try (OutputStream output = codec.createOutputStream(new FileOutputStream(file))) {
+                output.write("1,a\n2,b\n".getBytes(UTF_8));
+            }
+
+            assertEquals(readTextFile(file, 0, file.length(), createTextSchema()).getMaterializedRows(), ImmutableList.of(
+                    new MaterializedRow(DEFAULT_PRECISION, 1L, "a"),
+                    new MaterializedRow(DEFAULT_PRECISION, 2L, "b")));
+
+            // bzip2 files can be split by the input format, these splits are left to the Hive reader
+            assertFalse(createTextPageSource(file, 0, file.length() - 1, createTextSchema()).isPresent());
+            assertFalse(createTextPageSource(file, 1, file.length() - 1, createTextSchema()).isPresent());
+        }
+        finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    private static Properties createTextSchema()
+    {
+        Properties schema = new Properties();
+        schema.setProperty(FILE_INPUT_FORMAT, TextInputFormat.class.getName());
+        schema.setProperty(SERIALIZATION_LIB, LazySimpleSerDe.class.getName());
+        schema.setProperty("columns", "c_bigint,c_string");
+        schema.setProperty("columns.types", "bigint,string");
+        schema.setProperty(FIELD_DELIM, ",");
+        return schema;
+    }
+
+    private static MaterializedResult readTextFile(File file, long start, long length, Properties schema)
+    {
+        Optional<? extends ConnectorPageSource> pageSource = createTextPageSource(file, start, length, schema);
+        assertTrue(pageSource.isPresent());
+        return materializeSourceDataStream(SESSION, pageSource.get(), ImmutableList.of(BIGINT, VARCHAR));
+    }
+
+    private static Optional<? extends ConnectorPageSource> createTextPageSource(File file, long start, long length, Properties schema)
+    {
+        TestingConnectorSession session = new TestingConnectorSession(
+                new HiveSessionProperties(new HiveClientConfig().setTextOptimizedReaderEnabled(true)).getSessionProperties());
+        List<HiveColumnHandle> columns = ImmutableList.of(
+                new HiveColumnHandle("test", "c_bigint", HiveType.HIVE_LONG, BIGINT.getTypeSignature(), 0, false),
+                new HiveColumnHandle("test", "c_string", HiveType.HIVE_STRING, VARCHAR.getTypeSignature(), 1, false));
+
+        return new TextPageSourceFactory(TYPE_MANAGER, DISABLED).createPageSource(
+                new Configuration(),
+                session,
+                new Path(file.toURI()),
+                start,
+                length,
+                schema,
+                columns,
+                ImmutableList.of(),
+                TupleDomain.all(),
+                DateTimeZone.getDefault());
+    }
+
     @Test
     public void testRCBinary()
             throws Exception
@@ -180,7 +428,7 @@ public class TestHiveFileFormats
         file.delete();
         try {
             FileSplit split = createTestFile(file.getAbsolutePath(), outputFormat, serde, null, TEST_COLUMNS, NUM_ROWS);
-            testPageSourceFactory(new RcFilePageSourceFactory(TYPE_MANAGER), split, inputFormat, serde, TEST_COLUMNS);
+            testPageSourceFactory(new RcFilePageSourceFactory(TYPE_MANAGER, DISABLED), split, inputFormat, serde, TEST_COLUMNS);
         }
         finally {
             //noinspection ResultOfMethodCallIgnored
@@ -200,7 +448,7 @@ public class TestHiveFileFormats
         file.delete();
         try {
             FileSplit split = createTestFile(file.getAbsolutePath(), outputFormat, serde, null, TEST_COLUMNS, NUM_ROWS);
-            testPageSourceFactory(new OrcPageSourceFactory(TYPE_MANAGER, false), split, inputFormat, serde, TEST_COLUMNS);
+            testPageSourceFactory(new OrcPageSourceFactory(TYPE_MANAGER, false, NO_ORC_METADATA_CACHE, DISABLED), split, inputFormat, serde, TEST_COLUMNS);
         }
         finally {
             //noinspection ResultOfMethodCallIgnored
@@ -223,7 +471,7 @@ public class TestHiveFileFormats
             // Reverse the order of the columns to test access by name, not by index
             List<TestColumn> reversedColumns = Lists.reverse(TEST_COLUMNS);
             TestingConnectorSession session = new TestingConnectorSession(new HiveSessionProperties(new HiveClientConfig()).getSessionProperties());
-            testPageSourceFactory(new OrcPageSourceFactory(TYPE_MANAGER, true), split, inputFormat, serde, reversedColumns, session);
+            testPageSourceFactory(new OrcPageSourceFactory(TYPE_MANAGER, true, NO_ORC_METADATA_CACHE, DISABLED), split, inputFormat, serde, reversedColumns, session);
         }
         finally {
             //noinspection ResultOfMethodCallIgnored
@@ -273,7 +521,7 @@ public class TestHiveFileFormats
             FileSplit split = createTestFile(file.getAbsolutePath(), outputFormat, serde, null, testColumns, NUM_ROWS);
             TestingConnectorSession session = new TestingConnectorSession(
                     new HiveSessionProperties(new HiveClientConfig().setParquetOptimizedReaderEnabled(true)).getSessionProperties());
-            testPageSourceFactory(new ParquetPageSourceFactory(TYPE_MANAGER, false), split, inputFormat, serde, testColumns, session);
+            testPageSourceFactory(new ParquetPageSourceFactory(TYPE_MANAGER, false, DISABLED), split, inputFormat, serde, testColumns, session);
         }
         finally {
             //noinspection ResultOfMethodCallIgnored
@@ -385,7 +633,7 @@ public class TestHiveFileFormats
         file.delete();
         try {
             FileSplit split = createTestFile(file.getAbsolutePath(), outputFormat, serde, null, testColumns, NUM_ROWS);
-            testPageSourceFactory(new DwrfPageSourceFactory(TYPE_MANAGER), split, inputFormat, serde, testColumns);
+            testPageSourceFactory(new DwrfPageSourceFactory(TYPE_MANAGER, NO_ORC_METADATA_CACHE, DISABLED), split, inputFormat, serde, testColumns);
         }
         finally {
             //noinspection ResultOfMethodCallIgnored
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
 import org.testng.annotations.Test;
 
+import java.util.OptionalInt;
 import java.util.Properties;
 
 import static org.testng.Assert.assertEquals;
@@ -48,7 +49,8 @@ public class TestHiveSplit
                 partitionKeys,
                 addresses,
                 true,
-                TupleDomain.<HiveColumnHandle>all());
+                TupleDomain.<HiveColumnHandle>all(),
+                OptionalInt.of(3));
 
         String json = codec.toJson(expected);
         HiveSplit actual = codec.fromJson(json);
@@ -64,5 +66,6 @@ public class TestHiveSplit
         assertEquals(actual.getPartitionKeys(), expected.getPartitionKeys());
         assertEquals(actual.getAddresses(), expected.getAddresses());
         assertEquals(actual.isForceLocalScheduling(), expected.isForceLocalScheduling());
+        assertEquals(actual.getBucketNumber(), expected.getBucketNumber());
     }
 }
@@ -17,6 +17,7 @@ import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.json.ObjectMapperProvider;
 import org.testng.annotations.Test;
@@ -40,7 +41,7 @@ public class TestJsonHiveHandles
             .put("clientId", "hive")
             .put("name", "column")
             .put("hiveType", "float")
-            .put("typeSignature", "double")
+            .put("typeSignature", "real")
             .put("hiveColumnIndex", -1)
             .put("partitionKey", true)
             .build();
@@ -76,7 +77,7 @@ public class TestJsonHiveHandles
     public void testColumnHandleSerialize()
             throws Exception
     {
-        HiveColumnHandle columnHandle = new HiveColumnHandle("hive", "column", HiveType.HIVE_FLOAT, parseTypeSignature(StandardTypes.DOUBLE), -1, true);
+        HiveColumnHandle columnHandle = new HiveColumnHandle("hive", "column", HiveType.HIVE_FLOAT, parseTypeSignature(StandardTypes.REAL), -1, true);
 
         assertTrue(objectMapper.canSerialize(HiveColumnHandle.class));
         String json = objectMapper.writeValueAsString(columnHandle);
@@ -97,6 +98,17 @@ public class TestJsonHiveHandles
         assertEquals(columnHandle.isPartitionKey(), true);
     }
 
+    @Test
+    public void testPartitioningHandleRoundTrip()
+            throws Exception
+    {
+        HivePartitioningHandle partitioningHandle = new HivePartitioningHandle("hive", 32, ImmutableList.of(HiveType.HIVE_LONG, HiveType.HIVE_STRING));
+
+        assertTrue(objectMapper.canSerialize(HivePartitioningHandle.class));
+        String json = objectMapper.writeValueAsString(partitioningHandle);
+        assertEquals(objectMapper.readValue(json, HivePartitioningHandle.class), partitioningHandle);
+    }
+
     private void testJsonEquals(String json, Map<String, Object> expectedMap)
             throws Exception
     {
@@ -0,0 +1,289 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.InMemoryHiveMetastore;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.predicate.NullableValue;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.type.StandardTypes;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsData;
+import org.apache.hadoop.hive.metastore.api.ColumnStatisticsObj;
+import org.apache.hadoop.hive.metastore.api.DoubleColumnStatsData;
+import org.apache.hadoop.hive.metastore.api.LongColumnStatsData;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.hive.HiveTestUtils.TYPE_MANAGER;
+import static com.facebook.presto.hive.HiveType.HIVE_DOUBLE;
+import static com.facebook.presto.hive.HiveType.HIVE_LONG;
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
+import static com.google.common.io.Files.createTempDir;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static org.apache.hadoop.hive.common.StatsSetupConst.ROW_COUNT;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestMetastoreHiveStatisticsProvider
+{
+    private static final SchemaTableName TABLE = new SchemaTableName("test_schema", "test_table");
+
+    private static final HiveColumnHandle LONG_COLUMN = new HiveColumnHandle("test", "c_long", HIVE_LONG, parseTypeSignature(StandardTypes.BIGINT), 0, false);
+    private static final HiveColumnHandle DOUBLE_COLUMN = new HiveColumnHandle("test", "c_double", HIVE_DOUBLE, parseTypeSignature(StandardTypes.DOUBLE), 1, false);
+    private static final HiveColumnHandle STRING_COLUMN = new HiveColumnHandle("test", "c_string", HIVE_STRING, parseTypeSignature(StandardTypes.VARCHAR), 2, false);
+    private static final HiveColumnHandle PARTITION_COLUMN = new HiveColumnHandle("test", "ds", HIVE_LONG, parseTypeSignature(StandardTypes.BIGINT), -1, true);
+    private static final List<ColumnHandle> COLUMNS = ImmutableList.of(LONG_COLUMN, DOUBLE_COLUMN, STRING_COLUMN, PARTITION_COLUMN);
+
+    private File temporary;
+    private TestingMetastore metastore;
+    private MetastoreHiveStatisticsProvider statisticsProvider;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        temporary = createTempDir();
+        metastore = new TestingMetastore(new File(temporary, "metastore"));
+        statisticsProvider = new MetastoreHiveStatisticsProvider(TYPE_MANAGER, metastore);
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        deleteRecursively(temporary);
+    }
+
+    @Test
+    public void testNoPartitions()
+    {
+        TableStatistics statistics = statisticsProvider.getTableStatistics(TABLE, ImmutableList.of(), COLUMNS);
+        assertEquals(statistics.getRowCount(), Estimate.zeroValue());
+        assertEquals(statistics.getColumnStatistics(), ImmutableMap.of());
+    }
+
+    @Test
+    public void testUnpartitioned()
+    {
+        metastore.setTableRowCount("100");
+        metastore.setColumnStatistics(HivePartition.UNPARTITIONED_ID, longStatistics(LONG_COLUMN, 10, 50, 1, 99));
+
+        HivePartition partition = new HivePartition(TABLE, TupleDomain.all());
+        TableStatistics statistics = statisticsProvider.getTableStatistics(TABLE, ImmutableList.of(partition), ImmutableList.of(LONG_COLUMN, STRING_COLUMN));
+
+        assertEquals(statistics.getRowCount(), new Estimate(100));
+        assertEquals(statistics.getColumnStatistics().get(LONG_COLUMN), ColumnStatistics.builder()
+                .setDistinctValuesCount(new Estimate(50))
+                .setNullsFraction(new Estimate(0.1))
+                .setLowValue(Optional.of(1L))
+                .setHighValue(Optional.of(99L))
+                .build());
+        assertEquals(statistics.getColumnStatistics().get(STRING_COLUMN), ColumnStatistics.empty());
+    }
+
+    @Test
+    public void testUncomputedRowCount()
+    {
+        // Hive stores -1 when the basic statistics have not been computed
+        metastore.setTableRowCount("-1");
+
+        HivePartition partition = new HivePartition(TABLE, TupleDomain.all());
+        TableStatistics statistics = statisticsProvider.getTableStatistics(TABLE, ImmutableList.of(partition), ImmutableList.of(LONG_COLUMN));
+
+        assertEquals(statistics.getRowCount(), Estimate.unknownValue());
+        assertEquals(statistics.getColumnStatistics().get(LONG_COLUMN), ColumnStatistics.empty());
+    }
+
+    @Test
+    public void testPartitioned()
+    {
+        metastore.setPartitionRowCount("ds=1", "10");
+        metastore.setPartitionRowCount("ds=2", "30");
+        metastore.setPartitionRowCount("ds=3", null);
+        metastore.setColumnStatistics("ds=1",
+                longStatistics(LONG_COLUMN, 1, 8, 5, 10),
+                doubleStatistics(DOUBLE_COLUMN, 0, 4, -1.5, 2.0));
+        metastore.setColumnStatistics("ds=2",
+                longStatistics(LONG_COLUMN, 3, 12, 0, 20),
+                doubleStatistics(DOUBLE_COLUMN, 2, 6, 0.5, 3.5));
+
+        List<HivePartition> partitions = ImmutableList.of(partition("ds=1", 1), partition("ds=2", 2), partition("ds=3", 3));
+        TableStatistics statistics = statisticsProvider.getTableStatistics(TABLE, partitions, COLUMNS);
+
+        // the partition without a row count is assumed to be as large as the average known partition
+        assertEquals(statistics.getRowCount(), new Estimate(60));
+        assertEquals(statistics.getColumnStatistics().get(LONG_COLUMN), ColumnStatistics.builder()
+                .setDistinctValuesCount(new Estimate(12))
+                .setNullsFraction(new Estimate(0.1))
+                .setLowValue(Optional.of(0L))
+                .setHighValue(Optional.of(20L))
+                .build());
+        assertEquals(statistics.getColumnStatistics().get(DOUBLE_COLUMN), ColumnStatistics.builder()
+                .setDistinctValuesCount(new Estimate(6))
+                .setNullsFraction(new Estimate(0.05))
+                .setLowValue(Optional.of(-1.5))
+                .setHighValue(Optional.of(3.5))
+                .build());
+        assertEquals(statistics.getColumnStatistics().get(STRING_COLUMN), ColumnStatistics.empty());
+        assertEquals(statistics.getColumnStatistics().get(PARTITION_COLUMN), ColumnStatistics.builder()
+                .setDistinctValuesCount(new Estimate(3))
+                .setNullsFraction(new Estimate(0))
+                .setLowValue(Optional.of(1L))
+                .setHighValue(Optional.of(3L))
+                .build());
+    }
+
+    @Test
+    public void testNullPartitionKey()
+    {
+        List<HivePartition> partitions = ImmutableList.of(
+                partition("ds=1", 1),
+                new HivePartition(TABLE, TupleDomain.all(), "ds=__HIVE_DEFAULT_PARTITION__", ImmutableMap.of(PARTITION_COLUMN, NullableValue.asNull(BIGINT)), Optional.empty()));
+        TableStatistics statistics = statisticsProvider.getTableStatistics(TABLE, partitions, ImmutableList.of(PARTITION_COLUMN));
+
+        assertEquals(statistics.getRowCount(), Estimate.unknownValue());
+        assertEquals(statistics.getColumnStatistics().get(PARTITION_COLUMN), ColumnStatistics.builder()
+                .setDistinctValuesCount(new Estimate(1))
+                .setNullsFraction(new Estimate(0.5))
+                .setLowValue(Optional.of(1L))
+                .setHighValue(Optional.of(1L))
+                .build());
+    }
+
+    private static HivePartition partition(String partitionId, long key)
+    {
+        return new HivePartition(TABLE, TupleDomain.all(), partitionId, ImmutableMap.of(PARTITION_COLUMN, NullableValue.of(BIGINT, key)), Optional.empty());
+    }
+
+    private static ColumnStatisticsObj longStatistics(HiveColumnHandle column, long nulls, long distinctValues, long low, long high)
+    {
+        LongColumnStatsData data = new LongColumnStatsData(nulls, distinctValues);
+        data.setLowValue(low);
+        data.setHighValue(high);
+        return new ColumnStatisticsObj(column.getName(), column.getHiveType().getHiveTypeName(), ColumnStatisticsData.longStats(data));
+    }
+
+    private static ColumnStatisticsObj doubleStatistics(HiveColumnHandle column, long nulls, long distinctValues, double low, double high)
+    {
+        DoubleColumnStatsData data = new DoubleColumnStatsData(nulls, distinctValues);
+        data.setLowValue(low);
+        data.setHighValue(high);
+        return new ColumnStatisticsObj(column.getName(), column.getHiveType().getHiveTypeName(), ColumnStatisticsData.doubleStats(data));
+    }
+
+    private static Map<String, String> rowCountParameters(String rowCount)
+    {
+        return rowCount == null ? ImmutableMap.of() : ImmutableMap.of(ROW_COUNT, rowCount);
+    }
+
+    private static class TestingMetastore
+            extends InMemoryHiveMetastore
+    {
+        private final Map<String, Partition> partitions = new HashMap<>();
+        private final Map<String, Map<String, ColumnStatisticsObj>> columnStatistics = new HashMap<>();
+        private Table table;
+
+        public TestingMetastore(File baseDirectory)
+        {
+            super(baseDirectory);
+        }
+
+        public void setTableRowCount(String rowCount)
+        {
+            table = new Table();
+            table.setParameters(rowCountParameters(rowCount));
+        }
+
+        public void setPartitionRowCount(String partitionName, String rowCount)
+        {
+            Partition partition = new Partition();
+            partition.setParameters(rowCountParameters(rowCount));
+            partitions.put(partitionName, partition);
+        }
+
+        public void setColumnStatistics(String partitionName, ColumnStatisticsObj... statistics)
+        {
+            ImmutableMap.Builder<String, ColumnStatisticsObj> builder = ImmutableMap.builder();
+            for (ColumnStatisticsObj columnStatisticsObj : statistics) {
+                builder.put(columnStatisticsObj.getColName(), columnStatisticsObj);
+            }
+            columnStatistics.put(partitionName, builder.build());
+        }
+
+        @Override
+        public Optional<Table> getTable(String databaseName, String tableName)
+        {
+            return Optional.ofNullable(table);
+        }
+
+        @Override
+        public Optional<Map<String, Partition>> getPartitionsByNames(String databaseName, String tableName, List<String> partitionNames)
+        {
+            ImmutableMap.Builder<String, Partition> builder = ImmutableMap.builder();
+            for (String partitionName : partitionNames) {
+                Partition partition = partitions.get(partitionName);
+                if (partition != null) {
+                    builder.put(partitionName, partition);
+                }
+            }
+            return Optional.of(builder.build());
+        }
+
+        @Override
+        public Optional<Map<String, ColumnStatisticsObj>> getTableColumnStatistics(String databaseName, String tableName, Set<String> columnNames)
+        {
+            return Optional.of(filterColumns(columnStatistics.getOrDefault(HivePartition.UNPARTITIONED_ID, ImmutableMap.of()), columnNames));
+        }
+
+        @Override
+        public Optional<Map<String, Map<String, ColumnStatisticsObj>>> getPartitionColumnStatistics(String databaseName, String tableName, Set<String> partitionNames, Set<String> columnNames)
+        {
+            ImmutableMap.Builder<String, Map<String, ColumnStatisticsObj>> builder = ImmutableMap.builder();
+            for (String partitionName : partitionNames) {
+                Map<String, ColumnStatisticsObj> statistics = columnStatistics.get(partitionName);
+                if (statistics != null) {
+                    builder.put(partitionName, filterColumns(statistics, columnNames));
+                }
+            }
+            return Optional.of(builder.build());
+        }
+
+        private static Map<String, ColumnStatisticsObj> filterColumns(Map<String, ColumnStatisticsObj> statistics, Set<String> columnNames)
+        {
+            ImmutableMap.Builder<String, ColumnStatisticsObj> builder = ImmutableMap.builder();
+            statistics.forEach((name, value) -> {
+                if (columnNames.contains(name)) {
+                    builder.put(name, value);
+                }
+            });
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.cache;
+
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestHiveFileCache
+{
+    private static final int BLOCK_SIZE = 1000;
+    private static final int FILE_SIZE = 10_500;
+
+    private File temporary;
+    private File dataFile;
+    private byte[] data;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        temporary = createTempDir();
+        dataFile = new File(temporary, "data");
+        data = writeRandomData(dataFile, 1);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        deleteRecursively(temporary);
+    }
+
+    @Test
+    public void testReadThrough()
+            throws IOException
+    {
+        HiveFileCache fileCache = createFileCache(new DataSize(1, MEGABYTE));
+        assertTrue(fileCache.isEnabled());
+
+        // the first read loads every block from the file system
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+        assertEquals(fileCache.getMisses().getTotalCount(), 11);
+        assertEquals(fileCache.getHits().getTotalCount(), 0);
+        assertEquals(fileCache.getRemoteReadBytes().getTotalCount(), FILE_SIZE);
+        assertEquals(fileCache.getCachedBlocks(), 11);
+        assertEquals(fileCache.getCachedBytes(), FILE_SIZE);
+
+        // a read that spans three blocks is served from the cache
+        assertEquals(read(fileCache, 1500, 2200), Arrays.copyOfRange(data, 1500, 3700));
+        assertEquals(fileCache.getMisses().getTotalCount(), 11);
+        assertEquals(fileCache.getHits().getTotalCount(), 3);
+        assertEquals(fileCache.getCacheReadBytes().getTotalCount(), 2200);
+
+        // the last block is shorter than the block size
+        assertEquals(read(fileCache, 10_100, 400), Arrays.copyOfRange(data, 10_100, FILE_SIZE));
+        assertEquals(fileCache.getHits().getTotalCount(), 4);
+    }
+
+    @Test
+    public void testEviction()
+            throws IOException
+    {
+        HiveFileCache fileCache = createFileCache(new DataSize(3 * BLOCK_SIZE, BYTE));
+
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+        assertEquals(fileCache.getMisses().getTotalCount(), 11);
+        assertTrue(fileCache.getCachedBytes() <= 3 * BLOCK_SIZE);
+        assertEquals(fileCache.getEvictions().getTotalCount(), 11 - fileCache.getCachedBlocks());
+
+        // the first blocks were evicted, the last ones are still cached
+        assertEquals(read(fileCache, 9_500, 1000), Arrays.copyOfRange(data, 9_500, FILE_SIZE));
+        assertEquals(fileCache.getHits().getTotalCount(), 2);
+        assertEquals(read(fileCache, 0, 100), Arrays.copyOfRange(data, 0, 100));
+        assertEquals(fileCache.getMisses().getTotalCount(), 12);
+    }
+
+    @Test
+    public void testModifiedFile()
+            throws IOException
+    {
+        HiveFileCache fileCache = createFileCache(new DataSize(1, MEGABYTE));
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+
+        // rewriting the file changes its modification time, so the cached blocks are not used
+        byte[] newData = writeRandomData(dataFile, 2);
+        assertTrue(dataFile.setLastModified(dataFile.lastModified() + 10_000));
+        assertFalse(Arrays.equals(newData, data));
+
+        assertEquals(read(fileCache, 0, FILE_SIZE), newData);
+        assertEquals(fileCache.getMisses().getTotalCount(), 22);
+        assertEquals(fileCache.getHits().getTotalCount(), 0);
+    }
+
+    @Test
+    public void testOpenWithFileStatus()
+            throws IOException
+    {
+        HiveFileCache fileCache = createFileCache(new DataSize(1, MEGABYTE));
+        Path path = new Path(dataFile.toURI());
+        FileSystem fileSystem = fileCache.getFileSystem(path, new Configuration());
+        FileStatus fileStatus = fileSystem.getFileStatus(path);
+
+        byte[] buffer = new byte[FILE_SIZE];
+        try (FSDataInputStream inputStream = HiveFileCache.open(fileSystem, fileStatus)) {
+            inputStream.readFully(0, buffer);
+        }
+        assertEquals(buffer, data);
+        assertEquals(fileCache.getMisses().getTotalCount(), 11);
+
+        // blocks cached through the caller's status are found when opening by path
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+        assertEquals(fileCache.getMisses().getTotalCount(), 11);
+        assertEquals(fileCache.getHits().getTotalCount(), 11);
+    }
+
+    @Test
+    public void testConcurrentReadsLoadBlockOnce()
+            throws Exception
+    {
+        HiveFileCache fileCache = createFileCache(new DataSize(1, MEGABYTE));
+        byte[] block = Arrays.copyOf(data, BLOCK_SIZE);
+
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch finishLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        HiveFileCache.BlockLoader loader = blockNumber -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            try {
+                finishLoad.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return block;
+        };
+
+        ExecutorService executor = newCachedThreadPool();
+        try {
+            byte[] first = new byte[100];
+            Future<?> firstRead = executor.submit(() -> {
+                fileCache.readBlock("file", 0, 0, first, 0, first.length, loader);
+                return null;
+            });
+            assertTrue(loadStarted.await(10, SECONDS));
+
+            // the second reader waits for the load of the first one
+            byte[] second = new byte[100];
+            Future<?> secondRead = executor.submit(() -> {
+                fileCache.readBlock("file", 0, 100, second, 0, second.length, loader);
+                return null;
+            });
+            finishLoad.countDown();
+            firstRead.get(10, SECONDS);
+            secondRead.get(10, SECONDS);
+
+            assertEquals(first, Arrays.copyOfRange(data, 0, 100));
+            assertEquals(second, Arrays.copyOfRange(data, 100, 200));
+            assertEquals(loads.get(), 1);
+            assertEquals(fileCache.getMisses().getTotalCount(), 1);
+            assertEquals(fileCache.getHits().getTotalCount(), 1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBackgroundWrite()
+            throws Exception
+    {
+        ExecutorService writeExecutor = newSingleThreadExecutor();
+        HiveFileCache fileCache = new HiveFileCache(new File(temporary, "cache"), new DataSize(1, MEGABYTE), new DataSize(BLOCK_SIZE, BYTE), writeExecutor);
+
+        // blocks are served from memory or from disk, depending on the progress of the writes
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+        assertEquals(fileCache.getMisses().getTotalCount(), 11);
+        assertEquals(fileCache.getHits().getTotalCount(), 11);
+
+        writeExecutor.shutdown();
+        assertTrue(writeExecutor.awaitTermination(10, SECONDS));
+        assertEquals(fileCache.getCachedBlocks(), 11);
+        assertEquals(fileCache.getCachedBytes(), FILE_SIZE);
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+        assertEquals(fileCache.getHits().getTotalCount(), 22);
+    }
+
+    @Test
+    public void testDisabled()
+            throws IOException
+    {
+        HiveFileCache fileCache = HiveFileCache.DISABLED;
+        assertFalse(fileCache.isEnabled());
+
+        assertEquals(read(fileCache, 0, FILE_SIZE), data);
+        assertEquals(fileCache.getMisses().getTotalCount(), 0);
+        assertEquals(fileCache.getCachedBlocks(), 0);
+    }
+
+    private HiveFileCache createFileCache(DataSize maxSize)
+    {
+        return new HiveFileCache(new File(temporary, "cache"), maxSize, new DataSize(BLOCK_SIZE, BYTE), newDirectExecutorService());
+    }
+
+    private byte[] read(HiveFileCache fileCache, long position, int length)
+            throws IOException
+    {
+        Path path = new Path(dataFile.toURI());
+        FileSystem fileSystem = fileCache.getFileSystem(path, new Configuration());
+        byte[] buffer = new byte[length];
+        try (FSDataInputStream inputStream = fileSystem.open(path)) {
+            inputStream.readFully(position, buffer);
+        }
+        return buffer;
+    }
+
+    private static byte[] writeRandomData(File file, long seed)
+            throws IOException
+    {
+        byte[] data = new byte[FILE_SIZE];
+        new Random(seed).nextBytes(data);
+        Files.write(file.toPath(), data);
+        return data;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.cache;
+
+import com.facebook.presto.metadata.InMemoryNodeManager;
+import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.Node;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestHiveSplitAffinity
+{
+    private static final String CONNECTOR_ID = "hive";
+
+    @Test
+    public void testNoNodes()
+    {
+        HiveSplitAffinity affinity = new HiveSplitAffinity(CONNECTOR_ID, new InMemoryNodeManager(), new DataSize(64, MEGABYTE));
+        assertTrue(affinity.getAddresses("hdfs://a/file", 0).isEmpty());
+    }
+
+    @Test
+    public void testStableAssignment()
+    {
+        InMemoryNodeManager nodeManager = new InMemoryNodeManager();
+        for (int i = 0; i < 10; i++) {
+            nodeManager.addNode(CONNECTOR_ID, new TestingNode("node" + i, HostAddress.fromParts("10.0.0." + i, 8080)));
+        }
+        HiveSplitAffinity affinity = new HiveSplitAffinity(CONNECTOR_ID, nodeManager, new DataSize(64, MEGABYTE));
+
+        long rangeSize = new DataSize(64, MEGABYTE).toBytes();
+        Set<HostAddress> used = new HashSet<>();
+        for (int file = 0; file < 100; file++) {
+            String path = "hdfs://a/file" + file;
+            List<HostAddress> addresses = affinity.getAddresses(path, 0);
+            assertEquals(addresses.size(), 1);
+            used.add(addresses.get(0));
+
+            // splits in the same range of the file go to the same node
+            assertEquals(affinity.getAddresses(path, rangeSize / 2), addresses);
+            assertEquals(affinity.getAddresses(path, 0), addresses);
+        }
+        // files are spread over the nodes
+        assertTrue(used.size() > 1);
+
+        // adding a node only moves the ranges assigned to the new node
+        List<HostAddress> original = affinity.getAddresses("hdfs://a/file0", 0);
+        nodeManager.addNode(CONNECTOR_ID, new TestingNode("node10", HostAddress.fromParts("10.0.0.10", 8080)));
+        List<HostAddress> updated = affinity.getAddresses("hdfs://a/file0", 0);
+        assertTrue(updated.equals(original) || updated.equals(ImmutableList.of(HostAddress.fromParts("10.0.0.10", 8080))));
+    }
+
+    private static class TestingNode
+            implements Node
+    {
+        private final String nodeIdentifier;
+        private final HostAddress hostAndPort;
+
+        public TestingNode(String nodeIdentifier, HostAddress hostAndPort)
+        {
+            this.nodeIdentifier = nodeIdentifier;
+            this.hostAndPort = hostAndPort;
+        }
+
+        @Override
+        public HostAddress getHostAndPort()
+        {
+            return hostAndPort;
+        }
+
+        @Override
+        public URI getHttpUri()
+        {
+            return URI.create("http://" + hostAndPort);
+        }
+
+        @Override
+        public String getNodeIdentifier()
+        {
+            return nodeIdentifier;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.text;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestTextLineReader
+{
+    private static final int BUFFER_SIZE = (int) new DataSize(1, MEGABYTE).toBytes();
+
+    @Test
+    public void testLineEndings()
+            throws Exception
+    {
+        assertLines("", ImmutableList.of());
+        assertLines("a", ImmutableList.of("a"));
+        assertLines("a\n", ImmutableList.of("a"));
+        assertLines("a\r", ImmutableList.of("a"));
+        assertLines("a\r\n", ImmutableList.of("a"));
+        assertLines("a\nbb\r\nccc\rd", ImmutableList.of("a", "bb", "ccc", "d"));
+        assertLines("\n\r\n\r", ImmutableList.of("", "", ""));
+        assertLines("a\r\rb\n\nc", ImmutableList.of("a", "", "b", "", "c"));
+    }
+
+    @Test
+    public void testBatchSize()
+            throws Exception
+    {
+        byte[] data = "a\nb\nc\nd\ne\n".getBytes(UTF_8);
+        TextLineReader reader = new TextLineReader(new ByteArrayInputStream(data), 0, BUFFER_SIZE, 2);
+        assertEquals(reader.readLines(Long.MAX_VALUE), 2);
+        assertEquals(reader.readLines(Long.MAX_VALUE), 2);
+        assertEquals(reader.readLines(Long.MAX_VALUE), 1);
+        assertEquals(reader.readLines(Long.MAX_VALUE), 0);
+    }
+
+    @Test
+    public void testSplitBoundaries()
+            throws Exception
+    {
+        // lines start at 0, 4, 8 and 12
+        byte[] data = "aaa\nbbb\nccc\nddd\n".getBytes(UTF_8);
+
+        // a line that starts exactly at the end of a split belongs to that split
+        assertEquals(readSplit(data, 0, 4, BUFFER_SIZE, 100), ImmutableList.of("aaa", "bbb"));
+        // so the next split skips it, together with any partial line at its start
+        assertEquals(readSplit(data, 4, 4, BUFFER_SIZE, 100), ImmutableList.of("ccc"));
+        assertEquals(readSplit(data, 5, 3, BUFFER_SIZE, 100), ImmutableList.of("ccc"));
+        assertEquals(readSplit(data, 3, 1, BUFFER_SIZE, 100), ImmutableList.of("bbb"));
+        assertEquals(readSplit(data, 13, 3, BUFFER_SIZE, 100), ImmutableList.of());
+    }
+
+    @Test
+    public void testEveryLineReadByOneSplit()
+            throws Exception
+    {
+        assertSplitsReadAllLines("aaa\nbbb\nccc\nddd\n");
+        assertSplitsReadAllLines("a\r\nbb\r\n\r\nccc\rdddd\ne");
+        assertSplitsReadAllLines("\n\n\nx\n\n");
+    }
+
+    @Test
+    public void testLineLongerThanBuffer()
+            throws Exception
+    {
+        String longLine = Strings.repeat("x", BUFFER_SIZE + 17);
+        String data = "first\n" + longLine + "\r\nlast";
+
+        List<String> lines = readSplit(data.getBytes(UTF_8), 0, Long.MAX_VALUE, BUFFER_SIZE, 100);
+        assertEquals(lines.size(), 3);
+        assertEquals(lines.get(0), "first");
+        assertTrue(lines.get(1).equals(longLine));
+        assertEquals(lines.get(2), "last");
+
+        // the buffer also grows when a long line starts in the middle of the buffer
+        lines = readSplit(data.getBytes(UTF_8), 0, Long.MAX_VALUE, 4, 1);
+        assertEquals(lines.size(), 3);
+        assertTrue(lines.get(1).equals(longLine));
+    }
+
+    private static void assertLines(String data, List<String> expected)
+            throws IOException
+    {
+        byte[] bytes = data.getBytes(UTF_8);
+        // small buffers split CRLF pairs and lines over several reads
+        for (int bufferSize : new int[] {1, 2, 3, 7, BUFFER_SIZE}) {
+            for (int maxBatchSize : new int[] {1, 3, 100}) {
+                assertEquals(readSplit(bytes, 0, Long.MAX_VALUE, bufferSize, maxBatchSize), expected);
+            }
+        }
+    }
+
+    private static void assertSplitsReadAllLines(String data)
+            throws IOException
+    {
+        byte[] bytes = data.getBytes(UTF_8);
+        List<String> expected = readSplit(bytes, 0, Long.MAX_VALUE, BUFFER_SIZE, 100);
+        for (int splitSize = 1; splitSize <= bytes.length; splitSize++) {
+            for (int bufferSize : new int[] {1, 3, BUFFER_SIZE}) {
+                ImmutableList.Builder<String> lines = ImmutableList.builder();
+                for (int start = 0; start < bytes.length; start += splitSize) {
+                    lines.addAll(readSplit(bytes, start, Math.min(splitSize, bytes.length - start), bufferSize, 2));
+                }
+                assertEquals(lines.build(), expected, "splitSize " + splitSize + ", bufferSize " + bufferSize);
+            }
+        }
+    }
+
+    private static List<String> readSplit(byte[] data, long start, long length, int bufferSize, int maxBatchSize)
+            throws IOException
+    {
+        long endPosition = (length == Long.MAX_VALUE) ? Long.MAX_VALUE : start + length;
+        ImmutableList.Builder<String> lines = ImmutableList.builder();
+        try (TextLineReader reader = new TextLineReader(new ByteArrayInputStream(data, (int) start, data.length - (int) start), start, bufferSize, maxBatchSize)) {
+            if (start != 0) {
+                reader.skipLine();
+            }
+            while (true) {
+                int lineCount = reader.readLines(endPosition);
+                if (lineCount == 0) {
+                    return lines.build();
+                }
+                for (int line = 0; line < lineCount; line++) {
+                    lines.add(new String(reader.getBuffer(), reader.getLineStart(line), reader.getLineLength(line), UTF_8));
+                }
+            }
+        }
+    }
+}
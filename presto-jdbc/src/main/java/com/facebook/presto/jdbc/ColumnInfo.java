@@ -103,12 +103,36 @@ class ColumnInfo
                 builder.setScale(0);
                 builder.setColumnDisplaySize(20);
                 break;
+            case "integer":
+                builder.setSigned(true);
+                builder.setPrecision(10);
+                builder.setScale(0);
+                builder.setColumnDisplaySize(11);
+                break;
+            case "smallint":
+                builder.setSigned(true);
+                builder.setPrecision(5);
+                builder.setScale(0);
+                builder.setColumnDisplaySize(6);
+                break;
+            case "tinyint":
+                builder.setSigned(true);
+                builder.setPrecision(3);
+                builder.setScale(0);
+                builder.setColumnDisplaySize(4);
+                break;
             case "double":
                 builder.setSigned(true);
                 builder.setPrecision(17);
                 builder.setScale(0);
                 builder.setColumnDisplaySize(24);
                 break;
+            case "real":
+                builder.setSigned(true);
+                builder.setPrecision(9);
+                builder.setScale(0);
+                builder.setColumnDisplaySize(16);
+                break;
             case "varchar":
                 builder.setSigned(true);
                 builder.setPrecision(VARCHAR_MAX);
@@ -185,8 +209,16 @@ class ColumnInfo
                 return Types.BOOLEAN;
             case "bigint":
                 return Types.BIGINT;
+            case "integer":
+                return Types.INTEGER;
+            case "smallint":
+                return Types.SMALLINT;
+            case "tinyint":
+                return Types.TINYINT;
             case "double":
                 return Types.DOUBLE;
+            case "real":
+                return Types.REAL;
             case "varchar":
                 return Types.LONGNVARCHAR;
             case "varbinary":
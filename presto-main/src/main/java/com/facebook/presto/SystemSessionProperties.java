@@ -27,7 +27,9 @@ import javax.inject.Inject;
 import java.util.List;
 
 import static com.facebook.presto.spi.session.PropertyMetadata.booleanSessionProperty;
+import static com.facebook.presto.spi.session.PropertyMetadata.doubleSessionProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.integerSessionProperty;
+import static com.facebook.presto.spi.session.PropertyMetadata.longSessionProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.stringSessionProperty;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 
@@ -36,6 +38,8 @@ public final class SystemSessionProperties
     public static final String OPTIMIZE_HASH_GENERATION = "optimize_hash_generation";
     public static final String DISTRIBUTED_JOIN = "distributed_join";
     public static final String DISTRIBUTED_INDEX_JOIN = "distributed_index_join";
+    public static final String REORDER_JOINS = "reorder_joins";
+    public static final String JOIN_MAX_BROADCAST_ROWS = "join_max_broadcast_rows";
     public static final String HASH_PARTITION_COUNT = "hash_partition_count";
     public static final String PREFER_STREAMING_OPERATORS = "prefer_streaming_operators";
     public static final String TASK_WRITER_COUNT = "task_writer_count";
@@ -60,6 +64,16 @@ public final class SystemSessionProperties
     public static final String REGEX_LIBRARY = "regex_library";
     public static final String RE2J_DFA_STATES_LIMIT = "re2j_dfa_states_limit";
     public static final String RE2J_DFA_RETRIES = "re2j_dfa_retries";
+    public static final String SPILL_ENABLED = "spill_enabled";
+    public static final String ORDER_BY_SPILL_ENABLED = "order_by_spill_enabled";
+    public static final String WINDOW_SPILL_ENABLED = "window_spill_enabled";
+    public static final String JOIN_SPILL_ENABLED = "join_spill_enabled";
+    public static final String DYNAMIC_FILTERING_ENABLED = "dynamic_filtering_enabled";
+    public static final String MERGE_JOIN_ENABLED = "merge_join_enabled";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_ENABLED = "adaptive_partial_aggregation_enabled";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS = "adaptive_partial_aggregation_min_rows";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD = "adaptive_partial_aggregation_unique_rows_ratio_threshold";
+    public static final String OPERATOR_MEMORY_LIMIT_BEFORE_SPILL = "operator_memory_limit_before_spill";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -113,6 +127,16 @@ public final class SystemSessionProperties
                         "Distribute index joins on join keys instead of executing inline",
                         featuresConfig.isDistributedIndexJoinsEnabled(),
                         false),
+                booleanSessionProperty(
+                        REORDER_JOINS,
+                        "Experimental: Reorder inner joins using table statistics",
+                        featuresConfig.isReorderJoins(),
+                        false),
+                longSessionProperty(
+                        JOIN_MAX_BROADCAST_ROWS,
+                        "Experimental: Broadcast the build side of a join if it is estimated to have at most this many rows (0 to disable)",
+                        featuresConfig.getJoinMaxBroadcastRows(),
+                        false),
                 integerSessionProperty(
                         HASH_PARTITION_COUNT,
                         "Number of partitions for distributed joins and aggregations",
@@ -221,7 +245,60 @@ public final class SystemSessionProperties
                         PARSE_DECIMAL_LITERALS_AS_DOUBLE,
                         "Parse decimal literals as DOUBLE instead of DECIMAL",
                         featuresConfig.isParseDecimalLiteralsAsDouble(),
-                        false));
+                        false),
+                booleanSessionProperty(
+                        SPILL_ENABLED,
+                        "Experimental: Enable spilling",
+                        featuresConfig.isSpillEnabled(),
+                        false),
+                booleanSessionProperty(
+                        ORDER_BY_SPILL_ENABLED,
+                        "Experimental: Enable external sort for ORDER BY when spilling is enabled",
+                        featuresConfig.isOrderBySpillEnabled(),
+                        false),
+                booleanSessionProperty(
+                        WINDOW_SPILL_ENABLED,
+                        "Experimental: Enable external sort for window functions when spilling is enabled",
+                        featuresConfig.isWindowSpillEnabled(),
+                        false),
+                booleanSessionProperty(
+                        JOIN_SPILL_ENABLED,
+                        "Experimental: Enable spilling of the build side of hash joins when spilling is enabled",
+                        featuresConfig.isJoinSpillEnabled(),
+                        false),
+                booleanSessionProperty(
+                        DYNAMIC_FILTERING_ENABLED,
+                        "Experimental: Filter the probe side table scans of joins with the join keys of the build side",
+                        featuresConfig.isDynamicFilteringEnabled(),
+                        false),
+                booleanSessionProperty(
+                        MERGE_JOIN_ENABLED,
+                        "Experimental: Use a merge join when both join inputs are sorted on the join keys",
+                        featuresConfig.isMergeJoinEnabled(),
+                        false),
+                booleanSessionProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_ENABLED,
+                        "Pass rows through partial aggregations that do not reduce the number of rows",
+                        featuresConfig.isAdaptivePartialAggregationEnabled(),
+                        false),
+                longSessionProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS,
+                        "Number of input rows a partial aggregation processes before deciding whether it is effective",
+                        featuresConfig.getAdaptivePartialAggregationMinRows(),
+                        false),
+                doubleSessionProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD,
+                        "Ratio of groups to input rows above which a partial aggregation is disabled",
+                        featuresConfig.getAdaptivePartialAggregationUniqueRowsRatioThreshold(),
+                        false),
+                new PropertyMetadata<>(
+                        OPERATOR_MEMORY_LIMIT_BEFORE_SPILL,
+                        "Experimental: Operator memory limit before spill",
+                        VARCHAR,
+                        DataSize.class,
+                        featuresConfig.getOperatorMemoryLimitBeforeSpill(),
+                        false,
+                        value -> DataSize.valueOf((String) value)));
     }
 
     public List<PropertyMetadata<?>> getSessionProperties()
@@ -244,6 +321,16 @@ public final class SystemSessionProperties
         return session.getProperty(DISTRIBUTED_JOIN, Boolean.class);
     }
 
+    public static boolean isReorderJoins(Session session)
+    {
+        return session.getProperty(REORDER_JOINS, Boolean.class);
+    }
+
+    public static long getJoinMaxBroadcastRows(Session session)
+    {
+        return session.getProperty(JOIN_MAX_BROADCAST_ROWS, Long.class);
+    }
+
     public static boolean isDistributedIndexJoinEnabled(Session session)
     {
         return session.getProperty(DISTRIBUTED_INDEX_JOIN, Boolean.class);
@@ -348,4 +435,54 @@ public final class SystemSessionProperties
     {
         return session.getProperty(PARSE_DECIMAL_LITERALS_AS_DOUBLE, Boolean.class);
     }
+
+    public static boolean isSpillEnabled(Session session)
+    {
+        return session.getProperty(SPILL_ENABLED, Boolean.class);
+    }
+
+    public static boolean isOrderBySpillEnabled(Session session)
+    {
+        return session.getProperty(ORDER_BY_SPILL_ENABLED, Boolean.class) && isSpillEnabled(session);
+    }
+
+    public static boolean isWindowSpillEnabled(Session session)
+    {
+        return session.getProperty(WINDOW_SPILL_ENABLED, Boolean.class) && isSpillEnabled(session);
+    }
+
+    public static boolean isJoinSpillEnabled(Session session)
+    {
+        return session.getProperty(JOIN_SPILL_ENABLED, Boolean.class) && isSpillEnabled(session);
+    }
+
+    public static boolean isDynamicFilteringEnabled(Session session)
+    {
+        return session.getProperty(DYNAMIC_FILTERING_ENABLED, Boolean.class);
+    }
+
+    public static boolean isMergeJoinEnabled(Session session)
+    {
+        return session.getProperty(MERGE_JOIN_ENABLED, Boolean.class);
+    }
+
+    public static boolean isAdaptivePartialAggregationEnabled(Session session)
+    {
+        return session.getProperty(ADAPTIVE_PARTIAL_AGGREGATION_ENABLED, Boolean.class);
+    }
+
+    public static long getAdaptivePartialAggregationMinRows(Session session)
+    {
+        return session.getProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, Long.class);
+    }
+
+    public static double getAdaptivePartialAggregationUniqueRowsRatioThreshold(Session session)
+    {
+        return session.getProperty(ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD, Double.class);
+    }
+
+    public static DataSize getOperatorMemoryLimitBeforeSpill(Session session)
+    {
+        return session.getProperty(OPERATOR_MEMORY_LIMIT_BEFORE_SPILL, DataSize.class);
+    }
 }
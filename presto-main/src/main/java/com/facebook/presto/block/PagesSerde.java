@@ -17,13 +17,22 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.google.common.collect.AbstractIterator;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import org.iq80.snappy.Snappy;
 
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Iterator;
 
 import static com.facebook.presto.block.BlockSerdeUtil.readBlock;
 import static com.facebook.presto.block.BlockSerdeUtil.writeBlock;
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 
@@ -33,8 +42,29 @@ import static java.util.Objects.requireNonNull;
 //   - sequence of:
 //       - block encoding
 //       - block
+//
+// exchange layout is:
+//   - position count (int)
+//   - page codec (byte)
+//   - for a raw page:
+//       - number of blocks and blocks, as above
+//   - for a snappy compressed page:
+//       - uncompressed size (int)
+//       - compressed size (int)
+//       - compressed number of blocks and blocks, as above
 public final class PagesSerde
 {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final byte RAW_PAGE = 0;
+    private static final byte SNAPPY_PAGE = 1;
+
+    // pages that do not compress to at most this fraction of their size are sent raw
+    private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
+
+    private static final int RAW_PAGE_HEADER_SIZE = 5;
+    private static final int COMPRESSED_PAGE_HEADER_SIZE = 13;
+
     private PagesSerde() {}
 
     public static void writePages(BlockEncodingSerde blockEncodingSerde, SliceOutput sliceOutput, Page... pages)
@@ -49,9 +79,10 @@ public final class PagesSerde
 
     public static void writePages(BlockEncodingSerde blockEncodingSerde, SliceOutput sliceOutput, Iterator<Page> pages)
     {
-        PagesWriter pagesWriter = new PagesWriter(blockEncodingSerde, sliceOutput);
         while (pages.hasNext()) {
-            pagesWriter.append(pages.next());
+            Page page = requireNonNull(pages.next(), "page is null");
+            sliceOutput.writeInt(page.getPositionCount());
+            writeBlocks(blockEncodingSerde, sliceOutput, page);
         }
     }
 
@@ -60,29 +91,157 @@ public final class PagesSerde
         return new PagesReader(blockEncodingSerde, sliceInput);
     }
 
-    private static class PagesWriter
+    /**
+     * Writes the pages in the exchange layout, compressing each page that compresses well enough
+     * when compression is enabled. The sizes of the pages and the compression time are recorded in
+     * the given stats.
+     */
+    public static void writeExchangePages(BlockEncodingSerde blockEncodingSerde, boolean compressionEnabled, SliceOutput sliceOutput, Iterable<Page> pages, PagesWriteStats stats)
+    {
+        ExchangePagesWriter pagesWriter = new ExchangePagesWriter(blockEncodingSerde, compressionEnabled, sliceOutput, stats);
+        for (Page page : pages) {
+            pagesWriter.append(page);
+        }
+    }
+
+    /**
+     * Reads pages in the exchange layout, recording the serialized and uncompressed sizes of the
+     * pages read in the given stats.
+     */
+    public static Iterator<Page> readExchangePages(BlockEncodingSerde blockEncodingSerde, SliceInput sliceInput, PagesReadStats stats)
+    {
+        return new ExchangePagesReader(blockEncodingSerde, sliceInput, stats);
+    }
+
+    private static void writeBlocks(BlockEncodingSerde serde, SliceOutput sliceOutput, Page page)
+    {
+        Block[] blocks = page.getBlocks();
+        sliceOutput.writeInt(blocks.length);
+        for (int i = 0; i < blocks.length; i++) {
+            writeBlock(serde, sliceOutput, blocks[i]);
+        }
+    }
+
+    private static Block[] readBlocks(BlockEncodingSerde serde, SliceInput sliceInput)
+    {
+        int numberOfBlocks = sliceInput.readInt();
+        Block[] blocks = new Block[numberOfBlocks];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = readBlock(serde, sliceInput);
+        }
+        return blocks;
+    }
+
+    @NotThreadSafe
+    public static class PagesWriteStats
+    {
+        private long serializedBytes;
+        private long uncompressedBytes;
+        private long compressionCpuNanos;
+
+        public long getSerializedBytes()
+        {
+            return serializedBytes;
+        }
+
+        public long getUncompressedBytes()
+        {
+            return uncompressedBytes;
+        }
+
+        public long getCompressionCpuNanos()
+        {
+            return compressionCpuNanos;
+        }
+    }
+
+    @NotThreadSafe
+    public static class PagesReadStats
+    {
+        private long serializedBytes;
+        private long uncompressedBytes;
+        private long decompressionCpuNanos;
+
+        public long getSerializedBytes()
+        {
+            return serializedBytes;
+        }
+
+        public long getUncompressedBytes()
+        {
+            return uncompressedBytes;
+        }
+
+        public long getDecompressionCpuNanos()
+        {
+            return decompressionCpuNanos;
+        }
+    }
+
+    private static class ExchangePagesWriter
     {
         private final BlockEncodingSerde serde;
+        private final boolean compressionEnabled;
         private final SliceOutput output;
+        private final PagesWriteStats stats;
+
+        private DynamicSliceOutput pageBuffer;
+        private byte[] compressionBuffer;
 
-        private PagesWriter(BlockEncodingSerde serde, SliceOutput output)
+        private ExchangePagesWriter(BlockEncodingSerde serde, boolean compressionEnabled, SliceOutput output, PagesWriteStats stats)
         {
             this.serde = requireNonNull(serde, "serde is null");
+            this.compressionEnabled = compressionEnabled;
             this.output = requireNonNull(output, "output is null");
+            this.stats = requireNonNull(stats, "stats is null");
         }
 
-        public PagesWriter append(Page page)
+        public ExchangePagesWriter append(Page page)
         {
             requireNonNull(page, "page is null");
 
-            Block[] blocks = page.getBlocks();
-
             output.writeInt(page.getPositionCount());
-            output.writeInt(blocks.length);
-            for (int i = 0; i < blocks.length; i++) {
-                writeBlock(serde, output, blocks[i]);
+            if (!compressionEnabled) {
+                output.writeByte(RAW_PAGE);
+                long start = output.size();
+                writeBlocks(serde, output, page);
+                long size = RAW_PAGE_HEADER_SIZE + output.size() - start;
+                stats.serializedBytes += size;
+                stats.uncompressedBytes += size;
+                return this;
             }
 
+            if (pageBuffer == null) {
+                pageBuffer = new DynamicSliceOutput(page.getSizeInBytes());
+            }
+            pageBuffer.reset();
+            writeBlocks(serde, pageBuffer, page);
+            Slice serializedPage = pageBuffer.slice();
+
+            long start = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+            // the buffer of a dynamic slice output is a heap slice starting at offset zero
+            byte[] uncompressed = (byte[]) pageBuffer.getUnderlyingSlice().getBase();
+            int uncompressedSize = serializedPage.length();
+            int maxCompressedSize = Snappy.maxCompressedLength(uncompressedSize);
+            if (compressionBuffer == null || compressionBuffer.length < maxCompressedSize) {
+                compressionBuffer = new byte[maxCompressedSize];
+            }
+            int compressedSize = Snappy.compress(uncompressed, 0, uncompressedSize, compressionBuffer, 0);
+            stats.compressionCpuNanos += THREAD_MX_BEAN.getCurrentThreadCpuTime() - start;
+            stats.uncompressedBytes += RAW_PAGE_HEADER_SIZE + uncompressedSize;
+
+            if (compressedSize > uncompressedSize * MINIMUM_COMPRESSION_RATIO) {
+                output.writeByte(RAW_PAGE);
+                output.writeBytes(serializedPage);
+                stats.serializedBytes += RAW_PAGE_HEADER_SIZE + uncompressedSize;
+                return this;
+            }
+
+            output.writeByte(SNAPPY_PAGE);
+            output.writeInt(uncompressedSize);
+            output.writeInt(compressedSize);
+            output.writeBytes(compressionBuffer, 0, compressedSize);
+            stats.serializedBytes += COMPRESSED_PAGE_HEADER_SIZE + compressedSize;
             return this;
         }
     }
@@ -107,15 +266,57 @@ public final class PagesSerde
             }
 
             int positions = input.readInt();
-            int numberOfBlocks = input.readInt();
-            Block[] blocks = new Block[numberOfBlocks];
-            for (int i = 0; i < blocks.length; i++) {
-                blocks[i] = readBlock(serde, input);
+            return new Page(positions, readBlocks(serde, input));
+        }
+    }
+
+    private static class ExchangePagesReader
+            extends AbstractIterator<Page>
+    {
+        private final BlockEncodingSerde serde;
+        private final SliceInput input;
+        private final PagesReadStats stats;
+
+        public ExchangePagesReader(BlockEncodingSerde serde, SliceInput input, PagesReadStats stats)
+        {
+            this.serde = requireNonNull(serde, "serde is null");
+            this.input = requireNonNull(input, "input is null");
+            this.stats = requireNonNull(stats, "stats is null");
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            if (!input.isReadable()) {
+                return endOfData();
+            }
+
+            int positions = input.readInt();
+            byte codec = input.readByte();
+            if (codec == RAW_PAGE) {
+                long start = input.position();
+                Block[] blocks = readBlocks(serde, input);
+                long size = RAW_PAGE_HEADER_SIZE + input.position() - start;
+                stats.serializedBytes += size;
+                stats.uncompressedBytes += size;
+                return new Page(positions, blocks);
             }
+            checkState(codec == SNAPPY_PAGE, "Unknown page codec %s", codec);
+
+            int uncompressedSize = input.readInt();
+            int compressedSize = input.readInt();
+            byte[] compressed = new byte[compressedSize];
+            input.readBytes(compressed);
+
+            long start = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+            byte[] uncompressed = new byte[uncompressedSize];
+            int actualSize = Snappy.uncompress(compressed, 0, compressedSize, uncompressed, 0);
+            checkState(actualSize == uncompressedSize, "Expected page of %s bytes, but decompressed %s bytes", uncompressedSize, actualSize);
+            stats.decompressionCpuNanos += THREAD_MX_BEAN.getCurrentThreadCpuTime() - start;
 
-            @SuppressWarnings("UnnecessaryLocalVariable")
-            Page page = new Page(positions, blocks);
-            return page;
+            stats.serializedBytes += COMPRESSED_PAGE_HEADER_SIZE + compressedSize;
+            stats.uncompressedBytes += RAW_PAGE_HEADER_SIZE + uncompressedSize;
+            return new Page(positions, readBlocks(serde, Slices.wrappedBuffer(uncompressed).getInput()));
         }
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cost;
+
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.sql.planner.Symbol;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimated size and value distribution of the output of a plan node.
+ */
+public class PlanNodeStatsEstimate
+{
+    public static final PlanNodeStatsEstimate UNKNOWN_STATS = new PlanNodeStatsEstimate(unknownValue(), ImmutableMap.of());
+
+    private final Estimate outputRowCount;
+    private final Map<Symbol, ColumnStatistics> symbolStatistics;
+
+    public PlanNodeStatsEstimate(Estimate outputRowCount, Map<Symbol, ColumnStatistics> symbolStatistics)
+    {
+        this.outputRowCount = requireNonNull(outputRowCount, "outputRowCount is null");
+        this.symbolStatistics = ImmutableMap.copyOf(requireNonNull(symbolStatistics, "symbolStatistics is null"));
+    }
+
+    public Estimate getOutputRowCount()
+    {
+        return outputRowCount;
+    }
+
+    public Map<Symbol, ColumnStatistics> getSymbolStatistics()
+    {
+        return symbolStatistics;
+    }
+
+    public ColumnStatistics getSymbolStatistics(Symbol symbol)
+    {
+        return symbolStatistics.getOrDefault(symbol, ColumnStatistics.empty());
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PlanNodeStatsEstimate that = (PlanNodeStatsEstimate) o;
+        return Objects.equals(outputRowCount, that.outputRowCount) &&
+                Objects.equals(symbolStatistics, that.symbolStatistics);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(outputRowCount, symbolStatistics);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("outputRowCount", outputRowCount)
+                .add("symbolStatistics", symbolStatistics)
+                .toString();
+    }
+}
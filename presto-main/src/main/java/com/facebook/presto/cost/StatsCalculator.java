@@ -0,0 +1,359 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cost;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.TableLayoutHandle;
+import com.facebook.presto.metadata.TableLayoutResult;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.DomainTranslator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanVisitor;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SemiJoinNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.QualifiedNameReference;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
+import static com.facebook.presto.spi.statistics.Estimate.zeroValue;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
+import static com.facebook.presto.sql.tree.BooleanLiteral.TRUE_LITERAL;
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableSet;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimates the output of plan nodes from the table statistics provided by the connectors.
+ * Predicates that can not be estimated from the statistics are assumed to have a fixed
+ * selectivity, and the estimate is unknown for nodes whose output can not be derived at all.
+ */
+public class StatsCalculator
+{
+    private static final double UNKNOWN_FILTER_SELECTIVITY = 0.5;
+
+    private final Metadata metadata;
+
+    public StatsCalculator(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    public PlanNodeStatsEstimate calculateStats(PlanNode node, Session session, Map<Symbol, Type> types)
+    {
+        return createStatsProvider(session, types).getStats(node);
+    }
+
+    /**
+     * Creates a provider that remembers the estimate of every plan node it has visited, so that
+     * estimating overlapping parts of one plan does not query the connectors repeatedly.
+     * The provider must not outlive the optimization of the plan.
+     */
+    public StatsProvider createStatsProvider(Session session, Map<Symbol, Type> types)
+    {
+        return new StatsProvider(session, types);
+    }
+
+    /**
+     * Estimates the output of an inner join from the estimates of its sources. Each equi-join
+     * clause is assumed to join on a key of the side with more distinct values, and when the
+     * number of distinct values is not known, to join on a key of the smaller side.
+     */
+    public static PlanNodeStatsEstimate estimateInnerJoin(PlanNodeStatsEstimate left, PlanNodeStatsEstimate right, List<JoinNode.EquiJoinClause> criteria)
+    {
+        ImmutableMap.Builder<Symbol, ColumnStatistics> symbolStatistics = ImmutableMap.builder();
+        symbolStatistics.putAll(left.getSymbolStatistics());
+        symbolStatistics.putAll(right.getSymbolStatistics());
+
+        if (left.getOutputRowCount().isValueUnknown() || right.getOutputRowCount().isValueUnknown()) {
+            return new PlanNodeStatsEstimate(unknownValue(), symbolStatistics.build());
+        }
+
+        double leftRows = left.getOutputRowCount().getValue();
+        double rightRows = right.getOutputRowCount().getValue();
+        double rows = leftRows * rightRows;
+        if (!criteria.isEmpty()) {
+            rows = max(leftRows, rightRows);
+            for (JoinNode.EquiJoinClause clause : criteria) {
+                Estimate leftDistinctValues = left.getSymbolStatistics(clause.getLeft()).getDistinctValuesCount();
+                Estimate rightDistinctValues = right.getSymbolStatistics(clause.getRight()).getDistinctValuesCount();
+                double distinctValues = max(
+                        leftDistinctValues.isValueUnknown() ? 0 : leftDistinctValues.getValue(),
+                        rightDistinctValues.isValueUnknown() ? 0 : rightDistinctValues.getValue());
+                if (distinctValues > 0) {
+                    rows = min(rows, leftRows * rightRows / distinctValues);
+                }
+            }
+        }
+        return new PlanNodeStatsEstimate(new Estimate(rows), symbolStatistics.build());
+    }
+
+    public class StatsProvider
+    {
+        private final Visitor visitor;
+        // plan nodes do not implement equals, and are immutable
+        private final Map<PlanNode, PlanNodeStatsEstimate> stats = new IdentityHashMap<>();
+
+        private StatsProvider(Session session, Map<Symbol, Type> types)
+        {
+            this.visitor = new Visitor(session, types, this);
+        }
+
+        public PlanNodeStatsEstimate getStats(PlanNode node)
+        {
+            requireNonNull(node, "node is null");
+            PlanNodeStatsEstimate estimate = stats.get(node);
+            if (estimate == null) {
+                estimate = node.accept(visitor, null);
+                stats.put(node, estimate);
+            }
+            return estimate;
+        }
+    }
+
+    private class Visitor
+            extends PlanVisitor<Void, PlanNodeStatsEstimate>
+    {
+        private final Session session;
+        private final Map<Symbol, Type> types;
+        private final StatsProvider statsProvider;
+
+        public Visitor(Session session, Map<Symbol, Type> types, StatsProvider statsProvider)
+        {
+            this.session = requireNonNull(session, "session is null");
+            this.types = requireNonNull(types, "types is null");
+            this.statsProvider = requireNonNull(statsProvider, "statsProvider is null");
+        }
+
+        @Override
+        protected PlanNodeStatsEstimate visitPlan(PlanNode node, Void context)
+        {
+            return PlanNodeStatsEstimate.UNKNOWN_STATS;
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitTableScan(TableScanNode node, Void context)
+        {
+            return estimateTableScan(node, TRUE_LITERAL);
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitFilter(FilterNode node, Void context)
+        {
+            if (node.getSource() instanceof TableScanNode) {
+                return estimateTableScan((TableScanNode) node.getSource(), node.getPredicate());
+            }
+
+            DomainTranslator.ExtractionResult decomposedPredicate = DomainTranslator.fromPredicate(metadata, session, node.getPredicate(), types);
+            PlanNodeStatsEstimate sourceStats = statsProvider.getStats(node.getSource());
+            return estimateFilter(sourceStats, decomposedPredicate.getTupleDomain(), decomposedPredicate.getRemainingExpression());
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitProject(ProjectNode node, Void context)
+        {
+            PlanNodeStatsEstimate sourceStats = statsProvider.getStats(node.getSource());
+
+            ImmutableMap.Builder<Symbol, ColumnStatistics> symbolStatistics = ImmutableMap.builder();
+            for (Map.Entry<Symbol, Expression> entry : node.getAssignments().entrySet()) {
+                if (entry.getValue() instanceof QualifiedNameReference) {
+                    Symbol source = Symbol.fromQualifiedName(((QualifiedNameReference) entry.getValue()).getName());
+                    symbolStatistics.put(entry.getKey(), sourceStats.getSymbolStatistics(source));
+                }
+            }
+            return new PlanNodeStatsEstimate(sourceStats.getOutputRowCount(), symbolStatistics.build());
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitJoin(JoinNode node, Void context)
+        {
+            PlanNodeStatsEstimate leftStats = statsProvider.getStats(node.getLeft());
+            PlanNodeStatsEstimate rightStats = statsProvider.getStats(node.getRight());
+            PlanNodeStatsEstimate innerJoinStats = estimateInnerJoin(leftStats, rightStats, node.getCriteria());
+
+            // outer joins produce at least one row for each row of the outer side
+            Estimate rowCount = innerJoinStats.getOutputRowCount();
+            if (node.getType() == LEFT || node.getType() == FULL) {
+                rowCount = maxEstimate(rowCount, leftStats.getOutputRowCount());
+            }
+            if (node.getType() == RIGHT || node.getType() == FULL) {
+                rowCount = maxEstimate(rowCount, rightStats.getOutputRowCount());
+            }
+            return new PlanNodeStatsEstimate(rowCount, innerJoinStats.getSymbolStatistics());
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitSemiJoin(SemiJoinNode node, Void context)
+        {
+            PlanNodeStatsEstimate sourceStats = statsProvider.getStats(node.getSource());
+            return new PlanNodeStatsEstimate(sourceStats.getOutputRowCount(), sourceStats.getSymbolStatistics());
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitAggregation(AggregationNode node, Void context)
+        {
+            PlanNodeStatsEstimate sourceStats = statsProvider.getStats(node.getSource());
+
+            ImmutableMap.Builder<Symbol, ColumnStatistics> symbolStatistics = ImmutableMap.builder();
+            double groups = 1;
+            for (Symbol symbol : node.getGroupBy()) {
+                ColumnStatistics statistics = sourceStats.getSymbolStatistics(symbol);
+                symbolStatistics.put(symbol, statistics);
+                Estimate distinctValues = statistics.getDistinctValuesCount();
+                groups = distinctValues.isValueUnknown() ? Double.POSITIVE_INFINITY : groups * distinctValues.getValue();
+            }
+
+            // there can not be more groups than input rows
+            double maxGroups = groups;
+            Estimate rowCount = sourceStats.getOutputRowCount().map(rows -> min(rows, maxGroups));
+            if (node.getGroupBy().isEmpty()) {
+                rowCount = new Estimate(1);
+            }
+            return new PlanNodeStatsEstimate(rowCount, symbolStatistics.build());
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitValues(ValuesNode node, Void context)
+        {
+            return new PlanNodeStatsEstimate(new Estimate(node.getRows().size()), ImmutableMap.of());
+        }
+
+        @Override
+        public PlanNodeStatsEstimate visitLimit(LimitNode node, Void context)
+        {
+            PlanNodeStatsEstimate sourceStats = statsProvider.getStats(node.getSource());
+            Estimate rowCount = sourceStats.getOutputRowCount();
+            if (rowCount.isValueUnknown() || rowCount.getValue() > node.getCount()) {
+                rowCount = new Estimate(node.getCount());
+            }
+            return new PlanNodeStatsEstimate(rowCount, sourceStats.getSymbolStatistics());
+        }
+
+        private PlanNodeStatsEstimate estimateTableScan(TableScanNode node, Expression predicate)
+        {
+            DomainTranslator.ExtractionResult decomposedPredicate = DomainTranslator.fromPredicate(metadata, session, predicate, types);
+
+            if (node.getLayout().isPresent()) {
+                // the layout was chosen for the predicate already, which only retains what the layout does not enforce
+                PlanNodeStatsEstimate scanStats = estimateTableScan(node, node.getLayout().get());
+                return estimateFilter(scanStats, decomposedPredicate.getTupleDomain(), decomposedPredicate.getRemainingExpression());
+            }
+
+            TupleDomain<ColumnHandle> constraint = decomposedPredicate.getTupleDomain()
+                    .transform(node.getAssignments()::get)
+                    .intersect(node.getCurrentConstraint());
+
+            // use the layout the connector prefers for the predicate, so that the statistics reflect pruned partitions
+            List<TableLayoutResult> layouts = metadata.getLayouts(
+                    session,
+                    node.getTable(),
+                    new Constraint<>(constraint, bindings -> true),
+                    Optional.of(node.getOutputSymbols().stream()
+                            .map(node.getAssignments()::get)
+                            .collect(toImmutableSet())));
+            if (layouts.isEmpty()) {
+                return new PlanNodeStatsEstimate(zeroValue(), ImmutableMap.of());
+            }
+            TableLayoutResult layout = layouts.get(0);
+
+            PlanNodeStatsEstimate scanStats = estimateTableScan(node, layout.getLayout().getHandle());
+            return estimateFilter(scanStats, toSymbolDomain(layout.getUnenforcedConstraint(), node.getAssignments()), decomposedPredicate.getRemainingExpression());
+        }
+
+        private PlanNodeStatsEstimate estimateTableScan(TableScanNode node, TableLayoutHandle layout)
+        {
+            TableStatistics tableStatistics = metadata.getTableStatistics(session, node.getTable(), layout);
+            ImmutableMap.Builder<Symbol, ColumnStatistics> symbolStatistics = ImmutableMap.builder();
+            for (Map.Entry<Symbol, ColumnHandle> entry : node.getAssignments().entrySet()) {
+                ColumnStatistics statistics = tableStatistics.getColumnStatistics().get(entry.getValue());
+                if (statistics != null) {
+                    symbolStatistics.put(entry.getKey(), statistics);
+                }
+            }
+            return new PlanNodeStatsEstimate(tableStatistics.getRowCount(), symbolStatistics.build());
+        }
+    }
+
+    private static PlanNodeStatsEstimate estimateFilter(PlanNodeStatsEstimate sourceStats, TupleDomain<Symbol> tupleDomain, Expression remainingExpression)
+    {
+        if (tupleDomain.isNone()) {
+            return new PlanNodeStatsEstimate(zeroValue(), sourceStats.getSymbolStatistics());
+        }
+
+        double selectivity = 1;
+        for (Map.Entry<Symbol, Domain> entry : tupleDomain.getDomains().get().entrySet()) {
+            Estimate distinctValues = sourceStats.getSymbolStatistics(entry.getKey()).getDistinctValuesCount();
+            if (entry.getValue().isSingleValue() && !distinctValues.isValueUnknown() && distinctValues.getValue() > 0) {
+                selectivity *= 1 / distinctValues.getValue();
+            }
+            else {
+                selectivity *= UNKNOWN_FILTER_SELECTIVITY;
+            }
+        }
+        if (!remainingExpression.equals(TRUE_LITERAL)) {
+            selectivity *= UNKNOWN_FILTER_SELECTIVITY;
+        }
+
+        double filterSelectivity = selectivity;
+        return new PlanNodeStatsEstimate(sourceStats.getOutputRowCount().map(rows -> rows * filterSelectivity), sourceStats.getSymbolStatistics());
+    }
+
+    private static TupleDomain<Symbol> toSymbolDomain(TupleDomain<ColumnHandle> tupleDomain, Map<Symbol, ColumnHandle> assignments)
+    {
+        if (tupleDomain.isNone()) {
+            return TupleDomain.none();
+        }
+
+        Map<ColumnHandle, Domain> columnDomains = tupleDomain.getDomains().get();
+        ImmutableMap.Builder<Symbol, Domain> symbolDomains = ImmutableMap.builder();
+        for (Map.Entry<Symbol, ColumnHandle> entry : assignments.entrySet()) {
+            Domain domain = columnDomains.get(entry.getValue());
+            if (domain != null) {
+                symbolDomains.put(entry.getKey(), domain);
+            }
+        }
+        return TupleDomain.withColumnDomains(symbolDomains.build());
+    }
+
+    private static Estimate maxEstimate(Estimate first, Estimate second)
+    {
+        if (first.isValueUnknown() || second.isValueUnknown()) {
+            return unknownValue();
+        }
+        return new Estimate(Math.max(first.getValue(), second.getValue()));
+    }
+}
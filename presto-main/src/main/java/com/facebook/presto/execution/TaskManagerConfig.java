@@ -43,6 +43,7 @@ public class TaskManagerConfig
     private Duration splitConcurrencyAdjustmentInterval = new Duration(100, TimeUnit.MILLISECONDS);
 
     private DataSize sinkMaxBufferSize = new DataSize(32, Unit.MEGABYTE);
+    private boolean sinkCompressionEnabled;
 
     private Duration clientTimeout = new Duration(2, TimeUnit.MINUTES);
     private Duration infoMaxAge = new Duration(15, TimeUnit.MINUTES);
@@ -216,6 +217,19 @@ public class TaskManagerConfig
         return this;
     }
 
+    public boolean isSinkCompressionEnabled()
+    {
+        return sinkCompressionEnabled;
+    }
+
+    @Config("sink.compression-enabled")
+    @ConfigDescription("Compress pages sent to other nodes when compression saves enough space")
+    public TaskManagerConfig setSinkCompressionEnabled(boolean sinkCompressionEnabled)
+    {
+        this.sinkCompressionEnabled = sinkCompressionEnabled;
+        return this;
+    }
+
     @MinDuration("5s")
     @NotNull
     public Duration getClientTimeout()
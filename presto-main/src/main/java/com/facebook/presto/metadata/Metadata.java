@@ -16,10 +16,13 @@ package com.facebook.presto.metadata;
 import com.facebook.presto.Session;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregation;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
@@ -63,6 +66,12 @@ public interface Metadata
     @NotNull
     TableLayout getLayout(Session session, TableLayoutHandle handle);
 
+    /**
+     * Return statistics of the data returned by a scan of the specified table layout.
+     */
+    @NotNull
+    TableStatistics getTableStatistics(Session session, TableHandle tableHandle, TableLayoutHandle layoutHandle);
+
     /**
      * Return the metadata for the specified table handle.
      *
@@ -233,6 +242,21 @@ public interface Metadata
      */
     Optional<ResolvedIndex> resolveIndex(Session session, TableHandle tableHandle, Set<ColumnHandle> indexableColumns, Set<ColumnHandle> outputColumns, TupleDomain<ColumnHandle> tupleDomain);
 
+    /**
+     * Returns true if aggregations or limits over the table may be pushed into the connector.
+     */
+    boolean supportsPushDown(Session session, TableHandle tableHandle);
+
+    /**
+     * Try to compute the aggregations of the rows of the table layout in the connector, grouped by the grouping columns.
+     */
+    Optional<ResolvedAggregation> pushDownAggregation(Session session, TableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<ConnectorAggregation> aggregations);
+
+    /**
+     * Try to limit the rows produced by each split of the table layout to the first rows in the sort order.
+     */
+    Optional<TableLayoutHandle> pushDownLimit(Session session, TableLayoutHandle tableLayoutHandle, List<SortingProperty<ColumnHandle>> sortOrder, long limit);
+
     /**
      * Grants the specified privilege to the specified user on the specified table
      */
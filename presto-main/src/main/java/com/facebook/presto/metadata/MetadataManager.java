@@ -17,9 +17,11 @@ import com.facebook.presto.Session;
 import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregation;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.ConnectorNewTableLayout;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
+import com.facebook.presto.spi.ConnectorResolvedAggregation;
 import com.facebook.presto.spi.ConnectorResolvedIndex;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorTableHandle;
@@ -30,6 +32,7 @@ import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
@@ -37,6 +40,7 @@ import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
 import com.facebook.presto.spi.predicate.NullableValue;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
@@ -326,6 +330,15 @@ public class MetadataManager
         return fromConnectorLayout(connectorId, transaction, metadata.getTableLayout(session.toConnectorSession(entry.getCatalog()), handle.getConnectorHandle()));
     }
 
+    @Override
+    public TableStatistics getTableStatistics(Session session, TableHandle tableHandle, TableLayoutHandle layoutHandle)
+    {
+        checkArgument(tableHandle.getConnectorId().equals(layoutHandle.getConnectorId()), "table and layout belong to different connectors");
+        ConnectorEntry entry = lookupConnectorFor(tableHandle);
+        ConnectorMetadata metadata = entry.getMetadata(session);
+        return metadata.getTableStatistics(session.toConnectorSession(entry.getCatalog()), tableHandle.getConnectorHandle(), layoutHandle.getConnectorHandle());
+    }
+
     @Override
     public TableMetadata getTableMetadata(Session session, TableHandle tableHandle)
     {
@@ -698,6 +711,36 @@ public class MetadataManager
         return resolvedIndex.map(resolved -> new ResolvedIndex(tableHandle.getConnectorId(), transaction, resolved));
     }
 
+    @Override
+    public boolean supportsPushDown(Session session, TableHandle tableHandle)
+    {
+        ConnectorEntry entry = getConnectorMetadata(tableHandle.getConnectorId());
+        ConnectorMetadata metadata = entry.getMetadata(session);
+        return metadata.supportsPushDown(session.toConnectorSession(entry.getCatalog()), tableHandle.getConnectorHandle());
+    }
+
+    @Override
+    public Optional<ResolvedAggregation> pushDownAggregation(Session session, TableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<ConnectorAggregation> aggregations)
+    {
+        String connectorId = tableLayoutHandle.getConnectorId();
+        ConnectorEntry entry = getConnectorMetadata(connectorId);
+        ConnectorMetadata metadata = entry.getMetadata(session);
+        ConnectorTransactionHandle transaction = entry.getTransactionHandle(session);
+        Optional<ConnectorResolvedAggregation> resolvedAggregation = metadata.pushDownAggregation(session.toConnectorSession(entry.getCatalog()), tableLayoutHandle.getConnectorHandle(), groupingColumns, aggregations);
+        return resolvedAggregation.map(resolved -> new ResolvedAggregation(connectorId, transaction, resolved));
+    }
+
+    @Override
+    public Optional<TableLayoutHandle> pushDownLimit(Session session, TableLayoutHandle tableLayoutHandle, List<SortingProperty<ColumnHandle>> sortOrder, long limit)
+    {
+        String connectorId = tableLayoutHandle.getConnectorId();
+        ConnectorEntry entry = getConnectorMetadata(connectorId);
+        ConnectorMetadata metadata = entry.getMetadata(session);
+        ConnectorTransactionHandle transaction = entry.getTransactionHandle(session);
+        return metadata.pushDownLimit(session.toConnectorSession(entry.getCatalog()), tableLayoutHandle.getConnectorHandle(), sortOrder, limit)
+                .map(layout -> new TableLayoutHandle(connectorId, transaction, layout));
+    }
+
     @Override
     public void grantTablePrivileges(Session session, QualifiedObjectName tableName, Set<Privilege> privileges, String grantee, boolean grantOption)
     {
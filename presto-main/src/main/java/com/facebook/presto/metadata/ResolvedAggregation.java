@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.metadata;
+
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorResolvedAggregation;
+import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+public final class ResolvedAggregation
+{
+    private final TableLayoutHandle layoutHandle;
+    private final List<ColumnHandle> aggregationColumns;
+
+    public ResolvedAggregation(String connectorId, ConnectorTransactionHandle transactionHandle, ConnectorResolvedAggregation aggregation)
+    {
+        requireNonNull(connectorId, "connectorId is null");
+        requireNonNull(aggregation, "aggregation is null");
+
+        layoutHandle = new TableLayoutHandle(connectorId, transactionHandle, aggregation.getLayoutHandle());
+        aggregationColumns = ImmutableList.copyOf(aggregation.getAggregationColumns());
+    }
+
+    public TableLayoutHandle getLayoutHandle()
+    {
+        return layoutHandle;
+    }
+
+    public List<ColumnHandle> getAggregationColumns()
+    {
+        return aggregationColumns;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.facebook.presto.operator.SyntheticAddress.decodePosition;
+import static com.facebook.presto.operator.SyntheticAddress.decodeSliceIndex;
+import static com.facebook.presto.spi.type.TypeUtils.readNativeValue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Summary of the join keys of a hash join build side. Once the build has finished,
+ * the probe side can use it to skip rows that can not possibly find a match.
+ * <p>
+ * Each key is summarized as the exact set of values when the build side has few distinct
+ * values, and as the range between the smallest and largest value otherwise. Null keys
+ * never match, so they are never part of the summary.
+ * <p>
+ * A parallel hash build summarizes each build partition on its own, and the summary is
+ * published once all partitions have been added.
+ */
+@ThreadSafe
+public class DynamicFilterSource
+{
+    private static final int MAX_DISCRETE_VALUES = 1_000;
+
+    private final List<Type> keyTypes;
+    private volatile List<Domain> keyDomains;
+
+    @GuardedBy("this")
+    private int pendingPartitions;
+    @GuardedBy("this")
+    private List<Domain> partitionKeyDomains;
+
+    public DynamicFilterSource(List<Type> keyTypes)
+    {
+        this(keyTypes, 1);
+    }
+
+    public DynamicFilterSource(List<Type> keyTypes, int partitionCount)
+    {
+        this.keyTypes = ImmutableList.copyOf(requireNonNull(keyTypes, "keyTypes is null"));
+        checkArgument(partitionCount > 0, "partitionCount must be positive");
+        this.pendingPartitions = partitionCount;
+    }
+
+    public List<Type> getKeyTypes()
+    {
+        return keyTypes;
+    }
+
+    /**
+     * Returns the values of the build key that can match, or a domain containing all values
+     * if the build side has not finished yet.
+     */
+    public Domain getKeyDomain(int key)
+    {
+        List<Domain> keyDomains = this.keyDomains;
+        if (keyDomains == null) {
+            return Domain.all(keyTypes.get(key));
+        }
+        return keyDomains.get(key);
+    }
+
+    public boolean isDone()
+    {
+        return keyDomains != null;
+    }
+
+    /**
+     * Adds the summary of the build keys in the given channels of the index, which holds the rows
+     * of one build partition. The summary is published once all partitions have been added.
+     */
+    public void addBuildKeys(PagesIndex pagesIndex, List<Integer> keyChannels)
+    {
+        requireNonNull(pagesIndex, "pagesIndex is null");
+        checkArgument(keyChannels.size() == keyTypes.size(), "Expected %s key channels, but got %s", keyTypes.size(), keyChannels.size());
+
+        ImmutableList.Builder<Domain> keyDomains = ImmutableList.builder();
+        for (int key = 0; key < keyTypes.size(); key++) {
+            keyDomains.add(summarize(keyTypes.get(key), pagesIndex.getChannel(keyChannels.get(key)), pagesIndex.getValueAddresses()));
+        }
+        addPartitionKeyDomains(keyDomains.build());
+    }
+
+    /**
+     * Publishes an empty summary, for example because part of the build side is not in memory.
+     * Partitions added afterwards are ignored.
+     */
+    public void setAllKeys()
+    {
+        ImmutableList.Builder<Domain> keyDomains = ImmutableList.builder();
+        for (Type keyType : keyTypes) {
+            keyDomains.add(Domain.all(keyType));
+        }
+        synchronized (this) {
+            checkState(this.keyDomains == null, "Build keys already set");
+            pendingPartitions = 0;
+            partitionKeyDomains = null;
+            this.keyDomains = keyDomains.build();
+        }
+    }
+
+    private synchronized void addPartitionKeyDomains(List<Domain> keyDomains)
+    {
+        if (pendingPartitions == 0) {
+            checkState(this.keyDomains != null, "Build keys already set");
+            return;
+        }
+
+        if (partitionKeyDomains == null) {
+            partitionKeyDomains = keyDomains;
+        }
+        else {
+            ImmutableList.Builder<Domain> union = ImmutableList.builder();
+            for (int key = 0; key < keyTypes.size(); key++) {
+                union.add(union(keyTypes.get(key), partitionKeyDomains.get(key), keyDomains.get(key)));
+            }
+            partitionKeyDomains = union.build();
+        }
+
+        pendingPartitions--;
+        if (pendingPartitions == 0) {
+            this.keyDomains = partitionKeyDomains;
+            partitionKeyDomains = null;
+        }
+    }
+
+    private static Domain union(Type type, Domain first, Domain second)
+    {
+        Domain union = first.union(second);
+        if (!type.isComparable() || union.getValues().isAll()) {
+            return union;
+        }
+
+        // keep the summary as small as the summary of a single partition
+        if (type.isOrderable()) {
+            if (union.getValues().getRanges().getRangeCount() > MAX_DISCRETE_VALUES) {
+                return Domain.create(ValueSet.ofRanges(union.getValues().getRanges().getSpan()), false);
+            }
+        }
+        else if (union.getValues().getDiscreteValues().getValues().size() > MAX_DISCRETE_VALUES) {
+            return Domain.notNull(type);
+        }
+        return union;
+    }
+
+    private static Domain summarize(Type type, ObjectArrayList<Block> blocks, LongArrayList valueAddresses)
+    {
+        if (!type.isComparable()) {
+            return Domain.all(type);
+        }
+
+        Set<Object> values = new HashSet<>();
+        Block minBlock = null;
+        int minPosition = -1;
+        Block maxBlock = null;
+        int maxPosition = -1;
+        // the index may share its pages with other partitions, so only visit the rows it holds
+        for (int index = 0; index < valueAddresses.size(); index++) {
+            long address = valueAddresses.getLong(index);
+            Block block = blocks.get(decodeSliceIndex(address));
+            int position = decodePosition(address);
+            if (block.isNull(position)) {
+                continue;
+            }
+
+            if (values != null) {
+                values.add(readNativeValue(type, block, position));
+                if (values.size() > MAX_DISCRETE_VALUES) {
+                    values = null;
+                }
+            }
+
+            if (type.isOrderable()) {
+                if (minBlock == null || type.compareTo(block, position, minBlock, minPosition) < 0) {
+                    minBlock = block;
+                    minPosition = position;
+                }
+                if (maxBlock == null || type.compareTo(block, position, maxBlock, maxPosition) > 0) {
+                    maxBlock = block;
+                    maxPosition = position;
+                }
+            }
+        }
+
+        if (values != null) {
+            if (values.isEmpty()) {
+                return Domain.none(type);
+            }
+            return Domain.create(ValueSet.copyOf(type, values), false);
+        }
+        if (minBlock != null) {
+            Range range = Range.range(type, readNativeValue(type, minBlock, minPosition), true, readNativeValue(type, maxBlock, maxPosition), true);
+            return Domain.create(ValueSet.ofRanges(range), false);
+        }
+        return Domain.notNull(type);
+    }
+}
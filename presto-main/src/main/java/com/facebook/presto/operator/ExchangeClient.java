@@ -120,11 +120,27 @@ public class ExchangeClient
             bufferedPages--;
         }
 
+        long serializedBytes = 0;
+        long uncompressedBytes = 0;
+        long decompressionCpuNanos = 0;
         ImmutableList.Builder<PageBufferClientStatus> exchangeStatus = ImmutableList.builder();
         for (HttpPageBufferClient client : allClients.values()) {
-            exchangeStatus.add(client.getStatus());
+            PageBufferClientStatus clientStatus = client.getStatus();
+            serializedBytes += clientStatus.getSerializedBytesReceived();
+            uncompressedBytes += clientStatus.getUncompressedBytesReceived();
+            decompressionCpuNanos += clientStatus.getDecompressionCpuNanos();
+            exchangeStatus.add(clientStatus);
         }
-        return new ExchangeClientStatus(bufferBytes, averageBytesPerRequest, bufferedPages, noMoreLocations, exchangeStatus.build());
+        return new ExchangeClientStatus(
+                bufferBytes,
+                averageBytesPerRequest,
+                successfulRequests,
+                bufferedPages,
+                noMoreLocations,
+                serializedBytes,
+                uncompressedBytes,
+                decompressionCpuNanos,
+                exchangeStatus.build());
     }
 
     public synchronized void addLocation(URI location)
@@ -23,25 +23,38 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
 
 public class ExchangeClientStatus
+        implements Mergeable<ExchangeClientStatus>
 {
     private final long bufferedBytes;
     private final long averageBytesPerRequest;
+    private final long successfulRequests;
     private final int bufferedPages;
     private final boolean noMoreLocations;
+    private final long serializedBytes;
+    private final long uncompressedBytes;
+    private final long decompressionCpuNanos;
     private final List<PageBufferClientStatus> pageBufferClientStatuses;
 
     @JsonCreator
     public ExchangeClientStatus(
             @JsonProperty("bufferedBytes") long bufferedBytes,
             @JsonProperty("averageBytesPerRequest") long averageBytesPerRequest,
+            @JsonProperty("successfulRequests") long successfulRequests,
             @JsonProperty("bufferedPages") int bufferedPages,
             @JsonProperty("noMoreLocations") boolean noMoreLocations,
+            @JsonProperty("serializedBytes") long serializedBytes,
+            @JsonProperty("uncompressedBytes") long uncompressedBytes,
+            @JsonProperty("decompressionCpuNanos") long decompressionCpuNanos,
             @JsonProperty("pageBufferClientStatuses") List<PageBufferClientStatus> pageBufferClientStatuses)
     {
         this.bufferedBytes = bufferedBytes;
         this.averageBytesPerRequest = averageBytesPerRequest;
+        this.successfulRequests = successfulRequests;
         this.bufferedPages = bufferedPages;
         this.noMoreLocations = noMoreLocations;
+        this.serializedBytes = serializedBytes;
+        this.uncompressedBytes = uncompressedBytes;
+        this.decompressionCpuNanos = decompressionCpuNanos;
         this.pageBufferClientStatuses = ImmutableList.copyOf(requireNonNull(pageBufferClientStatuses, "pageBufferClientStatuses is null"));
     }
 
@@ -57,6 +70,12 @@ public class ExchangeClientStatus
         return averageBytesPerRequest;
     }
 
+    @JsonProperty
+    public long getSuccessfulRequests()
+    {
+        return successfulRequests;
+    }
+
     @JsonProperty
     public int getBufferedPages()
     {
@@ -69,6 +88,30 @@ public class ExchangeClientStatus
         return noMoreLocations;
     }
 
+    /**
+     * Size of the pages received, as sent over the network.
+     */
+    @JsonProperty
+    public long getSerializedBytes()
+    {
+        return serializedBytes;
+    }
+
+    /**
+     * Size of the pages received, before compression.
+     */
+    @JsonProperty
+    public long getUncompressedBytes()
+    {
+        return uncompressedBytes;
+    }
+
+    @JsonProperty
+    public long getDecompressionCpuNanos()
+    {
+        return decompressionCpuNanos;
+    }
+
     @JsonProperty
 
     public List<PageBufferClientStatus> getPageBufferClientStatuses()
@@ -76,14 +119,42 @@ public class ExchangeClientStatus
         return pageBufferClientStatuses;
     }
 
+    @Override
+    public ExchangeClientStatus mergeWith(ExchangeClientStatus other)
+    {
+        // weight each average by the number of requests it was computed over
+        long mergedRequests = successfulRequests + other.successfulRequests;
+        long mergedAverageBytesPerRequest = 0;
+        if (mergedRequests > 0) {
+            mergedAverageBytesPerRequest = (long) ((1.0 * averageBytesPerRequest * successfulRequests + 1.0 * other.averageBytesPerRequest * other.successfulRequests) / mergedRequests);
+        }
+        return new ExchangeClientStatus(
+                bufferedBytes + other.bufferedBytes,
+                mergedAverageBytesPerRequest,
+                mergedRequests,
+                bufferedPages + other.bufferedPages,
+                noMoreLocations && other.noMoreLocations,
+                serializedBytes + other.serializedBytes,
+                uncompressedBytes + other.uncompressedBytes,
+                decompressionCpuNanos + other.decompressionCpuNanos,
+                ImmutableList.<PageBufferClientStatus>builder()
+                        .addAll(pageBufferClientStatuses)
+                        .addAll(other.pageBufferClientStatuses)
+                        .build());
+    }
+
     @Override
     public String toString()
     {
         return toStringHelper(this)
                 .add("bufferBytes", bufferedBytes)
                 .add("averageBytesPerRequest", averageBytesPerRequest)
+                .add("successfulRequests", successfulRequests)
                 .add("bufferedPages", bufferedPages)
                 .add("noMoreLocations", noMoreLocations)
+                .add("serializedBytes", serializedBytes)
+                .add("uncompressedBytes", uncompressedBytes)
+                .add("decompressionCpuNanos", decompressionCpuNanos)
                 .add("pageBufferClientStatuses", pageBufferClientStatuses)
                 .toString();
     }
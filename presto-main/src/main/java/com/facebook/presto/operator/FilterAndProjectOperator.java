@@ -98,12 +98,14 @@ public class FilterAndProjectOperator
         if (!pageBuilder.isFull() && currentPage != null) {
             if (columnarProcessingDictionaryEnabled) {
                 Page page = processor.processColumnarDictionary(operatorContext.getSession().toConnectorSession(), currentPage, getTypes());
+                operatorContext.setDictionaryCacheStats(processor.getDictionaryCacheHits(), processor.getDictionaryCacheMisses());
                 currentPage = null;
                 currentPosition = 0;
                 return page;
             }
             else if (columnarProcessingEnabled) {
                 Page page = processor.processColumnar(operatorContext.getSession().toConnectorSession(), currentPage, getTypes());
+                operatorContext.setDictionaryCacheStats(processor.getDictionaryCacheHits(), processor.getDictionaryCacheMisses());
                 currentPage = null;
                 currentPosition = 0;
                 return page;
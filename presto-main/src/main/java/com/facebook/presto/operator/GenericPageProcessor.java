@@ -51,8 +51,12 @@ public class GenericPageProcessor
     private final Block[] outputDictionaries;
 
     private Block inputFilterDictionary;
+    private boolean[] filterEvaluated;
     private boolean[] filterResult;
 
+    private long dictionaryCacheHits;
+    private long dictionaryCacheMisses;
+
     public GenericPageProcessor(FilterFunction filterFunction, Iterable<? extends ProjectionFunction> projections)
     {
         this.filterFunction = filterFunction;
@@ -139,6 +143,18 @@ public class GenericPageProcessor
         return new Page(selectedPositions.length, outputBlocks);
     }
 
+    @Override
+    public long getDictionaryCacheHits()
+    {
+        return dictionaryCacheHits;
+    }
+
+    @Override
+    public long getDictionaryCacheMisses()
+    {
+        return dictionaryCacheMisses;
+    }
+
     private Block projectColumnarDictionary(Page inputPage, int[] selectedPositions, ProjectionFunction projection, Map<DictionaryId, DictionaryId> dictionarySourceIds)
     {
         int inputChannel = getOnlyElement(projection.getInputChannels());
@@ -192,8 +208,10 @@ public class GenericPageProcessor
 
         int projectionIndex = projections.indexOf(projection);
         if (inputDictionaries[projectionIndex] == dictionary) {
+            dictionaryCacheHits++;
             return outputDictionaries[projectionIndex];
         }
+        dictionaryCacheMisses++;
 
         BlockBuilder dictionaryBuilder = projection.getType().createBlockBuilder(new BlockBuilderStatus(), dictionary.getPositionCount());
         Block[] blocks = new Block[page.getChannelCount()];
@@ -259,21 +277,25 @@ public class GenericPageProcessor
                 Block[] blocks = new Block[page.getPositionCount()];
                 blocks[channel] = dictionary;
 
-                boolean[] selectedDictionaryPositions;
+                // keep the filter results while the following pages use the same dictionary
                 if (inputFilterDictionary == dictionary) {
-                    selectedDictionaryPositions = filterResult;
+                    dictionaryCacheHits++;
                 }
                 else {
-                    selectedDictionaryPositions = new boolean[dictionary.getPositionCount()];
-                    for (int i = 0; i < dictionary.getPositionCount(); i++) {
-                        selectedDictionaryPositions[i] = filterFunction.filter(i, blocks);
-                    }
                     inputFilterDictionary = dictionary;
-                    filterResult = selectedDictionaryPositions;
+                    filterEvaluated = new boolean[dictionary.getPositionCount()];
+                    filterResult = new boolean[dictionary.getPositionCount()];
+                    dictionaryCacheMisses++;
                 }
 
+                // evaluate the filter only for the dictionary entries that were not seen before
                 for (int i = 0; i < page.getPositionCount(); i++) {
-                    if (selectedDictionaryPositions[dictionaryBlock.getId(i)]) {
+                    int id = dictionaryBlock.getId(i);
+                    if (!filterEvaluated[id]) {
+                        filterResult[id] = filterFunction.filter(id, blocks);
+                        filterEvaluated[id] = true;
+                    }
+                    if (filterResult[id]) {
                         selected[index] = i;
                         index++;
                     }
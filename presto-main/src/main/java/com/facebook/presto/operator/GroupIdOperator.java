@@ -0,0 +1,254 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.TypeUtils.writeNativeValue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Outputs every input page once per grouping set. The grouping columns are output first,
+ * with the columns that are not part of the grouping set replaced by nulls, followed by the
+ * argument columns and a bigint column holding the index of the grouping set.
+ */
+public class GroupIdOperator
+        implements Operator
+{
+    public static class GroupIdOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final List<Type> types;
+        private final List<Integer> groupingChannels;
+        private final List<List<Integer>> groupingSets;
+        private final List<Integer> argumentChannels;
+        private boolean closed;
+
+        /**
+         * @param groupingChannels the input channel of each grouping column
+         * @param groupingSets the grouping sets, as indexes into the grouping columns
+         * @param argumentChannels the input channels that are passed through unchanged
+         */
+        public GroupIdOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> groupingChannels,
+                List<List<Integer>> groupingSets,
+                List<Integer> argumentChannels)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.groupingChannels = ImmutableList.copyOf(requireNonNull(groupingChannels, "groupingChannels is null"));
+            this.argumentChannels = ImmutableList.copyOf(requireNonNull(argumentChannels, "argumentChannels is null"));
+            requireNonNull(groupingSets, "groupingSets is null");
+            checkArgument(!groupingSets.isEmpty(), "groupingSets is empty");
+            ImmutableList.Builder<List<Integer>> sets = ImmutableList.builder();
+            for (List<Integer> groupingSet : groupingSets) {
+                for (int column : groupingSet) {
+                    checkArgument(column >= 0 && column < groupingChannels.size(), "Invalid grouping column %s", column);
+                }
+                sets.add(ImmutableList.copyOf(groupingSet));
+            }
+            this.groupingSets = sets.build();
+
+            ImmutableList.Builder<Type> types = ImmutableList.builder();
+            for (int channel : groupingChannels) {
+                types.add(sourceTypes.get(channel));
+            }
+            for (int channel : argumentChannels) {
+                types.add(sourceTypes.get(channel));
+            }
+            types.add(BIGINT);
+            this.types = types.build();
+        }
+
+        private GroupIdOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<Type> types,
+                List<Integer> groupingChannels,
+                List<List<Integer>> groupingSets,
+                List<Integer> argumentChannels,
+                boolean closed)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = planNodeId;
+            this.types = types;
+            this.groupingChannels = groupingChannels;
+            this.groupingSets = groupingSets;
+            this.argumentChannels = argumentChannels;
+            this.closed = closed;
+        }
+
+        @Override
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, GroupIdOperator.class.getSimpleName());
+            return new GroupIdOperator(operatorContext, types, groupingChannels, groupingSets, argumentChannels);
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new GroupIdOperatorFactory(operatorId, planNodeId, types, groupingChannels, groupingSets, argumentChannels, false);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final List<Type> types;
+    private final int[] groupingChannels;
+    private final int[] argumentChannels;
+
+    // for each grouping set, whether each grouping column is part of it
+    private final boolean[][] groupingSetColumns;
+
+    // single position blocks that are repeated for a whole page
+    private final Block[] nullBlocks;
+    private final Block[] groupIdBlocks;
+
+    private Page currentPage;
+    private int currentGroupingSet;
+    private boolean finishing;
+
+    public GroupIdOperator(OperatorContext operatorContext, List<Type> types, List<Integer> groupingChannels, List<List<Integer>> groupingSets, List<Integer> argumentChannels)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.groupingChannels = groupingChannels.stream().mapToInt(Integer::intValue).toArray();
+        this.argumentChannels = argumentChannels.stream().mapToInt(Integer::intValue).toArray();
+
+        groupingSetColumns = new boolean[groupingSets.size()][this.groupingChannels.length];
+        groupIdBlocks = new Block[groupingSets.size()];
+        for (int groupingSet = 0; groupingSet < groupingSets.size(); groupingSet++) {
+            for (int column : groupingSets.get(groupingSet)) {
+                groupingSetColumns[groupingSet][column] = true;
+            }
+            groupIdBlocks[groupingSet] = createSingleValueBlock(BIGINT, (long) groupingSet);
+        }
+
+        nullBlocks = new Block[this.groupingChannels.length];
+        for (int column = 0; column < this.groupingChannels.length; column++) {
+            nullBlocks[column] = createSingleValueBlock(types.get(column), null);
+        }
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public void finish()
+    {
+        finishing = true;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finishing && currentPage == null;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && currentPage == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(!finishing, "Operator is finishing");
+        checkState(currentPage == null, "Operator still has pending output");
+
+        currentPage = page;
+        currentGroupingSet = 0;
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (currentPage == null) {
+            return null;
+        }
+
+        int positionCount = currentPage.getPositionCount();
+        Block[] outputBlocks = new Block[groupingChannels.length + argumentChannels.length + 1];
+        int outputChannel = 0;
+        for (int column = 0; column < groupingChannels.length; column++) {
+            if (groupingSetColumns[currentGroupingSet][column]) {
+                outputBlocks[outputChannel] = currentPage.getBlock(groupingChannels[column]);
+            }
+            else {
+                outputBlocks[outputChannel] = new RunLengthEncodedBlock(nullBlocks[column], positionCount);
+            }
+            outputChannel++;
+        }
+        for (int channel : argumentChannels) {
+            outputBlocks[outputChannel] = currentPage.getBlock(channel);
+            outputChannel++;
+        }
+        outputBlocks[outputChannel] = new RunLengthEncodedBlock(groupIdBlocks[currentGroupingSet], positionCount);
+
+        currentGroupingSet++;
+        if (currentGroupingSet == groupingSetColumns.length) {
+            currentPage = null;
+        }
+
+        return new Page(positionCount, outputBlocks);
+    }
+
+    private static Block createSingleValueBlock(Type type, Object value)
+    {
+        BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), 1);
+        writeNativeValue(type, blockBuilder, value);
+        return blockBuilder.build();
+    }
+}
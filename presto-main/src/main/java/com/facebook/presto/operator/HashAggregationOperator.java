@@ -17,30 +17,47 @@ import com.facebook.presto.operator.aggregation.AccumulatorFactory;
 import com.facebook.presto.operator.aggregation.GroupedAccumulator;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.facebook.presto.operator.GroupByHash.createGroupByHash;
+import static com.facebook.presto.operator.MergeSortedPages.mergeSortedPages;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Objects.requireNonNull;
 
 public class HashAggregationOperator
         implements Operator
 {
+    // a partial aggregation that turned itself off passes through this many times its minimum rows before it is tried again
+    private static final int BYPASS_ROWS_MULTIPLIER = 10;
+    // groups held by the pass-through accumulators before they are replaced by empty ones
+    private static final int BYPASS_ACCUMULATOR_MAX_GROUPS = 64 * 1024;
+
     public static class HashAggregationOperatorFactory
             implements OperatorFactory
     {
@@ -57,6 +74,12 @@ public class HashAggregationOperator
         private final List<Type> types;
         private boolean closed;
         private final long maxPartialMemory;
+        private final boolean spillEnabled;
+        private final DataSize memoryLimitBeforeSpill;
+        private final SpillerFactory spillerFactory;
+        private final boolean adaptivePartialAggregationEnabled;
+        private final long adaptivePartialAggregationMinRows;
+        private final double adaptivePartialAggregationUniqueRowsRatioThreshold;
 
         public HashAggregationOperatorFactory(
                 int operatorId,
@@ -69,6 +92,72 @@ public class HashAggregationOperator
                 Optional<Integer> hashChannel,
                 int expectedGroups,
                 DataSize maxPartialMemory)
+        {
+            this(operatorId,
+                    planNodeId,
+                    groupByTypes,
+                    groupByChannels,
+                    step,
+                    accumulatorFactories,
+                    maskChannel,
+                    hashChannel,
+                    expectedGroups,
+                    maxPartialMemory,
+                    false,
+                    new DataSize(0, Unit.BYTE),
+                    SpillerFactory.DISABLED);
+        }
+
+        public HashAggregationOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> groupByTypes,
+                List<Integer> groupByChannels,
+                Step step,
+                List<AccumulatorFactory> accumulatorFactories,
+                Optional<Integer> maskChannel,
+                Optional<Integer> hashChannel,
+                int expectedGroups,
+                DataSize maxPartialMemory,
+                boolean spillEnabled,
+                DataSize memoryLimitBeforeSpill,
+                SpillerFactory spillerFactory)
+        {
+            this(operatorId,
+                    planNodeId,
+                    groupByTypes,
+                    groupByChannels,
+                    step,
+                    accumulatorFactories,
+                    maskChannel,
+                    hashChannel,
+                    expectedGroups,
+                    maxPartialMemory,
+                    spillEnabled,
+                    memoryLimitBeforeSpill,
+                    spillerFactory,
+                    false,
+                    1,
+                    1.0);
+        }
+
+        public HashAggregationOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> groupByTypes,
+                List<Integer> groupByChannels,
+                Step step,
+                List<AccumulatorFactory> accumulatorFactories,
+                Optional<Integer> maskChannel,
+                Optional<Integer> hashChannel,
+                int expectedGroups,
+                DataSize maxPartialMemory,
+                boolean spillEnabled,
+                DataSize memoryLimitBeforeSpill,
+                SpillerFactory spillerFactory,
+                boolean adaptivePartialAggregationEnabled,
+                long adaptivePartialAggregationMinRows,
+                double adaptivePartialAggregationUniqueRowsRatioThreshold)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -80,6 +169,13 @@ public class HashAggregationOperator
             this.accumulatorFactories = ImmutableList.copyOf(accumulatorFactories);
             this.expectedGroups = expectedGroups;
             this.maxPartialMemory = requireNonNull(maxPartialMemory, "maxPartialMemory is null").toBytes();
+            this.spillEnabled = spillEnabled;
+            this.memoryLimitBeforeSpill = requireNonNull(memoryLimitBeforeSpill, "memoryLimitBeforeSpill is null");
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+            checkArgument(adaptivePartialAggregationMinRows > 0, "adaptivePartialAggregationMinRows must be positive");
+            this.adaptivePartialAggregationEnabled = adaptivePartialAggregationEnabled;
+            this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+            this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
 
             this.types = toTypes(groupByTypes, step, accumulatorFactories, hashChannel);
         }
@@ -110,7 +206,13 @@ public class HashAggregationOperator
                     accumulatorFactories,
                     maskChannel,
                     hashChannel,
-                    expectedGroups);
+                    expectedGroups,
+                    spillEnabled,
+                    memoryLimitBeforeSpill,
+                    spillerFactory,
+                    adaptivePartialAggregationEnabled,
+                    adaptivePartialAggregationMinRows,
+                    adaptivePartialAggregationUniqueRowsRatioThreshold);
             return hashAggregationOperator;
         }
 
@@ -133,7 +235,13 @@ public class HashAggregationOperator
                     maskChannel,
                     hashChannel,
                     expectedGroups,
-                    new DataSize(maxPartialMemory, Unit.BYTE));
+                    new DataSize(maxPartialMemory, Unit.BYTE),
+                    spillEnabled,
+                    memoryLimitBeforeSpill,
+                    spillerFactory,
+                    adaptivePartialAggregationEnabled,
+                    adaptivePartialAggregationMinRows,
+                    adaptivePartialAggregationUniqueRowsRatioThreshold);
         }
     }
 
@@ -145,13 +253,32 @@ public class HashAggregationOperator
     private final Optional<Integer> maskChannel;
     private final Optional<Integer> hashChannel;
     private final int expectedGroups;
+    private final boolean spillEnabled;
+    private final long memoryLimitBeforeSpill;
+    private final SpillerFactory spillerFactory;
 
     private final List<Type> types;
+    private final List<Type> spillTypes;
+
+    private final boolean adaptivePartialAggregation;
+    private final long adaptivePartialAggregationMinRows;
+    private final double adaptivePartialAggregationUniqueRowsRatioThreshold;
+    // rows added to the current aggregation builder
+    private long builderInputRows;
+    // rows still to be passed through before aggregating is tried again
+    private long remainingBypassRows;
+    // accumulators that convert the passed through rows, shared by consecutive pages
+    private List<GroupedAccumulator> bypassAccumulators;
+    private int bypassGroupCount;
 
     private GroupByHashAggregationBuilder aggregationBuilder;
     private Iterator<Page> outputIterator;
     private boolean finishing;
 
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private boolean mergingSpills;
+
     public HashAggregationOperator(
             OperatorContext operatorContext,
             List<Type> groupByTypes,
@@ -160,7 +287,13 @@ public class HashAggregationOperator
             List<AccumulatorFactory> accumulatorFactories,
             Optional<Integer> maskChannel,
             Optional<Integer> hashChannel,
-            int expectedGroups)
+            int expectedGroups,
+            boolean spillEnabled,
+            DataSize memoryLimitBeforeSpill,
+            SpillerFactory spillerFactory,
+            boolean adaptivePartialAggregationEnabled,
+            long adaptivePartialAggregationMinRows,
+            double adaptivePartialAggregationUniqueRowsRatioThreshold)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(step, "step is null");
@@ -175,6 +308,18 @@ public class HashAggregationOperator
         this.step = step;
         this.expectedGroups = expectedGroups;
         this.types = toTypes(groupByTypes, step, accumulatorFactories, hashChannel);
+
+        // partial aggregations flush early when they run out of memory, so there is no need to spill them
+        this.spillEnabled = spillEnabled && !step.isOutputPartial();
+        this.memoryLimitBeforeSpill = requireNonNull(memoryLimitBeforeSpill, "memoryLimitBeforeSpill is null").toBytes();
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        this.spillTypes = this.spillEnabled ? toSpillTypes(groupByTypes, step, accumulatorFactories, hashChannel) : ImmutableList.of();
+
+        // only a partial aggregation of raw rows can emit each row as a group of its own; a mask
+        // filters the rows that are grouped, so those have to go through the hash table
+        this.adaptivePartialAggregation = adaptivePartialAggregationEnabled && step == Step.PARTIAL && !maskChannel.isPresent();
+        this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
     }
 
     @Override
@@ -193,17 +338,35 @@ public class HashAggregationOperator
     public void finish()
     {
         finishing = true;
+        releaseBypassAccumulators();
     }
 
     @Override
     public boolean isFinished()
     {
-        return finishing && aggregationBuilder == null && (outputIterator == null || !outputIterator.hasNext());
+        return finishing &&
+                aggregationBuilder == null &&
+                (outputIterator == null || !outputIterator.hasNext()) &&
+                spillInProgress.isDone() &&
+                (!spiller.isPresent() || mergingSpills);
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (!spillInProgress.isDone()) {
+            return spillInProgress;
+        }
+        return NOT_BLOCKED;
     }
 
     @Override
     public boolean needsInput()
     {
+        if (!spillInProgress.isDone()) {
+            return false;
+        }
+        checkSpillSucceeded();
         return !finishing && outputIterator == null && (aggregationBuilder == null || !aggregationBuilder.isFull());
     }
 
@@ -211,17 +374,22 @@ public class HashAggregationOperator
     public void addInput(Page page)
     {
         checkState(!finishing, "Operator is already finishing");
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
         requireNonNull(page, "page is null");
+        checkSpillSucceeded();
+        if (remainingBypassRows > 0) {
+            outputIterator = Iterators.singletonIterator(toIntermediatePage(page));
+            remainingBypassRows -= page.getPositionCount();
+            operatorContext.recordPartialAggregationBypassed(page.getPositionCount());
+            if (remainingBypassRows <= 0) {
+                releaseBypassAccumulators();
+            }
+            return;
+        }
+
         if (aggregationBuilder == null) {
-            aggregationBuilder = new GroupByHashAggregationBuilder(
-                    accumulatorFactories,
-                    step,
-                    expectedGroups,
-                    groupByTypes,
-                    groupByChannels,
-                    maskChannel,
-                    hashChannel,
-                    operatorContext);
+            aggregationBuilder = createAggregationBuilder();
+            builderInputRows = 0;
 
             // assume initial aggregationBuilder is not full
         }
@@ -229,27 +397,56 @@ public class HashAggregationOperator
             checkState(!aggregationBuilder.isFull(), "Aggregation buffer is full");
         }
         aggregationBuilder.processPage(page);
+        builderInputRows += page.getPositionCount();
+
+        if (adaptivePartialAggregation &&
+                builderInputRows >= adaptivePartialAggregationMinRows &&
+                aggregationBuilder.getGroupCount() > builderInputRows * adaptivePartialAggregationUniqueRowsRatioThreshold) {
+            // the hash table barely reduces the rows, so flush it and pass the following rows through,
+            // until it is time to check again whether the data has become more aggregatable
+            outputIterator = aggregationBuilder.build();
+            aggregationBuilder = null;
+            remainingBypassRows = adaptivePartialAggregationMinRows * BYPASS_ROWS_MULTIPLIER;
+            return;
+        }
+
+        if (spillEnabled && aggregationBuilder.getSizeInMemory() > memoryLimitBeforeSpill) {
+            spillToDisk();
+        }
     }
 
     @Override
     public Page getOutput()
     {
+        if (!spillInProgress.isDone()) {
+            return null;
+        }
+        checkSpillSucceeded();
+
         if (outputIterator == null || !outputIterator.hasNext()) {
             // current output iterator is done
             outputIterator = null;
 
-            // no data
-            if (aggregationBuilder == null) {
-                return null;
+            if (finishing && spiller.isPresent() && !mergingSpills) {
+                // merge the spilled runs with whatever is still in memory
+                outputIterator = mergeSpilledRuns();
+                aggregationBuilder = null;
+                mergingSpills = true;
             }
+            else {
+                // no data
+                if (aggregationBuilder == null) {
+                    return null;
+                }
 
-            // only flush if we are finishing or the aggregation builder is full
-            if (!finishing && !aggregationBuilder.isFull()) {
-                return null;
-            }
+                // only flush if we are finishing or the aggregation builder is full
+                if (!finishing && !aggregationBuilder.isFull()) {
+                    return null;
+                }
 
-            outputIterator = aggregationBuilder.build();
-            aggregationBuilder = null;
+                outputIterator = aggregationBuilder.build();
+                aggregationBuilder = null;
+            }
 
             if (!outputIterator.hasNext()) {
                 // current output iterator is done
@@ -261,6 +458,121 @@ public class HashAggregationOperator
         return outputIterator.next();
     }
 
+    @Override
+    public void close()
+    {
+        spiller.ifPresent(Spiller::close);
+    }
+
+    /**
+     * Converts raw rows to partial aggregation output without a hash table, with every row being a group of its own.
+     * The rows of consecutive pages get consecutive group ids in the same accumulators, which are only replaced once
+     * they hold {@link #BYPASS_ACCUMULATOR_MAX_GROUPS} groups, so that their state is not allocated for every page.
+     */
+    private Page toIntermediatePage(Page page)
+    {
+        int positionCount = page.getPositionCount();
+        if (bypassAccumulators == null || bypassGroupCount + positionCount > BYPASS_ACCUMULATOR_MAX_GROUPS) {
+            bypassAccumulators = accumulatorFactories.stream()
+                    .map(AccumulatorFactory::createGroupedAccumulator)
+                    .collect(toImmutableList());
+            bypassGroupCount = 0;
+        }
+
+        BlockBuilder groupIdsBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            BIGINT.writeLong(groupIdsBuilder, bypassGroupCount + position);
+        }
+        GroupByIdBlock groupIds = new GroupByIdBlock(bypassGroupCount + positionCount, groupIdsBuilder.build());
+
+        Block[] blocks = new Block[types.size()];
+        int channel = 0;
+        for (int groupByChannel : groupByChannels) {
+            blocks[channel++] = page.getBlock(groupByChannel);
+        }
+        if (hashChannel.isPresent()) {
+            blocks[channel++] = page.getBlock(hashChannel.get());
+        }
+        long memorySize = 0;
+        for (GroupedAccumulator accumulator : bypassAccumulators) {
+            accumulator.addInput(groupIds, page);
+            BlockBuilder output = accumulator.getIntermediateType().createBlockBuilder(new BlockBuilderStatus(), positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                accumulator.evaluateIntermediate(bypassGroupCount + position, output);
+            }
+            blocks[channel++] = output.build();
+            memorySize += accumulator.getEstimatedSize();
+        }
+        bypassGroupCount += positionCount;
+        operatorContext.setMemoryReservation(memorySize);
+        return new Page(positionCount, blocks);
+    }
+
+    private void releaseBypassAccumulators()
+    {
+        if (bypassAccumulators != null) {
+            bypassAccumulators = null;
+            operatorContext.setMemoryReservation(0);
+        }
+    }
+
+    private GroupByHashAggregationBuilder createAggregationBuilder()
+    {
+        return new GroupByHashAggregationBuilder(
+                accumulatorFactories,
+                step,
+                expectedGroups,
+                groupByTypes,
+                groupByChannels,
+                maskChannel,
+                hashChannel,
+                operatorContext);
+    }
+
+    private void spillToDisk()
+    {
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.create(spillTypes, operatorContext.getSpillContext()));
+        }
+
+        // the builder is referenced only by the spilled iterator from now on, and is released
+        // (together with its memory reservation) once the spill completes
+        spillInProgress = spiller.get().spill(aggregationBuilder.buildHashSortedIntermediateResult());
+        aggregationBuilder = null;
+    }
+
+    private void checkSpillSucceeded()
+    {
+        if (spillInProgress != NOT_BLOCKED && spillInProgress.isDone()) {
+            // propagate any failure of the spill
+            getFutureValue(spillInProgress);
+            spillInProgress = NOT_BLOCKED;
+            operatorContext.setMemoryReservation(0);
+        }
+    }
+
+    private Iterator<Page> mergeSpilledRuns()
+    {
+        List<Iterator<Page>> sortedRuns = new ArrayList<>(spiller.get().getSpills());
+        if (aggregationBuilder != null) {
+            sortedRuns.add(aggregationBuilder.buildHashSortedIntermediateResult());
+        }
+
+        // all rows of a group share the same raw hash, so a page may only end where the hash changes
+        int rawHashChannel = spillTypes.size() - 1;
+        Iterator<Page> mergedPages = mergeSortedPages(
+                sortedRuns,
+                (left, leftPosition, right, rightPosition) -> Long.compare(
+                        BIGINT.getLong(left.getBlock(rawHashChannel), leftPosition),
+                        BIGINT.getLong(right.getBlock(rawHashChannel), rightPosition)),
+                spillTypes,
+                (pageBuilder, next) -> pageBuilder.isFull() &&
+                        BIGINT.getLong(pageBuilder.getBlockBuilder(rawHashChannel), pageBuilder.getPositionCount() - 1) !=
+                                BIGINT.getLong(next.getPage().getBlock(rawHashChannel), next.getPosition()));
+
+        return new MergingAggregationIterator(mergedPages, aggregationBuilder);
+    }
+
     private static List<Type> toTypes(List<? extends Type> groupByType, Step step, List<AccumulatorFactory> factories, Optional<Integer> hashChannel)
     {
         ImmutableList.Builder<Type> types = ImmutableList.builder();
@@ -274,6 +586,90 @@ public class HashAggregationOperator
         return types.build();
     }
 
+    private static List<Type> toSpillTypes(List<? extends Type> groupByType, Step step, List<AccumulatorFactory> factories, Optional<Integer> hashChannel)
+    {
+        ImmutableList.Builder<Type> types = ImmutableList.builder();
+        types.addAll(groupByType);
+        if (hashChannel.isPresent()) {
+            types.add(BIGINT);
+        }
+        for (AccumulatorFactory factory : factories) {
+            types.add(new Aggregator(factory, step).getIntermediateType());
+        }
+        // raw hash of the group, used to merge the spilled runs
+        types.add(BIGINT);
+        return types.build();
+    }
+
+    /**
+     * Re-aggregates hash sorted intermediate pages. Since all rows for a group are adjacent
+     * in the input, the builder can be flushed whenever it grows past the spill limit.
+     */
+    private class MergingAggregationIterator
+            extends AbstractIterator<Page>
+    {
+        private final Iterator<Page> mergedPages;
+        private final long inMemorySize;
+        private Iterator<Page> currentOutput = Collections.emptyIterator();
+
+        public MergingAggregationIterator(Iterator<Page> mergedPages, GroupByHashAggregationBuilder inMemoryBuilder)
+        {
+            this.mergedPages = requireNonNull(mergedPages, "mergedPages is null");
+            this.inMemorySize = inMemoryBuilder == null ? 0 : inMemoryBuilder.getSizeInMemory();
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            while (!currentOutput.hasNext()) {
+                if (!mergedPages.hasNext()) {
+                    operatorContext.setMemoryReservation(0);
+                    return endOfData();
+                }
+
+                GroupByHashAggregationBuilder mergingBuilder = createMergingBuilder();
+                while (mergedPages.hasNext()) {
+                    mergingBuilder.processPage(mergedPages.next());
+                    long memorySize = mergingBuilder.getSizeInMemory();
+                    operatorContext.setMemoryReservation(inMemorySize + memorySize);
+                    if (memorySize > memoryLimitBeforeSpill) {
+                        break;
+                    }
+                }
+                currentOutput = mergingBuilder.build();
+            }
+            return currentOutput.next();
+        }
+
+        private GroupByHashAggregationBuilder createMergingBuilder()
+        {
+            // spilled pages contain the group by columns, the optional precomputed hash,
+            // the intermediate state of each aggregation and the raw hash used for sorting
+            int groupByCount = groupByTypes.size();
+            int intermediateChannel = groupByCount + (hashChannel.isPresent() ? 1 : 0);
+            ImmutableList.Builder<Aggregator> aggregators = ImmutableList.builder();
+            for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+                aggregators.add(new Aggregator(accumulatorFactory, Step.FINAL, Optional.of(intermediateChannel)));
+                intermediateChannel++;
+            }
+
+            ImmutableList.Builder<Integer> channels = ImmutableList.builder();
+            for (int channel = 0; channel < groupByCount; channel++) {
+                channels.add(channel);
+            }
+
+            return new GroupByHashAggregationBuilder(
+                    aggregators.build(),
+                    Step.FINAL,
+                    expectedGroups,
+                    groupByTypes,
+                    channels.build(),
+                    Optional.empty(),
+                    hashChannel.map(channel -> groupByCount),
+                    operatorContext);
+        }
+    }
+
     private static class GroupByHashAggregationBuilder
     {
         private final GroupByHash groupByHash;
@@ -290,11 +686,28 @@ public class HashAggregationOperator
                 Optional<Integer> maskChannel,
                 Optional<Integer> hashChannel,
                 OperatorContext operatorContext)
+        {
+            this(createAggregators(accumulatorFactories, step), step, expectedGroups, groupByTypes, groupByChannels, maskChannel, hashChannel, operatorContext);
+        }
+
+        private GroupByHashAggregationBuilder(
+                List<Aggregator> aggregators,
+                Step step,
+                int expectedGroups,
+                List<Type> groupByTypes,
+                List<Integer> groupByChannels,
+                Optional<Integer> maskChannel,
+                Optional<Integer> hashChannel,
+                OperatorContext operatorContext)
         {
             this.groupByHash = createGroupByHash(operatorContext.getSession(), groupByTypes, Ints.toArray(groupByChannels), maskChannel, hashChannel, expectedGroups);
             this.operatorContext = operatorContext;
             this.partial = step.isOutputPartial();
+            this.aggregators = ImmutableList.copyOf(requireNonNull(aggregators, "aggregators is null"));
+        }
 
+        private static List<Aggregator> createAggregators(List<AccumulatorFactory> accumulatorFactories, Step step)
+        {
             // wrapper each function with an aggregator
             ImmutableList.Builder<Aggregator> builder = ImmutableList.builder();
             requireNonNull(accumulatorFactories, "accumulatorFactories is null");
@@ -302,7 +715,7 @@ public class HashAggregationOperator
                 AccumulatorFactory accumulatorFactory = accumulatorFactories.get(i);
                 builder.add(new Aggregator(accumulatorFactory, step));
             }
-            aggregators = builder.build();
+            return builder.build();
         }
 
         private void processPage(Page page)
@@ -319,12 +732,23 @@ public class HashAggregationOperator
             }
         }
 
-        public boolean isFull()
+        public int getGroupCount()
+        {
+            return groupByHash.getGroupCount();
+        }
+
+        public long getSizeInMemory()
         {
             long memorySize = groupByHash.getEstimatedSize();
             for (Aggregator aggregator : aggregators) {
                 memorySize += aggregator.getEstimatedSize();
             }
+            return memorySize;
+        }
+
+        public boolean isFull()
+        {
+            long memorySize = getSizeInMemory();
             memorySize -= operatorContext.getOperatorPreAllocatedMemory().toBytes();
             if (memorySize < 0) {
                 memorySize = 0;
@@ -378,6 +802,83 @@ public class HashAggregationOperator
                 }
             };
         }
+
+        public List<Type> getSpillTypes()
+        {
+            ImmutableList.Builder<Type> types = ImmutableList.builder();
+            types.addAll(groupByHash.getTypes());
+            for (Aggregator aggregator : aggregators) {
+                types.add(aggregator.getIntermediateType());
+            }
+            types.add(BIGINT);
+            return types.build();
+        }
+
+        /**
+         * Returns the intermediate state of all groups ordered by the raw hash of the group,
+         * which is appended as the last channel.
+         */
+        public Iterator<Page> buildHashSortedIntermediateResult()
+        {
+            int groupCount = groupByHash.getGroupCount();
+            int[] groupIds = new int[groupCount];
+            long[] rawHashes = new long[groupCount];
+            for (int groupId = 0; groupId < groupCount; groupId++) {
+                groupIds[groupId] = groupId;
+                rawHashes[groupId] = groupByHash.getRawHash(groupId);
+            }
+
+            Arrays.quickSort(0, groupCount, new AbstractIntComparator()
+            {
+                @Override
+                public int compare(int left, int right)
+                {
+                    return Long.compare(rawHashes[left], rawHashes[right]);
+                }
+            }, (left, right) -> {
+                int groupId = groupIds[left];
+                groupIds[left] = groupIds[right];
+                groupIds[right] = groupId;
+
+                long rawHash = rawHashes[left];
+                rawHashes[left] = rawHashes[right];
+                rawHashes[right] = rawHash;
+            });
+
+            List<Type> types = getSpillTypes();
+            PageBuilder pageBuilder = new PageBuilder(types);
+            int rawHashChannel = types.size() - 1;
+            return new AbstractIterator<Page>()
+            {
+                private int position;
+
+                @Override
+                protected Page computeNext()
+                {
+                    if (position >= groupCount) {
+                        return endOfData();
+                    }
+
+                    pageBuilder.reset();
+
+                    int aggregatorOffset = groupByHash.getTypes().size();
+                    while (!pageBuilder.isFull() && position < groupCount) {
+                        int groupId = groupIds[position];
+                        groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+
+                        pageBuilder.declarePosition();
+                        for (int i = 0; i < aggregators.size(); i++) {
+                            aggregators.get(i).evaluateIntermediate(groupId, pageBuilder.getBlockBuilder(aggregatorOffset + i));
+                        }
+                        BIGINT.writeLong(pageBuilder.getBlockBuilder(rawHashChannel), rawHashes[position]);
+
+                        position++;
+                    }
+
+                    return pageBuilder.build();
+                }
+            };
+        }
     }
 
     private static class Aggregator
@@ -387,14 +888,25 @@ public class HashAggregationOperator
         private final int intermediateChannel;
 
         private Aggregator(AccumulatorFactory accumulatorFactory, Step step)
+        {
+            this(accumulatorFactory, step, Optional.empty());
+        }
+
+        private Aggregator(AccumulatorFactory accumulatorFactory, Step step, Optional<Integer> intermediateChannel)
         {
             if (step.isInputRaw()) {
-                intermediateChannel = -1;
+                checkArgument(!intermediateChannel.isPresent(), "intermediate channel is not used for raw input");
+                this.intermediateChannel = -1;
                 aggregation = accumulatorFactory.createGroupedAccumulator();
             }
             else {
-                checkArgument(accumulatorFactory.getInputChannels().size() == 1, "expected 1 input channel for intermediate aggregation");
-                intermediateChannel = accumulatorFactory.getInputChannels().get(0);
+                if (intermediateChannel.isPresent()) {
+                    this.intermediateChannel = intermediateChannel.get();
+                }
+                else {
+                    checkArgument(accumulatorFactory.getInputChannels().size() == 1, "expected 1 input channel for intermediate aggregation");
+                    this.intermediateChannel = accumulatorFactory.getInputChannels().get(0);
+                }
                 aggregation = accumulatorFactory.createGroupedIntermediateAccumulator();
             }
             this.step = step;
@@ -415,6 +927,11 @@ public class HashAggregationOperator
             }
         }
 
+        public Type getIntermediateType()
+        {
+            return aggregation.getIntermediateType();
+        }
+
         public void processPage(GroupByIdBlock groupIds, Page page)
         {
             if (step.isInputRaw()) {
@@ -434,5 +951,10 @@ public class HashAggregationOperator
                 aggregation.evaluateFinal(groupId, output);
             }
         }
+
+        public void evaluateIntermediate(int groupId, BlockBuilder output)
+        {
+            aggregation.evaluateIntermediate(groupId, output);
+        }
     }
 }
@@ -15,16 +15,23 @@ package com.facebook.presto.operator;
 
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -41,6 +48,11 @@ public class HashBuilderOperator
         private final Optional<Integer> hashChannel;
 
         private final int expectedPositions;
+        private final boolean spillEnabled;
+        private final DataSize memoryLimitBeforeSpill;
+        private final SpillerFactory spillerFactory;
+        private final Optional<SpilledLookupSource> spilledLookupSource;
+        private final Optional<DynamicFilterSource> dynamicFilterSource;
         private boolean closed;
 
         public HashBuilderOperatorFactory(
@@ -50,16 +62,65 @@ public class HashBuilderOperator
                 List<Integer> hashChannels,
                 Optional<Integer> hashChannel,
                 int expectedPositions)
+        {
+            this(operatorId,
+                    planNodeId,
+                    types,
+                    hashChannels,
+                    hashChannel,
+                    expectedPositions,
+                    false,
+                    new DataSize(0, BYTE),
+                    SpillerFactory.DISABLED);
+        }
+
+        public HashBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<Type> types,
+                List<Integer> hashChannels,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                boolean spillEnabled,
+                DataSize memoryLimitBeforeSpill,
+                SpillerFactory spillerFactory)
+        {
+            this(operatorId, planNodeId, types, hashChannels, hashChannel, expectedPositions, spillEnabled, memoryLimitBeforeSpill, spillerFactory, Optional.empty());
+        }
+
+        public HashBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<Type> types,
+                List<Integer> hashChannels,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                boolean spillEnabled,
+                DataSize memoryLimitBeforeSpill,
+                SpillerFactory spillerFactory,
+                Optional<DynamicFilterSource> dynamicFilterSource)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
-            this.lookupSourceSupplier = new SettableLookupSourceSupplier(requireNonNull(types, "types is null"));
+            requireNonNull(types, "types is null");
 
             Preconditions.checkArgument(!hashChannels.isEmpty(), "hashChannels is empty");
             this.hashChannels = ImmutableList.copyOf(requireNonNull(hashChannels, "hashChannels is null"));
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
 
             this.expectedPositions = expectedPositions;
+            this.spillEnabled = spillEnabled;
+            this.memoryLimitBeforeSpill = requireNonNull(memoryLimitBeforeSpill, "memoryLimitBeforeSpill is null");
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+            this.dynamicFilterSource = requireNonNull(dynamicFilterSource, "dynamicFilterSource is null");
+
+            if (spillEnabled) {
+                this.spilledLookupSource = Optional.of(new SpilledLookupSource(types, hashChannels, hashChannel, spillerFactory));
+            }
+            else {
+                this.spilledLookupSource = Optional.empty();
+            }
+            this.lookupSourceSupplier = new SettableLookupSourceSupplier(types, spilledLookupSource);
         }
 
         public LookupSourceSupplier getLookupSourceSupplier()
@@ -83,7 +144,11 @@ public class HashBuilderOperator
                     lookupSourceSupplier,
                     hashChannels,
                     hashChannel,
-                    expectedPositions);
+                    expectedPositions,
+                    memoryLimitBeforeSpill,
+                    spillerFactory,
+                    spilledLookupSource,
+                    dynamicFilterSource);
         }
 
         @Override
@@ -95,16 +160,27 @@ public class HashBuilderOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new HashBuilderOperatorFactory(operatorId, planNodeId, lookupSourceSupplier.getTypes(), hashChannels, hashChannel, expectedPositions);
+            return new HashBuilderOperatorFactory(operatorId, planNodeId, lookupSourceSupplier.getTypes(), hashChannels, hashChannel, expectedPositions, spillEnabled, memoryLimitBeforeSpill, spillerFactory, dynamicFilterSource);
         }
     }
 
+    // number of hash partitions the build rows are divided into once spilling starts; must be a power of 2
+    static final int SPILL_PARTITION_COUNT = 16;
+
     private final OperatorContext operatorContext;
     private final SettableLookupSourceSupplier lookupSourceSupplier;
     private final List<Integer> hashChannels;
     private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+
+    private final long memoryLimitBeforeSpill;
+    private final SpillerFactory spillerFactory;
+    private final Optional<SpilledLookupSource> spilledLookupSource;
+    private final Optional<DynamicFilterSource> dynamicFilterSource;
 
-    private final PagesIndex pagesIndex;
+    private PagesIndex pagesIndex;
+    private HashPartitionSpiller partitionSpiller;
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
 
     private boolean finished;
 
@@ -113,7 +189,11 @@ public class HashBuilderOperator
             SettableLookupSourceSupplier lookupSourceSupplier,
             List<Integer> hashChannels,
             Optional<Integer> hashChannel,
-            int expectedPositions)
+            int expectedPositions,
+            DataSize memoryLimitBeforeSpill,
+            SpillerFactory spillerFactory,
+            Optional<SpilledLookupSource> spilledLookupSource,
+            Optional<DynamicFilterSource> dynamicFilterSource)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
@@ -122,6 +202,12 @@ public class HashBuilderOperator
         Preconditions.checkArgument(!hashChannels.isEmpty(), "hashChannels is empty");
         this.hashChannels = ImmutableList.copyOf(requireNonNull(hashChannels, "hashChannels is null"));
         this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+
+        this.memoryLimitBeforeSpill = requireNonNull(memoryLimitBeforeSpill, "memoryLimitBeforeSpill is null").toBytes();
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        this.spilledLookupSource = requireNonNull(spilledLookupSource, "spilledLookupSource is null");
+        this.dynamicFilterSource = requireNonNull(dynamicFilterSource, "dynamicFilterSource is null");
 
         this.pagesIndex = new PagesIndex(lookupSourceSupplier.getTypes(), expectedPositions);
     }
@@ -145,6 +231,33 @@ public class HashBuilderOperator
             return;
         }
 
+        if (partitionSpiller != null) {
+            // all spilled rows must be on disk before the probe side can read them
+            spillInProgress = partitionSpiller.flush();
+            if (!spillInProgress.isDone()) {
+                return;
+            }
+            // propagate any failure of the spill
+            getFutureValue(spillInProgress);
+        }
+
+        if (dynamicFilterSource.isPresent()) {
+            // the keys of the spilled partitions are not in memory, so nothing can be filtered out
+            if (partitionSpiller != null) {
+                dynamicFilterSource.get().setAllKeys();
+            }
+            else {
+                dynamicFilterSource.get().addBuildKeys(pagesIndex, hashChannels);
+            }
+        }
+
+        // the spilled partitions must be known before the probe side gets the lookup source
+        if (spilledLookupSource.isPresent()) {
+            spilledLookupSource.get().finishBuild(Optional.ofNullable(partitionSpiller));
+            // the spilled partitions are now owned by the spilled lookup source
+            partitionSpiller = null;
+        }
+
         // After this point the SharedLookupSource will take over our memory reservation, and ours will be zero
         lookupSourceSupplier.setLookupSource(new SharedLookupSource(pagesIndex.createLookupSource(hashChannels, hashChannel), operatorContext));
         finished = true;
@@ -156,10 +269,19 @@ public class HashBuilderOperator
         return finished;
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (!spillInProgress.isDone()) {
+            return spillInProgress;
+        }
+        return NOT_BLOCKED;
+    }
+
     @Override
     public boolean needsInput()
     {
-        return !finished;
+        return !finished && spillInProgress.isDone();
     }
 
     @Override
@@ -167,13 +289,27 @@ public class HashBuilderOperator
     {
         requireNonNull(page, "page is null");
         checkState(!isFinished(), "Operator is already finished");
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
+        operatorContext.recordGeneratedOutput(page.getSizeInBytes(), page.getPositionCount());
+
+        if (partitionSpiller != null) {
+            // rows of the spilled partitions go straight to disk
+            page = partitionSpiller.spillRows(page);
+            spillInProgress = partitionSpiller.isBlocked();
+            if (page.getPositionCount() == 0) {
+                return;
+            }
+        }
 
         pagesIndex.addPage(page);
+        if (spilledLookupSource.isPresent() && pagesIndex.getEstimatedSize().toBytes() > memoryLimitBeforeSpill) {
+            spillPartitions();
+            return;
+        }
         if (!operatorContext.trySetMemoryReservation(pagesIndex.getEstimatedSize().toBytes())) {
             pagesIndex.compact();
         }
         operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
-        operatorContext.recordGeneratedOutput(page.getSizeInBytes(), page.getPositionCount());
     }
 
     @Override
@@ -181,4 +317,50 @@ public class HashBuilderOperator
     {
         return null;
     }
+
+    @Override
+    public void close()
+    {
+        // if the lookup source was never built, the spilled partitions are still ours
+        if (partitionSpiller != null) {
+            partitionSpiller.close();
+            partitionSpiller = null;
+        }
+    }
+
+    private void spillPartitions()
+    {
+        if (partitionSpiller == null) {
+            partitionSpiller = new HashPartitionSpiller(lookupSourceSupplier.getTypes(), createHashGenerator(), SPILL_PARTITION_COUNT, spillerFactory, operatorContext.getSpillContext());
+        }
+
+        // spill the largest partitions until at least half of the rows in memory are gone
+        partitionSpiller.spillLargestPartitions(pagesIndex.getPages());
+
+        // move the rows of the remaining partitions to a new index
+        PagesIndex oldPagesIndex = pagesIndex;
+        pagesIndex = new PagesIndex(lookupSourceSupplier.getTypes(), expectedPositions);
+        Iterator<Page> pages = oldPagesIndex.getPages();
+        while (pages.hasNext()) {
+            Page page = partitionSpiller.spillRows(pages.next());
+            if (page.getPositionCount() > 0) {
+                pagesIndex.addPage(page);
+            }
+        }
+        oldPagesIndex.clear();
+        operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+        spillInProgress = partitionSpiller.flush();
+    }
+
+    private HashGenerator createHashGenerator()
+    {
+        if (hashChannel.isPresent()) {
+            return new PrecomputedHashGenerator(hashChannel.get());
+        }
+        ImmutableList.Builder<Type> hashChannelTypes = ImmutableList.builder();
+        for (int channel : hashChannels) {
+            hashChannelTypes.add(lookupSourceSupplier.getTypes().get(channel));
+        }
+        return new InterpretedHashGenerator(hashChannelTypes.build(), Ints.toArray(hashChannels));
+    }
 }
@@ -0,0 +1,278 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.SpillContext;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+
+import static com.facebook.presto.operator.Operator.NOT_BLOCKED;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Integer.bitCount;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Splits rows into a fixed number of hash partitions and spills the rows of
+ * the partitions that have been marked as spilled. Rows are buffered per
+ * partition and written one page at a time, and the writes for a partition
+ * are chained so that at most one spill per partition is in progress.
+ */
+@NotThreadSafe
+public class HashPartitionSpiller
+        implements Closeable
+{
+    private final List<Type> types;
+    private final HashGenerator hashGenerator;
+    private final int partitionMask;
+    private final SpillerFactory spillerFactory;
+    private final SpillContext spillContext;
+
+    private final Spiller[] spillers;
+    private final PageBuilder[] pageBuilders;
+    private final ListenableFuture<?>[] spillsInProgress;
+
+    private boolean closed;
+
+    public HashPartitionSpiller(List<Type> types, HashGenerator hashGenerator, int partitionCount, SpillerFactory spillerFactory, SpillContext spillContext)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.hashGenerator = requireNonNull(hashGenerator, "hashGenerator is null");
+        checkArgument(partitionCount > 0 && bitCount(partitionCount) == 1, "partitionCount must be a power of 2");
+        this.partitionMask = partitionCount - 1;
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        this.spillContext = requireNonNull(spillContext, "spillContext is null");
+
+        this.spillers = new Spiller[partitionCount];
+        this.pageBuilders = new PageBuilder[partitionCount];
+        this.spillsInProgress = new ListenableFuture<?>[partitionCount];
+    }
+
+    public int getPartitionCount()
+    {
+        return spillers.length;
+    }
+
+    public int getPartition(int position, Page page)
+    {
+        long rawHash = hashGenerator.hashPosition(position, page);
+        return (int) (murmurHash3(rawHash) & partitionMask);
+    }
+
+    public boolean isSpilled(int partition)
+    {
+        return spillers[partition] != null;
+    }
+
+    public SortedSet<Integer> getSpilledPartitions()
+    {
+        ImmutableSortedSet.Builder<Integer> spilledPartitions = ImmutableSortedSet.naturalOrder();
+        for (int partition = 0; partition < spillers.length; partition++) {
+            if (isSpilled(partition)) {
+                spilledPartitions.add(partition);
+            }
+        }
+        return spilledPartitions.build();
+    }
+
+    /**
+     * Marks the partition as spilled. From now on rows of this partition passed to
+     * {@link #spillRows(Page)} are written to disk instead of being returned.
+     */
+    public void spillPartition(int partition)
+    {
+        checkState(!closed, "spiller is closed");
+        checkState(!isSpilled(partition), "partition %s is already spilled", partition);
+
+        spillers[partition] = spillerFactory.create(types, spillContext);
+        pageBuilders[partition] = new PageBuilder(types);
+        spillsInProgress[partition] = NOT_BLOCKED;
+    }
+
+    /**
+     * Marks the partitions with the most rows as spilled, until at least half of the given
+     * rows belong to spilled partitions or all partitions are spilled.
+     */
+    public void spillLargestPartitions(Iterator<Page> pages)
+    {
+        long[] partitionRowCounts = new long[spillers.length];
+        long rowCount = 0;
+        while (pages.hasNext()) {
+            Page page = pages.next();
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                partitionRowCounts[getPartition(position, page)]++;
+            }
+            rowCount += page.getPositionCount();
+        }
+
+        long spilledRows = 0;
+        while (spilledRows * 2 < rowCount) {
+            int largestPartition = -1;
+            for (int partition = 0; partition < spillers.length; partition++) {
+                if (!isSpilled(partition) && (largestPartition < 0 || partitionRowCounts[partition] > partitionRowCounts[largestPartition])) {
+                    largestPartition = partition;
+                }
+            }
+            if (largestPartition < 0) {
+                break;
+            }
+            spillPartition(largestPartition);
+            spilledRows += partitionRowCounts[largestPartition];
+        }
+    }
+
+    /**
+     * Spills the rows of the page that belong to a spilled partition and returns a page with the remaining rows.
+     * The returned page may have no positions.
+     */
+    public Page spillRows(Page page)
+    {
+        checkState(!closed, "spiller is closed");
+        checkSpillsSucceeded();
+
+        List<Integer> retainedPositions = new ArrayList<>(page.getPositionCount());
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            int partition = getPartition(position, page);
+            if (!isSpilled(partition)) {
+                retainedPositions.add(position);
+                continue;
+            }
+
+            PageBuilder pageBuilder = pageBuilders[partition];
+            pageBuilder.declarePosition();
+            for (int channel = 0; channel < types.size(); channel++) {
+                types.get(channel).appendTo(page.getBlock(channel), position, pageBuilder.getBlockBuilder(channel));
+            }
+            if (pageBuilder.isFull()) {
+                flushPartition(partition);
+            }
+        }
+
+        if (retainedPositions.size() == page.getPositionCount()) {
+            return page;
+        }
+
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = page.getBlock(channel).copyPositions(retainedPositions);
+        }
+        return new Page(retainedPositions.size(), blocks);
+    }
+
+    /**
+     * Writes all buffered rows to disk. Returns a future that completes once all spills have finished.
+     */
+    public ListenableFuture<?> flush()
+    {
+        checkState(!closed, "spiller is closed");
+        for (int partition = 0; partition < spillers.length; partition++) {
+            if (isSpilled(partition)) {
+                flushPartition(partition);
+            }
+        }
+        return isBlocked();
+    }
+
+    public ListenableFuture<?> isBlocked()
+    {
+        List<ListenableFuture<?>> blocked = new ArrayList<>();
+        for (ListenableFuture<?> spillInProgress : spillsInProgress) {
+            if (spillInProgress != null && !spillInProgress.isDone()) {
+                blocked.add(spillInProgress);
+            }
+        }
+        if (blocked.isEmpty()) {
+            return NOT_BLOCKED;
+        }
+        return Futures.allAsList(blocked);
+    }
+
+    /**
+     * Returns all spilled rows of the partition. All buffered rows must have been flushed.
+     */
+    public Iterator<Page> readPartition(int partition)
+    {
+        checkState(!closed, "spiller is closed");
+        checkState(isSpilled(partition), "partition %s is not spilled", partition);
+        checkState(pageBuilders[partition].isEmpty(), "partition %s has not been flushed", partition);
+        checkState(spillsInProgress[partition].isDone(), "spill of partition %s is still in progress", partition);
+        getFutureValue(spillsInProgress[partition]);
+
+        return Iterators.concat(spillers[partition].getSpills().iterator());
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Spiller spiller : spillers) {
+            if (spiller != null) {
+                spiller.close();
+            }
+        }
+    }
+
+    private void flushPartition(int partition)
+    {
+        PageBuilder pageBuilder = pageBuilders[partition];
+        if (pageBuilder.isEmpty()) {
+            return;
+        }
+        Iterator<Page> pages = ImmutableList.of(pageBuilder.build()).iterator();
+        pageBuilder.reset();
+
+        // a spiller accepts one spill at a time, so chain this write after the previous one
+        Spiller spiller = spillers[partition];
+        spillsInProgress[partition] = Futures.transform(spillsInProgress[partition], (AsyncFunction<Object, Object>) ignored -> spill(spiller, pages));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ListenableFuture<Object> spill(Spiller spiller, Iterator<Page> pages)
+    {
+        return (ListenableFuture<Object>) spiller.spill(pages);
+    }
+
+    private void checkSpillsSucceeded()
+    {
+        for (ListenableFuture<?> spillInProgress : spillsInProgress) {
+            if (spillInProgress != null && spillInProgress.isDone()) {
+                // propagate any failure of the spill
+                getFutureValue(spillInProgress);
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.operator;
 
+import com.facebook.presto.block.PagesSerde.PagesReadStats;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
@@ -49,9 +50,10 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES_TYPE;
-import static com.facebook.presto.block.PagesSerde.readPages;
+import static com.facebook.presto.block.PagesSerde.readExchangePages;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_SIZE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_NEXT_TOKEN;
@@ -132,6 +134,9 @@ public final class HttpPageBufferClient
     private String taskInstanceId;
 
     private final AtomicInteger pagesReceived = new AtomicInteger();
+    private final AtomicLong serializedBytesReceived = new AtomicLong();
+    private final AtomicLong uncompressedBytesReceived = new AtomicLong();
+    private final AtomicLong decompressionCpuNanos = new AtomicLong();
 
     private final AtomicInteger requestsScheduled = new AtomicInteger();
     private final AtomicInteger requestsCompleted = new AtomicInteger();
@@ -196,6 +201,9 @@ public final class HttpPageBufferClient
                 state,
                 lastUpdate,
                 pagesReceived.get(),
+                serializedBytesReceived.get(),
+                uncompressedBytesReceived.get(),
+                decompressionCpuNanos.get(),
                 requestsScheduled.get(),
                 requestsCompleted.get(),
                 requestsFailed.get(),
@@ -309,6 +317,9 @@ public final class HttpPageBufferClient
                         if (result.getToken() == token) {
                             pages = result.getPages();
                             token = result.getNextToken();
+                            serializedBytesReceived.addAndGet(result.getSerializedBytes());
+                            uncompressedBytesReceived.addAndGet(result.getUncompressedBytes());
+                            decompressionCpuNanos.addAndGet(result.getDecompressionCpuNanos());
                         }
                         else {
                             pages = ImmutableList.of();
@@ -540,8 +551,9 @@ public final class HttpPageBufferClient
             boolean complete = getComplete(response);
 
             try (SliceInput input = new InputStreamSliceInput(response.getInputStream())) {
-                List<Page> pages = ImmutableList.copyOf(readPages(blockEncodingSerde, input));
-                return createPagesResponse(taskInstanceId, token, nextToken, pages, complete);
+                PagesReadStats stats = new PagesReadStats();
+                List<Page> pages = ImmutableList.copyOf(readExchangePages(blockEncodingSerde, input, stats));
+                return createPagesResponse(taskInstanceId, token, nextToken, pages, complete, stats);
             }
             catch (IOException e) {
                 throw Throwables.propagate(e);
@@ -599,12 +611,17 @@ public final class HttpPageBufferClient
     {
         public static PagesResponse createPagesResponse(String taskInstanceId, long token, long nextToken, Iterable<Page> pages, boolean complete)
         {
-            return new PagesResponse(taskInstanceId, token, nextToken, pages, complete);
+            return createPagesResponse(taskInstanceId, token, nextToken, pages, complete, new PagesReadStats());
+        }
+
+        public static PagesResponse createPagesResponse(String taskInstanceId, long token, long nextToken, Iterable<Page> pages, boolean complete, PagesReadStats stats)
+        {
+            return new PagesResponse(taskInstanceId, token, nextToken, pages, complete, stats.getSerializedBytes(), stats.getUncompressedBytes(), stats.getDecompressionCpuNanos());
         }
 
         public static PagesResponse createEmptyPagesResponse(String taskInstanceId, long token, long nextToken, boolean complete)
         {
-            return new PagesResponse(taskInstanceId, token, nextToken, ImmutableList.<Page>of(), complete);
+            return new PagesResponse(taskInstanceId, token, nextToken, ImmutableList.<Page>of(), complete, 0, 0, 0);
         }
 
         private final String taskInstanceId;
@@ -612,14 +629,28 @@ public final class HttpPageBufferClient
         private final long nextToken;
         private final List<Page> pages;
         private final boolean clientComplete;
-
-        private PagesResponse(String taskInstanceId, long token, long nextToken, Iterable<Page> pages, boolean clientComplete)
+        private final long serializedBytes;
+        private final long uncompressedBytes;
+        private final long decompressionCpuNanos;
+
+        private PagesResponse(
+                String taskInstanceId,
+                long token,
+                long nextToken,
+                Iterable<Page> pages,
+                boolean clientComplete,
+                long serializedBytes,
+                long uncompressedBytes,
+                long decompressionCpuNanos)
         {
             this.taskInstanceId = taskInstanceId;
             this.token = token;
             this.nextToken = nextToken;
             this.pages = ImmutableList.copyOf(pages);
             this.clientComplete = clientComplete;
+            this.serializedBytes = serializedBytes;
+            this.uncompressedBytes = uncompressedBytes;
+            this.decompressionCpuNanos = decompressionCpuNanos;
         }
 
         public long getToken()
@@ -647,6 +678,21 @@ public final class HttpPageBufferClient
             return taskInstanceId;
         }
 
+        public long getSerializedBytes()
+        {
+            return serializedBytes;
+        }
+
+        public long getUncompressedBytes()
+        {
+            return uncompressedBytes;
+        }
+
+        public long getDecompressionCpuNanos()
+        {
+            return decompressionCpuNanos;
+        }
+
         @Override
         public String toString()
         {
@@ -19,4 +19,13 @@ public interface JoinOperatorFactory
         extends OperatorFactory
 {
     Optional<OperatorFactory> createOuterOperatorFactory();
+
+    /**
+     * Returns a factory for the operators that join the probe rows of spilled build partitions,
+     * once all probe operators are done.
+     */
+    default Optional<OperatorFactory> createSpilledOperatorFactory()
+    {
+        return Optional.empty();
+    }
 }
@@ -14,18 +14,23 @@
 package com.facebook.presto.operator;
 
 import com.facebook.presto.operator.LookupJoinOperators.JoinType;
+import com.facebook.presto.operator.SpilledLookupSource.SpilledProbe;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.io.Closeable;
 import java.util.List;
+import java.util.Optional;
 
 import static com.facebook.presto.operator.LookupJoinOperators.JoinType.FULL_OUTER;
 import static com.facebook.presto.operator.LookupJoinOperators.JoinType.PROBE_OUTER;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
 import static java.util.Objects.requireNonNull;
 
@@ -37,6 +42,8 @@ public class LookupJoinOperator
 
     private final OperatorContext operatorContext;
     private final JoinProbeFactory joinProbeFactory;
+    private final HashGenerator probeHashGenerator;
+    private final List<Type> probeTypes;
     private final List<Type> types;
     private final PageBuilder pageBuilder;
 
@@ -49,22 +56,56 @@ public class LookupJoinOperator
     private boolean finishing;
     private long joinPosition = -1;
 
+    // probe rows of the spilled build partitions are handed over to the spilled lookup source,
+    // and are joined by the operators of the spilled join driver once all probe operators are done
+    private final Optional<SpilledLookupSource> spilledLookupSource;
+    private final boolean joinSpilledRows;
+    private HashPartitionSpiller probeSpiller;
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private SpilledProbe spilledProbe;
+    private ListenableFuture<?> spilledProbeBlocked = NOT_BLOCKED;
+
+    public LookupJoinOperator(
+            OperatorContext operatorContext,
+            LookupSourceSupplier lookupSourceSupplier,
+            List<Type> probeTypes,
+            JoinType joinType,
+            JoinProbeFactory joinProbeFactory,
+            HashGenerator probeHashGenerator)
+    {
+        this(operatorContext, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory, probeHashGenerator, false);
+    }
+
     public LookupJoinOperator(
             OperatorContext operatorContext,
             LookupSourceSupplier lookupSourceSupplier,
             List<Type> probeTypes,
             JoinType joinType,
-            JoinProbeFactory joinProbeFactory)
+            JoinProbeFactory joinProbeFactory,
+            HashGenerator probeHashGenerator,
+            boolean joinSpilledRows)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
         // todo pass in desired projection
         this.lookupSourceSupplier = requireNonNull(lookupSourceSupplier, "lookupSourceSupplier is null");
-        lookupSourceSupplier.retain();
-        requireNonNull(probeTypes, "probeTypes is null");
-
-        this.lookupSourceFuture = lookupSourceSupplier.getLookupSource(operatorContext);
+        this.probeTypes = ImmutableList.copyOf(requireNonNull(probeTypes, "probeTypes is null"));
+        this.spilledLookupSource = lookupSourceSupplier.getSpilledLookupSource();
+        this.joinSpilledRows = joinSpilledRows;
+
+        if (joinSpilledRows) {
+            // the spilled rows are the only input, and the in memory lookup source is never used
+            checkArgument(spilledLookupSource.isPresent(), "Lookup source supplier can not spill");
+            spilledLookupSource.get().retain();
+            this.lookupSourceFuture = Futures.immediateFuture(null);
+            this.finishing = true;
+        }
+        else {
+            lookupSourceSupplier.retain();
+            this.lookupSourceFuture = lookupSourceSupplier.getLookupSource(operatorContext);
+        }
         this.joinProbeFactory = joinProbeFactory;
+        this.probeHashGenerator = requireNonNull(probeHashGenerator, "probeHashGenerator is null");
 
         // Cannot use switch case here, because javac will synthesize an inner class and cause IllegalAccessError
         probeOnOuterSide = joinType == PROBE_OUTER || joinType == FULL_OUTER;
@@ -97,7 +138,10 @@ public class LookupJoinOperator
     @Override
     public boolean isFinished()
     {
-        boolean finished = finishing && probe == null && pageBuilder.isEmpty();
+        boolean finished = finishing && probe == null && probeSpiller == null && pageBuilder.isEmpty();
+        if (joinSpilledRows) {
+            finished = finished && spilledProbe == null && spilledLookupSource.get().isFinished();
+        }
 
         // if finished drop references so memory is freed early
         if (finished) {
@@ -114,6 +158,15 @@ public class LookupJoinOperator
     @Override
     public ListenableFuture<?> isBlocked()
     {
+        if (!spillInProgress.isDone()) {
+            return spillInProgress;
+        }
+        if (joinSpilledRows) {
+            if (probe == null && spilledProbe == null) {
+                return spilledProbeBlocked;
+            }
+            return NOT_BLOCKED;
+        }
         return lookupSourceFuture;
     }
 
@@ -126,8 +179,11 @@ public class LookupJoinOperator
 
         if (lookupSource == null) {
             lookupSource = tryGetFutureValue(lookupSourceFuture).orElse(null);
+            if (lookupSource != null && spilledLookupSource.isPresent() && !spilledLookupSource.get().getSpilledPartitions().isEmpty()) {
+                probeSpiller = spilledLookupSource.get().createProbeSpiller(probeTypes, probeHashGenerator, operatorContext.getSpillContext());
+            }
         }
-        return lookupSource != null && probe == null;
+        return lookupSource != null && probe == null && spillInProgress.isDone();
     }
 
     @Override
@@ -137,6 +193,16 @@ public class LookupJoinOperator
         checkState(!finishing, "Operator is finishing");
         checkState(lookupSource != null, "Lookup source has not been built yet");
         checkState(probe == null, "Current page has not been completely processed yet");
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
+
+        if (probeSpiller != null) {
+            // rows of the spilled build partitions can only be joined once those partitions are loaded
+            page = probeSpiller.spillRows(page);
+            spillInProgress = probeSpiller.isBlocked();
+            if (page.getPositionCount() == 0) {
+                return;
+            }
+        }
 
         // create probe
         probe = joinProbeFactory.createJoinProbe(lookupSource, page);
@@ -148,10 +214,19 @@ public class LookupJoinOperator
     @Override
     public Page getOutput()
     {
-        if (lookupSource == null) {
+        if (joinSpilledRows) {
+            if (probe == null) {
+                advanceSpilledProbe();
+            }
+        }
+        else if (lookupSource == null) {
             return null;
         }
 
+        if (finishing && probe == null && probeSpiller != null) {
+            handOverProbeSpiller();
+        }
+
         // join probe page with the lookup source
         if (probe != null) {
             while (joinCurrentPosition()) {
@@ -165,7 +240,7 @@ public class LookupJoinOperator
         }
 
         // only flush full pages unless we are done
-        if (pageBuilder.isFull() || (finishing && !pageBuilder.isEmpty() && probe == null)) {
+        if (pageBuilder.isFull() || (finishing && !pageBuilder.isEmpty() && probe == null && probeSpiller == null && spilledProbe == null)) {
             Page page = pageBuilder.build();
             pageBuilder.reset();
             return page;
@@ -181,12 +256,69 @@ public class LookupJoinOperator
             lookupSource.close();
             lookupSource = null;
         }
+        if (probeSpiller != null) {
+            probeSpiller.close();
+            probeSpiller = null;
+        }
+        if (spilledProbe != null) {
+            spilledProbe.close();
+            spilledProbe = null;
+        }
         // Closing the lookupSource is always safe to do, but we don't want to release the supplier multiple times, since its reference counted
         if (closed) {
             return;
         }
         closed = true;
-        lookupSourceSupplier.release();
+        if (joinSpilledRows) {
+            spilledLookupSource.get().release();
+        }
+        else {
+            lookupSourceSupplier.release();
+        }
+    }
+
+    private void handOverProbeSpiller()
+    {
+        if (!spillInProgress.isDone()) {
+            return;
+        }
+
+        // write out the remaining probe rows before they can be read back
+        spillInProgress = probeSpiller.flush();
+        if (!spillInProgress.isDone()) {
+            return;
+        }
+        // propagate any failure of the spill
+        getFutureValue(spillInProgress);
+
+        spilledLookupSource.get().addProbeSpiller(probeSpiller);
+        probeSpiller = null;
+    }
+
+    private void advanceSpilledProbe()
+    {
+        while (probe == null) {
+            if (spilledProbe != null) {
+                if (spilledProbe.getProbePages().hasNext()) {
+                    probe = joinProbeFactory.createJoinProbe(lookupSource, spilledProbe.getProbePages().next());
+                    joinPosition = -1;
+                    return;
+                }
+                // let the partition be unloaded once all operators are done with it
+                lookupSource = null;
+                spilledProbe.close();
+                spilledProbe = null;
+            }
+
+            // fetch the future before polling, so a change in between is not missed
+            spilledProbeBlocked = spilledLookupSource.get().isBlocked();
+            Optional<SpilledProbe> nextSpilledProbe = spilledLookupSource.get().pollSpilledProbe(operatorContext);
+            if (!nextSpilledProbe.isPresent()) {
+                return;
+            }
+            spilledProbe = nextSpilledProbe.get();
+            lookupSource = spilledProbe.getLookupSource();
+        }
     }
 
     private boolean joinCurrentPosition()
@@ -36,6 +36,8 @@ public class LookupJoinOperatorFactory
     private final JoinType joinType;
     private final List<Type> types;
     private final JoinProbeFactory joinProbeFactory;
+    private final HashGenerator probeHashGenerator;
+    private final boolean joinSpilledRows;
     private boolean closed;
 
     public LookupJoinOperatorFactory(int operatorId,
@@ -43,7 +45,20 @@ public class LookupJoinOperatorFactory
             LookupSourceSupplier lookupSourceSupplier,
             List<Type> probeTypes,
             JoinType joinType,
-            JoinProbeFactory joinProbeFactory)
+            JoinProbeFactory joinProbeFactory,
+            HashGenerator probeHashGenerator)
+    {
+        this(operatorId, planNodeId, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory, probeHashGenerator, false);
+    }
+
+    private LookupJoinOperatorFactory(int operatorId,
+            PlanNodeId planNodeId,
+            LookupSourceSupplier lookupSourceSupplier,
+            List<Type> probeTypes,
+            JoinType joinType,
+            JoinProbeFactory joinProbeFactory,
+            HashGenerator probeHashGenerator,
+            boolean joinSpilledRows)
     {
         this.operatorId = operatorId;
         this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -52,6 +67,8 @@ public class LookupJoinOperatorFactory
         this.joinType = joinType;
 
         this.joinProbeFactory = joinProbeFactory;
+        this.probeHashGenerator = probeHashGenerator;
+        this.joinSpilledRows = joinSpilledRows;
 
         this.types = ImmutableList.<Type>builder()
                 .addAll(probeTypes)
@@ -80,7 +97,7 @@ public class LookupJoinOperatorFactory
     {
         checkState(!closed, "Factory is already closed");
         OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, LookupJoinOperator.class.getSimpleName());
-        return new LookupJoinOperator(operatorContext, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory);
+        return new LookupJoinOperator(operatorContext, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory, probeHashGenerator, joinSpilledRows);
     }
 
     @Override
@@ -90,13 +107,15 @@ public class LookupJoinOperatorFactory
             return;
         }
         closed = true;
-        lookupSourceSupplier.release();
+        release();
     }
 
     @Override
     public OperatorFactory duplicate()
     {
-        return new LookupJoinOperatorFactory(operatorId, planNodeId, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory);
+        // each factory holds its own reference, since each of them releases it on close
+        retain();
+        return new LookupJoinOperatorFactory(operatorId, planNodeId, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory, probeHashGenerator, joinSpilledRows);
     }
 
     @Override
@@ -107,4 +126,36 @@ public class LookupJoinOperatorFactory
         }
         return Optional.empty();
     }
+
+    @Override
+    public Optional<OperatorFactory> createSpilledOperatorFactory()
+    {
+        Optional<SpilledLookupSource> spilledLookupSource = lookupSourceSupplier.getSpilledLookupSource();
+        if (joinSpilledRows || !spilledLookupSource.isPresent()) {
+            return Optional.empty();
+        }
+        // the spilled join factory keeps the spilled partitions alive until no more operators can be created
+        spilledLookupSource.get().retain();
+        return Optional.of(new LookupJoinOperatorFactory(operatorId, planNodeId, lookupSourceSupplier, probeTypes, joinType, joinProbeFactory, probeHashGenerator, true));
+    }
+
+    private void retain()
+    {
+        if (joinSpilledRows) {
+            lookupSourceSupplier.getSpilledLookupSource().get().retain();
+        }
+        else {
+            lookupSourceSupplier.retain();
+        }
+    }
+
+    private void release()
+    {
+        if (joinSpilledRows) {
+            lookupSourceSupplier.getSpilledLookupSource().get().release();
+        }
+        else {
+            lookupSourceSupplier.release();
+        }
+    }
 }
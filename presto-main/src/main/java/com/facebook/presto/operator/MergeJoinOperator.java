@@ -0,0 +1,560 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Joins two inputs that are both sorted on the join keys with the given orderings. The probe
+ * side is the operator input and the build side is read from a single buffer exchange. Only
+ * the build rows of the current key are kept in memory, so neither side is materialized.
+ * <p>
+ * Rows with a null key never match.
+ */
+public class MergeJoinOperator
+        implements Operator
+{
+    public static class MergeJoinOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final JoinNode.Type joinType;
+        private final List<Type> probeTypes;
+        private final List<Integer> probeJoinChannels;
+        private final List<Integer> buildJoinChannels;
+        private final List<SortOrder> orderings;
+        private final InMemoryExchange buildExchange;
+        private final List<Type> types;
+        private boolean created;
+        private boolean closed;
+
+        public MergeJoinOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                JoinNode.Type joinType,
+                List<Type> probeTypes,
+                List<Integer> probeJoinChannels,
+                List<Integer> buildJoinChannels,
+                List<SortOrder> orderings,
+                InMemoryExchange buildExchange)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.joinType = requireNonNull(joinType, "joinType is null");
+            checkArgument(joinType == INNER || joinType == LEFT || joinType == RIGHT || joinType == FULL, "Unsupported join type: %s", joinType);
+            this.probeTypes = ImmutableList.copyOf(requireNonNull(probeTypes, "probeTypes is null"));
+            this.probeJoinChannels = ImmutableList.copyOf(requireNonNull(probeJoinChannels, "probeJoinChannels is null"));
+            this.buildJoinChannels = ImmutableList.copyOf(requireNonNull(buildJoinChannels, "buildJoinChannels is null"));
+            this.orderings = ImmutableList.copyOf(requireNonNull(orderings, "orderings is null"));
+            checkArgument(!probeJoinChannels.isEmpty(), "probeJoinChannels is empty");
+            checkArgument(probeJoinChannels.size() == buildJoinChannels.size(), "probeJoinChannels and buildJoinChannels have different sizes");
+            checkArgument(probeJoinChannels.size() == orderings.size(), "probeJoinChannels and orderings have different sizes");
+            this.buildExchange = requireNonNull(buildExchange, "buildExchange is null");
+            checkArgument(buildExchange.getBufferCount() == 1, "buildExchange must have a single buffer");
+            this.types = ImmutableList.<Type>builder()
+                    .addAll(probeTypes)
+                    .addAll(buildExchange.getTypes())
+                    .build();
+        }
+
+        @Override
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            // the build side is a single stream, so there can only be a single probe
+            checkState(!created, "Merge join operator was already created");
+            created = true;
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MergeJoinOperator.class.getSimpleName());
+            return new MergeJoinOperator(operatorContext, joinType, probeTypes, probeJoinChannels, buildJoinChannels, orderings, buildExchange);
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            throw new UnsupportedOperationException("Merge join operator factories can not be duplicated");
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final List<Type> types;
+    private final List<Type> probeTypes;
+    private final List<Type> buildTypes;
+    private final List<Type> keyTypes;
+    private final int[] probeJoinChannels;
+    private final int[] buildJoinChannels;
+    private final List<SortOrder> orderings;
+    private final boolean probeOuter;
+    private final boolean buildOuter;
+    private final InMemoryExchange buildExchange;
+    private final PageBuilder pageBuilder;
+
+    private Page probe;
+    private int probePosition;
+    private boolean finishing;
+
+    private Page build;
+    private int buildPosition;
+    private boolean waitingForBuild;
+
+    // the build rows with the current key, the key is the first row of the first page
+    private final List<Page> run = new ArrayList<>();
+    private boolean runComplete;
+    private boolean runMatched;
+    // the next run row to join with the current probe row
+    private int runPageIndex;
+    private int runPosition;
+
+    private boolean finished;
+
+    public MergeJoinOperator(
+            OperatorContext operatorContext,
+            JoinNode.Type joinType,
+            List<Type> probeTypes,
+            List<Integer> probeJoinChannels,
+            List<Integer> buildJoinChannels,
+            List<SortOrder> orderings,
+            InMemoryExchange buildExchange)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        requireNonNull(joinType, "joinType is null");
+        this.probeTypes = ImmutableList.copyOf(requireNonNull(probeTypes, "probeTypes is null"));
+        this.probeJoinChannels = Ints.toArray(requireNonNull(probeJoinChannels, "probeJoinChannels is null"));
+        this.buildJoinChannels = Ints.toArray(requireNonNull(buildJoinChannels, "buildJoinChannels is null"));
+        this.orderings = ImmutableList.copyOf(requireNonNull(orderings, "orderings is null"));
+        this.buildExchange = requireNonNull(buildExchange, "buildExchange is null");
+        this.buildTypes = buildExchange.getTypes();
+        this.probeOuter = joinType == LEFT || joinType == FULL;
+        this.buildOuter = joinType == RIGHT || joinType == FULL;
+
+        ImmutableList.Builder<Type> keyTypes = ImmutableList.builder();
+        for (int channel : this.probeJoinChannels) {
+            keyTypes.add(probeTypes.get(channel));
+        }
+        this.keyTypes = keyTypes.build();
+
+        this.types = ImmutableList.<Type>builder()
+                .addAll(probeTypes)
+                .addAll(buildTypes)
+                .build();
+        this.pageBuilder = new PageBuilder(types);
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public void finish()
+    {
+        finishing = true;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (!waitingForBuild) {
+            return NOT_BLOCKED;
+        }
+        ListenableFuture<?> blocked = buildExchange.waitForReading(0);
+        if (blocked.isDone()) {
+            return NOT_BLOCKED;
+        }
+        return blocked;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && !finished && probe == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        checkState(needsInput(), "Operator does not need input");
+        requireNonNull(page, "page is null");
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+        probe = page;
+        probePosition = 0;
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (!finished) {
+            join();
+            updateMemoryReservation();
+        }
+
+        if (pageBuilder.isEmpty()) {
+            return null;
+        }
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        return page;
+    }
+
+    @Override
+    public void close()
+    {
+        run.clear();
+        probe = null;
+        build = null;
+        // let the build side stop producing
+        buildExchange.finish();
+    }
+
+    private void join()
+    {
+        waitingForBuild = false;
+        while (!pageBuilder.isFull()) {
+            if (!run.isEmpty() && !runComplete && !collectRun()) {
+                return;
+            }
+
+            if (probe == null) {
+                if (!finishing) {
+                    return;
+                }
+                if (!finishBuild()) {
+                    return;
+                }
+                setFinished();
+                return;
+            }
+
+            if (hasNullKey(probe, probePosition, probeJoinChannels)) {
+                advanceProbe(false);
+                continue;
+            }
+
+            if (!run.isEmpty()) {
+                int compare = compareKeys(probe, probePosition, probeJoinChannels, run.get(0), 0, buildJoinChannels);
+                if (compare == 0) {
+                    if (joinWithRun()) {
+                        runMatched = true;
+                        advanceProbe(true);
+                    }
+                }
+                else if (compare < 0) {
+                    advanceProbe(false);
+                }
+                else {
+                    clearRun();
+                }
+                continue;
+            }
+
+            if (!loadBuild()) {
+                return;
+            }
+            if (build == null) {
+                // the build side is exhausted, no more probe rows can match
+                if (!probeOuter) {
+                    setFinished();
+                    return;
+                }
+                advanceProbe(false);
+                continue;
+            }
+
+            if (hasNullKey(build, buildPosition, buildJoinChannels)) {
+                appendBuildOnly(build, buildPosition);
+                buildPosition++;
+                continue;
+            }
+
+            int compare = compareKeys(probe, probePosition, probeJoinChannels, build, buildPosition, buildJoinChannels);
+            if (compare < 0) {
+                advanceProbe(false);
+            }
+            else if (compare > 0) {
+                appendBuildOnly(build, buildPosition);
+                buildPosition++;
+            }
+            else {
+                startRun();
+            }
+        }
+    }
+
+    /**
+     * Makes the next build row available in {@code build} at {@code buildPosition}, or sets
+     * {@code build} to null if the build side is exhausted.
+     *
+     * @return false if the operator has to wait for the build side
+     */
+    private boolean loadBuild()
+    {
+        while (build == null || buildPosition >= build.getPositionCount()) {
+            build = buildExchange.removePage(0);
+            buildPosition = 0;
+            if (build == null) {
+                if (buildExchange.isFinished(0)) {
+                    return true;
+                }
+                waitingForBuild = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void startRun()
+    {
+        run.clear();
+        runComplete = false;
+        runMatched = false;
+        collectRun();
+    }
+
+    /**
+     * Adds the build rows with the key of the current run to the run, spanning build pages if needed.
+     *
+     * @return false if the operator has to wait for the build side
+     */
+    private boolean collectRun()
+    {
+        while (true) {
+            if (!loadBuild()) {
+                return false;
+            }
+            if (build == null) {
+                runComplete = true;
+                return true;
+            }
+
+            int start = buildPosition;
+            if (run.isEmpty()) {
+                buildPosition++;
+            }
+            Page key = run.isEmpty() ? build : run.get(0);
+            int keyPosition = run.isEmpty() ? start : 0;
+            while (buildPosition < build.getPositionCount() && compareKeys(build, buildPosition, buildJoinChannels, key, keyPosition, buildJoinChannels) == 0) {
+                buildPosition++;
+            }
+            if (buildPosition > start) {
+                run.add(build.getRegion(start, buildPosition - start));
+            }
+            if (buildPosition < build.getPositionCount()) {
+                runComplete = true;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Joins the current probe row with the rows of the run.
+     *
+     * @return false if the page builder filled up before all the run rows were joined
+     */
+    private boolean joinWithRun()
+    {
+        while (runPageIndex < run.size()) {
+            Page runPage = run.get(runPageIndex);
+            while (runPosition < runPage.getPositionCount()) {
+                if (pageBuilder.isFull()) {
+                    return false;
+                }
+                appendRow(probe, probePosition, runPage, runPosition);
+                runPosition++;
+            }
+            runPageIndex++;
+            runPosition = 0;
+        }
+        return true;
+    }
+
+    private void clearRun()
+    {
+        if (buildOuter && !runMatched) {
+            for (Page page : run) {
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    appendBuildOnly(page, position);
+                }
+            }
+        }
+        run.clear();
+        runComplete = false;
+        runMatched = false;
+    }
+
+    /**
+     * Emits the unmatched rows left on the build side once the probe side is done.
+     *
+     * @return false if the operator has to wait for the build side or the page builder is full
+     */
+    private boolean finishBuild()
+    {
+        if (!buildOuter) {
+            return true;
+        }
+        if (!run.isEmpty()) {
+            clearRun();
+        }
+        while (!pageBuilder.isFull()) {
+            if (!loadBuild()) {
+                return false;
+            }
+            if (build == null) {
+                return true;
+            }
+            appendBuildOnly(build, buildPosition);
+            buildPosition++;
+        }
+        return false;
+    }
+
+    private void advanceProbe(boolean matched)
+    {
+        if (!matched && probeOuter) {
+            appendProbeOnly(probe, probePosition);
+        }
+        runPageIndex = 0;
+        runPosition = 0;
+        probePosition++;
+        if (probePosition >= probe.getPositionCount()) {
+            probe = null;
+            probePosition = 0;
+        }
+    }
+
+    private void setFinished()
+    {
+        finished = true;
+        run.clear();
+        probe = null;
+        build = null;
+        buildExchange.finish();
+    }
+
+    private void appendRow(Page probePage, int probeRow, Page buildPage, int buildRow)
+    {
+        pageBuilder.declarePosition();
+        for (int channel = 0; channel < probeTypes.size(); channel++) {
+            probeTypes.get(channel).appendTo(probePage.getBlock(channel), probeRow, pageBuilder.getBlockBuilder(channel));
+        }
+        for (int channel = 0; channel < buildTypes.size(); channel++) {
+            buildTypes.get(channel).appendTo(buildPage.getBlock(channel), buildRow, pageBuilder.getBlockBuilder(probeTypes.size() + channel));
+        }
+    }
+
+    private void appendProbeOnly(Page probePage, int probeRow)
+    {
+        pageBuilder.declarePosition();
+        for (int channel = 0; channel < probeTypes.size(); channel++) {
+            probeTypes.get(channel).appendTo(probePage.getBlock(channel), probeRow, pageBuilder.getBlockBuilder(channel));
+        }
+        for (int channel = 0; channel < buildTypes.size(); channel++) {
+            pageBuilder.getBlockBuilder(probeTypes.size() + channel).appendNull();
+        }
+    }
+
+    private void appendBuildOnly(Page buildPage, int buildRow)
+    {
+        if (!buildOuter) {
+            return;
+        }
+        pageBuilder.declarePosition();
+        for (int channel = 0; channel < probeTypes.size(); channel++) {
+            pageBuilder.getBlockBuilder(channel).appendNull();
+        }
+        for (int channel = 0; channel < buildTypes.size(); channel++) {
+            buildTypes.get(channel).appendTo(buildPage.getBlock(channel), buildRow, pageBuilder.getBlockBuilder(probeTypes.size() + channel));
+        }
+    }
+
+    private void updateMemoryReservation()
+    {
+        long memorySize = pageBuilder.getSizeInBytes();
+        for (Page page : run) {
+            memorySize += page.getSizeInBytes();
+        }
+        operatorContext.setMemoryReservation(memorySize);
+    }
+
+    private static boolean hasNullKey(Page page, int position, int[] joinChannels)
+    {
+        for (int channel : joinChannels) {
+            if (page.getBlock(channel).isNull(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int compareKeys(Page left, int leftPosition, int[] leftChannels, Page right, int rightPosition, int[] rightChannels)
+    {
+        for (int i = 0; i < keyTypes.size(); i++) {
+            int compare = orderings.get(i).compareBlockValue(
+                    keyTypes.get(i),
+                    left.getBlock(leftChannels[i]),
+                    leftPosition,
+                    right.getBlock(rightChannels[i]),
+                    rightPosition);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+}
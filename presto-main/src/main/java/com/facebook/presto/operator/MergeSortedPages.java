@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BiPredicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * K-way merge of page streams that are each sorted according to the same comparator.
+ */
+public final class MergeSortedPages
+{
+    private MergeSortedPages() {}
+
+    public static Iterator<Page> mergeSortedPages(
+            List<Iterator<Page>> pageIterators,
+            PageWithPositionComparator comparator,
+            List<Type> outputTypes)
+    {
+        return mergeSortedPages(pageIterators, comparator, outputTypes, (pageBuilder, pageWithPosition) -> pageBuilder.isFull());
+    }
+
+    /**
+     * @param pageBreakPredicate called before each row is appended to the output page; the current
+     * output page is emitted when the predicate returns true and the output page is not empty
+     */
+    public static Iterator<Page> mergeSortedPages(
+            List<Iterator<Page>> pageIterators,
+            PageWithPositionComparator comparator,
+            List<Type> outputTypes,
+            BiPredicate<PageBuilder, PageWithPosition> pageBreakPredicate)
+    {
+        return new MergingIterator(pageIterators, comparator, outputTypes, pageBreakPredicate);
+    }
+
+    private static class MergingIterator
+            extends AbstractIterator<Page>
+    {
+        private final List<Type> outputTypes;
+        private final BiPredicate<PageBuilder, PageWithPosition> pageBreakPredicate;
+        private final PriorityQueue<PageCursor> queue;
+        private final PageBuilder pageBuilder;
+
+        public MergingIterator(
+                List<Iterator<Page>> pageIterators,
+                PageWithPositionComparator comparator,
+                List<Type> outputTypes,
+                BiPredicate<PageBuilder, PageWithPosition> pageBreakPredicate)
+        {
+            requireNonNull(pageIterators, "pageIterators is null");
+            requireNonNull(comparator, "comparator is null");
+            this.outputTypes = ImmutableList.copyOf(requireNonNull(outputTypes, "outputTypes is null"));
+            this.pageBreakPredicate = requireNonNull(pageBreakPredicate, "pageBreakPredicate is null");
+            this.pageBuilder = new PageBuilder(this.outputTypes);
+
+            this.queue = new PriorityQueue<>(
+                    Math.max(1, pageIterators.size()),
+                    (left, right) -> comparator.compareTo(left.getPage(), left.getPosition(), right.getPage(), right.getPosition()));
+            for (Iterator<Page> pageIterator : pageIterators) {
+                PageCursor cursor = new PageCursor(pageIterator);
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            pageBuilder.reset();
+            while (!queue.isEmpty()) {
+                PageCursor cursor = queue.peek();
+                if (!pageBuilder.isEmpty() && pageBreakPredicate.test(pageBuilder, cursor)) {
+                    return pageBuilder.build();
+                }
+
+                queue.remove();
+                pageBuilder.declarePosition();
+                for (int channel = 0; channel < outputTypes.size(); channel++) {
+                    outputTypes.get(channel).appendTo(cursor.getPage().getBlock(channel), cursor.getPosition(), pageBuilder.getBlockBuilder(channel));
+                }
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+
+            if (pageBuilder.isEmpty()) {
+                return endOfData();
+            }
+            return pageBuilder.build();
+        }
+    }
+
+    public interface PageWithPosition
+    {
+        Page getPage();
+
+        int getPosition();
+    }
+
+    private static class PageCursor
+            implements PageWithPosition
+    {
+        private final Iterator<Page> pages;
+        private Page page;
+        private int position;
+
+        public PageCursor(Iterator<Page> pages)
+        {
+            this.pages = requireNonNull(pages, "pages is null");
+        }
+
+        @Override
+        public Page getPage()
+        {
+            return page;
+        }
+
+        @Override
+        public int getPosition()
+        {
+            return position;
+        }
+
+        public boolean advance()
+        {
+            if (page != null && position + 1 < page.getPositionCount()) {
+                position++;
+                return true;
+            }
+            while (pages.hasNext()) {
+                page = pages.next();
+                if (page.getPositionCount() > 0) {
+                    position = 0;
+                    return true;
+                }
+            }
+            page = null;
+            return false;
+        }
+    }
+}
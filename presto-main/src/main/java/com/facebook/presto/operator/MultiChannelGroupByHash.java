@@ -255,6 +255,12 @@ public class MultiChannelGroupByHash
         return putIfAbsent(position, page, rawHash);
     }
 
+    @Override
+    public long getRawHash(int groupId)
+    {
+        return hashPosition(groupAddressByGroupId.get(groupId));
+    }
+
     private int putIfAbsent(int position, Page page, long rawHash)
     {
         int hashPosition = (int) getHashPosition(rawHash, mask);
@@ -17,6 +17,7 @@ import com.facebook.presto.ExceededMemoryLimitException;
 import com.facebook.presto.Session;
 import com.facebook.presto.memory.AbstractAggregatedMemoryContext;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spiller.SpillContext;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -87,6 +88,13 @@ public class OperatorContext
     private final OperatorSystemMemoryContext systemMemoryContext;
     private final long maxMemoryReservation;
 
+    private final AtomicLong spilledDataSize = new AtomicLong();
+    private final AtomicLong spillWallNanos = new AtomicLong();
+
+    private final AtomicLong partialAggregationBypassedPositions = new AtomicLong();
+    private final AtomicLong dictionaryCacheHits = new AtomicLong();
+    private final AtomicLong dictionaryCacheMisses = new AtomicLong();
+
     private final AtomicReference<Supplier<Object>> infoSupplier = new AtomicReference<>();
     private final boolean collectTimings;
 
@@ -348,6 +356,35 @@ public class OperatorContext
         }
     }
 
+    public SpillContext getSpillContext()
+    {
+        return new SpillContext()
+        {
+            @Override
+            public void updateBytes(long bytes)
+            {
+                spilledDataSize.addAndGet(bytes);
+            }
+
+            @Override
+            public void updateWallNanos(long nanos)
+            {
+                spillWallNanos.addAndGet(nanos);
+            }
+        };
+    }
+
+    public void recordPartialAggregationBypassed(long positions)
+    {
+        partialAggregationBypassedPositions.addAndGet(positions);
+    }
+
+    public void setDictionaryCacheStats(long hits, long misses)
+    {
+        dictionaryCacheHits.set(hits);
+        dictionaryCacheMisses.set(misses);
+    }
+
     public void setInfoSupplier(Supplier<Object> infoSupplier)
     {
         requireNonNull(infoSupplier, "infoProvider is null");
@@ -410,6 +447,11 @@ public class OperatorContext
 
                 new DataSize(memoryReservation.get(), BYTE).convertToMostSuccinctDataSize(),
                 new DataSize(systemMemoryContext.getReservedBytes(), BYTE).convertToMostSuccinctDataSize(),
+                new DataSize(spilledDataSize.get(), BYTE).convertToMostSuccinctDataSize(),
+                new Duration(spillWallNanos.get(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
+                partialAggregationBypassedPositions.get(),
+                dictionaryCacheHits.get(),
+                dictionaryCacheMisses.get(),
                 memoryFuture.get().isDone() ? Optional.empty() : Optional.of(WAITING_FOR_MEMORY),
                 info);
     }
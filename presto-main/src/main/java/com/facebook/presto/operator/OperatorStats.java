@@ -60,6 +60,11 @@ public class OperatorStats
 
     private final DataSize memoryReservation;
     private final DataSize systemMemoryReservation;
+    private final DataSize spilledDataSize;
+    private final Duration spillWall;
+    private final long partialAggregationBypassedPositions;
+    private final long dictionaryCacheHits;
+    private final long dictionaryCacheMisses;
     private final Optional<BlockedReason> blockedReason;
 
     private final Object info;
@@ -93,6 +98,11 @@ public class OperatorStats
 
             @JsonProperty("memoryReservation") DataSize memoryReservation,
             @JsonProperty("systemMemoryReservation") DataSize systemMemoryReservation,
+            @JsonProperty("spilledDataSize") DataSize spilledDataSize,
+            @JsonProperty("spillWall") Duration spillWall,
+            @JsonProperty("partialAggregationBypassedPositions") long partialAggregationBypassedPositions,
+            @JsonProperty("dictionaryCacheHits") long dictionaryCacheHits,
+            @JsonProperty("dictionaryCacheMisses") long dictionaryCacheMisses,
             @JsonProperty("blockedReason") Optional<BlockedReason> blockedReason,
 
             @JsonProperty("info") Object info)
@@ -127,6 +137,14 @@ public class OperatorStats
 
         this.memoryReservation = requireNonNull(memoryReservation, "memoryReservation is null");
         this.systemMemoryReservation = requireNonNull(systemMemoryReservation, "systemMemoryReservation is null");
+        this.spilledDataSize = requireNonNull(spilledDataSize, "spilledDataSize is null");
+        this.spillWall = requireNonNull(spillWall, "spillWall is null");
+        checkArgument(partialAggregationBypassedPositions >= 0, "partialAggregationBypassedPositions is negative");
+        this.partialAggregationBypassedPositions = partialAggregationBypassedPositions;
+        checkArgument(dictionaryCacheHits >= 0, "dictionaryCacheHits is negative");
+        this.dictionaryCacheHits = dictionaryCacheHits;
+        checkArgument(dictionaryCacheMisses >= 0, "dictionaryCacheMisses is negative");
+        this.dictionaryCacheMisses = dictionaryCacheMisses;
         this.blockedReason = blockedReason;
 
         this.info = info;
@@ -264,6 +282,46 @@ public class OperatorStats
         return systemMemoryReservation;
     }
 
+    @JsonProperty
+    public DataSize getSpilledDataSize()
+    {
+        return spilledDataSize;
+    }
+
+    @JsonProperty
+    public Duration getSpillWall()
+    {
+        return spillWall;
+    }
+
+    /**
+     * Input rows a partial aggregation passed through without aggregating them,
+     * because it was not reducing the number of rows.
+     */
+    @JsonProperty
+    public long getPartialAggregationBypassedPositions()
+    {
+        return partialAggregationBypassedPositions;
+    }
+
+    /**
+     * Dictionaries filtered or projected using the results cached for a previous page.
+     */
+    @JsonProperty
+    public long getDictionaryCacheHits()
+    {
+        return dictionaryCacheHits;
+    }
+
+    /**
+     * Dictionaries that had to be filtered or projected because they were not seen before.
+     */
+    @JsonProperty
+    public long getDictionaryCacheMisses()
+    {
+        return dictionaryCacheMisses;
+    }
+
     @JsonProperty
     public Optional<BlockedReason> getBlockedReason()
     {
@@ -307,6 +365,11 @@ public class OperatorStats
 
         long memoryReservation = this.memoryReservation.toBytes();
         long systemMemoryReservation = this.systemMemoryReservation.toBytes();
+        long spilledDataSize = this.spilledDataSize.toBytes();
+        long spillWall = this.spillWall.roundTo(NANOSECONDS);
+        long partialAggregationBypassedPositions = this.partialAggregationBypassedPositions;
+        long dictionaryCacheHits = this.dictionaryCacheHits;
+        long dictionaryCacheMisses = this.dictionaryCacheMisses;
         Optional<BlockedReason> blockedReason = this.blockedReason;
 
         Mergeable<?> base = null;
@@ -339,6 +402,11 @@ public class OperatorStats
 
             memoryReservation += operator.getMemoryReservation().toBytes();
             systemMemoryReservation += operator.getSystemMemoryReservation().toBytes();
+            spilledDataSize += operator.getSpilledDataSize().toBytes();
+            spillWall += operator.getSpillWall().roundTo(NANOSECONDS);
+            partialAggregationBypassedPositions += operator.getPartialAggregationBypassedPositions();
+            dictionaryCacheHits += operator.getDictionaryCacheHits();
+            dictionaryCacheMisses += operator.getDictionaryCacheMisses();
             if (operator.getBlockedReason().isPresent()) {
                 blockedReason = operator.getBlockedReason();
             }
@@ -377,6 +445,11 @@ public class OperatorStats
 
                 new DataSize(memoryReservation, BYTE).convertToMostSuccinctDataSize(),
                 new DataSize(systemMemoryReservation, BYTE).convertToMostSuccinctDataSize(),
+                new DataSize(spilledDataSize, BYTE).convertToMostSuccinctDataSize(),
+                new Duration(spillWall, NANOSECONDS).convertToMostSuccinctTimeUnit(),
+                partialAggregationBypassedPositions,
+                dictionaryCacheHits,
+                dictionaryCacheMisses,
                 blockedReason,
 
                 base);
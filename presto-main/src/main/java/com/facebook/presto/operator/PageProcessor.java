@@ -33,4 +33,20 @@ public interface PageProcessor
     Page processColumnar(ConnectorSession session, Page page, List<? extends Type> types);
 
     Page processColumnarDictionary(ConnectorSession session, Page page, List<? extends Type> types);
+
+    /**
+     * @return number of times a dictionary was filtered or projected using results cached from a previous page
+     */
+    default long getDictionaryCacheHits()
+    {
+        return 0;
+    }
+
+    /**
+     * @return number of times a dictionary was filtered or projected for the first time
+     */
+    default long getDictionaryCacheMisses()
+    {
+        return 0;
+    }
 }
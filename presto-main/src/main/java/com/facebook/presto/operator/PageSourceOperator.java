@@ -18,11 +18,14 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static io.airlift.concurrent.MoreFutures.toListenableFuture;
 import static java.util.Objects.requireNonNull;
 
 public class PageSourceOperator
@@ -70,6 +73,16 @@ public class PageSourceOperator
         return pageSource.isFinished();
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        CompletableFuture<?> pageSourceBlocked = pageSource.isBlocked();
+        if (!pageSourceBlocked.isDone()) {
+            return toListenableFuture(pageSourceBlocked);
+        }
+        return NOT_BLOCKED;
+    }
+
     @Override
     public boolean needsInput()
     {
@@ -21,6 +21,7 @@ import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.sql.gen.OrderingCompiler;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
@@ -29,8 +30,10 @@ import it.unimi.dsi.fastutil.Swapper;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.facebook.presto.operator.SyntheticAddress.decodePosition;
 import static com.facebook.presto.operator.SyntheticAddress.decodeSliceIndex;
@@ -245,6 +248,55 @@ public class PagesIndex
         return position;
     }
 
+    /**
+     * Returns the pages added to this index in insertion order, without copying any rows.
+     */
+    public Iterator<Page> getPages()
+    {
+        return new AbstractIterator<Page>()
+        {
+            private int pageIndex;
+
+            @Override
+            protected Page computeNext()
+            {
+                if (channels.length == 0 || pageIndex == channels[0].size()) {
+                    return endOfData();
+                }
+                Block[] blocks = new Block[channels.length];
+                for (int channel = 0; channel < channels.length; channel++) {
+                    blocks[channel] = channels[channel].get(pageIndex);
+                }
+                pageIndex++;
+                return new Page(blocks);
+            }
+        };
+    }
+
+    /**
+     * Returns all rows of this index as pages, in the current position order.
+     */
+    public Iterator<Page> getSortedPages()
+    {
+        return new AbstractIterator<Page>()
+        {
+            private final int[] outputChannels = IntStream.range(0, types.size()).toArray();
+            private final PageBuilder pageBuilder = new PageBuilder(types);
+            private int currentPosition;
+
+            @Override
+            protected Page computeNext()
+            {
+                pageBuilder.reset();
+                currentPosition = buildPage(currentPosition, outputChannels, pageBuilder);
+                if (pageBuilder.isEmpty()) {
+                    return endOfData();
+                }
+                return pageBuilder.build();
+            }
+        };
+    }
+
     public void appendTo(int channel, int position, BlockBuilder output)
     {
         long pageAddress = valueAddresses.getLong(position);
@@ -255,6 +307,17 @@ public class PagesIndex
         type.appendTo(block, blockPosition, output);
     }
 
+    public Block getRawBlock(int channel, int position)
+    {
+        long pageAddress = valueAddresses.getLong(position);
+        return channels[channel].get(decodeSliceIndex(pageAddress));
+    }
+
+    public int getRawBlockPosition(int position)
+    {
+        return decodePosition(valueAddresses.getLong(position));
+    }
+
     public boolean isNull(int channel, int position)
     {
         long pageAddress = valueAddresses.getLong(position);
@@ -332,6 +395,14 @@ public class PagesIndex
         return pagesHashStrategy.positionEqualsRow(pageIndex, pagePosition, rowPosition, row);
     }
 
+    public PageWithPositionComparator createPageWithPositionComparator(List<Integer> sortChannels, List<SortOrder> sortOrders)
+    {
+        List<Type> sortTypes = sortChannels.stream()
+                .map(types::get)
+                .collect(toImmutableList());
+        return orderingCompiler.compilePageWithPositionComparator(sortTypes, sortChannels, sortOrders);
+    }
+
     private PagesIndexOrdering createPagesIndexComparator(List<Integer> sortChannels, List<SortOrder> sortOrders)
     {
         List<Type> sortTypes = sortChannels.stream()
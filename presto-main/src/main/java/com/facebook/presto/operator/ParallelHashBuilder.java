@@ -18,21 +18,27 @@ import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.units.DataSize;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
+import static com.facebook.presto.operator.HashBuilderOperator.SPILL_PARTITION_COUNT;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
 import static java.util.Objects.requireNonNull;
 
@@ -46,6 +52,10 @@ public class ParallelHashBuilder
     private final List<SettableFuture<SharedLookupSource>> lookupSourceFutures;
     private final LookupSourceSupplier lookupSourceSupplier;
     private final List<Type> types;
+    private final long memoryLimitBeforeSpill;
+    private final SpillerFactory spillerFactory;
+    private final Optional<SpilledLookupSource> spilledLookupSource;
+    private final Optional<DynamicFilterSource> dynamicFilterSource;
 
     public ParallelHashBuilder(
             List<Type> types,
@@ -53,6 +63,33 @@ public class ParallelHashBuilder
             Optional<Integer> hashChannel,
             int expectedPositions,
             int partitionCount)
+    {
+        this(types, hashChannels, hashChannel, expectedPositions, partitionCount, false, new DataSize(0, BYTE), SpillerFactory.DISABLED);
+    }
+
+    public ParallelHashBuilder(
+            List<Type> types,
+            List<Integer> hashChannels,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            int partitionCount,
+            boolean spillEnabled,
+            DataSize memoryLimitBeforeSpill,
+            SpillerFactory spillerFactory)
+    {
+        this(types, hashChannels, hashChannel, expectedPositions, partitionCount, spillEnabled, memoryLimitBeforeSpill, spillerFactory, Optional.empty());
+    }
+
+    public ParallelHashBuilder(
+            List<Type> types,
+            List<Integer> hashChannels,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            int partitionCount,
+            boolean spillEnabled,
+            DataSize memoryLimitBeforeSpill,
+            SpillerFactory spillerFactory,
+            Optional<DynamicFilterSource> dynamicFilterSource)
     {
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.hashChannels = ImmutableList.copyOf(requireNonNull(hashChannels, "hashChannels is null"));
@@ -70,7 +107,18 @@ public class ParallelHashBuilder
         this.pagesIndexFutures = pagesIndexFutures.build();
         this.lookupSourceFutures = lookupSourceFutures.build();
 
-        lookupSourceSupplier = new ParallelLookupSourceSupplier(types, hashChannels, this.lookupSourceFutures);
+        this.memoryLimitBeforeSpill = requireNonNull(memoryLimitBeforeSpill, "memoryLimitBeforeSpill is null").toBytes();
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        if (spillEnabled) {
+            this.spilledLookupSource = Optional.of(new SpilledLookupSource(types, hashChannels, hashChannel, spillerFactory));
+        }
+        else {
+            this.spilledLookupSource = Optional.empty();
+        }
+        // each build partition adds the keys it holds to the dynamic filter
+        this.dynamicFilterSource = requireNonNull(dynamicFilterSource, "dynamicFilterSource is null");
+
+        lookupSourceSupplier = new ParallelLookupSourceSupplier(types, hashChannels, this.lookupSourceFutures, spilledLookupSource);
     }
 
     public OperatorFactory getCollectOperatorFactory(int operatorId, PlanNodeId planNodeId)
@@ -82,7 +130,11 @@ public class ParallelHashBuilder
                 types,
                 hashChannels,
                 hashChannel,
-                expectedPositions);
+                expectedPositions,
+                memoryLimitBeforeSpill,
+                spillerFactory,
+                spilledLookupSource,
+                dynamicFilterSource);
     }
 
     public OperatorFactory getBuildOperatorFactory(PlanNodeId planNodeId)
@@ -94,7 +146,8 @@ public class ParallelHashBuilder
                 pagesIndexFutures,
                 lookupSourceFutures,
                 hashChannels,
-                hashChannel);
+                hashChannel,
+                dynamicFilterSource);
     }
 
     public LookupSourceSupplier getLookupSourceSupplier()
@@ -113,6 +166,10 @@ public class ParallelHashBuilder
         private final Optional<Integer> hashChannel;
 
         private final int expectedPositions;
+        private final long memoryLimitBeforeSpill;
+        private final SpillerFactory spillerFactory;
+        private final Optional<SpilledLookupSource> spilledLookupSource;
+        private final Optional<DynamicFilterSource> dynamicFilterSource;
         private boolean closed;
 
         public ParallelHashCollectOperatorFactory(
@@ -122,7 +179,11 @@ public class ParallelHashBuilder
                 List<Type> types,
                 List<Integer> hashChannels,
                 Optional<Integer> hashChannel,
-                int expectedPositions)
+                int expectedPositions,
+                long memoryLimitBeforeSpill,
+                SpillerFactory spillerFactory,
+                Optional<SpilledLookupSource> spilledLookupSource,
+                Optional<DynamicFilterSource> dynamicFilterSource)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -131,6 +192,10 @@ public class ParallelHashBuilder
             this.hashChannels = hashChannels;
             this.hashChannel = hashChannel;
             this.expectedPositions = expectedPositions;
+            this.memoryLimitBeforeSpill = memoryLimitBeforeSpill;
+            this.spillerFactory = spillerFactory;
+            this.spilledLookupSource = spilledLookupSource;
+            this.dynamicFilterSource = dynamicFilterSource;
         }
 
         @Override
@@ -150,7 +215,11 @@ public class ParallelHashBuilder
                     types,
                     hashChannels,
                     hashChannel,
-                    expectedPositions);
+                    expectedPositions,
+                    memoryLimitBeforeSpill,
+                    spillerFactory,
+                    spilledLookupSource,
+                    dynamicFilterSource);
         }
 
         @Override
@@ -176,6 +245,16 @@ public class ParallelHashBuilder
         private final int parallelStreamMask;
         private final PagesIndex[] partitions;
         private final List<Type> types;
+        private final int expectedPositions;
+
+        private final long memoryLimitBeforeSpill;
+        private final SpillerFactory spillerFactory;
+        private final Optional<SpilledLookupSource> spilledLookupSource;
+        private final Optional<DynamicFilterSource> dynamicFilterSource;
+        private HashPartitionSpiller partitionSpiller;
+        private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+        // the partitions share the input pages, and do not account for them
+        private long pagesSize;
 
         private boolean finished;
 
@@ -185,12 +264,21 @@ public class ParallelHashBuilder
                 List<Type> types,
                 List<Integer> hashChannels,
                 Optional<Integer> hashChannel,
-                int expectedPositions)
+                int expectedPositions,
+                long memoryLimitBeforeSpill,
+                SpillerFactory spillerFactory,
+                Optional<SpilledLookupSource> spilledLookupSource,
+                Optional<DynamicFilterSource> dynamicFilterSource)
         {
             this.operatorContext = operatorContext;
             this.partitionFutures = partitionFutures;
 
             this.types = types;
+            this.expectedPositions = expectedPositions;
+            this.memoryLimitBeforeSpill = memoryLimitBeforeSpill;
+            this.spillerFactory = spillerFactory;
+            this.spilledLookupSource = spilledLookupSource;
+            this.dynamicFilterSource = dynamicFilterSource;
 
             if (hashChannel.isPresent()) {
                 this.hashGenerator = new PrecomputedHashGenerator(hashChannel.get());
@@ -229,6 +317,26 @@ public class ParallelHashBuilder
                 return;
             }
 
+            if (partitionSpiller != null) {
+                // all spilled rows must be on disk before the probe side can read them
+                spillInProgress = partitionSpiller.flush();
+                if (!spillInProgress.isDone()) {
+                    return;
+                }
+                // propagate any failure of the spill
+                getFutureValue(spillInProgress);
+
+                // the keys of the spilled partitions are not in memory, so nothing can be filtered out
+                dynamicFilterSource.ifPresent(DynamicFilterSource::setAllKeys);
+            }
+
+            // the spilled partitions must be known before the probe side gets the lookup source
+            if (spilledLookupSource.isPresent()) {
+                spilledLookupSource.get().finishBuild(Optional.ofNullable(partitionSpiller));
+                // the spilled partitions are now owned by the spilled lookup source
+                partitionSpiller = null;
+            }
+
             for (int partition = 0; partition < partitions.length; partition++) {
                 partitionFutures.get(partition).set(partitions[partition]);
             }
@@ -242,10 +350,19 @@ public class ParallelHashBuilder
             return finished;
         }
 
+        @Override
+        public ListenableFuture<?> isBlocked()
+        {
+            if (!spillInProgress.isDone()) {
+                return spillInProgress;
+            }
+            return NOT_BLOCKED;
+        }
+
         @Override
         public boolean needsInput()
         {
-            return !finished;
+            return !finished && spillInProgress.isDone();
         }
 
         @Override
@@ -253,7 +370,27 @@ public class ParallelHashBuilder
         {
             requireNonNull(page, "page is null");
             checkState(!isFinished(), "Operator is already finished");
+            checkState(spillInProgress.isDone(), "Spill is still in progress");
+            operatorContext.recordGeneratedOutput(page.getSizeInBytes(), page.getPositionCount());
 
+            if (partitionSpiller != null) {
+                // rows of the spilled partitions go straight to disk
+                page = partitionSpiller.spillRows(page);
+                spillInProgress = partitionSpiller.isBlocked();
+                if (page.getPositionCount() == 0) {
+                    return;
+                }
+            }
+
+            addPage(page);
+            if (spilledLookupSource.isPresent() && pagesSize + getEstimatedSize() > memoryLimitBeforeSpill) {
+                spillPartitions();
+            }
+            operatorContext.setMemoryReservation(getEstimatedSize());
+        }
+
+        private void addPage(Page page)
+        {
             // build a block containing the partition id of each position
             BlockBuilder blockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), page.getPositionCount());
             for (int position = 0; position < page.getPositionCount(); position++) {
@@ -263,15 +400,10 @@ public class ParallelHashBuilder
             }
             Block partitionIds = blockBuilder.build();
 
-            long size = 0;
             for (int partition = 0; partition < partitions.length; partition++) {
-                PagesIndex index = partitions[partition];
-                index.addPage(page, partition, partitionIds);
-                size += index.getEstimatedSize().toBytes();
+                partitions[partition].addPage(page, partition, partitionIds);
             }
-
-            operatorContext.setMemoryReservation(size);
-            operatorContext.recordGeneratedOutput(page.getSizeInBytes(), page.getPositionCount());
+            pagesSize += page.getRetainedSizeInBytes();
         }
 
         @Override
@@ -279,6 +411,53 @@ public class ParallelHashBuilder
         {
             return null;
         }
+
+        @Override
+        public void close()
+        {
+            // if the lookup source was never built, the spilled partitions are still ours
+            if (partitionSpiller != null) {
+                partitionSpiller.close();
+                partitionSpiller = null;
+            }
+        }
+
+        private long getEstimatedSize()
+        {
+            long size = 0;
+            for (PagesIndex partition : partitions) {
+                size += partition.getEstimatedSize().toBytes();
+            }
+            return size;
+        }
+
+        private void spillPartitions()
+        {
+            if (partitionSpiller == null) {
+                partitionSpiller = new HashPartitionSpiller(types, hashGenerator, SPILL_PARTITION_COUNT, spillerFactory, operatorContext.getSpillContext());
+            }
+
+            // every partition holds all input pages, so the pages of the first partition are all input rows
+            PagesIndex[] oldPartitions = partitions.clone();
+            partitionSpiller.spillLargestPartitions(oldPartitions[0].getPages());
+
+            // move the rows of the remaining partitions to new indexes
+            for (int partition = 0; partition < partitions.length; partition++) {
+                partitions[partition] = new PagesIndex(types, expectedPositions, partitions.length);
+            }
+            pagesSize = 0;
+            Iterator<Page> pages = oldPartitions[0].getPages();
+            while (pages.hasNext()) {
+                Page page = partitionSpiller.spillRows(pages.next());
+                if (page.getPositionCount() > 0) {
+                    addPage(page);
+                }
+            }
+            for (PagesIndex oldPartition : oldPartitions) {
+                oldPartition.clear();
+            }
+            spillInProgress = partitionSpiller.flush();
+        }
     }
 
     private static class ParallelHashBuilderOperatorFactory
@@ -291,6 +470,7 @@ public class ParallelHashBuilder
         private final List<SettableFuture<SharedLookupSource>> lookupSourceFutures;
         private final List<Integer> hashChannels;
         private final Optional<Integer> hashChannel;
+        private final Optional<DynamicFilterSource> dynamicFilterSource;
 
         private int partition;
         private boolean closed;
@@ -302,7 +482,8 @@ public class ParallelHashBuilder
                 List<? extends ListenableFuture<PagesIndex>> partitionFutures,
                 List<SettableFuture<SharedLookupSource>> lookupSourceFutures,
                 List<Integer> hashChannels,
-                Optional<Integer> hashChannel)
+                Optional<Integer> hashChannel,
+                Optional<DynamicFilterSource> dynamicFilterSource)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -312,6 +493,7 @@ public class ParallelHashBuilder
 
             this.hashChannels = hashChannels;
             this.hashChannel = hashChannel;
+            this.dynamicFilterSource = dynamicFilterSource;
         }
 
         @Override
@@ -333,7 +515,8 @@ public class ParallelHashBuilder
                     partitionFutures.get(partition),
                     lookupSourceFutures.get(partition),
                     hashChannels,
-                    hashChannel);
+                    hashChannel,
+                    dynamicFilterSource);
 
             partition++;
 
@@ -362,6 +545,7 @@ public class ParallelHashBuilder
         private final SettableFuture<SharedLookupSource> lookupSourceFuture;
         private final List<Integer> hashChannels;
         private final Optional<Integer> hashChannel;
+        private final Optional<DynamicFilterSource> dynamicFilterSource;
 
         private boolean finished;
 
@@ -371,7 +555,8 @@ public class ParallelHashBuilder
                 ListenableFuture<PagesIndex> pagesIndexFuture,
                 SettableFuture<SharedLookupSource> lookupSourceFuture,
                 List<Integer> hashChannels,
-                Optional<Integer> hashChannel)
+                Optional<Integer> hashChannel,
+                Optional<DynamicFilterSource> dynamicFilterSource)
         {
             this.operatorContext = operatorContext;
             this.types = types;
@@ -380,6 +565,7 @@ public class ParallelHashBuilder
 
             this.hashChannels = hashChannels;
             this.hashChannel = hashChannel;
+            this.dynamicFilterSource = dynamicFilterSource;
         }
 
         @Override
@@ -411,6 +597,9 @@ public class ParallelHashBuilder
             }
 
             PagesIndex pagesIndex = Futures.getUnchecked(pagesIndexFuture);
+            if (dynamicFilterSource.isPresent()) {
+                dynamicFilterSource.get().addBuildKeys(pagesIndex, hashChannels);
+            }
             // After this point the SharedLookupSource will take over our memory reservation, and ours will be zero
             SharedLookupSource sharedLookupSource = new SharedLookupSource(pagesIndex.createLookupSource(hashChannels, hashChannel), operatorContext);
 
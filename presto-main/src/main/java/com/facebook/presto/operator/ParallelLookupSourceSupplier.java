@@ -20,6 +20,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
@@ -33,12 +34,23 @@ public final class ParallelLookupSourceSupplier
     private final List<Type> hashChannelTypes;
     private final ListenableFuture<LookupSource> lookupSourceFuture;
     private final List<? extends ListenableFuture<SharedLookupSource>> partitions;
+    private final Optional<SpilledLookupSource> spilledLookupSource;
     private final AtomicInteger referenceCount = new AtomicInteger(1);
 
     public ParallelLookupSourceSupplier(List<Type> types, List<Integer> hashChannels, List<? extends ListenableFuture<SharedLookupSource>> partitions)
+    {
+        this(types, hashChannels, partitions, Optional.empty());
+    }
+
+    public ParallelLookupSourceSupplier(
+            List<Type> types,
+            List<Integer> hashChannels,
+            List<? extends ListenableFuture<SharedLookupSource>> partitions,
+            Optional<SpilledLookupSource> spilledLookupSource)
     {
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.partitions = requireNonNull(partitions, "partitions is null");
+        this.spilledLookupSource = requireNonNull(spilledLookupSource, "spilledLookupSource is null");
 
         hashChannelTypes = hashChannels.stream()
                 .map(types::get)
@@ -62,6 +74,12 @@ public final class ParallelLookupSourceSupplier
         return lookupSourceFuture;
     }
 
+    @Override
+    public Optional<SpilledLookupSource> getSpilledLookupSource()
+    {
+        return spilledLookupSource;
+    }
+
     @Override
     public void retain()
     {
@@ -72,6 +90,12 @@ public final class ParallelLookupSourceSupplier
     public void release()
     {
         if (referenceCount.decrementAndGet() == 0) {
+            // all probe operators are done, so the spilled probe rows can be joined
+            spilledLookupSource.ifPresent(spilled -> {
+                spilled.finishProbe();
+                spilled.release();
+            });
+
             // We own the shared lookup sources, so we need to free their memory
             for (ListenableFuture<SharedLookupSource> future : partitions) {
                 Futures.addCallback(future, new FutureCallback<SharedLookupSource>() {
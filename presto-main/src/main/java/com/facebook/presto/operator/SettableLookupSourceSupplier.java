@@ -22,6 +22,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -34,10 +35,17 @@ public final class SettableLookupSourceSupplier
     private final List<Type> types;
     private final SettableFuture<SharedLookupSource> lookupSourceFuture = SettableFuture.create();
     private final AtomicInteger referenceCount = new AtomicInteger(1);
+    private final Optional<SpilledLookupSource> spilledLookupSource;
 
     public SettableLookupSourceSupplier(List<Type> types)
+    {
+        this(types, Optional.empty());
+    }
+
+    public SettableLookupSourceSupplier(List<Type> types, Optional<SpilledLookupSource> spilledLookupSource)
     {
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.spilledLookupSource = requireNonNull(spilledLookupSource, "spilledLookupSource is null");
     }
 
     @Override
@@ -52,6 +60,12 @@ public final class SettableLookupSourceSupplier
         return transform(lookupSourceFuture, (AsyncFunction<SharedLookupSource, LookupSource>) Futures::immediateFuture);
     }
 
+    @Override
+    public Optional<SpilledLookupSource> getSpilledLookupSource()
+    {
+        return spilledLookupSource;
+    }
+
     public void setLookupSource(SharedLookupSource lookupSource)
     {
         requireNonNull(lookupSource, "lookupSource is null");
@@ -69,7 +83,13 @@ public final class SettableLookupSourceSupplier
     public void release()
     {
         if (referenceCount.decrementAndGet() == 0) {
-            // We own the shared lookup source, so we need to free their memory
+            // all probe operators are done, so the spilled rows can be joined
+            spilledLookupSource.ifPresent(spilled -> {
+                spilled.finishProbe();
+                spilled.release();
+            });
+
+            // We own the shared lookup source, so we need to free its memory
             Futures.addCallback(lookupSourceFuture, new FutureCallback<SharedLookupSource>() {
                 @Override
                 public void onSuccess(SharedLookupSource result)
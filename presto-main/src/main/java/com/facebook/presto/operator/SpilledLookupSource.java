@@ -0,0 +1,385 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.SpillContext;
+import com.facebook.presto.spiller.SpillerFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Collections.emptyIterator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The build side partitions of a hash join that did not fit in memory. The
+ * probe side must partition its rows with the same hash function and spill the
+ * rows of the spilled partitions. Once all probe operators are done, the spilled
+ * lookup join operators join the spilled probe rows of every probe operator
+ * against the spilled build partitions.
+ * <p>
+ * Each spilled build partition is loaded only once and shared by all spilled
+ * lookup join operators. The next partition is loaded after every operator has
+ * released the current one, so at most one partition is in memory at a time.
+ * <p>
+ * The lookup source supplier holds the first reference and releases it once all
+ * probe operators are done. The spilled data is deleted when the last reference
+ * is released.
+ */
+@ThreadSafe
+public class SpilledLookupSource
+{
+    private final List<Type> types;
+    private final List<Integer> hashChannels;
+    private final Optional<Integer> hashChannel;
+    private final SpillerFactory spillerFactory;
+
+    @GuardedBy("this")
+    private int referenceCount = 1;
+    @GuardedBy("this")
+    private boolean closed;
+
+    @GuardedBy("this")
+    private boolean buildFinished;
+    @GuardedBy("this")
+    private HashPartitionSpiller buildSpiller;
+    @GuardedBy("this")
+    private SortedSet<Integer> spilledPartitions = ImmutableSortedSet.of();
+
+    @GuardedBy("this")
+    private boolean probeFinished;
+    @GuardedBy("this")
+    private final List<HashPartitionSpiller> probeSpillers = new ArrayList<>();
+
+    @GuardedBy("this")
+    private Iterator<Integer> unloadedPartitions;
+    @GuardedBy("this")
+    private boolean loading;
+    @GuardedBy("this")
+    private int currentPartition;
+    @GuardedBy("this")
+    private SharedLookupSource currentLookupSource;
+    @GuardedBy("this")
+    private Iterator<HashPartitionSpiller> unjoinedProbeSpillers;
+    @GuardedBy("this")
+    private int currentPartitionReferences;
+    @GuardedBy("this")
+    private boolean finished;
+
+    @GuardedBy("this")
+    private SettableFuture<?> stateChanged = SettableFuture.create();
+
+    public SpilledLookupSource(List<Type> types, List<Integer> hashChannels, Optional<Integer> hashChannel, SpillerFactory spillerFactory)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.hashChannels = ImmutableList.copyOf(requireNonNull(hashChannels, "hashChannels is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+    }
+
+    /**
+     * Hands over the spilled build partitions, if any. All spills must have completed.
+     * This must be called before the lookup source is published to the probe side.
+     */
+    public void finishBuild(Optional<HashPartitionSpiller> buildSpiller)
+    {
+        requireNonNull(buildSpiller, "buildSpiller is null");
+        SettableFuture<?> stateChanged;
+        synchronized (this) {
+            checkState(!buildFinished, "Build is already finished");
+            buildFinished = true;
+            if (closed) {
+                buildSpiller.ifPresent(HashPartitionSpiller::close);
+                return;
+            }
+            this.buildSpiller = buildSpiller.orElse(null);
+            this.spilledPartitions = buildSpiller.map(HashPartitionSpiller::getSpilledPartitions).orElse(ImmutableSortedSet.of());
+            stateChanged = resetStateChanged();
+        }
+        stateChanged.set(null);
+    }
+
+    /**
+     * Returns the spilled build partitions. This may only be called after the build has finished.
+     */
+    public synchronized SortedSet<Integer> getSpilledPartitions()
+    {
+        checkState(buildFinished, "Build has not finished yet");
+        return spilledPartitions;
+    }
+
+    /**
+     * Creates a spiller that partitions probe rows the same way the build rows were partitioned,
+     * and diverts the rows of the spilled partitions to disk.
+     */
+    public HashPartitionSpiller createProbeSpiller(List<Type> probeTypes, HashGenerator probeHashGenerator, SpillContext spillContext)
+    {
+        int partitionCount;
+        SortedSet<Integer> partitions;
+        synchronized (this) {
+            checkState(buildFinished, "Build has not finished yet");
+            checkState(buildSpiller != null, "No build partitions were spilled");
+            partitionCount = buildSpiller.getPartitionCount();
+            partitions = spilledPartitions;
+        }
+
+        HashPartitionSpiller probeSpiller = new HashPartitionSpiller(probeTypes, probeHashGenerator, partitionCount, spillerFactory, spillContext);
+        for (int partition : partitions) {
+            probeSpiller.spillPartition(partition);
+        }
+        return probeSpiller;
+    }
+
+    /**
+     * Hands over the spilled rows of a probe operator, to be joined once all probe operators are done.
+     * All spills of the probe spiller must have completed.
+     */
+    public void addProbeSpiller(HashPartitionSpiller probeSpiller)
+    {
+        requireNonNull(probeSpiller, "probeSpiller is null");
+        synchronized (this) {
+            checkState(!probeFinished, "Probe is already finished");
+            if (!closed) {
+                probeSpillers.add(probeSpiller);
+                return;
+            }
+        }
+        probeSpiller.close();
+    }
+
+    /**
+     * Called once all probe operators are done, after which the spilled rows can be joined.
+     */
+    public void finishProbe()
+    {
+        SettableFuture<?> stateChanged;
+        synchronized (this) {
+            if (probeFinished) {
+                return;
+            }
+            probeFinished = true;
+            stateChanged = resetStateChanged();
+        }
+        stateChanged.set(null);
+    }
+
+    /**
+     * Returns a future that completes when {@link #pollSpilledProbe} may return something new.
+     * The future must be fetched before polling, so that no state change is missed.
+     */
+    public synchronized ListenableFuture<?> isBlocked()
+    {
+        return stateChanged;
+    }
+
+    /**
+     * Returns true once all spilled probe rows have been handed out and all partitions have been released.
+     */
+    public synchronized boolean isFinished()
+    {
+        return finished;
+    }
+
+    /**
+     * Returns the spilled probe rows of one probe operator together with the build partition they
+     * must be joined against, or empty if there is nothing to join right now. The partition is
+     * loaded by the first caller that needs it, and its memory is reserved in the task. The
+     * returned probe must be closed once its rows have been joined.
+     */
+    public Optional<SpilledProbe> pollSpilledProbe(OperatorContext operatorContext)
+    {
+        requireNonNull(operatorContext, "operatorContext is null");
+
+        int partitionToLoad;
+        SettableFuture<?> stateChanged;
+        synchronized (this) {
+            checkState(!closed, "Spilled lookup source is closed");
+            if (!buildFinished || !probeFinished || loading || finished) {
+                return Optional.empty();
+            }
+
+            if (currentLookupSource != null) {
+                if (unjoinedProbeSpillers.hasNext()) {
+                    currentPartitionReferences++;
+                    Iterator<Page> probePages = unjoinedProbeSpillers.next().readPartition(currentPartition);
+                    return Optional.of(new SpilledProbe(currentLookupSource, probePages));
+                }
+                if (currentPartitionReferences > 0) {
+                    // the other operators are still joining against this partition
+                    return Optional.empty();
+                }
+                currentLookupSource.freeMemory();
+                currentLookupSource = null;
+            }
+
+            if (unloadedPartitions == null) {
+                // without any spilled probe rows there is nothing to join
+                unloadedPartitions = probeSpillers.isEmpty() ? emptyIterator() : spilledPartitions.iterator();
+            }
+            if (unloadedPartitions.hasNext()) {
+                currentPartition = unloadedPartitions.next();
+                loading = true;
+                partitionToLoad = currentPartition;
+                stateChanged = null;
+            }
+            else {
+                finished = true;
+                partitionToLoad = -1;
+                stateChanged = resetStateChanged();
+            }
+        }
+        if (stateChanged != null) {
+            stateChanged.set(null);
+            return Optional.empty();
+        }
+
+        // load outside of the lock, so the other operators are not blocked on the disk reads
+        SharedLookupSource lookupSource = null;
+        try {
+            lookupSource = loadPartition(partitionToLoad, operatorContext);
+        }
+        finally {
+            boolean discard;
+            synchronized (this) {
+                loading = false;
+                discard = closed || lookupSource == null;
+                if (!discard) {
+                    currentLookupSource = lookupSource;
+                    unjoinedProbeSpillers = ImmutableList.copyOf(probeSpillers).iterator();
+                }
+                stateChanged = resetStateChanged();
+            }
+            if (discard && lookupSource != null) {
+                lookupSource.freeMemory();
+            }
+            stateChanged.set(null);
+        }
+        return pollSpilledProbe(operatorContext);
+    }
+
+    public synchronized void retain()
+    {
+        checkState(referenceCount > 0, "Spilled lookup source is already released");
+        referenceCount++;
+    }
+
+    public void release()
+    {
+        List<HashPartitionSpiller> spillers = new ArrayList<>();
+        synchronized (this) {
+            checkState(referenceCount > 0, "Spilled lookup source is already released");
+            referenceCount--;
+            if (referenceCount > 0) {
+                return;
+            }
+            closed = true;
+            if (currentLookupSource != null) {
+                currentLookupSource.freeMemory();
+                currentLookupSource = null;
+            }
+            if (buildSpiller != null) {
+                spillers.add(buildSpiller);
+                buildSpiller = null;
+            }
+            spillers.addAll(probeSpillers);
+            probeSpillers.clear();
+        }
+        spillers.forEach(HashPartitionSpiller::close);
+    }
+
+    private SharedLookupSource loadPartition(int partition, OperatorContext operatorContext)
+    {
+        Iterator<Page> pages;
+        synchronized (this) {
+            pages = buildSpiller.readPartition(partition);
+        }
+
+        PagesIndex pagesIndex = new PagesIndex(types, 10_000);
+        while (pages.hasNext()) {
+            pagesIndex.addPage(pages.next());
+            operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+        }
+
+        LookupSource lookupSource = pagesIndex.createLookupSource(hashChannels, hashChannel);
+        operatorContext.setMemoryReservation(lookupSource.getInMemorySizeInBytes());
+        // After this point the SharedLookupSource will take over our memory reservation, and ours will be zero
+        return new SharedLookupSource(lookupSource, operatorContext);
+    }
+
+    @GuardedBy("this")
+    private SettableFuture<?> resetStateChanged()
+    {
+        SettableFuture<?> future = stateChanged;
+        stateChanged = SettableFuture.create();
+        return future;
+    }
+
+    /**
+     * Spilled rows of one probe operator and the loaded build partition they belong to.
+     */
+    public class SpilledProbe
+            implements Closeable
+    {
+        private final LookupSource lookupSource;
+        private final Iterator<Page> probePages;
+        private boolean closed;
+
+        private SpilledProbe(LookupSource lookupSource, Iterator<Page> probePages)
+        {
+            this.lookupSource = requireNonNull(lookupSource, "lookupSource is null");
+            this.probePages = requireNonNull(probePages, "probePages is null");
+        }
+
+        public LookupSource getLookupSource()
+        {
+            return lookupSource;
+        }
+
+        public Iterator<Page> getProbePages()
+        {
+            return probePages;
+        }
+
+        @Override
+        public void close()
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            SettableFuture<?> stateChanged;
+            synchronized (SpilledLookupSource.this) {
+                checkState(currentPartitionReferences > 0, "Partition is not in use");
+                currentPartitionReferences--;
+                stateChanged = resetStateChanged();
+            }
+            stateChanged.set(null);
+        }
+    }
+}
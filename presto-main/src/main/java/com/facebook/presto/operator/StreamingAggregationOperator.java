@@ -0,0 +1,317 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.operator.AggregationOperator.Aggregator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aggregates input that is grouped on the group by channels, i.e. where all the rows of
+ * a group are adjacent. Each group is emitted as soon as a row of the next group arrives,
+ * so only the accumulators of the current group are kept in memory.
+ */
+public class StreamingAggregationOperator
+        implements Operator
+{
+    public static class StreamingAggregationOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final List<Type> groupByTypes;
+        private final List<Integer> groupByChannels;
+        private final Optional<Integer> hashChannel;
+        private final Step step;
+        private final List<AccumulatorFactory> accumulatorFactories;
+        private final List<Type> types;
+        private boolean closed;
+
+        public StreamingAggregationOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<Type> groupByTypes,
+                List<Integer> groupByChannels,
+                Optional<Integer> hashChannel,
+                Step step,
+                List<AccumulatorFactory> accumulatorFactories)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.groupByTypes = ImmutableList.copyOf(requireNonNull(groupByTypes, "groupByTypes is null"));
+            this.groupByChannels = ImmutableList.copyOf(requireNonNull(groupByChannels, "groupByChannels is null"));
+            checkArgument(!groupByChannels.isEmpty(), "groupByChannels is empty");
+            checkArgument(groupByTypes.size() == groupByChannels.size(), "groupByTypes and groupByChannels have different sizes");
+            this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+            this.step = requireNonNull(step, "step is null");
+            this.accumulatorFactories = ImmutableList.copyOf(requireNonNull(accumulatorFactories, "accumulatorFactories is null"));
+            this.types = toTypes(groupByTypes, hashChannel, step, accumulatorFactories);
+        }
+
+        @Override
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, StreamingAggregationOperator.class.getSimpleName());
+            return new StreamingAggregationOperator(operatorContext, groupByTypes, groupByChannels, hashChannel, step, accumulatorFactories);
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new StreamingAggregationOperatorFactory(operatorId, planNodeId, groupByTypes, groupByChannels, hashChannel, step, accumulatorFactories);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final List<Type> types;
+    private final List<Type> groupByTypes;
+    private final int[] groupByChannels;
+    // the group by channels followed by the hash channel, which are copied to the output
+    private final List<Type> keyTypes;
+    private final int[] keyChannels;
+    private final Step step;
+    private final List<AccumulatorFactory> accumulatorFactories;
+    private final PageBuilder pageBuilder;
+
+    // single position blocks with the keys of the current group
+    private Block[] currentGroup;
+    private List<Aggregator> aggregates;
+    private boolean finishing;
+
+    public StreamingAggregationOperator(
+            OperatorContext operatorContext,
+            List<Type> groupByTypes,
+            List<Integer> groupByChannels,
+            Optional<Integer> hashChannel,
+            Step step,
+            List<AccumulatorFactory> accumulatorFactories)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.groupByTypes = ImmutableList.copyOf(requireNonNull(groupByTypes, "groupByTypes is null"));
+        this.groupByChannels = Ints.toArray(requireNonNull(groupByChannels, "groupByChannels is null"));
+        requireNonNull(hashChannel, "hashChannel is null");
+        this.step = requireNonNull(step, "step is null");
+        this.accumulatorFactories = ImmutableList.copyOf(requireNonNull(accumulatorFactories, "accumulatorFactories is null"));
+
+        ImmutableList.Builder<Type> keyTypes = ImmutableList.<Type>builder().addAll(groupByTypes);
+        ImmutableList.Builder<Integer> keyChannels = ImmutableList.<Integer>builder().addAll(groupByChannels);
+        if (hashChannel.isPresent()) {
+            keyTypes.add(BIGINT);
+            keyChannels.add(hashChannel.get());
+        }
+        this.keyTypes = keyTypes.build();
+        this.keyChannels = Ints.toArray(keyChannels.build());
+
+        this.types = toTypes(groupByTypes, hashChannel, step, accumulatorFactories);
+        this.pageBuilder = new PageBuilder(types);
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finishing) {
+            return;
+        }
+        finishing = true;
+        if (currentGroup != null) {
+            evaluateAndFlushGroup();
+        }
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finishing && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && !pageBuilder.isFull();
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        checkState(needsInput(), "Operator is already finishing");
+        requireNonNull(page, "page is null");
+
+        int positionCount = page.getPositionCount();
+        if (positionCount == 0) {
+            return;
+        }
+
+        if (currentGroup != null && !isCurrentGroup(page, 0)) {
+            evaluateAndFlushGroup();
+        }
+
+        int groupStart = 0;
+        while (groupStart < positionCount) {
+            if (currentGroup == null) {
+                startGroup(page, groupStart);
+            }
+
+            int groupEnd = findGroupEnd(page, groupStart);
+            Page region = page.getRegion(groupStart, groupEnd - groupStart);
+            for (Aggregator aggregate : aggregates) {
+                aggregate.processPage(region);
+            }
+
+            // the last group may continue in the next page
+            if (groupEnd < positionCount) {
+                evaluateAndFlushGroup();
+            }
+            groupStart = groupEnd;
+        }
+
+        long memorySize = pageBuilder.getSizeInBytes();
+        for (Aggregator aggregate : aggregates) {
+            memorySize += aggregate.getEstimatedSize();
+        }
+        operatorContext.setMemoryReservation(memorySize);
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (pageBuilder.isEmpty()) {
+            return null;
+        }
+
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        return page;
+    }
+
+    private void startGroup(Page page, int position)
+    {
+        currentGroup = new Block[keyChannels.length];
+        for (int i = 0; i < keyChannels.length; i++) {
+            currentGroup[i] = page.getBlock(keyChannels[i]).getSingleValueBlock(position);
+        }
+
+        aggregates = accumulatorFactories.stream()
+                .map(accumulatorFactory -> new Aggregator(accumulatorFactory, step))
+                .collect(toImmutableList());
+    }
+
+    private void evaluateAndFlushGroup()
+    {
+        pageBuilder.declarePosition();
+        for (int i = 0; i < keyTypes.size(); i++) {
+            keyTypes.get(i).appendTo(currentGroup[i], 0, pageBuilder.getBlockBuilder(i));
+        }
+        for (int i = 0; i < aggregates.size(); i++) {
+            aggregates.get(i).evaluate(pageBuilder.getBlockBuilder(keyTypes.size() + i));
+        }
+
+        currentGroup = null;
+        aggregates = null;
+    }
+
+    private boolean isCurrentGroup(Page page, int position)
+    {
+        for (int i = 0; i < groupByChannels.length; i++) {
+            if (!valueEquals(groupByTypes.get(i), currentGroup[i], 0, page.getBlock(groupByChannels[i]), position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int findGroupEnd(Page page, int groupStart)
+    {
+        int position = groupStart + 1;
+        while (position < page.getPositionCount() && isSameGroup(page, groupStart, position)) {
+            position++;
+        }
+        return position;
+    }
+
+    private boolean isSameGroup(Page page, int leftPosition, int rightPosition)
+    {
+        for (int i = 0; i < groupByChannels.length; i++) {
+            Block block = page.getBlock(groupByChannels[i]);
+            if (!valueEquals(groupByTypes.get(i), block, leftPosition, block, rightPosition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean valueEquals(Type type, Block leftBlock, int leftPosition, Block rightBlock, int rightPosition)
+    {
+        boolean leftIsNull = leftBlock.isNull(leftPosition);
+        boolean rightIsNull = rightBlock.isNull(rightPosition);
+        if (leftIsNull || rightIsNull) {
+            // nulls form a group of their own
+            return leftIsNull && rightIsNull;
+        }
+        return type.equalTo(leftBlock, leftPosition, rightBlock, rightPosition);
+    }
+
+    private static List<Type> toTypes(List<Type> groupByTypes, Optional<Integer> hashChannel, Step step, List<AccumulatorFactory> accumulatorFactories)
+    {
+        ImmutableList.Builder<Type> types = ImmutableList.builder();
+        types.addAll(groupByTypes);
+        if (hashChannel.isPresent()) {
+            types.add(BIGINT);
+        }
+        for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+            types.add(new Aggregator(accumulatorFactory, step).getType());
+        }
+        return types.build();
+    }
+}
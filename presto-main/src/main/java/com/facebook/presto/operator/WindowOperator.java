@@ -21,22 +21,31 @@ import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import static com.facebook.presto.operator.MergeSortedPages.mergeSortedPages;
 import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
 import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.concat;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 
@@ -59,6 +68,9 @@ public class WindowOperator
         private final FrameInfo frameInfo;
         private final int expectedPositions;
         private final List<Type> types;
+        private final boolean spillEnabled;
+        private final DataSize memoryLimitBeforeSpill;
+        private final SpillerFactory spillerFactory;
         private boolean closed;
 
         public WindowOperatorFactory(
@@ -74,6 +86,40 @@ public class WindowOperator
                 int preSortedChannelPrefix,
                 FrameInfo frameInfo,
                 int expectedPositions)
+        {
+            this(operatorId,
+                    planNodeId,
+                    sourceTypes,
+                    outputChannels,
+                    windowFunctionDefinitions,
+                    partitionChannels,
+                    preGroupedChannels,
+                    sortChannels,
+                    sortOrder,
+                    preSortedChannelPrefix,
+                    frameInfo,
+                    expectedPositions,
+                    false,
+                    new DataSize(0, BYTE),
+                    SpillerFactory.DISABLED);
+        }
+
+        public WindowOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<WindowFunctionDefinition> windowFunctionDefinitions,
+                List<Integer> partitionChannels,
+                List<Integer> preGroupedChannels,
+                List<Integer> sortChannels,
+                List<SortOrder> sortOrder,
+                int preSortedChannelPrefix,
+                FrameInfo frameInfo,
+                int expectedPositions,
+                boolean spillEnabled,
+                DataSize memoryLimitBeforeSpill,
+                SpillerFactory spillerFactory)
         {
             requireNonNull(sourceTypes, "sourceTypes is null");
             requireNonNull(planNodeId, "planNodeId is null");
@@ -88,6 +134,8 @@ public class WindowOperator
             checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
             checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
             requireNonNull(frameInfo, "frameInfo is null");
+            requireNonNull(memoryLimitBeforeSpill, "memoryLimitBeforeSpill is null");
+            requireNonNull(spillerFactory, "spillerFactory is null");
 
             this.operatorId = operatorId;
             this.planNodeId = planNodeId;
@@ -101,6 +149,9 @@ public class WindowOperator
             this.preSortedChannelPrefix = preSortedChannelPrefix;
             this.frameInfo = frameInfo;
             this.expectedPositions = expectedPositions;
+            this.spillEnabled = spillEnabled;
+            this.memoryLimitBeforeSpill = memoryLimitBeforeSpill;
+            this.spillerFactory = spillerFactory;
             this.types = Stream.concat(
                     outputChannels.stream()
                             .map(sourceTypes::get),
@@ -132,7 +183,10 @@ public class WindowOperator
                     sortOrder,
                     preSortedChannelPrefix,
                     frameInfo,
-                    expectedPositions);
+                    expectedPositions,
+                    spillEnabled,
+                    memoryLimitBeforeSpill,
+                    spillerFactory);
         }
 
         @Override
@@ -156,7 +210,10 @@ public class WindowOperator
                 sortOrder,
                 preSortedChannelPrefix,
                 frameInfo,
-                expectedPositions);
+                expectedPositions,
+                spillEnabled,
+                memoryLimitBeforeSpill,
+                spillerFactory);
         }
     }
 
@@ -169,6 +226,7 @@ public class WindowOperator
     }
 
     private final OperatorContext operatorContext;
+    private final List<Type> sourceTypes;
     private final int[] outputChannels;
     private final List<WindowFunction> windowFunctions;
     private final List<Integer> orderChannels;
@@ -176,8 +234,10 @@ public class WindowOperator
     private final List<Type> types;
 
     private final int[] preGroupedChannels;
+    private final int[] partitionChannels;
 
     private final PagesHashStrategy preGroupedPartitionHashStrategy;
+    private final PagesHashStrategy partitionHashStrategy;
     private final PagesHashStrategy unGroupedPartitionHashStrategy;
     private final PagesHashStrategy preSortedPartitionHashStrategy;
     private final PagesHashStrategy peerGroupHashStrategy;
@@ -194,6 +254,18 @@ public class WindowOperator
 
     private Page pendingInput;
 
+    private final boolean spillEnabled;
+    private final long memoryLimitBeforeSpill;
+    private final SpillerFactory spillerFactory;
+    private final PageWithPositionComparator spillComparator;
+
+    // spill state of the current pre-grouped group
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private Block[] spilledGroupKey;
+    private Iterator<Page> mergedPages;
+    private Page pendingMergedPage;
+
     public WindowOperator(
             OperatorContext operatorContext,
             List<Type> sourceTypes,
@@ -205,7 +277,10 @@ public class WindowOperator
             List<SortOrder> sortOrder,
             int preSortedChannelPrefix,
             FrameInfo frameInfo,
-            int expectedPositions)
+            int expectedPositions,
+            boolean spillEnabled,
+            DataSize memoryLimitBeforeSpill,
+            SpillerFactory spillerFactory)
     {
         requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(outputChannels, "outputChannels is null");
@@ -219,8 +294,11 @@ public class WindowOperator
         checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
         checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
         requireNonNull(frameInfo, "frameInfo is null");
+        requireNonNull(memoryLimitBeforeSpill, "memoryLimitBeforeSpill is null");
+        requireNonNull(spillerFactory, "spillerFactory is null");
 
         this.operatorContext = operatorContext;
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
         this.outputChannels = Ints.toArray(outputChannels);
         this.windowFunctions = windowFunctionDefinitions.stream()
                 .map(WindowFunctionDefinition::createWindowFunction)
@@ -237,6 +315,8 @@ public class WindowOperator
         this.pagesIndex = new PagesIndex(sourceTypes, expectedPositions);
         this.preGroupedChannels = Ints.toArray(preGroupedChannels);
         this.preGroupedPartitionHashStrategy = pagesIndex.createPagesHashStrategy(preGroupedChannels, Optional.<Integer>empty());
+        this.partitionChannels = Ints.toArray(partitionChannels);
+        this.partitionHashStrategy = pagesIndex.createPagesHashStrategy(partitionChannels, Optional.empty());
         List<Integer> unGroupedPartitionChannels = partitionChannels.stream()
                 .filter(channel -> !preGroupedChannels.contains(channel))
                 .collect(toImmutableList());
@@ -259,6 +339,12 @@ public class WindowOperator
             this.orderChannels = ImmutableList.copyOf(concat(unGroupedPartitionChannels, sortChannels));
             this.ordering = ImmutableList.copyOf(concat(nCopies(unGroupedPartitionChannels.size(), ASC_NULLS_LAST), sortOrder));
         }
+
+        // pre-sorted input is only sorted in segments, which cannot be merged back as a single run
+        this.spillEnabled = spillEnabled && preSortedChannelPrefix == 0;
+        this.memoryLimitBeforeSpill = memoryLimitBeforeSpill.toBytes();
+        this.spillerFactory = spillerFactory;
+        this.spillComparator = this.spillEnabled ? pagesIndex.createPageWithPositionComparator(orderChannels, ordering) : null;
     }
 
     @Override
@@ -279,10 +365,11 @@ public class WindowOperator
         if (state == State.FINISHING || state == State.FINISHED) {
             return;
         }
-        if (state == State.NEEDS_INPUT) {
+        if (state == State.NEEDS_INPUT && !spiller.isPresent()) {
             // Since was waiting for more input, prepare what we have for output since we will not be getting any more input
             sortPagesIndexIfNecessary();
         }
+        // a spilled group is merged by getOutput once the last spill completes
         state = State.FINISHING;
     }
 
@@ -292,10 +379,19 @@ public class WindowOperator
         return state == State.FINISHED;
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (!spillInProgress.isDone()) {
+            return spillInProgress;
+        }
+        return NOT_BLOCKED;
+    }
+
     @Override
     public boolean needsInput()
     {
-        return state == State.NEEDS_INPUT;
+        return state == State.NEEDS_INPUT && spillInProgress.isDone();
     }
 
     @Override
@@ -304,6 +400,8 @@ public class WindowOperator
         checkState(state == State.NEEDS_INPUT, "Operator can not take input at this time");
         requireNonNull(page, "page is null");
         checkState(pendingInput == null, "Operator already has pending input");
+        checkState(spillInProgress.isDone(), "Spill is still in progress");
+        checkSpillSucceeded();
 
         if (page.getPositionCount() == 0) {
             return;
@@ -313,6 +411,10 @@ public class WindowOperator
         if (processPendingInput()) {
             state = State.HAS_OUTPUT;
         }
+        else if (spillEnabled && pagesIndex.getEstimatedSize().toBytes() > memoryLimitBeforeSpill) {
+            // the whole page belongs to the current group, so its first row identifies the group
+            spillToDisk(rearrangePage(page.getRegion(0, 1), preGroupedChannels).getBlocks());
+        }
         operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
     }
 
@@ -326,7 +428,12 @@ public class WindowOperator
 
         // If we have unused input or are finishing, then we have buffered a full group
         if (pendingInput != null || state == State.FINISHING) {
-            sortPagesIndexIfNecessary();
+            if (spiller.isPresent()) {
+                mergeSpilledGroup();
+            }
+            else {
+                sortPagesIndexIfNecessary();
+            }
             return true;
         }
         else {
@@ -344,7 +451,7 @@ public class WindowOperator
 
         // TODO: Fix pagesHashStrategy to allow specifying channels for comparison, it currently requires us to rearrange the right side blocks in consecutive channel order
         Page preGroupedPage = rearrangePage(page, preGroupedChannels);
-        if (pagesIndex.getPositionCount() == 0 || pagesIndex.positionEqualsRow(preGroupedPartitionHashStrategy, 0, 0, preGroupedPage.getBlocks())) {
+        if (pagesIndex.getPositionCount() == 0 ? isSpilledGroup(preGroupedPage) : pagesIndex.positionEqualsRow(preGroupedPartitionHashStrategy, 0, 0, preGroupedPage.getBlocks())) {
             // Find the position where the pre-grouped columns change
             int groupEnd = findGroupEnd(preGroupedPage, preGroupedPartitionHashStrategy, 0);
 
@@ -366,6 +473,12 @@ public class WindowOperator
         }
     }
 
+    private boolean isSpilledGroup(Page preGroupedPage)
+    {
+        // the spilled rows of the current group are no longer in the index, so compare against the saved group key
+        return spilledGroupKey == null || preGroupedPartitionHashStrategy.rowEqualsRow(0, spilledGroupKey, 0, preGroupedPage.getBlocks());
+    }
+
     private static Page rearrangePage(Page page, int[] channels)
     {
         Block[] newBlocks = new Block[channels.length];
@@ -382,6 +495,15 @@ public class WindowOperator
             return null;
         }
 
+        if (!spillInProgress.isDone()) {
+            return null;
+        }
+        checkSpillSucceeded();
+        if (spiller.isPresent() && mergedPages == null) {
+            // finish was called while the last group was spilled
+            mergeSpilledGroup();
+        }
+
         Page page = extractOutput();
         operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
         return page;
@@ -401,8 +523,11 @@ public class WindowOperator
                     partition = null;
                     pagesIndex.clear();
 
-                    // Try to extract more partitions from the pendingInput
-                    if (pendingInput != null && processPendingInput()) {
+                    // Try to extract more partitions from the merged spill, then from the pendingInput
+                    if (mergedPages != null && processMergedInput()) {
+                        partitionStart = 0;
+                    }
+                    else if (pendingInput != null && processPendingInput()) {
                         partitionStart = 0;
                     }
                     else if (state == State.FINISHING) {
@@ -433,6 +558,83 @@ public class WindowOperator
         return page;
     }
 
+    @Override
+    public void close()
+    {
+        spiller.ifPresent(Spiller::close);
+    }
+
+    private void spillToDisk(Block[] groupKey)
+    {
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.create(sourceTypes, operatorContext.getSpillContext()));
+        }
+        spilledGroupKey = groupKey;
+
+        // the operator is blocked until the spill completes, after which the index is cleared
+        pagesIndex.sort(orderChannels, ordering);
+        spillInProgress = spiller.get().spill(pagesIndex.getSortedPages());
+    }
+
+    private void checkSpillSucceeded()
+    {
+        if (spillInProgress != NOT_BLOCKED && spillInProgress.isDone()) {
+            // propagate any failure of the spill
+            getFutureValue(spillInProgress);
+            spillInProgress = NOT_BLOCKED;
+            pagesIndex.clear();
+            operatorContext.setMemoryReservation(pagesIndex.getEstimatedSize().toBytes());
+        }
+    }
+
+    /**
+     * Starts a k-way merge of the sorted runs of the current group. The merged rows
+     * are grouped on all partition channels, so they are loaded one partition at a time.
+     */
+    private void mergeSpilledGroup()
+    {
+        List<Iterator<Page>> sortedRuns = new ArrayList<>(spiller.get().getSpills());
+        if (pagesIndex.getPositionCount() > 0) {
+            pagesIndex.sort(orderChannels, ordering);
+            sortedRuns.add(ImmutableList.copyOf(pagesIndex.getSortedPages()).iterator());
+            pagesIndex.clear();
+        }
+        mergedPages = mergeSortedPages(sortedRuns, spillComparator, sourceTypes);
+        spilledGroupKey = null;
+    }
+
+    /**
+     * @return true if a partition from the merged spill has been loaded into the empty pagesIndex
+     */
+    private boolean processMergedInput()
+    {
+        while (true) {
+            if (pendingMergedPage == null) {
+                if (!mergedPages.hasNext()) {
+                    mergedPages = null;
+                    spiller.get().close();
+                    spiller = Optional.empty();
+                    return pagesIndex.getPositionCount() > 0;
+                }
+                pendingMergedPage = mergedPages.next();
+            }
+
+            Page partitionPage = rearrangePage(pendingMergedPage, partitionChannels);
+            if (pagesIndex.getPositionCount() > 0 && !pagesIndex.positionEqualsRow(partitionHashStrategy, 0, 0, partitionPage.getBlocks())) {
+                // the pending page starts the next partition
+                return true;
+            }
+
+            int partitionEnd = findGroupEnd(partitionPage, partitionHashStrategy, 0);
+            pagesIndex.addPage(pendingMergedPage.getRegion(0, partitionEnd));
+            if (partitionEnd < pendingMergedPage.getPositionCount()) {
+                pendingMergedPage = pendingMergedPage.getRegion(partitionEnd, pendingMergedPage.getPositionCount() - partitionEnd);
+                return true;
+            }
+            pendingMergedPage = null;
+        }
+    }
+
     private void sortPagesIndexIfNecessary()
     {
         if (pagesIndex.getPositionCount() > 1 && !orderChannels.isEmpty()) {
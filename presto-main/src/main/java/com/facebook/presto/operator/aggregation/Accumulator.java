@@ -13,11 +13,14 @@
  */
 package com.facebook.presto.operator.aggregation;
 
+import com.facebook.presto.operator.window.WindowIndex;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.type.Type;
 
+import java.util.List;
+
 public interface Accumulator
 {
     long getEstimatedSize();
@@ -28,6 +31,28 @@ public interface Accumulator
 
     void addInput(Page page);
 
+    /**
+     * Adds the rows between the start and end position (both inclusive) of the window index,
+     * reading the arguments from the given channels.
+     */
+    void addInput(WindowIndex index, List<Integer> channels, int startPosition, int endPosition);
+
+    /**
+     * Returns true if rows added with {@link #addInput(WindowIndex, List, int, int)} can be removed again.
+     */
+    default boolean hasRemoveInput()
+    {
+        return false;
+    }
+
+    /**
+     * Removes rows previously added with {@link #addInput(WindowIndex, List, int, int)}.
+     */
+    default void removeInput(WindowIndex index, List<Integer> channels, int startPosition, int endPosition)
+    {
+        throw new UnsupportedOperationException("Aggregation does not support removing input");
+    }
+
     void addIntermediate(Block block);
 
     void evaluateIntermediate(BlockBuilder blockBuilder);
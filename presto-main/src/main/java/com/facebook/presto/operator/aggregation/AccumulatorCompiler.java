@@ -28,6 +28,7 @@ import com.facebook.presto.bytecode.expression.BytecodeExpression;
 import com.facebook.presto.operator.GroupByIdBlock;
 import com.facebook.presto.operator.aggregation.state.AccumulatorStateFactory;
 import com.facebook.presto.operator.aggregation.state.AccumulatorStateSerializer;
+import com.facebook.presto.operator.window.WindowIndex;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
@@ -56,9 +57,12 @@ import static com.facebook.presto.bytecode.OpCode.NOP;
 import static com.facebook.presto.bytecode.Parameter.arg;
 import static com.facebook.presto.bytecode.ParameterizedType.type;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantInt;
+import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantLong;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantNull;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantString;
+import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantTrue;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.invokeStatic;
+import static com.facebook.presto.bytecode.expression.BytecodeExpressions.lessThanOrEqual;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.not;
 import static com.facebook.presto.operator.aggregation.AggregationMetadata.ParameterMetadata;
 import static com.facebook.presto.operator.aggregation.AggregationMetadata.countInputChannels;
@@ -134,6 +138,13 @@ public class AccumulatorCompiler
 
         // Generate methods
         generateAddInput(definition, stateField, inputChannelsField, maskChannelField, sampleWeightChannelField, metadata.getInputMetadata(), metadata.getInputFunction(), callSiteBinder, grouped);
+        if (!grouped) {
+            generateAddOrRemoveInputWindowIndex(definition, stateField, metadata.getInputMetadata(), metadata.getInputFunction(), approximate, "addInput", callSiteBinder);
+            if (metadata.getRemoveInputFunction() != null) {
+                generateAddOrRemoveInputWindowIndex(definition, stateField, metadata.getInputMetadata(), metadata.getRemoveInputFunction(), approximate, "removeInput", callSiteBinder);
+                generateHasRemoveInput(definition);
+            }
+        }
         generateGetEstimatedSize(definition, stateField);
         generateGetIntermediateType(definition, callSiteBinder, stateSerializer.getSerializedType());
         generateGetFinalType(definition, callSiteBinder, metadata.getOutputType());
@@ -267,6 +278,64 @@ public class AccumulatorCompiler
         body.ret();
     }
 
+    private static void generateAddOrRemoveInputWindowIndex(
+            ClassDefinition definition,
+            FieldDefinition stateField,
+            List<ParameterMetadata> parameterMetadatas,
+            MethodHandle inputFunction,
+            boolean approximate,
+            String methodName,
+            CallSiteBinder callSiteBinder)
+    {
+        // window functions do not support masks, and their input is never sampled
+        Parameter index = arg("index", WindowIndex.class);
+        Parameter channels = arg("channels", type(List.class, Integer.class));
+        Parameter startPosition = arg("startPosition", int.class);
+        Parameter endPosition = arg("endPosition", int.class);
+
+        MethodDefinition method = definition.declareMethod(a(PUBLIC), methodName, type(void.class), ImmutableList.of(index, channels, startPosition, endPosition));
+        Scope scope = method.getScope();
+        BytecodeBlock body = method.getBody();
+
+        Variable windowPosition = scope.declareVariable(int.class, "windowPosition");
+        Variable position = scope.declareVariable(int.class, "position");
+        Variable sampleWeight = null;
+        if (approximate) {
+            sampleWeight = scope.declareVariable(long.class, "sampleWeight");
+            body.append(sampleWeight.set(constantLong(1)));
+        }
+
+        List<Variable> parameterVariables = new ArrayList<>();
+        BytecodeBlock loopBody = new BytecodeBlock()
+                .append(position.set(index.invoke("getRawBlockPosition", int.class, windowPosition)));
+        for (int i = 0; i < countInputChannels(parameterMetadatas); i++) {
+            Variable blockVariable = scope.declareVariable(Block.class, "block" + i);
+            parameterVariables.add(blockVariable);
+            BytecodeExpression channel = channels.invoke("get", Object.class, constantInt(i))
+                    .cast(Integer.class)
+                    .invoke("intValue", int.class);
+            loopBody.append(blockVariable.set(index.invoke("getRawBlock", Block.class, channel, windowPosition)));
+        }
+
+        BytecodeNode invokeInputFunction = generateInvokeInputFunction(scope, stateField, position, sampleWeight, parameterVariables, parameterMetadatas, inputFunction, callSiteBinder, false);
+        loopBody.append(generateSkipNullInput(invokeInputFunction, parameterMetadatas, parameterVariables, position));
+
+        body.append(new ForLoop()
+                .initialize(windowPosition.set(startPosition))
+                .condition(lessThanOrEqual(windowPosition, endPosition))
+                .update(new BytecodeBlock().incrementVariable(windowPosition, (byte) 1))
+                .body(loopBody));
+        body.ret();
+    }
+
+    private static void generateHasRemoveInput(ClassDefinition definition)
+    {
+        MethodDefinition method = definition.declareMethod(a(PUBLIC), "hasRemoveInput", type(boolean.class));
+        method.getBody()
+                .append(constantTrue())
+                .retBoolean();
+    }
+
     private static BytecodeBlock generateInputForLoop(
             FieldDefinition stateField,
             List<ParameterMetadata> parameterMetadatas,
@@ -297,8 +366,37 @@ public class AccumulatorCompiler
         }
 
         BytecodeNode loopBody = generateInvokeInputFunction(scope, stateField, positionVariable, sampleWeightVariable, parameterVariables, parameterMetadatas, inputFunction, callSiteBinder, grouped);
+        loopBody = generateSkipNullInput(loopBody, parameterMetadatas, parameterVariables, positionVariable);
+
+        // Check that sample weight is > 0 (also checks the mask)
+        if (sampleWeightVariable != null) {
+            loopBody = generateComputeSampleWeightAndCheckGreaterThanZero(loopBody, sampleWeightVariable, masksBlock, sampleWeightsBlock, positionVariable);
+        }
+        // Otherwise just check the mask
+        else {
+            loopBody = new IfStatement("if(testMask(%s, position))", masksBlock.getName())
+                    .condition(new BytecodeBlock()
+                            .getVariable(masksBlock)
+                            .getVariable(positionVariable)
+                            .invokeStatic(CompilerOperations.class, "testMask", boolean.class, Block.class, int.class))
+                    .ifTrue(loopBody);
+        }
 
-        //  Wrap with null checks
+        block.append(new ForLoop()
+                .initialize(new BytecodeBlock().putVariable(positionVariable, 0))
+                .condition(new BytecodeBlock()
+                        .getVariable(positionVariable)
+                        .getVariable(rowsVariable)
+                        .invokeStatic(CompilerOperations.class, "lessThan", boolean.class, int.class, int.class))
+                .update(new BytecodeBlock().incrementVariable(positionVariable, (byte) 1))
+                .body(loopBody));
+
+        return block;
+    }
+
+    // Skips the rows that have a null value in one of the non-nullable input channels
+    private static BytecodeNode generateSkipNullInput(BytecodeNode loopBody, List<ParameterMetadata> parameterMetadatas, List<Variable> parameterVariables, Variable positionVariable)
+    {
         List<Boolean> nullable = new ArrayList<>();
         for (ParameterMetadata metadata : parameterMetadatas) {
             switch (metadata.getParameterType()) {
@@ -324,31 +422,7 @@ public class AccumulatorCompiler
                         .ifFalse(loopBody);
             }
         }
-
-        // Check that sample weight is > 0 (also checks the mask)
-        if (sampleWeightVariable != null) {
-            loopBody = generateComputeSampleWeightAndCheckGreaterThanZero(loopBody, sampleWeightVariable, masksBlock, sampleWeightsBlock, positionVariable);
-        }
-        // Otherwise just check the mask
-        else {
-            loopBody = new IfStatement("if(testMask(%s, position))", masksBlock.getName())
-                    .condition(new BytecodeBlock()
-                            .getVariable(masksBlock)
-                            .getVariable(positionVariable)
-                            .invokeStatic(CompilerOperations.class, "testMask", boolean.class, Block.class, int.class))
-                    .ifTrue(loopBody);
-        }
-
-        block.append(new ForLoop()
-                .initialize(new BytecodeBlock().putVariable(positionVariable, 0))
-                .condition(new BytecodeBlock()
-                        .getVariable(positionVariable)
-                        .getVariable(rowsVariable)
-                        .invokeStatic(CompilerOperations.class, "lessThan", boolean.class, int.class, int.class))
-                .update(new BytecodeBlock().incrementVariable(positionVariable, (byte) 1))
-                .body(loopBody));
-
-        return block;
+        return loopBody;
     }
 
     private static BytecodeNode generateComputeSampleWeightAndCheckGreaterThanZero(BytecodeNode body, Variable sampleWeight, Variable masks, Variable sampleWeights, Variable position)
@@ -117,6 +117,8 @@ public class AggregationCompiler
                         AggregationMetadata metadata;
                         try {
                             MethodHandle inputHandle = lookup().unreflect(inputFunction);
+                            Method removeInputFunction = getRemoveInputFunction(clazz, inputFunction);
+                            MethodHandle removeInputHandle = removeInputFunction == null ? null : lookup().unreflect(removeInputFunction);
                             MethodHandle intermediateInputHandle = intermediateInputFunction == null ? null : lookup().unreflect(intermediateInputFunction);
                             MethodHandle combineHandle = combineFunction == null ? null : lookup().unreflect(combineFunction);
                             MethodHandle outputHandle = outputFunction == null ? null : lookup().unreflect(outputFunction);
@@ -124,6 +126,7 @@ public class AggregationCompiler
                                     generateAggregationName(name, outputType, inputTypes),
                                     getParameterMetadata(inputFunction, aggregationAnnotation.approximate()),
                                     inputHandle,
+                                    removeInputHandle,
                                     getParameterMetadata(intermediateInputFunction, false),
                                     intermediateInputHandle,
                                     combineHandle,
@@ -192,6 +195,16 @@ public class AggregationCompiler
         return null;
     }
 
+    private static Method getRemoveInputFunction(Class<?> clazz, Method inputFunction)
+    {
+        for (Method method : findPublicStaticMethodsWithAnnotation(clazz, RemoveInputFunction.class)) {
+            if (Arrays.equals(method.getParameterTypes(), inputFunction.getParameterTypes())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
     private static Method getCombineFunction(Class<?> clazz, Class<?> stateClass)
     {
         for (Method method : findPublicStaticMethodsWithAnnotation(clazz, CombineFunction.class)) {
@@ -52,6 +52,8 @@ public class AggregationMetadata
     private final String name;
     private final List<ParameterMetadata> inputMetadata;
     private final MethodHandle inputFunction;
+    @Nullable
+    private final MethodHandle removeInputFunction;
     private final List<ParameterMetadata> intermediateInputMetadata;
     @Nullable
     private final MethodHandle intermediateInputFunction;
@@ -76,6 +78,36 @@ public class AggregationMetadata
             AccumulatorStateFactory<?> stateFactory,
             Type outputType,
             boolean approximate)
+    {
+        this(name,
+                inputMetadata,
+                inputFunction,
+                null,
+                intermediateInputMetadata,
+                intermediateInputFunction,
+                combineFunction,
+                outputFunction,
+                stateInterface,
+                stateSerializer,
+                stateFactory,
+                outputType,
+                approximate);
+    }
+
+    public AggregationMetadata(
+            String name,
+            List<ParameterMetadata> inputMetadata,
+            MethodHandle inputFunction,
+            @Nullable MethodHandle removeInputFunction,
+            @Nullable List<ParameterMetadata> intermediateInputMetadata,
+            @Nullable MethodHandle intermediateInputFunction,
+            @Nullable MethodHandle combineFunction,
+            MethodHandle outputFunction,
+            Class<?> stateInterface,
+            AccumulatorStateSerializer<?> stateSerializer,
+            AccumulatorStateFactory<?> stateFactory,
+            Type outputType,
+            boolean approximate)
     {
         this.outputType = requireNonNull(outputType);
         this.inputMetadata = ImmutableList.copyOf(requireNonNull(inputMetadata, "inputMetadata is null"));
@@ -88,6 +120,7 @@ public class AggregationMetadata
         }
         this.name = requireNonNull(name, "name is null");
         this.inputFunction = requireNonNull(inputFunction, "inputFunction is null");
+        this.removeInputFunction = removeInputFunction;
         checkArgument(combineFunction == null || intermediateInputFunction == null, "Aggregation cannot have both a combine and a intermediate input method");
         checkArgument(combineFunction != null || intermediateInputFunction != null, "Aggregation must have either a combine or a intermediate input method");
         this.intermediateInputFunction = intermediateInputFunction;
@@ -98,6 +131,10 @@ public class AggregationMetadata
         this.approximate = approximate;
 
         verifyInputFunctionSignature(inputFunction, inputMetadata, stateInterface);
+        if (removeInputFunction != null) {
+            checkArgument(!approximate, "Approximate aggregations do not support removing input");
+            checkArgument(removeInputFunction.type().equals(inputFunction.type()), "Remove input function must have the same signature as the input function");
+        }
         if (intermediateInputFunction != null) {
             checkArgument(countInputChannels(intermediateInputMetadata) == 1, "Intermediate input function may only have one input channel");
             verifyInputFunctionSignature(intermediateInputFunction, intermediateInputMetadata, stateInterface);
@@ -123,6 +160,12 @@ public class AggregationMetadata
         return inputMetadata;
     }
 
+    @Nullable
+    public MethodHandle getRemoveInputFunction()
+    {
+        return removeInputFunction;
+    }
+
     public List<ParameterMetadata> getIntermediateInputMetadata()
     {
         return intermediateInputMetadata;
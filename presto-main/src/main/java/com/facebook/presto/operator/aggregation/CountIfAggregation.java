@@ -33,6 +33,14 @@ public final class CountIfAggregation
         }
     }
 
+    @RemoveInputFunction
+    public static void removeInput(LongState state, @SqlType(StandardTypes.BOOLEAN) boolean value)
+    {
+        if (value) {
+            state.setLong(state.getLong() - 1);
+        }
+    }
+
     @CombineFunction
     public static void combine(LongState state, LongState otherState)
     {
@@ -17,39 +17,46 @@ import com.facebook.presto.metadata.Signature;
 import com.facebook.presto.operator.aggregation.Accumulator;
 import com.facebook.presto.operator.aggregation.AccumulatorFactory;
 import com.facebook.presto.operator.aggregation.InternalAggregationFunction;
-import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.google.common.collect.ImmutableList;
-import com.google.common.primitives.Ints;
 
 import java.util.List;
 import java.util.Optional;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
 public class AggregateWindowFunction
         implements WindowFunction
 {
+    // smaller frames are aggregated again from scratch, as that is cheaper than building the segment tree
+    private static final int MIN_SEGMENT_TREE_FRAME_SIZE = 64;
+
     private final InternalAggregationFunction function;
-    private final int[] argumentChannels;
+    private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    private final boolean accumulatorHasRemoveInput;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
+    private AggregationSegmentTree segmentTree;
     private int currentStart;
     private int currentEnd;
 
     private AggregateWindowFunction(InternalAggregationFunction function, List<Integer> argumentChannels)
     {
         this.function = requireNonNull(function, "function is null");
-        this.argumentChannels = Ints.toArray(argumentChannels);
+        this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty(), Optional.empty(), 1.0);
+        this.accumulatorHasRemoveInput = accumulatorFactory.createAccumulator().hasRemoveInput();
     }
 
     @Override
     public void reset(WindowIndex windowIndex)
     {
         this.windowIndex = windowIndex;
+        this.segmentTree = null;
         resetAccumulator();
     }
 
@@ -67,26 +74,57 @@ public class AggregateWindowFunction
         }
         else {
             // different frame
-            resetAccumulator();
-            accumulate(frameStart, frameEnd);
-            currentStart = frameStart;
-            currentEnd = frameEnd;
+            buildNewFrame(frameStart, frameEnd);
         }
 
         accumulator.evaluateFinal(output);
     }
 
-    private void accumulate(int start, int end)
+    private void buildNewFrame(int frameStart, int frameEnd)
     {
-        // TODO: add Accumulator method that does not require creating pages
-        PageBuilder pageBuilder = new PageBuilder(function.getParameterTypes());
-        for (int position = start; position <= end; position++) {
-            for (int i = 0; i < function.getParameterTypes().size(); i++) {
-                windowIndex.appendTo(argumentChannels[i], position, pageBuilder.getBlockBuilder(i));
+        if (accumulatorHasRemoveInput && currentStart >= 0) {
+            // all ranges are inclusive on both ends
+            int overlapStart = max(frameStart, currentStart);
+            int overlapEnd = min(frameEnd, currentEnd);
+            int removedRows = (overlapStart - currentStart) + (currentEnd - overlapEnd);
+
+            // keep the current accumulation if that is cheaper than adding the overlap again
+            if (overlapEnd - overlapStart + 1 > removedRows) {
+                if (currentStart < frameStart) {
+                    accumulator.removeInput(windowIndex, argumentChannels, currentStart, frameStart - 1);
+                }
+                if (frameEnd < currentEnd) {
+                    accumulator.removeInput(windowIndex, argumentChannels, frameEnd + 1, currentEnd);
+                }
+                if (frameStart < currentStart) {
+                    accumulate(frameStart, currentStart - 1);
+                }
+                if (currentEnd < frameEnd) {
+                    accumulate(currentEnd + 1, frameEnd);
+                }
+                currentStart = frameStart;
+                currentEnd = frameEnd;
+                return;
             }
-            pageBuilder.declarePosition();
         }
-        accumulator.addInput(pageBuilder.build());
+
+        resetAccumulator();
+        if (!accumulatorHasRemoveInput && function.isDecomposable() && (frameEnd - frameStart + 1 >= MIN_SEGMENT_TREE_FRAME_SIZE)) {
+            if (segmentTree == null) {
+                segmentTree = new AggregationSegmentTree(accumulatorFactory, windowIndex, argumentChannels);
+            }
+            segmentTree.aggregate(accumulator, frameStart, frameEnd);
+        }
+        else {
+            accumulate(frameStart, frameEnd);
+        }
+        currentStart = frameStart;
+        currentEnd = frameEnd;
+    }
+
+    private void accumulate(int start, int end)
+    {
+        accumulator.addInput(windowIndex, argumentChannels, start, end);
     }
 
     private void resetAccumulator()
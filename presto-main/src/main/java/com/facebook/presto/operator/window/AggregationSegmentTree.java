@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.window;
+
+import com.facebook.presto.operator.aggregation.Accumulator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Partial aggregations of a window partition arranged as a segment tree. The leaves aggregate
+ * a fixed number of consecutive rows and every other node combines its two children, so any
+ * frame can be aggregated by combining a logarithmic number of partial aggregations.
+ */
+class AggregationSegmentTree
+{
+    private static final int LEAF_SIZE = 16;
+
+    private final WindowIndex windowIndex;
+    private final List<Integer> argumentChannels;
+
+    // intermediate values of the nodes, one block per level starting with the leaves
+    private final List<Block> levels;
+
+    public AggregationSegmentTree(AccumulatorFactory accumulatorFactory, WindowIndex windowIndex, List<Integer> argumentChannels)
+    {
+        requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.windowIndex = requireNonNull(windowIndex, "windowIndex is null");
+        this.argumentChannels = ImmutableList.copyOf(requireNonNull(argumentChannels, "argumentChannels is null"));
+
+        int leafCount = (windowIndex.size() + LEAF_SIZE - 1) / LEAF_SIZE;
+        Type intermediateType = accumulatorFactory.createIntermediateAccumulator().getIntermediateType();
+
+        BlockBuilder leaves = intermediateType.createBlockBuilder(new BlockBuilderStatus(), leafCount);
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            int start = leaf * LEAF_SIZE;
+            int end = min(start + LEAF_SIZE, windowIndex.size()) - 1;
+            Accumulator accumulator = accumulatorFactory.createAccumulator();
+            accumulator.addInput(windowIndex, this.argumentChannels, start, end);
+            accumulator.evaluateIntermediate(leaves);
+        }
+
+        ImmutableList.Builder<Block> levels = ImmutableList.builder();
+        Block level = leaves.build();
+        levels.add(level);
+        while (level.getPositionCount() > 1) {
+            BlockBuilder parents = intermediateType.createBlockBuilder(new BlockBuilderStatus(), (level.getPositionCount() + 1) / 2);
+            for (int node = 0; node < level.getPositionCount(); node += 2) {
+                Accumulator accumulator = accumulatorFactory.createIntermediateAccumulator();
+                accumulator.addIntermediate(level.getRegion(node, min(2, level.getPositionCount() - node)));
+                accumulator.evaluateIntermediate(parents);
+            }
+            level = parents.build();
+            levels.add(level);
+        }
+        this.levels = levels.build();
+    }
+
+    /**
+     * Adds the rows between the start and end position (both inclusive) to the accumulator.
+     * The rows are combined in order, so the result is the same as adding the rows one by one.
+     */
+    public void aggregate(Accumulator accumulator, int start, int end)
+    {
+        // leaves that are completely inside the frame
+        int low = (start + LEAF_SIZE - 1) / LEAF_SIZE;
+        int high = (end + 1) / LEAF_SIZE;
+        if (low >= high) {
+            accumulator.addInput(windowIndex, argumentChannels, start, end);
+            return;
+        }
+
+        accumulator.addInput(windowIndex, argumentChannels, start, low * LEAF_SIZE - 1);
+        int firstRowAfterLeaves = high * LEAF_SIZE;
+
+        // walk up the tree; nodes on the left side are found from left to right,
+        // and nodes on the right side are found from right to left
+        List<Block> rightNodes = new ArrayList<>();
+        for (int level = 0; low < high; level++) {
+            Block nodes = levels.get(level);
+            if ((low & 1) == 1) {
+                accumulator.addIntermediate(nodes.getRegion(low, 1));
+                low++;
+            }
+            if ((high & 1) == 1) {
+                high--;
+                rightNodes.add(nodes.getRegion(high, 1));
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+        for (int i = rightNodes.size() - 1; i >= 0; i--) {
+            accumulator.addIntermediate(rightNodes.get(i));
+        }
+
+        accumulator.addInput(windowIndex, argumentChannels, firstRowAfterLeaves, end);
+    }
+}
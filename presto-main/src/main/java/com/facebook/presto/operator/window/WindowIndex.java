@@ -14,6 +14,7 @@
 package com.facebook.presto.operator.window;
 
 import com.facebook.presto.operator.PagesIndex;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
 import io.airlift.slice.Slice;
 
@@ -71,6 +72,20 @@ public class WindowIndex
         return pagesIndex.getSlice(channel, position(position));
     }
 
+    /**
+     * Returns the block of the underlying pages that contains the value at the position.
+     * The value is at {@link #getRawBlockPosition(int)} in this block.
+     */
+    public Block getRawBlock(int channel, int position)
+    {
+        return pagesIndex.getRawBlock(channel, position(position));
+    }
+
+    public int getRawBlockPosition(int position)
+    {
+        return pagesIndex.getRawBlockPosition(position(position));
+    }
+
     public void appendTo(int channel, int position, BlockBuilder output)
     {
         pagesIndex.appendTo(channel, position(position), output);
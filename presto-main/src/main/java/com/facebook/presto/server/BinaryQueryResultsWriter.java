@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.client.Column;
+import com.facebook.presto.client.QueryResults;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.type.Type;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.RuntimeIOException;
+import io.airlift.slice.SliceOutput;
+
+import javax.inject.Inject;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+import static com.facebook.presto.block.BlockSerdeUtil.writeBlock;
+import static com.facebook.presto.client.BinaryQueryResults.PRESTO_QUERY_RESULTS;
+import static com.facebook.presto.client.ResultPage.isNativeType;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes query results in the binary format of {@link com.facebook.presto.client.BinaryQueryResults}.
+ */
+@Provider
+@Produces(PRESTO_QUERY_RESULTS)
+public class BinaryQueryResultsWriter
+        implements MessageBodyWriter<PagedQueryResults>
+{
+    private static final MediaType PRESTO_QUERY_RESULTS_TYPE = MediaType.valueOf(PRESTO_QUERY_RESULTS);
+
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public BinaryQueryResultsWriter(BlockEncodingSerde blockEncodingSerde, ObjectMapper objectMapper)
+    {
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper is null");
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, java.lang.reflect.Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return PagedQueryResults.class.isAssignableFrom(type) && mediaType.isCompatible(PRESTO_QUERY_RESULTS_TYPE);
+    }
+
+    @Override
+    public long getSize(PagedQueryResults queryResults, Class<?> type, java.lang.reflect.Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(PagedQueryResults queryResults,
+            Class<?> type,
+            java.lang.reflect.Type genericType,
+            Annotation[] annotations,
+            MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders,
+            OutputStream output)
+            throws IOException, WebApplicationException
+    {
+        try {
+            SliceOutput sliceOutput = new OutputStreamSliceOutput(output);
+            writeQueryResults(sliceOutput, queryResults);
+            sliceOutput.flush();
+        }
+        catch (RuntimeIOException e) {
+            // EOF exception occurs when the client disconnects while writing data
+            // This is not a "server" problem so we don't want to log this
+            if (!(e.getCause() instanceof EOFException)) {
+                throw e;
+            }
+        }
+    }
+
+    public void writeQueryResults(SliceOutput output, PagedQueryResults pagedQueryResults)
+            throws IOException
+    {
+        QueryResults queryResults = pagedQueryResults.getQueryResults();
+        List<Page> pages = ImmutableList.of();
+        QueryResults header = queryResults;
+        if (pagedQueryResults.getPages().isPresent()) {
+            QueryResultPages resultPages = pagedQueryResults.getPages().get();
+            pages = toClientPages(resultPages.getSession(), queryResults.getColumns(), resultPages.getTypes(), resultPages.getPages());
+            header = new QueryResults(
+                    queryResults.getId(),
+                    queryResults.getInfoUri(),
+                    queryResults.getPartialCancelUri(),
+                    queryResults.getNextUri(),
+                    queryResults.getColumns(),
+                    (Iterable<List<Object>>) null,
+                    queryResults.getStats(),
+                    queryResults.getError(),
+                    queryResults.getUpdateType(),
+                    queryResults.getUpdateCount());
+        }
+
+        byte[] headerBytes = objectMapper.writeValueAsBytes(header);
+        output.writeInt(headerBytes.length);
+        output.writeBytes(headerBytes);
+
+        output.writeInt(pages.size());
+        for (Page page : pages) {
+            output.writeInt(page.getPositionCount());
+            output.writeInt(page.getChannelCount());
+            for (Block block : page.getBlocks()) {
+                writeBlock(blockEncodingSerde, output, block);
+            }
+        }
+    }
+
+    private List<Page> toClientPages(ConnectorSession session, List<Column> columns, List<Type> types, List<Page> pages)
+    {
+        ImmutableList.Builder<Page> clientPages = ImmutableList.builder();
+        for (Page page : pages) {
+            Block[] blocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                Block block = page.getBlock(channel);
+                if (isNativeType(columns.get(channel).getType())) {
+                    blocks[channel] = block;
+                }
+                else {
+                    blocks[channel] = toJsonBlock(session, types.get(channel), block);
+                }
+            }
+            clientPages.add(new Page(page.getPositionCount(), blocks));
+        }
+        return clientPages.build();
+    }
+
+    private Block toJsonBlock(ConnectorSession session, Type type, Block block)
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(new BlockBuilderStatus(), block.getPositionCount());
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            Object value = type.getObjectValue(session, block, position);
+            if (value == null) {
+                blockBuilder.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(blockBuilder, utf8Slice(toJson(value)));
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    private String toJson(Object value)
+    {
+        try {
+            return objectMapper.writeValueAsString(value);
+        }
+        catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
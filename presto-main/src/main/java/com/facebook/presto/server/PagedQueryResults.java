@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.client.QueryResults;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Query results together with the output pages their rows were created from. The JSON
+ * protocol sends the rows of the query results, while the binary protocol sends the pages.
+ */
+public class PagedQueryResults
+{
+    private final QueryResults queryResults;
+    private final Optional<QueryResultPages> pages;
+
+    public PagedQueryResults(QueryResults queryResults, Optional<QueryResultPages> pages)
+    {
+        this.queryResults = requireNonNull(queryResults, "queryResults is null");
+        this.pages = requireNonNull(pages, "pages is null");
+    }
+
+    public QueryResults getQueryResults()
+    {
+        return queryResults;
+    }
+
+    public Optional<QueryResultPages> getPages()
+    {
+        return pages;
+    }
+}
@@ -14,6 +14,8 @@
 package com.facebook.presto.server;
 
 import com.facebook.presto.block.PagesSerde;
+import com.facebook.presto.block.PagesSerde.PagesWriteStats;
+import com.facebook.presto.execution.TaskManagerConfig;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.google.common.base.Throwables;
@@ -37,6 +39,7 @@ import java.lang.reflect.Type;
 import java.util.List;
 
 import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES;
+import static java.util.Objects.requireNonNull;
 
 @Provider
 @Produces(PRESTO_PAGES)
@@ -56,11 +59,15 @@ public class PagesResponseWriter
     }
 
     private final BlockEncodingSerde blockEncodingSerde;
+    private final boolean compressionEnabled;
+    private final PagesResponseWriterStats stats;
 
     @Inject
-    public PagesResponseWriter(BlockEncodingSerde blockEncodingSerde)
+    public PagesResponseWriter(BlockEncodingSerde blockEncodingSerde, TaskManagerConfig taskManagerConfig, PagesResponseWriterStats stats)
     {
         this.blockEncodingSerde = blockEncodingSerde;
+        this.compressionEnabled = taskManagerConfig.isSinkCompressionEnabled();
+        this.stats = requireNonNull(stats, "stats is null");
     }
 
     @Override
@@ -87,8 +94,9 @@ public class PagesResponseWriter
             OutputStream output)
             throws IOException, WebApplicationException
     {
+        PagesWriteStats writeStats = new PagesWriteStats();
         try {
-            PagesSerde.writePages(blockEncodingSerde, new OutputStreamSliceOutput(output), pages);
+            PagesSerde.writeExchangePages(blockEncodingSerde, compressionEnabled, new OutputStreamSliceOutput(output), pages, writeStats);
         }
         catch (RuntimeIOException e) {
             // EOF exception occurs when the client disconnects while writing data
@@ -97,5 +105,8 @@ public class PagesResponseWriter
                 throw e;
             }
         }
+        finally {
+            stats.record(writeStats);
+        }
     }
 }
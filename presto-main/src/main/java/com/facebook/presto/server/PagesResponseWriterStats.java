@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.block.PagesSerde.PagesWriteStats;
+import io.airlift.stats.CounterStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+@ThreadSafe
+public class PagesResponseWriterStats
+{
+    private final CounterStat serializedBytes = new CounterStat();
+    private final CounterStat uncompressedBytes = new CounterStat();
+    private final CounterStat compressionCpuNanos = new CounterStat();
+
+    @Managed
+    @Nested
+    public CounterStat getSerializedBytes()
+    {
+        return serializedBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUncompressedBytes()
+    {
+        return uncompressedBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCompressionCpuNanos()
+    {
+        return compressionCpuNanos;
+    }
+
+    public void record(PagesWriteStats stats)
+    {
+        serializedBytes.update(stats.getSerializedBytes());
+        uncompressedBytes.update(stats.getUncompressedBytes());
+        compressionCpuNanos.update(stats.getCompressionCpuNanos());
+    }
+}
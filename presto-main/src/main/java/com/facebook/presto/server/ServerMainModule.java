@@ -67,6 +67,9 @@ import com.facebook.presto.spi.block.BlockEncodingFactory;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.SpillSpaceTracker;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.split.PageSinkManager;
 import com.facebook.presto.split.PageSinkProvider;
 import com.facebook.presto.split.PageSourceManager;
@@ -179,6 +182,8 @@ public class ServerMainModule
 
         jsonCodecBinder(binder).bindJsonCodec(TaskInfo.class);
         jaxrsBinder(binder).bind(PagesResponseWriter.class);
+        binder.bind(PagesResponseWriterStats.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(PagesResponseWriterStats.class).withGeneratedName();
 
         // exchange client
         binder.bind(new TypeLiteral<ExchangeClientSupplier>() {}).to(ExchangeClientFactory.class).in(Scopes.SINGLETON);
@@ -291,6 +296,7 @@ public class ServerMainModule
         jsonCodecBinder(binder).bindJsonCodec(TaskInfo.class);
         jsonCodecBinder(binder).bindJsonCodec(QueryResults.class);
         jaxrsBinder(binder).bind(StatementResource.class);
+        jaxrsBinder(binder).bind(BinaryQueryResultsWriter.class);
 
         // execute resource
         jaxrsBinder(binder).bind(ExecuteResource.class);
@@ -324,6 +330,11 @@ public class ServerMainModule
         // thread execution visualizer
         jaxrsBinder(binder).bind(QueryExecutionResource.class);
 
+        // Spiller
+        binder.bind(SpillerFactory.class).to(BinarySpillerFactory.class).in(Scopes.SINGLETON);
+        binder.bind(SpillSpaceTracker.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(SpillSpaceTracker.class).withGeneratedName();
+
         // PageSorter
         binder.bind(PageSorter.class).to(PagesIndexPageSorter.class).in(Scopes.SINGLETON);
 
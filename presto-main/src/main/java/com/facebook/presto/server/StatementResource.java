@@ -37,17 +37,14 @@ import com.facebook.presto.metadata.SessionPropertyManager;
 import com.facebook.presto.operator.ExchangeClient;
 import com.facebook.presto.operator.ExchangeClientSupplier;
 import com.facebook.presto.security.AccessControl;
-import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ErrorCode;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
-import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeSignature;
 import com.facebook.presto.transaction.TransactionId;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -71,6 +68,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
@@ -79,8 +77,6 @@ import javax.ws.rs.core.UriInfo;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -92,6 +88,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static com.facebook.presto.client.BinaryQueryResults.PRESTO_QUERY_RESULTS;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_ADDED_PREPARE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CLEAR_SESSION;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CLEAR_TRANSACTION_ID;
@@ -124,6 +121,7 @@ public class StatementResource
     private static final Duration MAX_WAIT_TIME = new Duration(1, SECONDS);
     private static final Ordering<Comparable<Duration>> WAIT_ORDERING = Ordering.natural().nullsLast();
     private static final long DESIRED_RESULT_BYTES = new DataSize(1, MEGABYTE).toBytes();
+    private static final MediaType PRESTO_QUERY_RESULTS_MEDIA_TYPE = MediaType.valueOf(PRESTO_QUERY_RESULTS);
 
     private final QueryManager queryManager;
     private final AccessControl accessControl;
@@ -158,10 +156,11 @@ public class StatementResource
     }
 
     @POST
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, PRESTO_QUERY_RESULTS})
     public Response createQuery(
             String statement,
             @Context HttpServletRequest servletRequest,
+            @Context HttpHeaders httpHeaders,
             @Context UriInfo uriInfo)
             throws InterruptedException
     {
@@ -173,16 +172,17 @@ public class StatementResource
         Query query = new Query(session, statement, queryManager, exchangeClient);
         queries.put(query.getQueryId(), query);
 
-        return getQueryResults(query, Optional.empty(), uriInfo, new Duration(1, MILLISECONDS));
+        return getQueryResults(query, Optional.empty(), uriInfo, new Duration(1, MILLISECONDS), getResultsMediaType(httpHeaders));
     }
 
     @GET
     @Path("{queryId}/{token}")
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, PRESTO_QUERY_RESULTS})
     public Response getQueryResults(
             @PathParam("queryId") QueryId queryId,
             @PathParam("token") long token,
             @QueryParam("maxWait") Duration maxWait,
+            @Context HttpHeaders httpHeaders,
             @Context UriInfo uriInfo)
             throws InterruptedException
     {
@@ -192,13 +192,30 @@ public class StatementResource
         }
 
         Duration wait = WAIT_ORDERING.min(MAX_WAIT_TIME, maxWait);
-        return getQueryResults(query, Optional.of(token), uriInfo, wait);
+        return getQueryResults(query, Optional.of(token), uriInfo, wait, getResultsMediaType(httpHeaders));
+    }
+
+    private static MediaType getResultsMediaType(HttpHeaders httpHeaders)
+    {
+        // only clients that explicitly ask for the binary format get it, everyone else gets JSON
+        for (MediaType mediaType : httpHeaders.getAcceptableMediaTypes()) {
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+                continue;
+            }
+            if (mediaType.isCompatible(PRESTO_QUERY_RESULTS_MEDIA_TYPE)) {
+                return PRESTO_QUERY_RESULTS_MEDIA_TYPE;
+            }
+            if (mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+                return MediaType.APPLICATION_JSON_TYPE;
+            }
+        }
+        return MediaType.APPLICATION_JSON_TYPE;
     }
 
-    private static Response getQueryResults(Query query, Optional<Long> token, UriInfo uriInfo, Duration wait)
+    private static Response getQueryResults(Query query, Optional<Long> token, UriInfo uriInfo, Duration wait, MediaType mediaType)
             throws InterruptedException
     {
-        QueryResults queryResults;
+        PagedQueryResults queryResults;
         if (token.isPresent()) {
             queryResults = query.getResults(token.get(), uriInfo, wait);
         }
@@ -206,7 +223,9 @@ public class StatementResource
             queryResults = query.getNextResults(uriInfo, wait);
         }
 
-        ResponseBuilder response = Response.ok(queryResults);
+        // the pages are only needed by the binary format, JSON sends the rows of the query results
+        Object entity = mediaType.equals(PRESTO_QUERY_RESULTS_MEDIA_TYPE) ? queryResults : queryResults.getQueryResults();
+        ResponseBuilder response = Response.ok(entity, mediaType);
 
         // add set session properties
         query.getSetSessionProperties().entrySet().stream()
@@ -278,7 +297,7 @@ public class StatementResource
         private final Session session;
 
         @GuardedBy("this")
-        private QueryResults lastResult;
+        private PagedQueryResults lastResult;
 
         @GuardedBy("this")
         private String lastResultPath;
@@ -371,7 +390,7 @@ public class StatementResource
             return clearTransactionId;
         }
 
-        public synchronized QueryResults getResults(long token, UriInfo uriInfo, Duration maxWaitTime)
+        public synchronized PagedQueryResults getResults(long token, UriInfo uriInfo, Duration maxWaitTime)
                 throws InterruptedException
         {
             // is the a repeated request for the last results?
@@ -388,7 +407,8 @@ public class StatementResource
             }
 
             // if this is not a request for the next results, return not found
-            if (lastResult.getNextUri() == null || !requestedPath.equals(lastResult.getNextUri().getPath())) {
+            URI lastNextUri = lastResult.getQueryResults().getNextUri();
+            if (lastNextUri == null || !requestedPath.equals(lastNextUri.getPath())) {
                 // unknown token
                 throw new WebApplicationException(Status.NOT_FOUND);
             }
@@ -396,10 +416,11 @@ public class StatementResource
             return getNextResults(uriInfo, maxWaitTime);
         }
 
-        public synchronized QueryResults getNextResults(UriInfo uriInfo, Duration maxWaitTime)
+        public synchronized PagedQueryResults getNextResults(UriInfo uriInfo, Duration maxWaitTime)
                 throws InterruptedException
         {
-            Iterable<List<Object>> data = getData(maxWaitTime);
+            Optional<QueryResultPages> pages = Optional.ofNullable(getData(maxWaitTime));
+            Iterable<List<Object>> data = pages.orElse(null);
 
             // get the query info before returning
             // force update if query manager is closed
@@ -438,6 +459,7 @@ public class StatementResource
                     // Return a single value for clients that require a result.
                     columns = ImmutableList.of(new Column("result", "boolean", new ClientTypeSignature(StandardTypes.BOOLEAN, ImmutableList.of())));
                     data = ImmutableSet.<List<Object>>of(ImmutableList.<Object>of(true));
+                    pages = Optional.empty();
                 }
             }
 
@@ -473,17 +495,17 @@ public class StatementResource
                     updateCount);
 
             // cache the last results
-            if (lastResult != null && lastResult.getNextUri() != null) {
-                lastResultPath = lastResult.getNextUri().getPath();
+            if (lastResult != null && lastResult.getQueryResults().getNextUri() != null) {
+                lastResultPath = lastResult.getQueryResults().getNextUri().getPath();
             }
             else {
                 lastResultPath = null;
             }
-            lastResult = queryResults;
-            return queryResults;
+            lastResult = new PagedQueryResults(queryResults, pages);
+            return lastResult;
         }
 
-        private synchronized Iterable<List<Object>> getData(Duration maxWait)
+        private synchronized QueryResultPages getData(Duration maxWait)
                 throws InterruptedException
         {
             // wait for query to start
@@ -507,7 +529,7 @@ public class StatementResource
 
             updateExchangeClient(queryInfo.getOutputStage());
 
-            ImmutableList.Builder<RowIterable> pages = ImmutableList.builder();
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
             // wait up to max wait for data to arrive; then try to return at least DESIRED_RESULT_BYTES
             long bytes = 0;
             while (bytes < DESIRED_RESULT_BYTES) {
@@ -516,7 +538,7 @@ public class StatementResource
                     break;
                 }
                 bytes += page.getSizeInBytes();
-                pages.add(new RowIterable(session.toConnectorSession(), types, page));
+                pages.add(page);
 
                 // only wait on first call
                 maxWait = new Duration(0, MILLISECONDS);
@@ -526,7 +548,7 @@ public class StatementResource
                 return null;
             }
 
-            return Iterables.concat(pages.build());
+            return new QueryResultPages(session.toConnectorSession(), types, pages.build());
         }
 
         private static boolean isQueryStarted(QueryInfo queryInfo)
@@ -744,60 +766,6 @@ public class StatementResource
                     failure.getErrorLocation(),
                     failure);
         }
-
-        private static class RowIterable
-                implements Iterable<List<Object>>
-        {
-            private final ConnectorSession session;
-            private final List<Type> types;
-            private final Page page;
-
-            private RowIterable(ConnectorSession session, List<Type> types, Page page)
-            {
-                this.session = session;
-                this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
-                this.page = requireNonNull(page, "page is null");
-            }
-
-            @Override
-            public Iterator<List<Object>> iterator()
-            {
-                return new RowIterator(session, types, page);
-            }
-        }
-
-        private static class RowIterator
-                extends AbstractIterator<List<Object>>
-        {
-            private final ConnectorSession session;
-            private final List<Type> types;
-            private final Page page;
-            private int position = -1;
-
-            private RowIterator(ConnectorSession session, List<Type> types, Page page)
-            {
-                this.session = session;
-                this.types = types;
-                this.page = page;
-            }
-
-            @Override
-            protected List<Object> computeNext()
-            {
-                position++;
-                if (position >= page.getPositionCount()) {
-                    return endOfData();
-                }
-
-                List<Object> values = new ArrayList<>(page.getChannelCount());
-                for (int channel = 0; channel < page.getChannelCount(); channel++) {
-                    Type type = types.get(channel);
-                    Block block = page.getBlock(channel);
-                    values.add(type.getObjectValue(session, block, position));
-                }
-                return Collections.unmodifiableList(values);
-            }
-        }
     }
 
     private static class PurgeQueriesRunnable
@@ -0,0 +1,184 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceOutput;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.facebook.presto.block.PagesSerde.readPages;
+import static com.facebook.presto.block.PagesSerde.writePages;
+import static com.facebook.presto.spi.StandardErrorCode.INTERNAL_ERROR;
+import static com.facebook.presto.spiller.BinarySpillerFactory.SPILL_FILE_PREFIX;
+import static com.facebook.presto.spiller.BinarySpillerFactory.SPILL_FILE_SUFFIX;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spills each stream of pages to a separate file in the spill directory, using the
+ * same serialization format as the exchange ({@link com.facebook.presto.block.PagesSerde}).
+ */
+@ThreadSafe
+public class BinaryFileSpiller
+        implements Spiller
+{
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final ListeningExecutorService executor;
+    private final Path targetDirectory;
+    private final SpillSpaceTracker spillSpaceTracker;
+    private final SpillContext spillContext;
+
+    @GuardedBy("this")
+    private final List<Path> spillFiles = new ArrayList<>();
+    @GuardedBy("this")
+    private final Closer closer = Closer.create();
+    @GuardedBy("this")
+    private long spilledBytes;
+    @GuardedBy("this")
+    private boolean closed;
+
+    @GuardedBy("this")
+    private ListenableFuture<?> previousSpill = immediateFuture(null);
+
+    public BinaryFileSpiller(
+            BlockEncodingSerde blockEncodingSerde,
+            ListeningExecutorService executor,
+            Path targetDirectory,
+            SpillSpaceTracker spillSpaceTracker,
+            SpillContext spillContext)
+    {
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.targetDirectory = requireNonNull(targetDirectory, "targetDirectory is null");
+        this.spillSpaceTracker = requireNonNull(spillSpaceTracker, "spillSpaceTracker is null");
+        this.spillContext = requireNonNull(spillContext, "spillContext is null");
+    }
+
+    @Override
+    public synchronized ListenableFuture<?> spill(Iterator<Page> pageIterator)
+    {
+        requireNonNull(pageIterator, "pageIterator is null");
+        checkState(!closed, "spiller is closed");
+        checkState(previousSpill.isDone(), "previous spill is still in progress");
+
+        Path spillFile = createSpillFile();
+        spillFiles.add(spillFile);
+        previousSpill = executor.submit(() -> writeSpillFile(pageIterator, spillFile));
+        return previousSpill;
+    }
+
+    private Path createSpillFile()
+    {
+        try {
+            Files.createDirectories(targetDirectory);
+            return Files.createTempFile(targetDirectory, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to create spill file in " + targetDirectory, e);
+        }
+    }
+
+    private void writeSpillFile(Iterator<Page> pageIterator, Path spillFile)
+    {
+        long start = System.nanoTime();
+        try (SliceOutput output = new OutputStreamSliceOutput(Files.newOutputStream(spillFile))) {
+            while (pageIterator.hasNext()) {
+                long startSize = output.size();
+                writePages(blockEncodingSerde, output, pageIterator.next());
+                recordSpilledBytes(output.size() - startSize);
+            }
+        }
+        catch (IOException | UncheckedIOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to spill pages to " + spillFile, e);
+        }
+        finally {
+            spillContext.updateWallNanos(System.nanoTime() - start);
+        }
+    }
+
+    private synchronized void recordSpilledBytes(long bytes)
+    {
+        checkState(!closed, "spiller is closed");
+        spillSpaceTracker.reserve(bytes);
+        spilledBytes += bytes;
+        spillContext.updateBytes(bytes);
+    }
+
+    @Override
+    public synchronized List<Iterator<Page>> getSpills()
+    {
+        checkState(!closed, "spiller is closed");
+        checkState(previousSpill.isDone(), "spill is still in progress");
+
+        ImmutableList.Builder<Iterator<Page>> spills = ImmutableList.builder();
+        for (Path spillFile : spillFiles) {
+            spills.add(readSpillFile(spillFile));
+        }
+        return spills.build();
+    }
+
+    private Iterator<Page> readSpillFile(Path spillFile)
+    {
+        try {
+            InputStreamSliceInput input = closer.register(new InputStreamSliceInput(Files.newInputStream(spillFile)));
+            return readPages(blockEncodingSerde, input);
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to read spilled pages from " + spillFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        previousSpill.cancel(true);
+
+        try {
+            closer.close();
+            for (Path spillFile : spillFiles) {
+                Files.deleteIfExists(spillFile);
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(INTERNAL_ERROR, "Failed to delete spill files", e);
+        }
+        finally {
+            spillSpaceTracker.free(spilledBytes);
+            spilledBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.analyzer.FeaturesConfig;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.log.Logger;
+import io.airlift.node.NodeInfo;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.lang.Math.floorMod;
+import static java.nio.file.Files.delete;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+public class BinarySpillerFactory
+        implements SpillerFactory
+{
+    private static final Logger log = Logger.get(BinarySpillerFactory.class);
+
+    public static final String SPILL_FILE_PREFIX = "spill";
+    public static final String SPILL_FILE_SUFFIX = ".bin";
+    private static final String SPILL_FILE_GLOB = SPILL_FILE_PREFIX + "*" + SPILL_FILE_SUFFIX;
+
+    private final ListeningExecutorService executor;
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final SpillSpaceTracker spillSpaceTracker;
+    private final List<Path> spillPaths;
+    private final AtomicInteger nextSpillPath = new AtomicInteger();
+
+    @Inject
+    public BinarySpillerFactory(BlockEncodingSerde blockEncodingSerde, SpillSpaceTracker spillSpaceTracker, FeaturesConfig featuresConfig, NodeInfo nodeInfo)
+    {
+        this(
+                createSpillingExecutor(requireNonNull(featuresConfig, "featuresConfig is null").getSpillerThreads()),
+                blockEncodingSerde,
+                spillSpaceTracker,
+                serverSpillPaths(featuresConfig.getSpillerSpillPaths(), requireNonNull(nodeInfo, "nodeInfo is null").getNodeId()));
+    }
+
+    public BinarySpillerFactory(ListeningExecutorService executor, BlockEncodingSerde blockEncodingSerde, SpillSpaceTracker spillSpaceTracker, List<Path> spillPaths)
+    {
+        this.executor = requireNonNull(executor, "executor is null");
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.spillSpaceTracker = requireNonNull(spillSpaceTracker, "spillSpaceTracker is null");
+        this.spillPaths = ImmutableList.copyOf(requireNonNull(spillPaths, "spillPaths is null"));
+        checkArgument(!this.spillPaths.isEmpty(), "spillPaths is empty");
+    }
+
+    // the configured paths can be shared by several servers, such as the default temp directory,
+    // so each server spills to and cleans up only a directory of its own
+    private static List<Path> serverSpillPaths(List<Path> spillPaths, String nodeId)
+    {
+        return spillPaths.stream()
+                .map(path -> path.resolve(nodeId))
+                .collect(toImmutableList());
+    }
+
+    private static ListeningExecutorService createSpillingExecutor(int spillerThreads)
+    {
+        return listeningDecorator(newFixedThreadPool(spillerThreads, daemonThreadsNamed("binary-spiller-%s")));
+    }
+
+    @PostConstruct
+    public void cleanupOldSpillFiles()
+    {
+        // spill files are never reused across restarts, so anything this server left behind in a previous run is garbage
+        spillPaths.forEach(BinarySpillerFactory::cleanupOldSpillFiles);
+    }
+
+    private static void cleanupOldSpillFiles(Path path)
+    {
+        try (DirectoryStream<Path> stream = newDirectoryStream(path, SPILL_FILE_GLOB)) {
+            for (Path file : stream) {
+                log.info("Deleting old spill file: %s", file);
+                delete(file);
+            }
+        }
+        catch (NoSuchFileException ignored) {
+            // spill directory does not exist yet
+        }
+        catch (IOException e) {
+            log.warn(e, "Error cleaning spill files in %s", path);
+        }
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Spiller create(List<Type> types, SpillContext spillContext)
+    {
+        Path spillPath = spillPaths.get(floorMod(nextSpillPath.getAndIncrement(), spillPaths.size()));
+        return new BinaryFileSpiller(blockEncodingSerde, executor, spillPath, spillSpaceTracker, spillContext);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.sql.analyzer.FeaturesConfig;
+import io.airlift.units.DataSize;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import static com.facebook.presto.ExceededSpillLimitException.exceededLocalLimit;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tracks the local disk space used by spilled data on this node.
+ */
+@ThreadSafe
+public class SpillSpaceTracker
+{
+    private final long maxBytes;
+
+    @GuardedBy("this")
+    private long currentBytes;
+
+    @Inject
+    public SpillSpaceTracker(FeaturesConfig featuresConfig)
+    {
+        this(requireNonNull(featuresConfig, "featuresConfig is null").getMaxSpillPerNode());
+    }
+
+    public SpillSpaceTracker(DataSize maxSize)
+    {
+        requireNonNull(maxSize, "maxSize is null");
+        maxBytes = maxSize.toBytes();
+        currentBytes = 0;
+    }
+
+    public synchronized void reserve(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        if (currentBytes + bytes > maxBytes) {
+            throw exceededLocalLimit(new DataSize(maxBytes, BYTE).convertToMostSuccinctDataSize());
+        }
+        currentBytes += bytes;
+    }
+
+    public synchronized void free(long bytes)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        checkArgument(currentBytes - bytes >= 0, "tried to free more disk space than is reserved");
+        currentBytes -= bytes;
+    }
+
+    @Managed
+    public long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+    @Managed
+    public synchronized long getCurrentBytes()
+    {
+        return currentBytes;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return toStringHelper(this)
+                .add("maxBytes", maxBytes)
+                .add("currentBytes", currentBytes)
+                .toString();
+    }
+}
@@ -63,6 +63,7 @@ public class Analysis
     private final IdentityHashMap<Expression, Integer> resolvedNames = new IdentityHashMap<>();
 
     private final IdentityHashMap<QuerySpecification, List<FunctionCall>> aggregates = new IdentityHashMap<>();
+    private final IdentityHashMap<QuerySpecification, List<FunctionCall>> groupingOperations = new IdentityHashMap<>();
     private final IdentityHashMap<QuerySpecification, List<List<FieldOrExpression>>> groupByExpressions = new IdentityHashMap<>();
     private final IdentityHashMap<Node, Expression> where = new IdentityHashMap<>();
     private final IdentityHashMap<QuerySpecification, Expression> having = new IdentityHashMap<>();
@@ -164,6 +165,16 @@ public class Analysis
         return aggregates.get(query);
     }
 
+    public void setGroupingOperations(QuerySpecification node, List<FunctionCall> groupingOperations)
+    {
+        this.groupingOperations.put(node, groupingOperations);
+    }
+
+    public List<FunctionCall> getGroupingOperations(QuerySpecification query)
+    {
+        return groupingOperations.get(query);
+    }
+
     public IdentityHashMap<Expression, Type> getTypes()
     {
         return new IdentityHashMap<>(types);
@@ -110,6 +110,8 @@ import static com.facebook.presto.spi.type.TimestampWithTimeZoneType.TIMESTAMP_W
 import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.sql.analyzer.GroupingOperationExtractor.MAX_GROUPING_ARGUMENTS;
+import static com.facebook.presto.sql.analyzer.GroupingOperationExtractor.isGroupingOperation;
 import static com.facebook.presto.sql.analyzer.SemanticErrorCode.AMBIGUOUS_ATTRIBUTE;
 import static com.facebook.presto.sql.analyzer.SemanticErrorCode.EXPRESSION_NOT_CONSTANT;
 import static com.facebook.presto.sql.analyzer.SemanticErrorCode.INVALID_LITERAL;
@@ -687,6 +689,19 @@ public class ExpressionAnalyzer
         @Override
         protected Type visitFunctionCall(FunctionCall node, StackableAstVisitorContext<AnalysisContext> context)
         {
+            if (isGroupingOperation(node)) {
+                // grouping() is computed by the planner from the grouping set of each row,
+                // so its arguments are only analyzed here and it is not resolved as a function
+                if (node.getArguments().isEmpty() || node.getArguments().size() > MAX_GROUPING_ARGUMENTS) {
+                    throw new SemanticException(NOT_SUPPORTED, node, "grouping() requires between 1 and %s arguments", MAX_GROUPING_ARGUMENTS);
+                }
+                for (Expression expression : node.getArguments()) {
+                    process(expression, context);
+                }
+                expressionTypes.put(node, BIGINT);
+                return BIGINT;
+            }
+
             if (node.getWindow().isPresent()) {
                 for (Expression expression : node.getWindow().get().getPartitionBy()) {
                     process(expression, context);
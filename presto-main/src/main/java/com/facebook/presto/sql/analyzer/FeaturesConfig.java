@@ -13,11 +13,29 @@
  */
 package com.facebook.presto.sql.analyzer;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
 import io.airlift.configuration.Config;
 import io.airlift.configuration.LegacyConfig;
+import io.airlift.units.DataSize;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 public class FeaturesConfig
 {
+    private static final Splitter SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
     private boolean experimentalSyntaxEnabled;
     private boolean distributedIndexJoinsEnabled;
     private boolean distributedJoinsEnabled = true;
@@ -27,6 +45,8 @@ public class FeaturesConfig
     private boolean optimizeSingleDistinct = true;
     private boolean pushTableWriteThroughUnion = true;
     private boolean intermediateAggregationsEnabled;
+    private boolean reorderJoins;
+    private long joinMaxBroadcastRows;
 
     private boolean columnarProcessing;
     private boolean columnarProcessingDictionary;
@@ -34,6 +54,21 @@ public class FeaturesConfig
 
     private boolean parseDecimalLiteralsAsDouble;
 
+    private boolean dynamicFilteringEnabled;
+    private boolean mergeJoinEnabled;
+    private boolean adaptivePartialAggregationEnabled;
+    private long adaptivePartialAggregationMinRows = 100_000;
+    private double adaptivePartialAggregationUniqueRowsRatioThreshold = 0.8;
+
+    private boolean spillEnabled;
+    private boolean orderBySpillEnabled = true;
+    private boolean windowSpillEnabled = true;
+    private boolean joinSpillEnabled = true;
+    private DataSize operatorMemoryLimitBeforeSpill = new DataSize(4, MEGABYTE);
+    private List<Path> spillerSpillPaths = ImmutableList.of(Paths.get(System.getProperty("java.io.tmpdir"), "presto", "spills"));
+    private int spillerThreads = 4;
+    private DataSize maxSpillPerNode = new DataSize(100, GIGABYTE);
+
     @LegacyConfig("analyzer.experimental-syntax-enabled")
     @Config("experimental-syntax-enabled")
     public FeaturesConfig setExperimentalSyntaxEnabled(boolean enabled)
@@ -143,6 +178,31 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isReorderJoins()
+    {
+        return reorderJoins;
+    }
+
+    @Config("optimizer.reorder-joins")
+    public FeaturesConfig setReorderJoins(boolean reorderJoins)
+    {
+        this.reorderJoins = reorderJoins;
+        return this;
+    }
+
+    @Min(0)
+    public long getJoinMaxBroadcastRows()
+    {
+        return joinMaxBroadcastRows;
+    }
+
+    @Config("optimizer.join-max-broadcast-rows")
+    public FeaturesConfig setJoinMaxBroadcastRows(long joinMaxBroadcastRows)
+    {
+        this.joinMaxBroadcastRows = joinMaxBroadcastRows;
+        return this;
+    }
+
     public boolean isColumnarProcessing()
     {
         return columnarProcessing;
@@ -190,4 +250,169 @@ public class FeaturesConfig
         this.parseDecimalLiteralsAsDouble = parseDecimalLiteralsAsDouble;
         return this;
     }
+
+    public boolean isSpillEnabled()
+    {
+        return spillEnabled;
+    }
+
+    @Config("experimental.spill-enabled")
+    public FeaturesConfig setSpillEnabled(boolean spillEnabled)
+    {
+        this.spillEnabled = spillEnabled;
+        return this;
+    }
+
+    public boolean isOrderBySpillEnabled()
+    {
+        return orderBySpillEnabled;
+    }
+
+    @Config("experimental.order-by-spill-enabled")
+    public FeaturesConfig setOrderBySpillEnabled(boolean orderBySpillEnabled)
+    {
+        this.orderBySpillEnabled = orderBySpillEnabled;
+        return this;
+    }
+
+    public boolean isWindowSpillEnabled()
+    {
+        return windowSpillEnabled;
+    }
+
+    @Config("experimental.window-spill-enabled")
+    public FeaturesConfig setWindowSpillEnabled(boolean windowSpillEnabled)
+    {
+        this.windowSpillEnabled = windowSpillEnabled;
+        return this;
+    }
+
+    public boolean isDynamicFilteringEnabled()
+    {
+        return dynamicFilteringEnabled;
+    }
+
+    @Config("experimental.dynamic-filtering-enabled")
+    public FeaturesConfig setDynamicFilteringEnabled(boolean dynamicFilteringEnabled)
+    {
+        this.dynamicFilteringEnabled = dynamicFilteringEnabled;
+        return this;
+    }
+
+    public boolean isMergeJoinEnabled()
+    {
+        return mergeJoinEnabled;
+    }
+
+    @Config("experimental.merge-join-enabled")
+    public FeaturesConfig setMergeJoinEnabled(boolean mergeJoinEnabled)
+    {
+        this.mergeJoinEnabled = mergeJoinEnabled;
+        return this;
+    }
+
+    public boolean isAdaptivePartialAggregationEnabled()
+    {
+        return adaptivePartialAggregationEnabled;
+    }
+
+    @Config("adaptive-partial-aggregation.enabled")
+    public FeaturesConfig setAdaptivePartialAggregationEnabled(boolean adaptivePartialAggregationEnabled)
+    {
+        this.adaptivePartialAggregationEnabled = adaptivePartialAggregationEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public long getAdaptivePartialAggregationMinRows()
+    {
+        return adaptivePartialAggregationMinRows;
+    }
+
+    @Config("adaptive-partial-aggregation.min-rows")
+    public FeaturesConfig setAdaptivePartialAggregationMinRows(long adaptivePartialAggregationMinRows)
+    {
+        this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getAdaptivePartialAggregationUniqueRowsRatioThreshold()
+    {
+        return adaptivePartialAggregationUniqueRowsRatioThreshold;
+    }
+
+    @Config("adaptive-partial-aggregation.unique-rows-ratio-threshold")
+    public FeaturesConfig setAdaptivePartialAggregationUniqueRowsRatioThreshold(double adaptivePartialAggregationUniqueRowsRatioThreshold)
+    {
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
+        return this;
+    }
+
+    public boolean isJoinSpillEnabled()
+    {
+        return joinSpillEnabled;
+    }
+
+    @Config("experimental.join-spill-enabled")
+    public FeaturesConfig setJoinSpillEnabled(boolean joinSpillEnabled)
+    {
+        this.joinSpillEnabled = joinSpillEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getOperatorMemoryLimitBeforeSpill()
+    {
+        return operatorMemoryLimitBeforeSpill;
+    }
+
+    @Config("experimental.operator-memory-limit-before-spill")
+    public FeaturesConfig setOperatorMemoryLimitBeforeSpill(DataSize operatorMemoryLimitBeforeSpill)
+    {
+        this.operatorMemoryLimitBeforeSpill = operatorMemoryLimitBeforeSpill;
+        return this;
+    }
+
+    @NotNull
+    public List<Path> getSpillerSpillPaths()
+    {
+        return spillerSpillPaths;
+    }
+
+    @Config("experimental.spiller-spill-path")
+    public FeaturesConfig setSpillerSpillPaths(String spillPaths)
+    {
+        this.spillerSpillPaths = (spillPaths == null) ? null : SPLITTER.splitToList(spillPaths).stream()
+                .map(Paths::get)
+                .collect(toImmutableList());
+        return this;
+    }
+
+    @Min(1)
+    public int getSpillerThreads()
+    {
+        return spillerThreads;
+    }
+
+    @Config("experimental.spiller-threads")
+    public FeaturesConfig setSpillerThreads(int spillerThreads)
+    {
+        this.spillerThreads = spillerThreads;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxSpillPerNode()
+    {
+        return maxSpillPerNode;
+    }
+
+    @Config("experimental.max-spill-per-node")
+    public FeaturesConfig setMaxSpillPerNode(DataSize maxSpillPerNode)
+    {
+        this.maxSpillPerNode = maxSpillPerNode;
+        return this;
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.analyzer;
+
+import com.facebook.presto.sql.tree.DefaultExpressionTraversalVisitor;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * Extracts the calls to grouping(), which tells for each row of a GROUPING SETS, ROLLUP
+ * or CUBE aggregation which of its arguments are not part of the grouping set of the row.
+ */
+class GroupingOperationExtractor
+        extends DefaultExpressionTraversalVisitor<Void, Void>
+{
+    // the result is a bigint bit mask with one bit per argument
+    public static final int MAX_GROUPING_ARGUMENTS = 63;
+
+    private static final QualifiedName GROUPING = QualifiedName.of("grouping");
+
+    private final ImmutableList.Builder<FunctionCall> groupingOperations = ImmutableList.builder();
+
+    public static boolean isGroupingOperation(FunctionCall node)
+    {
+        return node.getName().equals(GROUPING) && !node.getWindow().isPresent() && !node.isDistinct();
+    }
+
+    @Override
+    protected Void visitFunctionCall(FunctionCall node, Void context)
+    {
+        if (isGroupingOperation(node)) {
+            groupingOperations.add(node);
+            return null;
+        }
+
+        return super.visitFunctionCall(node, null);
+    }
+
+    public List<FunctionCall> getGroupingOperations()
+    {
+        return groupingOperations.build();
+    }
+}
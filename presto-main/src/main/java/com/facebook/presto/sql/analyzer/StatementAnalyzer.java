@@ -1683,10 +1683,6 @@ class StatementAnalyzer
             computedGroupingSets = ImmutableList.of(ImmutableList.of());
         }
 
-        if (computedGroupingSets.size() > 1) {
-            throw new SemanticException(NOT_SUPPORTED, node, "Grouping by multiple sets of columns is not yet supported");
-        }
-
         List<List<FieldOrExpression>> analyzedGroupingSets = computedGroupingSets.stream()
                 .map(groupingSet -> analyzeGroupingColumns(groupingSet, node, tupleDescriptor, context, outputExpressions))
                 .collect(toImmutableList());
@@ -1884,6 +1880,8 @@ class StatementAnalyzer
                 .distinct()
                 .collect(toImmutableList());
 
+        analyzeGroupingOperations(node, aggregates, allGroupingColumns);
+
         // is this an aggregation query?
         // skip describe queries because if there are parameters involved we can't verify equality
         if (!groupingSets.isEmpty() && !analysis.isDescribe()) {
@@ -1903,6 +1901,72 @@ class StatementAnalyzer
         }
     }
 
+    private void analyzeGroupingOperations(QuerySpecification node, List<FunctionCall> aggregates, List<FieldOrExpression> groupingColumns)
+    {
+        GroupingOperationExtractor extractor = new GroupingOperationExtractor();
+        for (SelectItem item : node.getSelect().getSelectItems()) {
+            if (item instanceof SingleColumn) {
+                extractor.process(((SingleColumn) item).getExpression(), null);
+            }
+        }
+
+        for (SortItem item : node.getOrderBy()) {
+            extractor.process(item.getSortKey(), null);
+        }
+
+        if (node.getHaving().isPresent()) {
+            extractor.process(node.getHaving().get(), null);
+        }
+
+        List<FunctionCall> groupingOperations = extractor.getGroupingOperations();
+        analysis.setGroupingOperations(node, groupingOperations);
+
+        // grouping() is computed after the aggregation, so it can not be used before it
+        ImmutableList.Builder<Expression> preAggregationExpressions = ImmutableList.builder();
+        node.getWhere().ifPresent(preAggregationExpressions::add);
+        groupingColumns.stream()
+                .filter(FieldOrExpression::isExpression)
+                .map(FieldOrExpression::getExpression)
+                .forEach(preAggregationExpressions::add);
+        aggregates.stream()
+                .map(FunctionCall::getArguments)
+                .forEach(preAggregationExpressions::addAll);
+        for (Expression expression : preAggregationExpressions.build()) {
+            GroupingOperationExtractor preAggregationExtractor = new GroupingOperationExtractor();
+            preAggregationExtractor.process(expression, null);
+            if (!preAggregationExtractor.getGroupingOperations().isEmpty()) {
+                throw new SemanticException(NOT_SUPPORTED, expression, "grouping() can only be used in the SELECT, HAVING and ORDER BY clauses of an aggregation");
+            }
+        }
+
+        for (FunctionCall groupingOperation : groupingOperations) {
+            for (Expression argument : groupingOperation.getArguments()) {
+                if (!isGroupingColumn(argument, groupingColumns)) {
+                    throw new SemanticException(MUST_BE_AGGREGATE_OR_GROUP_BY, groupingOperation, "The arguments of grouping() must be grouping columns: %s", argument);
+                }
+            }
+        }
+    }
+
+    private boolean isGroupingColumn(Expression expression, List<FieldOrExpression> groupingColumns)
+    {
+        Optional<Integer> fieldIndex = analysis.getFieldIndex(expression);
+        for (FieldOrExpression groupingColumn : groupingColumns) {
+            if (groupingColumn.isFieldReference()) {
+                if (fieldIndex.isPresent() && fieldIndex.get() == groupingColumn.getFieldIndex()) {
+                    return true;
+                }
+            }
+            else if (groupingColumn.getExpression().equals(expression)) {
+                return true;
+            }
+            else if (fieldIndex.isPresent() && fieldIndex.equals(analysis.getFieldIndex(groupingColumn.getExpression()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private List<FunctionCall> extractAggregates(QuerySpecification node)
     {
         AggregateExtractor extractor = new AggregateExtractor(metadata);
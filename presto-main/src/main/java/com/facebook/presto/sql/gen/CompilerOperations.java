@@ -14,6 +14,7 @@
 package com.facebook.presto.sql.gen;
 
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.LazyBlock;
 
 import javax.annotation.Nullable;
 
@@ -71,4 +72,11 @@ public final class CompilerOperations
         }
         return true;
     }
+
+    public static void loadSelectedPositions(Block block, int[] selectedPositions)
+    {
+        if (block instanceof LazyBlock) {
+            ((LazyBlock) block).loadPositions(selectedPositions, selectedPositions.length);
+        }
+    }
 }
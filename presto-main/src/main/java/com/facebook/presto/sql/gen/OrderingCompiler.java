@@ -21,11 +21,14 @@ import com.facebook.presto.bytecode.Scope;
 import com.facebook.presto.bytecode.Variable;
 import com.facebook.presto.bytecode.expression.BytecodeExpression;
 import com.facebook.presto.bytecode.instruction.LabelNode;
+import com.facebook.presto.operator.PageWithPositionComparator;
 import com.facebook.presto.operator.PagesIndex;
 import com.facebook.presto.operator.PagesIndexComparator;
 import com.facebook.presto.operator.PagesIndexOrdering;
+import com.facebook.presto.operator.SimplePageWithPositionComparator;
 import com.facebook.presto.operator.SimplePagesIndexComparator;
 import com.facebook.presto.operator.SyntheticAddress;
+import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
@@ -73,6 +76,17 @@ public class OrderingCompiler
                 }
             });
 
+    private final LoadingCache<PagesIndexComparatorCacheKey, PageWithPositionComparator> pageWithPositionComparators = CacheBuilder.newBuilder().maximumSize(1000).build(
+            new CacheLoader<PagesIndexComparatorCacheKey, PageWithPositionComparator>()
+            {
+                @Override
+                public PageWithPositionComparator load(PagesIndexComparatorCacheKey key)
+                        throws Exception
+                {
+                    return internalCompilePageWithPositionComparator(key.getSortTypes(), key.getSortChannels(), key.getSortOrders());
+                }
+            });
+
     public PagesIndexOrdering compilePagesIndexOrdering(List<Type> sortTypes, List<Integer> sortChannels, List<SortOrder> sortOrders)
     {
         requireNonNull(sortTypes, "sortTypes is null");
@@ -108,6 +122,90 @@ public class OrderingCompiler
         return new PagesIndexOrdering(comparator);
     }
 
+    public PageWithPositionComparator compilePageWithPositionComparator(List<Type> sortTypes, List<Integer> sortChannels, List<SortOrder> sortOrders)
+    {
+        requireNonNull(sortTypes, "sortTypes is null");
+        requireNonNull(sortChannels, "sortChannels is null");
+        requireNonNull(sortOrders, "sortOrders is null");
+
+        try {
+            return pageWithPositionComparators.get(new PagesIndexComparatorCacheKey(sortTypes, sortChannels, sortOrders));
+        }
+        catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    @VisibleForTesting
+    public PageWithPositionComparator internalCompilePageWithPositionComparator(List<Type> sortTypes, List<Integer> sortChannels, List<SortOrder> sortOrders)
+    {
+        requireNonNull(sortChannels, "sortChannels is null");
+        requireNonNull(sortOrders, "sortOrders is null");
+
+        try {
+            CallSiteBinder callSiteBinder = new CallSiteBinder();
+
+            ClassDefinition classDefinition = new ClassDefinition(
+                    a(PUBLIC, FINAL),
+                    makeClassName("PageWithPositionComparator"),
+                    type(Object.class),
+                    type(PageWithPositionComparator.class));
+
+            classDefinition.declareDefaultConstructor(a(PUBLIC));
+            generatePageWithPositionCompareTo(classDefinition, callSiteBinder, sortTypes, sortChannels, sortOrders);
+
+            return defineClass(classDefinition, PageWithPositionComparator.class, callSiteBinder.getBindings(), getClass().getClassLoader()).newInstance();
+        }
+        catch (Throwable e) {
+            log.error(e, "Error compiling page comparator for channels %s with order %s", sortChannels, sortOrders);
+            return new SimplePageWithPositionComparator(sortTypes, sortChannels, sortOrders);
+        }
+    }
+
+    private void generatePageWithPositionCompareTo(ClassDefinition classDefinition, CallSiteBinder callSiteBinder, List<Type> sortTypes, List<Integer> sortChannels, List<SortOrder> sortOrders)
+    {
+        Parameter leftPage = arg("leftPage", Page.class);
+        Parameter leftPosition = arg("leftPosition", int.class);
+        Parameter rightPage = arg("rightPage", Page.class);
+        Parameter rightPosition = arg("rightPosition", int.class);
+        MethodDefinition compareToMethod = classDefinition.declareMethod(a(PUBLIC), "compareTo", type(int.class), leftPage, leftPosition, rightPage, rightPosition);
+
+        for (int i = 0; i < sortChannels.size(); i++) {
+            int sortChannel = sortChannels.get(i);
+            SortOrder sortOrder = sortOrders.get(i);
+
+            BytecodeBlock block = new BytecodeBlock()
+                    .setDescription("compare channel " + sortChannel + " " + sortOrder);
+
+            Type sortType = sortTypes.get(i);
+
+            block.append(getStatic(SortOrder.class, sortOrder.name())
+                    .invoke("compareBlockValue",
+                            int.class,
+                            ImmutableList.of(Type.class, Block.class, int.class, Block.class, int.class),
+                            constantType(callSiteBinder, sortType),
+                            leftPage.invoke("getBlock", Block.class, constantInt(sortChannel)),
+                            leftPosition,
+                            rightPage.invoke("getBlock", Block.class, constantInt(sortChannel)),
+                            rightPosition));
+
+            LabelNode equal = new LabelNode("equal");
+            block.comment("if (compare != 0) return compare")
+                    .dup()
+                    .ifZeroGoto(equal)
+                    .retInt()
+                    .visitLabel(equal)
+                    .pop(int.class);
+
+            compareToMethod.getBody().append(block);
+        }
+
+        // values are equal
+        compareToMethod.getBody()
+                .push(0)
+                .retInt();
+    }
+
     private Class<? extends PagesIndexComparator> compilePagesIndexComparator(
             List<Type> sortTypes,
             List<Integer> sortChannels,
@@ -46,6 +46,7 @@ import com.facebook.presto.sql.relational.RowExpression;
 import com.facebook.presto.sql.relational.RowExpressionVisitor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Primitives;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
@@ -55,6 +56,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.IntStream;
 
@@ -67,6 +69,7 @@ import static com.facebook.presto.bytecode.ParameterizedType.type;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.add;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantFalse;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantInt;
+import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantLong;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantNull;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.constantTrue;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.equal;
@@ -74,6 +77,7 @@ import static com.facebook.presto.bytecode.expression.BytecodeExpressions.invoke
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.lessThan;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.newArray;
 import static com.facebook.presto.bytecode.expression.BytecodeExpressions.newInstance;
+import static com.facebook.presto.bytecode.expression.BytecodeExpressions.not;
 import static com.facebook.presto.bytecode.instruction.JumpInstruction.jump;
 import static com.facebook.presto.sql.gen.BytecodeUtils.generateWrite;
 import static com.facebook.presto.sql.gen.BytecodeUtils.loadConstant;
@@ -122,12 +126,13 @@ public class PageProcessorCompiler
 
         generateProcessMethod(classDefinition, filter, projections, projectMethodDefinitions);
         generateGetNonLazyPageMethod(classDefinition, filter, projections);
-        generateProcessColumnarMethod(classDefinition, projections, projectColumnarMethodDefinitions);
-        generateProcessColumnarDictionaryMethod(classDefinition, projections, projectDictionaryMethodDefinitions);
+        generateProcessColumnarMethod(classDefinition, filter, projections, projectColumnarMethodDefinitions);
+        generateProcessColumnarDictionaryMethod(classDefinition, filter, projections, projectDictionaryMethodDefinitions);
 
         generateFilterPageMethod(classDefinition, filter);
         generateFilterMethod(classDefinition, callSiteBinder, cachedInstanceBinder, filter);
         generateConstructor(classDefinition, cachedInstanceBinder, projections.size());
+        generateGetDictionaryCacheStatsMethods(classDefinition);
     }
 
     private static void generateConstructor(ClassDefinition classDefinition, CachedInstanceBinder cachedInstanceBinder, int projectionCount)
@@ -137,8 +142,12 @@ public class PageProcessorCompiler
         FieldDefinition outputDictionaries = classDefinition.declareField(a(PRIVATE, FINAL), "outputDictionaries", Block[].class);
 
         FieldDefinition inputFilterDictionary = classDefinition.declareField(a(PRIVATE), "inputFilterDictionary", Block.class);
+        FieldDefinition filterEvaluated = classDefinition.declareField(a(PRIVATE), "filterEvaluated", boolean[].class);
         FieldDefinition filterResult = classDefinition.declareField(a(PRIVATE), "filterResult", boolean[].class);
 
+        FieldDefinition dictionaryCacheHits = classDefinition.declareField(a(PRIVATE), "dictionaryCacheHits", long.class);
+        FieldDefinition dictionaryCacheMisses = classDefinition.declareField(a(PRIVATE), "dictionaryCacheMisses", long.class);
+
         BytecodeBlock body = constructorDefinition.getBody();
         Variable thisVariable = constructorDefinition.getThis();
 
@@ -150,12 +159,30 @@ public class PageProcessorCompiler
         body.append(thisVariable.setField(outputDictionaries, newArray(type(Block[].class), projectionCount)));
 
         body.append(thisVariable.setField(inputFilterDictionary, constantNull(Block.class)));
+        body.append(thisVariable.setField(filterEvaluated, constantNull(boolean[].class)));
         body.append(thisVariable.setField(filterResult, constantNull(boolean[].class)));
 
+        body.append(thisVariable.setField(dictionaryCacheHits, constantLong(0)));
+        body.append(thisVariable.setField(dictionaryCacheMisses, constantLong(0)));
+
         cachedInstanceBinder.generateInitializations(thisVariable, body);
         body.ret();
     }
 
+    private static void generateGetDictionaryCacheStatsMethods(ClassDefinition classDefinition)
+    {
+        MethodDefinition getHits = classDefinition.declareMethod(a(PUBLIC), "getDictionaryCacheHits", type(long.class));
+        getHits.getBody().append(getHits.getThis().getField("dictionaryCacheHits", long.class).ret());
+
+        MethodDefinition getMisses = classDefinition.declareMethod(a(PUBLIC), "getDictionaryCacheMisses", type(long.class));
+        getMisses.getBody().append(getMisses.getThis().getField("dictionaryCacheMisses", long.class).ret());
+    }
+
+    private static BytecodeExpression incrementField(Variable thisVariable, String fieldName)
+    {
+        return thisVariable.setField(fieldName, add(thisVariable.getField(fieldName, long.class), constantLong(1)));
+    }
+
     private static void generateProcessMethod(ClassDefinition classDefinition, RowExpression filter, List<RowExpression> projections, List<MethodDefinition> projectionMethods)
     {
         Parameter session = arg("session", ConnectorSession.class);
@@ -212,6 +239,7 @@ public class PageProcessorCompiler
 
     private static void generateProcessColumnarMethod(
             ClassDefinition classDefinition,
+            RowExpression filter,
             List<RowExpression> projections,
             List<MethodDefinition> projectColumnarMethods)
     {
@@ -238,6 +266,8 @@ public class PageProcessorCompiler
             return;
         }
 
+        body.append(loadSelectedPositions(page, selectedPositions, cardinality, filter, projections));
+
         Variable pageBuilder = scope.declareVariable("pageBuilder", body, newInstance(PageBuilder.class, cardinality, types));
         Variable outputBlocks = scope.declareVariable("outputBlocks", body, newArray(type(Block[].class), projections.size()));
 
@@ -479,13 +509,16 @@ public class PageProcessorCompiler
                         .body(invokeProject(thisVariable, session, ImmutableList.of(dictionary), position, pageBuilder, projectionIndex, project)))
                 .append(outputDictionary.set(blockBuilder.invoke("build", Block.class)))
                 .append(inputDictionaries.setElement(projectionIndex, dictionary))
-                .append(outputDictionaries.setElement(projectionIndex, outputDictionary));
+                .append(outputDictionaries.setElement(projectionIndex, outputDictionary))
+                .append(incrementField(thisVariable, "dictionaryCacheMisses"));
 
         body.comment("Use processed dictionary, if available, else project it")
                 .append(
                         new IfStatement()
                                 .condition(equal(inputDictionaries.getElement(projectionIndex), dictionary))
-                                .ifTrue(outputDictionary.set(outputDictionaries.getElement(projectionIndex)))
+                                .ifTrue(new BytecodeBlock()
+                                        .append(outputDictionary.set(outputDictionaries.getElement(projectionIndex)))
+                                        .append(incrementField(thisVariable, "dictionaryCacheHits")))
                                 .ifFalse(projectDictionary));
 
         body.comment("Filter ids")
@@ -513,6 +546,7 @@ public class PageProcessorCompiler
 
     private static void generateProcessColumnarDictionaryMethod(
             ClassDefinition classDefinition,
+            RowExpression filter,
             List<RowExpression> projections,
             List<MethodDefinition> projectDictionaryMethods)
     {
@@ -544,6 +578,7 @@ public class PageProcessorCompiler
         // create PageBuilder
         Variable pageBuilder = scope.declareVariable("pageBuilder", body, newInstance(PageBuilder.class, cardinality, types));
 
+        body.append(loadSelectedPositions(page, selectedPositions, cardinality, filter, projections));
         body.append(page.set(thisVariable.invoke("getNonLazyPage", Page.class, page)));
 
         // create outputBlocks
@@ -564,6 +599,24 @@ public class PageProcessorCompiler
         body.append(newInstance(Page.class, cardinality, outputBlocks).ret());
     }
 
+    private static BytecodeBlock loadSelectedPositions(Variable page, Variable selectedPositions, Variable cardinality, RowExpression filter, List<RowExpression> projections)
+    {
+        // the filter columns are already loaded, so only decode the selected rows of the columns used by the projections
+        Set<Integer> filterChannels = ImmutableSet.copyOf(getInputChannels(filter));
+        BytecodeBlock loadBlocks = new BytecodeBlock();
+        for (int channel : getInputChannels(projections)) {
+            if (!filterChannels.contains(channel)) {
+                loadBlocks.append(invokeStatic(CompilerOperations.class, "loadSelectedPositions", void.class, page.invoke("getBlock", Block.class, constantInt(channel)), selectedPositions));
+            }
+        }
+
+        return new BytecodeBlock()
+                .comment("if some rows were filtered out, load only the selected rows of lazy blocks")
+                .append(new IfStatement()
+                        .condition(lessThan(cardinality, page.invoke("getPositionCount", int.class)))
+                        .ifTrue(loadBlocks));
+    }
+
     private static void generateGetNonLazyPageMethod(ClassDefinition classDefinition, RowExpression filter, List<RowExpression> projections)
     {
         Parameter page = arg("page", Page.class);
@@ -693,38 +746,44 @@ public class PageProcessorCompiler
         Variable thisVariable = scope.getThis();
 
         BytecodeExpression inputFilterDictionary = thisVariable.getField("inputFilterDictionary", Block.class);
-        BytecodeExpression filterResult = thisVariable.getField("filterResult", boolean[].class);
 
         BytecodeBlock ifFilterOnDictionaryBlock = new BytecodeBlock();
 
         Variable dictionaryBlock = scope.declareVariable("dictionaryBlock", ifFilterOnDictionaryBlock, blockVariable.cast(DictionaryBlock.class));
         Variable dictionary = scope.declareVariable("dictionary", ifFilterOnDictionaryBlock, dictionaryBlock.invoke("getDictionary", Block.class));
         Variable dictionaryPositionCount = scope.declareVariable("dictionaryPositionCount", ifFilterOnDictionaryBlock, dictionary.invoke("getPositionCount", int.class));
-        Variable selectedDictionaryPositions = scope.declareVariable("selectedDictionaryPositions", ifFilterOnDictionaryBlock, newArray(type(boolean[].class), dictionaryPositionCount));
 
-        // if cached value is available use it else filter dictionary and cache it
+        // keep the filter results while the following pages use the same dictionary, otherwise start over with a new dictionary
         ifFilterOnDictionaryBlock.append(new IfStatement()
-            .condition(equal(dictionary, inputFilterDictionary))
-            .ifTrue(selectedDictionaryPositions.set(filterResult))
-            .ifFalse(new BytecodeBlock()
-                .append(new ForLoop()
-                            .initialize(position.set(constantInt(0)))
-                            .condition(lessThan(position, dictionaryPositionCount))
-                            .update(position.increment())
-                            .body(selectedDictionaryPositions.setElement(position, invokeFilter(thisVariable, session, singletonList(dictionary), position))))
-                .append(thisVariable.setField("inputFilterDictionary", dictionary))
-                .append(thisVariable.setField("filterResult", selectedDictionaryPositions))));
-
-        // create selected positions
+                .condition(equal(dictionary, inputFilterDictionary))
+                .ifTrue(incrementField(thisVariable, "dictionaryCacheHits"))
+                .ifFalse(new BytecodeBlock()
+                        .append(thisVariable.setField("inputFilterDictionary", dictionary))
+                        .append(thisVariable.setField("filterEvaluated", newArray(type(boolean[].class), dictionaryPositionCount)))
+                        .append(thisVariable.setField("filterResult", newArray(type(boolean[].class), dictionaryPositionCount)))
+                        .append(incrementField(thisVariable, "dictionaryCacheMisses"))));
+
+        Variable evaluatedDictionaryPositions = scope.declareVariable("evaluatedDictionaryPositions", ifFilterOnDictionaryBlock, thisVariable.getField("filterEvaluated", boolean[].class));
+        Variable selectedDictionaryPositions = scope.declareVariable("selectedDictionaryPositions", ifFilterOnDictionaryBlock, thisVariable.getField("filterResult", boolean[].class));
+        Variable dictionaryPosition = scope.declareVariable(int.class, "dictionaryPosition");
+
+        // create selected positions, evaluating the filter only for the dictionary entries that were not seen before
         ifFilterOnDictionaryBlock.append(new ForLoop()
                 .initialize(position.set(constantInt(0)))
                 .condition(lessThan(position, positionCount))
                 .update(position.increment())
-                .body(new IfStatement()
-                        .condition(selectedDictionaryPositions.getElement(dictionaryBlock.invoke("getId", int.class, position)))
-                        .ifTrue(new BytecodeBlock()
-                                .append(selectedPositions.setElement(selectedCount, position))
-                                .append(selectedCount.increment()))));
+                .body(new BytecodeBlock()
+                        .append(dictionaryPosition.set(dictionaryBlock.invoke("getId", int.class, position)))
+                        .append(new IfStatement()
+                                .condition(not(evaluatedDictionaryPositions.getElement(dictionaryPosition)))
+                                .ifTrue(new BytecodeBlock()
+                                        .append(selectedDictionaryPositions.setElement(dictionaryPosition, invokeFilter(thisVariable, session, singletonList(dictionary), dictionaryPosition)))
+                                        .append(evaluatedDictionaryPositions.setElement(dictionaryPosition, constantTrue()))))
+                        .append(new IfStatement()
+                                .condition(selectedDictionaryPositions.getElement(dictionaryPosition))
+                                .ifTrue(new BytecodeBlock()
+                                        .append(selectedPositions.setElement(selectedCount, position))
+                                        .append(selectedCount.increment())))));
 
         // return selectedPositions
         ifFilterOnDictionaryBlock.append(invokeStatic(Arrays.class, "copyOf", int[].class, selectedPositions, selectedCount)
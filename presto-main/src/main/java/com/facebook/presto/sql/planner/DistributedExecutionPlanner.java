@@ -23,6 +23,7 @@ import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
 import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.LimitNode;
@@ -191,6 +192,12 @@ public class DistributedExecutionPlanner
             return node.getSource().accept(this, context);
         }
 
+        @Override
+        public Optional<SplitSource> visitGroupId(GroupIdNode node, Void context)
+        {
+            return node.getSource().accept(this, context);
+        }
+
         @Override
         public Optional<SplitSource> visitWindow(WindowNode node, Void context)
         {
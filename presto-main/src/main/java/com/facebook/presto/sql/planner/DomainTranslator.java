@@ -24,6 +24,7 @@ import com.facebook.presto.spi.predicate.Ranges;
 import com.facebook.presto.spi.predicate.SortedRangeSet;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.type.StandardTypes;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.FunctionInvoker;
 import com.facebook.presto.sql.analyzer.ExpressionAnalyzer;
@@ -31,6 +32,7 @@ import com.facebook.presto.sql.parser.SqlParser;
 import com.facebook.presto.sql.tree.AstVisitor;
 import com.facebook.presto.sql.tree.BetweenPredicate;
 import com.facebook.presto.sql.tree.BooleanLiteral;
+import com.facebook.presto.sql.tree.Cast;
 import com.facebook.presto.sql.tree.ComparisonExpression;
 import com.facebook.presto.sql.tree.Expression;
 import com.facebook.presto.sql.tree.InListExpression;
@@ -58,6 +60,9 @@ import java.util.Optional;
 
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.sql.ExpressionUtils.and;
 import static com.facebook.presto.sql.ExpressionUtils.combineConjuncts;
 import static com.facebook.presto.sql.ExpressionUtils.combineDisjunctsWithDefault;
@@ -406,6 +411,15 @@ public final class DomainTranslator
                 return process(coerceDoubleToLongComparison(normalized), complement);
             }
 
+            // when the field is a narrow integer compared as BIGINT, compare against the value clamped to the range of the field
+            if (value.getType().equals(BIGINT) && isNarrowInteger(fieldType)) {
+                Optional<ExtractionResult> result = extractNarrowIntegerComparison(normalized.getComparisonType(), symbol, fieldType, (Long) value.getValue(), complement);
+                if (!result.isPresent()) {
+                    return super.visitComparisonExpression(node, complement);
+                }
+                return result.get();
+            }
+
             Optional<NullableValue> coercedValue = coerce(value, fieldType);
             if (!coercedValue.isPresent()) {
                 return super.visitComparisonExpression(node, complement);
@@ -414,6 +428,40 @@ public final class DomainTranslator
             return createComparisonExtractionResult(normalized.getComparisonType(), symbol, fieldType, coercedValue.get().getValue(), complement);
         }
 
+        private Optional<ExtractionResult> extractNarrowIntegerComparison(ComparisonExpression.Type comparisonType, Symbol symbol, Type fieldType, @Nullable Long value, boolean complement)
+        {
+            if (value == null) {
+                return Optional.of(createComparisonExtractionResult(comparisonType, symbol, fieldType, null, complement));
+            }
+            long min = getMinValue(fieldType);
+            long max = getMaxValue(fieldType);
+            if (value >= min && value <= max) {
+                return Optional.of(createComparisonExtractionResult(comparisonType, symbol, fieldType, value, complement));
+            }
+
+            ComparisonExpression.Type clampedComparisonType;
+            switch (comparisonType) {
+                case EQUAL:
+                    clampedComparisonType = value > max ? GREATER_THAN : LESS_THAN;
+                    break;
+                case GREATER_THAN:
+                case GREATER_THAN_OR_EQUAL:
+                    clampedComparisonType = value > max ? GREATER_THAN : GREATER_THAN_OR_EQUAL;
+                    break;
+                case LESS_THAN:
+                case LESS_THAN_OR_EQUAL:
+                    clampedComparisonType = value > max ? LESS_THAN_OR_EQUAL : LESS_THAN;
+                    break;
+                case NOT_EQUAL:
+                    clampedComparisonType = value > max ? LESS_THAN_OR_EQUAL : GREATER_THAN_OR_EQUAL;
+                    break;
+                default:
+                    return Optional.empty();
+            }
+            long clampedValue = value > max ? max : min;
+            return Optional.of(createComparisonExtractionResult(clampedComparisonType, symbol, fieldType, clampedValue, complement));
+        }
+
         private Optional<NullableValue> coerce(NullableValue value, Type targetType)
         {
             if (!TypeRegistry.canCoerce(value.getType(), targetType)) {
@@ -586,6 +634,9 @@ public final class DomainTranslator
         Object left = ExpressionInterpreter.expressionOptimizer(comparison.getLeft(), metadata, session, expressionTypes).optimize(NoOpSymbolResolver.INSTANCE);
         Object right = ExpressionInterpreter.expressionOptimizer(comparison.getRight(), metadata, session, expressionTypes).optimize(NoOpSymbolResolver.INSTANCE);
 
+        left = unwrapNarrowIntegerCast(left, types);
+        right = unwrapNarrowIntegerCast(right, types);
+
         if (left instanceof QualifiedNameReference && !(right instanceof Expression)) {
             return Optional.of(new NormalizedSimpleComparison((QualifiedNameReference) left, comparison.getType(), new NullableValue(expressionTypes.get(comparison.getRight()), right)));
         }
@@ -595,6 +646,55 @@ public final class DomainTranslator
         return Optional.empty();
     }
 
+    /**
+     * Strips the coercion of a narrow integer column to BIGINT, such as the one added to {@code x = 5}
+     * when x is an INTEGER, so that the comparison can be translated into a domain of the column itself.
+     */
+    private static Object unwrapNarrowIntegerCast(Object expression, Map<Symbol, Type> types)
+    {
+        if (!(expression instanceof Cast)) {
+            return expression;
+        }
+        Cast cast = (Cast) expression;
+        if (!(cast.getExpression() instanceof QualifiedNameReference) || !cast.getType().equalsIgnoreCase(StandardTypes.BIGINT)) {
+            return expression;
+        }
+        Type type = types.get(Symbol.fromQualifiedName(((QualifiedNameReference) cast.getExpression()).getName()));
+        if (type == null || !isNarrowInteger(type)) {
+            return expression;
+        }
+        return cast.getExpression();
+    }
+
+    private static boolean isNarrowInteger(Type type)
+    {
+        return type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT);
+    }
+
+    private static long getMinValue(Type type)
+    {
+        if (type.equals(INTEGER)) {
+            return Integer.MIN_VALUE;
+        }
+        if (type.equals(SMALLINT)) {
+            return Short.MIN_VALUE;
+        }
+        checkArgument(type.equals(TINYINT), "Unexpected type: %s", type);
+        return Byte.MIN_VALUE;
+    }
+
+    private static long getMaxValue(Type type)
+    {
+        if (type.equals(INTEGER)) {
+            return Integer.MAX_VALUE;
+        }
+        if (type.equals(SMALLINT)) {
+            return Short.MAX_VALUE;
+        }
+        checkArgument(type.equals(TINYINT), "Unexpected type: %s", type);
+        return Byte.MAX_VALUE;
+    }
+
     private static class NormalizedSimpleComparison
     {
         private final QualifiedNameReference nameReference;
@@ -25,6 +25,7 @@ import com.facebook.presto.operator.AggregationOperator.AggregationOperatorFacto
 import com.facebook.presto.operator.CursorProcessor;
 import com.facebook.presto.operator.DeleteOperator.DeleteOperatorFactory;
 import com.facebook.presto.operator.DriverFactory;
+import com.facebook.presto.operator.DynamicFilterSource;
 import com.facebook.presto.operator.EnforceSingleRowOperator;
 import com.facebook.presto.operator.ExchangeClientSupplier;
 import com.facebook.presto.operator.ExchangeOperator.ExchangeOperatorFactory;
@@ -34,6 +35,7 @@ import com.facebook.presto.operator.FilterFunction;
 import com.facebook.presto.operator.FilterFunctions;
 import com.facebook.presto.operator.GenericCursorProcessor;
 import com.facebook.presto.operator.GenericPageProcessor;
+import com.facebook.presto.operator.GroupIdOperator.GroupIdOperatorFactory;
 import com.facebook.presto.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import com.facebook.presto.operator.HashBuilderOperator.HashBuilderOperatorFactory;
 import com.facebook.presto.operator.HashPartitionMaskOperator.HashPartitionMaskOperatorFactory;
@@ -46,6 +48,7 @@ import com.facebook.presto.operator.LookupJoinOperators;
 import com.facebook.presto.operator.LookupOuterOperator.OuterLookupSourceSupplier;
 import com.facebook.presto.operator.LookupSourceSupplier;
 import com.facebook.presto.operator.MarkDistinctOperator.MarkDistinctOperatorFactory;
+import com.facebook.presto.operator.MergeJoinOperator.MergeJoinOperatorFactory;
 import com.facebook.presto.operator.MetadataDeleteOperator.MetadataDeleteOperatorFactory;
 import com.facebook.presto.operator.NestedLoopJoinPagesSupplier;
 import com.facebook.presto.operator.OperatorFactory;
@@ -63,6 +66,7 @@ import com.facebook.presto.operator.ScanFilterAndProjectOperator;
 import com.facebook.presto.operator.SetBuilderOperator.SetBuilderOperatorFactory;
 import com.facebook.presto.operator.SetBuilderOperator.SetSupplier;
 import com.facebook.presto.operator.SourceOperatorFactory;
+import com.facebook.presto.operator.StreamingAggregationOperator.StreamingAggregationOperatorFactory;
 import com.facebook.presto.operator.TableScanOperator.TableScanOperatorFactory;
 import com.facebook.presto.operator.TaskOutputOperator.TaskOutputFactory;
 import com.facebook.presto.operator.TopNOperator.TopNOperatorFactory;
@@ -86,8 +90,11 @@ import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.RecordSet;
 import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.NullableValue;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.split.MappedRecordSet;
 import com.facebook.presto.split.PageSinkManager;
 import com.facebook.presto.split.PageSourceProvider;
@@ -102,6 +109,7 @@ import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
 import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -171,10 +179,19 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static com.facebook.presto.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
+import static com.facebook.presto.SystemSessionProperties.getOperatorMemoryLimitBeforeSpill;
 import static com.facebook.presto.SystemSessionProperties.getTaskAggregationConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskHashBuildConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskJoinConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskWriterCount;
+import static com.facebook.presto.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
+import static com.facebook.presto.SystemSessionProperties.isDynamicFilteringEnabled;
+import static com.facebook.presto.SystemSessionProperties.isJoinSpillEnabled;
+import static com.facebook.presto.SystemSessionProperties.isOrderBySpillEnabled;
+import static com.facebook.presto.SystemSessionProperties.isSpillEnabled;
+import static com.facebook.presto.SystemSessionProperties.isWindowSpillEnabled;
 import static com.facebook.presto.metadata.FunctionKind.SCALAR;
 import static com.facebook.presto.operator.DistinctLimitOperator.DistinctLimitOperatorFactory;
 import static com.facebook.presto.operator.InMemoryExchangeSourceOperator.InMemoryExchangeSourceOperatorFactory.createBroadcastDistribution;
@@ -196,6 +213,7 @@ import static com.facebook.presto.sql.planner.SystemPartitioningHandle.COORDINAT
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.CreateHandle;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.InsertHandle;
@@ -231,6 +249,7 @@ public class LocalExecutionPlanner
     private final DataSize maxIndexMemorySize;
     private final IndexJoinLookupStats indexJoinLookupStats;
     private final DataSize maxPartialAggregationMemorySize;
+    private final SpillerFactory spillerFactory;
 
     @Inject
     public LocalExecutionPlanner(
@@ -246,7 +265,8 @@ public class LocalExecutionPlanner
             IndexJoinLookupStats indexJoinLookupStats,
             CompilerConfig compilerConfig,
             ServerConfig serverConfig,
-            TaskManagerConfig taskManagerConfig)
+            TaskManagerConfig taskManagerConfig,
+            SpillerFactory spillerFactory)
     {
         requireNonNull(compilerConfig, "compilerConfig is null");
         this.queryManager = requireNonNull(queryManager, "queryManager is null");
@@ -261,6 +281,7 @@ public class LocalExecutionPlanner
         this.indexJoinLookupStats = requireNonNull(indexJoinLookupStats, "indexJoinLookupStats is null");
         this.maxIndexMemorySize = requireNonNull(taskManagerConfig, "taskManagerConfig is null").getMaxIndexMemoryUsage();
         this.maxPartialAggregationMemorySize = taskManagerConfig.getMaxPartialAggregationMemoryUsage();
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
 
         interpreterEnabled = compilerConfig.isInterpreterEnabled();
         requireNonNull(serverConfig, "serverConfig is null");
@@ -356,6 +377,7 @@ public class LocalExecutionPlanner
         context.addDriverFactory(driverFactory);
 
         addLookupOuterDrivers(context);
+        addSpilledJoinDrivers(context);
 
         // notify operator factories that planning has completed
         context.getDriverFactories().stream()
@@ -398,6 +420,36 @@ public class LocalExecutionPlanner
         }
     }
 
+    private static void addSpilledJoinDrivers(LocalExecutionPlanContext context)
+    {
+        // For a join whose build side may spill add an additional driver to join
+        // the probe rows of the spilled build partitions once all probe drivers are done
+        for (DriverFactory factory : context.getDriverFactories()) {
+            List<OperatorFactory> operatorFactories = factory.getOperatorFactories();
+            for (int i = 0; i < operatorFactories.size(); i++) {
+                OperatorFactory operatorFactory = operatorFactories.get(i);
+                if (!(operatorFactory instanceof JoinOperatorFactory)) {
+                    continue;
+                }
+
+                JoinOperatorFactory lookupJoin = (JoinOperatorFactory) operatorFactory;
+                Optional<OperatorFactory> spilledOperatorFactory = lookupJoin.createSpilledOperatorFactory();
+                if (spilledOperatorFactory.isPresent()) {
+                    // The spilled rows are joined by the spilled join operators instead of the probe operators, so
+                    // we duplicate all of the factories above the JoinOperator, like for the lookup outer driver.
+                    // The spilled rows of each partition are spread over the drivers, so use as many as the probe side.
+                    ImmutableList.Builder<OperatorFactory> newOperators = ImmutableList.builder();
+                    newOperators.add(spilledOperatorFactory.get());
+                    operatorFactories.subList(i + 1, operatorFactories.size()).stream()
+                            .map(OperatorFactory::duplicate)
+                            .forEach(newOperators::add);
+
+                    context.addDriverFactory(new DriverFactory(false, factory.isOutputDriver(), newOperators.build(), factory.getDriverInstances()));
+                }
+            }
+        }
+    }
+
     private PhysicalOperation enforceLayout(PlanNodeId planNodeId, List<Symbol> outputLayout, LocalExecutionPlanContext context, PhysicalOperation physicalOperation)
     {
         // are the symbols of the source in the same order as the sink expects?
@@ -573,6 +625,8 @@ public class LocalExecutionPlanner
             extends PlanVisitor<LocalExecutionPlanContext, PhysicalOperation>
     {
         private final Session session;
+        // dynamic filters of the probe side table scans, by the plan node id of the scan
+        private final Map<PlanNodeId, Supplier<TupleDomain<ColumnHandle>>> dynamicFilters = new HashMap<>();
 
         private Visitor(Session session)
         {
@@ -768,7 +822,10 @@ public class LocalExecutionPlanner
                     sortOrder,
                     node.getPreSortedOrderPrefix(),
                     new FrameInfo(frame.getType(), frame.getStartType(), frameStartChannel, frame.getEndType(), frameEndChannel),
-                    10_000);
+                    10_000,
+                    isWindowSpillEnabled(session),
+                    getOperatorMemoryLimitBeforeSpill(session),
+                    spillerFactory);
 
             return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
         }
@@ -825,7 +882,10 @@ public class LocalExecutionPlanner
                     outputChannels.build(),
                     10_000,
                     orderByChannels,
-                    sortOrder.build());
+                    sortOrder.build(),
+                    isOrderBySpillEnabled(session),
+                    getOperatorMemoryLimitBeforeSpill(session),
+                    spillerFactory);
 
             return new PhysicalOperation(operator, source.getLayout(), source);
         }
@@ -879,13 +939,16 @@ public class LocalExecutionPlanner
 
                 OperatorFactory exchangeSource = createRandomDistribution(context.getNextOperatorId(), node.getId(), exchange);
                 source = new PhysicalOperation(exchangeSource, source.getLayout());
-                return planGroupByAggregation(node, source, context.getNextOperatorId(), Optional.empty());
+                return planGroupByAggregation(node, source, context.getNextOperatorId(), Optional.empty(), false);
             }
 
+            // input that is already grouped is aggregated as it streams, in the driver that produces it
+            boolean streaming = node.getPreGroupedSymbols().containsAll(node.getGroupBy());
+
             int aggregationConcurrency = getTaskAggregationConcurrency(session);
-            if (node.getStep() == Step.PARTIAL || !context.isAllowLocalParallel() || context.getDriverInstanceCount() > 1 || aggregationConcurrency <= 1) {
+            if (node.getStep() == Step.PARTIAL || streaming || !context.isAllowLocalParallel() || context.getDriverInstanceCount() > 1 || aggregationConcurrency <= 1) {
                 PhysicalOperation source = node.getSource().accept(this, context);
-                return planGroupByAggregation(node, source, context.getNextOperatorId(), Optional.empty());
+                return planGroupByAggregation(node, source, context.getNextOperatorId(), Optional.empty(), streaming);
             }
 
             // create context for parallel operators
@@ -926,7 +989,7 @@ public class LocalExecutionPlanner
             source = new PhysicalOperation(hashPartitionMask, source.getLayout(), source);
 
             // plan aggregation
-            PhysicalOperation operation = planGroupByAggregation(node, source, parallelContext.getNextOperatorId(), Optional.of(defaultMaskChannel));
+            PhysicalOperation operation = planGroupByAggregation(node, source, parallelContext.getNextOperatorId(), Optional.of(defaultMaskChannel), false);
 
             // merge parallel tasks back into a single stream
             operation = addInMemoryExchange(context, node.getId(), operation, parallelContext);
@@ -961,6 +1024,24 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operator, makeLayout(node), source);
         }
 
+        @Override
+        public PhysicalOperation visitGroupId(GroupIdNode node, LocalExecutionPlanContext context)
+        {
+            PhysicalOperation source = node.getSource().accept(this, context);
+
+            List<Symbol> groupingColumns = ImmutableList.copyOf(node.getGroupingColumns().keySet());
+            List<Integer> groupingChannels = getChannelsForSymbols(ImmutableList.copyOf(node.getGroupingColumns().values()), source.getLayout());
+            List<List<Integer>> groupingSets = node.getGroupingSets().stream()
+                    .map(groupingSet -> groupingSet.stream()
+                            .map(groupingColumns::indexOf)
+                            .collect(toImmutableList()))
+                    .collect(toImmutableList());
+            List<Integer> argumentChannels = getChannelsForSymbols(node.getArgumentSymbols(), source.getLayout());
+
+            OperatorFactory operatorFactory = new GroupIdOperatorFactory(context.getNextOperatorId(), node.getId(), source.getTypes(), groupingChannels, groupingSets, argumentChannels);
+            return new PhysicalOperation(operatorFactory, makeLayout(node), source);
+        }
+
         @Override
         public PhysicalOperation visitSample(SampleNode node, LocalExecutionPlanContext context)
         {
@@ -1097,7 +1178,8 @@ public class LocalExecutionPlanner
                             cursorProcessor,
                             pageProcessor,
                             columns,
-                            Lists.transform(rewrittenProjections, forMap(expressionTypes)));
+                            Lists.transform(rewrittenProjections, forMap(expressionTypes)),
+                            getDynamicFilter(sourceNode.getId()));
 
                     return new PhysicalOperation(operatorFactory, outputMappings);
                 }
@@ -1161,7 +1243,8 @@ public class LocalExecutionPlanner
                         new GenericCursorProcessor(filterFunction, projectionFunctions),
                         () -> new GenericPageProcessor(filterFunction, projectionFunctions),
                         columns,
-                        toTypes(projectionFunctions));
+                        toTypes(projectionFunctions),
+                        getDynamicFilter(sourceNode.getId()));
 
                 return new PhysicalOperation(operatorFactory, outputMappings);
             }
@@ -1199,10 +1282,15 @@ public class LocalExecutionPlanner
             }
 
             List<Type> types = getSourceOperatorTypes(node, context.getTypes());
-            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, types, columns);
+            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, types, columns, getDynamicFilter(node.getId()));
             return new PhysicalOperation(operatorFactory, makeLayout(node));
         }
 
+        private Supplier<TupleDomain<ColumnHandle>> getDynamicFilter(PlanNodeId tableScanId)
+        {
+            return dynamicFilters.getOrDefault(tableScanId, TupleDomain::all);
+        }
+
         @Override
         public PhysicalOperation visitValues(ValuesNode node, LocalExecutionPlanContext context)
         {
@@ -1479,6 +1567,11 @@ public class LocalExecutionPlanner
             List<Symbol> leftSymbols = Lists.transform(clauses, JoinNode.EquiJoinClause::getLeft);
             List<Symbol> rightSymbols = Lists.transform(clauses, JoinNode.EquiJoinClause::getRight);
 
+            // the merge join needs both sides as single streams, so it can not run in a parallel context
+            if (node.getMergeOrderings().isPresent() && context.getDriverInstanceCount() == 1) {
+                return createMergeJoin(node, leftSymbols, rightSymbols, node.getMergeOrderings().get(), context);
+            }
+
             switch (node.getType()) {
                 case INNER:
                 case LEFT:
@@ -1525,6 +1618,44 @@ public class LocalExecutionPlanner
             return operation;
         }
 
+        private PhysicalOperation createMergeJoin(JoinNode node, List<Symbol> probeSymbols, List<Symbol> buildSymbols, List<SortOrder> orderings, LocalExecutionPlanContext context)
+        {
+            // the build side streams through an exchange, the probe side is read in this context
+            LocalExecutionPlanContext buildContext = context.createSubContext();
+            PhysicalOperation buildSource = node.getRight().accept(this, buildContext);
+            InMemoryExchange buildExchange = new InMemoryExchange(buildSource.getTypes());
+            context.addDriverFactory(new DriverFactory(
+                    buildContext.isInputDriver(),
+                    false,
+                    ImmutableList.<OperatorFactory>builder()
+                            .addAll(buildSource.getOperatorFactories())
+                            .add(buildExchange.createSinkFactory(buildContext.getNextOperatorId(), node.getId()))
+                            .build()));
+
+            PhysicalOperation probeSource = node.getLeft().accept(this, context);
+
+            ImmutableMap.Builder<Symbol, Integer> outputMappings = ImmutableMap.builder();
+            outputMappings.putAll(probeSource.getLayout());
+
+            // inputs from build side of the join are laid out following the input from the probe side,
+            // so adjust the channel ids but keep the field layouts intact
+            int offset = probeSource.getTypes().size();
+            for (Map.Entry<Symbol, Integer> entry : buildSource.getLayout().entrySet()) {
+                outputMappings.put(entry.getKey(), offset + entry.getValue());
+            }
+
+            OperatorFactory operatorFactory = new MergeJoinOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    node.getType(),
+                    probeSource.getTypes(),
+                    getChannelsForSymbols(probeSymbols, probeSource.getLayout()),
+                    getChannelsForSymbols(buildSymbols, buildSource.getLayout()),
+                    orderings,
+                    buildExchange);
+            return new PhysicalOperation(operatorFactory, outputMappings.build(), probeSource);
+        }
+
         private PhysicalOperation createLookupJoin(JoinNode node,
                 PlanNode probeNode,
                 List<Symbol> probeSymbols,
@@ -1534,8 +1665,9 @@ public class LocalExecutionPlanner
                 Optional<Symbol> buildHashSymbol,
                 LocalExecutionPlanContext context)
         {
-            // Plan build
-            LookupSourceSupplier lookupSourceSupplier = createLookupJoinSource(node, buildNode, buildSymbols, buildHashSymbol, context);
+            // Plan build; the dynamic filter must be registered before the probe side scan is planned
+            Optional<DynamicFilterSource> dynamicFilterSource = createDynamicFilterSource(node, probeNode, probeSymbols, buildSymbols, context);
+            LookupSourceSupplier lookupSourceSupplier = createLookupJoinSource(node, buildNode, buildSymbols, buildHashSymbol, dynamicFilterSource, context);
 
             // Plan probe and introduce a projection to put all fields from the probe side into a single channel if necessary
             PhysicalOperation probeSource;
@@ -1581,11 +1713,88 @@ public class LocalExecutionPlanner
             return node.getType() == RIGHT || node.getType() == FULL;
         }
 
+        private int getHashBuildPartitionCount(JoinNode node)
+        {
+            // the unmatched rows of a build outer join are tracked by a single hash builder
+            int hashBuildConcurrency = getTaskHashBuildConcurrency(session);
+            if (isBuildOuter(node) || hashBuildConcurrency <= 1) {
+                return 1;
+            }
+            // round partitionCount down to the last power of 2
+            return Integer.highestOneBit(hashBuildConcurrency);
+        }
+
+        private Optional<DynamicFilterSource> createDynamicFilterSource(
+                JoinNode node,
+                PlanNode probeNode,
+                List<Symbol> probeSymbols,
+                List<Symbol> buildSymbols,
+                LocalExecutionPlanContext context)
+        {
+            // probe rows without a match are only dropped by inner joins and build side outer joins
+            if (!isDynamicFilteringEnabled(session) || (node.getType() != INNER && node.getType() != RIGHT)) {
+                return Optional.empty();
+            }
+
+            // follow the probe keys through filters and renaming projections down to a table scan in this fragment
+            List<Symbol> scanSymbols = new ArrayList<>(probeSymbols);
+            PlanNode source = probeNode;
+            while (!(source instanceof TableScanNode)) {
+                if (source instanceof FilterNode) {
+                    source = ((FilterNode) source).getSource();
+                }
+                else if (source instanceof ProjectNode) {
+                    Map<Symbol, Expression> assignments = ((ProjectNode) source).getAssignments();
+                    for (int key = 0; key < scanSymbols.size(); key++) {
+                        Expression expression = assignments.get(scanSymbols.get(key));
+                        if (expression instanceof QualifiedNameReference) {
+                            scanSymbols.set(key, Symbol.fromQualifiedName(((QualifiedNameReference) expression).getName()));
+                        }
+                        else {
+                            scanSymbols.set(key, null);
+                        }
+                    }
+                    source = ((ProjectNode) source).getSource();
+                }
+                else {
+                    return Optional.empty();
+                }
+            }
+            TableScanNode tableScanNode = (TableScanNode) source;
+
+            List<Type> keyTypes = new ArrayList<>();
+            Map<Integer, ColumnHandle> keyColumns = new HashMap<>();
+            for (int key = 0; key < buildSymbols.size(); key++) {
+                Type keyType = context.getTypes().get(buildSymbols.get(key));
+                keyTypes.add(keyType);
+
+                Symbol scanSymbol = scanSymbols.get(key);
+                if (scanSymbol != null && tableScanNode.getAssignments().containsKey(scanSymbol) && keyType.equals(context.getTypes().get(scanSymbol))) {
+                    keyColumns.put(key, tableScanNode.getAssignments().get(scanSymbol));
+                }
+            }
+            if (keyColumns.isEmpty()) {
+                return Optional.empty();
+            }
+
+            DynamicFilterSource dynamicFilterSource = new DynamicFilterSource(keyTypes, getHashBuildPartitionCount(node));
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter = () -> {
+                Map<ColumnHandle, Domain> domains = new HashMap<>();
+                for (Map.Entry<Integer, ColumnHandle> entry : keyColumns.entrySet()) {
+                    domains.merge(entry.getValue(), dynamicFilterSource.getKeyDomain(entry.getKey()), Domain::intersect);
+                }
+                return TupleDomain.withColumnDomains(domains);
+            };
+            dynamicFilters.merge(tableScanNode.getId(), dynamicFilter, (first, second) -> () -> first.get().intersect(second.get()));
+            return Optional.of(dynamicFilterSource);
+        }
+
         private LookupSourceSupplier createLookupJoinSource(
                 JoinNode node,
                 PlanNode buildNode,
                 List<Symbol> buildSymbols,
                 Optional<Symbol> buildHashSymbol,
+                Optional<DynamicFilterSource> dynamicFilterSource,
                 LocalExecutionPlanContext context)
         {
             LocalExecutionPlanContext buildContext = context.createSubContext();
@@ -1594,15 +1803,21 @@ public class LocalExecutionPlanner
             Optional<Integer> buildHashChannel = buildHashSymbol.map(channelGetter(buildSource));
 
             LookupSourceSupplier lookupSourceSupplier;
-            int hashBuildConcurrency = getTaskHashBuildConcurrency(session);
-            if (isBuildOuter(node) || hashBuildConcurrency <= 1) {
+            int partitionCount = getHashBuildPartitionCount(node);
+            // TODO: the unmatched rows of spilled build partitions are not tracked, so build outer joins keep the whole build side in memory
+            boolean spillEnabled = isJoinSpillEnabled(session) && !isBuildOuter(node);
+            if (partitionCount == 1) {
                 HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(
                         buildContext.getNextOperatorId(),
                         node.getId(),
                         buildSource.getTypes(),
                         buildChannels,
                         buildHashChannel,
-                        10_000);
+                        10_000,
+                        spillEnabled,
+                        getOperatorMemoryLimitBeforeSpill(session),
+                        spillerFactory,
+                        dynamicFilterSource);
 
                 context.addDriverFactory(new DriverFactory(
                         buildContext.isInputDriver(),
@@ -1615,15 +1830,16 @@ public class LocalExecutionPlanner
                 lookupSourceSupplier = hashBuilderOperatorFactory.getLookupSourceSupplier();
             }
             else {
-                // round partitionCount down to the last power of 2
-                int parallelBuildCount = Integer.highestOneBit(hashBuildConcurrency);
-
                 ParallelHashBuilder parallelHashBuilder = new ParallelHashBuilder(
                         buildSource.getTypes(),
                         buildChannels,
                         buildHashChannel,
                         10_000,
-                        parallelBuildCount);
+                        partitionCount,
+                        spillEnabled,
+                        getOperatorMemoryLimitBeforeSpill(session),
+                        spillerFactory,
+                        dynamicFilterSource);
 
                 context.addDriverFactory(new DriverFactory(
                         buildContext.isInputDriver(),
@@ -1637,7 +1853,7 @@ public class LocalExecutionPlanner
                         false,
                         false,
                         ImmutableList.of(parallelHashBuilder.getBuildOperatorFactory(node.getId())),
-                        parallelBuildCount));
+                        partitionCount));
 
                 lookupSourceSupplier = parallelHashBuilder.getLookupSourceSupplier();
             }
@@ -1952,7 +2168,7 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
         }
 
-        private PhysicalOperation planGroupByAggregation(AggregationNode node, PhysicalOperation source, int operatorId, Optional<Integer> defaultMaskChannel)
+        private PhysicalOperation planGroupByAggregation(AggregationNode node, PhysicalOperation source, int operatorId, Optional<Integer> defaultMaskChannel, boolean streaming)
         {
             List<Symbol> groupBySymbols = node.getGroupBy();
 
@@ -1991,6 +2207,18 @@ public class LocalExecutionPlanner
 
             Optional<Integer> hashChannel = node.getHashSymbol().map(channelGetter(source));
 
+            if (streaming) {
+                OperatorFactory operatorFactory = new StreamingAggregationOperatorFactory(
+                        operatorId,
+                        node.getId(),
+                        groupByTypes,
+                        groupByChannels,
+                        hashChannel,
+                        node.getStep(),
+                        accumulatorFactories);
+                return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
+            }
+
             OperatorFactory operatorFactory = new HashAggregationOperatorFactory(
                     operatorId,
                     node.getId(),
@@ -2001,7 +2229,13 @@ public class LocalExecutionPlanner
                     defaultMaskChannel,
                     hashChannel,
                     10_000,
-                    maxPartialAggregationMemorySize);
+                    maxPartialAggregationMemorySize,
+                    isSpillEnabled(session),
+                    getOperatorMemoryLimitBeforeSpill(session),
+                    spillerFactory,
+                    isAdaptivePartialAggregationEnabled(session),
+                    getAdaptivePartialAggregationMinRows(session),
+                    getAdaptivePartialAggregationUniqueRowsRatioThreshold(session));
 
             return new PhysicalOperation(operatorFactory, outputMappings.build(), source);
         }
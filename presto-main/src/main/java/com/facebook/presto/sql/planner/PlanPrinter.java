@@ -41,6 +41,7 @@ import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -200,6 +201,7 @@ public class PlanPrinter
         Map<PlanNodeId, Long> outputPositions = new HashMap<>();
         Map<PlanNodeId, Long> outputBytes = new HashMap<>();
         Map<PlanNodeId, Long> wallMillis = new HashMap<>();
+        Map<PlanNodeId, Long> partialAggregationBypassedPositions = new HashMap<>();
 
         for (PipelineStats pipelineStats : taskStats.getPipelines()) {
             // Due to eventual consistently collected stats, these could be empty
@@ -215,6 +217,7 @@ public class PlanPrinter
 
                 long wall = operatorStats.getAddInputWall().toMillis() + operatorStats.getGetOutputWall().toMillis() + operatorStats.getFinishWall().toMillis();
                 wallMillis.merge(planNodeId, wall, Long::sum);
+                partialAggregationBypassedPositions.merge(planNodeId, operatorStats.getPartialAggregationBypassedPositions(), Long::sum);
 
                 // An "internal" pipeline like a hash build, links to another pipeline which is the actual output for this plan node
                 if (operatorStats.getPlanNodeId().equals(inputPlanNode) && !pipelineStats.isInputPipeline()) {
@@ -256,7 +259,8 @@ public class PlanPrinter
 
             stats.add(new PlanNodeStats(planNodeId, new Duration(wallMillis.get(planNodeId), MILLISECONDS),
                     inputPositions.get(planNodeId), succinctDataSize(inputBytes.get(planNodeId), BYTE),
-                    outputPositions.get(planNodeId), succinctDataSize(outputBytes.get(planNodeId), BYTE)));
+                    outputPositions.get(planNodeId), succinctDataSize(outputBytes.get(planNodeId), BYTE),
+                    partialAggregationBypassedPositions.get(planNodeId)));
         }
         return stats;
     }
@@ -418,6 +422,20 @@ public class PlanPrinter
         output.append('\n');
     }
 
+    private void printPartialAggregationBypassed(int indent, PlanNodeId planNodeId)
+    {
+        if (!stats.isPresent()) {
+            return;
+        }
+
+        PlanNodeStats nodeStats = stats.get().get(planNodeId);
+        if (nodeStats == null || nodeStats.getPartialAggregationBypassedPositions() == 0) {
+            return;
+        }
+
+        print(indent, "Partial aggregation disabled, bypassed: %s", formatPositions(nodeStats.getPartialAggregationBypassedPositions()));
+    }
+
     private static String formatPositions(long positions)
     {
         if (positions == 1) {
@@ -464,7 +482,12 @@ public class PlanPrinter
                         new QualifiedNameReference(clause.getRight().toQualifiedName())));
             }
 
-            print(indent, "- %s[%s] => [%s]", node.getType().getJoinLabel(), Joiner.on(" AND ").join(joinExpressions), formatOutputs(node.getOutputSymbols()));
+            if (node.getMergeOrderings().isPresent()) {
+                print(indent, "- Merge%s[%s] => [%s]", node.getType().getJoinLabel(), Joiner.on(" AND ").join(joinExpressions), formatOutputs(node.getOutputSymbols()));
+            }
+            else {
+                print(indent, "- %s[%s] => [%s]", node.getType().getJoinLabel(), Joiner.on(" AND ").join(joinExpressions), formatOutputs(node.getOutputSymbols()));
+            }
             printStats(indent + 2, node.getId());
             node.getLeft().accept(this, indent + 1);
             node.getRight().accept(this, indent + 1);
@@ -539,7 +562,9 @@ public class PlanPrinter
             }
             String key = "";
             if (!node.getGroupBy().isEmpty()) {
-                key = node.getGroupBy().toString();
+                key = format("[%s]", node.getGroupBy().stream()
+                        .map(symbol -> node.getPreGroupedSymbols().contains(symbol) ? "<" + symbol + ">" : symbol.toString())
+                        .collect(Collectors.joining(", ")));
             }
             String sampleWeight = "";
             if (node.getSampleWeight().isPresent()) {
@@ -548,6 +573,7 @@ public class PlanPrinter
 
             print(indent, "- Aggregate%s%s%s => [%s]", type, key, sampleWeight, formatOutputs(node.getOutputSymbols()));
             printStats(indent + 2, node.getId());
+            printPartialAggregationBypassed(indent + 2, node.getId());
 
             for (Map.Entry<Symbol, FunctionCall> entry : node.getAggregations().entrySet()) {
                 if (node.getMasks().containsKey(entry.getKey())) {
@@ -569,6 +595,23 @@ public class PlanPrinter
             return processChildren(node, indent + 1);
         }
 
+        @Override
+        public Void visitGroupId(GroupIdNode node, Integer indent)
+        {
+            List<String> groupingSets = node.getGroupingSets().stream()
+                    .map(groupingSet -> "(" + Joiner.on(", ").join(groupingSet) + ")")
+                    .collect(toImmutableList());
+
+            print(indent, "- GroupId[%s] => [%s]", Joiner.on(", ").join(groupingSets), formatOutputs(node.getOutputSymbols()));
+            printStats(indent + 2, node.getId());
+
+            for (Map.Entry<Symbol, Symbol> entry : node.getGroupingColumns().entrySet()) {
+                print(indent + 2, "%s := %s", entry.getKey(), entry.getValue());
+            }
+
+            return processChildren(node, indent + 1);
+        }
+
         @Override
         public Void visitWindow(WindowNode node, Integer indent)
         {
@@ -1060,8 +1103,9 @@ public class PlanPrinter
         private final DataSize inputDataSize;
         private final long outputPositions;
         private final DataSize outputDataSize;
+        private final long partialAggregationBypassedPositions;
 
-        private PlanNodeStats(PlanNodeId planNodeId, Duration wallTime, long inputPositions, DataSize inputDataSize, long outputPositions, DataSize outputDataSize)
+        private PlanNodeStats(PlanNodeId planNodeId, Duration wallTime, long inputPositions, DataSize inputDataSize, long outputPositions, DataSize outputDataSize, long partialAggregationBypassedPositions)
         {
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
             this.wallTime = requireNonNull(wallTime, "wallTime is null");
@@ -1069,6 +1113,7 @@ public class PlanPrinter
             this.inputDataSize = inputDataSize;
             this.outputPositions = outputPositions;
             this.outputDataSize = outputDataSize;
+            this.partialAggregationBypassedPositions = partialAggregationBypassedPositions;
         }
 
         public PlanNodeId getPlanNodeId()
@@ -1101,6 +1146,11 @@ public class PlanPrinter
             return outputDataSize;
         }
 
+        public long getPartialAggregationBypassedPositions()
+        {
+            return partialAggregationBypassedPositions;
+        }
+
         public static PlanNodeStats merge(PlanNodeStats planNodeStats1, PlanNodeStats planNodeStats2)
         {
             checkArgument(planNodeStats1.getPlanNodeId().equals(planNodeStats2.getPlanNodeId()), "planNodeIds do not match. %s != %s", planNodeStats1.getPlanNodeId(), planNodeStats2.getPlanNodeId());
@@ -1115,7 +1165,8 @@ public class PlanPrinter
                     planNodeStats1.getPlanNodeId(),
                     new Duration(planNodeStats1.getWallTime().toMillis() + planNodeStats2.getWallTime().toMillis(), MILLISECONDS),
                     inputPositions, inputDataSize,
-                    outputPositions, outputDataSize);
+                    outputPositions, outputDataSize,
+                    planNodeStats1.partialAggregationBypassedPositions + planNodeStats2.partialAggregationBypassedPositions);
         }
     }
 }
@@ -20,6 +20,7 @@ import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -129,6 +130,20 @@ public final class PlanSanityChecker
             return null;
         }
 
+        @Override
+        public Void visitGroupId(GroupIdNode node, Void context)
+        {
+            PlanNode source = node.getSource();
+            source.accept(this, context); // visit child
+
+            verifyUniqueId(node);
+
+            checkDependencies(source.getOutputSymbols(), node.getGroupingColumns().values(), "Invalid node. Grouping columns (%s) not in source plan output (%s)", node.getGroupingColumns().values(), source.getOutputSymbols());
+            checkDependencies(source.getOutputSymbols(), node.getArgumentSymbols(), "Invalid node. Argument symbols (%s) not in source plan output (%s)", node.getArgumentSymbols(), source.getOutputSymbols());
+
+            return null;
+        }
+
         @Override
         public Void visitWindow(WindowNode node, Void context)
         {
@@ -29,6 +29,7 @@ import com.facebook.presto.sql.planner.plan.AggregationNode;
 import com.facebook.presto.sql.planner.plan.DeleteNode;
 import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.LimitNode;
 import com.facebook.presto.sql.planner.plan.MarkDistinctNode;
@@ -48,23 +49,30 @@ import com.facebook.presto.sql.tree.Expression;
 import com.facebook.presto.sql.tree.FrameBound;
 import com.facebook.presto.sql.tree.FunctionCall;
 import com.facebook.presto.sql.tree.InPredicate;
+import com.facebook.presto.sql.tree.LongLiteral;
 import com.facebook.presto.sql.tree.Node;
 import com.facebook.presto.sql.tree.QualifiedNameReference;
 import com.facebook.presto.sql.tree.Query;
 import com.facebook.presto.sql.tree.QuerySpecification;
+import com.facebook.presto.sql.tree.SimpleCaseExpression;
 import com.facebook.presto.sql.tree.SortItem;
 import com.facebook.presto.sql.tree.SortItem.NullOrdering;
 import com.facebook.presto.sql.tree.SortItem.Ordering;
 import com.facebook.presto.sql.tree.SubqueryExpression;
+import com.facebook.presto.sql.tree.WhenClause;
 import com.facebook.presto.sql.tree.Window;
 import com.facebook.presto.sql.tree.WindowFrame;
+import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -355,11 +363,11 @@ class QueryPlanner
             return subPlan;
         }
 
-        return aggregateGroupingSet(getOnlyElement(groupingSets), subPlan, node);
-    }
+        List<FieldOrExpression> groupingColumns = groupingSets.stream()
+                .flatMap(Collection::stream)
+                .distinct()
+                .collect(toImmutableList());
 
-    private PlanBuilder aggregateGroupingSet(List<FieldOrExpression> groupingSet, PlanBuilder subPlan, QuerySpecification node)
-    {
         List<FieldOrExpression> arguments = analysis.getAggregates(node).stream()
                 .map(FunctionCall::getArguments)
                 .flatMap(List::stream)
@@ -367,7 +375,7 @@ class QueryPlanner
                 .collect(toImmutableList());
 
         // 1. Pre-project all scalar inputs (arguments and non-trivial group by expressions)
-        Iterable<FieldOrExpression> inputs = Iterables.concat(groupingSet, arguments);
+        Iterable<FieldOrExpression> inputs = Iterables.concat(groupingColumns, arguments);
 
         subPlan = handleSubqueries(subPlan, node, inputs);
 
@@ -400,13 +408,56 @@ class QueryPlanner
 
         // 2.b. Rewrite group by expressions in terms of pre-projected inputs
         Set<Symbol> groupBySymbols = new LinkedHashSet<>();
-        for (FieldOrExpression fieldOrExpression : groupingSet) {
+        for (FieldOrExpression fieldOrExpression : groupingColumns) {
             Symbol symbol = subPlan.translate(fieldOrExpression);
             groupBySymbols.add(symbol);
             translations.put(fieldOrExpression, symbol);
         }
 
-        // 2.c. Mark distinct rows for each aggregate that has DISTINCT
+        // 2.c. Replicate the input once per grouping set, so a single aggregation computes all of them.
+        // The aggregates keep reading the original columns, while the aggregation groups on copies of
+        // the grouping columns that are nulled out in the rows of the grouping sets that do not contain them
+        PlanBuilder preAggregationPlan = subPlan;
+        Optional<Symbol> groupIdSymbol = Optional.empty();
+        if (groupingSets.size() > 1) {
+            Map<Symbol, Symbol> groupingColumnCopies = new LinkedHashMap<>();
+            for (Symbol symbol : groupBySymbols) {
+                groupingColumnCopies.put(symbol, symbolAllocator.newSymbol(symbol.getName(), symbolAllocator.getTypes().get(symbol)));
+            }
+
+            ImmutableList.Builder<List<Symbol>> groupingSetSymbols = ImmutableList.builder();
+            for (List<FieldOrExpression> groupingSet : groupingSets) {
+                groupingSetSymbols.add(groupingSet.stream()
+                        .map(preAggregationPlan::translate)
+                        .map(groupingColumnCopies::get)
+                        .distinct()
+                        .collect(toImmutableList()));
+            }
+
+            Set<Symbol> argumentSymbols = new LinkedHashSet<>();
+            for (FieldOrExpression argument : arguments) {
+                argumentSymbols.add(preAggregationPlan.translate(argument));
+            }
+            preAggregationPlan.getSampleWeight().ifPresent(argumentSymbols::add);
+
+            groupIdSymbol = Optional.of(symbolAllocator.newSymbol("groupId", BIGINT));
+            GroupIdNode groupIdNode = new GroupIdNode(
+                    idAllocator.getNextId(),
+                    subPlan.getRoot(),
+                    groupingSetSymbols.build(),
+                    ImmutableBiMap.copyOf(groupingColumnCopies).inverse(),
+                    ImmutableList.copyOf(argumentSymbols),
+                    groupIdSymbol.get());
+            subPlan = new PlanBuilder(subPlan.getTranslations(), groupIdNode, subPlan.getSampleWeight());
+
+            for (FieldOrExpression fieldOrExpression : groupingColumns) {
+                translations.put(fieldOrExpression, groupingColumnCopies.get(preAggregationPlan.translate(fieldOrExpression)));
+            }
+            groupBySymbols = new LinkedHashSet<>(groupingColumnCopies.values());
+            groupBySymbols.add(groupIdSymbol.get());
+        }
+
+        // 2.d. Mark distinct rows for each aggregate that has DISTINCT
         // Map from aggregate function arguments to marker symbols, so that we can reuse the markers, if two aggregates have the same argument
         Map<Set<Expression>, Symbol> argumentMarkers = new HashMap<>();
         // Map from aggregate functions to marker symbols
@@ -462,14 +513,71 @@ class QueryPlanner
         subPlan = new PlanBuilder(translations, aggregationNode, Optional.empty());
 
         // 3. Post-projection
+        // Compute grouping() from the grouping set of each row
+        List<FunctionCall> groupingOperations = analysis.getGroupingOperations(node);
+        if (!groupingOperations.isEmpty()) {
+            ImmutableMap.Builder<Symbol, Expression> projections = ImmutableMap.builder();
+            for (Symbol symbol : aggregationNode.getOutputSymbols()) {
+                projections.put(symbol, new QualifiedNameReference(symbol.toQualifiedName()));
+            }
+            for (FunctionCall groupingOperation : groupingOperations) {
+                Symbol symbol = symbolAllocator.newSymbol(groupingOperation, BIGINT);
+                projections.put(symbol, groupingOperation(groupingOperation, groupingSets, preAggregationPlan, groupIdSymbol));
+                translations.put(groupingOperation, symbol);
+
+                // see the coercion hack for aggregates above
+                if (analysis.getCoercion(groupingOperation) != null) {
+                    needPostProjectionCoercion = true;
+                }
+            }
+            subPlan = new PlanBuilder(translations, new ProjectNode(idAllocator.getNextId(), aggregationNode, projections.build()), Optional.empty());
+        }
+
         // Add back the implicit casts that we removed in 2.a
         // TODO: this is a hack, we should change type coercions to coerce the inputs to functions/operators instead of coercing the output
         if (needPostProjectionCoercion) {
-            return explicitCoercionFields(subPlan, groupingSet, analysis.getAggregates(node));
+            return explicitCoercionFields(subPlan, groupingColumns, Iterables.concat(analysis.getAggregates(node), groupingOperations));
         }
         return subPlan;
     }
 
+    /**
+     * grouping() returns a bit mask with a bit set for each argument that is not part of the
+     * grouping set of the row, with the first argument as the most significant bit.
+     */
+    private static Expression groupingOperation(FunctionCall groupingOperation, List<List<FieldOrExpression>> groupingSets, PlanBuilder subPlan, Optional<Symbol> groupIdSymbol)
+    {
+        List<Symbol> arguments = groupingOperation.getArguments().stream()
+                .map(subPlan::translate)
+                .collect(toImmutableList());
+
+        List<Expression> masks = new ArrayList<>();
+        for (List<FieldOrExpression> groupingSet : groupingSets) {
+            Set<Symbol> groupingSetSymbols = groupingSet.stream()
+                    .map(subPlan::translate)
+                    .collect(toImmutableSet());
+
+            long mask = 0;
+            for (Symbol argument : arguments) {
+                mask <<= 1;
+                if (!groupingSetSymbols.contains(argument)) {
+                    mask |= 1;
+                }
+            }
+            masks.add(new LongLiteral(String.valueOf(mask)));
+        }
+
+        if (!groupIdSymbol.isPresent()) {
+            return getOnlyElement(masks);
+        }
+
+        ImmutableList.Builder<WhenClause> whenClauses = ImmutableList.builder();
+        for (int groupId = 0; groupId < masks.size(); groupId++) {
+            whenClauses.add(new WhenClause(new LongLiteral(String.valueOf(groupId)), masks.get(groupId)));
+        }
+        return new SimpleCaseExpression(new QualifiedNameReference(groupIdSymbol.get().toQualifiedName()), whenClauses.build(), Optional.empty());
+    }
+
     private PlanBuilder window(PlanBuilder subPlan, QuerySpecification node)
     {
         Set<FunctionCall> windowFunctions = ImmutableSet.copyOf(analysis.getWindowFunctions(node));
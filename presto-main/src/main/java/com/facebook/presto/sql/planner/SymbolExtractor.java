@@ -20,6 +20,7 @@ import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -115,6 +116,17 @@ public final class SymbolExtractor
             return null;
         }
 
+        @Override
+        public Void visitGroupId(GroupIdNode node, Void context)
+        {
+            node.getSource().accept(this, context);
+
+            builder.addAll(node.getGroupingColumns().keySet());
+            builder.add(node.getGroupIdSymbol());
+
+            return null;
+        }
+
         @Override
         public Void visitWindow(WindowNode node, Void context)
         {
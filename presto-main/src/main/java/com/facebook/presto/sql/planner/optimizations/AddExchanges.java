@@ -15,6 +15,8 @@ package com.facebook.presto.sql.planner.optimizations;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.SystemSessionProperties;
+import com.facebook.presto.cost.StatsCalculator;
+import com.facebook.presto.cost.StatsCalculator.StatsProvider;
 import com.facebook.presto.metadata.FunctionRegistry;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.Signature;
@@ -25,8 +27,10 @@ import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.GroupingProperty;
 import com.facebook.presto.spi.LocalProperty;
 import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.predicate.NullableValue;
 import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.Estimate;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.parser.SqlParser;
 import com.facebook.presto.sql.planner.DomainTranslator;
@@ -45,6 +49,7 @@ import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -132,11 +137,13 @@ public class AddExchanges
 {
     private final SqlParser parser;
     private final Metadata metadata;
+    private final StatsCalculator statsCalculator;
 
     public AddExchanges(Metadata metadata, SqlParser parser)
     {
         this.metadata = metadata;
         this.parser = parser;
+        this.statsCalculator = new StatsCalculator(metadata);
     }
 
     @Override
@@ -146,7 +153,8 @@ public class AddExchanges
         boolean distributedIndexJoinEnabled = SystemSessionProperties.isDistributedIndexJoinEnabled(session);
         boolean redistributeWrites = SystemSessionProperties.isRedistributeWrites(session);
         boolean preferStreamingOperators = SystemSessionProperties.preferStreamingOperators(session);
-        PlanWithProperties result = plan.accept(new Rewriter(symbolAllocator, idAllocator, symbolAllocator, session, distributedIndexJoinEnabled, distributedJoinEnabled, preferStreamingOperators, redistributeWrites), new Context(PreferredProperties.any(), false));
+        long joinMaxBroadcastRows = SystemSessionProperties.getJoinMaxBroadcastRows(session);
+        PlanWithProperties result = plan.accept(new Rewriter(symbolAllocator, idAllocator, symbolAllocator, session, distributedIndexJoinEnabled, distributedJoinEnabled, joinMaxBroadcastRows, preferStreamingOperators, redistributeWrites), new Context(PreferredProperties.any(), false));
         return result.getNode();
     }
 
@@ -193,10 +201,12 @@ public class AddExchanges
         private final Session session;
         private final boolean distributedIndexJoins;
         private final boolean distributedJoins;
+        private final long joinMaxBroadcastRows;
         private final boolean preferStreamingOperators;
         private final boolean redistributeWrites;
+        private final StatsProvider statsProvider;
 
-        public Rewriter(SymbolAllocator allocator, PlanNodeIdAllocator idAllocator, SymbolAllocator symbolAllocator, Session session, boolean distributedIndexJoins, boolean distributedJoins, boolean preferStreamingOperators, boolean redistributeWrites)
+        public Rewriter(SymbolAllocator allocator, PlanNodeIdAllocator idAllocator, SymbolAllocator symbolAllocator, Session session, boolean distributedIndexJoins, boolean distributedJoins, long joinMaxBroadcastRows, boolean preferStreamingOperators, boolean redistributeWrites)
         {
             this.allocator = allocator;
             this.idAllocator = idAllocator;
@@ -204,8 +214,10 @@ public class AddExchanges
             this.session = session;
             this.distributedIndexJoins = distributedIndexJoins;
             this.distributedJoins = distributedJoins;
+            this.joinMaxBroadcastRows = joinMaxBroadcastRows;
             this.preferStreamingOperators = preferStreamingOperators;
             this.redistributeWrites = redistributeWrites;
+            this.statsProvider = statsCalculator.createStatsProvider(session, symbolAllocator.getTypes());
         }
 
         @Override
@@ -275,7 +287,7 @@ public class AddExchanges
 
             if (child.getProperties().isSingleNode()) {
                 // If already unpartitioned, just drop the single aggregation back on
-                return rebaseAndDeriveProperties(node, child);
+                return rebaseAndDeriveProperties(withPreGroupedSymbols(node, child.getProperties()), child);
             }
 
             if (node.getGroupBy().isEmpty()) {
@@ -292,7 +304,7 @@ public class AddExchanges
             }
             else {
                 if (child.getProperties().isNodePartitionedOn(node.getGroupBy())) {
-                    return rebaseAndDeriveProperties(node, child);
+                    return rebaseAndDeriveProperties(withPreGroupedSymbols(node, child.getProperties()), child);
                 }
                 else {
                     if (decomposable) {
@@ -316,6 +328,39 @@ public class AddExchanges
             }
         }
 
+        private AggregationNode withPreGroupedSymbols(AggregationNode node, ActualProperties childProperties)
+        {
+            return new AggregationNode(
+                    node.getId(),
+                    node.getSource(),
+                    node.getGroupBy(),
+                    node.getAggregations(),
+                    node.getFunctions(),
+                    node.getMasks(),
+                    node.getStep(),
+                    node.getSampleWeight(),
+                    node.getConfidence(),
+                    node.getHashSymbol(),
+                    getPreGroupedSymbols(node.getGroupBy(), childProperties));
+        }
+
+        /**
+         * Returns the group by symbols on which the input of the aggregation is already
+         * grouped, which allows to aggregate the input as it streams when all of them are.
+         */
+        private Set<Symbol> getPreGroupedSymbols(List<Symbol> groupBy, ActualProperties childProperties)
+        {
+            if (groupBy.isEmpty()) {
+                return ImmutableSet.of();
+            }
+
+            Optional<LocalProperty<Symbol>> groupingRequirement = getOnlyElement(LocalProperties.match(childProperties.getLocalProperties(), grouped(groupBy)));
+            Set<Symbol> unGroupedInputs = groupingRequirement.map(LocalProperty::getColumns).orElse(ImmutableSet.of());
+            return groupBy.stream()
+                    .filter(symbol -> !unGroupedInputs.contains(symbol))
+                    .collect(toImmutableSet());
+        }
+
         @NotNull
         private PlanWithProperties splitAggregation(AggregationNode node, PlanWithProperties newChild, Function<PlanNode, PlanNode> exchanger)
         {
@@ -352,7 +397,8 @@ public class AddExchanges
                             PARTIAL,
                             node.getSampleWeight(),
                             node.getConfidence(),
-                            node.getHashSymbol()),
+                            node.getHashSymbol(),
+                            getPreGroupedSymbols(node.getGroupBy(), newChild.getProperties())),
                     newChild.getProperties());
 
             PlanNode source = partial.getNode();
@@ -395,6 +441,27 @@ public class AddExchanges
             return rebaseAndDeriveProperties(node, child);
         }
 
+        @Override
+        public PlanWithProperties visitGroupId(GroupIdNode node, Context context)
+        {
+            // only the grouping columns that are part of every grouping set and the pass-through columns
+            // can be partitioned on below this node; the aggregation above is split into a partial
+            // aggregation on top of this node, so the replicated rows are reduced before the exchange
+            Map<Symbol, Symbol> commonGroupingColumns = node.getCommonGroupingColumns();
+            Set<Symbol> passThroughInputs = ImmutableSet.copyOf(node.getArgumentSymbols());
+            PreferredProperties translatedPreferred = context.getPreferredProperties().translate(symbol -> {
+                if (commonGroupingColumns.containsKey(symbol)) {
+                    return Optional.of(commonGroupingColumns.get(symbol));
+                }
+                if (passThroughInputs.contains(symbol)) {
+                    return Optional.of(symbol);
+                }
+                return Optional.empty();
+            });
+
+            return rebaseAndDeriveProperties(node, planChild(node, context.withPreferredProperties(translatedPreferred)));
+        }
+
         @Override
         public PlanWithProperties visitWindow(WindowNode node, Context context)
         {
@@ -596,7 +663,7 @@ public class AddExchanges
         @Override
         public PlanWithProperties visitFilter(FilterNode node, Context context)
         {
-            if (node.getSource() instanceof TableScanNode) {
+            if (node.getSource() instanceof TableScanNode && !((TableScanNode) node.getSource()).getLayout().isPresent()) {
                 return planTableScan((TableScanNode) node.getSource(), node.getPredicate(), context);
             }
 
@@ -606,6 +673,11 @@ public class AddExchanges
         @Override
         public PlanWithProperties visitTableScan(TableScanNode node, Context context)
         {
+            if (node.getLayout().isPresent()) {
+                // the layout was chosen when an operation was pushed into the connector
+                return new PlanWithProperties(node, deriveProperties(node, ImmutableList.of()));
+            }
+
             return planTableScan(node, BooleanLiteral.TRUE_LITERAL, context);
         }
 
@@ -803,13 +875,14 @@ public class AddExchanges
 
             boolean isCrossJoin = type == INNER && leftSymbols.isEmpty();
             boolean joinWithNonScalar = node.getRight().accept(new IsScalarPlanVisitor(), null);
-            if ((distributedJoins && !isCrossJoin && !joinWithNonScalar) || type == FULL || type == RIGHT) {
+            boolean distributedJoin = isDistributedJoin(node);
+            if ((distributedJoin && !isCrossJoin && !joinWithNonScalar) || type == FULL || type == RIGHT) {
                 // The implementation of full outer join only works if the data is hash partitioned. See LookupJoinOperators#buildSideOuterJoinUnvisitedPositions
 
                 left = node.getLeft().accept(this, context.withPreferredProperties(PreferredProperties.hashPartitioned(leftSymbols)));
                 right = node.getRight().accept(this, context.withPreferredProperties(PreferredProperties.hashPartitioned(rightSymbols)));
 
-                if (!left.getProperties().isNodePartitionedOn(leftSymbols) || (distributedJoins && left.getProperties().isSingleNode())) {
+                if (!left.getProperties().isNodePartitionedOn(leftSymbols) || (distributedJoin && left.getProperties().isSingleNode())) {
                     left = withDerivedProperties(
                             partitionedExchange(idAllocator.getNextId(), left.getNode(), leftSymbols, node.getLeftHashSymbol()),
                             left.getProperties());
@@ -877,10 +950,88 @@ public class AddExchanges
                     node.getCriteria(),
                     node.getLeftHashSymbol(),
                     node.getRightHashSymbol());
+            Optional<JoinNode> mergeJoin = planMergeJoin(result, left.getProperties(), right.getProperties());
+            if (mergeJoin.isPresent()) {
+                result = mergeJoin.get();
+            }
 
             return new PlanWithProperties(result, deriveProperties(result, ImmutableList.of(left.getProperties(), right.getProperties())));
         }
 
+        /**
+         * Plans the join as a merge join if both sides are single streams that are sorted
+         * on the join keys in the same order. The criteria are reordered to match the sort.
+         */
+        private Optional<JoinNode> planMergeJoin(JoinNode node, ActualProperties left, ActualProperties right)
+        {
+            List<JoinNode.EquiJoinClause> criteria = node.getCriteria();
+            if (!SystemSessionProperties.isMergeJoinEnabled(session) || criteria.isEmpty() || !left.isEffectivelySingleStream() || !right.isEffectivelySingleStream()) {
+                return Optional.empty();
+            }
+
+            Map<Symbol, JoinNode.EquiJoinClause> clausesByLeft = new HashMap<>();
+            for (JoinNode.EquiJoinClause clause : criteria) {
+                if (clausesByLeft.put(clause.getLeft(), clause) != null) {
+                    return Optional.empty();
+                }
+            }
+
+            List<SortingProperty<Symbol>> leftSorting = getLeadingSortingProperties(left, criteria.size());
+            List<SortingProperty<Symbol>> rightSorting = getLeadingSortingProperties(right, criteria.size());
+            if (leftSorting.size() < criteria.size() || rightSorting.size() < criteria.size()) {
+                return Optional.empty();
+            }
+
+            ImmutableList.Builder<JoinNode.EquiJoinClause> sortedCriteria = ImmutableList.builder();
+            ImmutableList.Builder<SortOrder> orderings = ImmutableList.builder();
+            for (int i = 0; i < criteria.size(); i++) {
+                JoinNode.EquiJoinClause clause = clausesByLeft.get(leftSorting.get(i).getColumn());
+                if (clause == null ||
+                        !clause.getRight().equals(rightSorting.get(i).getColumn()) ||
+                        leftSorting.get(i).getOrder() != rightSorting.get(i).getOrder()) {
+                    return Optional.empty();
+                }
+                sortedCriteria.add(clause);
+                orderings.add(leftSorting.get(i).getOrder());
+            }
+
+            return Optional.of(new JoinNode(
+                    node.getId(),
+                    node.getType(),
+                    node.getLeft(),
+                    node.getRight(),
+                    sortedCriteria.build(),
+                    node.getLeftHashSymbol(),
+                    node.getRightHashSymbol(),
+                    Optional.of(orderings.build())));
+        }
+
+        private List<SortingProperty<Symbol>> getLeadingSortingProperties(ActualProperties properties, int limit)
+        {
+            ImmutableList.Builder<SortingProperty<Symbol>> sortingProperties = ImmutableList.builder();
+            int count = 0;
+            for (LocalProperty<Symbol> property : LocalProperties.normalizeAndPrune(properties.getLocalProperties())) {
+                if (count == limit || !(property instanceof SortingProperty)) {
+                    break;
+                }
+                sortingProperties.add((SortingProperty<Symbol>) property);
+                count++;
+            }
+            return sortingProperties.build();
+        }
+
+        private boolean isDistributedJoin(JoinNode node)
+        {
+            if (joinMaxBroadcastRows > 0) {
+                // broadcast the build side if it is known to be small, and partition both sides if it is known to be large
+                Estimate buildRows = statsProvider.getStats(node.getRight()).getOutputRowCount();
+                if (!buildRows.isValueUnknown()) {
+                    return buildRows.getValue() > joinMaxBroadcastRows;
+                }
+            }
+            return distributedJoins;
+        }
+
         @Override
         public PlanWithProperties visitUnnest(UnnestNode node, Context context)
         {
@@ -0,0 +1,342 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.ResolvedAggregation;
+import com.facebook.presto.metadata.TableLayoutHandle;
+import com.facebook.presto.metadata.TableLayoutResult;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorAggregation;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.DeterminismEvaluator;
+import com.facebook.presto.sql.planner.DomainTranslator;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.sql.tree.BooleanLiteral;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.QualifiedNameReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.SINGLE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Offers aggregations, limits and top N over a table scan to the connector, so that
+ * they can be computed by the data source. The table scan gets the layout returned
+ * by the connector. Limits and top N are still applied to the result of the scan,
+ * because the connector only limits the rows of each split.
+ * <p>
+ * This must run before AddExchanges, which keeps the layouts chosen here.
+ */
+public class ConnectorPushDown
+        extends PlanOptimizer
+{
+    private final Metadata metadata;
+
+    public ConnectorPushDown(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, Map<Symbol, Type> types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+    {
+        return SimplePlanRewriter.rewriteWith(new Rewriter(metadata, session, symbolAllocator, idAllocator), plan);
+    }
+
+    private static class Rewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final Metadata metadata;
+        private final Session session;
+        private final SymbolAllocator symbolAllocator;
+        private final PlanNodeIdAllocator idAllocator;
+
+        public Rewriter(Metadata metadata, Session session, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+        {
+            this.metadata = metadata;
+            this.session = session;
+            this.symbolAllocator = symbolAllocator;
+            this.idAllocator = idAllocator;
+        }
+
+        @Override
+        public PlanNode visitAggregation(AggregationNode node, RewriteContext<Void> context)
+        {
+            if (node.getStep() != SINGLE || !node.getMasks().isEmpty() || node.getSampleWeight().isPresent()) {
+                return context.defaultRewrite(node);
+            }
+
+            Optional<ScanSource> source = getScanSource(node.getSource());
+            if (!source.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+            TableScanNode tableScan = source.get().getTableScan();
+
+            ImmutableList.Builder<ColumnHandle> groupingColumns = ImmutableList.builder();
+            for (Symbol symbol : node.getGroupBy()) {
+                Optional<ColumnHandle> column = source.get().getColumn(symbol);
+                if (!column.isPresent()) {
+                    return context.defaultRewrite(node);
+                }
+                groupingColumns.add(column.get());
+            }
+            List<ColumnHandle> grouping = groupingColumns.build();
+            if (ImmutableSet.copyOf(grouping).size() != grouping.size()) {
+                // the assignments of a table scan must be unique
+                return context.defaultRewrite(node);
+            }
+
+            List<Symbol> aggregationSymbols = ImmutableList.copyOf(node.getAggregations().keySet());
+            ImmutableList.Builder<ConnectorAggregation> aggregations = ImmutableList.builder();
+            for (Symbol symbol : aggregationSymbols) {
+                FunctionCall call = node.getAggregations().get(symbol);
+                if (call.isDistinct() || call.getWindow().isPresent() || call.getArguments().size() > 1) {
+                    return context.defaultRewrite(node);
+                }
+                Optional<ColumnHandle> argument = Optional.empty();
+                if (!call.getArguments().isEmpty()) {
+                    Expression expression = call.getArguments().get(0);
+                    if (!(expression instanceof QualifiedNameReference)) {
+                        return context.defaultRewrite(node);
+                    }
+                    argument = source.get().getColumn(Symbol.fromQualifiedName(((QualifiedNameReference) expression).getName()));
+                    if (!argument.isPresent()) {
+                        return context.defaultRewrite(node);
+                    }
+                }
+                aggregations.add(new ConnectorAggregation(node.getFunctions().get(symbol).getName(), argument, symbolAllocator.getTypes().get(symbol)));
+            }
+
+            Optional<ResolvedAggregation> resolved = metadata.pushDownAggregation(session, tableScan.getLayout().get(), grouping, aggregations.build());
+            if (!resolved.isPresent()) {
+                return context.defaultRewrite(node);
+            }
+
+            ImmutableList.Builder<Symbol> outputs = ImmutableList.builder();
+            ImmutableMap.Builder<Symbol, ColumnHandle> assignments = ImmutableMap.builder();
+            for (int i = 0; i < node.getGroupBy().size(); i++) {
+                outputs.add(node.getGroupBy().get(i));
+                assignments.put(node.getGroupBy().get(i), grouping.get(i));
+            }
+            for (int i = 0; i < aggregationSymbols.size(); i++) {
+                outputs.add(aggregationSymbols.get(i));
+                assignments.put(aggregationSymbols.get(i), resolved.get().getAggregationColumns().get(i));
+            }
+
+            // the groups still satisfy the constraint on the grouping columns
+            TupleDomain<ColumnHandle> currentConstraint = tableScan.getCurrentConstraint()
+                    .transform(column -> grouping.contains(column) ? column : null);
+
+            return new TableScanNode(
+                    idAllocator.getNextId(),
+                    tableScan.getTable(),
+                    outputs.build(),
+                    assignments.build(),
+                    Optional.of(resolved.get().getLayoutHandle()),
+                    currentConstraint,
+                    null);
+        }
+
+        @Override
+        public PlanNode visitLimit(LimitNode node, RewriteContext<Void> context)
+        {
+            PlanNode source = context.rewrite(node.getSource());
+            PlanNode result = pushDownLimit(source, ImmutableList.of(), ImmutableMap.of(), node.getCount()).orElse(source);
+            return new LimitNode(node.getId(), result, node.getCount());
+        }
+
+        @Override
+        public PlanNode visitTopN(TopNNode node, RewriteContext<Void> context)
+        {
+            PlanNode source = context.rewrite(node.getSource());
+            PlanNode result = source;
+            if (!node.isPartial()) {
+                result = pushDownLimit(source, node.getOrderBy(), node.getOrderings(), node.getCount()).orElse(source);
+            }
+            return new TopNNode(node.getId(), result, node.getCount(), node.getOrderBy(), node.getOrderings(), node.isPartial());
+        }
+
+        private Optional<PlanNode> pushDownLimit(PlanNode node, List<Symbol> orderBy, Map<Symbol, SortOrder> orderings, long limit)
+        {
+            Optional<ScanSource> source = getScanSource(node);
+            if (!source.isPresent()) {
+                return Optional.empty();
+            }
+            TableScanNode tableScan = source.get().getTableScan();
+
+            ImmutableList.Builder<SortingProperty<ColumnHandle>> sortOrder = ImmutableList.builder();
+            for (Symbol symbol : orderBy) {
+                Optional<ColumnHandle> column = source.get().getColumn(symbol);
+                if (!column.isPresent()) {
+                    return Optional.empty();
+                }
+                sortOrder.add(new SortingProperty<>(column.get(), orderings.get(symbol)));
+            }
+
+            Optional<TableLayoutHandle> layout = metadata.pushDownLimit(session, tableScan.getLayout().get(), sortOrder.build(), limit);
+            if (!layout.isPresent()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(source.get().replaceTableScan(new TableScanNode(
+                    tableScan.getId(),
+                    tableScan.getTable(),
+                    tableScan.getOutputSymbols(),
+                    tableScan.getAssignments(),
+                    layout,
+                    tableScan.getCurrentConstraint(),
+                    tableScan.getOriginalConstraint())));
+        }
+
+        /**
+         * Matches a table scan with an optional filter and an optional projection on top. The
+         * filter must be fully enforced by the layout of the table scan, because the operation
+         * that is pushed down is computed on the rows of the layout.
+         */
+        private Optional<ScanSource> getScanSource(PlanNode node)
+        {
+            Optional<ProjectNode> project = Optional.empty();
+            if (node instanceof ProjectNode) {
+                project = Optional.of((ProjectNode) node);
+                node = ((ProjectNode) node).getSource();
+            }
+
+            Expression predicate = BooleanLiteral.TRUE_LITERAL;
+            if (node instanceof FilterNode) {
+                predicate = ((FilterNode) node).getPredicate();
+                node = ((FilterNode) node).getSource();
+            }
+
+            if (!(node instanceof TableScanNode)) {
+                return Optional.empty();
+            }
+            return pickEnforcingLayout((TableScanNode) node, predicate)
+                    .map(tableScan -> new ScanSource(project, tableScan));
+        }
+
+        private Optional<TableScanNode> pickEnforcingLayout(TableScanNode node, Expression predicate)
+        {
+            if (node.getLayout().isPresent()) {
+                // the layout was chosen by a previous push down
+                return BooleanLiteral.TRUE_LITERAL.equals(predicate) ? Optional.of(node) : Optional.empty();
+            }
+            // the layouts are only computed for connectors that can accept a push down, since
+            // computing them can be expensive and AddExchanges computes them again otherwise
+            if (!metadata.supportsPushDown(session, node.getTable()) || !DeterminismEvaluator.isDeterministic(predicate)) {
+                return Optional.empty();
+            }
+
+            DomainTranslator.ExtractionResult decomposedPredicate = DomainTranslator.fromPredicate(
+                    metadata,
+                    session,
+                    predicate,
+                    symbolAllocator.getTypes());
+            if (!BooleanLiteral.TRUE_LITERAL.equals(decomposedPredicate.getRemainingExpression())) {
+                return Optional.empty();
+            }
+
+            TupleDomain<ColumnHandle> simplifiedConstraint = decomposedPredicate.getTupleDomain()
+                    .transform(node.getAssignments()::get)
+                    .intersect(node.getCurrentConstraint());
+
+            List<TableLayoutResult> layouts = metadata.getLayouts(
+                    session, node.getTable(),
+                    new Constraint<>(simplifiedConstraint, bindings -> true),
+                    Optional.of(ImmutableSet.copyOf(node.getAssignments().values())));
+
+            // an empty table is left to the other optimizers
+            if (layouts.isEmpty() || !layouts.get(0).getUnenforcedConstraint().isAll()) {
+                return Optional.empty();
+            }
+            TableLayoutResult layout = layouts.get(0);
+
+            return Optional.of(new TableScanNode(
+                    node.getId(),
+                    node.getTable(),
+                    node.getOutputSymbols(),
+                    node.getAssignments(),
+                    Optional.of(layout.getLayout().getHandle()),
+                    simplifiedConstraint.intersect(layout.getLayout().getPredicate()),
+                    Optional.ofNullable(node.getOriginalConstraint()).orElse(predicate)));
+        }
+    }
+
+    private static class ScanSource
+    {
+        private final Optional<ProjectNode> project;
+        private final TableScanNode tableScan;
+
+        public ScanSource(Optional<ProjectNode> project, TableScanNode tableScan)
+        {
+            this.project = project;
+            this.tableScan = tableScan;
+        }
+
+        public TableScanNode getTableScan()
+        {
+            return tableScan;
+        }
+
+        /**
+         * Returns the column of the table scan for a symbol that is produced
+         * by the source, if the symbol is a reference to the column.
+         */
+        public Optional<ColumnHandle> getColumn(Symbol symbol)
+        {
+            if (project.isPresent()) {
+                Expression expression = project.get().getAssignments().get(symbol);
+                if (!(expression instanceof QualifiedNameReference)) {
+                    return Optional.empty();
+                }
+                symbol = Symbol.fromQualifiedName(((QualifiedNameReference) expression).getName());
+            }
+            return Optional.ofNullable(tableScan.getAssignments().get(symbol));
+        }
+
+        /**
+         * Returns the source with the table scan replaced, and without the filter,
+         * which is enforced by the layout of the table scan.
+         */
+        public PlanNode replaceTableScan(TableScanNode replacement)
+        {
+            if (project.isPresent()) {
+                return new ProjectNode(project.get().getId(), replacement, project.get().getAssignments());
+            }
+            return replacement;
+        }
+    }
+}
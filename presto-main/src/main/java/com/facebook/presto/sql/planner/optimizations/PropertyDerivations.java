@@ -38,6 +38,7 @@ import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -151,6 +152,34 @@ class PropertyDerivations
             return Iterables.getOnlyElement(inputProperties);
         }
 
+        @Override
+        public ActualProperties visitGroupId(GroupIdNode node, List<ActualProperties> inputProperties)
+        {
+            Map<Symbol, Symbol> commonGroupingColumns = new HashMap<>();
+            for (Map.Entry<Symbol, Symbol> entry : node.getCommonGroupingColumns().entrySet()) {
+                commonGroupingColumns.putIfAbsent(entry.getValue(), entry.getKey());
+            }
+            Set<Symbol> passThroughInputs = ImmutableSet.copyOf(node.getArgumentSymbols());
+
+            // a grouping column is null in the rows of the grouping sets that do not contain it, so it
+            // only keeps the partitioning and constant properties of its source when it is part of
+            // every grouping set; the input is replicated one page at a time, which breaks any
+            // grouping or ordering
+            ActualProperties translated = Iterables.getOnlyElement(inputProperties).translate(column -> {
+                if (commonGroupingColumns.containsKey(column)) {
+                    return Optional.of(commonGroupingColumns.get(column));
+                }
+                if (passThroughInputs.contains(column)) {
+                    return Optional.of(column);
+                }
+                return Optional.empty();
+            });
+
+            return ActualProperties.builderFrom(translated)
+                    .local(ImmutableList.of())
+                    .build();
+        }
+
         @Override
         public ActualProperties visitWindow(WindowNode node, List<ActualProperties> inputProperties)
         {
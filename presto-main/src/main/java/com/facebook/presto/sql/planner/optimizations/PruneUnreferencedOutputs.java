@@ -29,6 +29,7 @@ import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -189,7 +190,7 @@ public class PruneUnreferencedOutputs
             PlanNode left = context.rewrite(node.getLeft(), leftInputs);
             PlanNode right = context.rewrite(node.getRight(), rightInputs);
 
-            return new JoinNode(node.getId(), node.getType(), left, right, node.getCriteria(), node.getLeftHashSymbol(), node.getRightHashSymbol());
+            return new JoinNode(node.getId(), node.getType(), left, right, node.getCriteria(), node.getLeftHashSymbol(), node.getRightHashSymbol(), node.getMergeOrderings());
         }
 
         @Override
@@ -310,7 +311,8 @@ public class PruneUnreferencedOutputs
                     node.getStep(),
                     node.getSampleWeight(),
                     node.getConfidence(),
-                    node.getHashSymbol());
+                    node.getHashSymbol(),
+                    node.getPreGroupedSymbols());
         }
 
         @Override
@@ -417,6 +419,22 @@ public class PruneUnreferencedOutputs
             return new MarkDistinctNode(node.getId(), source, node.getMarkerSymbol(), node.getDistinctSymbols(), node.getHashSymbol());
         }
 
+        @Override
+        public PlanNode visitGroupId(GroupIdNode node, RewriteContext<Set<Symbol>> context)
+        {
+            List<Symbol> argumentSymbols = node.getArgumentSymbols().stream()
+                    .filter(context.get()::contains)
+                    .collect(toImmutableList());
+
+            ImmutableSet.Builder<Symbol> expectedInputs = ImmutableSet.<Symbol>builder()
+                    .addAll(node.getGroupingColumns().values())
+                    .addAll(argumentSymbols);
+
+            PlanNode source = context.rewrite(node.getSource(), expectedInputs.build());
+
+            return new GroupIdNode(node.getId(), source, node.getGroupingSets(), node.getGroupingColumns(), argumentSymbols, node.getGroupIdSymbol());
+        }
+
         @Override
         public PlanNode visitUnnest(UnnestNode node, RewriteContext<Set<Symbol>> context)
         {
@@ -0,0 +1,226 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.cost.PlanNodeStatsEstimate;
+import com.facebook.presto.cost.StatsCalculator;
+import com.facebook.presto.cost.StatsCalculator.StatsProvider;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.tree.Expression;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.SystemSessionProperties.isReorderJoins;
+import static com.facebook.presto.cost.StatsCalculator.estimateInnerJoin;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reorders trees of inner equi-joins using the estimated size of their sources.
+ * <p>
+ * The joins are rebuilt as a left-deep tree. The largest source is used as the probe side
+ * of the bottom join, and the source that produces the smallest intermediate result is
+ * joined next, so that the build sides are as small as possible. Sources are only joined
+ * when there is a join clause between them, so no cross joins are introduced. If the size
+ * of any source can not be estimated, the joins are left in the order of the query.
+ */
+public class ReorderJoins
+        extends PlanOptimizer
+{
+    private final StatsCalculator statsCalculator;
+
+    public ReorderJoins(Metadata metadata)
+    {
+        this.statsCalculator = new StatsCalculator(requireNonNull(metadata, "metadata is null"));
+    }
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, Map<Symbol, Type> types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+    {
+        requireNonNull(plan, "plan is null");
+        requireNonNull(session, "session is null");
+        requireNonNull(types, "types is null");
+        requireNonNull(symbolAllocator, "symbolAllocator is null");
+        requireNonNull(idAllocator, "idAllocator is null");
+
+        if (!isReorderJoins(session)) {
+            return plan;
+        }
+        return SimplePlanRewriter.rewriteWith(new Rewriter(session, types, idAllocator), plan);
+    }
+
+    private class Rewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final PlanNodeIdAllocator idAllocator;
+        private final StatsProvider statsProvider;
+
+        public Rewriter(Session session, Map<Symbol, Type> types, PlanNodeIdAllocator idAllocator)
+        {
+            this.idAllocator = idAllocator;
+            this.statsProvider = statsCalculator.createStatsProvider(session, types);
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+        {
+            if (!isReorderable(node)) {
+                return context.defaultRewrite(node);
+            }
+
+            List<PlanNode> sources = new ArrayList<>();
+            List<JoinNode.EquiJoinClause> criteria = new ArrayList<>();
+            flatten(node, sources, criteria);
+
+            List<PlanNode> rewrittenSources = sources.stream()
+                    .map(context::rewrite)
+                    .collect(toImmutableList());
+
+            Optional<PlanNode> reordered = reorder(rewrittenSources, criteria);
+            if (!reordered.isPresent()) {
+                return replaceSources(node, rewrittenSources.iterator());
+            }
+
+            // restore the output order of the original join
+            ImmutableMap.Builder<Symbol, Expression> assignments = ImmutableMap.builder();
+            for (Symbol symbol : node.getOutputSymbols()) {
+                assignments.put(symbol, symbol.toQualifiedNameReference());
+            }
+            return new ProjectNode(idAllocator.getNextId(), reordered.get(), assignments.build());
+        }
+
+        private Optional<PlanNode> reorder(List<PlanNode> sources, List<JoinNode.EquiJoinClause> criteria)
+        {
+            List<PlanNodeStatsEstimate> sourceStats = sources.stream()
+                    .map(statsProvider::getStats)
+                    .collect(toImmutableList());
+            if (sourceStats.stream().anyMatch(stats -> stats.getOutputRowCount().isValueUnknown())) {
+                return Optional.empty();
+            }
+
+            Set<Integer> remaining = new HashSet<>();
+            int probe = 0;
+            for (int i = 0; i < sources.size(); i++) {
+                remaining.add(i);
+                if (rowCount(sourceStats.get(i)) > rowCount(sourceStats.get(probe))) {
+                    probe = i;
+                }
+            }
+            remaining.remove(probe);
+
+            PlanNode result = sources.get(probe);
+            PlanNodeStatsEstimate resultStats = sourceStats.get(probe);
+            while (!remaining.isEmpty()) {
+                int best = -1;
+                List<JoinNode.EquiJoinClause> bestClauses = null;
+                PlanNodeStatsEstimate bestStats = null;
+                for (int candidate : remaining) {
+                    List<JoinNode.EquiJoinClause> clauses = joinClauses(criteria, result.getOutputSymbols(), sources.get(candidate).getOutputSymbols());
+                    if (clauses.isEmpty()) {
+                        continue;
+                    }
+                    PlanNodeStatsEstimate joinStats = estimateInnerJoin(resultStats, sourceStats.get(candidate), clauses);
+                    if (best == -1 ||
+                            rowCount(joinStats) < rowCount(bestStats) ||
+                            (rowCount(joinStats) == rowCount(bestStats) && rowCount(sourceStats.get(candidate)) < rowCount(sourceStats.get(best)))) {
+                        best = candidate;
+                        bestClauses = clauses;
+                        bestStats = joinStats;
+                    }
+                }
+                if (best == -1) {
+                    // the remaining sources can only be joined with a cross join
+                    return Optional.empty();
+                }
+
+                result = new JoinNode(idAllocator.getNextId(), INNER, result, sources.get(best), bestClauses, Optional.empty(), Optional.empty());
+                resultStats = bestStats;
+                remaining.remove(best);
+            }
+            return Optional.of(result);
+        }
+    }
+
+    private static boolean isReorderable(PlanNode node)
+    {
+        if (!(node instanceof JoinNode)) {
+            return false;
+        }
+        JoinNode join = (JoinNode) node;
+        return join.getType() == INNER &&
+                !join.getCriteria().isEmpty() &&
+                !join.getLeftHashSymbol().isPresent() &&
+                !join.getRightHashSymbol().isPresent();
+    }
+
+    private static void flatten(PlanNode node, List<PlanNode> sources, List<JoinNode.EquiJoinClause> criteria)
+    {
+        if (!isReorderable(node)) {
+            sources.add(node);
+            return;
+        }
+        JoinNode join = (JoinNode) node;
+        flatten(join.getLeft(), sources, criteria);
+        flatten(join.getRight(), sources, criteria);
+        criteria.addAll(join.getCriteria());
+    }
+
+    private static PlanNode replaceSources(PlanNode node, Iterator<PlanNode> sources)
+    {
+        if (!isReorderable(node)) {
+            return sources.next();
+        }
+        JoinNode join = (JoinNode) node;
+        PlanNode left = replaceSources(join.getLeft(), sources);
+        PlanNode right = replaceSources(join.getRight(), sources);
+        return new JoinNode(join.getId(), join.getType(), left, right, join.getCriteria(), join.getLeftHashSymbol(), join.getRightHashSymbol());
+    }
+
+    private static List<JoinNode.EquiJoinClause> joinClauses(List<JoinNode.EquiJoinClause> criteria, List<Symbol> leftSymbols, List<Symbol> rightSymbols)
+    {
+        ImmutableList.Builder<JoinNode.EquiJoinClause> clauses = ImmutableList.builder();
+        for (JoinNode.EquiJoinClause clause : criteria) {
+            if (leftSymbols.contains(clause.getLeft()) && rightSymbols.contains(clause.getRight())) {
+                clauses.add(clause);
+            }
+            else if (leftSymbols.contains(clause.getRight()) && rightSymbols.contains(clause.getLeft())) {
+                clauses.add(new JoinNode.EquiJoinClause(clause.getRight(), clause.getLeft()));
+            }
+        }
+        return clauses.build();
+    }
+
+    private static double rowCount(PlanNodeStatsEstimate stats)
+    {
+        return stats.getOutputRowCount().getValue();
+    }
+}
@@ -30,6 +30,7 @@ import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -142,7 +143,8 @@ public class UnaliasSymbolReferences
                     node.getStep(),
                     canonicalize(node.getSampleWeight()),
                     node.getConfidence(),
-                    canonicalize(node.getHashSymbol()));
+                    canonicalize(node.getHashSymbol()),
+                    canonicalize(node.getPreGroupedSymbols()));
         }
 
         @Override
@@ -160,6 +162,23 @@ public class UnaliasSymbolReferences
             return new MarkDistinctNode(node.getId(), source, canonicalize(node.getMarkerSymbol()), symbols, canonicalize(node.getHashSymbol()));
         }
 
+        @Override
+        public PlanNode visitGroupId(GroupIdNode node, RewriteContext<Void> context)
+        {
+            PlanNode source = context.rewrite(node.getSource());
+
+            ImmutableMap.Builder<Symbol, Symbol> groupingColumns = ImmutableMap.builder();
+            for (Map.Entry<Symbol, Symbol> entry : node.getGroupingColumns().entrySet()) {
+                groupingColumns.put(canonicalize(entry.getKey()), canonicalize(entry.getValue()));
+            }
+
+            List<List<Symbol>> groupingSets = node.getGroupingSets().stream()
+                    .map(groupingSet -> canonicalize(groupingSet))
+                    .collect(toImmutableList());
+
+            return new GroupIdNode(node.getId(), source, groupingSets, groupingColumns.build(), canonicalizeAndDistinct(node.getArgumentSymbols()), canonicalize(node.getGroupIdSymbol()));
+        }
+
         @Override
         public PlanNode visitUnnest(UnnestNode node, RewriteContext<Void> context)
         {
@@ -434,7 +453,7 @@ public class UnaliasSymbolReferences
             PlanNode left = context.rewrite(node.getLeft());
             PlanNode right = context.rewrite(node.getRight());
 
-            return new JoinNode(node.getId(), node.getType(), left, right, canonicalizeJoinCriteria(node.getCriteria()), canonicalize(node.getLeftHashSymbol()), canonicalize(node.getRightHashSymbol()));
+            return new JoinNode(node.getId(), node.getType(), left, right, canonicalizeJoinCriteria(node.getCriteria()), canonicalize(node.getLeftHashSymbol()), canonicalize(node.getRightHashSymbol()), node.getMergeOrderings());
         }
 
         @Override
@@ -20,12 +20,14 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import javax.annotation.concurrent.Immutable;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
@@ -44,6 +46,8 @@ public class AggregationNode
     private final Optional<Symbol> sampleWeight;
     private final double confidence;
     private final Optional<Symbol> hashSymbol;
+    // group by symbols on which the input of each driver is already grouped
+    private final Set<Symbol> preGroupedSymbols;
 
     public enum Step
     {
@@ -72,6 +76,20 @@ public class AggregationNode
         }
     }
 
+    public AggregationNode(PlanNodeId id,
+            PlanNode source,
+            List<Symbol> groupByKeys,
+            Map<Symbol, FunctionCall> aggregations,
+            Map<Symbol, Signature> functions,
+            Map<Symbol, Symbol> masks,
+            Step step,
+            Optional<Symbol> sampleWeight,
+            double confidence,
+            Optional<Symbol> hashSymbol)
+    {
+        this(id, source, groupByKeys, aggregations, functions, masks, step, sampleWeight, confidence, hashSymbol, ImmutableSet.of());
+    }
+
     @JsonCreator
     public AggregationNode(@JsonProperty("id") PlanNodeId id,
             @JsonProperty("source") PlanNode source,
@@ -82,7 +100,8 @@ public class AggregationNode
             @JsonProperty("step") Step step,
             @JsonProperty("sampleWeight") Optional<Symbol> sampleWeight,
             @JsonProperty("confidence") double confidence,
-            @JsonProperty("hashSymbol") Optional<Symbol> hashSymbol)
+            @JsonProperty("hashSymbol") Optional<Symbol> hashSymbol,
+            @JsonProperty("preGroupedSymbols") Set<Symbol> preGroupedSymbols)
     {
         super(id);
 
@@ -99,6 +118,9 @@ public class AggregationNode
         checkArgument(confidence >= 0 && confidence <= 1, "confidence must be in [0, 1]");
         this.confidence = confidence;
         this.hashSymbol = hashSymbol;
+        requireNonNull(preGroupedSymbols, "preGroupedSymbols is null");
+        checkArgument(groupByKeys.containsAll(preGroupedSymbols), "preGroupedSymbols must be a subset of groupBy");
+        this.preGroupedSymbols = ImmutableSet.copyOf(preGroupedSymbols);
     }
 
     @Override
@@ -174,6 +196,12 @@ public class AggregationNode
         return hashSymbol;
     }
 
+    @JsonProperty("preGroupedSymbols")
+    public Set<Symbol> getPreGroupedSymbols()
+    {
+        return preGroupedSymbols;
+    }
+
     @Override
     public <C, R> R accept(PlanVisitor<C, R> visitor, C context)
     {
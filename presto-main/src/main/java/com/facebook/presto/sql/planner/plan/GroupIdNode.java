@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.plan;
+
+import com.facebook.presto.sql.planner.Symbol;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replicates every input row once per grouping set, so a single aggregation can compute
+ * all the grouping sets of a GROUPING SETS, ROLLUP or CUBE clause.
+ * <p>
+ * Each grouping column is output as a copy of its source column, which is null in the rows
+ * of the grouping sets that do not contain it. The argument columns are passed through
+ * unchanged, and the group id column holds the index of the grouping set of each row.
+ */
+@Immutable
+public class GroupIdNode
+        extends PlanNode
+{
+    private final PlanNode source;
+    private final List<List<Symbol>> groupingSets;
+    private final Map<Symbol, Symbol> groupingColumns;
+    private final List<Symbol> argumentSymbols;
+    private final Symbol groupIdSymbol;
+
+    @JsonCreator
+    public GroupIdNode(@JsonProperty("id") PlanNodeId id,
+            @JsonProperty("source") PlanNode source,
+            @JsonProperty("groupingSets") List<List<Symbol>> groupingSets,
+            @JsonProperty("groupingColumns") Map<Symbol, Symbol> groupingColumns,
+            @JsonProperty("argumentSymbols") List<Symbol> argumentSymbols,
+            @JsonProperty("groupIdSymbol") Symbol groupIdSymbol)
+    {
+        super(id);
+        this.source = requireNonNull(source, "source is null");
+        this.groupingSets = requireNonNull(groupingSets, "groupingSets is null").stream()
+                .map(ImmutableList::copyOf)
+                .collect(toImmutableList());
+        this.groupingColumns = ImmutableMap.copyOf(requireNonNull(groupingColumns, "groupingColumns is null"));
+        this.argumentSymbols = ImmutableList.copyOf(requireNonNull(argumentSymbols, "argumentSymbols is null"));
+        this.groupIdSymbol = requireNonNull(groupIdSymbol, "groupIdSymbol is null");
+
+        checkArgument(!this.groupingSets.isEmpty(), "groupingSets is empty");
+        for (List<Symbol> groupingSet : this.groupingSets) {
+            checkArgument(this.groupingColumns.keySet().containsAll(groupingSet), "Grouping set %s contains symbols that are not grouping columns", groupingSet);
+        }
+    }
+
+    @Override
+    public List<Symbol> getOutputSymbols()
+    {
+        return ImmutableList.<Symbol>builder()
+                .addAll(groupingColumns.keySet())
+                .addAll(argumentSymbols)
+                .add(groupIdSymbol)
+                .build();
+    }
+
+    @Override
+    public List<PlanNode> getSources()
+    {
+        return ImmutableList.of(source);
+    }
+
+    @JsonProperty
+    public PlanNode getSource()
+    {
+        return source;
+    }
+
+    @JsonProperty
+    public List<List<Symbol>> getGroupingSets()
+    {
+        return groupingSets;
+    }
+
+    /**
+     * Maps each grouping column output by this node to the source column it copies.
+     */
+    @JsonProperty
+    public Map<Symbol, Symbol> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    /**
+     * Returns the grouping columns that are part of every grouping set. These are never
+     * nulled out, so they always hold the value of the source column they copy.
+     */
+    public Map<Symbol, Symbol> getCommonGroupingColumns()
+    {
+        ImmutableMap.Builder<Symbol, Symbol> commonColumns = ImmutableMap.builder();
+        for (Map.Entry<Symbol, Symbol> entry : groupingColumns.entrySet()) {
+            if (groupingSets.stream().allMatch(groupingSet -> groupingSet.contains(entry.getKey()))) {
+                commonColumns.put(entry);
+            }
+        }
+        return commonColumns.build();
+    }
+
+    @JsonProperty
+    public List<Symbol> getArgumentSymbols()
+    {
+        return argumentSymbols;
+    }
+
+    @JsonProperty
+    public Symbol getGroupIdSymbol()
+    {
+        return groupIdSymbol;
+    }
+
+    @Override
+    public <C, R> R accept(PlanVisitor<C, R> visitor, C context)
+    {
+        return visitor.visitGroupId(this, context);
+    }
+}
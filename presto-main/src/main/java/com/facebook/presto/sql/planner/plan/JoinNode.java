@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.sql.planner.plan;
 
+import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.sql.planner.Symbol;
 import com.facebook.presto.sql.tree.Join;
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -24,6 +25,7 @@ import javax.annotation.concurrent.Immutable;
 import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 @Immutable
@@ -36,6 +38,19 @@ public class JoinNode
     private final List<EquiJoinClause> criteria;
     private final Optional<Symbol> leftHashSymbol;
     private final Optional<Symbol> rightHashSymbol;
+    // present when both inputs are single streams sorted on the criteria, in order, with these orderings
+    private final Optional<List<SortOrder>> mergeOrderings;
+
+    public JoinNode(PlanNodeId id,
+            Type type,
+            PlanNode left,
+            PlanNode right,
+            List<EquiJoinClause> criteria,
+            Optional<Symbol> leftHashSymbol,
+            Optional<Symbol> rightHashSymbol)
+    {
+        this(id, type, left, right, criteria, leftHashSymbol, rightHashSymbol, Optional.empty());
+    }
 
     @JsonCreator
     public JoinNode(@JsonProperty("id") PlanNodeId id,
@@ -44,7 +59,8 @@ public class JoinNode
             @JsonProperty("right") PlanNode right,
             @JsonProperty("criteria") List<EquiJoinClause> criteria,
             @JsonProperty("leftHashSymbol") Optional<Symbol> leftHashSymbol,
-            @JsonProperty("rightHashSymbol") Optional<Symbol> rightHashSymbol)
+            @JsonProperty("rightHashSymbol") Optional<Symbol> rightHashSymbol,
+            @JsonProperty("mergeOrderings") Optional<List<SortOrder>> mergeOrderings)
     {
         super(id);
         requireNonNull(type, "type is null");
@@ -53,6 +69,8 @@ public class JoinNode
         requireNonNull(criteria, "criteria is null");
         requireNonNull(leftHashSymbol, "leftHashSymbol is null");
         requireNonNull(rightHashSymbol, "rightHashSymbol is null");
+        requireNonNull(mergeOrderings, "mergeOrderings is null");
+        checkArgument(!mergeOrderings.isPresent() || (!criteria.isEmpty() && mergeOrderings.get().size() == criteria.size()), "mergeOrderings must have one ordering per criteria");
 
         this.type = type;
         this.left = left;
@@ -60,6 +78,7 @@ public class JoinNode
         this.criteria = ImmutableList.copyOf(criteria);
         this.leftHashSymbol = leftHashSymbol;
         this.rightHashSymbol = rightHashSymbol;
+        this.mergeOrderings = mergeOrderings.map(ImmutableList::copyOf);
     }
 
     public enum Type
@@ -137,6 +156,12 @@ public class JoinNode
         return rightHashSymbol;
     }
 
+    @JsonProperty("mergeOrderings")
+    public Optional<List<SortOrder>> getMergeOrderings()
+    {
+        return mergeOrderings;
+    }
+
     @Override
     public List<PlanNode> getSources()
     {
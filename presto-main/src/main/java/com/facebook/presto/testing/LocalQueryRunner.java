@@ -86,6 +86,9 @@ import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.connector.ConnectorFactory;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.BinarySpillerFactory;
+import com.facebook.presto.spiller.SpillSpaceTracker;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.split.PageSinkManager;
 import com.facebook.presto.split.PageSourceManager;
 import com.facebook.presto.split.SplitManager;
@@ -156,6 +159,7 @@ import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
 import static com.facebook.presto.transaction.TransactionBuilder.transaction;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.json.JsonCodec.jsonCodec;
@@ -184,6 +188,7 @@ public class LocalQueryRunner
     private final NodePartitioningManager nodePartitioningManager;
     private final PageSinkManager pageSinkManager;
     private final TransactionManager transactionManager;
+    private final SpillerFactory spillerFactory;
 
     private final ExpressionCompiler compiler;
     private final ConnectorManager connectorManager;
@@ -239,6 +244,13 @@ public class LocalQueryRunner
 
         this.compiler = new ExpressionCompiler(metadata);
 
+        FeaturesConfig featuresConfig = new FeaturesConfig();
+        this.spillerFactory = new BinarySpillerFactory(
+                listeningDecorator(executor),
+                blockEncodingSerde,
+                new SpillSpaceTracker(featuresConfig.getMaxSpillPerNode()),
+                featuresConfig.getSpillerSpillPaths());
+
         this.connectorManager = new ConnectorManager(
                 metadata,
                 accessControl,
@@ -574,7 +586,8 @@ public class LocalQueryRunner
                 new IndexJoinLookupStats(),
                 new CompilerConfig().setInterpreterEnabled(false), // make sure tests fail if compiler breaks
                 new ServerConfig().setCoordinator(false),
-                new TaskManagerConfig().setTaskDefaultConcurrency(4)
+                new TaskManagerConfig().setTaskDefaultConcurrency(4),
+                spillerFactory
         );
 
         // plan query
@@ -15,10 +15,12 @@ package com.facebook.presto.transaction;
 
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregation;
 import com.facebook.presto.spi.ConnectorIndexResolver;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.ConnectorNewTableLayout;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
+import com.facebook.presto.spi.ConnectorResolvedAggregation;
 import com.facebook.presto.spi.ConnectorResolvedIndex;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorTableHandle;
@@ -30,9 +32,11 @@ import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import io.airlift.slice.Slice;
 
 import java.util.Collection;
@@ -83,6 +87,12 @@ public class LegacyConnectorMetadata
         return metadata.getTableLayout(session, handle);
     }
 
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, ConnectorTableLayoutHandle layoutHandle)
+    {
+        return metadata.getTableStatistics(session, tableHandle, layoutHandle);
+    }
+
     @Override
     public ConnectorTableMetadata getTableMetadata(ConnectorSession session, ConnectorTableHandle table)
     {
@@ -260,6 +270,24 @@ public class LegacyConnectorMetadata
         return indexResolver.flatMap(indexResolver -> Optional.ofNullable(indexResolver.resolveIndex(session, tableHandle, indexableColumns, outputColumns, tupleDomain)));
     }
 
+    @Override
+    public boolean supportsPushDown(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return metadata.supportsPushDown(session, tableHandle);
+    }
+
+    @Override
+    public Optional<ConnectorResolvedAggregation> pushDownAggregation(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<ConnectorAggregation> aggregations)
+    {
+        return metadata.pushDownAggregation(session, tableLayoutHandle, groupingColumns, aggregations);
+    }
+
+    @Override
+    public Optional<ConnectorTableLayoutHandle> pushDownLimit(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<SortingProperty<ColumnHandle>> sortOrder, long limit)
+    {
+        return metadata.pushDownLimit(session, tableLayoutHandle, sortOrder, limit);
+    }
+
     @Override
     public void grantTablePrivileges(ConnectorSession session, SchemaTableName tableName, Set<Privilege> privileges, String grantee, boolean grantOption)
     {
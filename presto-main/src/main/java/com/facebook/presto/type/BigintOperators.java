@@ -34,7 +34,9 @@ import static com.facebook.presto.metadata.OperatorType.NEGATION;
 import static com.facebook.presto.metadata.OperatorType.NOT_EQUAL;
 import static com.facebook.presto.metadata.OperatorType.SUBTRACT;
 import static com.facebook.presto.spi.StandardErrorCode.DIVISION_BY_ZERO;
+import static com.facebook.presto.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
 import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.String.format;
 import static java.lang.String.valueOf;
 
 public final class BigintOperators
@@ -158,6 +160,34 @@ public final class BigintOperators
         return value;
     }
 
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.REAL)
+    public static double castToReal(@SqlType(StandardTypes.BIGINT) long value)
+    {
+        return (float) value;
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.INTEGER)
+    public static long castToInteger(@SqlType(StandardTypes.BIGINT) long value)
+    {
+        return checkRange(value, Integer.MIN_VALUE, Integer.MAX_VALUE, StandardTypes.INTEGER);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.SMALLINT)
+    public static long castToSmallint(@SqlType(StandardTypes.BIGINT) long value)
+    {
+        return checkRange(value, Short.MIN_VALUE, Short.MAX_VALUE, StandardTypes.SMALLINT);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.TINYINT)
+    public static long castToTinyint(@SqlType(StandardTypes.BIGINT) long value)
+    {
+        return checkRange(value, Byte.MIN_VALUE, Byte.MAX_VALUE, StandardTypes.TINYINT);
+    }
+
     @ScalarOperator(CAST)
     @SqlType(StandardTypes.VARCHAR)
     public static Slice castToVarchar(@SqlType(StandardTypes.BIGINT) long value)
@@ -172,4 +202,12 @@ public final class BigintOperators
     {
         return value;
     }
+
+    private static long checkRange(long value, long min, long max, String type)
+    {
+        if (value < min || value > max) {
+            throw new PrestoException(NUMERIC_VALUE_OUT_OF_RANGE, format("Out of range for %s: %s", type, value));
+        }
+        return value;
+    }
 }
@@ -162,6 +162,34 @@ public final class DoubleOperators
         return (long) MathFunctions.round(value);
     }
 
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.INTEGER)
+    public static long castToInteger(@SqlType(StandardTypes.DOUBLE) double value)
+    {
+        return RealOperators.checkRange(MathFunctions.round(value), Integer.MIN_VALUE, Integer.MAX_VALUE, StandardTypes.INTEGER);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.SMALLINT)
+    public static long castToSmallint(@SqlType(StandardTypes.DOUBLE) double value)
+    {
+        return RealOperators.checkRange(MathFunctions.round(value), Short.MIN_VALUE, Short.MAX_VALUE, StandardTypes.SMALLINT);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.TINYINT)
+    public static long castToTinyint(@SqlType(StandardTypes.DOUBLE) double value)
+    {
+        return RealOperators.checkRange(MathFunctions.round(value), Byte.MIN_VALUE, Byte.MAX_VALUE, StandardTypes.TINYINT);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.REAL)
+    public static double castToReal(@SqlType(StandardTypes.DOUBLE) double value)
+    {
+        return (float) value;
+    }
+
     @ScalarOperator(CAST)
     @SqlType(StandardTypes.VARCHAR)
     public static Slice castToVarchar(@SqlType(StandardTypes.DOUBLE) double value)
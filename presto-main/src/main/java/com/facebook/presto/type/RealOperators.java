@@ -0,0 +1,208 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.facebook.presto.operator.scalar.MathFunctions;
+import com.facebook.presto.operator.scalar.ScalarOperator;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.type.StandardTypes;
+import io.airlift.slice.Slice;
+
+import static com.facebook.presto.metadata.OperatorType.ADD;
+import static com.facebook.presto.metadata.OperatorType.BETWEEN;
+import static com.facebook.presto.metadata.OperatorType.CAST;
+import static com.facebook.presto.metadata.OperatorType.DIVIDE;
+import static com.facebook.presto.metadata.OperatorType.EQUAL;
+import static com.facebook.presto.metadata.OperatorType.GREATER_THAN;
+import static com.facebook.presto.metadata.OperatorType.GREATER_THAN_OR_EQUAL;
+import static com.facebook.presto.metadata.OperatorType.HASH_CODE;
+import static com.facebook.presto.metadata.OperatorType.LESS_THAN;
+import static com.facebook.presto.metadata.OperatorType.LESS_THAN_OR_EQUAL;
+import static com.facebook.presto.metadata.OperatorType.MODULUS;
+import static com.facebook.presto.metadata.OperatorType.MULTIPLY;
+import static com.facebook.presto.metadata.OperatorType.NEGATION;
+import static com.facebook.presto.metadata.OperatorType.NOT_EQUAL;
+import static com.facebook.presto.metadata.OperatorType.SUBTRACT;
+import static com.facebook.presto.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.Float.floatToIntBits;
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+
+/**
+ * REAL values are passed around as doubles; every result is rounded to single precision.
+ */
+public final class RealOperators
+{
+    private RealOperators()
+    {
+    }
+
+    @ScalarOperator(ADD)
+    @SqlType(StandardTypes.REAL)
+    public static double add(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return (float) (left + right);
+    }
+
+    @ScalarOperator(SUBTRACT)
+    @SqlType(StandardTypes.REAL)
+    public static double subtract(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return (float) (left - right);
+    }
+
+    @ScalarOperator(MULTIPLY)
+    @SqlType(StandardTypes.REAL)
+    public static double multiply(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return (float) (left * right);
+    }
+
+    @ScalarOperator(DIVIDE)
+    @SqlType(StandardTypes.REAL)
+    public static double divide(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return (float) (left / right);
+    }
+
+    @ScalarOperator(MODULUS)
+    @SqlType(StandardTypes.REAL)
+    public static double modulus(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return (float) (left % right);
+    }
+
+    @ScalarOperator(NEGATION)
+    @SqlType(StandardTypes.REAL)
+    public static double negate(@SqlType(StandardTypes.REAL) double value)
+    {
+        return -value;
+    }
+
+    @ScalarOperator(EQUAL)
+    @SuppressWarnings("FloatingPointEquality")
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean equal(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return left == right;
+    }
+
+    @ScalarOperator(NOT_EQUAL)
+    @SuppressWarnings("FloatingPointEquality")
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean notEqual(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return left != right;
+    }
+
+    @ScalarOperator(LESS_THAN)
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean lessThan(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return left < right;
+    }
+
+    @ScalarOperator(LESS_THAN_OR_EQUAL)
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean lessThanOrEqual(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return left <= right;
+    }
+
+    @ScalarOperator(GREATER_THAN)
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean greaterThan(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return left > right;
+    }
+
+    @ScalarOperator(GREATER_THAN_OR_EQUAL)
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean greaterThanOrEqual(@SqlType(StandardTypes.REAL) double left, @SqlType(StandardTypes.REAL) double right)
+    {
+        return left >= right;
+    }
+
+    @ScalarOperator(BETWEEN)
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean between(@SqlType(StandardTypes.REAL) double value, @SqlType(StandardTypes.REAL) double min, @SqlType(StandardTypes.REAL) double max)
+    {
+        return min <= value && value <= max;
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.DOUBLE)
+    public static double castToDouble(@SqlType(StandardTypes.REAL) double value)
+    {
+        return value;
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.BIGINT)
+    public static long castToBigint(@SqlType(StandardTypes.REAL) double value)
+    {
+        return (long) MathFunctions.round(value);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.INTEGER)
+    public static long castToInteger(@SqlType(StandardTypes.REAL) double value)
+    {
+        return checkRange(MathFunctions.round(value), Integer.MIN_VALUE, Integer.MAX_VALUE, StandardTypes.INTEGER);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.SMALLINT)
+    public static long castToSmallint(@SqlType(StandardTypes.REAL) double value)
+    {
+        return checkRange(MathFunctions.round(value), Short.MIN_VALUE, Short.MAX_VALUE, StandardTypes.SMALLINT);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.TINYINT)
+    public static long castToTinyint(@SqlType(StandardTypes.REAL) double value)
+    {
+        return checkRange(MathFunctions.round(value), Byte.MIN_VALUE, Byte.MAX_VALUE, StandardTypes.TINYINT);
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.BOOLEAN)
+    public static boolean castToBoolean(@SqlType(StandardTypes.REAL) double value)
+    {
+        return value != 0;
+    }
+
+    @ScalarOperator(CAST)
+    @SqlType(StandardTypes.VARCHAR)
+    public static Slice castToVarchar(@SqlType(StandardTypes.REAL) double value)
+    {
+        return utf8Slice(valueOf((float) value));
+    }
+
+    @ScalarOperator(HASH_CODE)
+    @SqlType(StandardTypes.BIGINT)
+    public static long hashCode(@SqlType(StandardTypes.REAL) double value)
+    {
+        return floatToIntBits((float) value);
+    }
+
+    static long checkRange(double value, long min, long max, String type)
+    {
+        if (Double.isNaN(value) || value < min || value > max) {
+            throw new PrestoException(NUMERIC_VALUE_OUT_OF_RANGE, format("Out of range for %s: %s", type, value));
+        }
+        return (long) value;
+    }
+}
@@ -41,18 +41,22 @@ import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DecimalType.createDecimalTypeSignature;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.HyperLogLogType.HYPER_LOG_LOG;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
 import static com.facebook.presto.spi.type.IntervalDayTimeType.INTERVAL_DAY_TIME;
 import static com.facebook.presto.spi.type.IntervalYearMonthType.INTERVAL_YEAR_MONTH;
 import static com.facebook.presto.spi.type.P4HyperLogLogType.P4_HYPER_LOG_LOG;
 import static com.facebook.presto.spi.type.ParameterKind.LONG;
 import static com.facebook.presto.spi.type.ParameterKind.NAMED_TYPE;
 import static com.facebook.presto.spi.type.ParameterKind.TYPE;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.StandardTypes.DECIMAL;
 import static com.facebook.presto.spi.type.StandardTypes.VARCHAR;
 import static com.facebook.presto.spi.type.TimeType.TIME;
 import static com.facebook.presto.spi.type.TimeWithTimeZoneType.TIME_WITH_TIME_ZONE;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.type.ArrayParametricType.ARRAY;
 import static com.facebook.presto.type.ColorType.COLOR;
@@ -96,7 +100,11 @@ public final class TypeRegistry
         // always add the built-in types; Presto will not function without these
         addType(BOOLEAN);
         addType(BIGINT);
+        addType(INTEGER);
+        addType(SMALLINT);
+        addType(TINYINT);
         addType(DOUBLE);
+        addType(REAL);
         addType(VARBINARY);
         addType(DATE);
         addType(TIME);
@@ -227,8 +235,16 @@ public final class TypeRegistry
             return true;
         }
         switch (fromTypeBase) {
+            case StandardTypes.TINYINT:
+                return StandardTypes.SMALLINT.equals(toTypeBase) || canCastTypeBase(StandardTypes.SMALLINT, toTypeBase);
+            case StandardTypes.SMALLINT:
+                return StandardTypes.INTEGER.equals(toTypeBase) || canCastTypeBase(StandardTypes.INTEGER, toTypeBase);
+            case StandardTypes.INTEGER:
+                return StandardTypes.BIGINT.equals(toTypeBase) || StandardTypes.REAL.equals(toTypeBase) || canCastTypeBase(StandardTypes.BIGINT, toTypeBase);
             case StandardTypes.BIGINT:
                 return StandardTypes.DOUBLE.equals(toTypeBase) || StandardTypes.DECIMAL.equals(toTypeBase);
+            case StandardTypes.REAL:
+                return StandardTypes.DOUBLE.equals(toTypeBase);
             case StandardTypes.DATE:
                 return StandardTypes.TIMESTAMP.equals(toTypeBase) || StandardTypes.TIMESTAMP_WITH_TIME_ZONE.equals(toTypeBase);
             case StandardTypes.TIME:
@@ -480,6 +496,28 @@ public final class TypeRegistry
             ));
         }
 
+        if (typeSignaturePair.is(StandardTypes.DECIMAL, StandardTypes.INTEGER)) {
+            return getCommonSuperTypeForDecimals(new TypeSignaturePair(
+                    typeSignaturePair.get(StandardTypes.DECIMAL), createDecimalTypeSignature(10, 0)
+            ));
+        }
+
+        if (typeSignaturePair.is(StandardTypes.DECIMAL, StandardTypes.SMALLINT)) {
+            return getCommonSuperTypeForDecimals(new TypeSignaturePair(
+                    typeSignaturePair.get(StandardTypes.DECIMAL), createDecimalTypeSignature(5, 0)
+            ));
+        }
+
+        if (typeSignaturePair.is(StandardTypes.DECIMAL, StandardTypes.TINYINT)) {
+            return getCommonSuperTypeForDecimals(new TypeSignaturePair(
+                    typeSignaturePair.get(StandardTypes.DECIMAL), createDecimalTypeSignature(3, 0)
+            ));
+        }
+
+        if (typeSignaturePair.is(StandardTypes.DECIMAL, StandardTypes.REAL)) {
+            return Optional.of(DOUBLE.getTypeSignature());
+        }
+
         if (typeSignaturePair.is(StandardTypes.DECIMAL, StandardTypes.DECIMAL)) {
             return getCommonSuperTypeForDecimals(typeSignaturePair);
         }
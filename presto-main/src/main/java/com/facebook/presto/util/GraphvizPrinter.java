@@ -22,6 +22,7 @@ import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
 import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
 import com.facebook.presto.sql.planner.plan.IndexJoinNode;
 import com.facebook.presto.sql.planner.plan.IndexSourceNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
@@ -87,6 +88,7 @@ public final class GraphvizPrinter
         SORT,
         SAMPLE,
         MARK_DISTINCT,
+        GROUP_ID,
         TABLE_WRITER,
         TABLE_COMMIT,
         INDEX_SOURCE,
@@ -109,6 +111,7 @@ public final class GraphvizPrinter
             .put(NodeType.WINDOW, "darkolivegreen4")
             .put(NodeType.UNION, "turquoise4")
             .put(NodeType.MARK_DISTINCT, "violet")
+            .put(NodeType.GROUP_ID, "darkorchid")
             .put(NodeType.TABLE_WRITER, "cyan")
             .put(NodeType.TABLE_COMMIT, "hotpink")
             .put(NodeType.INDEX_SOURCE, "dodgerblue3")
@@ -246,6 +249,13 @@ public final class GraphvizPrinter
             return node.getSource().accept(this, context);
         }
 
+        @Override
+        public Void visitGroupId(GroupIdNode node, Void context)
+        {
+            printNode(node, format("GroupId[%s]", node.getGroupIdSymbol()), Joiner.on("|").join(node.getGroupingSets()), NODE_COLORS.get(NodeType.GROUP_ID));
+            return node.getSource().accept(this, context);
+        }
+
         @Override
         public Void visitWindow(WindowNode node, Void context)
         {
@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.block;
+
+import com.facebook.presto.block.PagesSerde.PagesReadStats;
+import com.facebook.presto.block.PagesSerde.PagesWriteStats;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.type.TypeRegistry;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.block.PagesSerde.readExchangePages;
+import static com.facebook.presto.block.PagesSerde.writeExchangePages;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkPagesSerde
+{
+    private static final int PAGE_COUNT = 100;
+    private static final int POSITIONS_PER_PAGE = 1024;
+    private static final int POSITIONS = PAGE_COUNT * POSITIONS_PER_PAGE;
+    private static final int DICTIONARY_SIZE = 100;
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public Object serialize(BenchmarkData data)
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(data.getSerializedSize());
+        writeExchangePages(data.getBlockEncodingManager(), data.isCompressed(), output, data.getPages(), new PagesWriteStats());
+        return output;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public int deserialize(BenchmarkData data)
+    {
+        int positions = 0;
+        Iterator<Page> pages = readExchangePages(data.getBlockEncodingManager(), data.getSerializedPages().getInput(), new PagesReadStats());
+        while (pages.hasNext()) {
+            positions += pages.next().getPositionCount();
+        }
+        return positions;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"BIGINT", "VARCHAR"})
+        private String type = "BIGINT";
+
+        @Param({"false", "true"})
+        private boolean dictionary;
+
+        @Param({"0", "0.1", "0.5"})
+        private double nullRatio;
+
+        @Param({"false", "true"})
+        private boolean compressed;
+
+        private final BlockEncodingManager blockEncodingManager = new BlockEncodingManager(new TypeRegistry());
+        private List<Page> pages;
+        private Slice serializedPages;
+
+        @Setup
+        public void setup()
+        {
+            Random random = new Random(42);
+            Type columnType = getType();
+
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
+            for (int i = 0; i < PAGE_COUNT; i++) {
+                Block block;
+                if (dictionary) {
+                    Block values = createBlock(columnType, DICTIONARY_SIZE, random);
+                    Slice ids = Slices.allocate(POSITIONS_PER_PAGE * Integer.BYTES);
+                    for (int position = 0; position < POSITIONS_PER_PAGE; position++) {
+                        ids.setInt(position * Integer.BYTES, random.nextInt(DICTIONARY_SIZE));
+                    }
+                    block = new DictionaryBlock(POSITIONS_PER_PAGE, values, ids);
+                }
+                else {
+                    block = createBlock(columnType, POSITIONS_PER_PAGE, random);
+                }
+                pages.add(new Page(block, block, block));
+            }
+            this.pages = pages.build();
+
+            DynamicSliceOutput output = new DynamicSliceOutput(1024);
+            writeExchangePages(blockEncodingManager, compressed, output, this.pages, new PagesWriteStats());
+            serializedPages = output.slice();
+        }
+
+        private Block createBlock(Type type, int positionCount, Random random)
+        {
+            BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                if (random.nextDouble() < nullRatio) {
+                    blockBuilder.appendNull();
+                }
+                else if (type.equals(BIGINT)) {
+                    BIGINT.writeLong(blockBuilder, random.nextInt(1_000_000));
+                }
+                else {
+                    VARCHAR.writeString(blockBuilder, "value_" + random.nextInt(1_000_000));
+                }
+            }
+            return blockBuilder.build();
+        }
+
+        private Type getType()
+        {
+            switch (type) {
+                case "BIGINT":
+                    return BIGINT;
+                case "VARCHAR":
+                    return VARCHAR;
+            }
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+
+        public BlockEncodingManager getBlockEncodingManager()
+        {
+            return blockEncodingManager;
+        }
+
+        public boolean isCompressed()
+        {
+            return compressed;
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+
+        public Slice getSerializedPages()
+        {
+            return serializedPages;
+        }
+
+        public int getSerializedSize()
+        {
+            return serializedPages.length();
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkPagesSerde().serialize(data);
+        new BenchmarkPagesSerde().deserialize(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkPagesSerde.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
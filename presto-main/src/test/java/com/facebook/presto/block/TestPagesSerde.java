@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.block;
 
+import com.facebook.presto.block.PagesSerde.PagesReadStats;
+import com.facebook.presto.block.PagesSerde.PagesWriteStats;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
@@ -26,14 +28,18 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import static com.facebook.presto.block.PagesSerde.readExchangePages;
 import static com.facebook.presto.block.PagesSerde.readPages;
+import static com.facebook.presto.block.PagesSerde.writeExchangePages;
 import static com.facebook.presto.block.PagesSerde.writePages;
 import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -62,6 +68,78 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testCompressedRoundTrip()
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(new BlockBuilderStatus(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            VARCHAR.writeString(blockBuilder, "value " + (i % 10));
+        }
+        Page expectedPage = new Page(blockBuilder.build());
+
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        PagesWriteStats writeStats = new PagesWriteStats();
+        writeExchangePages(blockEncodingManager, true, sliceOutput, ImmutableList.of(expectedPage, expectedPage), writeStats);
+
+        PagesReadStats stats = new PagesReadStats();
+        Iterator<Page> pageIterator = readExchangePages(blockEncodingManager, sliceOutput.slice().getInput(), stats);
+        assertPageEquals(ImmutableList.of(VARCHAR), pageIterator.next(), expectedPage);
+        assertPageEquals(ImmutableList.of(VARCHAR), pageIterator.next(), expectedPage);
+        assertFalse(pageIterator.hasNext());
+
+        // every page carries a one byte codec in the exchange layout
+        assertEquals(stats.getSerializedBytes(), sliceOutput.size());
+        assertEquals(stats.getUncompressedBytes(), 2 * (serializedSize(ImmutableList.of(VARCHAR), expectedPage) + 1));
+        assertTrue(stats.getSerializedBytes() < stats.getUncompressedBytes());
+
+        assertEquals(writeStats.getSerializedBytes(), stats.getSerializedBytes());
+        assertEquals(writeStats.getUncompressedBytes(), stats.getUncompressedBytes());
+        assertTrue(writeStats.getCompressionCpuNanos() >= 0);
+    }
+
+    @Test
+    public void testIncompressiblePageIsWrittenRaw()
+    {
+        Random random = new Random(42);
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(blockBuilder, random.nextLong());
+        }
+        Page expectedPage = new Page(blockBuilder.build());
+
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        PagesWriteStats writeStats = new PagesWriteStats();
+        writeExchangePages(blockEncodingManager, true, sliceOutput, ImmutableList.of(expectedPage), writeStats);
+        assertEquals(sliceOutput.size(), serializedSize(ImmutableList.of(BIGINT), expectedPage) + 1);
+        assertEquals(writeStats.getSerializedBytes(), sliceOutput.size());
+        assertEquals(writeStats.getUncompressedBytes(), sliceOutput.size());
+
+        PagesReadStats stats = new PagesReadStats();
+        Iterator<Page> pageIterator = readExchangePages(blockEncodingManager, sliceOutput.slice().getInput(), stats);
+        assertPageEquals(ImmutableList.of(BIGINT), pageIterator.next(), expectedPage);
+        assertFalse(pageIterator.hasNext());
+        assertEquals(stats.getSerializedBytes(), stats.getUncompressedBytes());
+    }
+
+    @Test
+    public void testExchangeRoundTripWithoutCompression()
+    {
+        Page expectedPage = new Page(BIGINT.createBlockBuilder(new BlockBuilderStatus(), 1).writeLong(42).closeEntry().build());
+
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1024);
+        PagesWriteStats writeStats = new PagesWriteStats();
+        writeExchangePages(blockEncodingManager, false, sliceOutput, ImmutableList.of(expectedPage), writeStats);
+        assertEquals(sliceOutput.size(), serializedSize(ImmutableList.of(BIGINT), expectedPage) + 1);
+        assertEquals(writeStats.getSerializedBytes(), sliceOutput.size());
+        assertEquals(writeStats.getCompressionCpuNanos(), 0);
+
+        PagesReadStats stats = new PagesReadStats();
+        Iterator<Page> pageIterator = readExchangePages(blockEncodingManager, sliceOutput.slice().getInput(), stats);
+        assertPageEquals(ImmutableList.of(BIGINT), pageIterator.next(), expectedPage);
+        assertFalse(pageIterator.hasNext());
+        assertEquals(stats.getSerializedBytes(), sliceOutput.size());
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cost;
+
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.JoinNode.EquiJoinClause;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.cost.StatsCalculator.estimateInnerJoin;
+import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestStatsCalculator
+{
+    private static final Symbol LEFT_KEY = new Symbol("left_key");
+    private static final Symbol RIGHT_KEY = new Symbol("right_key");
+
+    @Test
+    public void testInnerJoinWithDistinctValues()
+    {
+        PlanNodeStatsEstimate left = stats(1000, LEFT_KEY, 100);
+        PlanNodeStatsEstimate right = stats(50, RIGHT_KEY, 50);
+
+        PlanNodeStatsEstimate join = estimateInnerJoin(left, right, ImmutableList.of(new EquiJoinClause(LEFT_KEY, RIGHT_KEY)));
+        assertEquals(join.getOutputRowCount(), new Estimate(500));
+        assertEquals(join.getSymbolStatistics(LEFT_KEY).getDistinctValuesCount(), new Estimate(100));
+        assertEquals(join.getSymbolStatistics(RIGHT_KEY).getDistinctValuesCount(), new Estimate(50));
+    }
+
+    @Test
+    public void testInnerJoinWithoutDistinctValues()
+    {
+        PlanNodeStatsEstimate left = new PlanNodeStatsEstimate(new Estimate(1000), ImmutableMap.of());
+        PlanNodeStatsEstimate right = new PlanNodeStatsEstimate(new Estimate(50), ImmutableMap.of());
+
+        assertEquals(estimateInnerJoin(left, right, ImmutableList.of(new EquiJoinClause(LEFT_KEY, RIGHT_KEY))).getOutputRowCount(), new Estimate(1000));
+        assertEquals(estimateInnerJoin(left, right, ImmutableList.of()).getOutputRowCount(), new Estimate(50_000));
+    }
+
+    @Test
+    public void testInnerJoinWithUnknownRowCount()
+    {
+        PlanNodeStatsEstimate left = new PlanNodeStatsEstimate(unknownValue(), ImmutableMap.of());
+        PlanNodeStatsEstimate right = stats(50, RIGHT_KEY, 50);
+
+        assertTrue(estimateInnerJoin(left, right, ImmutableList.of(new EquiJoinClause(LEFT_KEY, RIGHT_KEY))).getOutputRowCount().isValueUnknown());
+    }
+
+    private static PlanNodeStatsEstimate stats(double rowCount, Symbol symbol, double distinctValues)
+    {
+        ColumnStatistics statistics = ColumnStatistics.builder()
+                .setDistinctValuesCount(new Estimate(distinctValues))
+                .build();
+        return new PlanNodeStatsEstimate(new Estimate(rowCount), ImmutableMap.of(symbol, statistics));
+    }
+}
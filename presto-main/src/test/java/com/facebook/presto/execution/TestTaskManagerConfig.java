@@ -46,6 +46,7 @@ public class TestTaskManagerConfig
                 .setOperatorPreAllocatedMemory(new DataSize(16, Unit.MEGABYTE))
                 .setMaxPartialAggregationMemoryUsage(new DataSize(16, Unit.MEGABYTE))
                 .setSinkMaxBufferSize(new DataSize(32, Unit.MEGABYTE))
+                .setSinkCompressionEnabled(false)
                 .setWriterCount(1)
                 .setTaskDefaultConcurrency(1)
                 .setTaskJoinConcurrency(1)
@@ -71,6 +72,7 @@ public class TestTaskManagerConfig
                 .put("task.info.max-age", "22m")
                 .put("task.client.timeout", "10s")
                 .put("sink.max-buffer-size", "42MB")
+                .put("sink.compression-enabled", "true")
                 .put("task.writer-count", "3")
                 .put("task.default-concurrency", "7")
                 .put("task.join-concurrency", "8")
@@ -93,6 +95,7 @@ public class TestTaskManagerConfig
                 .setInfoMaxAge(new Duration(22, TimeUnit.MINUTES))
                 .setClientTimeout(new Duration(10, TimeUnit.SECONDS))
                 .setSinkMaxBufferSize(new DataSize(42, Unit.MEGABYTE))
+                .setSinkCompressionEnabled(true)
                 .setWriterCount(3)
                 .setTaskDefaultConcurrency(7)
                 .setTaskJoinConcurrency(8)
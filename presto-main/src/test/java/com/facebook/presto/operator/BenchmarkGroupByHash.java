@@ -16,11 +16,16 @@ package com.facebook.presto.operator;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.DictionaryBlock;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.type.BigintOperators;
 import com.facebook.presto.util.array.LongBigArray;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import io.airlift.slice.XxHash64;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -44,10 +49,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static it.unimi.dsi.fastutil.HashCommon.arraySize;
 
 @SuppressWarnings("MethodMayBeStatic")
@@ -63,6 +70,7 @@ public class BenchmarkGroupByHash
     private static final String GROUP_COUNT_STRING = "3000000";
     private static final int GROUP_COUNT = Integer.parseInt(GROUP_COUNT_STRING);
     private static final int EXPECTED_SIZE = 10_000;
+    private static final int DICTIONARY_SIZE = 100;
 
     @Benchmark
     @OperationsPerInvocation(POSITIONS)
@@ -106,6 +114,18 @@ public class BenchmarkGroupByHash
         return pageBuilder.build();
     }
 
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long getGroupIds(ShapedBenchmarkData data)
+    {
+        GroupByHash groupByHash = new MultiChannelGroupByHash(data.getTypes(), data.getChannels(), Optional.empty(), Optional.empty(), EXPECTED_SIZE, false);
+        long groupIds = 0;
+        for (Page page : data.getPages()) {
+            groupIds += groupByHash.getGroupIds(page).getGroupCount();
+        }
+        return groupIds;
+    }
+
     @Benchmark
     @OperationsPerInvocation(POSITIONS)
     public Object bigintGroupByHash(SingleChannelBenchmarkData data)
@@ -213,6 +233,49 @@ public class BenchmarkGroupByHash
         return pages.build();
     }
 
+    private static List<Page> createShapedPages(int positionCount, int groupCount, Type type, boolean dictionary, double nullRatio)
+    {
+        Random random = new Random(42);
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        int pagePositions = 1024;
+        for (int start = 0; start < positionCount; start += pagePositions) {
+            int count = Math.min(pagePositions, positionCount - start);
+            Block block;
+            if (dictionary) {
+                // each page references a small dictionary of the group values
+                Block values = createBlock(type, DICTIONARY_SIZE, groupCount, nullRatio, random);
+                Slice ids = Slices.allocate(count * Integer.BYTES);
+                for (int position = 0; position < count; position++) {
+                    ids.setInt(position * Integer.BYTES, random.nextInt(DICTIONARY_SIZE));
+                }
+                block = new DictionaryBlock(count, values, ids);
+            }
+            else {
+                block = createBlock(type, count, groupCount, nullRatio, random);
+            }
+            pages.add(new Page(block));
+        }
+        return pages.build();
+    }
+
+    private static Block createBlock(Type type, int positionCount, int groupCount, double nullRatio, Random random)
+    {
+        BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            int value = random.nextInt(groupCount);
+            if (random.nextDouble() < nullRatio) {
+                blockBuilder.appendNull();
+            }
+            else if (type.equals(BIGINT)) {
+                BIGINT.writeLong(blockBuilder, value);
+            }
+            else {
+                VARCHAR.writeString(blockBuilder, "group_" + value);
+            }
+        }
+        return blockBuilder.build();
+    }
+
     @SuppressWarnings("FieldMayBeFinal")
     @State(Scope.Thread)
     public static class BaselinePagesData
@@ -336,6 +399,51 @@ public class BenchmarkGroupByHash
         }
     }
 
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class ShapedBenchmarkData
+    {
+        @Param({"BIGINT", "VARCHAR"})
+        private String type = "BIGINT";
+
+        @Param({"false", "true"})
+        private boolean dictionary;
+
+        @Param({"0", "0.1", "0.5"})
+        private double nullRatio;
+
+        @Param({"100", GROUP_COUNT_STRING})
+        private int groupCount = GROUP_COUNT;
+
+        private List<Page> pages;
+        private List<Type> types;
+        private int[] channels;
+
+        @Setup
+        public void setup()
+        {
+            Type keyType = type.equals("VARCHAR") ? VARCHAR : BIGINT;
+            pages = createShapedPages(POSITIONS, groupCount, keyType, dictionary, nullRatio);
+            types = ImmutableList.of(keyType);
+            channels = new int[] {0};
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        public int[] getChannels()
+        {
+            return channels;
+        }
+    }
+
     public static void main(String[] args)
             throws RunnerException
     {
@@ -345,6 +453,10 @@ public class BenchmarkGroupByHash
         new BenchmarkGroupByHash().groupByHashPreCompute(data);
         new BenchmarkGroupByHash().addPagePreCompute(data);
 
+        ShapedBenchmarkData shapedData = new ShapedBenchmarkData();
+        shapedData.setup();
+        new BenchmarkGroupByHash().getGroupIds(shapedData);
+
         SingleChannelBenchmarkData singleChannelBenchmarkData = new SingleChannelBenchmarkData();
         singleChannelBenchmarkData.setup();
         new BenchmarkGroupByHash().bigintGroupByHash(singleChannelBenchmarkData);
@@ -0,0 +1,244 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+
+/**
+ * Measures the probe side of a hash join in isolation: looking up the join positions
+ * of the probe rows in a lookup source created from a {@link PagesIndex}.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkLookupSource
+{
+    private static final int BUILD_POSITIONS = 100_000;
+    private static final int PROBE_POSITIONS = 1_000_000;
+
+    @Benchmark
+    @OperationsPerInvocation(PROBE_POSITIONS)
+    public long getJoinPosition(BenchmarkData data)
+    {
+        LookupSource lookupSource = data.getLookupSource();
+        long matches = 0;
+        for (Page probePage : data.getProbePages()) {
+            for (int position = 0; position < probePage.getPositionCount(); position++) {
+                long joinPosition = lookupSource.getJoinPosition(position, probePage);
+                while (joinPosition >= 0) {
+                    matches++;
+                    joinPosition = lookupSource.getNextJoinPosition(joinPosition);
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBE_POSITIONS)
+    public long getJoinPositionPrecomputedHash(BenchmarkData data)
+    {
+        LookupSource lookupSource = data.getLookupSource();
+        long matches = 0;
+        List<Page> probePages = data.getProbePages();
+        for (int page = 0; page < probePages.size(); page++) {
+            Page probePage = probePages.get(page);
+            long[] hashes = data.getProbeHashes().get(page);
+            for (int position = 0; position < probePage.getPositionCount(); position++) {
+                long joinPosition = lookupSource.getJoinPosition(position, probePage, hashes[position]);
+                while (joinPosition >= 0) {
+                    matches++;
+                    joinPosition = lookupSource.getNextJoinPosition(joinPosition);
+                }
+            }
+        }
+        return matches;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"BIGINT", "VARCHAR"})
+        private String keyType = "BIGINT";
+
+        @Param({"1", "3"})
+        private int keyChannelCount = 1;
+
+        // fraction of the probe rows that find a match on the build side
+        @Param({"0.1", "1.0"})
+        private double matchRatio = 1.0;
+
+        @Param({"true", "false"})
+        private boolean hashEnabled;
+
+        private LookupSource lookupSource;
+        private List<Page> probePages;
+        private List<long[]> probeHashes;
+
+        @Setup
+        public void setup()
+        {
+            Random random = new Random(42);
+            List<Type> keyTypes = Collections.nCopies(keyChannelCount, getType());
+            int[] keyChannels = new int[keyChannelCount];
+            ImmutableList.Builder<Integer> joinChannels = ImmutableList.builder();
+            for (int channel = 0; channel < keyChannelCount; channel++) {
+                keyChannels[channel] = channel;
+                joinChannels.add(channel);
+            }
+            HashGenerator hashGenerator = new InterpretedHashGenerator(keyTypes, keyChannels);
+
+            List<Type> buildTypes = hashEnabled ? ImmutableList.copyOf(Iterables.concat(keyTypes, ImmutableList.of(BIGINT))) : keyTypes;
+            PagesIndex pagesIndex = new PagesIndex(buildTypes, BUILD_POSITIONS);
+            for (Page page : createPages(keyTypes, BUILD_POSITIONS, BUILD_POSITIONS, random)) {
+                if (hashEnabled) {
+                    page = appendHashChannel(page, hashGenerator);
+                }
+                pagesIndex.addPage(page);
+            }
+            Optional<Integer> hashChannel = hashEnabled ? Optional.of(keyChannelCount) : Optional.empty();
+            lookupSource = pagesIndex.createLookupSource(joinChannels.build(), hashChannel);
+
+            probePages = createPages(keyTypes, PROBE_POSITIONS, (int) (BUILD_POSITIONS / matchRatio), random);
+            ImmutableList.Builder<long[]> probeHashes = ImmutableList.builder();
+            for (Page probePage : probePages) {
+                long[] hashes = new long[probePage.getPositionCount()];
+                for (int position = 0; position < hashes.length; position++) {
+                    hashes[position] = hashGenerator.hashPosition(position, probePage);
+                }
+                probeHashes.add(hashes);
+            }
+            this.probeHashes = probeHashes.build();
+        }
+
+        private Type getType()
+        {
+            switch (keyType) {
+                case "BIGINT":
+                    return BIGINT;
+                case "VARCHAR":
+                    return VARCHAR;
+            }
+            throw new IllegalArgumentException("Unsupported type: " + keyType);
+        }
+
+        public LookupSource getLookupSource()
+        {
+            return lookupSource;
+        }
+
+        public List<Page> getProbePages()
+        {
+            return probePages;
+        }
+
+        public List<long[]> getProbeHashes()
+        {
+            return probeHashes;
+        }
+    }
+
+    private static List<Page> createPages(List<Type> types, int positionCount, int distinctValues, Random random)
+    {
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        PageBuilder pageBuilder = new PageBuilder(types);
+        for (int position = 0; position < positionCount; position++) {
+            long value = random.nextInt(distinctValues);
+            pageBuilder.declarePosition();
+            for (int channel = 0; channel < types.size(); channel++) {
+                BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(channel);
+                if (types.get(channel).equals(BIGINT)) {
+                    BIGINT.writeLong(blockBuilder, value);
+                }
+                else {
+                    VARCHAR.writeString(blockBuilder, "key_" + value);
+                }
+            }
+            if (pageBuilder.isFull()) {
+                pages.add(pageBuilder.build());
+                pageBuilder.reset();
+            }
+        }
+        if (!pageBuilder.isEmpty()) {
+            pages.add(pageBuilder.build());
+        }
+        return pages.build();
+    }
+
+    private static Page appendHashChannel(Page page, HashGenerator hashGenerator)
+    {
+        BlockBuilder hashBlockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), page.getPositionCount());
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            BIGINT.writeLong(hashBlockBuilder, hashGenerator.hashPosition(position, page));
+        }
+        Block[] blocks = Arrays.copyOf(page.getBlocks(), page.getChannelCount() + 1);
+        blocks[page.getChannelCount()] = hashBlockBuilder.build();
+        return new Page(page.getPositionCount(), blocks);
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkLookupSource().getJoinPosition(data);
+        new BenchmarkLookupSource().getJoinPositionPrecomputedHash(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkLookupSource.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
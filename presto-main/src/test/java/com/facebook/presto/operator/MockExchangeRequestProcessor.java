@@ -15,6 +15,7 @@ package com.facebook.presto.operator;
 
 import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.block.PagesSerde;
+import com.facebook.presto.block.PagesSerde.PagesWriteStats;
 import com.facebook.presto.client.PrestoHeaders;
 import com.facebook.presto.execution.BufferResult;
 import com.facebook.presto.spi.Page;
@@ -103,7 +104,7 @@ public class MockExchangeRequestProcessor
         HttpStatus status;
         if (!pages.isEmpty()) {
             DynamicSliceOutput sliceOutput = new DynamicSliceOutput(64);
-            PagesSerde.writePages(new BlockEncodingManager(new TypeRegistry()), sliceOutput, pages);
+            PagesSerde.writeExchangePages(new BlockEncodingManager(new TypeRegistry()), false, sliceOutput, pages, new PagesWriteStats());
             bytes = sliceOutput.slice().getBytes();
             status = HttpStatus.OK;
         }
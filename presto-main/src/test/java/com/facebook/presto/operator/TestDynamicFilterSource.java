@@ -0,0 +1,235 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.RowPagesBuilder;
+import com.facebook.presto.operator.HashBuilderOperator.HashBuilderOperatorFactory;
+import com.facebook.presto.operator.ValuesOperator.ValuesOperatorFactory;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.DummySpillerFactory;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import io.airlift.units.DataSize;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestDynamicFilterSource
+{
+    private static final int PARTITION_COUNT = 4;
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+    }
+
+    @AfterClass
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testNotDoneBeforeBuild()
+    {
+        DynamicFilterSource dynamicFilterSource = new DynamicFilterSource(ImmutableList.of(BIGINT));
+        assertFalse(dynamicFilterSource.isDone());
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.all(BIGINT));
+    }
+
+    @Test
+    public void testDiscreteValues()
+    {
+        List<Type> types = ImmutableList.of(VARCHAR, BIGINT);
+        RowPagesBuilder buildPages = rowPagesBuilder(types)
+                .row("a", 1)
+                .row("b", 3)
+                .row(null, null)
+                .pageBreak()
+                .row("a", 5);
+
+        DynamicFilterSource dynamicFilterSource = build(buildPages, Ints.asList(0, 1), false);
+
+        assertTrue(dynamicFilterSource.isDone());
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.create(ValueSet.of(VARCHAR, utf8Slice("a"), utf8Slice("b")), false));
+        assertEquals(dynamicFilterSource.getKeyDomain(1), Domain.create(ValueSet.of(BIGINT, 1L, 3L, 5L), false));
+    }
+
+    @Test
+    public void testRange()
+    {
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT)
+                .addSequencePage(5000, 100);
+
+        DynamicFilterSource dynamicFilterSource = build(buildPages, Ints.asList(0), false);
+
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 100L, true, 5099L, true)), false));
+    }
+
+    @Test
+    public void testEmptyBuild()
+    {
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT)
+                .row((Object) null);
+
+        DynamicFilterSource dynamicFilterSource = build(buildPages, Ints.asList(0), false);
+
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.none(BIGINT));
+    }
+
+    @Test
+    public void testSpilledBuild()
+    {
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT)
+                .addSequencePage(10, 0);
+
+        DynamicFilterSource dynamicFilterSource = build(buildPages, Ints.asList(0), true);
+
+        assertTrue(dynamicFilterSource.isDone());
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.all(BIGINT));
+    }
+
+    @Test
+    public void testParallelBuild()
+    {
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT)
+                .addSequencePage(10, 0)
+                .addSequencePage(10, 5);
+
+        DynamicFilterSource dynamicFilterSource = buildParallel(buildPages, false);
+
+        assertTrue(dynamicFilterSource.isDone());
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.create(ValueSet.of(BIGINT, 0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L), false));
+    }
+
+    @Test
+    public void testParallelBuildRange()
+    {
+        // each partition has few enough distinct values, but together they have too many
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT)
+                .addSequencePage(2000, 100);
+
+        DynamicFilterSource dynamicFilterSource = buildParallel(buildPages, false);
+
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 100L, true, 2099L, true)), false));
+    }
+
+    @Test
+    public void testParallelSpilledBuild()
+    {
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT)
+                .addSequencePage(10, 0);
+
+        DynamicFilterSource dynamicFilterSource = buildParallel(buildPages, true);
+
+        assertTrue(dynamicFilterSource.isDone());
+        assertEquals(dynamicFilterSource.getKeyDomain(0), Domain.all(BIGINT));
+    }
+
+    private DynamicFilterSource build(RowPagesBuilder buildPages, List<Integer> hashChannels, boolean spill)
+    {
+        ImmutableList.Builder<Type> keyTypes = ImmutableList.builder();
+        for (int channel : hashChannels) {
+            keyTypes.add(buildPages.getTypes().get(channel));
+        }
+        DynamicFilterSource dynamicFilterSource = new DynamicFilterSource(keyTypes.build());
+
+        DriverContext driverContext = createTaskContext(executor, TEST_SESSION).addPipelineContext(true, true).addDriverContext();
+        ValuesOperatorFactory valuesOperatorFactory = new ValuesOperatorFactory(0, new PlanNodeId("test"), buildPages.getTypes(), buildPages.build());
+        HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(
+                1,
+                new PlanNodeId("test"),
+                buildPages.getTypes(),
+                hashChannels,
+                Optional.empty(),
+                100,
+                spill,
+                spill ? new DataSize(1, BYTE) : new DataSize(1, MEGABYTE),
+                new DummySpillerFactory(),
+                Optional.of(dynamicFilterSource));
+
+        Driver driver = new Driver(driverContext,
+                valuesOperatorFactory.createOperator(driverContext),
+                hashBuilderOperatorFactory.createOperator(driverContext));
+
+        while (!driver.isFinished()) {
+            driver.process();
+        }
+        return dynamicFilterSource;
+    }
+
+    private DynamicFilterSource buildParallel(RowPagesBuilder buildPages, boolean spill)
+    {
+        DynamicFilterSource dynamicFilterSource = new DynamicFilterSource(buildPages.getTypes(), PARTITION_COUNT);
+        ParallelHashBuilder parallelHashBuilder = new ParallelHashBuilder(
+                buildPages.getTypes(),
+                Ints.asList(0),
+                Optional.empty(),
+                100,
+                PARTITION_COUNT,
+                spill,
+                spill ? new DataSize(1, BYTE) : new DataSize(1, MEGABYTE),
+                new DummySpillerFactory(),
+                Optional.of(dynamicFilterSource));
+
+        TaskContext taskContext = createTaskContext(executor, TEST_SESSION);
+        DriverContext collectDriverContext = taskContext.addPipelineContext(true, true).addDriverContext();
+        ValuesOperatorFactory valuesOperatorFactory = new ValuesOperatorFactory(0, new PlanNodeId("test"), buildPages.getTypes(), buildPages.build());
+        Driver driver = new Driver(collectDriverContext,
+                valuesOperatorFactory.createOperator(collectDriverContext),
+                parallelHashBuilder.getCollectOperatorFactory(1, new PlanNodeId("test")).createOperator(collectDriverContext));
+        while (!driver.isFinished()) {
+            driver.process();
+        }
+
+        PipelineContext buildPipeline = taskContext.addPipelineContext(true, true);
+        OperatorFactory buildOperatorFactory = parallelHashBuilder.getBuildOperatorFactory(new PlanNodeId("test"));
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            // the summary is only published once every partition has been built
+            assertEquals(dynamicFilterSource.isDone(), spill);
+            DriverContext buildDriverContext = buildPipeline.addDriverContext();
+            Driver buildDriver = new Driver(buildDriverContext, buildOperatorFactory.createOperator(buildDriverContext));
+            while (!buildDriver.isFinished()) {
+                buildDriver.process();
+            }
+        }
+        return dynamicFilterSource;
+    }
+}
@@ -17,6 +17,7 @@ import com.facebook.presto.block.BlockAssertions;
 import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.type.TypeRegistry;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.http.client.testing.TestingHttpClient;
 import io.airlift.units.DataSize;
@@ -38,6 +39,7 @@ import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
@@ -95,6 +97,8 @@ public class TestExchangeClient
             assertEquals(exchangeClient.getStatus().getBufferedPages(), 0);
         }
         assertTrue(exchangeClient.getStatus().getBufferedBytes() == 0);
+        assertTrue(exchangeClient.getStatus().getSerializedBytes() > 0);
+        assertEquals(exchangeClient.getStatus().getUncompressedBytes(), exchangeClient.getStatus().getSerializedBytes());
 
         // client should have sent only 2 requests: one to get all pages and once to get the done signal
         assertStatus(exchangeClient.getStatus().getPageBufferClientStatuses().get(0), location, "closed", 3, 3, 3, "not scheduled");
@@ -270,6 +274,28 @@ public class TestExchangeClient
         assertEquals(clientStatus.getHttpRequestState(), "not scheduled", "httpRequestState");
     }
 
+    @Test
+    public void testMergeStatus()
+    {
+        ExchangeClientStatus first = new ExchangeClientStatus(100, 10, 1, 1, false, 10, 20, 1, ImmutableList.of());
+        ExchangeClientStatus second = new ExchangeClientStatus(200, 40, 3, 2, true, 120, 240, 2, ImmutableList.of());
+
+        // the average is weighted by the request counts
+        ExchangeClientStatus merged = first.mergeWith(second);
+        assertEquals(merged.getBufferedBytes(), 300);
+        assertEquals(merged.getAverageBytesPerRequest(), 32);
+        assertEquals(merged.getSuccessfulRequests(), 4);
+        assertEquals(merged.getBufferedPages(), 3);
+        assertFalse(merged.isNoMoreLocations());
+        assertEquals(merged.getSerializedBytes(), 130);
+        assertEquals(merged.getUncompressedBytes(), 260);
+
+        // a client that has not completed any request does not change the average
+        ExchangeClientStatus idle = new ExchangeClientStatus(0, 0, 0, 0, true, 0, 0, 0, ImmutableList.of());
+        assertEquals(merged.mergeWith(idle).getAverageBytesPerRequest(), 32);
+        assertEquals(idle.mergeWith(idle).getAverageBytesPerRequest(), 0);
+    }
+
     private static Page createPage(int size)
     {
         return new Page(BlockAssertions.createLongSequenceBlock(0, size));
@@ -15,6 +15,7 @@ package com.facebook.presto.operator;
 
 import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.block.PagesSerde;
+import com.facebook.presto.block.PagesSerde.PagesWriteStats;
 import com.facebook.presto.metadata.RemoteTransactionHandle;
 import com.facebook.presto.metadata.Split;
 import com.facebook.presto.operator.ExchangeOperator.ExchangeOperatorFactory;
@@ -384,7 +385,7 @@ public class TestExchangeOperator
                 headers.put(PRESTO_PAGE_NEXT_TOKEN, String.valueOf(pageToken + 1));
                 headers.put(PRESTO_BUFFER_COMPLETE, String.valueOf(false));
                 DynamicSliceOutput output = new DynamicSliceOutput(256);
-                PagesSerde.writePages(blockEncodingSerde, output, page);
+                PagesSerde.writeExchangePages(blockEncodingSerde, false, output, ImmutableList.of(page), new PagesWriteStats());
                 return new TestingResponse(HttpStatus.OK, headers.build(), output.slice().getInput());
             }
             else if (taskBuffer.isFinished()) {
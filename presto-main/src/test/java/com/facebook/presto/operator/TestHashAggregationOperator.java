@@ -25,6 +25,7 @@ import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.PageBuilderStatus;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.DummySpillerFactory;
 import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
@@ -150,6 +151,97 @@ public class TestHashAggregationOperator
         assertOperatorEqualsIgnoreOrder(operator, input, expected, hashEnabled, Optional.of(hashChannels.size()));
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testAdaptivePartialAggregation(boolean hashEnabled)
+            throws Exception
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(20, 0, 0)
+                .addSequencePage(20, 20, 20)
+                .addSequencePage(20, 40, 40)
+                .build();
+
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                Step.PARTIAL,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(1), Optional.empty(), Optional.empty(), 1.0)),
+                Optional.<Integer>empty(),
+                rowPagesBuilder.getHashChannel(),
+                100_000,
+                new DataSize(16, MEGABYTE),
+                false,
+                new DataSize(0, Unit.BYTE),
+                new DummySpillerFactory(),
+                true,
+                10,
+                0.8);
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        // the first page has only unique keys, so the rows of the following pages are passed through
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT)
+                .pages(rowPagesBuilder(BIGINT, BIGINT).addSequencePage(60, 0, 0).build())
+                .build();
+
+        assertOperatorEqualsIgnoreOrder(operator, input, expected, hashEnabled, Optional.of(hashChannels.size()));
+        assertEquals(operator.getOperatorContext().getOperatorStats().getPartialAggregationBypassedPositions(), 40);
+    }
+
+    @Test(dataProvider = "hashEnabledValues")
+    public void testHashAggregationWithSpill(boolean hashEnabled)
+            throws Exception
+    {
+        MetadataManager metadata = MetadataManager.createTestMetadataManager();
+        InternalAggregationFunction maxVarcharColumn = metadata.getFunctionRegistry().getAggregateFunctionImplementation(new Signature("max", AGGREGATE, StandardTypes.VARCHAR, StandardTypes.VARCHAR));
+        List<Integer> hashChannels = Ints.asList(1);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, VARCHAR, VARCHAR, VARCHAR, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(10, 100, 0, 100, 0)
+                .addSequencePage(10, 100, 0, 200, 0)
+                .addSequencePage(10, 100, 0, 300, 0)
+                .build();
+
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(VARCHAR),
+                hashChannels,
+                Step.SINGLE,
+                ImmutableList.of(COUNT.bind(ImmutableList.of(0), Optional.empty(), Optional.empty(), 1.0),
+                        LONG_SUM.bind(ImmutableList.of(3), Optional.empty(), Optional.empty(), 1.0),
+                        LONG_AVERAGE.bind(ImmutableList.of(3), Optional.empty(), Optional.empty(), 1.0),
+                        maxVarcharColumn.bind(ImmutableList.of(2), Optional.empty(), Optional.empty(), 1.0)),
+                Optional.<Integer>empty(),
+                rowPagesBuilder.getHashChannel(),
+                100_000,
+                new DataSize(16, MEGABYTE),
+                true,
+                new DataSize(1, Unit.BYTE),
+                new DummySpillerFactory());
+
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, BIGINT, DOUBLE, VARCHAR)
+                .row("0", 3, 0, 0.0, "300")
+                .row("1", 3, 3, 1.0, "301")
+                .row("2", 3, 6, 2.0, "302")
+                .row("3", 3, 9, 3.0, "303")
+                .row("4", 3, 12, 4.0, "304")
+                .row("5", 3, 15, 5.0, "305")
+                .row("6", 3, 18, 6.0, "306")
+                .row("7", 3, 21, 7.0, "307")
+                .row("8", 3, 24, 8.0, "308")
+                .row("9", 3, 27, 9.0, "309")
+                .build();
+
+        assertOperatorEqualsIgnoreOrder(operator, input, expected, hashEnabled, Optional.of(hashChannels.size()));
+        assertTrue(operator.getOperatorContext().getOperatorStats().getSpilledDataSize().toBytes() > 0);
+    }
+
     @Test(dataProvider = "hashEnabledValues", expectedExceptions = ExceededMemoryLimitException.class, expectedExceptionsMessageRegExp = "Query exceeded local memory limit of 10B")
     public void testMemoryLimit(boolean hashEnabled)
     {
@@ -19,11 +19,14 @@ import com.facebook.presto.operator.HashBuilderOperator.HashBuilderOperatorFacto
 import com.facebook.presto.operator.ValuesOperator.ValuesOperatorFactory;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.DummySpillerFactory;
+import com.facebook.presto.spiller.SpillerFactory;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
 import com.facebook.presto.testing.TestingTaskContext;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -37,12 +40,19 @@ import java.util.concurrent.ExecutorService;
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
+import static com.facebook.presto.operator.OperatorAssertion.dropChannel;
+import static com.facebook.presto.operator.OperatorAssertion.toMaterializedResult;
+import static com.facebook.presto.operator.OperatorAssertion.toPages;
+import static com.facebook.presto.operator.OperatorAssertion.without;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.collect.Iterables.concat;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
@@ -570,6 +580,92 @@ public class TestHashJoinOperator
         assertProbeOuterJoin(probePages, buildPages, hashChannels, parallelBuild, expected);
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testInnerJoinWithSpill(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
+            throws Exception
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+
+        RowPagesBuilder buildPages = rowPagesBuilder(buildHashEnabled, hashChannels, ImmutableList.of(VARCHAR, BIGINT, BIGINT))
+                .addSequencePage(5, 20, 30, 40)
+                .addSequencePage(5, 25, 35, 45);
+
+        RowPagesBuilder probePages = rowPagesBuilder(probeHashEnabled, hashChannels, ImmutableList.<Type>of(VARCHAR, BIGINT, BIGINT))
+                .addSequencePage(500, 0, 1000, 2000)
+                .addSequencePage(500, 500, 1500, 2500);
+
+        MaterializedResult expected = MaterializedResult.resultBuilder(taskContext.getSession(), concat(probePages.getTypes(), buildPages.getTypes()))
+                .row("20", 1020, 2020, "20", 30, 40)
+                .row("21", 1021, 2021, "21", 31, 41)
+                .row("22", 1022, 2022, "22", 32, 42)
+                .row("23", 1023, 2023, "23", 33, 43)
+                .row("24", 1024, 2024, "24", 34, 44)
+                .row("25", 1025, 2025, "25", 35, 45)
+                .row("26", 1026, 2026, "26", 36, 46)
+                .row("27", 1027, 2027, "27", 37, 47)
+                .row("28", 1028, 2028, "28", 38, 48)
+                .row("29", 1029, 2029, "29", 39, 49)
+                .build();
+
+        LookupSourceSupplier lookupSourceSupplier = buildHash(parallelBuild, taskContext, hashChannels, buildPages, true);
+
+        OperatorFactory joinOperatorFactory = LookupJoinOperators.innerJoin(
+                0,
+                new PlanNodeId("test"),
+                lookupSourceSupplier,
+                probePages.getTypes(),
+                hashChannels,
+                probePages.getHashChannel());
+
+        assertJoinWithSpill(joinOperatorFactory, lookupSourceSupplier, probePages, buildPages, expected);
+    }
+
+    @Test(dataProvider = "hashEnabledValues")
+    public void testProbeOuterJoinWithSpill(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
+            throws Exception
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+
+        List<Type> buildTypes = ImmutableList.<Type>of(VARCHAR, BIGINT, BIGINT);
+        RowPagesBuilder buildPages = rowPagesBuilder(buildHashEnabled, hashChannels, buildTypes)
+                .addSequencePage(5, 20, 30, 40)
+                .addSequencePage(5, 25, 35, 45);
+
+        List<Type> probeTypes = ImmutableList.<Type>of(VARCHAR, BIGINT, BIGINT);
+        RowPagesBuilder probePages = rowPagesBuilder(probeHashEnabled, hashChannels, probeTypes)
+                .addSequencePage(15, 20, 1020, 2020);
+
+        MaterializedResult expected = MaterializedResult.resultBuilder(taskContext.getSession(), concat(probeTypes, buildTypes))
+                .row("20", 1020, 2020, "20", 30, 40)
+                .row("21", 1021, 2021, "21", 31, 41)
+                .row("22", 1022, 2022, "22", 32, 42)
+                .row("23", 1023, 2023, "23", 33, 43)
+                .row("24", 1024, 2024, "24", 34, 44)
+                .row("25", 1025, 2025, "25", 35, 45)
+                .row("26", 1026, 2026, "26", 36, 46)
+                .row("27", 1027, 2027, "27", 37, 47)
+                .row("28", 1028, 2028, "28", 38, 48)
+                .row("29", 1029, 2029, "29", 39, 49)
+                .row("30", 1030, 2030, null, null, null)
+                .row("31", 1031, 2031, null, null, null)
+                .row("32", 1032, 2032, null, null, null)
+                .row("33", 1033, 2033, null, null, null)
+                .row("34", 1034, 2034, null, null, null)
+                .build();
+
+        LookupSourceSupplier lookupSourceSupplier = buildHash(parallelBuild, taskContext, hashChannels, buildPages, true);
+
+        OperatorFactory joinOperatorFactory = LookupJoinOperators.probeOuterJoin(
+                0,
+                new PlanNodeId("test"),
+                lookupSourceSupplier,
+                probePages.getTypes(),
+                hashChannels,
+                probePages.getHashChannel());
+
+        assertJoinWithSpill(joinOperatorFactory, lookupSourceSupplier, probePages, buildPages, expected);
+    }
+
     @Test(expectedExceptions = ExceededMemoryLimitException.class, expectedExceptionsMessageRegExp = "Query exceeded local memory limit of.*", dataProvider = "hashEnabledValues")
     public void testMemoryLimit(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
             throws Exception
@@ -643,6 +739,61 @@ public class TestHashJoinOperator
         assertOperatorEquals(joinOperator, probePages.build(), expected, true, getHashChannels(probePages, buildPages));
     }
 
+    private void assertJoinWithSpill(OperatorFactory joinOperatorFactory, LookupSourceSupplier lookupSourceSupplier, RowPagesBuilder probePages, RowPagesBuilder buildPages, MaterializedResult expected)
+    {
+        SpilledLookupSource spilledLookupSource = lookupSourceSupplier.getSpilledLookupSource().get();
+        assertFalse(spilledLookupSource.getSpilledPartitions().isEmpty());
+        OperatorFactory spilledOperatorFactory = ((JoinOperatorFactory) joinOperatorFactory).createSpilledOperatorFactory().get();
+
+        // spread the probe rows over two probe operators
+        List<Page> probeInput = probePages.build();
+        ImmutableList.Builder<Page> outputPages = ImmutableList.builder();
+        PipelineContext probePipeline = taskContext.addPipelineContext(true, true);
+        for (List<Page> input : ImmutableList.of(probeInput.subList(0, 1), probeInput.subList(1, probeInput.size()))) {
+            Operator joinOperator = joinOperatorFactory.createOperator(probePipeline.addDriverContext());
+            outputPages.addAll(toPages(joinOperator, input));
+            joinOperator.close();
+        }
+
+        // the spilled rows can only be joined once all probe operators are done
+        PipelineContext spilledPipeline = taskContext.addPipelineContext(false, true);
+        List<Operator> spilledOperators = ImmutableList.of(
+                spilledOperatorFactory.createOperator(spilledPipeline.addDriverContext()),
+                spilledOperatorFactory.createOperator(spilledPipeline.addDriverContext()));
+        assertNull(spilledOperators.get(0).getOutput());
+        ListenableFuture<?> blocked = spilledOperators.get(0).isBlocked();
+        assertFalse(blocked.isDone());
+        joinOperatorFactory.close();
+        assertTrue(blocked.isDone());
+        spilledOperatorFactory.close();
+
+        // the spilled join operators share each loaded partition
+        for (int loops = 0; !spilledOperators.stream().allMatch(Operator::isFinished) && loops < 10_000; loops++) {
+            for (Operator spilledOperator : spilledOperators) {
+                assertFalse(spilledOperator.needsInput());
+                Page outputPage = spilledOperator.getOutput();
+                if (outputPage != null) {
+                    outputPages.add(outputPage);
+                }
+            }
+        }
+        for (Operator spilledOperator : spilledOperators) {
+            assertTrue(spilledOperator.isFinished());
+            spilledOperator.close();
+        }
+        assertTrue(spilledLookupSource.isFinished());
+
+        List<Page> pages = outputPages.build();
+        List<Type> types = joinOperatorFactory.getTypes();
+        List<Integer> hashChannels = getHashChannels(probePages, buildPages);
+        if (!hashChannels.isEmpty()) {
+            pages = dropChannel(pages, hashChannels);
+            types = without(types, hashChannels);
+        }
+        MaterializedResult actual = toMaterializedResult(taskContext.getSession(), types, pages);
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+    }
+
     private TaskContext createTaskContext()
     {
         return TestingTaskContext.createTaskContext(executor, TEST_SESSION);
@@ -662,8 +813,25 @@ public class TestHashJoinOperator
 
     private static LookupSourceSupplier buildHash(boolean parallelBuild, TaskContext taskContext, List<Integer> hashChannels, RowPagesBuilder buildPages)
     {
+        return buildHash(parallelBuild, taskContext, hashChannels, buildPages, false);
+    }
+
+    private static LookupSourceSupplier buildHash(boolean parallelBuild, TaskContext taskContext, List<Integer> hashChannels, RowPagesBuilder buildPages, boolean spillEnabled)
+    {
+        // with spill enabled every page exceeds the memory limit, so some build rows are always spilled
+        DataSize memoryLimitBeforeSpill = new DataSize(1, BYTE);
+        SpillerFactory spillerFactory = spillEnabled ? new DummySpillerFactory() : SpillerFactory.DISABLED;
+
         if (parallelBuild) {
-            ParallelHashBuilder parallelHashBuilder = new ParallelHashBuilder(buildPages.getTypes(), hashChannels, buildPages.getHashChannel(), 100, PARTITION_COUNT);
+            ParallelHashBuilder parallelHashBuilder = new ParallelHashBuilder(
+                    buildPages.getTypes(),
+                    hashChannels,
+                    buildPages.getHashChannel(),
+                    100,
+                    PARTITION_COUNT,
+                    spillEnabled,
+                    memoryLimitBeforeSpill,
+                    spillerFactory);
 
             // collect input data
             DriverContext collectDriverContext = taskContext.addPipelineContext(true, true).addDriverContext();
@@ -696,7 +864,16 @@ public class TestHashJoinOperator
             DriverContext driverContext = taskContext.addPipelineContext(true, true).addDriverContext();
 
             ValuesOperatorFactory valuesOperatorFactory = new ValuesOperatorFactory(0, new PlanNodeId("test"), buildPages.getTypes(), buildPages.build());
-            HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(1, new PlanNodeId("test"), buildPages.getTypes(), hashChannels, buildPages.getHashChannel(), 100);
+            HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(
+                    1,
+                    new PlanNodeId("test"),
+                    buildPages.getTypes(),
+                    hashChannels,
+                    buildPages.getHashChannel(),
+                    100,
+                    spillEnabled,
+                    memoryLimitBeforeSpill,
+                    spillerFactory);
 
             Driver driver = new Driver(driverContext,
                     valuesOperatorFactory.createOperator(driverContext),
@@ -0,0 +1,341 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.RowPagesBuilder;
+import com.facebook.presto.operator.MergeJoinOperator.MergeJoinOperatorFactory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.testing.MaterializedResult;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
+import static com.facebook.presto.operator.OperatorAssertion.toMaterializedResult;
+import static com.facebook.presto.operator.OperatorAssertion.toPages;
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_FIRST;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
+import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestMergeJoinOperator
+{
+    private static final List<SortOrder> ORDERINGS = ImmutableList.of(ASC_NULLS_LAST);
+
+    private ExecutorService executor;
+    private DriverContext driverContext;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+
+        driverContext = createTaskContext(executor, TEST_SESSION)
+                .addPipelineContext(true, true)
+                .addDriverContext();
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testInnerJoin()
+            throws Exception
+    {
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, VARCHAR)
+                .row(2, "b", 2, "x")
+                .row(2, "b", 2, "y")
+                .row(2, "b", 2, "z")
+                .row(2, "c", 2, "x")
+                .row(2, "c", 2, "y")
+                .row(2, "c", 2, "z")
+                .row(5, "e", 5, "v")
+                .build();
+
+        assertOperatorEquals(createOperator(INNER), probePages(), expected);
+    }
+
+    @Test
+    public void testLeftJoin()
+            throws Exception
+    {
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, VARCHAR)
+                .row(1, "a", null, null)
+                .row(2, "b", 2, "x")
+                .row(2, "b", 2, "y")
+                .row(2, "b", 2, "z")
+                .row(2, "c", 2, "x")
+                .row(2, "c", 2, "y")
+                .row(2, "c", 2, "z")
+                .row(4, "d", null, null)
+                .row(5, "e", 5, "v")
+                .row(null, "f", null, null)
+                .build();
+
+        assertOperatorEquals(createOperator(LEFT), probePages(), expected);
+    }
+
+    @Test
+    public void testRightJoin()
+            throws Exception
+    {
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, VARCHAR)
+                .row(2, "b", 2, "x")
+                .row(2, "b", 2, "y")
+                .row(2, "b", 2, "z")
+                .row(2, "c", 2, "x")
+                .row(2, "c", 2, "y")
+                .row(2, "c", 2, "z")
+                .row(null, null, 3, "w")
+                .row(5, "e", 5, "v")
+                .row(null, null, null, "u")
+                .build();
+
+        assertOperatorEquals(createOperator(RIGHT), probePages(), expected);
+    }
+
+    @Test
+    public void testFullJoin()
+            throws Exception
+    {
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, VARCHAR)
+                .row(1, "a", null, null)
+                .row(2, "b", 2, "x")
+                .row(2, "b", 2, "y")
+                .row(2, "b", 2, "z")
+                .row(2, "c", 2, "x")
+                .row(2, "c", 2, "y")
+                .row(2, "c", 2, "z")
+                .row(null, null, 3, "w")
+                .row(4, "d", null, null)
+                .row(5, "e", 5, "v")
+                .row(null, "f", null, null)
+                .row(null, null, null, "u")
+                .build();
+
+        assertOperatorEquals(createOperator(FULL), probePages(), expected);
+    }
+
+    @Test
+    public void testBlockedOnBuild()
+            throws Exception
+    {
+        InMemoryExchange buildExchange = new InMemoryExchange(ImmutableList.of(BIGINT, VARCHAR));
+        Operator operator = new MergeJoinOperatorFactory(0, new PlanNodeId("test"), INNER, ImmutableList.of(BIGINT, VARCHAR), ImmutableList.of(0), ImmutableList.of(0), ORDERINGS, buildExchange)
+                .createOperator(driverContext);
+
+        operator.addInput(rowPagesBuilder(BIGINT, VARCHAR).row(1, "a").build().get(0));
+        assertNull(operator.getOutput());
+        assertFalse(operator.isBlocked().isDone());
+        assertFalse(operator.needsInput());
+
+        buildExchange.addPage(rowPagesBuilder(BIGINT, VARCHAR).row(1, "x").build().get(0));
+        assertTrue(operator.isBlocked().isDone());
+
+        // the build row can only be matched once the next build key is known
+        buildExchange.finish();
+        Page output = operator.getOutput();
+        assertTrue(output != null && output.getPositionCount() == 1);
+        assertTrue(operator.needsInput());
+    }
+
+    @Test
+    public void testMultipleKeysWithDescendingNullsFirst()
+            throws Exception
+    {
+        // sorted on the first key descending with nulls first, then on the second key ascending
+        List<SortOrder> orderings = ImmutableList.of(DESC_NULLS_FIRST, ASC_NULLS_LAST);
+        List<Page> buildPages = rowPagesBuilder(BIGINT, VARCHAR, VARCHAR)
+                .row(null, "a", "n")
+                .row(3, "b", "x")
+                .pageBreak()
+                .row(3, "c", "y")
+                .row(2, "a", "z")
+                .row(1, "a", "w")
+                .build();
+        List<Page> probePages = rowPagesBuilder(BIGINT, VARCHAR, BIGINT)
+                .row(null, "a", 0)
+                .row(3, "a", 1)
+                .row(3, "b", 2)
+                .row(2, "a", 3)
+                .row(1, "c", 4)
+                .build();
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, BIGINT, VARCHAR, VARCHAR)
+                .row(null, "a", 0, null, null, null)
+                .row(null, null, null, null, "a", "n")
+                .row(3, "a", 1, null, null, null)
+                .row(3, "b", 2, 3, "b", "x")
+                .row(null, null, null, 3, "c", "y")
+                .row(2, "a", 3, 2, "a", "z")
+                .row(null, null, null, 1, "a", "w")
+                .row(1, "c", 4, null, null, null)
+                .build();
+        Operator operator = createOperator(FULL, ImmutableList.of(BIGINT, VARCHAR, BIGINT), ImmutableList.of(BIGINT, VARCHAR, VARCHAR), buildPages, ImmutableList.of(0, 1), ImmutableList.of(0, 1), orderings);
+        assertOperatorEquals(operator, probePages, expected);
+    }
+
+    @Test
+    public void testDuplicateKeysSpanningPages()
+            throws Exception
+    {
+        // the run of key 2 spans two probe pages and three build pages
+        List<Page> buildPages = rowPagesBuilder(BIGINT, VARCHAR)
+                .row(2, "v")
+                .row(2, "w")
+                .pageBreak()
+                .row(2, "x")
+                .pageBreak()
+                .row(2, "y")
+                .row(4, "z")
+                .build();
+        List<Page> probePages = rowPagesBuilder(BIGINT, VARCHAR)
+                .row(1, "a")
+                .row(2, "b")
+                .row(2, "c")
+                .pageBreak()
+                .row(2, "d")
+                .row(2, "e")
+                .row(3, "f")
+                .build();
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, VARCHAR)
+                .row(1, "a", null, null);
+        for (String probeValue : ImmutableList.of("b", "c", "d", "e")) {
+            for (String buildValue : ImmutableList.of("v", "w", "x", "y")) {
+                expected.row(2, probeValue, 2, buildValue);
+            }
+        }
+        expected.row(3, "f", null, null)
+                .row(null, null, 4, "z");
+
+        Operator operator = createOperator(FULL, ImmutableList.of(BIGINT, VARCHAR), ImmutableList.of(BIGINT, VARCHAR), buildPages, ImmutableList.of(0), ImmutableList.of(0), ORDERINGS);
+        assertOperatorEquals(operator, probePages, expected.build());
+    }
+
+    @Test
+    public void testOutputPageFullWithinRun()
+            throws Exception
+    {
+        // each output row carries a wide build value, so the output pages fill up while joining a run
+        String buildValue = Strings.repeat("x", 200);
+        RowPagesBuilder buildPages = rowPagesBuilder(BIGINT, VARCHAR);
+        for (int i = 0; i < 3000; i++) {
+            if (i > 0 && i % 1000 == 0) {
+                buildPages.pageBreak();
+            }
+            buildPages.row(1, buildValue);
+        }
+        buildPages.row(2, buildValue);
+        List<Page> probePages = rowPagesBuilder(BIGINT, VARCHAR)
+                .row(1, "a")
+                .row(1, "b")
+                .row(2, "c")
+                .build();
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BIGINT, VARCHAR);
+        for (String probeValue : ImmutableList.of("a", "b")) {
+            for (int i = 0; i < 3000; i++) {
+                expected.row(1, probeValue, 1, buildValue);
+            }
+        }
+        expected.row(2, "c", 2, buildValue);
+
+        Operator operator = createOperator(INNER, ImmutableList.of(BIGINT, VARCHAR), ImmutableList.of(BIGINT, VARCHAR), buildPages.build(), ImmutableList.of(0), ImmutableList.of(0), ORDERINGS);
+        List<Page> output = toPages(operator, probePages);
+        assertTrue(output.size() > 2, "expected the joined rows of a single probe row to span output pages");
+        assertEquals(toMaterializedResult(driverContext.getSession(), operator.getTypes(), output), expected.build());
+    }
+
+    private Operator createOperator(JoinNode.Type joinType)
+    {
+        // build keys 2 span pages, nulls sort last
+        List<Page> buildPages = rowPagesBuilder(BIGINT, VARCHAR)
+                .row(2, "x")
+                .row(2, "y")
+                .pageBreak()
+                .row(2, "z")
+                .row(3, "w")
+                .pageBreak()
+                .row(5, "v")
+                .row(null, "u")
+                .build();
+        return createOperator(joinType, ImmutableList.of(BIGINT, VARCHAR), ImmutableList.of(BIGINT, VARCHAR), buildPages, ImmutableList.of(0), ImmutableList.of(0), ORDERINGS);
+    }
+
+    private Operator createOperator(
+            JoinNode.Type joinType,
+            List<Type> probeTypes,
+            List<Type> buildTypes,
+            List<Page> buildPages,
+            List<Integer> probeJoinChannels,
+            List<Integer> buildJoinChannels,
+            List<SortOrder> orderings)
+    {
+        InMemoryExchange buildExchange = new InMemoryExchange(buildTypes);
+        buildPages.forEach(buildExchange::addPage);
+        buildExchange.finish();
+
+        return new MergeJoinOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                joinType,
+                probeTypes,
+                probeJoinChannels,
+                buildJoinChannels,
+                orderings,
+                buildExchange)
+                .createOperator(driverContext);
+    }
+
+    private static List<Page> probePages()
+    {
+        return rowPagesBuilder(BIGINT, VARCHAR)
+                .row(1, "a")
+                .row(2, "b")
+                .row(2, "c")
+                .pageBreak()
+                .row(4, "d")
+                .row(5, "e")
+                .row(null, "f")
+                .build();
+    }
+}
@@ -57,8 +57,13 @@ public class TestOperatorStats
 
             new DataSize(18, BYTE),
             new DataSize(19, BYTE),
+            new DataSize(20, BYTE),
+            new Duration(21, NANOSECONDS),
+            22,
+            23,
+            24,
             Optional.empty(),
-            "20");
+            "25");
 
     public static final OperatorStats MERGEABLE = new OperatorStats(
             41,
@@ -88,8 +93,13 @@ public class TestOperatorStats
 
             new DataSize(18, BYTE),
             new DataSize(19, BYTE),
+            new DataSize(20, BYTE),
+            new Duration(21, NANOSECONDS),
+            22,
+            23,
+            24,
             Optional.empty(),
-            new LongMergeable(20));
+            new LongMergeable(25));
 
     @Test
     public void testJson()
@@ -130,7 +140,12 @@ public class TestOperatorStats
 
         assertEquals(actual.getMemoryReservation(), new DataSize(18, BYTE));
         assertEquals(actual.getSystemMemoryReservation(), new DataSize(19, BYTE));
-        assertEquals(actual.getInfo(), "20");
+        assertEquals(actual.getSpilledDataSize(), new DataSize(20, BYTE));
+        assertEquals(actual.getSpillWall(), new Duration(21, NANOSECONDS));
+        assertEquals(actual.getPartialAggregationBypassedPositions(), 22);
+        assertEquals(actual.getDictionaryCacheHits(), 23);
+        assertEquals(actual.getDictionaryCacheMisses(), 24);
+        assertEquals(actual.getInfo(), "25");
     }
 
     @Test
@@ -163,6 +178,11 @@ public class TestOperatorStats
         assertEquals(actual.getFinishUser(), new Duration(3 * 17, NANOSECONDS));
         assertEquals(actual.getMemoryReservation(), new DataSize(3 * 18, BYTE));
         assertEquals(actual.getSystemMemoryReservation(), new DataSize(3 * 19, BYTE));
+        assertEquals(actual.getSpilledDataSize(), new DataSize(3 * 20, BYTE));
+        assertEquals(actual.getSpillWall(), new Duration(3 * 21, NANOSECONDS));
+        assertEquals(actual.getPartialAggregationBypassedPositions(), 3 * 22);
+        assertEquals(actual.getDictionaryCacheHits(), 3 * 23);
+        assertEquals(actual.getDictionaryCacheMisses(), 3 * 24);
         assertEquals(actual.getInfo(), null);
     }
 
@@ -196,7 +216,12 @@ public class TestOperatorStats
         assertEquals(actual.getFinishUser(), new Duration(3 * 17, NANOSECONDS));
         assertEquals(actual.getMemoryReservation(), new DataSize(3 * 18, BYTE));
         assertEquals(actual.getSystemMemoryReservation(), new DataSize(3 * 19, BYTE));
-        assertEquals(actual.getInfo(), new LongMergeable(20 * 3));
+        assertEquals(actual.getSpilledDataSize(), new DataSize(3 * 20, BYTE));
+        assertEquals(actual.getSpillWall(), new Duration(3 * 21, NANOSECONDS));
+        assertEquals(actual.getPartialAggregationBypassedPositions(), 3 * 22);
+        assertEquals(actual.getDictionaryCacheHits(), 3 * 23);
+        assertEquals(actual.getDictionaryCacheMisses(), 3 * 24);
+        assertEquals(actual.getInfo(), new LongMergeable(25 * 3));
     }
 
     private static class LongMergeable
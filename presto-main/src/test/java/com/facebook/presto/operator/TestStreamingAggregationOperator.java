@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.RowPagesBuilder;
+import com.facebook.presto.metadata.MetadataManager;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.StreamingAggregationOperator.StreamingAggregationOperatorFactory;
+import com.facebook.presto.operator.aggregation.InternalAggregationFunction;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.StandardTypes;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.testing.MaterializedResult;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.metadata.FunctionKind.AGGREGATE;
+import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
+import static com.facebook.presto.operator.OperatorAssertion.toPages;
+import static com.facebook.presto.operator.aggregation.CountAggregation.COUNT;
+import static com.facebook.presto.operator.aggregation.LongSumAggregation.LONG_SUM;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestStreamingAggregationOperator
+{
+    private ExecutorService executor;
+    private DriverContext driverContext;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+
+        driverContext = createTaskContext(executor, TEST_SESSION)
+                .addPipelineContext(true, true)
+                .addDriverContext();
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @DataProvider(name = "hashEnabledValues")
+    public static Object[][] hashEnabledValuesProvider()
+    {
+        return new Object[][] {{true}, {false}};
+    }
+
+    @Test(dataProvider = "hashEnabledValues")
+    public void testGroupsSpanningPages(boolean hashEnabled)
+            throws Exception
+    {
+        MetadataManager metadata = MetadataManager.createTestMetadataManager();
+        InternalAggregationFunction maxVarcharColumn = metadata.getFunctionRegistry().getAggregateFunctionImplementation(new Signature("max", AGGREGATE, StandardTypes.VARCHAR, StandardTypes.VARCHAR));
+
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, ImmutableList.of(0), VARCHAR, BIGINT, VARCHAR);
+        List<Page> input = rowPagesBuilder
+                .row("a", 1, "x")
+                .row("a", 2, "y")
+                .row("b", 3, "z")
+                .pageBreak()
+                .row("b", 4, "w")
+                .pageBreak()
+                .row("b", 5, "v")
+                .row(null, 6, "u")
+                .row(null, 7, null)
+                .row("c", 8, "t")
+                .pageBreak()
+                .row("a", 9, "s")
+                .build();
+
+        OperatorFactory operatorFactory = new StreamingAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(VARCHAR),
+                ImmutableList.of(0),
+                rowPagesBuilder.getHashChannel(),
+                Step.SINGLE,
+                ImmutableList.of(COUNT.bind(ImmutableList.of(0), Optional.empty(), Optional.empty(), 1.0),
+                        LONG_SUM.bind(ImmutableList.of(1), Optional.empty(), Optional.empty(), 1.0),
+                        maxVarcharColumn.bind(ImmutableList.of(2), Optional.empty(), Optional.empty(), 1.0)));
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        // a group that appears again after another group is a new group
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, BIGINT, VARCHAR)
+                .row("a", 2, 3, "y")
+                .row("b", 3, 12, "z")
+                .row(null, 2, 13, "u")
+                .row("c", 1, 8, "t")
+                .row("a", 1, 9, "s")
+                .build();
+
+        assertOperatorEquals(operator, input, expected, hashEnabled, ImmutableList.of(1));
+    }
+
+    @Test
+    public void testEmitsFinishedGroups()
+            throws Exception
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, BIGINT)
+                .addSequencePage(10, 0, 0)
+                .build();
+
+        OperatorFactory operatorFactory = new StreamingAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                ImmutableList.of(0),
+                Optional.empty(),
+                Step.SINGLE,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(1), Optional.empty(), Optional.empty(), 1.0)));
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        // all but the last group are complete before the operator is finished
+        operator.addInput(input.get(0));
+        Page output = operator.getOutput();
+        assertEquals(output.getPositionCount(), 9);
+
+        List<Page> remaining = toPages(operator, ImmutableList.of());
+        assertEquals(remaining.size(), 1);
+        assertEquals(remaining.get(0).getPositionCount(), 1);
+    }
+}
@@ -17,8 +17,13 @@ import com.facebook.presto.metadata.MetadataManager;
 import com.facebook.presto.metadata.Signature;
 import com.facebook.presto.operator.PageProcessor;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.LazyBlock;
 import com.facebook.presto.spi.block.RunLengthEncodedBlock;
+import com.facebook.presto.spi.block.SelectiveLazyBlockLoader;
 import com.facebook.presto.spi.block.SliceArrayBlock;
 import com.facebook.presto.sql.gen.ExpressionCompiler;
 import com.facebook.presto.sql.relational.CallExpression;
@@ -28,11 +33,15 @@ import com.facebook.presto.sql.relational.InputReferenceExpression;
 import com.facebook.presto.sql.relational.RowExpression;
 import com.facebook.presto.type.ArrayType;
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 import static com.facebook.presto.block.BlockAssertions.createLongDictionaryBlock;
 import static com.facebook.presto.block.BlockAssertions.createRLEBlock;
 import static com.facebook.presto.metadata.FunctionKind.SCALAR;
@@ -42,11 +51,14 @@ import static com.facebook.presto.metadata.Signature.internalOperator;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static io.airlift.slice.Slices.wrappedIntArray;
 import static java.lang.Boolean.TRUE;
 import static java.util.Collections.singletonList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 public class TestPageProcessorCompiler
@@ -122,6 +134,37 @@ public class TestPageProcessorCompiler
         assertEquals(dictionaryBlock2.getDictionary(), dictionaryBlock.getDictionary());
     }
 
+    @Test
+    public void testDictionaryCacheAcrossPages()
+            throws Exception
+    {
+        CallExpression lengthVarchar = new CallExpression(new Signature("length", SCALAR, "bigint", "varchar"), BIGINT, ImmutableList.of(new InputReferenceExpression(0, VARCHAR)));
+        Signature lessThan = internalOperator(LESS_THAN, BOOLEAN, ImmutableList.of(BIGINT, BIGINT));
+        CallExpression filter = new CallExpression(lessThan, BOOLEAN, ImmutableList.of(lengthVarchar, new ConstantExpression(5L, BIGINT)));
+
+        PageProcessor processor = new ExpressionCompiler(createTestMetadataManager())
+                .compilePageProcessor(filter, ImmutableList.of(new InputReferenceExpression(0, VARCHAR))).get();
+
+        // the pages have different dictionary blocks sharing the same dictionary
+        DictionaryBlock firstBlock = createDictionaryBlock(createExpectedValues(10), 100);
+        DictionaryBlock secondBlock = new DictionaryBlock(50, firstBlock.getDictionary(), firstBlock.getIds().slice(0, 50 * SIZE_OF_INT));
+
+        Page outputPage = processor.processColumnarDictionary(null, new Page(firstBlock), ImmutableList.of(VARCHAR));
+        assertEquals(outputPage.getPositionCount(), 50);
+        assertEquals(processor.getDictionaryCacheHits(), 0);
+        assertEquals(processor.getDictionaryCacheMisses(), 2);
+
+        // the filter results and the projected dictionary of the first page are reused
+        Page outputPage2 = processor.processColumnarDictionary(null, new Page(secondBlock), ImmutableList.of(VARCHAR));
+        assertEquals(outputPage2.getPositionCount(), 25);
+        assertEquals(processor.getDictionaryCacheHits(), 2);
+        assertEquals(processor.getDictionaryCacheMisses(), 2);
+        assertEquals(((DictionaryBlock) outputPage2.getBlock(0)).getDictionary(), ((DictionaryBlock) outputPage.getBlock(0)).getDictionary());
+        for (int position = 0; position < outputPage2.getPositionCount(); position++) {
+            assertTrue(VARCHAR.getSlice(outputPage2.getBlock(0), position).length() < 5);
+        }
+    }
+
     @Test
     public void testSanityFilterOnRLE()
             throws Exception
@@ -178,6 +221,164 @@ public class TestPageProcessorCompiler
         assertFalse(outputPage.getBlock(0) instanceof DictionaryBlock);
     }
 
+    @Test
+    public void testSelectiveLoadOfProjectedColumn()
+            throws Exception
+    {
+        // filter on a column that is not lazy and project a lazy column
+        PageProcessor processor = new ExpressionCompiler(createTestMetadataManager())
+                .compilePageProcessor(lessThan(0, 3), ImmutableList.of(new InputReferenceExpression(1, BIGINT))).get();
+
+        long[] filterValues = createModuloValues(100, 10);
+        long[] projectedValues = createModuloValues(100, 1000);
+        RecordingLazyBlockLoader projectedLoader = new RecordingLazyBlockLoader(projectedValues);
+        Page page = new Page(createBigintBlock(filterValues), new LazyBlock(100, projectedLoader));
+
+        Page outputPage = processor.processColumnar(null, page, ImmutableList.of(BIGINT));
+
+        int[] selectedPositions = selectLessThan(filterValues, 3);
+        assertFalse(projectedLoader.isFullyLoaded());
+        assertEquals(Ints.asList(projectedLoader.getLoadedPositions()), Ints.asList(selectedPositions));
+        assertBigintValues(outputPage.getBlock(0), projectedValues, selectedPositions);
+    }
+
+    @Test
+    public void testProjectedFilterColumnIsFullyLoaded()
+            throws Exception
+    {
+        // the filter column is also projected, so only the projection-only column is loaded selectively
+        PageProcessor processor = new ExpressionCompiler(createTestMetadataManager())
+                .compilePageProcessor(lessThan(0, 3), ImmutableList.of(new InputReferenceExpression(0, BIGINT), new InputReferenceExpression(1, BIGINT))).get();
+
+        long[] filterValues = createModuloValues(100, 10);
+        long[] projectedValues = createModuloValues(100, 1000);
+        RecordingLazyBlockLoader filterLoader = new RecordingLazyBlockLoader(filterValues);
+        RecordingLazyBlockLoader projectedLoader = new RecordingLazyBlockLoader(projectedValues);
+        Page page = new Page(new LazyBlock(100, filterLoader), new LazyBlock(100, projectedLoader));
+
+        Page outputPage = processor.processColumnar(null, page, ImmutableList.of(BIGINT, BIGINT));
+
+        int[] selectedPositions = selectLessThan(filterValues, 3);
+        assertTrue(filterLoader.isFullyLoaded());
+        assertNull(filterLoader.getLoadedPositions());
+        assertFalse(projectedLoader.isFullyLoaded());
+        assertEquals(Ints.asList(projectedLoader.getLoadedPositions()), Ints.asList(selectedPositions));
+        assertBigintValues(outputPage.getBlock(0), filterValues, selectedPositions);
+        assertBigintValues(outputPage.getBlock(1), projectedValues, selectedPositions);
+    }
+
+    @Test
+    public void testAllRowsSelectedPassesLazyBlockThrough()
+            throws Exception
+    {
+        // when every row passes the filter the lazy projected column is passed through without being loaded
+        PageProcessor processor = new ExpressionCompiler(createTestMetadataManager())
+                .compilePageProcessor(lessThan(0, 10), ImmutableList.of(new InputReferenceExpression(1, BIGINT))).get();
+
+        long[] filterValues = createModuloValues(100, 10);
+        long[] projectedValues = createModuloValues(100, 1000);
+        RecordingLazyBlockLoader projectedLoader = new RecordingLazyBlockLoader(projectedValues);
+        Page page = new Page(createBigintBlock(filterValues), new LazyBlock(100, projectedLoader));
+
+        Page outputPage = processor.processColumnar(null, page, ImmutableList.of(BIGINT));
+
+        assertSame(outputPage.getBlock(0), page.getBlock(1));
+        assertFalse(projectedLoader.isFullyLoaded());
+        assertNull(projectedLoader.getLoadedPositions());
+
+        // reading the passed through block loads all of its positions
+        assertBigintValues(outputPage.getBlock(0), projectedValues, IntStream.range(0, 100).toArray());
+        assertTrue(projectedLoader.isFullyLoaded());
+        assertNull(projectedLoader.getLoadedPositions());
+    }
+
+    private static CallExpression lessThan(int channel, long value)
+    {
+        Signature lessThan = internalOperator(LESS_THAN, BOOLEAN, ImmutableList.of(BIGINT, BIGINT));
+        return new CallExpression(lessThan, BOOLEAN, ImmutableList.of(new InputReferenceExpression(channel, BIGINT), new ConstantExpression(value, BIGINT)));
+    }
+
+    private static long[] createModuloValues(int positionCount, int modulo)
+    {
+        return IntStream.range(0, positionCount)
+                .mapToLong(position -> position % modulo)
+                .toArray();
+    }
+
+    private static int[] selectLessThan(long[] values, long value)
+    {
+        return IntStream.range(0, values.length)
+                .filter(position -> values[position] < value)
+                .toArray();
+    }
+
+    private static Block createBigintBlock(long[] values)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), values.length);
+        for (long value : values) {
+            BIGINT.writeLong(blockBuilder, value);
+        }
+        return blockBuilder.build();
+    }
+
+    private static void assertBigintValues(Block block, long[] values, int[] positions)
+    {
+        assertEquals(block.getPositionCount(), positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            assertEquals(BIGINT.getLong(block, i), values[positions[i]]);
+        }
+    }
+
+    private static class RecordingLazyBlockLoader
+            implements SelectiveLazyBlockLoader<LazyBlock>
+    {
+        private final long[] values;
+        private boolean fullyLoaded;
+        private int[] loadedPositions;
+
+        public RecordingLazyBlockLoader(long[] values)
+        {
+            this.values = values;
+        }
+
+        public boolean isFullyLoaded()
+        {
+            return fullyLoaded;
+        }
+
+        public int[] getLoadedPositions()
+        {
+            return loadedPositions;
+        }
+
+        @Override
+        public void load(LazyBlock block)
+        {
+            fullyLoaded = true;
+            block.setBlock(createBigintBlock(values));
+        }
+
+        @Override
+        public void load(LazyBlock block, int[] positions, int positionCount)
+        {
+            loadedPositions = Arrays.copyOf(positions, positionCount);
+
+            // the positions that were not requested are loaded as null
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), values.length);
+            int nextPosition = 0;
+            for (int position = 0; position < values.length; position++) {
+                if (nextPosition < positionCount && positions[nextPosition] == position) {
+                    BIGINT.writeLong(blockBuilder, values[position]);
+                    nextPosition++;
+                }
+                else {
+                    blockBuilder.appendNull();
+                }
+            }
+            block.setBlock(blockBuilder.build());
+        }
+    }
+
     private static DictionaryBlock createDictionaryBlock(Slice[] expectedValues, int positionCount)
     {
         int dictionarySize = expectedValues.length;
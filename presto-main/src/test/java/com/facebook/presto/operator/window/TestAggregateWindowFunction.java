@@ -14,17 +14,29 @@
 package com.facebook.presto.operator.window;
 
 import com.facebook.presto.testing.MaterializedResult;
+import com.facebook.presto.testing.MaterializedRow;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
 {
+    private static final int SLIDING_WINDOW_ROWS = 500;
+
     @Test
     public void testCountRowsOrdered()
     {
@@ -403,4 +415,34 @@ public class TestAggregateWindowFunction
                         .row(null, null, null)
                         .build());
     }
+
+    @Test
+    public void testSlidingFrames()
+    {
+        // sum and max are not invertible and use the segment tree
+        assertSlidingWindow("sum(x) OVER (ORDER BY x ROWS BETWEEN 100 PRECEDING AND CURRENT ROW)", x -> {
+            long start = max(1, x - 100);
+            return (start + x) * (x - start + 1) / 2;
+        });
+        assertSlidingWindow("max(x) OVER (ORDER BY x ROWS BETWEEN 100 PRECEDING AND 50 PRECEDING)", x -> x > 50 ? x - 50 : null);
+        assertSlidingWindow("array_agg(x) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND CURRENT ROW)", x -> LongStream.rangeClosed(max(1, x - 99), x).boxed().collect(toList()));
+
+        // count and count_if remove the rows that leave the frame
+        assertSlidingWindow("count(x) OVER (ORDER BY x ROWS BETWEEN 100 PRECEDING AND 10 FOLLOWING)", x -> min(x + 10, SLIDING_WINDOW_ROWS) - max(1, x - 100) + 1);
+        assertSlidingWindow("count_if(x % 3 = 0) OVER (ORDER BY x ROWS BETWEEN CURRENT ROW AND 70 FOLLOWING)", x -> min(x + 70, SLIDING_WINDOW_ROWS) / 3 - (x - 1) / 3);
+    }
+
+    private void assertSlidingWindow(@Language("SQL") String window, LongFunction<Object> expected)
+    {
+        String values = LongStream.rangeClosed(1, SLIDING_WINDOW_ROWS)
+                .mapToObj(value -> "(" + value + ")")
+                .collect(joining(", "));
+        MaterializedResult result = queryRunner.execute(format("SELECT x, %s FROM (VALUES %s) t(x)", window, values));
+
+        assertEquals(result.getRowCount(), SLIDING_WINDOW_ROWS);
+        for (MaterializedRow row : result.getMaterializedRows()) {
+            long x = (Long) row.getField(0);
+            assertEquals(row.getField(1), expected.apply(x), format("%s for x = %s", window, x));
+        }
+    }
 }
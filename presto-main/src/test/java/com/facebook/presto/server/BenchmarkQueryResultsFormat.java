@@ -0,0 +1,235 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.client.ClientTypeSignature;
+import com.facebook.presto.client.Column;
+import com.facebook.presto.client.QueryResults;
+import com.facebook.presto.client.StatementStats;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.type.TypeRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import io.airlift.json.ObjectMapperProvider;
+import io.airlift.slice.DynamicSliceOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.client.BinaryQueryResults.readQueryResults;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.nCopies;
+
+/**
+ * Compares the rows per second of the JSON and binary client protocols, including
+ * encoding on the coordinator and decoding and iterating the rows in the client.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class BenchmarkQueryResultsFormat
+{
+    private static final int PAGE_COUNT = 10;
+    private static final int POSITIONS_PER_PAGE = 1024;
+    private static final int POSITIONS = PAGE_COUNT * POSITIONS_PER_PAGE;
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long json(BenchmarkData data)
+            throws Exception
+    {
+        byte[] json = data.getObjectMapper().writeValueAsBytes(data.getQueryResults());
+        QueryResults queryResults = data.getQueryResultsCodec().fromJson(new String(json, UTF_8));
+        return consume(queryResults);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS)
+    public long binary(BenchmarkData data)
+            throws Exception
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(POSITIONS * 32);
+        data.getWriter().writeQueryResults(output, data.getPagedQueryResults());
+        QueryResults queryResults = readQueryResults(data.getQueryResultsCodec(), output.slice().getInput());
+        return consume(queryResults);
+    }
+
+    private static long consume(QueryResults queryResults)
+    {
+        long hash = 0;
+        for (List<Object> row : queryResults.getData()) {
+            for (Object value : row) {
+                if (value != null) {
+                    hash += value.hashCode();
+                }
+            }
+        }
+        return hash;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"BIGINT", "DOUBLE", "VARCHAR", "DATE"})
+        private String type = "BIGINT";
+
+        @Param({"1", "10"})
+        private int columnCount = 1;
+
+        private final ObjectMapper objectMapper = new ObjectMapperProvider().get();
+        private final JsonCodec<QueryResults> queryResultsCodec = jsonCodec(QueryResults.class);
+        private final BinaryQueryResultsWriter writer = new BinaryQueryResultsWriter(new BlockEncodingManager(new TypeRegistry()), objectMapper);
+        private QueryResults queryResults;
+        private PagedQueryResults pagedQueryResults;
+
+        @Setup
+        public void setup()
+        {
+            Random random = new Random(42);
+            Type columnType = getType();
+            List<Type> types = nCopies(columnCount, columnType);
+
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
+            for (int i = 0; i < PAGE_COUNT; i++) {
+                BlockBuilder blockBuilder = columnType.createBlockBuilder(new BlockBuilderStatus(), POSITIONS_PER_PAGE);
+                for (int position = 0; position < POSITIONS_PER_PAGE; position++) {
+                    if (columnType.equals(VARCHAR)) {
+                        VARCHAR.writeString(blockBuilder, "value_" + random.nextInt(1_000_000));
+                    }
+                    else if (columnType.equals(DOUBLE)) {
+                        DOUBLE.writeDouble(blockBuilder, random.nextDouble());
+                    }
+                    else {
+                        columnType.writeLong(blockBuilder, random.nextInt(20_000));
+                    }
+                }
+                Block[] blocks = new Block[columnCount];
+                Arrays.fill(blocks, blockBuilder.build());
+                pages.add(new Page(blocks));
+            }
+
+            ImmutableList.Builder<Column> columns = ImmutableList.builder();
+            for (int i = 0; i < columnCount; i++) {
+                columns.add(new Column("col" + i, columnType.getTypeSignature().toString(), new ClientTypeSignature(columnType.getTypeSignature())));
+            }
+
+            QueryResultPages resultPages = new QueryResultPages(TEST_SESSION.toConnectorSession(), types, pages.build());
+            queryResults = new QueryResults(
+                    "benchmark",
+                    URI.create("http://localhost/v1/query/benchmark"),
+                    null,
+                    null,
+                    columns.build(),
+                    resultPages,
+                    StatementStats.builder().setState("RUNNING").build(),
+                    null,
+                    null,
+                    null);
+            pagedQueryResults = new PagedQueryResults(queryResults, Optional.of(resultPages));
+        }
+
+        private Type getType()
+        {
+            switch (type) {
+                case "BIGINT":
+                    return BIGINT;
+                case "DOUBLE":
+                    return DOUBLE;
+                case "VARCHAR":
+                    return VARCHAR;
+                case "DATE":
+                    return DATE;
+            }
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+
+        public ObjectMapper getObjectMapper()
+        {
+            return objectMapper;
+        }
+
+        public JsonCodec<QueryResults> getQueryResultsCodec()
+        {
+            return queryResultsCodec;
+        }
+
+        public BinaryQueryResultsWriter getWriter()
+        {
+            return writer;
+        }
+
+        public QueryResults getQueryResults()
+        {
+            return queryResults;
+        }
+
+        public PagedQueryResults getPagedQueryResults()
+        {
+            return pagedQueryResults;
+        }
+    }
+
+    public static void main(String[] args)
+            throws Exception
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkQueryResultsFormat().json(data);
+        new BenchmarkQueryResultsFormat().binary(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkQueryResultsFormat.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.client.ClientTypeSignature;
+import com.facebook.presto.client.Column;
+import com.facebook.presto.client.QueryResults;
+import com.facebook.presto.client.StatementStats;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.type.ArrayType;
+import com.facebook.presto.type.TypeRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import io.airlift.json.ObjectMapperProvider;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.client.BinaryQueryResults.readQueryResults;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class TestBinaryQueryResultsWriter
+{
+    private static final JsonCodec<QueryResults> QUERY_RESULTS_CODEC = jsonCodec(QueryResults.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapperProvider().get();
+
+    private final BinaryQueryResultsWriter writer = new BinaryQueryResultsWriter(new BlockEncodingManager(new TypeRegistry()), OBJECT_MAPPER);
+
+    @Test
+    public void testPagesMatchJson()
+            throws Exception
+    {
+        List<Type> types = ImmutableList.of(BIGINT, INTEGER, DOUBLE, BOOLEAN, VARCHAR, DATE, new ArrayType(BIGINT));
+        List<Page> pages = rowPagesBuilder(types)
+                .row(1, 2, 3.5, true, "apple", 100, ImmutableList.of(1, 2))
+                .row(null, null, null, null, null, null, null)
+                .pageBreak()
+                .row(-1, -2, Double.NaN, false, "", 0, ImmutableList.of())
+                .build();
+
+        QueryResultPages resultPages = new QueryResultPages(TEST_SESSION.toConnectorSession(), types, pages);
+        QueryResults results = createQueryResults(types, resultPages);
+
+        QueryResults jsonResults = QUERY_RESULTS_CODEC.fromJson(OBJECT_MAPPER.writeValueAsString(results));
+
+        Slice binary = write(new PagedQueryResults(results, Optional.of(resultPages)));
+
+        // the rows are sent as pages, not in the JSON header
+        SliceInput input = binary.getInput();
+        QueryResults header = QUERY_RESULTS_CODEC.fromJson(input.readSlice(input.readInt()).toStringUtf8());
+        assertNull(header.getData());
+        assertEquals(input.readInt(), pages.size());
+
+        QueryResults binaryResults = readQueryResults(QUERY_RESULTS_CODEC, binary.getInput());
+        assertEquals(binaryResults.getId(), jsonResults.getId());
+        assertEquals(binaryResults.getColumns().size(), types.size());
+        assertEquals(ImmutableList.copyOf(binaryResults.getData()).size(), 3);
+        assertEquals(ImmutableList.copyOf(binaryResults.getData()), ImmutableList.copyOf(jsonResults.getData()));
+    }
+
+    @Test
+    public void testRowsWithoutPages()
+            throws Exception
+    {
+        List<Type> types = ImmutableList.of(BOOLEAN);
+        QueryResults results = createQueryResults(types, ImmutableList.<List<Object>>of(ImmutableList.<Object>of(true)));
+
+        QueryResults binaryResults = writeAndRead(new PagedQueryResults(results, Optional.empty()));
+        assertEquals(ImmutableList.copyOf(binaryResults.getData()), ImmutableList.of(ImmutableList.of(true)));
+    }
+
+    @Test
+    public void testNoData()
+            throws Exception
+    {
+        QueryResults binaryResults = writeAndRead(new PagedQueryResults(createQueryResults(ImmutableList.of(BIGINT), null), Optional.empty()));
+        assertNull(binaryResults.getData());
+    }
+
+    private QueryResults writeAndRead(PagedQueryResults results)
+            throws Exception
+    {
+        return readQueryResults(QUERY_RESULTS_CODEC, write(results).getInput());
+    }
+
+    private Slice write(PagedQueryResults results)
+            throws Exception
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(1024);
+        writer.writeQueryResults(output, results);
+        return output.slice();
+    }
+
+    private static QueryResults createQueryResults(List<Type> types, Iterable<List<Object>> data)
+    {
+        ImmutableList.Builder<Column> columns = ImmutableList.builder();
+        for (int i = 0; i < types.size(); i++) {
+            Type type = types.get(i);
+            columns.add(new Column("col" + i, type.getTypeSignature().toString(), new ClientTypeSignature(type.getTypeSignature())));
+        }
+        return new QueryResults(
+                "test",
+                URI.create("http://localhost/v1/query/test"),
+                null,
+                null,
+                columns.build(),
+                data,
+                StatementStats.builder().setState("FINISHED").build(),
+                null,
+                null,
+                null);
+    }
+}
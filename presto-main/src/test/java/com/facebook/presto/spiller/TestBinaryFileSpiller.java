@@ -0,0 +1,166 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.analyzer.FeaturesConfig;
+import com.facebook.presto.type.TypeRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.node.NodeInfo;
+import io.airlift.units.DataSize;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.testing.FileUtils.deleteRecursively;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestBinaryFileSpiller
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR);
+
+    private File spillPath;
+    private ListeningExecutorService executor;
+    private SpillSpaceTracker spillSpaceTracker;
+    private BinarySpillerFactory factory;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        spillPath = createTempDir();
+        executor = listeningDecorator(newCachedThreadPool(daemonThreadsNamed("test-%s")));
+        spillSpaceTracker = new SpillSpaceTracker(new DataSize(10, MEGABYTE));
+        factory = new BinarySpillerFactory(executor, new BlockEncodingManager(new TypeRegistry()), spillSpaceTracker, ImmutableList.of(spillPath.toPath()));
+    }
+
+    @AfterMethod
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        deleteRecursively(spillPath);
+    }
+
+    @Test
+    public void testSpill()
+            throws Exception
+    {
+        AtomicLong spilledBytes = new AtomicLong();
+        Page first = createPage(0, 10);
+        Page second = createPage(10, 20);
+        Page third = createPage(20, 30);
+
+        try (Spiller spiller = factory.create(TYPES, spilledBytes::addAndGet)) {
+            getFutureValue(spiller.spill(ImmutableList.of(first, second).iterator()));
+            getFutureValue(spiller.spill(ImmutableList.of(third).iterator()));
+
+            assertTrue(spilledBytes.get() > 0);
+            assertEquals(spillSpaceTracker.getCurrentBytes(), spilledBytes.get());
+            assertEquals(spillPath.listFiles().length, 2);
+
+            List<Iterator<Page>> spills = spiller.getSpills();
+            assertEquals(spills.size(), 2);
+            assertSpill(spills.get(0), first, second);
+            assertSpill(spills.get(1), third);
+        }
+
+        assertEquals(spillSpaceTracker.getCurrentBytes(), 0);
+        assertEquals(spillPath.listFiles().length, 0);
+    }
+
+    @Test
+    public void testCleanupOldSpillFiles()
+            throws Exception
+    {
+        File staleFile = new File(spillPath, BinarySpillerFactory.SPILL_FILE_PREFIX + "stale" + BinarySpillerFactory.SPILL_FILE_SUFFIX);
+        File otherFile = new File(spillPath, "other.txt");
+        assertTrue(staleFile.createNewFile());
+        assertTrue(otherFile.createNewFile());
+
+        factory.cleanupOldSpillFiles();
+
+        assertFalse(staleFile.exists());
+        assertTrue(otherFile.exists());
+    }
+
+    @Test
+    public void testServerSpillPath()
+            throws Exception
+    {
+        NodeInfo nodeInfo = new NodeInfo("test");
+        FeaturesConfig featuresConfig = new FeaturesConfig()
+                .setSpillerSpillPaths(spillPath.getAbsolutePath())
+                .setSpillerThreads(1);
+        BinarySpillerFactory serverFactory = new BinarySpillerFactory(new BlockEncodingManager(new TypeRegistry()), spillSpaceTracker, featuresConfig, nodeInfo);
+        try {
+            // a spill file of another server sharing the spill path must survive the cleanup
+            File otherServerFile = new File(spillPath, BinarySpillerFactory.SPILL_FILE_PREFIX + "other" + BinarySpillerFactory.SPILL_FILE_SUFFIX);
+            assertTrue(otherServerFile.createNewFile());
+            serverFactory.cleanupOldSpillFiles();
+            assertTrue(otherServerFile.exists());
+
+            File serverSpillPath = new File(spillPath, nodeInfo.getNodeId());
+            try (Spiller spiller = serverFactory.create(TYPES, bytes -> { })) {
+                getFutureValue(spiller.spill(ImmutableList.of(createPage(0, 10)).iterator()));
+                assertEquals(serverSpillPath.listFiles().length, 1);
+            }
+            assertEquals(serverSpillPath.listFiles().length, 0);
+        }
+        finally {
+            serverFactory.destroy();
+        }
+    }
+
+    private static void assertSpill(Iterator<Page> actualPages, Page... expectedPages)
+    {
+        for (Page expectedPage : expectedPages) {
+            assertTrue(actualPages.hasNext());
+            assertPageEquals(TYPES, actualPages.next(), expectedPage);
+        }
+        assertFalse(actualPages.hasNext());
+    }
+
+    private static Page createPage(int start, int end)
+    {
+        BlockBuilder bigintBlock = BIGINT.createBlockBuilder(new BlockBuilderStatus(), end - start);
+        BlockBuilder varcharBlock = VARCHAR.createBlockBuilder(new BlockBuilderStatus(), end - start);
+        for (int value = start; value < end; value++) {
+            BIGINT.writeLong(bigintBlock, value);
+            VARCHAR.writeSlice(varcharBlock, utf8Slice("value " + value));
+        }
+        return new Page(bigintBlock.build(), varcharBlock.build());
+    }
+}
@@ -740,6 +740,26 @@ public class TestAnalyzer
         analyze("SELECT a, SUM(b) FROM t1 GROUP BY GROUPING SETS ((a, b))");
     }
 
+    @Test
+    public void testMultipleGroupingSets()
+            throws Exception
+    {
+        // TODO: validate output
+        analyze("SELECT a, b, SUM(c) FROM t1 GROUP BY GROUPING SETS ((a), (a, b))");
+        analyze("SELECT a, b, SUM(c), grouping(a, b) FROM t1 GROUP BY ROLLUP (a, b)");
+        analyze("SELECT a, SUM(c) FROM t1 GROUP BY CUBE (a, b) HAVING grouping(b) = 1 ORDER BY grouping(a)");
+    }
+
+    @Test
+    public void testInvalidGroupingOperation()
+            throws Exception
+    {
+        assertFails(MUST_BE_AGGREGATE_OR_GROUP_BY, "SELECT grouping(a) FROM t1");
+        assertFails(MUST_BE_AGGREGATE_OR_GROUP_BY, "SELECT grouping(c) FROM t1 GROUP BY ROLLUP (a, b)");
+        assertFails(NOT_SUPPORTED, "SELECT a FROM t1 WHERE grouping(a) = 0 GROUP BY a");
+        assertFails(NOT_SUPPORTED, "SELECT SUM(grouping(a)) FROM t1 GROUP BY ROLLUP (a)");
+    }
+
     @Test
     public void testAggregateWithWildcard()
             throws Exception
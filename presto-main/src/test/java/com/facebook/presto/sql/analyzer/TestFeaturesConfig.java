@@ -15,13 +15,17 @@ package com.facebook.presto.sql.analyzer;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.configuration.testing.ConfigAssertions;
+import io.airlift.units.DataSize;
 import org.testng.annotations.Test;
 
+import java.nio.file.Paths;
 import java.util.Map;
 
 import static io.airlift.configuration.testing.ConfigAssertions.assertDeprecatedEquivalence;
 import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 public class TestFeaturesConfig
 {
@@ -38,10 +42,25 @@ public class TestFeaturesConfig
                 .setOptimizeSingleDistinct(true)
                 .setPushTableWriteThroughUnion(true)
                 .setIntermediateAggregationsEnabled(false)
+                .setReorderJoins(false)
+                .setJoinMaxBroadcastRows(0)
                 .setColumnarProcessing(false)
                 .setColumnarProcessingDictionary(false)
                 .setDictionaryAggregation(false)
-                .setParseDecimalLiteralsAsDouble(false));
+                .setParseDecimalLiteralsAsDouble(false)
+                .setDynamicFilteringEnabled(false)
+                .setMergeJoinEnabled(false)
+                .setAdaptivePartialAggregationEnabled(false)
+                .setAdaptivePartialAggregationMinRows(100_000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.8)
+                .setSpillEnabled(false)
+                .setOrderBySpillEnabled(true)
+                .setWindowSpillEnabled(true)
+                .setJoinSpillEnabled(true)
+                .setOperatorMemoryLimitBeforeSpill(new DataSize(4, MEGABYTE))
+                .setSpillerSpillPaths(Paths.get(System.getProperty("java.io.tmpdir"), "presto", "spills").toString())
+                .setSpillerThreads(4)
+                .setMaxSpillPerNode(new DataSize(100, GIGABYTE)));
     }
 
     @Test
@@ -57,10 +76,25 @@ public class TestFeaturesConfig
                 .put("optimizer.optimize-single-distinct", "false")
                 .put("optimizer.push-table-write-through-union", "false")
                 .put("optimizer.use-intermediate-aggregations", "true")
+                .put("optimizer.reorder-joins", "true")
+                .put("optimizer.join-max-broadcast-rows", "1000000")
                 .put("optimizer.columnar-processing", "true")
                 .put("optimizer.columnar-processing-dictionary", "true")
                 .put("optimizer.dictionary-aggregation", "true")
                 .put("parse-decimal-literals-as-double", "true")
+                .put("experimental.dynamic-filtering-enabled", "true")
+                .put("experimental.merge-join-enabled", "true")
+                .put("adaptive-partial-aggregation.enabled", "true")
+                .put("adaptive-partial-aggregation.min-rows", "1000")
+                .put("adaptive-partial-aggregation.unique-rows-ratio-threshold", "0.5")
+                .put("experimental.spill-enabled", "true")
+                .put("experimental.order-by-spill-enabled", "false")
+                .put("experimental.window-spill-enabled", "false")
+                .put("experimental.join-spill-enabled", "false")
+                .put("experimental.operator-memory-limit-before-spill", "100MB")
+                .put("experimental.spiller-spill-path", "/tmp/custom/spill/path1,/tmp/custom/spill/path2")
+                .put("experimental.spiller-threads", "42")
+                .put("experimental.max-spill-per-node", "10GB")
                 .build();
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("experimental-syntax-enabled", "true")
@@ -72,10 +106,25 @@ public class TestFeaturesConfig
                 .put("optimizer.optimize-single-distinct", "false")
                 .put("optimizer.push-table-write-through-union", "false")
                 .put("optimizer.use-intermediate-aggregations", "true")
+                .put("optimizer.reorder-joins", "true")
+                .put("optimizer.join-max-broadcast-rows", "1000000")
                 .put("optimizer.columnar-processing", "true")
                 .put("optimizer.columnar-processing-dictionary", "true")
                 .put("optimizer.dictionary-aggregation", "true")
                 .put("parse-decimal-literals-as-double", "true")
+                .put("experimental.dynamic-filtering-enabled", "true")
+                .put("experimental.merge-join-enabled", "true")
+                .put("adaptive-partial-aggregation.enabled", "true")
+                .put("adaptive-partial-aggregation.min-rows", "1000")
+                .put("adaptive-partial-aggregation.unique-rows-ratio-threshold", "0.5")
+                .put("experimental.spill-enabled", "true")
+                .put("experimental.order-by-spill-enabled", "false")
+                .put("experimental.window-spill-enabled", "false")
+                .put("experimental.join-spill-enabled", "false")
+                .put("experimental.operator-memory-limit-before-spill", "100MB")
+                .put("experimental.spiller-spill-path", "/tmp/custom/spill/path1,/tmp/custom/spill/path2")
+                .put("experimental.spiller-threads", "42")
+                .put("experimental.max-spill-per-node", "10GB")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -88,10 +137,25 @@ public class TestFeaturesConfig
                 .setOptimizeSingleDistinct(false)
                 .setPushTableWriteThroughUnion(false)
                 .setIntermediateAggregationsEnabled(true)
+                .setReorderJoins(true)
+                .setJoinMaxBroadcastRows(1_000_000)
                 .setColumnarProcessing(true)
                 .setColumnarProcessingDictionary(true)
                 .setDictionaryAggregation(true)
-                .setParseDecimalLiteralsAsDouble(true);
+                .setParseDecimalLiteralsAsDouble(true)
+                .setDynamicFilteringEnabled(true)
+                .setMergeJoinEnabled(true)
+                .setAdaptivePartialAggregationEnabled(false)
+                .setAdaptivePartialAggregationMinRows(1_000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.5)
+                .setSpillEnabled(true)
+                .setOrderBySpillEnabled(false)
+                .setWindowSpillEnabled(false)
+                .setJoinSpillEnabled(false)
+                .setOperatorMemoryLimitBeforeSpill(new DataSize(100, MEGABYTE))
+                .setSpillerSpillPaths("/tmp/custom/spill/path1,/tmp/custom/spill/path2")
+                .setSpillerThreads(42)
+                .setMaxSpillPerNode(new DataSize(10, GIGABYTE));
 
         assertFullMapping(properties, expected);
         assertDeprecatedEquivalence(FeaturesConfig.class, properties, propertiesLegacy);
@@ -21,11 +21,13 @@ import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.DictionaryBlock;
 import com.facebook.presto.spi.type.StandardTypes;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.relational.RowExpression;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import io.airlift.tpch.LineItem;
 import io.airlift.tpch.LineItemGenerator;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -70,10 +72,13 @@ public class BenchmarkPageProcessor
     private static final int SHIP_DATE = 2;
     private static final int QUANTITY = 3;
 
+    private static final int DICTIONARY_SIZE = 100;
+
     private static final Slice MIN_SHIP_DATE = utf8Slice("1994-01-01");
     private static final Slice MAX_SHIP_DATE = utf8Slice("1995-01-01");
 
     private Page inputPage;
+    private Page dictionaryInputPage;
     private PageProcessor handCodedProcessor;
     private PageProcessor compiledProcessor;
 
@@ -81,6 +86,7 @@ public class BenchmarkPageProcessor
     public void setup()
     {
         inputPage = createInputPage();
+        dictionaryInputPage = createDictionaryInputPage(inputPage);
 
         handCodedProcessor = new Tpch1FilterAndProject();
 
@@ -99,6 +105,24 @@ public class BenchmarkPageProcessor
         return execute(inputPage, compiledProcessor);
     }
 
+    @Benchmark
+    public Page compiledColumnar()
+    {
+        return compiledProcessor.processColumnar(null, inputPage, ImmutableList.of(DOUBLE));
+    }
+
+    @Benchmark
+    public Page compiledDictionary()
+    {
+        return execute(dictionaryInputPage, compiledProcessor);
+    }
+
+    @Benchmark
+    public Page compiledColumnarDictionary()
+    {
+        return compiledProcessor.processColumnarDictionary(null, dictionaryInputPage, ImmutableList.of(DOUBLE));
+    }
+
     public static void main(String[] args)
             throws RunnerException
     {
@@ -135,6 +159,26 @@ public class BenchmarkPageProcessor
         return pageBuilder.build();
     }
 
+    /**
+     * Creates a page with the same row count where every column is a dictionary
+     * over the first {@code DICTIONARY_SIZE} rows of the input page.
+     */
+    public static Page createDictionaryInputPage(Page inputPage)
+    {
+        int positionCount = inputPage.getPositionCount();
+        Slice ids = Slices.allocate(positionCount * Integer.BYTES);
+        for (int position = 0; position < positionCount; position++) {
+            ids.setInt(position * Integer.BYTES, position % DICTIONARY_SIZE);
+        }
+
+        Block[] blocks = new Block[inputPage.getChannelCount()];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            Block dictionary = inputPage.getBlock(channel).getRegion(0, DICTIONARY_SIZE);
+            blocks[channel] = new DictionaryBlock(positionCount, dictionary, ids);
+        }
+        return new Page(positionCount, blocks);
+    }
+
     private static final class Tpch1FilterAndProject
             implements PageProcessor
     {
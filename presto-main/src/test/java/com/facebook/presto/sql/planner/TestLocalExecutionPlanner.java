@@ -13,22 +13,73 @@
  */
 package com.facebook.presto.sql.planner;
 
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.operator.HashAggregationOperator.HashAggregationOperatorFactory;
+import com.facebook.presto.operator.HashBuilderOperator.HashBuilderOperatorFactory;
+import com.facebook.presto.operator.HashPartitionMaskOperator.HashPartitionMaskOperatorFactory;
+import com.facebook.presto.operator.MergeJoinOperator.MergeJoinOperatorFactory;
+import com.facebook.presto.operator.OperatorFactory;
+import com.facebook.presto.operator.StreamingAggregationOperator.StreamingAggregationOperatorFactory;
 import com.facebook.presto.spi.ErrorCodeSupplier;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.planner.LocalExecutionPlanner.LocalExecutionPlan;
+import com.facebook.presto.sql.planner.optimizations.AddExchanges;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Step;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.JoinNode.EquiJoinClause;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.planner.plan.WindowNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FrameBound;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.WindowFrame;
 import com.facebook.presto.testing.LocalQueryRunner;
+import com.facebook.presto.testing.NullOutputOperator.NullOutputFactory;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.SystemSessionProperties.DISTRIBUTED_JOIN;
+import static com.facebook.presto.SystemSessionProperties.MERGE_JOIN_ENABLED;
+import static com.facebook.presto.SystemSessionProperties.TASK_AGGREGATION_CONCURRENCY;
+import static com.facebook.presto.execution.TaskTestUtils.createTestingPlanner;
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
 import static com.facebook.presto.spi.StandardErrorCode.COMPILER_ERROR;
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_FIRST;
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_LAST;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.util.ImmutableCollectors.toImmutableList;
 import static java.util.Collections.nCopies;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.fail;
 
 public class TestLocalExecutionPlanner
 {
+    private static final Symbol SYMBOL = new Symbol("a");
+    private static final Map<Symbol, Type> TYPES = ImmutableMap.of(SYMBOL, BIGINT);
+    private static final Metadata METADATA = createTestMetadataManager();
+
     @SuppressWarnings("resource")
     private final LocalQueryRunner runner = new LocalQueryRunner(TEST_SESSION);
 
@@ -47,6 +98,187 @@ public class TestLocalExecutionPlanner
         assertFails("SELECT " + outer, COMPILER_ERROR);
     }
 
+    @Test
+    public void testStreamingAggregationOverPreGroupedInput()
+    {
+        // the window leaves its output grouped on its partition keys
+        WindowNode window = new WindowNode(
+                new PlanNodeId("window"),
+                values(),
+                ImmutableList.of(SYMBOL),
+                ImmutableList.of(),
+                ImmutableMap.of(),
+                new WindowNode.Frame(WindowFrame.Type.RANGE, FrameBound.Type.UNBOUNDED_PRECEDING, Optional.empty(), FrameBound.Type.CURRENT_ROW, Optional.empty()),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                Optional.empty(),
+                ImmutableSet.of(),
+                0);
+        AggregationNode aggregation = (AggregationNode) addExchanges(aggregation(Step.SINGLE, window, ImmutableSet.of()));
+        assertEquals(aggregation.getPreGroupedSymbols(), ImmutableSet.of(SYMBOL));
+
+        List<OperatorFactory> operatorFactories = planAggregation(aggregation);
+        assertContainsInstance(operatorFactories, StreamingAggregationOperatorFactory.class, true);
+        assertContainsInstance(operatorFactories, HashAggregationOperatorFactory.class, false);
+
+        // values are not grouped on anything
+        aggregation = (AggregationNode) addExchanges(aggregation(Step.SINGLE, values(), ImmutableSet.of()));
+        assertEquals(aggregation.getPreGroupedSymbols(), ImmutableSet.of());
+
+        operatorFactories = planAggregation(aggregation);
+        assertContainsInstance(operatorFactories, StreamingAggregationOperatorFactory.class, false);
+        assertContainsInstance(operatorFactories, HashAggregationOperatorFactory.class, true);
+    }
+
+    @Test
+    public void testHashAggregationOverLocalGather()
+    {
+        // the local gather in front of an intermediate aggregation does not keep the grouping of its input
+        List<OperatorFactory> operatorFactories = planAggregation(aggregation(Step.INTERMEDIATE, values(), ImmutableSet.of(SYMBOL)));
+        assertContainsInstance(operatorFactories, HashAggregationOperatorFactory.class, true);
+        assertContainsInstance(operatorFactories, StreamingAggregationOperatorFactory.class, false);
+    }
+
+    @Test
+    public void testHashAggregationOverParallelInput()
+    {
+        // input that is not grouped is split across parallel hash aggregations
+        List<OperatorFactory> operatorFactories = planAggregation(aggregation(Step.SINGLE, values(), ImmutableSet.of()));
+        assertContainsInstance(operatorFactories, HashPartitionMaskOperatorFactory.class, true);
+        assertContainsInstance(operatorFactories, HashAggregationOperatorFactory.class, true);
+        assertContainsInstance(operatorFactories, StreamingAggregationOperatorFactory.class, false);
+
+        // the same input grouped on the keys is aggregated in the driver that produces it
+        operatorFactories = planAggregation(aggregation(Step.SINGLE, values(), ImmutableSet.of(SYMBOL)));
+        assertContainsInstance(operatorFactories, HashPartitionMaskOperatorFactory.class, false);
+        assertContainsInstance(operatorFactories, HashAggregationOperatorFactory.class, false);
+        assertContainsInstance(operatorFactories, StreamingAggregationOperatorFactory.class, true);
+    }
+
+    @Test
+    public void testMergeJoinOverSortedInputs()
+    {
+        Symbol left1 = new Symbol("left1");
+        Symbol left2 = new Symbol("left2");
+        Symbol right1 = new Symbol("right1");
+        Symbol right2 = new Symbol("right2");
+        Map<Symbol, Type> types = ImmutableMap.of(left1, BIGINT, left2, BIGINT, right1, BIGINT, right2, BIGINT);
+        Session session = TEST_SESSION
+                .withSystemProperty(MERGE_JOIN_ENABLED, "true")
+                .withSystemProperty(DISTRIBUTED_JOIN, "false");
+
+        // the criteria are listed in a different order than the sort keys of the inputs
+        JoinNode join = join(
+                sort(values(new PlanNodeId("left"), left1, left2), ImmutableMap.of(left1, DESC_NULLS_FIRST, left2, ASC_NULLS_LAST)),
+                sort(values(new PlanNodeId("right"), right1, right2), ImmutableMap.of(right1, DESC_NULLS_FIRST, right2, ASC_NULLS_LAST)),
+                ImmutableList.of(new EquiJoinClause(left2, right2), new EquiJoinClause(left1, right1)));
+        JoinNode mergeJoin = (JoinNode) addExchanges(join, session, types);
+        assertEquals(mergeJoin.getMergeOrderings(), Optional.of(ImmutableList.of(DESC_NULLS_FIRST, ASC_NULLS_LAST)));
+        assertEquals(Lists.transform(mergeJoin.getCriteria(), EquiJoinClause::getLeft), ImmutableList.of(left1, left2));
+        assertEquals(Lists.transform(mergeJoin.getCriteria(), EquiJoinClause::getRight), ImmutableList.of(right1, right2));
+
+        LocalExecutionPlan plan = createTestingPlanner().plan(session, mergeJoin, mergeJoin.getOutputSymbols(), types, new NullOutputFactory(), true, false);
+        List<OperatorFactory> operatorFactories = plan.getDriverFactories().stream()
+                .flatMap(driverFactory -> driverFactory.getOperatorFactories().stream())
+                .collect(toImmutableList());
+        assertContainsInstance(operatorFactories, MergeJoinOperatorFactory.class, true);
+        assertContainsInstance(operatorFactories, HashBuilderOperatorFactory.class, false);
+
+        // the inputs are sorted in different directions
+        join = join(
+                sort(values(new PlanNodeId("left"), left1), ImmutableMap.of(left1, ASC_NULLS_LAST)),
+                sort(values(new PlanNodeId("right"), right1), ImmutableMap.of(right1, DESC_NULLS_LAST)),
+                ImmutableList.of(new EquiJoinClause(left1, right1)));
+        assertEquals(((JoinNode) addExchanges(join, session, types)).getMergeOrderings(), Optional.empty());
+
+        // only the first join key is sorted on
+        join = join(
+                sort(values(new PlanNodeId("left"), left1, left2), ImmutableMap.of(left1, ASC_NULLS_LAST)),
+                sort(values(new PlanNodeId("right"), right1, right2), ImmutableMap.of(right1, ASC_NULLS_LAST)),
+                ImmutableList.of(new EquiJoinClause(left1, right1), new EquiJoinClause(left2, right2)));
+        assertEquals(((JoinNode) addExchanges(join, session, types)).getMergeOrderings(), Optional.empty());
+
+        // merge joins are disabled
+        join = join(
+                sort(values(new PlanNodeId("left"), left1), ImmutableMap.of(left1, ASC_NULLS_LAST)),
+                sort(values(new PlanNodeId("right"), right1), ImmutableMap.of(right1, ASC_NULLS_LAST)),
+                ImmutableList.of(new EquiJoinClause(left1, right1)));
+        Session disabled = session.withSystemProperty(MERGE_JOIN_ENABLED, "false");
+        assertEquals(((JoinNode) addExchanges(join, disabled, types)).getMergeOrderings(), Optional.empty());
+    }
+
+    private static void assertContainsInstance(List<OperatorFactory> operatorFactories, Class<?> operatorFactoryClass, boolean expected)
+    {
+        assertEquals(operatorFactories.stream().anyMatch(operatorFactoryClass::isInstance), expected, operatorFactories.toString());
+    }
+
+    private static List<OperatorFactory> planAggregation(AggregationNode aggregation)
+    {
+        Session session = TEST_SESSION.withSystemProperty(TASK_AGGREGATION_CONCURRENCY, "4");
+        LocalExecutionPlan plan = createTestingPlanner().plan(
+                session,
+                aggregation,
+                aggregation.getOutputSymbols(),
+                TYPES,
+                new NullOutputFactory(),
+                true,
+                true);
+        return plan.getDriverFactories().stream()
+                .flatMap(driverFactory -> driverFactory.getOperatorFactories().stream())
+                .collect(toImmutableList());
+    }
+
+    private static PlanNode addExchanges(PlanNode plan)
+    {
+        return addExchanges(plan, TEST_SESSION, TYPES);
+    }
+
+    private static PlanNode addExchanges(PlanNode plan, Session session, Map<Symbol, Type> types)
+    {
+        return new AddExchanges(METADATA, new SqlParser()).optimize(plan, session, types, new SymbolAllocator(), new PlanNodeIdAllocator());
+    }
+
+    private static JoinNode join(PlanNode left, PlanNode right, List<EquiJoinClause> criteria)
+    {
+        return new JoinNode(new PlanNodeId("join"), INNER, left, right, criteria, Optional.empty(), Optional.empty());
+    }
+
+    private static SortNode sort(PlanNode source, Map<Symbol, SortOrder> orderings)
+    {
+        return new SortNode(new PlanNodeId(source.getId() + "_sort"), source, ImmutableList.copyOf(orderings.keySet()), orderings);
+    }
+
+    private static AggregationNode aggregation(Step step, PlanNode source, Set<Symbol> preGroupedSymbols)
+    {
+        return new AggregationNode(
+                new PlanNodeId("aggregation"),
+                source,
+                ImmutableList.of(SYMBOL),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                step,
+                Optional.empty(),
+                1.0,
+                Optional.empty(),
+                preGroupedSymbols);
+    }
+
+    private static ValuesNode values()
+    {
+        return values(new PlanNodeId("values"), SYMBOL);
+    }
+
+    private static ValuesNode values(PlanNodeId id, Symbol... symbols)
+    {
+        Expression one = new LongLiteral("1");
+        Expression two = new LongLiteral("2");
+        return new ValuesNode(
+                id,
+                ImmutableList.copyOf(symbols),
+                ImmutableList.of(nCopies(symbols.length, one), nCopies(symbols.length, one), nCopies(symbols.length, two)));
+    }
+
     private void assertFails(@Language("SQL") String sql, ErrorCodeSupplier supplier)
     {
         try {
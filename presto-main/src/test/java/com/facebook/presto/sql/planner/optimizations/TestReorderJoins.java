@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.JoinNode.EquiJoinClause;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.SystemSessionProperties.REORDER_JOINS;
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestReorderJoins
+{
+    private static final Session SESSION = testSessionBuilder()
+            .setSystemProperties(ImmutableMap.of(REORDER_JOINS, "true"))
+            .build();
+
+    private static final Symbol A = new Symbol("a");
+    private static final Symbol B = new Symbol("b");
+    private static final Symbol C = new Symbol("c");
+
+    private final PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+
+    @Test
+    public void testLargestSourceIsProbe()
+            throws Exception
+    {
+        ValuesNode small = values(A, 1);
+        ValuesNode medium = values(B, 10);
+        ValuesNode large = values(C, 100);
+
+        // (small JOIN medium ON a = b) JOIN large ON b = c
+        PlanNode plan = join(join(small, medium, A, B), large, B, C);
+
+        PlanNode optimized = optimize(plan);
+
+        // the output order of the query is restored on top of the reordered joins
+        assertTrue(optimized instanceof ProjectNode);
+        assertEquals(optimized.getOutputSymbols(), ImmutableList.of(A, B, C));
+
+        // large is the probe side, and medium is joined before small, which can only be joined through medium
+        JoinNode top = (JoinNode) ((ProjectNode) optimized).getSource();
+        assertSame(top.getRight(), small);
+        assertEquals(top.getCriteria(), ImmutableList.of(new EquiJoinClause(B, A)));
+        JoinNode bottom = (JoinNode) top.getLeft();
+        assertSame(bottom.getLeft(), large);
+        assertSame(bottom.getRight(), medium);
+        assertEquals(bottom.getCriteria(), ImmutableList.of(new EquiJoinClause(C, B)));
+    }
+
+    @Test
+    public void testCrossJoinIsNotReordered()
+            throws Exception
+    {
+        ValuesNode small = values(A, 1);
+        ValuesNode medium = values(B, 10);
+        ValuesNode large = values(C, 1000);
+
+        // the cross join is a single source of the reordered join, and no other cross joins are introduced
+        JoinNode crossJoin = new JoinNode(idAllocator.getNextId(), INNER, small, medium, ImmutableList.of(), Optional.empty(), Optional.empty());
+        PlanNode plan = join(crossJoin, large, A, C);
+
+        PlanNode optimized = optimize(plan);
+
+        assertEquals(optimized.getOutputSymbols(), ImmutableList.of(A, B, C));
+        JoinNode join = (JoinNode) ((ProjectNode) optimized).getSource();
+        assertSame(join.getLeft(), large);
+        assertSame(join.getRight(), crossJoin);
+        assertEquals(join.getCriteria(), ImmutableList.of(new EquiJoinClause(C, A)));
+    }
+
+    @Test
+    public void testUnknownSizeKeepsQueryOrder()
+            throws Exception
+    {
+        ValuesNode small = values(A, 1);
+        SortNode unknown = new SortNode(idAllocator.getNextId(), values(B, 10), ImmutableList.of(B), ImmutableMap.of(B, ASC_NULLS_FIRST));
+        ValuesNode large = values(C, 100);
+
+        PlanNode plan = join(join(small, unknown, A, B), large, B, C);
+
+        PlanNode optimized = optimize(plan);
+
+        JoinNode top = (JoinNode) optimized;
+        assertSame(top.getRight(), large);
+        JoinNode bottom = (JoinNode) top.getLeft();
+        assertSame(bottom.getLeft(), small);
+        assertSame(bottom.getRight(), unknown);
+    }
+
+    @Test
+    public void testDisabled()
+            throws Exception
+    {
+        PlanNode plan = join(join(values(A, 1), values(B, 10), A, B), values(C, 100), B, C);
+
+        PlanNode optimized = new ReorderJoins(createTestMetadataManager())
+                .optimize(plan, testSessionBuilder().build(), ImmutableMap.of(), new SymbolAllocator(), idAllocator);
+
+        assertSame(optimized, plan);
+    }
+
+    private PlanNode optimize(PlanNode plan)
+    {
+        return new ReorderJoins(createTestMetadataManager()).optimize(plan, SESSION, ImmutableMap.of(), new SymbolAllocator(), idAllocator);
+    }
+
+    private JoinNode join(PlanNode left, PlanNode right, Symbol leftSymbol, Symbol rightSymbol)
+    {
+        return new JoinNode(idAllocator.getNextId(), INNER, left, right, ImmutableList.of(new EquiJoinClause(leftSymbol, rightSymbol)), Optional.empty(), Optional.empty());
+    }
+
+    private ValuesNode values(Symbol symbol, int rowCount)
+    {
+        ImmutableList.Builder<List<Expression>> rows = ImmutableList.builder();
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(ImmutableList.of(new LongLiteral(String.valueOf(i))));
+        }
+        return new ValuesNode(idAllocator.getNextId(), ImmutableList.of(symbol), rows.build());
+    }
+}
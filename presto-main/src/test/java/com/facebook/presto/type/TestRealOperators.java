@@ -0,0 +1,270 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.facebook.presto.operator.scalar.AbstractTestFunctions;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+
+public class TestRealOperators
+        extends AbstractTestFunctions
+{
+    @Test
+    public void testLiteral()
+            throws Exception
+    {
+        assertFunction("REAL '12.5'", REAL, 12.5f);
+        assertFunction("REAL '4.25'", REAL, 4.25f);
+        // values are rounded to single precision
+        assertFunction("REAL '0.1'", REAL, 0.1f);
+    }
+
+    @Test
+    public void testUnaryPlus()
+            throws Exception
+    {
+        assertFunction("+REAL '12.5'", REAL, 12.5f);
+        assertFunction("+REAL '4.25'", REAL, 4.25f);
+    }
+
+    @Test
+    public void testUnaryMinus()
+            throws Exception
+    {
+        assertFunction("-REAL '12.5'", REAL, -12.5f);
+        assertFunction("-REAL '4.25'", REAL, -4.25f);
+    }
+
+    @Test
+    public void testAdd()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' + REAL '12.5'", REAL, 12.5f + 12.5f);
+        assertFunction("REAL '12.5' + REAL '4.25'", REAL, 12.5f + 4.25f);
+        assertFunction("REAL '4.25' + REAL '12.5'", REAL, 4.25f + 12.5f);
+        assertFunction("REAL '4.25' + REAL '4.25'", REAL, 4.25f + 4.25f);
+        assertFunction("REAL '0.1' + REAL '0.2'", REAL, 0.1f + 0.2f);
+    }
+
+    @Test
+    public void testSubtract()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' - REAL '12.5'", REAL, 12.5f - 12.5f);
+        assertFunction("REAL '12.5' - REAL '4.25'", REAL, 12.5f - 4.25f);
+        assertFunction("REAL '4.25' - REAL '12.5'", REAL, 4.25f - 12.5f);
+        assertFunction("REAL '4.25' - REAL '4.25'", REAL, 4.25f - 4.25f);
+    }
+
+    @Test
+    public void testMultiply()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' * REAL '12.5'", REAL, 12.5f * 12.5f);
+        assertFunction("REAL '12.5' * REAL '4.25'", REAL, 12.5f * 4.25f);
+        assertFunction("REAL '4.25' * REAL '12.5'", REAL, 4.25f * 12.5f);
+        assertFunction("REAL '4.25' * REAL '4.25'", REAL, 4.25f * 4.25f);
+    }
+
+    @Test
+    public void testDivide()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' / REAL '12.5'", REAL, 12.5f / 12.5f);
+        assertFunction("REAL '12.5' / REAL '4.25'", REAL, 12.5f / 4.25f);
+        assertFunction("REAL '4.25' / REAL '12.5'", REAL, 4.25f / 12.5f);
+        assertFunction("REAL '4.25' / REAL '4.25'", REAL, 4.25f / 4.25f);
+        assertFunction("REAL '1' / REAL '3'", REAL, 1.0f / 3.0f);
+    }
+
+    @Test
+    public void testModulus()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' % REAL '12.5'", REAL, 12.5f % 12.5f);
+        assertFunction("REAL '12.5' % REAL '4.25'", REAL, 12.5f % 4.25f);
+        assertFunction("REAL '4.25' % REAL '12.5'", REAL, 4.25f % 12.5f);
+        assertFunction("REAL '4.25' % REAL '4.25'", REAL, 4.25f % 4.25f);
+    }
+
+    @Test
+    public void testEqual()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' = REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '12.5' = REAL '4.25'", BOOLEAN, false);
+        assertFunction("REAL '4.25' = REAL '12.5'", BOOLEAN, false);
+        assertFunction("REAL '4.25' = REAL '4.25'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testNotEqual()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' <> REAL '12.5'", BOOLEAN, false);
+        assertFunction("REAL '12.5' <> REAL '4.25'", BOOLEAN, true);
+        assertFunction("REAL '4.25' <> REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '4.25' <> REAL '4.25'", BOOLEAN, false);
+    }
+
+    @Test
+    public void testLessThan()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' < REAL '12.5'", BOOLEAN, false);
+        assertFunction("REAL '12.5' < REAL '4.25'", BOOLEAN, false);
+        assertFunction("REAL '4.25' < REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '4.25' < REAL '4.25'", BOOLEAN, false);
+    }
+
+    @Test
+    public void testLessThanOrEqual()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' <= REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '12.5' <= REAL '4.25'", BOOLEAN, false);
+        assertFunction("REAL '4.25' <= REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '4.25' <= REAL '4.25'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testGreaterThan()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' > REAL '12.5'", BOOLEAN, false);
+        assertFunction("REAL '12.5' > REAL '4.25'", BOOLEAN, true);
+        assertFunction("REAL '4.25' > REAL '12.5'", BOOLEAN, false);
+        assertFunction("REAL '4.25' > REAL '4.25'", BOOLEAN, false);
+    }
+
+    @Test
+    public void testGreaterThanOrEqual()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' >= REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '12.5' >= REAL '4.25'", BOOLEAN, true);
+        assertFunction("REAL '4.25' >= REAL '12.5'", BOOLEAN, false);
+        assertFunction("REAL '4.25' >= REAL '4.25'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testBetween()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' BETWEEN REAL '12.5' AND REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '12.5' BETWEEN REAL '12.5' AND REAL '4.25'", BOOLEAN, false);
+
+        assertFunction("REAL '12.5' BETWEEN REAL '4.25' AND REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '12.5' BETWEEN REAL '4.25' AND REAL '4.25'", BOOLEAN, false);
+
+        assertFunction("REAL '4.25' BETWEEN REAL '12.5' AND REAL '12.5'", BOOLEAN, false);
+        assertFunction("REAL '4.25' BETWEEN REAL '12.5' AND REAL '4.25'", BOOLEAN, false);
+
+        assertFunction("REAL '4.25' BETWEEN REAL '4.25' AND REAL '12.5'", BOOLEAN, true);
+        assertFunction("REAL '4.25' BETWEEN REAL '4.25' AND REAL '4.25'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testCoercion()
+            throws Exception
+    {
+        assertFunction("REAL '12.5' + cast(0.25 as double)", DOUBLE, 12.75);
+        assertFunction("REAL '12.5' + INTEGER '1'", REAL, 13.5f);
+        assertFunction("REAL '12.5' = cast(12.5 as double)", BOOLEAN, true);
+    }
+
+    @Test
+    public void testCastToDouble()
+            throws Exception
+    {
+        assertFunction("cast(REAL '12.5' as double)", DOUBLE, 12.5);
+        assertFunction("cast(REAL '0.1' as double)", DOUBLE, (double) 0.1f);
+    }
+
+    @Test
+    public void testCastToBigint()
+            throws Exception
+    {
+        assertFunction("cast(REAL '12.5' as bigint)", BIGINT, 13L);
+        assertFunction("cast(REAL '4.25' as bigint)", BIGINT, 4L);
+    }
+
+    @Test
+    public void testCastToInteger()
+            throws Exception
+    {
+        assertFunction("cast(REAL '12.5' as integer)", INTEGER, 13);
+        assertFunction("cast(REAL '4.25' as integer)", INTEGER, 4);
+        assertInvalidFunction("cast(REAL '3e9' as integer)", NUMERIC_VALUE_OUT_OF_RANGE);
+        assertInvalidFunction("cast(REAL 'NaN' as integer)", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testCastToSmallint()
+            throws Exception
+    {
+        assertFunction("cast(REAL '12.5' as smallint)", SMALLINT, (short) 13);
+        assertInvalidFunction("cast(REAL '32768' as smallint)", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testCastToTinyint()
+            throws Exception
+    {
+        assertFunction("cast(REAL '12.5' as tinyint)", TINYINT, (byte) 13);
+        assertInvalidFunction("cast(REAL '128' as tinyint)", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testCastToBoolean()
+            throws Exception
+    {
+        assertFunction("cast(REAL '12.5' as boolean)", BOOLEAN, true);
+        assertFunction("cast(REAL '0' as boolean)", BOOLEAN, false);
+    }
+
+    @Test
+    public void testCastToVarchar()
+            throws Exception
+    {
+        assertFunction("cast(REAL '12.5' as varchar)", VARCHAR, "12.5");
+        assertFunction("cast(REAL '0.1' as varchar)", VARCHAR, "0.1");
+    }
+
+    @Test
+    public void testCastFromVarchar()
+            throws Exception
+    {
+        assertFunction("cast('12.5' as real)", REAL, 12.5f);
+        assertFunction("cast('0.1' as real)", REAL, 0.1f);
+        assertInvalidCast("cast('foo' as real)", "Can not cast 'foo' to REAL");
+    }
+
+    @Test
+    public void testCastFromDouble()
+            throws Exception
+    {
+        assertFunction("cast(cast(12.5 as double) as real)", REAL, 12.5f);
+        assertFunction("cast(cast(0.1 as double) as real)", REAL, 0.1f);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.facebook.presto.operator.scalar.AbstractTestFunctions;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.spi.StandardErrorCode.DIVISION_BY_ZERO;
+import static com.facebook.presto.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+
+public class TestTinyintOperators
+        extends AbstractTestFunctions
+{
+    @Test
+    public void testLiteral()
+            throws Exception
+    {
+        assertFunction("TINYINT '37'", TINYINT, (byte) 37);
+        assertFunction("TINYINT '17'", TINYINT, (byte) 17);
+        assertFunction("TINYINT '127'", TINYINT, (byte) 127);
+        assertFunction("TINYINT '-128'", TINYINT, (byte) -128);
+    }
+
+    @Test
+    public void testUnaryPlus()
+            throws Exception
+    {
+        assertFunction("+TINYINT '37'", TINYINT, (byte) 37);
+        assertFunction("+TINYINT '17'", TINYINT, (byte) 17);
+    }
+
+    @Test
+    public void testUnaryMinus()
+            throws Exception
+    {
+        assertFunction("-TINYINT '37'", TINYINT, (byte) -37);
+        assertFunction("-TINYINT '17'", TINYINT, (byte) -17);
+        assertInvalidFunction("-TINYINT '-128'", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testAdd()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' + TINYINT '37'", TINYINT, (byte) (37 + 37));
+        assertFunction("TINYINT '37' + TINYINT '17'", TINYINT, (byte) (37 + 17));
+        assertFunction("TINYINT '17' + TINYINT '37'", TINYINT, (byte) (17 + 37));
+        assertFunction("TINYINT '17' + TINYINT '17'", TINYINT, (byte) (17 + 17));
+        assertInvalidFunction("TINYINT '127' + TINYINT '1'", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testSubtract()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' - TINYINT '37'", TINYINT, (byte) (37 - 37));
+        assertFunction("TINYINT '37' - TINYINT '17'", TINYINT, (byte) (37 - 17));
+        assertFunction("TINYINT '17' - TINYINT '37'", TINYINT, (byte) (17 - 37));
+        assertFunction("TINYINT '17' - TINYINT '17'", TINYINT, (byte) (17 - 17));
+        assertInvalidFunction("TINYINT '-128' - TINYINT '1'", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testMultiply()
+            throws Exception
+    {
+        assertFunction("TINYINT '7' * TINYINT '7'", TINYINT, (byte) (7 * 7));
+        assertFunction("TINYINT '7' * TINYINT '-17'", TINYINT, (byte) (7 * -17));
+        assertFunction("TINYINT '-17' * TINYINT '7'", TINYINT, (byte) (-17 * 7));
+        assertInvalidFunction("TINYINT '37' * TINYINT '17'", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testDivide()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' / TINYINT '37'", TINYINT, (byte) (37 / 37));
+        assertFunction("TINYINT '37' / TINYINT '17'", TINYINT, (byte) (37 / 17));
+        assertFunction("TINYINT '17' / TINYINT '37'", TINYINT, (byte) (17 / 37));
+        assertFunction("TINYINT '17' / TINYINT '17'", TINYINT, (byte) (17 / 17));
+        assertInvalidFunction("TINYINT '37' / TINYINT '0'", DIVISION_BY_ZERO);
+        assertInvalidFunction("TINYINT '-128' / TINYINT '-1'", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+
+    @Test
+    public void testModulus()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' % TINYINT '37'", TINYINT, (byte) (37 % 37));
+        assertFunction("TINYINT '37' % TINYINT '17'", TINYINT, (byte) (37 % 17));
+        assertFunction("TINYINT '17' % TINYINT '37'", TINYINT, (byte) (17 % 37));
+        assertFunction("TINYINT '17' % TINYINT '17'", TINYINT, (byte) (17 % 17));
+        assertInvalidFunction("TINYINT '37' % TINYINT '0'", DIVISION_BY_ZERO);
+    }
+
+    @Test
+    public void testEqual()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' = TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '37' = TINYINT '17'", BOOLEAN, false);
+        assertFunction("TINYINT '17' = TINYINT '37'", BOOLEAN, false);
+        assertFunction("TINYINT '17' = TINYINT '17'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testNotEqual()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' <> TINYINT '37'", BOOLEAN, false);
+        assertFunction("TINYINT '37' <> TINYINT '17'", BOOLEAN, true);
+        assertFunction("TINYINT '17' <> TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '17' <> TINYINT '17'", BOOLEAN, false);
+    }
+
+    @Test
+    public void testLessThan()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' < TINYINT '37'", BOOLEAN, false);
+        assertFunction("TINYINT '37' < TINYINT '17'", BOOLEAN, false);
+        assertFunction("TINYINT '17' < TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '17' < TINYINT '17'", BOOLEAN, false);
+    }
+
+    @Test
+    public void testLessThanOrEqual()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' <= TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '37' <= TINYINT '17'", BOOLEAN, false);
+        assertFunction("TINYINT '17' <= TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '17' <= TINYINT '17'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testGreaterThan()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' > TINYINT '37'", BOOLEAN, false);
+        assertFunction("TINYINT '37' > TINYINT '17'", BOOLEAN, true);
+        assertFunction("TINYINT '17' > TINYINT '37'", BOOLEAN, false);
+        assertFunction("TINYINT '17' > TINYINT '17'", BOOLEAN, false);
+    }
+
+    @Test
+    public void testGreaterThanOrEqual()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' >= TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '37' >= TINYINT '17'", BOOLEAN, true);
+        assertFunction("TINYINT '17' >= TINYINT '37'", BOOLEAN, false);
+        assertFunction("TINYINT '17' >= TINYINT '17'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testBetween()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' BETWEEN TINYINT '37' AND TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '37' BETWEEN TINYINT '37' AND TINYINT '17'", BOOLEAN, false);
+
+        assertFunction("TINYINT '37' BETWEEN TINYINT '17' AND TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '37' BETWEEN TINYINT '17' AND TINYINT '17'", BOOLEAN, false);
+
+        assertFunction("TINYINT '17' BETWEEN TINYINT '37' AND TINYINT '37'", BOOLEAN, false);
+        assertFunction("TINYINT '17' BETWEEN TINYINT '37' AND TINYINT '17'", BOOLEAN, false);
+
+        assertFunction("TINYINT '17' BETWEEN TINYINT '17' AND TINYINT '37'", BOOLEAN, true);
+        assertFunction("TINYINT '17' BETWEEN TINYINT '17' AND TINYINT '17'", BOOLEAN, true);
+    }
+
+    @Test
+    public void testCoercion()
+            throws Exception
+    {
+        assertFunction("TINYINT '37' + 17", BIGINT, 54L);
+        assertFunction("TINYINT '37' + cast(0.5 as double)", DOUBLE, 37.5);
+        assertFunction("TINYINT '37' = 37", BOOLEAN, true);
+        assertFunction("TINYINT '37' < 17", BOOLEAN, false);
+    }
+
+    @Test
+    public void testCastToSmallint()
+            throws Exception
+    {
+        assertFunction("cast(TINYINT '37' as smallint)", SMALLINT, (short) 37);
+        assertFunction("cast(TINYINT '17' as smallint)", SMALLINT, (short) 17);
+    }
+
+    @Test
+    public void testCastToInteger()
+            throws Exception
+    {
+        assertFunction("cast(TINYINT '37' as integer)", INTEGER, 37);
+        assertFunction("cast(TINYINT '17' as integer)", INTEGER, 17);
+    }
+
+    @Test
+    public void testCastToBigint()
+            throws Exception
+    {
+        assertFunction("cast(TINYINT '37' as bigint)", BIGINT, 37L);
+        assertFunction("cast(TINYINT '17' as bigint)", BIGINT, 17L);
+    }
+
+    @Test
+    public void testCastToReal()
+            throws Exception
+    {
+        assertFunction("cast(TINYINT '37' as real)", REAL, 37.0f);
+        assertFunction("cast(TINYINT '17' as real)", REAL, 17.0f);
+    }
+
+    @Test
+    public void testCastToDouble()
+            throws Exception
+    {
+        assertFunction("cast(TINYINT '37' as double)", DOUBLE, 37.0);
+        assertFunction("cast(TINYINT '17' as double)", DOUBLE, 17.0);
+    }
+
+    @Test
+    public void testCastToBoolean()
+            throws Exception
+    {
+        assertFunction("cast(TINYINT '37' as boolean)", BOOLEAN, true);
+        assertFunction("cast(TINYINT '17' as boolean)", BOOLEAN, true);
+        assertFunction("cast(TINYINT '0' as boolean)", BOOLEAN, false);
+    }
+
+    @Test
+    public void testCastToVarchar()
+            throws Exception
+    {
+        assertFunction("cast(TINYINT '37' as varchar)", VARCHAR, "37");
+        assertFunction("cast(TINYINT '17' as varchar)", VARCHAR, "17");
+    }
+
+    @Test
+    public void testCastFromVarchar()
+            throws Exception
+    {
+        assertFunction("cast('37' as tinyint)", TINYINT, (byte) 37);
+        assertFunction("cast('17' as tinyint)", TINYINT, (byte) 17);
+        assertInvalidCast("cast('128' as tinyint)", "Can not cast '128' to TINYINT");
+    }
+
+    @Test
+    public void testCastFromBigint()
+            throws Exception
+    {
+        assertFunction("cast(37 as tinyint)", TINYINT, (byte) 37);
+        assertFunction("cast(127 as tinyint)", TINYINT, (byte) 127);
+        assertInvalidFunction("cast(128 as tinyint)", NUMERIC_VALUE_OUT_OF_RANGE);
+    }
+}
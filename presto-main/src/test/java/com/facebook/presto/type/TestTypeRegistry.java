@@ -25,10 +25,14 @@ import java.util.Optional;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
 import static com.facebook.presto.spi.type.TimeType.TIME;
 import static com.facebook.presto.spi.type.TimeWithTimeZoneType.TIME_WITH_TIME_ZONE;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
@@ -82,6 +86,13 @@ public class TestTypeRegistry
         assertFalse(TypeRegistry.canCoerce(BIGINT, UNKNOWN));
 
         assertTrue(TypeRegistry.canCoerce(BIGINT, DOUBLE));
+        assertTrue(TypeRegistry.canCoerce(TINYINT, SMALLINT));
+        assertTrue(TypeRegistry.canCoerce(TINYINT, BIGINT));
+        assertTrue(TypeRegistry.canCoerce(SMALLINT, INTEGER));
+        assertTrue(TypeRegistry.canCoerce(INTEGER, BIGINT));
+        assertTrue(TypeRegistry.canCoerce(INTEGER, REAL));
+        assertTrue(TypeRegistry.canCoerce(INTEGER, DOUBLE));
+        assertTrue(TypeRegistry.canCoerce(REAL, DOUBLE));
         assertTrue(TypeRegistry.canCoerce(DATE, TIMESTAMP));
         assertTrue(TypeRegistry.canCoerce(DATE, TIMESTAMP_WITH_TIME_ZONE));
         assertTrue(TypeRegistry.canCoerce(TIME, TIME_WITH_TIME_ZONE));
@@ -91,6 +102,9 @@ public class TestTypeRegistry
         assertTrue(TypeRegistry.canCoerce(VARCHAR, JSON_PATH));
 
         assertFalse(TypeRegistry.canCoerce(DOUBLE, BIGINT));
+        assertFalse(TypeRegistry.canCoerce(BIGINT, INTEGER));
+        assertFalse(TypeRegistry.canCoerce(INTEGER, SMALLINT));
+        assertFalse(TypeRegistry.canCoerce(DOUBLE, REAL));
         assertFalse(TypeRegistry.canCoerce(TIMESTAMP, TIME_WITH_TIME_ZONE));
         assertFalse(TypeRegistry.canCoerce(TIMESTAMP_WITH_TIME_ZONE, TIMESTAMP));
         assertFalse(TypeRegistry.canCoerce(VARBINARY, VARCHAR));
@@ -124,6 +138,10 @@ public class TestTypeRegistry
         assertTrue(TypeRegistry.canCoerce(BIGINT.getTypeSignature(), parseTypeSignature("decimal(37,1)")));
         assertTrue(TypeRegistry.canCoerce(BIGINT.getTypeSignature(), parseTypeSignature("decimal")));
         assertTrue(TypeRegistry.canCoerce(BIGINT.getTypeSignature(), decimalPS));
+        assertFalse(TypeRegistry.canCoerce(INTEGER.getTypeSignature(), parseTypeSignature("decimal(9,0)")));
+        assertTrue(TypeRegistry.canCoerce(INTEGER.getTypeSignature(), parseTypeSignature("decimal(10,0)")));
+        assertTrue(TypeRegistry.canCoerce(SMALLINT.getTypeSignature(), parseTypeSignature("decimal(5,0)")));
+        assertTrue(TypeRegistry.canCoerce(TINYINT.getTypeSignature(), parseTypeSignature("decimal(3,0)")));
 
         assertTrue(TypeRegistry.canCoerce(parseTypeSignature("array(decimal(2,1))"), parseTypeSignature("array(decimal)")));
         assertTrue(TypeRegistry.canCoerce(parseTypeSignature("array(bigint)"), parseTypeSignature("array(decimal)")));
@@ -31,6 +31,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Set;
 
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static java.util.Locale.ENGLISH;
 
 public class MySqlClient
@@ -107,6 +108,13 @@ public class MySqlClient
                 resultSet.getString("TABLE_NAME").toLowerCase(ENGLISH));
     }
 
+    @Override
+    protected boolean isGroupingSupported(Type type)
+    {
+        // the default collations of MySQL compare strings case-insensitively and ignore trailing spaces
+        return super.isGroupingSupported(type) && !type.equals(VARCHAR);
+    }
+
     @Override
     protected String toSqlType(Type type)
     {
@@ -39,8 +39,9 @@ public class FileOrcDataSource
         input.close();
     }
 
+    // synchronized because the next stripe may be prefetched by another thread
     @Override
-    protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
+    protected synchronized void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
             throws IOException
     {
         input.seek(position);
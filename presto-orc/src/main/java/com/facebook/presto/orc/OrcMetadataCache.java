@@ -0,0 +1,246 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.StripeFooter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.primitives.Ints;
+import io.airlift.units.DataSize;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cache of the decoded metadata of ORC files, shared by all readers of a worker.
+ * <p>
+ * The file tail (PostScript, Footer and Metadata), the stripe footers and the
+ * row group indexes of each column are cached separately, so readers of
+ * different splits of the same file, and readers selecting different columns,
+ * can reuse each other's work. Entries are keyed by {@link OrcFileId}, so a
+ * file that changed is never served stale metadata.
+ * <p>
+ * Entries are weighed by the size of the metadata in the file, which is
+ * usually compressed. The decoded objects retain several times as much heap,
+ * so the configured size bounds the metadata read from disk rather than the
+ * memory used by the cache.
+ */
+@ThreadSafe
+public class OrcMetadataCache
+{
+    // stripe offsets and column numbers are never negative, so these can not collide with other entries
+    private static final int FILE_TAIL = -1;
+    private static final int STRIPE_FOOTER = -1;
+
+    private final Optional<Cache<CacheKey, CacheValue>> cache;
+
+    public OrcMetadataCache(DataSize maxSize)
+    {
+        requireNonNull(maxSize, "maxSize is null");
+        if (maxSize.toBytes() == 0) {
+            this.cache = Optional.empty();
+        }
+        else {
+            this.cache = Optional.of(CacheBuilder.newBuilder()
+                    .maximumWeight(maxSize.toBytes())
+                    .weigher((CacheKey key, CacheValue value) -> value.getWeight())
+                    .recordStats()
+                    .build());
+        }
+    }
+
+    Optional<FileCache> forFile(OrcFileId fileId)
+    {
+        requireNonNull(fileId, "fileId is null");
+        return cache.map(entries -> new FileCache(entries, fileId));
+    }
+
+    @Managed
+    public boolean isEnabled()
+    {
+        return cache.isPresent();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.map(Cache::size).orElse(0L);
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.map(Cache::stats).map(CacheStats::hitCount).orElse(0L);
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.map(Cache::stats).map(CacheStats::missCount).orElse(0L);
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        return cache.map(Cache::stats).map(CacheStats::hitRate).orElse(0.0);
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.map(Cache::stats).map(CacheStats::evictionCount).orElse(0L);
+    }
+
+    @Managed
+    public void flush()
+    {
+        cache.ifPresent(Cache::invalidateAll);
+    }
+
+    /**
+     * The entries of a single file.
+     */
+    public static final class FileCache
+    {
+        private final Cache<CacheKey, CacheValue> cache;
+        private final OrcFileId fileId;
+
+        private FileCache(Cache<CacheKey, CacheValue> cache, OrcFileId fileId)
+        {
+            this.cache = cache;
+            this.fileId = fileId;
+        }
+
+        public Optional<OrcFileTail> getFileTail()
+        {
+            return get(FILE_TAIL, FILE_TAIL, OrcFileTail.class);
+        }
+
+        public void putFileTail(OrcFileTail fileTail)
+        {
+            put(FILE_TAIL, FILE_TAIL, fileTail, fileTail.getTailSize());
+        }
+
+        public Optional<StripeFooter> getStripeFooter(long stripeOffset)
+        {
+            return get(stripeOffset, STRIPE_FOOTER, StripeFooter.class);
+        }
+
+        public void putStripeFooter(long stripeOffset, StripeFooter stripeFooter, long footerLength)
+        {
+            put(stripeOffset, STRIPE_FOOTER, stripeFooter, footerLength);
+        }
+
+        @SuppressWarnings("unchecked")
+        public Optional<List<RowGroupIndex>> getRowIndexes(long stripeOffset, int column)
+        {
+            return get(stripeOffset, column, List.class).map(rowIndexes -> (List<RowGroupIndex>) rowIndexes);
+        }
+
+        public void putRowIndexes(long stripeOffset, int column, List<RowGroupIndex> rowIndexes, long streamLength)
+        {
+            put(stripeOffset, column, rowIndexes, streamLength);
+        }
+
+        private <T> Optional<T> get(long stripeOffset, int column, Class<T> type)
+        {
+            CacheValue value = cache.getIfPresent(new CacheKey(fileId, stripeOffset, column));
+            if (value == null) {
+                return Optional.empty();
+            }
+            return Optional.of(type.cast(value.getValue()));
+        }
+
+        private void put(long stripeOffset, int column, Object value, long size)
+        {
+            cache.put(new CacheKey(fileId, stripeOffset, column), new CacheValue(value, Ints.saturatedCast(size)));
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final OrcFileId fileId;
+        private final long stripeOffset;
+        private final int column;
+
+        private CacheKey(OrcFileId fileId, long stripeOffset, int column)
+        {
+            this.fileId = fileId;
+            this.stripeOffset = stripeOffset;
+            this.column = column;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(fileId, stripeOffset, column);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return Objects.equals(this.fileId, other.fileId)
+                    && Objects.equals(this.stripeOffset, other.stripeOffset)
+                    && Objects.equals(this.column, other.column);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("fileId", fileId)
+                    .add("stripeOffset", stripeOffset)
+                    .add("column", column)
+                    .toString();
+        }
+    }
+
+    private static final class CacheValue
+    {
+        private final Object value;
+        private final int weight;
+
+        private CacheValue(Object value, int weight)
+        {
+            this.value = requireNonNull(value, "value is null");
+            this.weight = weight;
+        }
+
+        public Object getValue()
+        {
+            return value;
+        }
+
+        public int getWeight()
+        {
+            return weight;
+        }
+    }
+}
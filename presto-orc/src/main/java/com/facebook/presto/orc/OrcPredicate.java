@@ -14,8 +14,10 @@
 package com.facebook.presto.orc;
 
 import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.google.common.collect.ImmutableSet;
 
 import java.util.Map;
+import java.util.Set;
 
 public interface OrcPredicate
 {
@@ -37,4 +39,13 @@ public interface OrcPredicate
      * in the file; this will match the field order from the hive metastore
      */
     boolean matches(long numberOfRows, Map<Integer, ColumnStatistics> statisticsByColumnIndex);
+
+    /**
+     * Columns whose bloom filters can be used by this predicate, by ordinal position
+     * in the file. The bloom filters of other columns are not read.
+     */
+    default Set<Integer> getBloomFilterColumns()
+    {
+        return ImmutableSet.of();
+    }
 }
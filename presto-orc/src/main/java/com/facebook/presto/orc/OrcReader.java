@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.orc;
 
+import com.facebook.presto.orc.OrcMetadataCache.FileCache;
 import com.facebook.presto.orc.memory.AbstractAggregatedMemoryContext;
 import com.facebook.presto.orc.memory.AggregatedMemoryContext;
 import com.facebook.presto.orc.metadata.CompressionKind;
@@ -34,6 +35,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
 import static java.lang.Math.min;
@@ -58,17 +61,52 @@ public class OrcReader
     private final int bufferSize;
     private final Footer footer;
     private final Metadata metadata;
+    private final Optional<FileCache> fileCache;
 
-    // This is based on the Apache Hive ORC code
     public OrcReader(OrcDataSource orcDataSource, MetadataReader metadataReader, DataSize maxMergeDistance, DataSize maxReadSize)
             throws IOException
+    {
+        this(orcDataSource, metadataReader, maxMergeDistance, maxReadSize, Optional.empty());
+    }
+
+    public OrcReader(OrcDataSource orcDataSource, MetadataReader metadataReader, DataSize maxMergeDistance, DataSize maxReadSize, OrcMetadataCache metadataCache, OrcFileId fileId)
+            throws IOException
+    {
+        this(orcDataSource, metadataReader, maxMergeDistance, maxReadSize, requireNonNull(metadataCache, "metadataCache is null").forFile(fileId));
+    }
+
+    private OrcReader(OrcDataSource orcDataSource, MetadataReader metadataReader, DataSize maxMergeDistance, DataSize maxReadSize, Optional<FileCache> fileCache)
+            throws IOException
     {
         orcDataSource = wrapWithCacheIfTiny(requireNonNull(orcDataSource, "orcDataSource is null"), maxMergeDistance);
         this.orcDataSource = orcDataSource;
         this.metadataReader = requireNonNull(metadataReader, "metadataReader is null");
         this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
         this.maxReadSize = requireNonNull(maxReadSize, "maxReadSize is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+
+        Optional<OrcFileTail> cachedFileTail = fileCache.flatMap(FileCache::getFileTail);
+        OrcFileTail fileTail;
+        if (cachedFileTail.isPresent()) {
+            fileTail = cachedFileTail.get();
+        }
+        else {
+            fileTail = readFileTail(orcDataSource, metadataReader);
+            if (fileCache.isPresent()) {
+                fileCache.get().putFileTail(fileTail);
+            }
+        }
+
+        this.compressionKind = fileTail.getCompressionKind();
+        this.bufferSize = fileTail.getBufferSize();
+        this.footer = fileTail.getFooter();
+        this.metadata = fileTail.getMetadata();
+    }
 
+    // This is based on the Apache Hive ORC code
+    private static OrcFileTail readFileTail(OrcDataSource orcDataSource, MetadataReader metadataReader)
+            throws IOException
+    {
         //
         // Read the file tail:
         //
@@ -102,9 +140,9 @@ public class OrcReader
         checkOrcVersion(orcDataSource, postScript.getVersion());
 
         // check compression codec is supported
-        this.compressionKind = postScript.getCompression();
+        CompressionKind compressionKind = postScript.getCompression();
 
-        this.bufferSize = Ints.checkedCast(postScript.getCompressionBlockSize());
+        int bufferSize = Ints.checkedCast(postScript.getCompressionBlockSize());
 
         int footerSize = Ints.checkedCast(postScript.getFooterLength());
         int metadataSize = Ints.checkedCast(postScript.getMetadataLength());
@@ -129,16 +167,20 @@ public class OrcReader
         }
 
         // read metadata
+        Metadata metadata;
         Slice metadataSlice = completeFooterSlice.slice(0, metadataSize);
         try (InputStream metadataInputStream = new OrcInputStream(orcDataSource.toString(), metadataSlice.getInput(), compressionKind, bufferSize, new AggregatedMemoryContext())) {
-            this.metadata = metadataReader.readMetadata(metadataInputStream);
+            metadata = metadataReader.readMetadata(metadataInputStream);
         }
 
         // read footer
+        Footer footer;
         Slice footerSlice = completeFooterSlice.slice(metadataSize, footerSize);
         try (InputStream footerInputStream = new OrcInputStream(orcDataSource.toString(), footerSlice.getInput(), compressionKind, bufferSize, new AggregatedMemoryContext())) {
-            this.footer = metadataReader.readFooter(footerInputStream);
+            footer = metadataReader.readFooter(footerInputStream);
         }
+
+        return new OrcFileTail(compressionKind, bufferSize, footer, metadata, completeFooterSize);
     }
 
     public List<String> getColumnNames()
@@ -180,6 +222,23 @@ public class OrcReader
             DateTimeZone hiveStorageTimeZone,
             AbstractAggregatedMemoryContext systemMemoryUsage)
             throws IOException
+    {
+        return createRecordReader(includedColumns, predicate, offset, length, hiveStorageTimeZone, systemMemoryUsage, Optional.empty());
+    }
+
+    /**
+     * Creates a record reader that reads the next stripe on the prefetch executor, if present,
+     * while the current stripe is decoded.
+     */
+    public OrcRecordReader createRecordReader(
+            Map<Integer, Type> includedColumns,
+            OrcPredicate predicate,
+            long offset,
+            long length,
+            DateTimeZone hiveStorageTimeZone,
+            AbstractAggregatedMemoryContext systemMemoryUsage,
+            Optional<Executor> prefetchExecutor)
+            throws IOException
     {
         return new OrcRecordReader(
                 requireNonNull(includedColumns, "includedColumns is null"),
@@ -199,6 +258,8 @@ public class OrcReader
                 metadataReader,
                 maxMergeDistance,
                 maxReadSize,
+                fileCache,
+                prefetchExecutor,
                 systemMemoryUsage);
     }
 
@@ -13,8 +13,10 @@
  */
 package com.facebook.presto.orc;
 
+import com.facebook.presto.orc.OrcMetadataCache.FileCache;
 import com.facebook.presto.orc.memory.AbstractAggregatedMemoryContext;
 import com.facebook.presto.orc.memory.AggregatedMemoryContext;
+import com.facebook.presto.orc.memory.LocalMemoryContext;
 import com.facebook.presto.orc.metadata.ColumnEncoding;
 import com.facebook.presto.orc.metadata.ColumnStatistics;
 import com.facebook.presto.orc.metadata.CompressionKind;
@@ -37,6 +39,7 @@ import io.airlift.units.DataSize;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -44,6 +47,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.facebook.presto.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
@@ -54,6 +63,8 @@ import static java.util.Objects.requireNonNull;
 
 public class OrcRecordReader
 {
+    private static final CompletableFuture<?> NOT_BLOCKED = CompletableFuture.completedFuture(null);
+
     private final OrcDataSource orcDataSource;
 
     private final StreamReader[] streamReaders;
@@ -71,6 +82,8 @@ public class OrcRecordReader
     private AggregatedMemoryContext currentStripeSystemMemoryContext;
 
     private final long fileRowCount;
+    private final long skippedStripeRowGroups;
+    private final long skippedStripeRows;
     private final List<Long> stripeFilePositions;
     private long filePosition;
 
@@ -80,6 +93,14 @@ public class OrcRecordReader
 
     private final AbstractAggregatedMemoryContext systemMemoryUsage;
 
+    private final Optional<Executor> prefetchExecutor;
+    private final DataSize maxMergeDistance;
+    private final DataSize maxReadSize;
+    private final LocalMemoryContext prefetchSystemMemoryContext;
+    private StripePrefetch prefetch;
+    // prefetches that were not used, but may still be reading into memory
+    private final List<StripePrefetch> abandonedPrefetches = new ArrayList<>();
+
     public OrcRecordReader(
             Map<Integer, Type> includedColumns,
             OrcPredicate predicate,
@@ -98,6 +119,8 @@ public class OrcRecordReader
             MetadataReader metadataReader,
             DataSize maxMergeDistance,
             DataSize maxReadSize,
+            Optional<FileCache> fileCache,
+            Optional<Executor> prefetchExecutor,
             AbstractAggregatedMemoryContext systemMemoryUsage)
             throws IOException
     {
@@ -109,6 +132,7 @@ public class OrcRecordReader
         requireNonNull(types, "types is null");
         requireNonNull(compressionKind, "compressionKind is null");
         requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
+        requireNonNull(prefetchExecutor, "prefetchExecutor is null");
 
         // reduce the included columns to the set that is also present
         ImmutableSet.Builder<Integer> presentColumns = ImmutableSet.builder();
@@ -141,21 +165,30 @@ public class OrcRecordReader
 
         long totalRowCount = 0;
         long fileRowCount = 0;
+        long skippedStripeRowGroups = 0;
+        long skippedStripeRows = 0;
         ImmutableList.Builder<StripeInformation> stripes = ImmutableList.builder();
         ImmutableList.Builder<Long> stripeFilePositions = ImmutableList.builder();
-        if (predicate.matches(numberOfRows, getStatisticsByColumnOrdinal(root, fileStats))) {
-            // select stripes that start within the specified split
-            for (StripeInfo info : stripeInfos) {
-                StripeInformation stripe = info.getStripe();
-                if (splitContainsStripe(splitOffset, splitLength, stripe) && isStripeIncluded(root, stripe, info.getStats(), predicate)) {
+        boolean fileMatches = predicate.matches(numberOfRows, getStatisticsByColumnOrdinal(root, fileStats));
+        // select stripes that start within the specified split
+        for (StripeInfo info : stripeInfos) {
+            StripeInformation stripe = info.getStripe();
+            if (splitContainsStripe(splitOffset, splitLength, stripe)) {
+                if (fileMatches && isStripeIncluded(root, stripe, info.getStats(), predicate)) {
                     stripes.add(stripe);
                     stripeFilePositions.add(fileRowCount);
                     totalRowCount += stripe.getNumberOfRows();
                 }
-                fileRowCount += stripe.getNumberOfRows();
+                else {
+                    skippedStripeRowGroups += ((stripe.getNumberOfRows() + rowsInRowGroup) - 1) / rowsInRowGroup;
+                    skippedStripeRows += stripe.getNumberOfRows();
+                }
             }
+            fileRowCount += stripe.getNumberOfRows();
         }
         this.totalRowCount = totalRowCount;
+        this.skippedStripeRowGroups = skippedStripeRowGroups;
+        this.skippedStripeRows = skippedStripeRows;
         this.stripes = stripes.build();
         this.stripeFilePositions = stripeFilePositions.build();
 
@@ -179,9 +212,20 @@ public class OrcRecordReader
                 this.presentColumns,
                 rowsInRowGroup,
                 predicate,
-                metadataReader);
+                metadataReader,
+                fileCache);
 
         streamReaders = createStreamReaders(orcDataSource, types, hiveStorageTimeZone, presentColumnsAndTypes.build());
+
+        // tiny stripes are already read together by the caching data source, which is not thread safe
+        if (orcDataSource instanceof CachingOrcDataSource) {
+            prefetchExecutor = Optional.empty();
+        }
+        this.prefetchExecutor = prefetchExecutor;
+        this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
+        this.maxReadSize = requireNonNull(maxReadSize, "maxReadSize is null");
+        this.prefetchSystemMemoryContext = this.systemMemoryUsage.newLocalMemoryContext();
+        prefetchStripe(0);
     }
 
     private static boolean splitContainsStripe(long splitOffset, long splitLength, StripeInformation stripe)
@@ -256,6 +300,24 @@ public class OrcRecordReader
         return totalRowCount;
     }
 
+    /**
+     * Returns the number of row groups of this reader's stripes that were skipped,
+     * either with their whole stripe due to file or stripe statistics, or due to
+     * row group statistics and bloom filters in the stripes read so far.
+     */
+    public long getSkippedRowGroups()
+    {
+        return skippedStripeRowGroups + stripeReader.getSkippedRowGroups();
+    }
+
+    /**
+     * Returns the number of rows in the row groups counted by {@link #getSkippedRowGroups()}.
+     */
+    public long getSkippedRows()
+    {
+        return skippedStripeRows + stripeReader.getSkippedRows();
+    }
+
     public float getProgress()
     {
         return ((float) currentPosition) / totalRowCount;
@@ -269,9 +331,29 @@ public class OrcRecordReader
     public void close()
             throws IOException
     {
+        if (prefetch != null) {
+            prefetch.abandon();
+            prefetch = null;
+        }
         orcDataSource.close();
     }
 
+    /**
+     * Returns a future that completes when the next batch can be read without waiting
+     * for the next stripe to be read from the data source.
+     */
+    public CompletableFuture<?> isBlocked()
+    {
+        if (prefetch == null || prefetch.getFuture().isDone()) {
+            return NOT_BLOCKED;
+        }
+        // the prefetch is only needed once the current stripe is exhausted
+        if (nextRowInGroup < currentGroupRowCount || rowGroups.hasNext()) {
+            return NOT_BLOCKED;
+        }
+        return prefetch.getFuture().handle((stripe, throwable) -> null);
+    }
+
     public boolean isColumnPresent(int hiveColumnIndex)
     {
         return presentColumns.contains(hiveColumnIndex);
@@ -280,6 +362,8 @@ public class OrcRecordReader
     public int nextBatch()
             throws IOException
     {
+        updatePrefetchMemoryUsage();
+
         // update position for current row group (advancing resets them)
         filePosition += currentBatchSize;
         currentPosition += currentBatchSize;
@@ -311,6 +395,12 @@ public class OrcRecordReader
         return streamReaders[columnIndex].readBlock(type);
     }
 
+    public Block readBlock(Type type, int columnIndex, int[] positions, int positionCount)
+            throws IOException
+    {
+        return streamReaders[columnIndex].readBlock(type, positions, positionCount);
+    }
+
     public StreamReader getStreamReader(int index)
     {
         checkArgument(index < streamReaders.length, "index does not exist");
@@ -366,7 +456,15 @@ public class OrcRecordReader
 
         StripeInformation stripeInformation = stripes.get(currentStripe);
 
-        Stripe stripe = stripeReader.readStripe(stripeInformation, currentStripeSystemMemoryContext);
+        // read the next stripe in the background while this one is decoded
+        Optional<PrefetchedStripe> prefetchedStripe = takePrefetchedStripe(currentStripe);
+        prefetchStripe(currentStripe + 1);
+
+        if (prefetchedStripe.isPresent()) {
+            // the prefetched data is released with the rest of the stripe
+            currentStripeSystemMemoryContext.newLocalMemoryContext().setBytes(prefetchedStripe.get().getRetainedSizeInBytes());
+        }
+        Stripe stripe = stripeReader.readStripe(stripeInformation, prefetchedStripe, currentStripeSystemMemoryContext);
         if (stripe != null) {
             // Give readers access to dictionary streams
             StreamSources dictionaryStreamSources = stripe.getDictionaryStreamSources();
@@ -381,6 +479,78 @@ public class OrcRecordReader
         }
     }
 
+    private void prefetchStripe(int stripe)
+    {
+        if (!prefetchExecutor.isPresent() || stripe >= stripes.size()) {
+            return;
+        }
+
+        // the memory context is not thread safe, so the whole stripe is reserved
+        // by the reading thread before the read starts
+        StripeInformation stripeInformation = stripes.get(stripe);
+        StripePrefetch stripePrefetch = new StripePrefetch(stripe, stripeInformation.getIndexLength() + stripeInformation.getDataLength());
+        prefetch = stripePrefetch;
+        updatePrefetchMemoryUsage();
+
+        stripePrefetch.start(() -> {
+            try {
+                return stripeReader.prefetchStripe(stripeInformation, maxMergeDistance, maxReadSize);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, prefetchExecutor.get());
+    }
+
+    /**
+     * Returns the prefetched data of the stripe, if it has been read already. This never waits
+     * for the prefetch, since {@link #isBlocked} lets the caller wait for it instead.
+     */
+    private Optional<PrefetchedStripe> takePrefetchedStripe(int stripe)
+    {
+        if (prefetch == null) {
+            return Optional.empty();
+        }
+
+        StripePrefetch stripePrefetch = prefetch;
+        prefetch = null;
+        if (stripePrefetch.getStripe() != stripe || !stripePrefetch.getFuture().isDone()) {
+            // the stripe is read by the reading thread, and the memory stays reserved until the prefetch finishes
+            stripePrefetch.abandon();
+            abandonedPrefetches.add(stripePrefetch);
+            updatePrefetchMemoryUsage();
+            return Optional.empty();
+        }
+        updatePrefetchMemoryUsage();
+
+        try {
+            return Optional.of(stripePrefetch.getFuture().getNow(null));
+        }
+        catch (CompletionException | CancellationException e) {
+            // read the stripe again, so the failure is reported by the reading thread
+            return Optional.empty();
+        }
+    }
+
+    private void updatePrefetchMemoryUsage()
+    {
+        abandonedPrefetches.removeIf(stripePrefetch -> stripePrefetch.getFuture().isDone());
+        long bytes = 0;
+        for (StripePrefetch stripePrefetch : abandonedPrefetches) {
+            bytes += stripePrefetch.getReservedBytes();
+        }
+        if (prefetch != null) {
+            CompletableFuture<PrefetchedStripe> future = prefetch.getFuture();
+            if (future == null || !future.isDone()) {
+                bytes += prefetch.getReservedBytes();
+            }
+            else if (!future.isCompletedExceptionally()) {
+                bytes += future.getNow(null).getRetainedSizeInBytes();
+            }
+        }
+        prefetchSystemMemoryContext.setBytes(bytes);
+    }
+
     private static StreamReader[] createStreamReaders(OrcDataSource orcDataSource,
             List<OrcType> types,
             DateTimeZone hiveStorageTimeZone,
@@ -502,4 +672,50 @@ public class OrcRecordReader
             return new LinearProbeRangeFinder(diskRanges);
         }
     }
+
+    /**
+     * A background read of a stripe. An abandoned prefetch that has not started yet
+     * does not read anything, and its future completes without a value.
+     */
+    private static class StripePrefetch
+    {
+        private final int stripe;
+        private final long reservedBytes;
+        private final AtomicBoolean abandoned = new AtomicBoolean();
+        private CompletableFuture<PrefetchedStripe> future;
+
+        public StripePrefetch(int stripe, long reservedBytes)
+        {
+            this.stripe = stripe;
+            this.reservedBytes = reservedBytes;
+        }
+
+        public void start(Supplier<PrefetchedStripe> reader, Executor executor)
+        {
+            future = CompletableFuture.supplyAsync(() -> abandoned.get() ? null : reader.get(), executor);
+        }
+
+        public int getStripe()
+        {
+            return stripe;
+        }
+
+        public long getReservedBytes()
+        {
+            return reservedBytes;
+        }
+
+        /**
+         * Returns the future of the read, or null if the read has not been started.
+         */
+        public CompletableFuture<PrefetchedStripe> getFuture()
+        {
+            return future;
+        }
+
+        public void abandon()
+        {
+            abandoned.set(true);
+        }
+    }
 }
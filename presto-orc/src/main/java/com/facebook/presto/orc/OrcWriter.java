@@ -0,0 +1,355 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.Footer;
+import com.facebook.presto.orc.metadata.Metadata;
+import com.facebook.presto.orc.metadata.MetadataWriter;
+import com.facebook.presto.orc.metadata.OrcMetadataWriter;
+import com.facebook.presto.orc.metadata.OrcType;
+import com.facebook.presto.orc.metadata.OrcType.OrcTypeKind;
+import com.facebook.presto.orc.metadata.PostScript;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.metadata.StripeFooter;
+import com.facebook.presto.orc.metadata.StripeInformation;
+import com.facebook.presto.orc.metadata.StripeStatistics;
+import com.facebook.presto.orc.stream.OrcOutputBuffer;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.orc.writer.ColumnWriter;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import org.joda.time.DateTimeZone;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT;
+import static com.facebook.presto.orc.metadata.ColumnStatistics.mergeColumnStatistics;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.ROW_INDEX;
+import static com.facebook.presto.orc.writer.ColumnWriters.createColumnWriter;
+import static com.facebook.presto.orc.writer.ColumnWriters.toOrcTypeKind;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes pages to an ORC file. Rows are buffered in memory until a stripe is full, and then
+ * the streams of the stripe are written to the output. Only primitive types are supported,
+ * see {@link com.facebook.presto.orc.writer.ColumnWriters#isSupportedType(Type)}.
+ */
+public class OrcWriter
+        implements Closeable
+{
+    public static final DataSize DEFAULT_STRIPE_MAX_SIZE = new DataSize(64, MEGABYTE);
+    public static final int DEFAULT_STRIPE_MAX_ROW_COUNT = 10_000_000;
+    public static final int DEFAULT_ROW_GROUP_MAX_ROW_COUNT = 10_000;
+    public static final DataSize DEFAULT_COMPRESSION_BLOCK_SIZE = new DataSize(256, KILOBYTE);
+
+    private static final Slice MAGIC = Slices.utf8Slice("ORC");
+
+    private final OutputStream output;
+    private final CompressionKind compression;
+    private final int compressionBlockSize;
+    private final long stripeMaxBytes;
+    private final int stripeMaxRowCount;
+    private final int rowGroupMaxRowCount;
+    private final MetadataWriter metadataWriter = new OrcMetadataWriter();
+    private final List<OrcType> orcTypes;
+    private final List<ColumnWriter> columnWriters;
+
+    private final List<StripeInformation> stripes = new ArrayList<>();
+    private final List<StripeStatistics> stripeStatistics = new ArrayList<>();
+    private final List<Integer> rowGroupRowCounts = new ArrayList<>();
+    private long outputPosition;
+    private long fileRowCount;
+    private int stripeRowCount;
+    private int rowGroupRowCount;
+    private boolean closed;
+
+    public OrcWriter(OutputStream output, List<String> columnNames, List<Type> types, CompressionKind compression, DateTimeZone hiveStorageTimeZone)
+    {
+        this(output,
+                columnNames,
+                types,
+                compression,
+                DEFAULT_STRIPE_MAX_SIZE,
+                DEFAULT_STRIPE_MAX_ROW_COUNT,
+                DEFAULT_ROW_GROUP_MAX_ROW_COUNT,
+                DEFAULT_COMPRESSION_BLOCK_SIZE,
+                hiveStorageTimeZone);
+    }
+
+    public OrcWriter(
+            OutputStream output,
+            List<String> columnNames,
+            List<Type> types,
+            CompressionKind compression,
+            DataSize stripeMaxSize,
+            int stripeMaxRowCount,
+            int rowGroupMaxRowCount,
+            DataSize compressionBlockSize,
+            DateTimeZone hiveStorageTimeZone)
+    {
+        this.output = requireNonNull(output, "output is null");
+        requireNonNull(columnNames, "columnNames is null");
+        requireNonNull(types, "types is null");
+        checkArgument(columnNames.size() == types.size(), "columnNames and types must have the same size");
+        this.compression = requireNonNull(compression, "compression is null");
+        this.stripeMaxBytes = requireNonNull(stripeMaxSize, "stripeMaxSize is null").toBytes();
+        checkArgument(stripeMaxRowCount > 0, "stripeMaxRowCount must be positive");
+        this.stripeMaxRowCount = stripeMaxRowCount;
+        checkArgument(rowGroupMaxRowCount > 0, "rowGroupMaxRowCount must be positive");
+        this.rowGroupMaxRowCount = rowGroupMaxRowCount;
+        this.compressionBlockSize = (int) requireNonNull(compressionBlockSize, "compressionBlockSize is null").toBytes();
+        requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
+
+        // column 0 is the struct holding all columns
+        ImmutableList.Builder<OrcType> orcTypes = ImmutableList.builder();
+        ImmutableList.Builder<Integer> fieldTypeIndexes = ImmutableList.builder();
+        for (int column = 1; column <= types.size(); column++) {
+            fieldTypeIndexes.add(column);
+        }
+        orcTypes.add(new OrcType(OrcTypeKind.STRUCT, fieldTypeIndexes.build(), columnNames));
+
+        ImmutableList.Builder<ColumnWriter> columnWriters = ImmutableList.builder();
+        for (int field = 0; field < types.size(); field++) {
+            Type type = types.get(field);
+            OrcTypeKind orcTypeKind = toOrcTypeKind(type).orElseThrow(() -> new IllegalArgumentException("Unsupported type: " + type));
+            orcTypes.add(new OrcType(orcTypeKind, ImmutableList.of(), ImmutableList.of()));
+            columnWriters.add(createColumnWriter(field + 1, type, compression, this.compressionBlockSize, hiveStorageTimeZone));
+        }
+        this.orcTypes = orcTypes.build();
+        this.columnWriters = columnWriters.build();
+    }
+
+    public void write(Page page)
+            throws IOException
+    {
+        checkState(!closed, "writer is closed");
+        checkArgument(page.getChannelCount() == columnWriters.size(), "Expected %s channels, but page has %s", columnWriters.size(), page.getChannelCount());
+
+        int offset = 0;
+        while (offset < page.getPositionCount()) {
+            if (rowGroupRowCount == 0) {
+                columnWriters.forEach(ColumnWriter::beginRowGroup);
+            }
+
+            int length = Math.min(page.getPositionCount() - offset, rowGroupMaxRowCount - rowGroupRowCount);
+            length = Math.min(length, stripeMaxRowCount - stripeRowCount);
+            for (int channel = 0; channel < columnWriters.size(); channel++) {
+                columnWriters.get(channel).writeBlock(page.getBlock(channel).getRegion(offset, length));
+            }
+            offset += length;
+            rowGroupRowCount += length;
+            stripeRowCount += length;
+
+            if (rowGroupRowCount == rowGroupMaxRowCount) {
+                finishRowGroup();
+            }
+            if (stripeRowCount == stripeMaxRowCount || getBufferedBytes() >= stripeMaxBytes) {
+                flushStripe();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes written to the output so far.
+     */
+    public long getWrittenBytes()
+    {
+        return outputPosition;
+    }
+
+    public long getBufferedBytes()
+    {
+        long bufferedBytes = 0;
+        for (ColumnWriter columnWriter : columnWriters) {
+            bufferedBytes += columnWriter.getBufferedBytes();
+        }
+        return bufferedBytes;
+    }
+
+    public long getRetainedBytes()
+    {
+        long retainedBytes = 0;
+        for (ColumnWriter columnWriter : columnWriters) {
+            retainedBytes += columnWriter.getRetainedBytes();
+        }
+        return retainedBytes;
+    }
+
+    private void finishRowGroup()
+    {
+        columnWriters.forEach(ColumnWriter::finishRowGroup);
+        rowGroupRowCounts.add(rowGroupRowCount);
+        rowGroupRowCount = 0;
+    }
+
+    private void flushStripe()
+            throws IOException
+    {
+        if (stripeRowCount == 0) {
+            return;
+        }
+        if (rowGroupRowCount > 0) {
+            finishRowGroup();
+        }
+        writeHeaderIfNecessary();
+
+        columnWriters.forEach(ColumnWriter::close);
+
+        List<StreamDataOutput> indexStreams = new ArrayList<>();
+        List<StreamDataOutput> dataStreams = new ArrayList<>();
+        ImmutableList.Builder<ColumnEncoding> columnEncodings = ImmutableList.builder();
+        ImmutableList.Builder<ColumnStatistics> columnStatistics = ImmutableList.builder();
+
+        indexStreams.add(createRootRowIndexStream());
+        columnEncodings.add(new ColumnEncoding(DIRECT, 0));
+        columnStatistics.add(createRootColumnStatistics(stripeRowCount));
+        for (ColumnWriter columnWriter : columnWriters) {
+            indexStreams.addAll(columnWriter.getIndexStreams(metadataWriter));
+            dataStreams.addAll(columnWriter.getDataStreams());
+            columnEncodings.add(columnWriter.getColumnEncoding());
+            columnStatistics.add(columnWriter.getStripeStatistics());
+        }
+
+        // streams are laid out in the order they are listed in the stripe footer
+        ImmutableList.Builder<Stream> streams = ImmutableList.builder();
+        long stripeOffset = outputPosition;
+        long indexLength = 0;
+        for (StreamDataOutput indexStream : indexStreams) {
+            streams.add(indexStream.getStream());
+            writeSlice(indexStream.getData());
+            indexLength += indexStream.getSizeInBytes();
+        }
+        long dataLength = 0;
+        for (StreamDataOutput dataStream : dataStreams) {
+            streams.add(dataStream.getStream());
+            writeSlice(dataStream.getData());
+            dataLength += dataStream.getSizeInBytes();
+        }
+
+        OrcOutputBuffer footerBuffer = new OrcOutputBuffer(compression, compressionBlockSize);
+        metadataWriter.writeStripeFooter(footerBuffer, new StripeFooter(streams.build(), columnEncodings.build()));
+        Slice footer = footerBuffer.getCompressedData();
+        writeSlice(footer);
+
+        stripes.add(new StripeInformation(stripeRowCount, stripeOffset, indexLength, dataLength, footer.length()));
+        stripeStatistics.add(new StripeStatistics(columnStatistics.build()));
+        fileRowCount += stripeRowCount;
+
+        columnWriters.forEach(ColumnWriter::reset);
+        rowGroupRowCounts.clear();
+        stripeRowCount = 0;
+    }
+
+    private StreamDataOutput createRootRowIndexStream()
+            throws IOException
+    {
+        ImmutableList.Builder<RowGroupIndex> rowGroupIndexes = ImmutableList.builder();
+        for (int rowCount : rowGroupRowCounts) {
+            rowGroupIndexes.add(new RowGroupIndex(ImmutableList.of(), createRootColumnStatistics(rowCount)));
+        }
+        OrcOutputBuffer buffer = new OrcOutputBuffer(compression, compressionBlockSize);
+        metadataWriter.writeRowIndexes(buffer, rowGroupIndexes.build());
+        Slice data = buffer.getCompressedData();
+        return new StreamDataOutput(new Stream(0, ROW_INDEX, data.length(), false), data);
+    }
+
+    private static ColumnStatistics createRootColumnStatistics(long rowCount)
+    {
+        return new ColumnStatistics(rowCount, null, null, null, null, null);
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            flushStripe();
+            writeHeaderIfNecessary();
+
+            OrcOutputBuffer metadataBuffer = new OrcOutputBuffer(compression, compressionBlockSize);
+            metadataWriter.writeMetadata(metadataBuffer, new Metadata(stripeStatistics));
+            Slice metadata = metadataBuffer.getCompressedData();
+            writeSlice(metadata);
+
+            ImmutableList.Builder<ColumnStatistics> fileStatistics = ImmutableList.builder();
+            fileStatistics.add(createRootColumnStatistics(fileRowCount));
+            for (int column = 1; column < orcTypes.size(); column++) {
+                ImmutableList.Builder<ColumnStatistics> columnStatistics = ImmutableList.builder();
+                for (StripeStatistics stripe : stripeStatistics) {
+                    columnStatistics.add(stripe.getColumnStatistics().get(column));
+                }
+                fileStatistics.add(mergeColumnStatistics(columnStatistics.build()));
+            }
+
+            OrcOutputBuffer footerBuffer = new OrcOutputBuffer(compression, compressionBlockSize);
+            metadataWriter.writeFooter(footerBuffer, new Footer(fileRowCount, rowGroupMaxRowCount, stripes, orcTypes, fileStatistics.build()));
+            Slice footer = footerBuffer.getCompressedData();
+            writeSlice(footer);
+
+            // the post script is never compressed
+            DynamicSliceOutput postScriptOutput = new DynamicSliceOutput(64);
+            metadataWriter.writePostScript(postScriptOutput, new PostScript(
+                    metadataWriter.getOrcMetadataVersion(),
+                    footer.length(),
+                    metadata.length(),
+                    compression,
+                    compressionBlockSize));
+            Slice postScript = postScriptOutput.slice();
+            checkState(postScript.length() < 256, "PostScript is too large");
+            writeSlice(postScript);
+            output.write(postScript.length());
+            outputPosition++;
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    private void writeHeaderIfNecessary()
+            throws IOException
+    {
+        if (outputPosition == 0) {
+            writeSlice(MAGIC);
+        }
+    }
+
+    private void writeSlice(Slice slice)
+            throws IOException
+    {
+        slice.getBytes(0, output, slice.length());
+        outputPosition += slice.length();
+    }
+}
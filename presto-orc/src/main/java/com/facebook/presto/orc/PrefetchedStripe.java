@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.metadata.StripeFooter;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The footer and the small streams of a stripe, read before the stripe is needed.
+ * Streams too large to be read in a single request are not included, and are
+ * streamed from the data source when the stripe is read.
+ */
+class PrefetchedStripe
+{
+    private final long stripeOffset;
+    private final StripeFooter stripeFooter;
+    private final Map<StreamId, Slice> streams;
+    private final long retainedSizeInBytes;
+
+    public PrefetchedStripe(long stripeOffset, StripeFooter stripeFooter, Map<StreamId, Slice> streams, long retainedSizeInBytes)
+    {
+        this.stripeOffset = stripeOffset;
+        this.stripeFooter = requireNonNull(stripeFooter, "stripeFooter is null");
+        this.streams = ImmutableMap.copyOf(requireNonNull(streams, "streams is null"));
+        this.retainedSizeInBytes = retainedSizeInBytes;
+    }
+
+    public long getStripeOffset()
+    {
+        return stripeOffset;
+    }
+
+    public StripeFooter getStripeFooter()
+    {
+        return stripeFooter;
+    }
+
+    public Map<StreamId, Slice> getStreams()
+    {
+        return streams;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return retainedSizeInBytes;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("stripeOffset", stripeOffset)
+                .add("streams", streams.size())
+                .add("retainedSizeInBytes", retainedSizeInBytes)
+                .toString();
+    }
+}
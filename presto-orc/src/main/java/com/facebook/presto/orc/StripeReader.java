@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.orc;
 
+import com.facebook.presto.orc.OrcMetadataCache.FileCache;
 import com.facebook.presto.orc.checkpoint.InvalidCheckpointException;
 import com.facebook.presto.orc.checkpoint.StreamCheckpoint;
 import com.facebook.presto.orc.memory.AbstractAggregatedMemoryContext;
@@ -21,6 +22,7 @@ import com.facebook.presto.orc.metadata.ColumnEncoding;
 import com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind;
 import com.facebook.presto.orc.metadata.ColumnStatistics;
 import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.HiveBloomFilter;
 import com.facebook.presto.orc.metadata.MetadataReader;
 import com.facebook.presto.orc.metadata.OrcType;
 import com.facebook.presto.orc.metadata.OrcType.OrcTypeKind;
@@ -42,21 +44,28 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Ints;
 import io.airlift.slice.FixedLengthSliceInput;
+import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 
+import static com.facebook.presto.orc.OrcDataSourceUtils.getDiskRangeSlice;
+import static com.facebook.presto.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
 import static com.facebook.presto.orc.checkpoint.Checkpoints.getDictionaryStreamCheckpoint;
 import static com.facebook.presto.orc.checkpoint.Checkpoints.getStreamCheckpoints;
 import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY;
 import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY_V2;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.BLOOM_FILTER;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.DICTIONARY_COUNT;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.DICTIONARY_DATA;
 import static com.facebook.presto.orc.metadata.Stream.StreamKind.LENGTH;
@@ -74,7 +83,12 @@ public class StripeReader
     private final Set<Integer> includedOrcColumns;
     private final int rowsInRowGroup;
     private final OrcPredicate predicate;
+    private final Set<Integer> bloomFilterColumns;
     private final MetadataReader metadataReader;
+    private final Optional<FileCache> fileCache;
+
+    private long skippedRowGroups;
+    private long skippedRows;
 
     public StripeReader(OrcDataSource orcDataSource,
             CompressionKind compressionKind,
@@ -83,7 +97,8 @@ public class StripeReader
             Set<Integer> includedColumns,
             int rowsInRowGroup,
             OrcPredicate predicate,
-            MetadataReader metadataReader)
+            MetadataReader metadataReader,
+            Optional<FileCache> fileCache)
     {
         this.orcDataSource = requireNonNull(orcDataSource, "orcDataSource is null");
         this.compressionKind = requireNonNull(compressionKind, "compressionKind is null");
@@ -92,21 +107,56 @@ public class StripeReader
         this.includedOrcColumns = getIncludedOrcColumns(types, requireNonNull(includedColumns, "includedColumns is null"));
         this.rowsInRowGroup = rowsInRowGroup;
         this.predicate = requireNonNull(predicate, "predicate is null");
+        this.bloomFilterColumns = ImmutableSet.copyOf(predicate.getBloomFilterColumns());
         this.metadataReader = requireNonNull(metadataReader, "metadataReader is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+    }
+
+    /**
+     * Returns the number of row groups skipped by the predicate in the stripes read so far.
+     */
+    public long getSkippedRowGroups()
+    {
+        return skippedRowGroups;
+    }
+
+    /**
+     * Returns the number of rows in the row groups skipped by the predicate in the stripes read so far.
+     */
+    public long getSkippedRows()
+    {
+        return skippedRows;
     }
 
     public Stripe readStripe(StripeInformation stripe, AggregatedMemoryContext systemMemoryUsage)
             throws IOException
     {
+        return readStripe(stripe, Optional.empty(), systemMemoryUsage);
+    }
+
+    /**
+     * Reads the stripe, using the footer and streams of the prefetched stripe when present.
+     */
+    public Stripe readStripe(StripeInformation stripe, Optional<PrefetchedStripe> prefetchedStripe, AggregatedMemoryContext systemMemoryUsage)
+            throws IOException
+    {
+        checkArgument(!prefetchedStripe.isPresent() || prefetchedStripe.get().getStripeOffset() == stripe.getOffset(), "prefetched stripe is for a different stripe");
+
         // read the stripe footer
-        StripeFooter stripeFooter = readStripeFooter(stripe, systemMemoryUsage);
+        StripeFooter stripeFooter;
+        if (prefetchedStripe.isPresent()) {
+            stripeFooter = prefetchedStripe.get().getStripeFooter();
+        }
+        else {
+            stripeFooter = readStripeFooter(stripe, systemMemoryUsage);
+        }
         List<ColumnEncoding> columnEncodings = stripeFooter.getColumnEncodings();
 
         // get streams for selected columns
         Map<StreamId, Stream> streams = new HashMap<>();
         boolean hasRowGroupDictionary = false;
         for (Stream stream : stripeFooter.getStreams()) {
-            if (includedOrcColumns.contains(stream.getColumn())) {
+            if (isSelectedStream(stream)) {
                 streams.put(new StreamId(stream), stream);
 
                 ColumnEncodingKind columnEncoding = columnEncodings.get(stream.getColumn()).getColumnEncodingKind();
@@ -118,21 +168,34 @@ public class StripeReader
 
         // handle stripes with more than one row group or a dictionary
         if ((stripe.getNumberOfRows() > rowsInRowGroup) || hasRowGroupDictionary) {
+            // the row indexes do not need to be read if they are all cached
+            Optional<Map<Integer, List<RowGroupIndex>>> cachedColumnIndexes = getCachedColumnIndexes(stripe, streams);
+
             // determine ranges of the stripe to read
             Map<StreamId, DiskRange> diskRanges = getDiskRanges(stripeFooter.getStreams());
             diskRanges = Maps.filterKeys(diskRanges, Predicates.in(streams.keySet()));
+            if (cachedColumnIndexes.isPresent()) {
+                diskRanges = Maps.filterKeys(diskRanges, streamId -> streamId.getStreamKind() != ROW_INDEX && streamId.getStreamKind() != BLOOM_FILTER);
+            }
 
             // read the file regions
-            Map<StreamId, OrcInputStream> streamsData = readDiskRanges(stripe.getOffset(), diskRanges, systemMemoryUsage);
+            Map<StreamId, OrcInputStream> streamsData = readDiskRanges(stripe.getOffset(), diskRanges, prefetchedStripe, systemMemoryUsage);
 
             // read the row index for each column
-            Map<Integer, List<RowGroupIndex>> columnIndexes = readColumnIndexes(streams, streamsData);
+            Map<Integer, List<RowGroupIndex>> columnIndexes;
+            if (cachedColumnIndexes.isPresent()) {
+                columnIndexes = cachedColumnIndexes.get();
+            }
+            else {
+                columnIndexes = readColumnIndexes(stripe, streams, streamsData);
+            }
 
             // select the row groups matching the tuple domain
             Set<Integer> selectedRowGroups = selectRowGroups(stripe, columnIndexes);
 
             // if all row groups are skipped, return null
             if (selectedRowGroups.isEmpty()) {
+                recordSkippedRowGroups(stripe, selectedRowGroups);
                 // set accounted memory usage to zero
                 systemMemoryUsage.close();
                 return null;
@@ -154,6 +217,7 @@ public class StripeReader
                         selectedRowGroups,
                         columnEncodings);
 
+                recordSkippedRowGroups(stripe, selectedRowGroups);
                 return new Stripe(stripe.getNumberOfRows(), columnEncodings, rowGroups, dictionaryStreamSources);
             }
             catch (InvalidCheckpointException e) {
@@ -170,14 +234,14 @@ public class StripeReader
         ImmutableMap.Builder<StreamId, DiskRange> diskRangesBuilder = ImmutableMap.builder();
         for (Entry<StreamId, DiskRange> entry : getDiskRanges(stripeFooter.getStreams()).entrySet()) {
             StreamId streamId = entry.getKey();
-            if (streamId.getStreamKind() != ROW_INDEX && streams.keySet().contains(streamId)) {
+            if (streamId.getStreamKind() != ROW_INDEX && streamId.getStreamKind() != BLOOM_FILTER && streams.keySet().contains(streamId)) {
                 diskRangesBuilder.put(entry);
             }
         }
         ImmutableMap<StreamId, DiskRange> diskRanges = diskRangesBuilder.build();
 
         // read the file regions
-        Map<StreamId, OrcInputStream> streamsData = readDiskRanges(stripe.getOffset(), diskRanges, systemMemoryUsage);
+        Map<StreamId, OrcInputStream> streamsData = readDiskRanges(stripe.getOffset(), diskRanges, prefetchedStripe, systemMemoryUsage);
 
         // value streams
         Map<StreamId, ValueStream<?>> valueStreams = createValueStreams(streams, streamsData, columnEncodings);
@@ -197,21 +261,42 @@ public class StripeReader
 
     public Map<StreamId, OrcInputStream> readDiskRanges(long stripeOffset, Map<StreamId, DiskRange> diskRanges, AbstractAggregatedMemoryContext systemMemoryUsage)
             throws IOException
+    {
+        return readDiskRanges(stripeOffset, diskRanges, Optional.empty(), systemMemoryUsage);
+    }
+
+    private Map<StreamId, OrcInputStream> readDiskRanges(
+            long stripeOffset,
+            Map<StreamId, DiskRange> diskRanges,
+            Optional<PrefetchedStripe> prefetchedStripe,
+            AbstractAggregatedMemoryContext systemMemoryUsage)
+            throws IOException
     {
         //
         // Note: this code does not use the Java 8 stream APIs to avoid any extra object allocation
         //
 
-        // transform ranges to have an absolute offset in file
+        Map<StreamId, Slice> prefetchedStreams = ImmutableMap.of();
+        if (prefetchedStripe.isPresent()) {
+            prefetchedStreams = prefetchedStripe.get().getStreams();
+        }
+
+        // transform ranges to have an absolute offset in file, and skip the prefetched ranges
+        ImmutableMap.Builder<StreamId, FixedLengthSliceInput> streamsDataBuilder = ImmutableMap.builder();
         ImmutableMap.Builder<StreamId, DiskRange> diskRangesBuilder = ImmutableMap.builder();
         for (Entry<StreamId, DiskRange> entry : diskRanges.entrySet()) {
+            Slice prefetchedStream = prefetchedStreams.get(entry.getKey());
+            if (prefetchedStream != null) {
+                streamsDataBuilder.put(entry.getKey(), prefetchedStream.getInput());
+                continue;
+            }
             DiskRange diskRange = entry.getValue();
             diskRangesBuilder.put(entry.getKey(), new DiskRange(stripeOffset + diskRange.getOffset(), diskRange.getLength()));
         }
-        diskRanges = diskRangesBuilder.build();
 
         // read ranges
-        Map<StreamId, FixedLengthSliceInput> streamsData = orcDataSource.readFully(diskRanges);
+        streamsDataBuilder.putAll(orcDataSource.readFully(diskRangesBuilder.build()));
+        Map<StreamId, FixedLengthSliceInput> streamsData = streamsDataBuilder.build();
 
         // transform streams to OrcInputStream
         String sourceName = orcDataSource.toString();
@@ -312,34 +397,175 @@ public class StripeReader
         return new RowGroup(groupId, rowOffset, rowCount, rowGroupStreams);
     }
 
+    /**
+     * Reads the footer and the small streams of the included columns of the stripe, so the
+     * stripe can later be read without waiting for them. Streams larger than {@code maxReadSize}
+     * are left to be streamed when the stripe is read, so prefetching never buffers more of the
+     * stripe than reading it would.
+     * <p>
+     * This method may be called from a different thread than the thread reading the stripes.
+     */
+    public PrefetchedStripe prefetchStripe(StripeInformation stripe, DataSize maxMergeDistance, DataSize maxReadSize)
+            throws IOException
+    {
+        StripeFooter stripeFooter = readStripeFooter(stripe, new AggregatedMemoryContext());
+
+        Map<StreamId, Stream> streams = new HashMap<>();
+        for (Stream stream : stripeFooter.getStreams()) {
+            if (isSelectedStream(stream)) {
+                streams.put(new StreamId(stream), stream);
+            }
+        }
+        boolean skipRowIndexes = getCachedColumnIndexes(stripe, streams).isPresent();
+
+        long maxReadSizeBytes = maxReadSize.toBytes();
+        ImmutableMap.Builder<StreamId, DiskRange> diskRangesBuilder = ImmutableMap.builder();
+        for (Entry<StreamId, DiskRange> entry : getDiskRanges(stripeFooter.getStreams()).entrySet()) {
+            StreamId streamId = entry.getKey();
+            DiskRange diskRange = entry.getValue();
+            if (!streams.containsKey(streamId) || (skipRowIndexes && (streamId.getStreamKind() == ROW_INDEX || streamId.getStreamKind() == BLOOM_FILTER))) {
+                continue;
+            }
+            if (diskRange.getLength() > 0 && diskRange.getLength() <= maxReadSizeBytes) {
+                diskRangesBuilder.put(streamId, new DiskRange(stripe.getOffset() + diskRange.getOffset(), diskRange.getLength()));
+            }
+        }
+        Map<StreamId, DiskRange> diskRanges = diskRangesBuilder.build();
+        if (diskRanges.isEmpty()) {
+            return new PrefetchedStripe(stripe.getOffset(), stripeFooter, ImmutableMap.of(), 0);
+        }
+
+        // read the ranges with as few requests as possible
+        Map<DiskRange, byte[]> buffers = new LinkedHashMap<>();
+        long retainedSize = 0;
+        for (DiskRange mergedRange : mergeAdjacentDiskRanges(diskRanges.values(), maxMergeDistance, maxReadSize)) {
+            byte[] buffer = new byte[mergedRange.getLength()];
+            orcDataSource.readFully(mergedRange.getOffset(), buffer);
+            buffers.put(mergedRange, buffer);
+            retainedSize += buffer.length;
+        }
+
+        ImmutableMap.Builder<StreamId, Slice> prefetchedStreams = ImmutableMap.builder();
+        for (Entry<StreamId, DiskRange> entry : diskRanges.entrySet()) {
+            prefetchedStreams.put(entry.getKey(), getDiskRangeSlice(entry.getValue(), buffers));
+        }
+        return new PrefetchedStripe(stripe.getOffset(), stripeFooter, prefetchedStreams.build(), retainedSize);
+    }
+
     public StripeFooter readStripeFooter(StripeInformation stripe, AbstractAggregatedMemoryContext systemMemoryUsage)
             throws IOException
     {
+        if (fileCache.isPresent()) {
+            Optional<StripeFooter> cachedStripeFooter = fileCache.get().getStripeFooter(stripe.getOffset());
+            if (cachedStripeFooter.isPresent()) {
+                return cachedStripeFooter.get();
+            }
+        }
+
         long offset = stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength();
         int tailLength = Ints.checkedCast(stripe.getFooterLength());
 
         // read the footer
+        StripeFooter stripeFooter;
         byte[] tailBuffer = new byte[tailLength];
         orcDataSource.readFully(offset, tailBuffer);
         try (InputStream inputStream = new OrcInputStream(orcDataSource.toString(), Slices.wrappedBuffer(tailBuffer).getInput(), compressionKind, bufferSize, systemMemoryUsage)) {
-            return metadataReader.readStripeFooter(types, inputStream);
+            stripeFooter = metadataReader.readStripeFooter(types, inputStream);
         }
+
+        if (fileCache.isPresent()) {
+            fileCache.get().putStripeFooter(stripe.getOffset(), stripeFooter, tailLength);
+        }
+        return stripeFooter;
     }
 
-    private Map<Integer, List<RowGroupIndex>> readColumnIndexes(Map<StreamId, Stream> streams, Map<StreamId, OrcInputStream> streamsData)
+    private Map<Integer, List<RowGroupIndex>> readColumnIndexes(StripeInformation stripe, Map<StreamId, Stream> streams, Map<StreamId, OrcInputStream> streamsData)
             throws IOException
     {
+        Map<Integer, List<HiveBloomFilter>> bloomFilterIndexes = new HashMap<>();
+        Map<Integer, Integer> bloomFilterLengths = new HashMap<>();
+        for (Entry<StreamId, Stream> entry : streams.entrySet()) {
+            Stream stream = entry.getValue();
+            if (stream.getStreamKind() == BLOOM_FILTER) {
+                OrcInputStream inputStream = streamsData.get(entry.getKey());
+                bloomFilterIndexes.put(stream.getColumn(), metadataReader.readBloomFilterIndexes(inputStream));
+                bloomFilterLengths.put(stream.getColumn(), stream.getLength());
+            }
+        }
+
         ImmutableMap.Builder<Integer, List<RowGroupIndex>> columnIndexes = ImmutableMap.builder();
         for (Entry<StreamId, Stream> entry : streams.entrySet()) {
             Stream stream = entry.getValue();
             if (stream.getStreamKind() == ROW_INDEX) {
                 OrcInputStream inputStream = streamsData.get(entry.getKey());
-                columnIndexes.put(stream.getColumn(), metadataReader.readRowIndexes(inputStream));
+                List<RowGroupIndex> rowIndexes = metadataReader.readRowIndexes(inputStream);
+                List<HiveBloomFilter> bloomFilters = bloomFilterIndexes.get(stream.getColumn());
+                if (bloomFilters != null && bloomFilters.size() == rowIndexes.size()) {
+                    rowIndexes = withBloomFilters(rowIndexes, bloomFilters);
+                }
+                columnIndexes.put(stream.getColumn(), rowIndexes);
+                if (fileCache.isPresent()) {
+                    long length = stream.getLength() + bloomFilterLengths.getOrDefault(stream.getColumn(), 0);
+                    fileCache.get().putRowIndexes(stripe.getOffset(), stream.getColumn(), rowIndexes, length);
+                }
             }
         }
         return columnIndexes.build();
     }
 
+    private static List<RowGroupIndex> withBloomFilters(List<RowGroupIndex> rowIndexes, List<HiveBloomFilter> bloomFilters)
+    {
+        ImmutableList.Builder<RowGroupIndex> rowIndexesWithBloomFilters = ImmutableList.builder();
+        for (int rowGroup = 0; rowGroup < rowIndexes.size(); rowGroup++) {
+            RowGroupIndex rowIndex = rowIndexes.get(rowGroup);
+            ColumnStatistics statistics = rowIndex.getColumnStatistics().withBloomFilter(bloomFilters.get(rowGroup));
+            rowIndexesWithBloomFilters.add(new RowGroupIndex(rowIndex.getPositions(), statistics));
+        }
+        return rowIndexesWithBloomFilters.build();
+    }
+
+    /**
+     * Returns the row indexes of all included columns if every one of them is cached.
+     */
+    private Optional<Map<Integer, List<RowGroupIndex>>> getCachedColumnIndexes(StripeInformation stripe, Map<StreamId, Stream> streams)
+    {
+        if (!fileCache.isPresent()) {
+            return Optional.empty();
+        }
+
+        ImmutableMap.Builder<Integer, List<RowGroupIndex>> columnIndexes = ImmutableMap.builder();
+        for (Stream stream : streams.values()) {
+            if (stream.getStreamKind() == ROW_INDEX) {
+                Optional<List<RowGroupIndex>> rowIndexes = fileCache.get().getRowIndexes(stripe.getOffset(), stream.getColumn());
+                if (!rowIndexes.isPresent()) {
+                    return Optional.empty();
+                }
+                // row indexes cached without bloom filters cannot be used by a predicate that needs them
+                if (streams.containsKey(new StreamId(stream.getColumn(), BLOOM_FILTER)) && !hasBloomFilters(rowIndexes.get())) {
+                    return Optional.empty();
+                }
+                columnIndexes.put(stream.getColumn(), rowIndexes.get());
+            }
+        }
+        return Optional.of(columnIndexes.build());
+    }
+
+    private static boolean hasBloomFilters(List<RowGroupIndex> rowIndexes)
+    {
+        return !rowIndexes.isEmpty() && rowIndexes.get(0).getColumnStatistics().getBloomFilter() != null;
+    }
+
+    /**
+     * Bloom filter streams are only read for the columns the predicate can test them on.
+     */
+    private boolean isSelectedStream(Stream stream)
+    {
+        if (!includedOrcColumns.contains(stream.getColumn())) {
+            return false;
+        }
+        return stream.getStreamKind() != BLOOM_FILTER || bloomFilterColumns.contains(stream.getColumn());
+    }
+
     private Set<Integer> selectRowGroups(StripeInformation stripe,  Map<Integer, List<RowGroupIndex>> columnIndexes)
             throws IOException
     {
@@ -359,6 +585,18 @@ public class StripeReader
         return selectedRowGroups.build();
     }
 
+    private void recordSkippedRowGroups(StripeInformation stripe, Set<Integer> selectedRowGroups)
+    {
+        int rowsInStripe = Ints.checkedCast(stripe.getNumberOfRows());
+        int groupsInStripe = ceil(rowsInStripe, rowsInRowGroup);
+        long selectedRows = 0;
+        for (int rowGroup : selectedRowGroups) {
+            selectedRows += Math.min(rowsInStripe - (rowGroup * rowsInRowGroup), rowsInRowGroup);
+        }
+        skippedRowGroups += groupsInStripe - selectedRowGroups.size();
+        skippedRows += rowsInStripe - selectedRows;
+    }
+
     private static Map<Integer, ColumnStatistics> getRowGroupStatistics(OrcType rootStructType, Map<Integer, List<RowGroupIndex>> columnIndexes, int rowGroup)
     {
         requireNonNull(rootStructType, "rootStructType is null");
@@ -378,7 +616,7 @@ public class StripeReader
 
     private static boolean isIndexStream(Stream stream)
     {
-        return stream.getStreamKind() == ROW_INDEX || stream.getStreamKind() == DICTIONARY_COUNT;
+        return stream.getStreamKind() == ROW_INDEX || stream.getStreamKind() == DICTIONARY_COUNT || stream.getStreamKind() == BLOOM_FILTER;
     }
 
     private static boolean isDictionary(Stream stream, ColumnEncodingKind columnEncoding)
@@ -15,6 +15,7 @@ package com.facebook.presto.orc;
 
 import com.facebook.presto.orc.metadata.BooleanStatistics;
 import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.HiveBloomFilter;
 import com.facebook.presto.orc.metadata.RangeStatistics;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
@@ -26,10 +27,13 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slice;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
@@ -41,11 +45,19 @@ public class TupleDomainOrcPredicate<C>
 {
     private final TupleDomain<C> effectivePredicate;
     private final List<ColumnReference<C>> columnReferences;
+    private final Set<Integer> bloomFilterColumns;
 
     public TupleDomainOrcPredicate(TupleDomain<C> effectivePredicate, List<ColumnReference<C>> columnReferences)
     {
         this.effectivePredicate = requireNonNull(effectivePredicate, "effectivePredicate is null");
         this.columnReferences = ImmutableList.copyOf(requireNonNull(columnReferences, "columnReferences is null"));
+        this.bloomFilterColumns = getBloomFilterColumns(effectivePredicate, this.columnReferences);
+    }
+
+    @Override
+    public Set<Integer> getBloomFilterColumns()
+    {
+        return bloomFilterColumns;
     }
 
     @Override
@@ -68,7 +80,108 @@ public class TupleDomainOrcPredicate<C>
         }
         TupleDomain<C> stripeDomain = TupleDomain.withColumnDomains(domains.build());
 
-        return effectivePredicate.overlaps(stripeDomain);
+        if (!effectivePredicate.overlaps(stripeDomain)) {
+            return false;
+        }
+
+        // the bloom filters of row groups can exclude the values of equality and IN predicates
+        Optional<Map<C, Domain>> predicateDomains = effectivePredicate.getDomains();
+        if (!predicateDomains.isPresent()) {
+            return true;
+        }
+        for (ColumnReference<C> columnReference : columnReferences) {
+            ColumnStatistics columnStatistics = statisticsByColumnIndex.get(columnReference.getOrdinal());
+            if (columnStatistics == null || columnStatistics.getBloomFilter() == null) {
+                continue;
+            }
+            Domain predicateDomain = predicateDomains.get().get(columnReference.getColumn());
+            if (predicateDomain != null && !checkInBloomFilter(columnStatistics.getBloomFilter(), predicateDomain)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <C> Set<Integer> getBloomFilterColumns(TupleDomain<C> effectivePredicate, List<ColumnReference<C>> columnReferences)
+    {
+        Optional<Map<C, Domain>> predicateDomains = effectivePredicate.getDomains();
+        if (!predicateDomains.isPresent()) {
+            return ImmutableSet.of();
+        }
+
+        ImmutableSet.Builder<Integer> columns = ImmutableSet.builder();
+        for (ColumnReference<C> columnReference : columnReferences) {
+            Domain predicateDomain = predicateDomains.get().get(columnReference.getColumn());
+            if (predicateDomain != null && isBloomFilterSupported(predicateDomain)) {
+                columns.add(columnReference.getOrdinal());
+            }
+        }
+        return columns.build();
+    }
+
+    private static boolean isBloomFilterSupported(Domain domain)
+    {
+        if (domain.isNullAllowed() || !domain.getType().isOrderable()) {
+            return false;
+        }
+        switch (domain.getType().getTypeSignature().getBase()) {
+            case StandardTypes.BIGINT:
+            case StandardTypes.INTEGER:
+            case StandardTypes.SMALLINT:
+            case StandardTypes.TINYINT:
+            case StandardTypes.DATE:
+            case StandardTypes.DOUBLE:
+            case StandardTypes.REAL:
+            case StandardTypes.VARCHAR:
+                break;
+            default:
+                return false;
+        }
+        List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+        return !ranges.isEmpty() && ranges.stream().allMatch(Range::isSingleValue);
+    }
+
+    /**
+     * Returns false if none of the values of the domain can be in the bloom filter.
+     */
+    @VisibleForTesting
+    public static boolean checkInBloomFilter(HiveBloomFilter bloomFilter, Domain domain)
+    {
+        if (domain.isNullAllowed() || !domain.getType().isOrderable()) {
+            return true;
+        }
+
+        List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
+        if (ranges.isEmpty() || !ranges.stream().allMatch(Range::isSingleValue)) {
+            return true;
+        }
+        for (Range range : ranges) {
+            if (checkInBloomFilter(bloomFilter, domain.getType(), range.getSingleValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean checkInBloomFilter(HiveBloomFilter bloomFilter, Type type, Object value)
+    {
+        switch (type.getTypeSignature().getBase()) {
+            case StandardTypes.BIGINT:
+            case StandardTypes.INTEGER:
+            case StandardTypes.SMALLINT:
+            case StandardTypes.TINYINT:
+            case StandardTypes.DATE:
+                return bloomFilter.testLong((long) value);
+            case StandardTypes.DOUBLE:
+                return bloomFilter.testDouble((double) value);
+            case StandardTypes.REAL:
+                return bloomFilter.testDouble((double) value);
+            case StandardTypes.VARCHAR:
+                return bloomFilter.test(((Slice) value).getBytes());
+            default:
+                // the hash of other types does not match the value written by Hive
+                return true;
+        }
     }
 
     @VisibleForTesting
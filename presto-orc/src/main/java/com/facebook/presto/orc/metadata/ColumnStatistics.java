@@ -13,6 +13,10 @@
  */
 package com.facebook.presto.orc.metadata;
 
+import io.airlift.slice.Slice;
+
+import java.util.List;
+
 public class ColumnStatistics
 {
     private final Long numberOfValues;
@@ -21,6 +25,7 @@ public class ColumnStatistics
     private final DoubleStatistics doubleStatistics;
     private final StringStatistics stringStatistics;
     private final DateStatistics dateStatistics;
+    private final HiveBloomFilter bloomFilter;
 
     public ColumnStatistics(Long numberOfValues,
             BooleanStatistics booleanStatistics,
@@ -28,6 +33,17 @@ public class ColumnStatistics
             DoubleStatistics doubleStatistics,
             StringStatistics stringStatistics,
             DateStatistics dateStatistics)
+    {
+        this(numberOfValues, booleanStatistics, integerStatistics, doubleStatistics, stringStatistics, dateStatistics, null);
+    }
+
+    public ColumnStatistics(Long numberOfValues,
+            BooleanStatistics booleanStatistics,
+            IntegerStatistics integerStatistics,
+            DoubleStatistics doubleStatistics,
+            StringStatistics stringStatistics,
+            DateStatistics dateStatistics,
+            HiveBloomFilter bloomFilter)
     {
         this.numberOfValues = numberOfValues;
         this.booleanStatistics = booleanStatistics;
@@ -35,6 +51,7 @@ public class ColumnStatistics
         this.doubleStatistics = doubleStatistics;
         this.stringStatistics = stringStatistics;
         this.dateStatistics = dateStatistics;
+        this.bloomFilter = bloomFilter;
     }
 
     public boolean hasNumberOfValues()
@@ -71,4 +88,93 @@ public class ColumnStatistics
     {
         return stringStatistics;
     }
+
+    public HiveBloomFilter getBloomFilter()
+    {
+        return bloomFilter;
+    }
+
+    public ColumnStatistics withBloomFilter(HiveBloomFilter bloomFilter)
+    {
+        return new ColumnStatistics(numberOfValues, booleanStatistics, integerStatistics, doubleStatistics, stringStatistics, dateStatistics, bloomFilter);
+    }
+
+    /**
+     * Combines the statistics of consecutive parts of a column, such as the row groups of a stripe.
+     * A min or max is only kept if it is known for every part that contains values.
+     * Bloom filters are not combined.
+     */
+    public static ColumnStatistics mergeColumnStatistics(List<ColumnStatistics> statisticsList)
+    {
+        long numberOfValues = 0;
+        long trueValueCount = 0;
+        boolean hasBooleanStatistics = false;
+        Long integerMin = null;
+        Long integerMax = null;
+        boolean integerComplete = true;
+        Double doubleMin = null;
+        Double doubleMax = null;
+        boolean doubleComplete = true;
+        Slice stringMin = null;
+        Slice stringMax = null;
+        boolean stringComplete = true;
+        Integer dateMin = null;
+        Integer dateMax = null;
+        boolean dateComplete = true;
+
+        for (ColumnStatistics statistics : statisticsList) {
+            numberOfValues += statistics.getNumberOfValues();
+            if (statistics.getBooleanStatistics() != null) {
+                hasBooleanStatistics = true;
+                trueValueCount += statistics.getBooleanStatistics().getTrueValueCount();
+            }
+            if (statistics.getNumberOfValues() == 0) {
+                continue;
+            }
+
+            IntegerStatistics integerStatistics = statistics.getIntegerStatistics();
+            if (integerStatistics == null || integerStatistics.getMin() == null || integerStatistics.getMax() == null) {
+                integerComplete = false;
+            }
+            else {
+                integerMin = (integerMin == null) ? integerStatistics.getMin() : Math.min(integerMin, integerStatistics.getMin());
+                integerMax = (integerMax == null) ? integerStatistics.getMax() : Math.max(integerMax, integerStatistics.getMax());
+            }
+
+            DoubleStatistics doubleStatistics = statistics.getDoubleStatistics();
+            if (doubleStatistics == null || doubleStatistics.getMin() == null || doubleStatistics.getMax() == null) {
+                doubleComplete = false;
+            }
+            else {
+                doubleMin = (doubleMin == null) ? doubleStatistics.getMin() : Math.min(doubleMin, doubleStatistics.getMin());
+                doubleMax = (doubleMax == null) ? doubleStatistics.getMax() : Math.max(doubleMax, doubleStatistics.getMax());
+            }
+
+            StringStatistics stringStatistics = statistics.getStringStatistics();
+            if (stringStatistics == null || stringStatistics.getMin() == null || stringStatistics.getMax() == null) {
+                stringComplete = false;
+            }
+            else {
+                stringMin = (stringMin == null || stringStatistics.getMin().compareTo(stringMin) < 0) ? stringStatistics.getMin() : stringMin;
+                stringMax = (stringMax == null || stringStatistics.getMax().compareTo(stringMax) > 0) ? stringStatistics.getMax() : stringMax;
+            }
+
+            DateStatistics dateStatistics = statistics.getDateStatistics();
+            if (dateStatistics == null || dateStatistics.getMin() == null || dateStatistics.getMax() == null) {
+                dateComplete = false;
+            }
+            else {
+                dateMin = (dateMin == null) ? dateStatistics.getMin() : Math.min(dateMin, dateStatistics.getMin());
+                dateMax = (dateMax == null) ? dateStatistics.getMax() : Math.max(dateMax, dateStatistics.getMax());
+            }
+        }
+
+        return new ColumnStatistics(
+                numberOfValues,
+                hasBooleanStatistics ? new BooleanStatistics(trueValueCount) : null,
+                (integerComplete && integerMin != null) ? new IntegerStatistics(integerMin, integerMax) : null,
+                (doubleComplete && doubleMin != null) ? new DoubleStatistics(doubleMin, doubleMax) : null,
+                (stringComplete && stringMin != null) ? new StringStatistics(stringMin, stringMax) : null,
+                (dateComplete && dateMin != null) ? new DateStatistics(dateMin, dateMax) : null);
+    }
 }
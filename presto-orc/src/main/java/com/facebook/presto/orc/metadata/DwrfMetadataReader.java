@@ -150,6 +150,14 @@ public class DwrfMetadataReader
         return new RowGroupIndex(positions.build(), toColumnStatistics(rowIndexEntry.getStatistics(), true));
     }
 
+    @Override
+    public List<HiveBloomFilter> readBloomFilterIndexes(InputStream inputStream)
+            throws IOException
+    {
+        // DWRF files do not contain bloom filters
+        return ImmutableList.of();
+    }
+
     private static List<ColumnStatistics> toColumnStatistics(List<OrcProto.ColumnStatistics> columnStatistics, final boolean isRowGroup)
     {
         if (columnStatistics == null) {
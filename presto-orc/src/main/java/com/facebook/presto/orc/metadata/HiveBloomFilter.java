@@ -0,0 +1,33 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.metadata;
+
+import org.apache.hive.common.util.BloomFilter;
+
+import java.util.List;
+
+/**
+ * Bloom filter of the values of a column in a row group, as written by Hive in
+ * the BLOOM_FILTER stream. Values are hashed the same way as by the Hive writer:
+ * integers, dates and timestamps as longs, floating point numbers as doubles and
+ * strings as their UTF-8 bytes.
+ */
+public class HiveBloomFilter
+        extends BloomFilter
+{
+    public HiveBloomFilter(List<Long> bits, int numBits, int numHashFunctions)
+    {
+        super(bits, numBits, numHashFunctions);
+    }
+}
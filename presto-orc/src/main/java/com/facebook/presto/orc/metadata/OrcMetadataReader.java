@@ -157,6 +157,20 @@ public class OrcMetadataReader
         return new RowGroupIndex(positions.build(), toColumnStatistics(rowIndexEntry.getStatistics(), true));
     }
 
+    @Override
+    public List<HiveBloomFilter> readBloomFilterIndexes(InputStream inputStream)
+            throws IOException
+    {
+        CodedInputStream input = CodedInputStream.newInstance(inputStream);
+        OrcProto.BloomFilterIndex bloomFilterIndex = OrcProto.BloomFilterIndex.parseFrom(input);
+        return ImmutableList.copyOf(Iterables.transform(bloomFilterIndex.getBloomFilterList(), OrcMetadataReader::toBloomFilter));
+    }
+
+    private static HiveBloomFilter toBloomFilter(OrcProto.BloomFilter bloomFilter)
+    {
+        return new HiveBloomFilter(bloomFilter.getBitsetList(), bloomFilter.getBitsetCount() * Long.SIZE, bloomFilter.getNumHashFunctions());
+    }
+
     private static ColumnStatistics toColumnStatistics(OrcProto.ColumnStatistics statistics, boolean isRowGroup)
     {
         return new ColumnStatistics(
@@ -393,6 +407,8 @@ public class OrcMetadataReader
                 return StreamKind.SECONDARY;
             case ROW_INDEX:
                 return StreamKind.ROW_INDEX;
+            case BLOOM_FILTER:
+                return StreamKind.BLOOM_FILTER;
             default:
                 throw new IllegalStateException(streamKind + " stream type not implemented yet");
         }
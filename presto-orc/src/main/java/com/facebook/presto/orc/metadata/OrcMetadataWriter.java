@@ -0,0 +1,327 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.metadata;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind;
+import com.facebook.presto.orc.metadata.OrcType.OrcTypeKind;
+import com.facebook.presto.orc.metadata.Stream.StreamKind;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Longs;
+import io.airlift.slice.Slice;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto;
+import org.apache.hadoop.hive.ql.io.orc.OrcProto.RowIndexEntry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class OrcMetadataWriter
+        implements MetadataWriter
+{
+    private static final List<Integer> ORC_METADATA_VERSION = ImmutableList.of(0, 12);
+    private static final String MAGIC = "ORC";
+
+    @Override
+    public List<Integer> getOrcMetadataVersion()
+    {
+        return ORC_METADATA_VERSION;
+    }
+
+    @Override
+    public void writePostScript(OutputStream output, PostScript postScript)
+            throws IOException
+    {
+        OrcProto.PostScript.newBuilder()
+                .addAllVersion(postScript.getVersion())
+                .setFooterLength(postScript.getFooterLength())
+                .setMetadataLength(postScript.getMetadataLength())
+                .setCompression(toCompression(postScript.getCompression()))
+                .setCompressionBlockSize(postScript.getCompressionBlockSize())
+                .setMagic(MAGIC)
+                .build()
+                .writeTo(output);
+    }
+
+    @Override
+    public void writeMetadata(OutputStream output, Metadata metadata)
+            throws IOException
+    {
+        OrcProto.Metadata.Builder builder = OrcProto.Metadata.newBuilder();
+        for (StripeStatistics stripeStatistics : metadata.getStripeStatsList()) {
+            builder.addStripeStats(OrcProto.StripeStatistics.newBuilder()
+                    .addAllColStats(toColumnStatistics(stripeStatistics.getColumnStatistics())));
+        }
+        builder.build().writeTo(output);
+    }
+
+    @Override
+    public void writeFooter(OutputStream output, Footer footer)
+            throws IOException
+    {
+        OrcProto.Footer.Builder builder = OrcProto.Footer.newBuilder()
+                .setHeaderLength(MAGIC.length())
+                .setNumberOfRows(footer.getNumberOfRows())
+                .setRowIndexStride(footer.getRowsInRowGroup())
+                .addAllStatistics(toColumnStatistics(footer.getFileStats()));
+        for (StripeInformation stripe : footer.getStripes()) {
+            builder.addStripes(toStripeInformation(stripe));
+        }
+        for (OrcType type : footer.getTypes()) {
+            builder.addTypes(toType(type));
+        }
+        builder.build().writeTo(output);
+    }
+
+    private static OrcProto.StripeInformation toStripeInformation(StripeInformation stripe)
+    {
+        return OrcProto.StripeInformation.newBuilder()
+                .setNumberOfRows(stripe.getNumberOfRows())
+                .setOffset(stripe.getOffset())
+                .setIndexLength(stripe.getIndexLength())
+                .setDataLength(stripe.getDataLength())
+                .setFooterLength(stripe.getFooterLength())
+                .build();
+    }
+
+    private static OrcProto.Type toType(OrcType type)
+    {
+        OrcProto.Type.Builder builder = OrcProto.Type.newBuilder()
+                .setKind(toTypeKind(type.getOrcTypeKind()))
+                .addAllFieldNames(type.getFieldNames());
+        for (int field = 0; field < type.getFieldCount(); field++) {
+            builder.addSubtypes(type.getFieldTypeIndex(field));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void writeStripeFooter(OutputStream output, StripeFooter footer)
+            throws IOException
+    {
+        OrcProto.StripeFooter.Builder builder = OrcProto.StripeFooter.newBuilder();
+        for (Stream stream : footer.getStreams()) {
+            builder.addStreams(OrcProto.Stream.newBuilder()
+                    .setColumn(stream.getColumn())
+                    .setKind(toStreamKind(stream.getStreamKind()))
+                    .setLength(stream.getLength()));
+        }
+        for (ColumnEncoding columnEncoding : footer.getColumnEncodings()) {
+            builder.addColumns(OrcProto.ColumnEncoding.newBuilder()
+                    .setKind(toColumnEncodingKind(columnEncoding.getColumnEncodingKind()))
+                    .setDictionarySize(columnEncoding.getDictionarySize()));
+        }
+        builder.build().writeTo(output);
+    }
+
+    @Override
+    public void writeRowIndexes(OutputStream output, List<RowGroupIndex> rowGroupIndexes)
+            throws IOException
+    {
+        OrcProto.RowIndex.Builder builder = OrcProto.RowIndex.newBuilder();
+        for (RowGroupIndex rowGroupIndex : rowGroupIndexes) {
+            ImmutableList.Builder<Long> positions = ImmutableList.builder();
+            for (int position : rowGroupIndex.getPositions()) {
+                positions.add((long) position);
+            }
+            builder.addEntry(RowIndexEntry.newBuilder()
+                    .addAllPositions(positions.build())
+                    .setStatistics(toColumnStatistics(rowGroupIndex.getColumnStatistics())));
+        }
+        builder.build().writeTo(output);
+    }
+
+    private static List<OrcProto.ColumnStatistics> toColumnStatistics(List<ColumnStatistics> columnStatistics)
+    {
+        ImmutableList.Builder<OrcProto.ColumnStatistics> builder = ImmutableList.builder();
+        for (ColumnStatistics statistics : columnStatistics) {
+            builder.add(toColumnStatistics(statistics));
+        }
+        return builder.build();
+    }
+
+    private static OrcProto.ColumnStatistics toColumnStatistics(ColumnStatistics statistics)
+    {
+        OrcProto.ColumnStatistics.Builder builder = OrcProto.ColumnStatistics.newBuilder();
+        if (statistics.hasNumberOfValues()) {
+            builder.setNumberOfValues(statistics.getNumberOfValues());
+        }
+
+        if (statistics.getBooleanStatistics() != null) {
+            builder.setBucketStatistics(OrcProto.BucketStatistics.newBuilder()
+                    .addAllCount(Longs.asList(statistics.getBooleanStatistics().getTrueValueCount())));
+        }
+
+        IntegerStatistics integerStatistics = statistics.getIntegerStatistics();
+        if (integerStatistics != null) {
+            OrcProto.IntegerStatistics.Builder integerBuilder = OrcProto.IntegerStatistics.newBuilder();
+            if (integerStatistics.getMin() != null) {
+                integerBuilder.setMinimum(integerStatistics.getMin());
+            }
+            if (integerStatistics.getMax() != null) {
+                integerBuilder.setMaximum(integerStatistics.getMax());
+            }
+            builder.setIntStatistics(integerBuilder);
+        }
+
+        DoubleStatistics doubleStatistics = statistics.getDoubleStatistics();
+        if (doubleStatistics != null) {
+            OrcProto.DoubleStatistics.Builder doubleBuilder = OrcProto.DoubleStatistics.newBuilder();
+            if (doubleStatistics.getMin() != null) {
+                doubleBuilder.setMinimum(doubleStatistics.getMin());
+            }
+            if (doubleStatistics.getMax() != null) {
+                doubleBuilder.setMaximum(doubleStatistics.getMax());
+            }
+            builder.setDoubleStatistics(doubleBuilder);
+        }
+
+        StringStatistics stringStatistics = statistics.getStringStatistics();
+        if (stringStatistics != null) {
+            // the statistics are stored as strings, so values that are not valid UTF-8 can not be recorded
+            String minimum = toUtf8String(stringStatistics.getMin());
+            String maximum = toUtf8String(stringStatistics.getMax());
+            if (minimum != null && maximum != null) {
+                builder.setStringStatistics(OrcProto.StringStatistics.newBuilder()
+                        .setMinimum(minimum)
+                        .setMaximum(maximum));
+            }
+        }
+
+        DateStatistics dateStatistics = statistics.getDateStatistics();
+        if (dateStatistics != null) {
+            OrcProto.DateStatistics.Builder dateBuilder = OrcProto.DateStatistics.newBuilder();
+            if (dateStatistics.getMin() != null) {
+                dateBuilder.setMinimum(dateStatistics.getMin());
+            }
+            if (dateStatistics.getMax() != null) {
+                dateBuilder.setMaximum(dateStatistics.getMax());
+            }
+            builder.setDateStatistics(dateBuilder);
+        }
+
+        return builder.build();
+    }
+
+    private static String toUtf8String(Slice value)
+    {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes();
+        String string = new String(bytes, UTF_8);
+        if (!Arrays.equals(string.getBytes(UTF_8), bytes)) {
+            return null;
+        }
+        return string;
+    }
+
+    private static OrcProto.CompressionKind toCompression(CompressionKind compression)
+    {
+        switch (compression) {
+            case UNCOMPRESSED:
+                return OrcProto.CompressionKind.NONE;
+            case ZLIB:
+                return OrcProto.CompressionKind.ZLIB;
+            case SNAPPY:
+                return OrcProto.CompressionKind.SNAPPY;
+            default:
+                throw new IllegalArgumentException("Unsupported compression: " + compression);
+        }
+    }
+
+    private static OrcProto.Type.Kind toTypeKind(OrcTypeKind typeKind)
+    {
+        switch (typeKind) {
+            case BOOLEAN:
+                return OrcProto.Type.Kind.BOOLEAN;
+            case BYTE:
+                return OrcProto.Type.Kind.BYTE;
+            case SHORT:
+                return OrcProto.Type.Kind.SHORT;
+            case INT:
+                return OrcProto.Type.Kind.INT;
+            case LONG:
+                return OrcProto.Type.Kind.LONG;
+            case FLOAT:
+                return OrcProto.Type.Kind.FLOAT;
+            case DOUBLE:
+                return OrcProto.Type.Kind.DOUBLE;
+            case STRING:
+                return OrcProto.Type.Kind.STRING;
+            case BINARY:
+                return OrcProto.Type.Kind.BINARY;
+            case TIMESTAMP:
+                return OrcProto.Type.Kind.TIMESTAMP;
+            case LIST:
+                return OrcProto.Type.Kind.LIST;
+            case MAP:
+                return OrcProto.Type.Kind.MAP;
+            case STRUCT:
+                return OrcProto.Type.Kind.STRUCT;
+            case UNION:
+                return OrcProto.Type.Kind.UNION;
+            case DECIMAL:
+                return OrcProto.Type.Kind.DECIMAL;
+            case DATE:
+                return OrcProto.Type.Kind.DATE;
+            case VARCHAR:
+                return OrcProto.Type.Kind.VARCHAR;
+            case CHAR:
+                return OrcProto.Type.Kind.CHAR;
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + typeKind);
+        }
+    }
+
+    private static OrcProto.Stream.Kind toStreamKind(StreamKind streamKind)
+    {
+        switch (streamKind) {
+            case PRESENT:
+                return OrcProto.Stream.Kind.PRESENT;
+            case DATA:
+                return OrcProto.Stream.Kind.DATA;
+            case LENGTH:
+                return OrcProto.Stream.Kind.LENGTH;
+            case DICTIONARY_DATA:
+                return OrcProto.Stream.Kind.DICTIONARY_DATA;
+            case DICTIONARY_COUNT:
+                return OrcProto.Stream.Kind.DICTIONARY_COUNT;
+            case SECONDARY:
+                return OrcProto.Stream.Kind.SECONDARY;
+            case ROW_INDEX:
+                return OrcProto.Stream.Kind.ROW_INDEX;
+            default:
+                throw new IllegalArgumentException("Unsupported stream kind: " + streamKind);
+        }
+    }
+
+    private static OrcProto.ColumnEncoding.Kind toColumnEncodingKind(ColumnEncodingKind columnEncodingKind)
+    {
+        switch (columnEncodingKind) {
+            case DIRECT:
+                return OrcProto.ColumnEncoding.Kind.DIRECT;
+            case DICTIONARY:
+                return OrcProto.ColumnEncoding.Kind.DICTIONARY;
+            case DIRECT_V2:
+                return OrcProto.ColumnEncoding.Kind.DIRECT_V2;
+            case DICTIONARY_V2:
+                return OrcProto.ColumnEncoding.Kind.DICTIONARY_V2;
+            default:
+                throw new IllegalArgumentException("Unsupported column encoding: " + columnEncodingKind);
+        }
+    }
+}
@@ -78,19 +78,7 @@ public class DoubleStreamReader
             openRowGroup();
         }
 
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the data reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException("Value is not null but data stream is not present");
-                }
-                dataStream.skip(readOffset);
-            }
-        }
+        skipValues(readOffset);
 
         BlockBuilder builder = type.createBlockBuilder(new BlockBuilderStatus(), nextBatchSize);
         if (presentStream == null) {
@@ -123,6 +111,67 @@ public class DoubleStreamReader
         return builder.build();
     }
 
+    @Override
+    public Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        skipValues(readOffset);
+
+        BlockBuilder builder = type.createBlockBuilder(new BlockBuilderStatus(), nextBatchSize);
+        int position = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int selectedPosition = positions[i];
+            skipValues(selectedPosition - position);
+            for (; position < selectedPosition; position++) {
+                builder.appendNull();
+            }
+
+            if (presentStream != null && !presentStream.nextBit()) {
+                builder.appendNull();
+            }
+            else {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException("Value is not null but data stream is not present");
+                }
+                type.writeDouble(builder, dataStream.next());
+            }
+            position++;
+        }
+        skipValues(nextBatchSize - position);
+        for (; position < nextBatchSize; position++) {
+            builder.appendNull();
+        }
+
+        readOffset = 0;
+        nextBatchSize = 0;
+
+        return builder.build();
+    }
+
+    private void skipValues(int items)
+            throws IOException
+    {
+        if (items == 0) {
+            return;
+        }
+        int dataItems = items;
+        if (presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the data reader
+            dataItems = presentStream.countBitsSet(items);
+        }
+        if (dataItems > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException("Value is not null but data stream is not present");
+            }
+            dataStream.skip(dataItems);
+        }
+    }
+
     private void openRowGroup()
             throws IOException
     {
@@ -92,7 +92,7 @@ public class FloatStreamReader
             }
         }
 
-        // we could add a float vector but Presto currently doesn't support floats
+        // a REAL block keeps the 4-byte float width, a DOUBLE block widens the values
         BlockBuilder builder = type.createBlockBuilder(new BlockBuilderStatus(), nextBatchSize);
         if (presentStream == null) {
             if (dataStream == null) {
@@ -26,6 +26,17 @@ public interface StreamReader
     Block readBlock(Type type)
             throws IOException;
 
+    /**
+     * Reads the next batch decoding only the first {@code positionCount} entries of
+     * {@code positions}, which are sorted in increasing order. The other positions may
+     * be returned as null. Readers that can not skip values decode the whole batch.
+     */
+    default Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        return readBlock(type);
+    }
+
     void prepareNextRead(int batchSize);
 
     void startStripe(StreamSources dictionaryStreamSources, List<ColumnEncoding> encoding)
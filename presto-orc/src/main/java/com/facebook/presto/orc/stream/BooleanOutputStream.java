@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.Stream.StreamKind;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Bit packed boolean stream, the write side of {@link BooleanStream}. Values are
+ * packed most significant bit first into a run length encoded byte stream.
+ */
+public class BooleanOutputStream
+        implements ValueOutputStream
+{
+    private final ByteOutputStream byteOutputStream;
+    private final List<List<Integer>> checkpoints = new ArrayList<>();
+
+    private int data;
+    private int bitsInData;
+    private boolean closed;
+
+    public BooleanOutputStream(CompressionKind compression, int bufferSize, StreamKind streamKind)
+    {
+        this.byteOutputStream = new ByteOutputStream(compression, bufferSize, streamKind);
+    }
+
+    public void writeBoolean(boolean value)
+    {
+        checkState(!closed, "stream is closed");
+
+        data <<= 1;
+        if (value) {
+            data |= 1;
+        }
+        bitsInData++;
+
+        if (bitsInData == Byte.SIZE) {
+            flushData();
+        }
+    }
+
+    public void writeBooleans(int count, boolean value)
+    {
+        for (int i = 0; i < count; i++) {
+            writeBoolean(value);
+        }
+    }
+
+    private void flushData()
+    {
+        if (bitsInData == 0) {
+            return;
+        }
+        // pad the last byte with zeros
+        byteOutputStream.writeByte((byte) (data << (Byte.SIZE - bitsInData)));
+        data = 0;
+        bitsInData = 0;
+    }
+
+    @Override
+    public void recordCheckpoint()
+    {
+        checkState(!closed, "stream is closed");
+        checkpoints.add(ImmutableList.<Integer>builder()
+                .addAll(byteOutputStream.getCheckpoint())
+                .add(bitsInData)
+                .build());
+    }
+
+    @Override
+    public List<List<Integer>> getCheckpoints()
+    {
+        checkState(closed, "stream must be closed");
+        return ImmutableList.copyOf(checkpoints);
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        flushData();
+        byteOutputStream.close();
+    }
+
+    @Override
+    public StreamDataOutput getStreamDataOutput(int column)
+    {
+        return byteOutputStream.getStreamDataOutput(column);
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return byteOutputStream.getBufferedBytes();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        return byteOutputStream.getRetainedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        data = 0;
+        bitsInData = 0;
+        checkpoints.clear();
+        byteOutputStream.reset();
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import org.iq80.snappy.Snappy;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static com.facebook.presto.orc.metadata.CompressionKind.SNAPPY;
+import static com.facebook.presto.orc.metadata.CompressionKind.UNCOMPRESSED;
+import static com.facebook.presto.orc.metadata.CompressionKind.ZLIB;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Buffers the bytes of a single ORC stream and compresses them into chunks of at most
+ * the compression block size. This is the write side of {@link OrcInputStream}.
+ */
+public class OrcOutputBuffer
+        extends OutputStream
+{
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final CompressionKind compression;
+    private final int maxBufferSize;
+    private final DynamicSliceOutput compressedOutput;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int bufferPosition;
+    private byte[] compressionBuffer = new byte[0];
+
+    public OrcOutputBuffer(CompressionKind compression, int maxBufferSize)
+    {
+        this.compression = requireNonNull(compression, "compression is null");
+        checkArgument(maxBufferSize > 0, "maxBufferSize must be positive");
+        checkArgument(maxBufferSize < (1 << 23), "maxBufferSize must be less than 8MB");
+        this.maxBufferSize = maxBufferSize;
+        this.compressedOutput = new DynamicSliceOutput(INITIAL_BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the position of the next byte written to this buffer, in the format
+     * expected by {@link OrcInputStream#seekToCheckpoint(long)}.
+     */
+    public List<Integer> getCheckpoint()
+    {
+        if (compression == UNCOMPRESSED) {
+            return ImmutableList.of(compressedOutput.size() + bufferPosition);
+        }
+        return ImmutableList.of(compressedOutput.size(), bufferPosition);
+    }
+
+    @Override
+    public void write(int value)
+    {
+        ensureWritable();
+        buffer[bufferPosition++] = (byte) value;
+        flushIfFull();
+    }
+
+    @Override
+    public void write(byte[] source, int sourceIndex, int length)
+    {
+        while (length > 0) {
+            ensureWritable();
+            int chunkLength = Math.min(length, buffer.length - bufferPosition);
+            System.arraycopy(source, sourceIndex, buffer, bufferPosition, chunkLength);
+            bufferPosition += chunkLength;
+            sourceIndex += chunkLength;
+            length -= chunkLength;
+            flushIfFull();
+        }
+    }
+
+    public void writeSlice(Slice source, int sourceIndex, int length)
+    {
+        while (length > 0) {
+            ensureWritable();
+            int chunkLength = Math.min(length, buffer.length - bufferPosition);
+            source.getBytes(sourceIndex, buffer, bufferPosition, chunkLength);
+            bufferPosition += chunkLength;
+            sourceIndex += chunkLength;
+            length -= chunkLength;
+            flushIfFull();
+        }
+    }
+
+    public void writeDouble(double value)
+    {
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < Long.BYTES; i++) {
+            write((int) (bits >>> (i * Byte.SIZE)));
+        }
+    }
+
+    /**
+     * Returns the compressed contents of the stream. No data can be written after this call until the buffer is reset.
+     */
+    public Slice getCompressedData()
+    {
+        flushBuffer();
+        return compressedOutput.slice();
+    }
+
+    public long getBufferedBytes()
+    {
+        return compressedOutput.size() + bufferPosition;
+    }
+
+    public long getRetainedBytes()
+    {
+        return compressedOutput.getRetainedSize() + sizeOf(buffer) + sizeOf(compressionBuffer);
+    }
+
+    public void reset()
+    {
+        compressedOutput.reset();
+        bufferPosition = 0;
+    }
+
+    private void ensureWritable()
+    {
+        if (bufferPosition < buffer.length) {
+            return;
+        }
+        buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, maxBufferSize));
+    }
+
+    private void flushIfFull()
+    {
+        if (bufferPosition == maxBufferSize) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer()
+    {
+        if (bufferPosition == 0) {
+            return;
+        }
+
+        if (compression == UNCOMPRESSED) {
+            compressedOutput.writeBytes(buffer, 0, bufferPosition);
+        }
+        else {
+            int compressedSize = compress();
+            if (compressedSize > 0 && compressedSize < bufferPosition) {
+                writeChunkHeader(compressedSize, false);
+                compressedOutput.writeBytes(compressionBuffer, 0, compressedSize);
+            }
+            else {
+                // compression did not help, so store the chunk as is
+                writeChunkHeader(bufferPosition, true);
+                compressedOutput.writeBytes(buffer, 0, bufferPosition);
+            }
+        }
+        bufferPosition = 0;
+    }
+
+    private void writeChunkHeader(int length, boolean isOriginal)
+    {
+        int header = (length << 1) | (isOriginal ? 1 : 0);
+        compressedOutput.writeByte(header);
+        compressedOutput.writeByte(header >>> 8);
+        compressedOutput.writeByte(header >>> 16);
+    }
+
+    // returns the compressed size, or -1 if the data does not compress into a smaller chunk
+    private int compress()
+    {
+        if (compression == SNAPPY) {
+            int maxLength = Snappy.maxCompressedLength(bufferPosition);
+            if (compressionBuffer.length < maxLength) {
+                compressionBuffer = new byte[maxLength];
+            }
+            return Snappy.compress(buffer, 0, bufferPosition, compressionBuffer, 0);
+        }
+
+        if (compression == ZLIB) {
+            if (compressionBuffer.length < bufferPosition) {
+                compressionBuffer = new byte[bufferPosition];
+            }
+            // ORC uses raw deflate without the zlib header
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                deflater.setInput(buffer, 0, bufferPosition);
+                deflater.finish();
+                int compressedSize = 0;
+                while (!deflater.finished() && compressedSize < bufferPosition) {
+                    compressedSize += deflater.deflate(compressionBuffer, compressedSize, bufferPosition - compressedSize);
+                }
+                if (!deflater.finished()) {
+                    return -1;
+                }
+                return compressedSize;
+            }
+            finally {
+                deflater.end();
+            }
+        }
+
+        throw new IllegalStateException("Unsupported compression: " + compression);
+    }
+}
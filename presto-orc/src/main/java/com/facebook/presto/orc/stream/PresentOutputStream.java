@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.CompressionKind;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.PRESENT;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Present stream of a column, which is only written if the stripe contains a null value.
+ */
+public class PresentOutputStream
+{
+    private final BooleanOutputStream booleanOutputStream;
+
+    private boolean hasNull;
+    private boolean closed;
+
+    public PresentOutputStream(CompressionKind compression, int bufferSize)
+    {
+        this.booleanOutputStream = new BooleanOutputStream(compression, bufferSize, PRESENT);
+    }
+
+    public void writeBoolean(boolean value)
+    {
+        if (!value) {
+            hasNull = true;
+        }
+        booleanOutputStream.writeBoolean(value);
+    }
+
+    public void recordCheckpoint()
+    {
+        booleanOutputStream.recordCheckpoint();
+    }
+
+    public void close()
+    {
+        closed = true;
+        booleanOutputStream.close();
+    }
+
+    public Optional<List<List<Integer>>> getCheckpoints()
+    {
+        checkState(closed, "stream must be closed");
+        if (!hasNull) {
+            return Optional.empty();
+        }
+        return Optional.of(booleanOutputStream.getCheckpoints());
+    }
+
+    public Optional<StreamDataOutput> getStreamDataOutput(int column)
+    {
+        checkState(closed, "stream must be closed");
+        if (!hasNull) {
+            return Optional.empty();
+        }
+        return Optional.of(booleanOutputStream.getStreamDataOutput(column));
+    }
+
+    public long getBufferedBytes()
+    {
+        return booleanOutputStream.getBufferedBytes();
+    }
+
+    public long getRetainedBytes()
+    {
+        return booleanOutputStream.getRetainedBytes();
+    }
+
+    public void reset()
+    {
+        hasNull = false;
+        closed = false;
+        booleanOutputStream.reset();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import com.facebook.presto.orc.metadata.Stream;
+import io.airlift.slice.Slice;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+public class StreamDataOutput
+{
+    private final Stream stream;
+    private final Slice data;
+
+    public StreamDataOutput(Stream stream, Slice data)
+    {
+        this.stream = requireNonNull(stream, "stream is null");
+        this.data = requireNonNull(data, "data is null");
+        checkArgument(stream.getLength() == data.length(), "stream length does not match data length");
+    }
+
+    public Stream getStream()
+    {
+        return stream;
+    }
+
+    public Slice getData()
+    {
+        return data;
+    }
+
+    public int getSizeInBytes()
+    {
+        return data.length();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("stream", stream)
+                .add("size", data.length())
+                .toString();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.stream;
+
+import java.util.List;
+
+public interface ValueOutputStream
+{
+    /**
+     * Records the current position of the stream, so a reader can start reading at the next value.
+     */
+    void recordCheckpoint();
+
+    /**
+     * Returns the positions of all recorded checkpoints, in the format expected by the matching {@link ValueStream}.
+     */
+    List<List<Integer>> getCheckpoints();
+
+    /**
+     * Writes all buffered values. No values can be written after this call until the stream is reset.
+     */
+    void close();
+
+    StreamDataOutput getStreamDataOutput(int column);
+
+    long getBufferedBytes();
+
+    long getRetainedBytes();
+
+    void reset();
+}
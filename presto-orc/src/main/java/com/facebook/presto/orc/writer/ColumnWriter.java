@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.MetadataWriter;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.block.Block;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the values of a single column. The writer is driven by the {@link com.facebook.presto.orc.OrcWriter}:
+ * every row group starts with {@link #beginRowGroup()} and ends with {@link #finishRowGroup()}, and
+ * {@link #close()} ends the stripe. After the streams of a stripe have been written, the writer is
+ * {@link #reset()} for the next stripe.
+ */
+public interface ColumnWriter
+{
+    void beginRowGroup();
+
+    void writeBlock(Block block);
+
+    void finishRowGroup();
+
+    void close();
+
+    ColumnEncoding getColumnEncoding();
+
+    ColumnStatistics getStripeStatistics();
+
+    List<StreamDataOutput> getIndexStreams(MetadataWriter metadataWriter)
+            throws IOException;
+
+    List<StreamDataOutput> getDataStreams();
+
+    long getBufferedBytes();
+
+    long getRetainedBytes();
+
+    void reset();
+}
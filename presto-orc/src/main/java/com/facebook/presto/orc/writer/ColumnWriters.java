@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.MetadataWriter;
+import com.facebook.presto.orc.metadata.OrcType.OrcTypeKind;
+import com.facebook.presto.orc.metadata.RowGroupIndex;
+import com.facebook.presto.orc.metadata.Stream;
+import com.facebook.presto.orc.stream.OrcOutputBuffer;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarcharType;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.joda.time.DateTimeZone;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.ROW_INDEX;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.google.common.base.Preconditions.checkArgument;
+
+public final class ColumnWriters
+{
+    private ColumnWriters()
+    {
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        return toOrcTypeKind(type).isPresent();
+    }
+
+    public static Optional<OrcTypeKind> toOrcTypeKind(Type type)
+    {
+        if (BOOLEAN.equals(type)) {
+            return Optional.of(OrcTypeKind.BOOLEAN);
+        }
+        if (BIGINT.equals(type)) {
+            return Optional.of(OrcTypeKind.LONG);
+        }
+        if (DOUBLE.equals(type)) {
+            return Optional.of(OrcTypeKind.DOUBLE);
+        }
+        if (type instanceof VarcharType) {
+            return Optional.of(OrcTypeKind.STRING);
+        }
+        if (VARBINARY.equals(type)) {
+            return Optional.of(OrcTypeKind.BINARY);
+        }
+        if (DATE.equals(type)) {
+            return Optional.of(OrcTypeKind.DATE);
+        }
+        if (TIMESTAMP.equals(type)) {
+            return Optional.of(OrcTypeKind.TIMESTAMP);
+        }
+        return Optional.empty();
+    }
+
+    public static ColumnWriter createColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, DateTimeZone hiveStorageTimeZone)
+    {
+        checkArgument(isSupportedType(type), "Unsupported type: %s", type);
+
+        if (BOOLEAN.equals(type)) {
+            return new BooleanColumnWriter(column, type, compression, bufferSize);
+        }
+        if (BIGINT.equals(type) || DATE.equals(type)) {
+            return new LongColumnWriter(column, type, compression, bufferSize);
+        }
+        if (DOUBLE.equals(type)) {
+            return new DoubleColumnWriter(column, type, compression, bufferSize);
+        }
+        if (TIMESTAMP.equals(type)) {
+            return new TimestampColumnWriter(column, type, compression, bufferSize, hiveStorageTimeZone);
+        }
+        // binary values are rarely repeated, so they are always written directly
+        return new SliceColumnWriter(column, type, compression, bufferSize, type instanceof VarcharType);
+    }
+
+    /**
+     * Creates the row index of a column from the checkpoints recorded at the start of every row group.
+     * The present stream is listed first, followed by the streams in the order the reader expects them.
+     */
+    static List<StreamDataOutput> createRowIndexStream(
+            int column,
+            CompressionKind compression,
+            int bufferSize,
+            MetadataWriter metadataWriter,
+            List<ColumnStatistics> rowGroupStatistics,
+            Optional<List<List<Integer>>> presentCheckpoints,
+            List<List<List<Integer>>> streamCheckpoints)
+            throws IOException
+    {
+        ImmutableList.Builder<RowGroupIndex> rowGroupIndexes = ImmutableList.builder();
+        for (int group = 0; group < rowGroupStatistics.size(); group++) {
+            ImmutableList.Builder<Integer> positions = ImmutableList.builder();
+            if (presentCheckpoints.isPresent()) {
+                positions.addAll(presentCheckpoints.get().get(group));
+            }
+            for (List<List<Integer>> checkpoints : streamCheckpoints) {
+                positions.addAll(checkpoints.get(group));
+            }
+            rowGroupIndexes.add(new RowGroupIndex(positions.build(), rowGroupStatistics.get(group)));
+        }
+
+        OrcOutputBuffer buffer = new OrcOutputBuffer(compression, bufferSize);
+        metadataWriter.writeRowIndexes(buffer, rowGroupIndexes.build());
+        Slice data = buffer.getCompressedData();
+        return ImmutableList.of(new StreamDataOutput(new Stream(column, ROW_INDEX, data.length(), false), data));
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.MetadataWriter;
+import com.facebook.presto.orc.metadata.StringStatistics;
+import com.facebook.presto.orc.stream.ByteArrayOutputStream;
+import com.facebook.presto.orc.stream.LongOutputStreamV1;
+import com.facebook.presto.orc.stream.PresentOutputStream;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.orc.stream.ValueOutputStream;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY;
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT;
+import static com.facebook.presto.orc.metadata.ColumnStatistics.mergeColumnStatistics;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.DATA;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.DICTIONARY_DATA;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.LENGTH;
+import static com.facebook.presto.orc.writer.ColumnWriters.createRowIndexStream;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a string or binary column. The distinct values of a stripe are collected in a
+ * dictionary, and when the stripe is closed the column is written with dictionary encoding
+ * if the values repeat often enough, and with direct encoding otherwise.
+ */
+public class SliceColumnWriter
+        implements ColumnWriter
+{
+    // same threshold as the Hive writer (hive.exec.orc.dictionary.key.size.threshold)
+    private static final double DICTIONARY_KEY_SIZE_THRESHOLD = 0.8;
+    private static final int EXPECTED_ENTRY_OVERHEAD = 64;
+
+    private final int column;
+    private final Type type;
+    private final boolean dictionaryEnabled;
+    private final CompressionKind compression;
+    private final int bufferSize;
+    private final PresentOutputStream presentStream;
+
+    private final Object2IntOpenHashMap<Slice> dictionaryIds = new Object2IntOpenHashMap<>();
+    private final List<Slice> dictionary = new ArrayList<>();
+    private long dictionaryBytes;
+    private final IntArrayList valueIds = new IntArrayList();
+    private final IntArrayList rowGroupValueCounts = new IntArrayList();
+
+    private final List<ColumnStatistics> rowGroupColumnStatistics = new ArrayList<>();
+    private int nonNullValueCount;
+    private Slice minimum;
+    private Slice maximum;
+
+    private boolean useDictionary;
+    private List<ValueOutputStream> valueStreams = ImmutableList.of();
+    private List<ValueOutputStream> indexedValueStreams = ImmutableList.of();
+    private boolean closed;
+
+    public SliceColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, boolean dictionaryEnabled)
+    {
+        this.column = column;
+        this.type = requireNonNull(type, "type is null");
+        this.dictionaryEnabled = dictionaryEnabled;
+        this.compression = requireNonNull(compression, "compression is null");
+        this.bufferSize = bufferSize;
+        this.presentStream = new PresentOutputStream(compression, bufferSize);
+        dictionaryIds.defaultReturnValue(-1);
+    }
+
+    @Override
+    public void beginRowGroup()
+    {
+        // checkpoints of the value streams are recorded when the stripe is closed
+        presentStream.recordCheckpoint();
+    }
+
+    @Override
+    public void writeBlock(Block block)
+    {
+        checkState(!closed, "writer is closed");
+
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                presentStream.writeBoolean(false);
+                continue;
+            }
+            presentStream.writeBoolean(true);
+
+            Slice value = type.getSlice(block, position);
+            int id = dictionaryIds.getInt(value);
+            if (id < 0) {
+                // copy the value, so the dictionary does not retain the block
+                value = Slices.copyOf(value);
+                id = dictionary.size();
+                dictionary.add(value);
+                dictionaryIds.put(value, id);
+                dictionaryBytes += value.length();
+            }
+            else {
+                value = dictionary.get(id);
+            }
+            valueIds.add(id);
+
+            nonNullValueCount++;
+            if (minimum == null || value.compareTo(minimum) < 0) {
+                minimum = value;
+            }
+            if (maximum == null || value.compareTo(maximum) > 0) {
+                maximum = value;
+            }
+        }
+    }
+
+    @Override
+    public void finishRowGroup()
+    {
+        checkState(!closed, "writer is closed");
+
+        StringStatistics stringStatistics = null;
+        if (nonNullValueCount > 0) {
+            stringStatistics = new StringStatistics(minimum, maximum);
+        }
+        rowGroupColumnStatistics.add(new ColumnStatistics((long) nonNullValueCount, null, null, null, stringStatistics, null));
+        rowGroupValueCounts.add(nonNullValueCount);
+
+        nonNullValueCount = 0;
+        minimum = null;
+        maximum = null;
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        presentStream.close();
+
+        useDictionary = dictionaryEnabled && !valueIds.isEmpty() && dictionary.size() <= valueIds.size() * DICTIONARY_KEY_SIZE_THRESHOLD;
+        if (useDictionary) {
+            writeDictionaryStreams();
+        }
+        else {
+            writeDirectStreams();
+        }
+    }
+
+    private void writeDirectStreams()
+    {
+        ByteArrayOutputStream dataStream = new ByteArrayOutputStream(compression, bufferSize, DATA);
+        LongOutputStreamV1 lengthStream = new LongOutputStreamV1(compression, bufferSize, false, LENGTH);
+
+        int valueIndex = 0;
+        for (int group = 0; group < rowGroupValueCounts.size(); group++) {
+            dataStream.recordCheckpoint();
+            lengthStream.recordCheckpoint();
+            for (int i = 0; i < rowGroupValueCounts.getInt(group); i++) {
+                Slice value = dictionary.get(valueIds.getInt(valueIndex));
+                valueIndex++;
+                dataStream.writeSlice(value);
+                lengthStream.writeLong(value.length());
+            }
+        }
+        dataStream.close();
+        lengthStream.close();
+
+        valueStreams = ImmutableList.of(dataStream, lengthStream);
+        indexedValueStreams = valueStreams;
+    }
+
+    private void writeDictionaryStreams()
+    {
+        // the dictionary is stored in sorted order
+        int[] sortedIds = new int[dictionary.size()];
+        for (int i = 0; i < sortedIds.length; i++) {
+            sortedIds[i] = i;
+        }
+        IntArrays.quickSort(sortedIds, new AbstractIntComparator()
+        {
+            @Override
+            public int compare(int left, int right)
+            {
+                return dictionary.get(left).compareTo(dictionary.get(right));
+            }
+        });
+        int[] sortedIndexes = new int[sortedIds.length];
+        for (int i = 0; i < sortedIds.length; i++) {
+            sortedIndexes[sortedIds[i]] = i;
+        }
+
+        LongOutputStreamV1 dataStream = new LongOutputStreamV1(compression, bufferSize, false, DATA);
+        int valueIndex = 0;
+        for (int group = 0; group < rowGroupValueCounts.size(); group++) {
+            dataStream.recordCheckpoint();
+            for (int i = 0; i < rowGroupValueCounts.getInt(group); i++) {
+                dataStream.writeLong(sortedIndexes[valueIds.getInt(valueIndex)]);
+                valueIndex++;
+            }
+        }
+        dataStream.close();
+
+        ByteArrayOutputStream dictionaryDataStream = new ByteArrayOutputStream(compression, bufferSize, DICTIONARY_DATA);
+        LongOutputStreamV1 dictionaryLengthStream = new LongOutputStreamV1(compression, bufferSize, false, LENGTH);
+        for (int id : sortedIds) {
+            Slice value = dictionary.get(id);
+            dictionaryDataStream.writeSlice(value);
+            dictionaryLengthStream.writeLong(value.length());
+        }
+        dictionaryDataStream.close();
+        dictionaryLengthStream.close();
+
+        valueStreams = ImmutableList.of(dataStream, dictionaryDataStream, dictionaryLengthStream);
+        indexedValueStreams = ImmutableList.of(dataStream);
+    }
+
+    @Override
+    public ColumnEncoding getColumnEncoding()
+    {
+        checkState(closed, "writer must be closed");
+        if (useDictionary) {
+            return new ColumnEncoding(DICTIONARY, dictionary.size());
+        }
+        return new ColumnEncoding(DIRECT, 0);
+    }
+
+    @Override
+    public ColumnStatistics getStripeStatistics()
+    {
+        checkState(closed, "writer must be closed");
+        return mergeColumnStatistics(rowGroupColumnStatistics);
+    }
+
+    @Override
+    public List<StreamDataOutput> getIndexStreams(MetadataWriter metadataWriter)
+            throws IOException
+    {
+        checkState(closed, "writer must be closed");
+        ImmutableList.Builder<List<List<Integer>>> streamCheckpoints = ImmutableList.builder();
+        for (ValueOutputStream valueStream : indexedValueStreams) {
+            streamCheckpoints.add(valueStream.getCheckpoints());
+        }
+        return createRowIndexStream(
+                column,
+                compression,
+                bufferSize,
+                metadataWriter,
+                rowGroupColumnStatistics,
+                presentStream.getCheckpoints(),
+                streamCheckpoints.build());
+    }
+
+    @Override
+    public List<StreamDataOutput> getDataStreams()
+    {
+        checkState(closed, "writer must be closed");
+        ImmutableList.Builder<StreamDataOutput> outputDataStreams = ImmutableList.builder();
+        presentStream.getStreamDataOutput(column).ifPresent(outputDataStreams::add);
+        for (ValueOutputStream valueStream : valueStreams) {
+            outputDataStreams.add(valueStream.getStreamDataOutput(column));
+        }
+        return outputDataStreams.build();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return presentStream.getBufferedBytes() + dictionaryBytes + ((long) valueIds.size() * Integer.BYTES);
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        long valueStreamBytes = 0;
+        for (ValueOutputStream valueStream : valueStreams) {
+            valueStreamBytes += valueStream.getRetainedBytes();
+        }
+        return presentStream.getRetainedBytes() +
+                dictionaryBytes +
+                ((long) dictionary.size() * EXPECTED_ENTRY_OVERHEAD) +
+                sizeOf(valueIds.elements()) +
+                valueStreamBytes;
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        presentStream.reset();
+        dictionaryIds.clear();
+        dictionary.clear();
+        dictionaryBytes = 0;
+        valueIds.clear();
+        rowGroupValueCounts.clear();
+        rowGroupColumnStatistics.clear();
+        nonNullValueCount = 0;
+        minimum = null;
+        maximum = null;
+        useDictionary = false;
+        valueStreams = ImmutableList.of();
+        indexedValueStreams = ImmutableList.of();
+    }
+}
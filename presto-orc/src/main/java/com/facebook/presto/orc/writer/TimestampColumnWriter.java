@@ -0,0 +1,204 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.writer;
+
+import com.facebook.presto.orc.metadata.ColumnEncoding;
+import com.facebook.presto.orc.metadata.ColumnStatistics;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.MetadataWriter;
+import com.facebook.presto.orc.stream.LongOutputStreamV1;
+import com.facebook.presto.orc.stream.PresentOutputStream;
+import com.facebook.presto.orc.stream.StreamDataOutput;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.facebook.presto.orc.metadata.ColumnEncoding.ColumnEncodingKind.DIRECT;
+import static com.facebook.presto.orc.metadata.ColumnStatistics.mergeColumnStatistics;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.DATA;
+import static com.facebook.presto.orc.metadata.Stream.StreamKind.SECONDARY;
+import static com.facebook.presto.orc.writer.ColumnWriters.createRowIndexStream;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes timestamps the way Hive does: seconds relative to 2015-01-01 in the storage time zone
+ * in the data stream, and the fraction of the second in the secondary stream.
+ */
+public class TimestampColumnWriter
+        implements ColumnWriter
+{
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    private final int column;
+    private final Type type;
+    private final long baseTimestampInSeconds;
+    private final CompressionKind compression;
+    private final int bufferSize;
+    private final LongOutputStreamV1 secondsStream;
+    private final LongOutputStreamV1 nanosStream;
+    private final PresentOutputStream presentStream;
+
+    private final List<ColumnStatistics> rowGroupColumnStatistics = new ArrayList<>();
+    private long nonNullValueCount;
+
+    private boolean closed;
+
+    public TimestampColumnWriter(int column, Type type, CompressionKind compression, int bufferSize, DateTimeZone hiveStorageTimeZone)
+    {
+        this.column = column;
+        this.type = requireNonNull(type, "type is null");
+        this.baseTimestampInSeconds = new DateTime(2015, 1, 1, 0, 0, requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null")).getMillis() / MILLIS_PER_SECOND;
+        this.compression = requireNonNull(compression, "compression is null");
+        this.bufferSize = bufferSize;
+        this.secondsStream = new LongOutputStreamV1(compression, bufferSize, true, DATA);
+        this.nanosStream = new LongOutputStreamV1(compression, bufferSize, false, SECONDARY);
+        this.presentStream = new PresentOutputStream(compression, bufferSize);
+    }
+
+    @Override
+    public void beginRowGroup()
+    {
+        presentStream.recordCheckpoint();
+        secondsStream.recordCheckpoint();
+        nanosStream.recordCheckpoint();
+    }
+
+    @Override
+    public void writeBlock(Block block)
+    {
+        checkState(!closed, "writer is closed");
+
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                presentStream.writeBoolean(false);
+                continue;
+            }
+            presentStream.writeBoolean(true);
+
+            long millis = type.getLong(block, position);
+            // the reader corrects the seconds of negative timestamps with a fraction, so truncate instead of rounding down
+            secondsStream.writeLong((millis / MILLIS_PER_SECOND) - baseTimestampInSeconds);
+            nanosStream.writeLong(encodeNanos((int) Math.floorMod(millis, MILLIS_PER_SECOND) * NANOS_PER_MILLI));
+            nonNullValueCount++;
+        }
+    }
+
+    @Override
+    public void finishRowGroup()
+    {
+        checkState(!closed, "writer is closed");
+
+        rowGroupColumnStatistics.add(new ColumnStatistics(nonNullValueCount, null, null, null, null, null));
+        nonNullValueCount = 0;
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        presentStream.close();
+        secondsStream.close();
+        nanosStream.close();
+    }
+
+    @Override
+    public ColumnEncoding getColumnEncoding()
+    {
+        return new ColumnEncoding(DIRECT, 0);
+    }
+
+    @Override
+    public ColumnStatistics getStripeStatistics()
+    {
+        checkState(closed, "writer must be closed");
+        return mergeColumnStatistics(rowGroupColumnStatistics);
+    }
+
+    @Override
+    public List<StreamDataOutput> getIndexStreams(MetadataWriter metadataWriter)
+            throws IOException
+    {
+        checkState(closed, "writer must be closed");
+        return createRowIndexStream(
+                column,
+                compression,
+                bufferSize,
+                metadataWriter,
+                rowGroupColumnStatistics,
+                presentStream.getCheckpoints(),
+                ImmutableList.of(secondsStream.getCheckpoints(), nanosStream.getCheckpoints()));
+    }
+
+    @Override
+    public List<StreamDataOutput> getDataStreams()
+    {
+        checkState(closed, "writer must be closed");
+        ImmutableList.Builder<StreamDataOutput> outputDataStreams = ImmutableList.builder();
+        presentStream.getStreamDataOutput(column).ifPresent(outputDataStreams::add);
+        outputDataStreams.add(secondsStream.getStreamDataOutput(column));
+        outputDataStreams.add(nanosStream.getStreamDataOutput(column));
+        return outputDataStreams.build();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return presentStream.getBufferedBytes() + secondsStream.getBufferedBytes() + nanosStream.getBufferedBytes();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        return presentStream.getRetainedBytes() + secondsStream.getRetainedBytes() + nanosStream.getRetainedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        closed = false;
+        presentStream.reset();
+        secondsStream.reset();
+        nanosStream.reset();
+        rowGroupColumnStatistics.clear();
+        nonNullValueCount = 0;
+    }
+
+    // This comes from the Apache Hive ORC code
+    private static long encodeNanos(int nanos)
+    {
+        if (nanos == 0) {
+            return 0;
+        }
+        if (nanos % 100 != 0) {
+            return ((long) nanos) << 3;
+        }
+
+        // the low three bits hold the number of trailing zeros removed, minus one
+        nanos /= 100;
+        int trailingZeros = 1;
+        while (nanos % 10 == 0 && trailingZeros < 7) {
+            nanos /= 10;
+            trailingZeros++;
+        }
+        return (((long) nanos) << 3) | trailingZeros;
+    }
+}
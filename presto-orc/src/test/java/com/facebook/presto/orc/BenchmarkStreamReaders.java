@@ -0,0 +1,193 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.OrcTester.TempFile;
+import com.facebook.presto.orc.memory.AggregatedMemoryContext;
+import com.facebook.presto.orc.metadata.OrcMetadataReader;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.orc.OrcTester.Compression.NONE;
+import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
+import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcTester.writeOrcColumn;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaDoubleObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+
+/**
+ * Measures decoding a single column of an ORC file through the stream readers,
+ * for direct and dictionary encoded columns with different fractions of nulls.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkStreamReaders
+{
+    private static final int ROWS = 1_000_000;
+
+    // the writer uses a dictionary when at most 80% of the values in a stripe are distinct
+    private static final int DICTIONARY_CARDINALITY = 1_000;
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long readColumn(BenchmarkData data)
+            throws IOException
+    {
+        long positions = 0;
+        OrcRecordReader recordReader = data.createRecordReader();
+        try {
+            while (recordReader.nextBatch() > 0) {
+                Block block = recordReader.readBlock(data.getType(), 0);
+                positions += block.getPositionCount();
+            }
+        }
+        finally {
+            recordReader.close();
+        }
+        return positions;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"bigint", "double", "varchar_direct", "varchar_dictionary"})
+        private String column = "bigint";
+
+        @Param({"0", "0.1", "0.5"})
+        private double nullRatio;
+
+        private TempFile tempFile;
+        private Type type;
+
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            Random random = new Random(42);
+            ObjectInspector objectInspector;
+            List<Object> values = new ArrayList<>(ROWS);
+            switch (column) {
+                case "bigint":
+                    type = BIGINT;
+                    objectInspector = javaLongObjectInspector;
+                    for (int i = 0; i < ROWS; i++) {
+                        values.add(random.nextDouble() < nullRatio ? null : random.nextLong());
+                    }
+                    break;
+                case "double":
+                    type = DOUBLE;
+                    objectInspector = javaDoubleObjectInspector;
+                    for (int i = 0; i < ROWS; i++) {
+                        values.add(random.nextDouble() < nullRatio ? null : random.nextDouble());
+                    }
+                    break;
+                case "varchar_direct":
+                    type = VARCHAR;
+                    objectInspector = javaStringObjectInspector;
+                    for (int i = 0; i < ROWS; i++) {
+                        values.add(random.nextDouble() < nullRatio ? null : "value_" + i);
+                    }
+                    break;
+                case "varchar_dictionary":
+                    type = VARCHAR;
+                    objectInspector = javaStringObjectInspector;
+                    for (int i = 0; i < ROWS; i++) {
+                        values.add(random.nextDouble() < nullRatio ? null : "value_" + random.nextInt(DICTIONARY_CARDINALITY));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported column: " + column);
+            }
+
+            tempFile = new TempFile("presto_benchmark_orc", ".orc");
+            writeOrcColumn(tempFile.getFile(), ORC_12, NONE, objectInspector, values.iterator());
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            tempFile.close();
+        }
+
+        public Type getType()
+        {
+            return type;
+        }
+
+        public OrcRecordReader createRecordReader()
+                throws IOException
+        {
+            OrcDataSource dataSource = new FileOrcDataSource(tempFile.getFile(), new DataSize(1, MEGABYTE), new DataSize(8, MEGABYTE), new DataSize(8, MEGABYTE));
+            OrcReader orcReader = new OrcReader(dataSource, new OrcMetadataReader(), new DataSize(1, MEGABYTE), new DataSize(8, MEGABYTE));
+            return orcReader.createRecordReader(ImmutableMap.of(0, type), OrcPredicate.TRUE, HIVE_STORAGE_TIME_ZONE, new AggregatedMemoryContext());
+        }
+    }
+
+    public static void main(String[] args)
+            throws Exception
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        try {
+            new BenchmarkStreamReaders().readColumn(data);
+        }
+        finally {
+            data.tearDown();
+        }
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkStreamReaders.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.OrcTester.TempFile;
+import com.facebook.presto.orc.memory.AggregatedMemoryContext;
+import com.facebook.presto.orc.metadata.OrcMetadataReader;
+import com.facebook.presto.spi.block.Block;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.stream.LongStream;
+
+import static com.facebook.presto.orc.OrcTester.Compression.ZLIB;
+import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
+import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcTester.writeOrcColumn;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static io.airlift.testing.Assertions.assertGreaterThan;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestOrcMetadataCache
+{
+    private static final int POSITION_COUNT = 30_000;
+
+    private TempFile tempFile;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        tempFile = new TempFile("presto_test_metadata_cache", "orc");
+        writeOrcColumn(tempFile.getFile(), ORC_12, ZLIB, javaLongObjectInspector, LongStream.range(0, POSITION_COUNT).boxed().iterator());
+    }
+
+    @AfterClass
+    public void tearDown()
+            throws Exception
+    {
+        tempFile.close();
+    }
+
+    @Test
+    public void testCachedMetadataIsReused()
+            throws Exception
+    {
+        OrcMetadataCache metadataCache = new OrcMetadataCache(new DataSize(1, MEGABYTE));
+        assertTrue(metadataCache.isEnabled());
+        OrcFileId fileId = new OrcFileId(tempFile.getFile().getPath(), tempFile.getFile().length(), tempFile.getFile().lastModified());
+
+        readFile(metadataCache, fileId);
+        assertEquals(metadataCache.getHitCount(), 0);
+        long missCount = metadataCache.getMissCount();
+        assertGreaterThan(missCount, 0L);
+
+        // the file tail, stripe footers and row indexes all come from the cache
+        readFile(metadataCache, fileId);
+        assertGreaterThan(metadataCache.getHitCount(), 0L);
+        assertEquals(metadataCache.getMissCount(), missCount);
+    }
+
+    @Test
+    public void testModifiedFileIsNotCached()
+            throws Exception
+    {
+        OrcMetadataCache metadataCache = new OrcMetadataCache(new DataSize(1, MEGABYTE));
+        String path = tempFile.getFile().getPath();
+        long length = tempFile.getFile().length();
+
+        readFile(metadataCache, new OrcFileId(path, length, 1));
+        long missCount = metadataCache.getMissCount();
+
+        readFile(metadataCache, new OrcFileId(path, length, 2));
+        assertEquals(metadataCache.getHitCount(), 0);
+        assertEquals(metadataCache.getMissCount(), missCount * 2);
+    }
+
+    @Test
+    public void testDisabled()
+            throws Exception
+    {
+        OrcMetadataCache metadataCache = new OrcMetadataCache(new DataSize(0, BYTE));
+        assertFalse(metadataCache.isEnabled());
+        OrcFileId fileId = new OrcFileId(tempFile.getFile().getPath(), tempFile.getFile().length(), tempFile.getFile().lastModified());
+
+        readFile(metadataCache, fileId);
+        readFile(metadataCache, fileId);
+        assertEquals(metadataCache.getSize(), 0);
+        assertEquals(metadataCache.getHitCount(), 0);
+        assertEquals(metadataCache.getMissCount(), 0);
+    }
+
+    private void readFile(OrcMetadataCache metadataCache, OrcFileId fileId)
+            throws IOException
+    {
+        DataSize maxMergeDistance = new DataSize(1, BYTE);
+        DataSize maxReadSize = new DataSize(1, MEGABYTE);
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), maxMergeDistance, maxReadSize, maxReadSize);
+        OrcReader orcReader = new OrcReader(orcDataSource, new OrcMetadataReader(), maxMergeDistance, maxReadSize, metadataCache, fileId);
+        OrcRecordReader recordReader = orcReader.createRecordReader(
+                ImmutableMap.of(0, BIGINT),
+                (numberOfRows, statisticsByColumnIndex) -> true,
+                HIVE_STORAGE_TIME_ZONE,
+                new AggregatedMemoryContext());
+
+        long expected = 0;
+        while (true) {
+            int batchSize = recordReader.nextBatch();
+            if (batchSize <= 0) {
+                break;
+            }
+            Block block = recordReader.readBlock(BIGINT, 0);
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                assertEquals(BIGINT.getLong(block, position), expected);
+                expected++;
+            }
+        }
+        assertEquals(expected, POSITION_COUNT);
+        recordReader.close();
+    }
+}
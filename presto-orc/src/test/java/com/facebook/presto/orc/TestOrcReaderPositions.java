@@ -39,6 +39,7 @@ import static com.facebook.presto.orc.OrcTester.createSettableStructObjectInspec
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestOrcReaderPositions
 {
@@ -160,6 +161,36 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testReadSelectedPositions()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            createMultiStripeFile(tempFile.getFile());
+
+            OrcRecordReader reader = createCustomOrcRecordReader(tempFile, new OrcMetadataReader(), OrcPredicate.TRUE, BIGINT);
+            int[] positions = {1, 5, 6, 18};
+            for (int stripe = 0; stripe < 5; stripe++) {
+                assertEquals(reader.nextBatch(), 20);
+
+                // only the first three positions are selected, the rest of the batch is skipped
+                Block block = reader.readBlock(BIGINT, 0, positions, 3);
+                assertEquals(block.getPositionCount(), 20);
+                for (int i = 0; i < 20; i++) {
+                    if (i == 1 || i == 5 || i == 6) {
+                        assertEquals(BIGINT.getLong(block, i), ((stripe * 20L) + i) * 3);
+                    }
+                    else {
+                        assertTrue(block.isNull(i));
+                    }
+                }
+            }
+
+            assertEquals(reader.nextBatch(), -1);
+            reader.close();
+        }
+    }
+
     private static void assertCurrentBatch(OrcRecordReader reader, int stripe)
             throws IOException
     {
@@ -0,0 +1,225 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.OrcTester.TempFile;
+import com.facebook.presto.orc.memory.AggregatedMemoryContext;
+import com.facebook.presto.orc.metadata.OrcMetadataReader;
+import com.facebook.presto.spi.block.Block;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.hive.ql.exec.FileSinkOperator;
+import org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat;
+import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
+import org.apache.hadoop.hive.ql.io.orc.Writer;
+import org.apache.hadoop.hive.serde2.Serializer;
+import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
+import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcTester.createOrcRecordWriter;
+import static com.facebook.presto.orc.OrcTester.createSettableStructObjectInspector;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestOrcStripePrefetch
+{
+    private static final DataSize MAX_MERGE_DISTANCE = new DataSize(1, MEGABYTE);
+    private static final DataSize MAX_READ_SIZE = new DataSize(1, MEGABYTE);
+
+    @Test
+    public void testReadWithPrefetch()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            List<Long> expectedValues = createMultiStripeFile(tempFile.getFile());
+
+            assertEquals(readValues(createRecordReader(tempFile, Optional.empty())), expectedValues);
+            assertEquals(readValues(createRecordReader(tempFile, Optional.of(Runnable::run))), expectedValues);
+        }
+    }
+
+    @Test
+    public void testBlockedUntilStripeIsPrefetched()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            List<Long> expectedValues = createMultiStripeFile(tempFile.getFile());
+
+            List<Runnable> pendingReads = new ArrayList<>();
+            OrcRecordReader reader = createRecordReader(tempFile, Optional.of(pendingReads::add));
+
+            // the first stripe is prefetched when the reader is created
+            assertEquals(pendingReads.size(), 1);
+            CompletableFuture<?> blocked = reader.isBlocked();
+            assertFalse(blocked.isDone());
+
+            pendingReads.remove(0).run();
+            assertTrue(blocked.isDone());
+            assertTrue(reader.isBlocked().isDone());
+
+            // reading the first stripe starts the prefetch of the second one
+            List<Long> values = new ArrayList<>();
+            int batchSize = reader.nextBatch();
+            readBatch(reader, batchSize, values);
+            assertEquals(pendingReads.size(), 1);
+            assertTrue(reader.isBlocked().isDone());
+
+            // read the remaining stripes, only running the prefetch when the reader is blocked
+            while (true) {
+                while (!reader.isBlocked().isDone()) {
+                    pendingReads.remove(0).run();
+                }
+                batchSize = reader.nextBatch();
+                if (batchSize < 0) {
+                    break;
+                }
+                readBatch(reader, batchSize, values);
+            }
+            assertTrue(pendingReads.isEmpty());
+            assertEquals(values, expectedValues);
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testReadWithoutWaitingForPrefetch()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            List<Long> expectedValues = createMultiStripeFile(tempFile.getFile());
+
+            List<Runnable> pendingReads = new ArrayList<>();
+            AggregatedMemoryContext systemMemoryUsage = new AggregatedMemoryContext();
+            OrcRecordReader reader = createRecordReader(tempFile, systemMemoryUsage, Optional.of(pendingReads::add));
+
+            // the memory of the stripe is reserved before it is read
+            assertEquals(pendingReads.size(), 1);
+            assertTrue(systemMemoryUsage.getBytes() > 0);
+
+            // the reader does not wait for prefetches that have not completed, but reads the stripes itself
+            List<Long> values = new ArrayList<>();
+            for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                readBatch(reader, batchSize, values);
+            }
+            assertEquals(values, expectedValues);
+            assertEquals(pendingReads.size(), 5);
+
+            // the reservations of the abandoned prefetches are released once they finish
+            long reservedBytes = systemMemoryUsage.getBytes();
+            assertTrue(reservedBytes > 0);
+            pendingReads.forEach(Runnable::run);
+            assertEquals(reader.nextBatch(), -1);
+            assertTrue(systemMemoryUsage.getBytes() < reservedBytes);
+            reader.close();
+        }
+    }
+
+    private static OrcRecordReader createRecordReader(TempFile tempFile, Optional<Executor> prefetchExecutor)
+            throws Exception
+    {
+        return createRecordReader(tempFile, new AggregatedMemoryContext(), prefetchExecutor);
+    }
+
+    private static OrcRecordReader createRecordReader(TempFile tempFile, AggregatedMemoryContext systemMemoryUsage, Optional<Executor> prefetchExecutor)
+            throws Exception
+    {
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), MAX_MERGE_DISTANCE, MAX_READ_SIZE, new DataSize(1, MEGABYTE));
+        OrcReader orcReader = new OrcReader(orcDataSource, new OrcMetadataReader(), MAX_MERGE_DISTANCE, MAX_READ_SIZE);
+        return orcReader.createRecordReader(
+                ImmutableMap.of(0, BIGINT),
+                OrcPredicate.TRUE,
+                0,
+                orcDataSource.getSize(),
+                HIVE_STORAGE_TIME_ZONE,
+                systemMemoryUsage,
+                prefetchExecutor);
+    }
+
+    private static List<Long> readValues(OrcRecordReader reader)
+            throws Exception
+    {
+        List<Long> values = new ArrayList<>();
+        for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+            assertTrue(reader.isBlocked().isDone());
+            readBatch(reader, batchSize, values);
+        }
+        reader.close();
+        return values;
+    }
+
+    private static void readBatch(OrcRecordReader reader, int batchSize, List<Long> values)
+            throws Exception
+    {
+        Block block = reader.readBlock(BIGINT, 0);
+        for (int i = 0; i < batchSize; i++) {
+            values.add(BIGINT.getLong(block, i));
+        }
+    }
+
+    // write one stripe that is larger than the max read size, so it is read lazily and
+    // the file is not cached as a whole, followed by small stripes that can be prefetched
+    private static List<Long> createMultiStripeFile(File file)
+            throws Exception
+    {
+        FileSinkOperator.RecordWriter writer = createOrcRecordWriter(file, ORC_12, OrcTester.Compression.NONE, javaLongObjectInspector);
+
+        @SuppressWarnings("deprecation") Serializer serde = new OrcSerde();
+        SettableStructObjectInspector objectInspector = createSettableStructObjectInspector("test", javaLongObjectInspector);
+        Object row = objectInspector.create();
+        StructField field = objectInspector.getAllStructFieldRefs().get(0);
+
+        Random random = new Random(42);
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        for (int stripe = 0; stripe < 5; stripe++) {
+            int rowCount = (stripe == 0) ? 200_000 : 5_000;
+            for (int i = 0; i < rowCount; i++) {
+                long value = random.nextLong();
+                values.add(value);
+                objectInspector.setStructFieldData(row, field, value);
+                writer.write(serde.serialize(row, objectInspector));
+            }
+            flushWriter(writer);
+        }
+
+        writer.close(false);
+        return values.build();
+    }
+
+    private static void flushWriter(FileSinkOperator.RecordWriter writer)
+            throws Exception
+    {
+        Field field = OrcOutputFormat.class.getClassLoader()
+                .loadClass(OrcOutputFormat.class.getName() + "$OrcRecordWriter")
+                .getDeclaredField("writer");
+        field.setAccessible(true);
+        ((Writer) field.get(writer)).writeIntermediateFooter();
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.OrcTester.TempFile;
+import com.facebook.presto.orc.memory.AggregatedMemoryContext;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.orc.metadata.IntegerStatistics;
+import com.facebook.presto.orc.metadata.OrcMetadataReader;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcWriter.DEFAULT_COMPRESSION_BLOCK_SIZE;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.testing.TestingConnectorSession.SESSION;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertEquals;
+
+public class TestOrcWriter
+{
+    private static final List<String> COLUMN_NAMES = ImmutableList.of("id", "category", "name", "score", "flag", "day", "created", "payload");
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR, VARCHAR, DOUBLE, BOOLEAN, DATE, TIMESTAMP, VARBINARY);
+
+    @Test
+    public void testRoundTrip()
+            throws Exception
+    {
+        for (CompressionKind compression : CompressionKind.values()) {
+            List<Page> pages = createPages(35_000);
+            try (TempFile tempFile = new TempFile("test", "orc")) {
+                writeFile(tempFile, pages, compression, 20_000);
+
+                OrcReader orcReader = createOrcReader(tempFile);
+                assertEquals(orcReader.getColumnNames(), COLUMN_NAMES);
+                assertEquals(orcReader.getFooter().getNumberOfRows(), 35_000);
+                assertEquals(orcReader.getFooter().getStripes().size(), 2);
+                assertEquals(orcReader.getCompressionKind(), compression);
+
+                OrcRecordReader recordReader = createRecordReader(orcReader, OrcPredicate.TRUE);
+                assertPages(recordReader, pages, 0);
+                recordReader.close();
+            }
+        }
+    }
+
+    @Test
+    public void testRowGroupSkipping()
+            throws Exception
+    {
+        List<Page> pages = createPages(35_000);
+        try (TempFile tempFile = new TempFile("test", "orc")) {
+            writeFile(tempFile, pages, CompressionKind.ZLIB, 1_000_000);
+
+            // only read the third row group
+            OrcPredicate predicate = (numberOfRows, statisticsByColumnIndex) -> {
+                if (numberOfRows == 35_000) {
+                    return true;
+                }
+                IntegerStatistics stats = statisticsByColumnIndex.get(0).getIntegerStatistics();
+                return stats.getMin() <= 25_000 && stats.getMax() >= 25_000;
+            };
+
+            OrcRecordReader recordReader = createRecordReader(createOrcReader(tempFile), predicate);
+            assertEquals(recordReader.nextBatch(), 1024);
+            assertEquals(recordReader.getFilePosition(), 20_000);
+            Block block = recordReader.readBlock(BIGINT, 0);
+            assertEquals(BIGINT.getObjectValue(SESSION, block, 1), 20_001L);
+            recordReader.close();
+        }
+    }
+
+    private static void writeFile(TempFile tempFile, List<Page> pages, CompressionKind compression, int stripeMaxRowCount)
+            throws IOException
+    {
+        try (OrcWriter writer = new OrcWriter(
+                new FileOutputStream(tempFile.getFile()),
+                COLUMN_NAMES,
+                TYPES,
+                compression,
+                new DataSize(64, MEGABYTE),
+                stripeMaxRowCount,
+                10_000,
+                DEFAULT_COMPRESSION_BLOCK_SIZE,
+                HIVE_STORAGE_TIME_ZONE)) {
+            for (Page page : pages) {
+                writer.write(page);
+            }
+        }
+    }
+
+    private static OrcReader createOrcReader(TempFile tempFile)
+            throws IOException
+    {
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE));
+        return new OrcReader(orcDataSource, new OrcMetadataReader(), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE));
+    }
+
+    private static OrcRecordReader createRecordReader(OrcReader orcReader, OrcPredicate predicate)
+            throws IOException
+    {
+        ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
+        for (int column = 0; column < TYPES.size(); column++) {
+            includedColumns.put(column, TYPES.get(column));
+        }
+        return orcReader.createRecordReader(includedColumns.build(), predicate, HIVE_STORAGE_TIME_ZONE, new AggregatedMemoryContext());
+    }
+
+    private static void assertPages(OrcRecordReader recordReader, List<Page> pages, int expectedPosition)
+            throws IOException
+    {
+        List<List<Object>> expectedRows = new ArrayList<>();
+        for (Page page : pages) {
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                List<Object> row = new ArrayList<>();
+                for (int channel = 0; channel < TYPES.size(); channel++) {
+                    row.add(TYPES.get(channel).getObjectValue(SESSION, page.getBlock(channel), position));
+                }
+                expectedRows.add(row);
+            }
+        }
+
+        int rowIndex = expectedPosition;
+        for (int batchSize = recordReader.nextBatch(); batchSize >= 0; batchSize = recordReader.nextBatch()) {
+            List<Block> blocks = new ArrayList<>();
+            for (int column = 0; column < TYPES.size(); column++) {
+                blocks.add(recordReader.readBlock(TYPES.get(column), column));
+            }
+            for (int position = 0; position < batchSize; position++) {
+                for (int column = 0; column < TYPES.size(); column++) {
+                    Object actual = TYPES.get(column).getObjectValue(SESSION, blocks.get(column), position);
+                    assertEquals(actual, expectedRows.get(rowIndex).get(column), "row " + rowIndex + " column " + COLUMN_NAMES.get(column));
+                }
+                rowIndex++;
+            }
+        }
+        assertEquals(rowIndex, expectedRows.size());
+    }
+
+    private static List<Page> createPages(int rowCount)
+    {
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        PageBuilder pageBuilder = new PageBuilder(TYPES);
+        for (int row = 0; row < rowCount; row++) {
+            pageBuilder.declarePosition();
+
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(0), row);
+
+            BlockBuilder category = pageBuilder.getBlockBuilder(1);
+            if (row % 7 == 0) {
+                category.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(category, utf8Slice("category " + (row % 13)));
+            }
+
+            VARCHAR.writeSlice(pageBuilder.getBlockBuilder(2), utf8Slice("name " + row));
+
+            BlockBuilder score = pageBuilder.getBlockBuilder(3);
+            if (row % 11 == 0) {
+                score.appendNull();
+            }
+            else {
+                DOUBLE.writeDouble(score, row / 3.0);
+            }
+
+            BOOLEAN.writeBoolean(pageBuilder.getBlockBuilder(4), row % 3 == 0);
+
+            DATE.writeLong(pageBuilder.getBlockBuilder(5), (row % 1000) - 500);
+
+            BlockBuilder created = pageBuilder.getBlockBuilder(6);
+            if (row % 5 == 0) {
+                created.appendNull();
+            }
+            else {
+                TIMESTAMP.writeLong(created, (row - 10_000) * 1_234_567L);
+            }
+
+            BlockBuilder payload = pageBuilder.getBlockBuilder(7);
+            if (row % 2 == 0) {
+                payload.appendNull();
+            }
+            else {
+                VARBINARY.writeSlice(payload, utf8Slice("payload " + (row % 3)));
+            }
+
+            if (pageBuilder.isFull()) {
+                pages.add(pageBuilder.build());
+                pageBuilder.reset();
+            }
+        }
+        if (!pageBuilder.isEmpty()) {
+            pages.add(pageBuilder.build());
+        }
+        return pages.build();
+    }
+}
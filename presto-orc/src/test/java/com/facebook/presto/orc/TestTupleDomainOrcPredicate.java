@@ -13,16 +13,27 @@
  */
 package com.facebook.presto.orc;
 
+import com.facebook.presto.orc.TupleDomainOrcPredicate.ColumnReference;
 import com.facebook.presto.orc.metadata.BooleanStatistics;
 import com.facebook.presto.orc.metadata.ColumnStatistics;
 import com.facebook.presto.orc.metadata.DateStatistics;
 import com.facebook.presto.orc.metadata.DoubleStatistics;
+import com.facebook.presto.orc.metadata.HiveBloomFilter;
 import com.facebook.presto.orc.metadata.IntegerStatistics;
 import com.facebook.presto.orc.metadata.StringStatistics;
 import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.predicate.ValueSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Longs;
+import org.apache.hive.common.util.BloomFilter;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
+import static com.facebook.presto.orc.TupleDomainOrcPredicate.checkInBloomFilter;
 import static com.facebook.presto.orc.TupleDomainOrcPredicate.getDomain;
 import static com.facebook.presto.orc.metadata.OrcMetadataReader.getMaxSlice;
 import static com.facebook.presto.orc.metadata.OrcMetadataReader.getMinSlice;
@@ -39,9 +50,13 @@ import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static io.airlift.slice.Slices.utf8Slice;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestTupleDomainOrcPredicate
 {
@@ -196,4 +211,68 @@ public class TestTupleDomainOrcPredicate
     {
         return new ColumnStatistics(numberOfValues, null, null, null, null, new DateStatistics(minimum, maximum));
     }
+
+    @Test
+    public void testBloomFilter()
+            throws Exception
+    {
+        BloomFilter writerBloomFilter = new BloomFilter(1000);
+        writerBloomFilter.addLong(42);
+        writerBloomFilter.addDouble(3.5);
+        // Hive widens float values to double before adding them
+        writerBloomFilter.addDouble(1.25f);
+        writerBloomFilter.addLong(7);
+        writerBloomFilter.addLong(16_000);
+        writerBloomFilter.add(utf8Slice("apple").getBytes());
+        HiveBloomFilter bloomFilter = new HiveBloomFilter(Longs.asList(writerBloomFilter.getBitSet()), writerBloomFilter.getNumBits(), writerBloomFilter.getNumHashFunctions());
+
+        assertTrue(checkInBloomFilter(bloomFilter, singleValue(BIGINT, 42L)));
+        assertFalse(checkInBloomFilter(bloomFilter, singleValue(BIGINT, 43L)));
+        assertTrue(checkInBloomFilter(bloomFilter, create(ValueSet.of(BIGINT, 41L, 42L), false)));
+        assertFalse(checkInBloomFilter(bloomFilter, create(ValueSet.of(BIGINT, 40L, 41L), false)));
+
+        assertTrue(checkInBloomFilter(bloomFilter, singleValue(DOUBLE, 3.5)));
+        assertFalse(checkInBloomFilter(bloomFilter, singleValue(DOUBLE, 4.5)));
+
+        assertTrue(checkInBloomFilter(bloomFilter, singleValue(REAL, 1.25)));
+        assertFalse(checkInBloomFilter(bloomFilter, singleValue(REAL, 2.25)));
+
+        assertTrue(checkInBloomFilter(bloomFilter, singleValue(INTEGER, 7L)));
+        assertFalse(checkInBloomFilter(bloomFilter, singleValue(INTEGER, 8L)));
+
+        assertTrue(checkInBloomFilter(bloomFilter, singleValue(DATE, 16_000L)));
+        assertFalse(checkInBloomFilter(bloomFilter, singleValue(DATE, 16_001L)));
+
+        assertTrue(checkInBloomFilter(bloomFilter, singleValue(VARCHAR, utf8Slice("apple"))));
+        assertFalse(checkInBloomFilter(bloomFilter, singleValue(VARCHAR, utf8Slice("banana"))));
+
+        // ranges and nulls can not be checked
+        assertTrue(checkInBloomFilter(bloomFilter, create(ValueSet.ofRanges(range(BIGINT, 43L, true, 45L, true)), false)));
+        assertTrue(checkInBloomFilter(bloomFilter, create(ValueSet.of(BIGINT, 43L), true)));
+        assertTrue(checkInBloomFilter(bloomFilter, notNull(BIGINT)));
+    }
+
+    @Test
+    public void testBloomFilterColumns()
+            throws Exception
+    {
+        List<ColumnReference<String>> columnReferences = ImmutableList.of(
+                new ColumnReference<>("equality", 1, BIGINT),
+                new ColumnReference<>("in", 2, VARCHAR),
+                new ColumnReference<>("range", 3, BIGINT),
+                new ColumnReference<>("nullable", 4, BIGINT),
+                new ColumnReference<>("boolean", 5, BOOLEAN),
+                new ColumnReference<>("unconstrained", 6, BIGINT));
+        TupleDomain<String> effectivePredicate = TupleDomain.withColumnDomains(ImmutableMap.of(
+                "equality", singleValue(BIGINT, 42L),
+                "in", create(ValueSet.of(VARCHAR, utf8Slice("apple"), utf8Slice("banana")), false),
+                "range", create(ValueSet.ofRanges(range(BIGINT, 43L, true, 45L, true)), false),
+                "nullable", create(ValueSet.of(BIGINT, 43L), true),
+                "boolean", singleValue(BOOLEAN, true)));
+
+        // only the bloom filters of equality and IN predicates are read
+        assertEquals(new TupleDomainOrcPredicate<>(effectivePredicate, columnReferences).getBloomFilterColumns(), ImmutableSet.of(1, 2));
+        assertEquals(new TupleDomainOrcPredicate<>(TupleDomain.all(), columnReferences).getBloomFilterColumns(), ImmutableSet.of());
+        assertEquals(new TupleDomainOrcPredicate<>(TupleDomain.none(), columnReferences).getBloomFilterColumns(), ImmutableSet.of());
+    }
 }
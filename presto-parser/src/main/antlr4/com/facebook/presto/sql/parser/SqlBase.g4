@@ -423,6 +423,7 @@ nonReserved
     | CALL
     | GRANT | PRIVILEGES | PUBLIC | OPTION
     | SUBSTRING
+    | GROUPING
     ;
 
 normalForm
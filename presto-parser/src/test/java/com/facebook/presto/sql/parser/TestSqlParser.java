@@ -1005,6 +1005,16 @@ public class TestSqlParser
                         Optional.empty()));
     }
 
+    @Test
+    public void testGroupingOperation()
+            throws Exception
+    {
+        assertExpression("grouping(a, b)",
+                new FunctionCall(QualifiedName.of("grouping"), ImmutableList.of(
+                        new QualifiedNameReference(QualifiedName.of("a")),
+                        new QualifiedNameReference(QualifiedName.of("b")))));
+    }
+
     @Test
     public void testCreateTable()
             throws Exception
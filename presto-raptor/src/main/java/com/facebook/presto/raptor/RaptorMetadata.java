@@ -43,6 +43,7 @@ import com.facebook.presto.spi.ViewNotFoundException;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
 import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
@@ -274,6 +275,22 @@ public class RaptorMetadata
         return getTableLayout(raptorHandle.getTable(), raptorHandle.getConstraint());
     }
 
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, ConnectorTableLayoutHandle layoutHandle)
+    {
+        RaptorTableLayoutHandle raptorLayout = checkType(layoutHandle, RaptorTableLayoutHandle.class, "layoutHandle");
+        long tableId = raptorLayout.getTable().getTableId();
+
+        List<RaptorColumnHandle> columns = dao.listTableColumns(tableId).stream()
+                .filter(column -> !column.getColumnName().equals(SAMPLE_WEIGHT_COLUMN_NAME))
+                .map(this::getRaptorColumnHandle)
+                .collect(toList());
+        TupleDomain<RaptorColumnHandle> constraint = raptorLayout.getConstraint()
+                .transform(handle -> checkType(handle, RaptorColumnHandle.class, "columnHandle"));
+
+        return shardManager.getTableStatistics(tableId, columns, constraint);
+    }
+
     private ConnectorTableLayout getTableLayout(RaptorTableHandle handle, TupleDomain<ColumnHandle> constraint)
     {
         if (!handle.getDistributionId().isPresent()) {
@@ -283,6 +300,9 @@ public class RaptorMetadata
         List<RaptorColumnHandle> bucketColumnHandles = getBucketColumnHandles(handle.getTableId());
         RaptorPartitioningHandle partitioning = getPartitioningHandle(handle.getDistributionId().getAsLong());
 
+        // Shards are sorted on the table ordering columns individually, but a split reads
+        // all the shards of a bucket one after another and a driver reads many splits, so
+        // the scan output is neither sorted nor grouped and no local properties are reported.
         return new ConnectorTableLayout(
                 new RaptorTableLayoutHandle(handle, constraint, Optional.of(partitioning)),
                 Optional.empty(),
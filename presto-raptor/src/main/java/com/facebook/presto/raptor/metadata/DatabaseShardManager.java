@@ -19,6 +19,9 @@ import com.facebook.presto.raptor.util.DaoSupplier;
 import com.facebook.presto.spi.Node;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.base.Joiner;
 import com.google.common.base.Throwables;
@@ -90,6 +93,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 public class DatabaseShardManager
@@ -425,6 +429,72 @@ public class DatabaseShardManager
         return new ShardIterator(tableId, bucketed, merged, effectivePredicate, dbi);
     }
 
+    @Override
+    public TableStatistics getTableStatistics(long tableId, List<RaptorColumnHandle> columns, TupleDomain<RaptorColumnHandle> effectivePredicate)
+    {
+        ShardPredicate predicate = ShardPredicate.create(effectivePredicate);
+
+        List<RaptorColumnHandle> indexedColumns = columns.stream()
+                .filter(column -> !column.isShardUuid() && !column.isShardRowId())
+                .filter(column -> isRangeIndexed(column.getColumnType()))
+                .collect(toList());
+
+        StringJoiner innerColumns = new StringJoiner(", ").add("shard_id");
+        StringJoiner outerColumns = new StringJoiner(", ").add("count(*) shard_count").add("sum(s.row_count) row_count");
+        for (RaptorColumnHandle column : indexedColumns) {
+            String min = minColumn(column.getColumnId());
+            String max = maxColumn(column.getColumnId());
+            innerColumns.add(min).add(max);
+            outerColumns.add(format("count(x.%1$s) %1$s_count", min));
+            outerColumns.add(format("min(x.%1$s) %1$s", min));
+            outerColumns.add(format("max(x.%1$s) %1$s", max));
+        }
+
+        String sql = format("" +
+                        "SELECT %s\n" +
+                        "FROM (SELECT %s FROM %s WHERE %s) x\n" +
+                        "JOIN shards s ON (s.shard_id = x.shard_id)",
+                outerColumns,
+                innerColumns,
+                shardIndexTable(tableId),
+                predicate.getPredicate());
+
+        try (Connection connection = dbi.open().getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            predicate.bind(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return TableStatistics.EMPTY_STATISTICS;
+                }
+                long shardCount = resultSet.getLong("shard_count");
+                if (shardCount == 0) {
+                    return TableStatistics.builder()
+                            .setRowCount(Estimate.zeroValue())
+                            .build();
+                }
+
+                TableStatistics.Builder statistics = TableStatistics.builder()
+                        .setRowCount(new Estimate(resultSet.getLong("row_count")));
+                for (RaptorColumnHandle column : indexedColumns) {
+                    String min = minColumn(column.getColumnId());
+                    String max = maxColumn(column.getColumnId());
+                    // the range is only known if every shard has statistics for the column
+                    if (resultSet.getLong(min + "_count") != shardCount) {
+                        continue;
+                    }
+                    statistics.setColumnStatistics(column, ColumnStatistics.builder()
+                            .setLowValue(getIndexValue(resultSet, min, column.getColumnType()))
+                            .setHighValue(getIndexValue(resultSet, max, column.getColumnType()))
+                            .build());
+                }
+                return statistics.build();
+            }
+        }
+        catch (SQLException e) {
+            throw metadataError(e);
+        }
+    }
+
     @Override
     public void assignShard(long tableId, UUID shardUuid, String nodeIdentifier, boolean gracePeriod)
     {
@@ -729,6 +799,41 @@ public class DatabaseShardManager
         return null;
     }
 
+    private static boolean isRangeIndexed(Type type)
+    {
+        JDBCType jdbcType = jdbcType(type);
+        return (jdbcType == JDBCType.BOOLEAN) ||
+                (jdbcType == JDBCType.BIGINT) ||
+                (jdbcType == JDBCType.DOUBLE) ||
+                (jdbcType == JDBCType.INTEGER);
+    }
+
+    private static Optional<Object> getIndexValue(ResultSet resultSet, String column, Type type)
+            throws SQLException
+    {
+        Object value;
+        switch (jdbcType(type)) {
+            case BOOLEAN:
+                value = resultSet.getBoolean(column);
+                break;
+            case BIGINT:
+                value = resultSet.getLong(column);
+                break;
+            case DOUBLE:
+                value = resultSet.getDouble(column);
+                break;
+            case INTEGER:
+                value = (long) resultSet.getInt(column);
+                break;
+            default:
+                return Optional.empty();
+        }
+        if (resultSet.wasNull()) {
+            return Optional.empty();
+        }
+        return Optional.of(value);
+    }
+
     private static <T> Iterator<T> cyclingShuffledIterator(Collection<T> collection)
     {
         List<T> list = new ArrayList<>(collection);
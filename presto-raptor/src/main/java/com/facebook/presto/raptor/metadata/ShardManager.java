@@ -15,6 +15,7 @@ package com.facebook.presto.raptor.metadata;
 
 import com.facebook.presto.raptor.RaptorColumnHandle;
 import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import org.skife.jdbi.v2.ResultIterator;
 
 import java.util.Collection;
@@ -61,6 +62,11 @@ public interface ShardManager
      */
     ResultIterator<BucketShards> getShardNodes(long tableId, boolean bucketed, boolean merged, TupleDomain<RaptorColumnHandle> effectivePredicate);
 
+    /**
+     * Return statistics of the shards of a table matching the predicate.
+     */
+    TableStatistics getTableStatistics(long tableId, List<RaptorColumnHandle> columns, TupleDomain<RaptorColumnHandle> effectivePredicate);
+
     /**
      * Assign a shard to a node.
      */
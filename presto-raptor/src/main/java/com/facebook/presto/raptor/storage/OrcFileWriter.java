@@ -13,9 +13,13 @@
  */
 package com.facebook.presto.raptor.storage;
 
+import com.facebook.presto.orc.OrcWriter;
+import com.facebook.presto.orc.metadata.CompressionKind;
 import com.facebook.presto.raptor.util.SyncingFileSystem;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.classloader.ThreadContextClassLoader;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.VarbinaryType;
@@ -24,6 +28,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -40,14 +45,17 @@ import org.apache.hadoop.hive.serde2.typeinfo.ListTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.MapTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.joda.time.DateTimeZone;
 
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 
 import static com.facebook.presto.raptor.RaptorErrorCode.RAPTOR_ERROR;
@@ -58,6 +66,11 @@ import static com.facebook.presto.raptor.util.Types.isArrayType;
 import static com.facebook.presto.raptor.util.Types.isMapType;
 import static com.facebook.presto.spi.StandardErrorCode.INTERNAL_ERROR;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.google.common.base.Functions.toStringFunction;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Iterables.transform;
@@ -84,6 +97,11 @@ public class OrcFileWriter
 
     private final List<Type> columnTypes;
 
+    // native writer, used when all columns have a primitive storage type
+    private final OrcWriter orcWriter;
+    private final PageBuilder pageBuilder;
+
+    // Hive writer, used for the remaining tables
     private final OrcSerde serializer;
     private final RecordWriter recordWriter;
     private final SettableStructObjectInspector tableInspector;
@@ -104,6 +122,20 @@ public class OrcFileWriter
         Iterable<String> hiveTypeNames = storageTypes.stream().map(StorageType::getHiveTypeName).collect(toList());
         List<String> columnNames = ImmutableList.copyOf(transform(columnIds, toStringFunction()));
 
+        Optional<List<Type>> nativeTypes = toNativeTypes(columnTypes);
+        if (nativeTypes.isPresent()) {
+            orcWriter = new OrcWriter(createOutputStream(new Path(target.toURI())), columnNames, nativeTypes.get(), CompressionKind.SNAPPY, DateTimeZone.UTC);
+            pageBuilder = new PageBuilder(nativeTypes.get());
+            serializer = null;
+            recordWriter = null;
+            tableInspector = null;
+            structFields = null;
+            orcRow = null;
+            return;
+        }
+        orcWriter = null;
+        pageBuilder = null;
+
         Properties properties = new Properties();
         properties.setProperty(META_TABLE_COLUMNS, Joiner.on(',').join(columnNames));
         properties.setProperty(META_TABLE_COLUMN_TYPES, Joiner.on(':').join(hiveTypeNames));
@@ -118,6 +150,16 @@ public class OrcFileWriter
 
     public void appendPages(List<Page> pages)
     {
+        if (orcWriter != null) {
+            for (Page page : pages) {
+                flushPageBuilder();
+                writePage(page);
+                rowCount += page.getPositionCount();
+                uncompressedSize += page.getSizeInBytes();
+            }
+            return;
+        }
+
         for (Page page : pages) {
             for (int position = 0; position < page.getPositionCount(); position++) {
                 appendRow(extractRow(page, position, columnTypes));
@@ -130,7 +172,29 @@ public class OrcFileWriter
         checkArgument(pageIndexes.length == positionIndexes.length, "pageIndexes and positionIndexes do not match");
         for (int i = 0; i < pageIndexes.length; i++) {
             Page page = inputPages.get(pageIndexes[i]);
-            appendRow(extractRow(page, positionIndexes[i], columnTypes));
+            if (orcWriter != null) {
+                appendPosition(page, positionIndexes[i]);
+            }
+            else {
+                appendRow(extractRow(page, positionIndexes[i], columnTypes));
+            }
+        }
+    }
+
+    private void appendPosition(Page page, int position)
+    {
+        pageBuilder.declarePosition();
+        long sizeInBytes = 0;
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(channel);
+            int previousSize = blockBuilder.getSizeInBytes();
+            pageBuilder.getType(channel).appendTo(page.getBlock(channel), position, blockBuilder);
+            sizeInBytes += blockBuilder.getSizeInBytes() - previousSize;
+        }
+        rowCount++;
+        uncompressedSize += sizeInBytes;
+        if (pageBuilder.isFull()) {
+            flushPageBuilder();
         }
     }
 
@@ -138,6 +202,13 @@ public class OrcFileWriter
     {
         List<Object> columns = row.getColumns();
         checkArgument(columns.size() == columnTypes.size());
+        if (orcWriter != null) {
+            appendNativeRow(columns);
+            rowCount++;
+            uncompressedSize += row.getSizeInBytes();
+            return;
+        }
+
         for (int channel = 0; channel < columns.size(); channel++) {
             tableInspector.setStructFieldData(orcRow, structFields.get(channel), columns.get(channel));
         }
@@ -160,13 +231,70 @@ public class OrcFileWriter
         closed = true;
 
         try {
-            recordWriter.close(false);
+            if (orcWriter != null) {
+                flushPageBuilder();
+                orcWriter.close();
+            }
+            else {
+                recordWriter.close(false);
+            }
         }
         catch (IOException e) {
             throw new PrestoException(RAPTOR_ERROR, "Failed to close writer", e);
         }
     }
 
+    private void appendNativeRow(List<Object> columns)
+    {
+        pageBuilder.declarePosition();
+        for (int channel = 0; channel < columns.size(); channel++) {
+            Object value = columns.get(channel);
+            Type type = pageBuilder.getType(channel);
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(channel);
+            if (value == null) {
+                blockBuilder.appendNull();
+            }
+            else if (type.equals(BOOLEAN)) {
+                type.writeBoolean(blockBuilder, (Boolean) value);
+            }
+            else if (type.equals(BIGINT)) {
+                type.writeLong(blockBuilder, (Long) value);
+            }
+            else if (type.equals(DOUBLE)) {
+                type.writeDouble(blockBuilder, (Double) value);
+            }
+            else if (type.equals(VARCHAR)) {
+                type.writeSlice(blockBuilder, Slices.utf8Slice((String) value));
+            }
+            else {
+                type.writeSlice(blockBuilder, Slices.wrappedBuffer((byte[]) value));
+            }
+        }
+        if (pageBuilder.isFull()) {
+            flushPageBuilder();
+        }
+    }
+
+    private void flushPageBuilder()
+    {
+        if (pageBuilder.isEmpty()) {
+            return;
+        }
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        writePage(page);
+    }
+
+    private void writePage(Page page)
+    {
+        try {
+            orcWriter.write(page);
+        }
+        catch (IOException e) {
+            throw new PrestoException(RAPTOR_ERROR, "Failed to write data", e);
+        }
+    }
+
     public long getRowCount()
     {
         return rowCount;
@@ -200,6 +328,17 @@ public class OrcFileWriter
         }
     }
 
+    private static OutputStream createOutputStream(Path target)
+    {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(FileSystem.class.getClassLoader());
+                FileSystem fileSystem = new SyncingFileSystem(CONFIGURATION)) {
+            return fileSystem.create(target);
+        }
+        catch (IOException e) {
+            throw new PrestoException(RAPTOR_ERROR, "Failed to create writer", e);
+        }
+    }
+
     private static Constructor<? extends RecordWriter> getOrcWriterConstructor()
     {
         try {
@@ -253,6 +392,37 @@ public class OrcFileWriter
         return columnTypes.stream().map(OrcFileWriter::toStorageType).collect(toList());
     }
 
+    /**
+     * Returns the types used by the native writer, which stores all long based types as BIGINT,
+     * or empty if a column has a type the native writer does not support.
+     */
+    private static Optional<List<Type>> toNativeTypes(List<Type> columnTypes)
+    {
+        ImmutableList.Builder<Type> nativeTypes = ImmutableList.builder();
+        for (Type type : columnTypes) {
+            StorageType storageType = toStorageType(type);
+            if (storageType == StorageType.BOOLEAN) {
+                nativeTypes.add(BOOLEAN);
+            }
+            else if (storageType == StorageType.LONG) {
+                nativeTypes.add(BIGINT);
+            }
+            else if (storageType == StorageType.DOUBLE) {
+                nativeTypes.add(DOUBLE);
+            }
+            else if (storageType == StorageType.STRING) {
+                nativeTypes.add(VARCHAR);
+            }
+            else if (storageType == StorageType.BYTES) {
+                nativeTypes.add(VARBINARY);
+            }
+            else {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(nativeTypes.build());
+    }
+
     private static StorageType toStorageType(Type type)
     {
         Class<?> javaType = type.getJavaType();
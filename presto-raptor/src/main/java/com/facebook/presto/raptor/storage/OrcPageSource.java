@@ -24,7 +24,7 @@ import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.BlockBuilderStatus;
 import com.facebook.presto.spi.block.DictionaryBlock;
 import com.facebook.presto.spi.block.LazyBlock;
-import com.facebook.presto.spi.block.LazyBlockLoader;
+import com.facebook.presto.spi.block.SelectiveLazyBlockLoader;
 import com.facebook.presto.spi.block.SliceArrayBlock;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
@@ -270,7 +270,7 @@ public class OrcPageSource
     }
 
     private final class OrcBlockLoader
-            implements LazyBlockLoader<LazyBlock>
+            implements SelectiveLazyBlockLoader<LazyBlock>
     {
         private final int expectedBatchId = batchId;
         private final int columnIndex;
@@ -302,5 +302,25 @@ public class OrcPageSource
 
             loaded = true;
         }
+
+        @Override
+        public final void load(LazyBlock lazyBlock, int[] positions, int positionCount)
+        {
+            if (loaded) {
+                return;
+            }
+
+            checkState(batchId == expectedBatchId);
+
+            try {
+                Block block = recordReader.readBlock(type, columnIndex, positions, positionCount);
+                lazyBlock.setBlock(block);
+            }
+            catch (IOException e) {
+                throw new PrestoException(RAPTOR_ERROR, e);
+            }
+
+            loaded = true;
+        }
     }
 }
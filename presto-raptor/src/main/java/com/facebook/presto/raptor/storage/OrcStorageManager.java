@@ -15,6 +15,8 @@ package com.facebook.presto.raptor.storage;
 
 import com.facebook.presto.orc.FileOrcDataSource;
 import com.facebook.presto.orc.OrcDataSource;
+import com.facebook.presto.orc.OrcFileId;
+import com.facebook.presto.orc.OrcMetadataCache;
 import com.facebook.presto.orc.OrcPredicate;
 import com.facebook.presto.orc.OrcReader;
 import com.facebook.presto.orc.OrcRecordReader;
@@ -109,6 +111,7 @@ public class OrcStorageManager
     private final Optional<BackupStore> backupStore;
     private final JsonCodec<ShardDelta> shardDeltaCodec;
     private final ReaderAttributes defaultReaderAttributes;
+    private final OrcMetadataCache metadataCache;
     private final BackupManager backupManager;
     private final ShardRecoveryManager recoveryManager;
     private final ShardRecorder shardRecorder;
@@ -125,6 +128,7 @@ public class OrcStorageManager
             Optional<BackupStore> backupStore,
             JsonCodec<ShardDelta> shardDeltaCodec,
             ReaderAttributes readerAttributes,
+            OrcMetadataCache metadataCache,
             StorageManagerConfig config,
             RaptorConnectorId connectorId,
             BackupManager backgroundBackupManager,
@@ -137,6 +141,7 @@ public class OrcStorageManager
                 backupStore,
                 shardDeltaCodec,
                 readerAttributes,
+                metadataCache,
                 backgroundBackupManager,
                 recoveryManager,
                 shardRecorder,
@@ -154,6 +159,7 @@ public class OrcStorageManager
             Optional<BackupStore> backupStore,
             JsonCodec<ShardDelta> shardDeltaCodec,
             ReaderAttributes readerAttributes,
+            OrcMetadataCache metadataCache,
             BackupManager backgroundBackupManager,
             ShardRecoveryManager recoveryManager,
             ShardRecorder shardRecorder,
@@ -169,6 +175,7 @@ public class OrcStorageManager
         this.backupStore = requireNonNull(backupStore, "backupStore is null");
         this.shardDeltaCodec = requireNonNull(shardDeltaCodec, "shardDeltaCodec is null");
         this.defaultReaderAttributes = requireNonNull(readerAttributes, "readerAttributes is null");
+        this.metadataCache = requireNonNull(metadataCache, "metadataCache is null");
 
         backupManager = requireNonNull(backgroundBackupManager, "backgroundBackupManager is null");
         this.recoveryManager = requireNonNull(recoveryManager, "recoveryManager is null");
@@ -203,7 +210,8 @@ public class OrcStorageManager
         AggregatedMemoryContext systemMemoryUsage = new AggregatedMemoryContext();
 
         try {
-            OrcReader reader = new OrcReader(dataSource, new OrcMetadataReader(), readerAttributes.getMaxMergeDistance(), readerAttributes.getMaxReadSize());
+            OrcFileId fileId = orcFileId(storageService.getStorageFile(shardUuid).getAbsoluteFile());
+            OrcReader reader = new OrcReader(dataSource, new OrcMetadataReader(), readerAttributes.getMaxMergeDistance(), readerAttributes.getMaxReadSize(), metadataCache, fileId);
 
             Map<Long, Integer> indexMap = columnIdIndex(reader.getColumnNames());
             ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
@@ -317,6 +325,11 @@ public class OrcStorageManager
         return new FileOrcDataSource(file, readerAttributes.getMaxMergeDistance(), readerAttributes.getMaxReadSize(), readerAttributes.getStreamBufferSize());
     }
 
+    private static OrcFileId orcFileId(File file)
+    {
+        return new OrcFileId(file.getPath(), file.length(), file.lastModified());
+    }
+
     private boolean backupExists(UUID shardUuid)
     {
         return backupStore.isPresent() && backupStore.get().shardExists(shardUuid);
@@ -45,6 +45,7 @@ public class StorageManagerConfig
     private DataSize orcMaxMergeDistance = new DataSize(1, MEGABYTE);
     private DataSize orcMaxReadSize = new DataSize(8, MEGABYTE);
     private DataSize orcStreamBufferSize = new DataSize(8, MEGABYTE);
+    private DataSize orcMetadataCacheSize = new DataSize(64, MEGABYTE);
     private int deletionThreads = max(1, getRuntime().availableProcessors() / 2);
     private int recoveryThreads = 10;
     private int compactionThreads = 5;
@@ -106,6 +107,20 @@ public class StorageManagerConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getOrcMetadataCacheSize()
+    {
+        return orcMetadataCacheSize;
+    }
+
+    @Config("storage.orc.metadata-cache-size")
+    @ConfigDescription("Maximum on-disk size of the shard file tails, stripe footers and row indexes to cache, or 0 to disable the cache")
+    public StorageManagerConfig setOrcMetadataCacheSize(DataSize orcMetadataCacheSize)
+    {
+        this.orcMetadataCacheSize = orcMetadataCacheSize;
+        return this;
+    }
+
     @Min(1)
     public int getDeletionThreads()
     {
@@ -18,6 +18,7 @@ import com.facebook.presto.spi.Page;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.Objects.requireNonNull;
 
@@ -84,6 +85,12 @@ public class ConcatPageSource
         }
     }
 
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        return (current != null) ? current.isBlocked() : NOT_BLOCKED;
+    }
+
     @Override
     public long getSystemMemoryUsage()
     {
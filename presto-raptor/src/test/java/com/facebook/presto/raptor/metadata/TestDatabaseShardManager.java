@@ -23,6 +23,9 @@ import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
@@ -594,6 +597,74 @@ public class TestDatabaseShardManager
         shardAssertion(tableId).equal(c1, BIGINT, 3L).expected(shards);
     }
 
+    @Test
+    public void testTableStatistics()
+            throws Exception
+    {
+        long tableId = createTable("test");
+        List<ColumnInfo> columns = ImmutableList.<ColumnInfo>builder()
+                .add(new ColumnInfo(1, BIGINT))
+                .add(new ColumnInfo(2, DOUBLE))
+                .add(new ColumnInfo(3, VARCHAR))
+                .build();
+        RaptorColumnHandle c1 = new RaptorColumnHandle("raptor", "c1", 1, BIGINT);
+        RaptorColumnHandle c2 = new RaptorColumnHandle("raptor", "c2", 2, DOUBLE);
+        RaptorColumnHandle c3 = new RaptorColumnHandle("raptor", "c3", 3, VARCHAR);
+        List<RaptorColumnHandle> handles = ImmutableList.of(c1, c2, c3);
+
+        shardManager.createTable(tableId, columns, false);
+
+        TableStatistics statistics = shardManager.getTableStatistics(tableId, handles, TupleDomain.all());
+        assertEquals(statistics.getRowCount(), Estimate.zeroValue());
+        assertEquals(statistics.getColumnStatistics(), ImmutableMap.of());
+
+        List<ShardInfo> shards = ImmutableList.<ShardInfo>builder()
+                .add(shardInfo(UUID.randomUUID(), "node1", 10, ImmutableList.<ColumnStats>builder()
+                        .add(new ColumnStats(1, 5L, 10L))
+                        .add(new ColumnStats(2, -1.5, 4.0))
+                        .add(new ColumnStats(3, "abc", "xyz"))
+                        .build()))
+                .add(shardInfo(UUID.randomUUID(), "node1", 20, ImmutableList.<ColumnStats>builder()
+                        .add(new ColumnStats(1, 15L, 25L))
+                        .add(new ColumnStats(2, 2.0, 8.5))
+                        .build()))
+                .add(shardInfo(UUID.randomUUID(), "node2", 30, ImmutableList.<ColumnStats>builder()
+                        .add(new ColumnStats(1, 30L, 40L))
+                        .build()))
+                .build();
+
+        long transactionId = shardManager.beginTransaction();
+        shardManager.commitShards(transactionId, tableId, columns, shards, Optional.empty());
+
+        // the range of c2 is unknown because the last shard has no statistics for it
+        statistics = shardManager.getTableStatistics(tableId, handles, TupleDomain.all());
+        assertEquals(statistics.getRowCount(), new Estimate(60));
+        assertEquals(statistics.getColumnStatistics().keySet(), ImmutableSet.of(c1));
+        assertColumnRange(statistics, c1, 5L, 40L);
+
+        // only the shards that may match the predicate are counted
+        TupleDomain<RaptorColumnHandle> predicate = TupleDomain.withColumnDomains(ImmutableMap.of(
+                c1, createDomain(lessThan(BIGINT, 20L))));
+        statistics = shardManager.getTableStatistics(tableId, handles, predicate);
+        assertEquals(statistics.getRowCount(), new Estimate(30));
+        assertEquals(statistics.getColumnStatistics().keySet(), ImmutableSet.of(c1, c2));
+        assertColumnRange(statistics, c1, 5L, 25L);
+        assertColumnRange(statistics, c2, -1.5, 8.5);
+
+        predicate = TupleDomain.withColumnDomains(ImmutableMap.of(
+                c1, createDomain(greaterThan(BIGINT, 100L))));
+        statistics = shardManager.getTableStatistics(tableId, handles, predicate);
+        assertEquals(statistics.getRowCount(), Estimate.zeroValue());
+        assertEquals(statistics.getColumnStatistics(), ImmutableMap.of());
+    }
+
+    private static void assertColumnRange(TableStatistics statistics, RaptorColumnHandle column, Object low, Object high)
+    {
+        ColumnStatistics columnStatistics = statistics.getColumnStatistics().get(column);
+        assertEquals(columnStatistics.getLowValue(), Optional.of(low));
+        assertEquals(columnStatistics.getHighValue(), Optional.of(high));
+    }
+
     private Set<ShardNodes> getShardNodes(long tableId, TupleDomain<RaptorColumnHandle> predicate)
     {
         try (ResultIterator<BucketShards> iterator = shardManager.getShardNodes(tableId, false, false, predicate)) {
@@ -613,7 +684,12 @@ public class TestDatabaseShardManager
 
     public static ShardInfo shardInfo(UUID shardUuid, String nodeId, List<ColumnStats> columnStats)
     {
-        return new ShardInfo(shardUuid, OptionalInt.empty(), ImmutableSet.of(nodeId), columnStats, 0, 0, 0);
+        return shardInfo(shardUuid, nodeId, 0, columnStats);
+    }
+
+    private static ShardInfo shardInfo(UUID shardUuid, String nodeId, long rowCount, List<ColumnStats> columnStats)
+    {
+        return new ShardInfo(shardUuid, OptionalInt.empty(), ImmutableSet.of(nodeId), columnStats, rowCount, 0, 0);
     }
 
     private static Set<ShardNodes> toShardNodes(List<ShardInfo> shards)
@@ -15,6 +15,7 @@ package com.facebook.presto.raptor.storage;
 
 import com.facebook.presto.metadata.InMemoryNodeManager;
 import com.facebook.presto.orc.OrcDataSource;
+import com.facebook.presto.orc.OrcMetadataCache;
 import com.facebook.presto.orc.OrcRecordReader;
 import com.facebook.presto.raptor.RaptorColumnHandle;
 import com.facebook.presto.raptor.backup.BackupManager;
@@ -619,6 +620,7 @@ public class TestOrcStorageManager
                 backupStore,
                 SHARD_DELTA_CODEC,
                 READER_ATTRIBUTES,
+                new OrcMetadataCache(new DataSize(1, MEGABYTE)),
                 new BackupManager(backupStore, 1),
                 recoveryManager,
                 shardRecorder,
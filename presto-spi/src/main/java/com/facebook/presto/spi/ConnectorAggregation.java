@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi;
+
+import com.facebook.presto.spi.type.Type;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An aggregation offered to a connector to compute in the table layout,
+ * such as {@code count(*)} or {@code sum(column)}.
+ */
+public final class ConnectorAggregation
+{
+    private final String functionName;
+    private final Optional<ColumnHandle> argument;
+    private final Type outputType;
+
+    public ConnectorAggregation(String functionName, Optional<ColumnHandle> argument, Type outputType)
+    {
+        this.functionName = requireNonNull(functionName, "functionName is null");
+        this.argument = requireNonNull(argument, "argument is null");
+        this.outputType = requireNonNull(outputType, "outputType is null");
+    }
+
+    public String getFunctionName()
+    {
+        return functionName;
+    }
+
+    /**
+     * @return the column the function is applied to, or empty for {@code count(*)}
+     */
+    public Optional<ColumnHandle> getArgument()
+    {
+        return argument;
+    }
+
+    public Type getOutputType()
+    {
+        return outputType;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConnectorAggregation that = (ConnectorAggregation) o;
+        return Objects.equals(functionName, that.functionName) &&
+                Objects.equals(argument, that.argument) &&
+                Objects.equals(outputType, that.outputType);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(functionName, argument, outputType);
+    }
+
+    @Override
+    public String toString()
+    {
+        return functionName + "(" + argument.map(Object::toString).orElse("*") + ")";
+    }
+}
@@ -14,6 +14,7 @@
 package com.facebook.presto.spi;
 
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import io.airlift.slice.Slice;
 
 import java.util.Collection;
@@ -60,6 +61,14 @@ public interface ConnectorMetadata
         throw new UnsupportedOperationException("not yet implemented");
     }
 
+    /**
+     * Return statistics of the data returned by a scan of the specified table layout.
+     */
+    default TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, ConnectorTableLayoutHandle layoutHandle)
+    {
+        return TableStatistics.EMPTY_STATISTICS;
+    }
+
     /**
      * Return the metadata for the specified table handle.
      *
@@ -276,6 +285,37 @@ public interface ConnectorMetadata
         throw new PrestoException(NOT_SUPPORTED, "This connector does not support deletes");
     }
 
+    /**
+     * Returns true if aggregations or limits over the table may be pushed into its
+     * layouts. The engine only computes the layouts needed for the push down when
+     * this returns true.
+     */
+    default boolean supportsPushDown(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return false;
+    }
+
+    /**
+     * Try to compute the aggregations of the rows of the table layout, grouped by the
+     * grouping columns. The returned layout must produce exactly one row per group
+     * across all of its splits, containing the grouping columns and the returned
+     * aggregation columns.
+     */
+    default Optional<ConnectorResolvedAggregation> pushDownAggregation(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<ConnectorAggregation> aggregations)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Try to limit the rows produced by each split of the table layout to the first
+     * rows in the sort order, or to any rows if the sort order is empty. The limit is
+     * still applied to the result of the table scan, so a split may produce more rows.
+     */
+    default Optional<ConnectorTableLayoutHandle> pushDownLimit(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<SortingProperty<ColumnHandle>> sortOrder, long limit)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Grants the specified privilege to the specified user on the specified table
      */
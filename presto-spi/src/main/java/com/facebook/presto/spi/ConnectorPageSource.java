@@ -15,10 +15,13 @@ package com.facebook.presto.spi;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public interface ConnectorPageSource
         extends Closeable
 {
+    CompletableFuture<?> NOT_BLOCKED = CompletableFuture.completedFuture(null);
+
     /**
      * Gets the total input bytes that will be processed by this page source.
      * This is normally the same size as the split.  If size is not available,
@@ -56,6 +59,17 @@ public interface ConnectorPageSource
      */
     long getSystemMemoryUsage();
 
+    /**
+     * Returns a future that will be completed when the page source becomes
+     * unblocked, for example because data it is reading in the background
+     * has arrived. If the page source is not blocked, this method should
+     * return {@code NOT_BLOCKED}.
+     */
+    default CompletableFuture<?> isBlocked()
+    {
+        return NOT_BLOCKED;
+    }
+
     /**
      * Immediately finishes this page source.  Presto will always call this method.
      */
@@ -13,10 +13,21 @@
  */
 package com.facebook.presto.spi;
 
+import com.facebook.presto.spi.predicate.TupleDomain;
+
 import java.util.List;
 
 @Deprecated
 public interface ConnectorPageSourceProvider
 {
     ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns);
+
+    /**
+     * Creates a page source that may skip rows whose values fall outside the dynamic filter.
+     * Applying the filter is optional, and the page source need not remove every such row.
+     */
+    default ConnectorPageSource createPageSource(ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        return createPageSource(session, split, columns);
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class ConnectorResolvedAggregation
+{
+    private final ConnectorTableLayoutHandle layoutHandle;
+    private final List<ColumnHandle> aggregationColumns;
+
+    /**
+     * @param layoutHandle a layout that produces one row per group
+     * @param aggregationColumns the columns that contain the result of each aggregation, in the order the aggregations were offered
+     */
+    public ConnectorResolvedAggregation(ConnectorTableLayoutHandle layoutHandle, List<ColumnHandle> aggregationColumns)
+    {
+        this.layoutHandle = Objects.requireNonNull(layoutHandle, "layoutHandle is null");
+        this.aggregationColumns = Collections.unmodifiableList(new ArrayList<>(Objects.requireNonNull(aggregationColumns, "aggregationColumns is null")));
+    }
+
+    public ConnectorTableLayoutHandle getLayoutHandle()
+    {
+        return layoutHandle;
+    }
+
+    public List<ColumnHandle> getAggregationColumns()
+    {
+        return aggregationColumns;
+    }
+}
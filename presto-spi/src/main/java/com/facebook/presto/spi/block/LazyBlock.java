@@ -240,6 +240,31 @@ public class LazyBlock
         this.block = requireNonNull(block, "block is null");
     }
 
+    /**
+     * Loads this block reading only the specified positions, if the loader supports
+     * it; otherwise the whole block is loaded. The other positions may be loaded
+     * as null, so this may only be used by the owner of the page, when it knows
+     * the other positions will never be read.
+     */
+    public void loadPositions(int[] positions, int positionCount)
+    {
+        if (block != null) {
+            return;
+        }
+        if (!(loader instanceof SelectiveLazyBlockLoader)) {
+            assureLoaded();
+            return;
+        }
+        ((SelectiveLazyBlockLoader<LazyBlock>) loader).load(this, positions, positionCount);
+
+        if (block == null) {
+            throw new IllegalArgumentException("Lazy block loader did not load this block");
+        }
+
+        // clear reference to loader to free resources, since load was successful
+        loader = null;
+    }
+
     @Override
     public void assureLoaded()
     {
@@ -0,0 +1,29 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.block;
+
+/**
+ * A loader that can decode a subset of the positions of a lazy block. The
+ * loaded block must still have the full position count; the positions that
+ * were not requested are loaded as null.
+ */
+public interface SelectiveLazyBlockLoader<T extends Block>
+        extends LazyBlockLoader<T>
+{
+    /**
+     * Loads the block decoding only the first {@code positionCount} entries
+     * of {@code positions}, which are sorted in increasing order.
+     */
+    void load(T block, int[] positions, int positionCount);
+}
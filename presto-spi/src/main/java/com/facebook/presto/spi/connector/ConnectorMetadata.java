@@ -15,9 +15,11 @@ package com.facebook.presto.spi.connector;
 
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregation;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.ConnectorNewTableLayout;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
+import com.facebook.presto.spi.ConnectorResolvedAggregation;
 import com.facebook.presto.spi.ConnectorResolvedIndex;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorTableHandle;
@@ -30,8 +32,10 @@ import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.Privilege;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import io.airlift.slice.Slice;
 
 import java.util.Collection;
@@ -71,6 +75,14 @@ public interface ConnectorMetadata
 
     ConnectorTableLayout getTableLayout(ConnectorSession session, ConnectorTableLayoutHandle handle);
 
+    /**
+     * Return statistics of the data returned by a scan of the specified table layout.
+     */
+    default TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, ConnectorTableLayoutHandle layoutHandle)
+    {
+        return TableStatistics.EMPTY_STATISTICS;
+    }
+
     /**
      * Return the metadata for the specified table handle.
      *
@@ -288,6 +300,37 @@ public interface ConnectorMetadata
         return Optional.empty();
     }
 
+    /**
+     * Returns true if aggregations or limits over the table may be pushed into its
+     * layouts. The engine only computes the layouts needed for the push down when
+     * this returns true.
+     */
+    default boolean supportsPushDown(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return false;
+    }
+
+    /**
+     * Try to compute the aggregations of the rows of the table layout, grouped by the
+     * grouping columns. The returned layout must produce exactly one row per group
+     * across all of its splits, containing the grouping columns and the returned
+     * aggregation columns.
+     */
+    default Optional<ConnectorResolvedAggregation> pushDownAggregation(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<ConnectorAggregation> aggregations)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Try to limit the rows produced by each split of the table layout to the first
+     * rows in the sort order, or to any rows if the sort order is empty. The limit is
+     * still applied to the result of the table scan, so a split may produce more rows.
+     */
+    default Optional<ConnectorTableLayoutHandle> pushDownLimit(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<SortingProperty<ColumnHandle>> sortOrder, long limit)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Grants the specified privilege to the specified user on the specified table
      */
@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.statistics;
+
+import com.facebook.presto.spi.ColumnHandle;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.facebook.presto.spi.statistics.Estimate.unknownValue;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statistics of the data returned by a scan of a table layout. Columns
+ * without statistics are not present in the column statistics map.
+ */
+public final class TableStatistics
+{
+    public static final TableStatistics EMPTY_STATISTICS = new TableStatistics(unknownValue(), Collections.emptyMap());
+
+    private final Estimate rowCount;
+    private final Map<ColumnHandle, ColumnStatistics> columnStatistics;
+
+    public TableStatistics(Estimate rowCount, Map<ColumnHandle, ColumnStatistics> columnStatistics)
+    {
+        this.rowCount = requireNonNull(rowCount, "rowCount is null");
+        this.columnStatistics = unmodifiableMap(new LinkedHashMap<>(requireNonNull(columnStatistics, "columnStatistics is null")));
+    }
+
+    public Estimate getRowCount()
+    {
+        return rowCount;
+    }
+
+    public Map<ColumnHandle, ColumnStatistics> getColumnStatistics()
+    {
+        return columnStatistics;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TableStatistics that = (TableStatistics) o;
+        return Objects.equals(rowCount, that.rowCount) &&
+                Objects.equals(columnStatistics, that.columnStatistics);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(rowCount, columnStatistics);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TableStatistics{rowCount=" + rowCount + ", columnStatistics=" + columnStatistics + '}';
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public static final class Builder
+    {
+        private Estimate rowCount = unknownValue();
+        private final Map<ColumnHandle, ColumnStatistics> columnStatistics = new LinkedHashMap<>();
+
+        private Builder() {}
+
+        public Builder setRowCount(Estimate rowCount)
+        {
+            this.rowCount = requireNonNull(rowCount, "rowCount is null");
+            return this;
+        }
+
+        public Builder setColumnStatistics(ColumnHandle columnHandle, ColumnStatistics columnStatistics)
+        {
+            requireNonNull(columnHandle, "columnHandle is null");
+            requireNonNull(columnStatistics, "columnStatistics is null");
+            this.columnStatistics.put(columnHandle, columnStatistics);
+            return this;
+        }
+
+        public TableStatistics build()
+        {
+            return new TableStatistics(rowCount, columnStatistics);
+        }
+    }
+}
@@ -16,10 +16,14 @@ package com.facebook.presto.spi.type;
 public final class StandardTypes
 {
     public static final String BIGINT = "bigint";
+    public static final String INTEGER = "integer";
+    public static final String SMALLINT = "smallint";
+    public static final String TINYINT = "tinyint";
     public static final String BOOLEAN = "boolean";
     public static final String DATE = "date";
     public static final String DECIMAL = "decimal";
     public static final String DOUBLE = "double";
+    public static final String REAL = "real";
     public static final String HYPER_LOG_LOG = "HyperLogLog";
     public static final String P4_HYPER_LOG_LOG = "P4HyperLogLog";
     public static final String INTERVAL_DAY_TO_SECOND = "interval day to second";
@@ -16,6 +16,8 @@ package com.facebook.presto.plugin.teradata;
 import com.facebook.presto.plugin.jdbc.BaseJdbcClient;
 import com.facebook.presto.plugin.jdbc.BaseJdbcConfig;
 import com.facebook.presto.plugin.jdbc.JdbcConnectorId;
+import com.facebook.presto.plugin.jdbc.JdbcSortItem;
+import com.facebook.presto.plugin.jdbc.JdbcTableLayoutHandle;
 import com.teradata.jdbc.TeraDriver;
 
 import javax.inject.Inject;
@@ -23,6 +25,8 @@ import javax.inject.Inject;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Created by charles on 6/12/15.
@@ -38,6 +42,13 @@ public class TeradataClient
         super(connectorId, config, "\"", new TeraDriver());
     }
 
+    @Override
+    public Optional<JdbcTableLayoutHandle> pushDownLimit(JdbcTableLayoutHandle layoutHandle, List<JdbcSortItem> sortOrder, long limit)
+    {
+        // Teradata limits rows with TOP instead of LIMIT
+        return Optional.empty();
+    }
+
     @Override
     public Statement getStatement(Connection connection)
             throws SQLException
@@ -1301,6 +1301,51 @@ public abstract class AbstractTestQueries
                         "GROUP BY linenumber, suppkey");
     }
 
+    @Test
+    public void testGroupingSets()
+            throws Exception
+    {
+        assertQuery(
+                "SELECT linenumber, suppkey, SUM(quantity) " +
+                        "FROM lineitem " +
+                        "GROUP BY GROUPING SETS ((linenumber, suppkey), (suppkey), ())",
+                "SELECT linenumber, suppkey, SUM(quantity) FROM lineitem GROUP BY linenumber, suppkey " +
+                        "UNION ALL " +
+                        "SELECT NULL, suppkey, SUM(quantity) FROM lineitem GROUP BY suppkey " +
+                        "UNION ALL " +
+                        "SELECT NULL, NULL, SUM(quantity) FROM lineitem");
+    }
+
+    @Test
+    public void testRollup()
+            throws Exception
+    {
+        assertQuery(
+                "SELECT linenumber, suppkey, SUM(quantity), COUNT(DISTINCT partkey), grouping(linenumber, suppkey) " +
+                        "FROM lineitem " +
+                        "GROUP BY ROLLUP (linenumber, suppkey)",
+                "SELECT linenumber, suppkey, SUM(quantity), COUNT(DISTINCT partkey), 0 FROM lineitem GROUP BY linenumber, suppkey " +
+                        "UNION ALL " +
+                        "SELECT linenumber, NULL, SUM(quantity), COUNT(DISTINCT partkey), 1 FROM lineitem GROUP BY linenumber " +
+                        "UNION ALL " +
+                        "SELECT NULL, NULL, SUM(quantity), COUNT(DISTINCT partkey), 3 FROM lineitem");
+    }
+
+    @Test
+    public void testCube()
+            throws Exception
+    {
+        // the grouping column is also an aggregation argument, which must not be nulled out
+        assertQuery(
+                "SELECT linenumber, MAX(linenumber), COUNT(*) " +
+                        "FROM lineitem " +
+                        "GROUP BY CUBE (linenumber) " +
+                        "HAVING grouping(linenumber) = 1 OR linenumber < 3",
+                "SELECT linenumber, MAX(linenumber), COUNT(*) FROM lineitem WHERE linenumber < 3 GROUP BY linenumber " +
+                        "UNION ALL " +
+                        "SELECT NULL, MAX(linenumber), COUNT(*) FROM lineitem");
+    }
+
     @Test
     public void testCountAllWithComparison()
             throws Exception